@@ -0,0 +1,154 @@
+package de.rumford.tradingsystem.benchmarks;
+
+import java.time.LocalDateTime;
+
+import de.rumford.tradingsystem.BaseValue;
+import de.rumford.tradingsystem.EWMAC;
+import de.rumford.tradingsystem.Rule;
+import de.rumford.tradingsystem.SubSystem;
+import de.rumford.tradingsystem.VolatilityDifference;
+import de.rumford.tradingsystem.helper.SyntheticSeriesGenerator;
+import de.rumford.tradingsystem.helper.SyntheticSeriesGenerator.Series;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * The BenchmarkSeries creates the deterministic input all benchmarks work on: daily values of a
+ * {@link SyntheticSeriesGenerator} and the matching volatility index, so that every benchmark sees the same data for
+ * the same length.
+ * 
+ * @author Max Rumford
+ */
+final class BenchmarkSeries {
+
+	/* The seed of the synthetic series, fixed to make runs comparable. */
+	static final long SEED = 42;
+	/* The base scale of all rules, as used by the ExampleClient. */
+	static final double BASE_SCALE = 10;
+	/* The lookback window of all VolatilityDifferences, as used by the ExampleClient. */
+	static final int LOOKBACK_WINDOW = 8;
+	/* The capital of all SubSystems, as used by the ExampleClient. */
+	static final double CAPITAL = 100000;
+
+	private final ValueDateTupel[] values;
+	private final ValueDateTupel[] volatilityIndexValues;
+
+	/**
+	 * Creates a BenchmarkSeries of the given length.
+	 * 
+	 * @param length {@code int} The number of values. Must be at least 100.
+	 */
+	BenchmarkSeries(int length) {
+		if (length < 100)
+			throw new IllegalArgumentException("Length must be at least 100");
+
+		SyntheticSeriesGenerator generator = new SyntheticSeriesGenerator(SEED, length);
+		this.values = generator.generate(Series.BASE_VALUES);
+		this.volatilityIndexValues = generator.generate(Series.VOLATILITY_INDEX);
+	}
+
+	/**
+	 * Creates an EWMAC with the variations of the ExampleClient.
+	 * 
+	 * @param  baseValue {@link BaseValue} The base value of the rule.
+	 * @return           {@link EWMAC} The created EWMAC.
+	 */
+	EWMAC createEwmac(BaseValue baseValue) {
+		EWMAC[] variations = {
+		        new EWMAC(baseValue, null, getStartOfReferenceWindow(), getEndOfReferenceWindow(), 8, 2, BASE_SCALE),
+		        new EWMAC(baseValue, null, getStartOfReferenceWindow(), getEndOfReferenceWindow(), 16, 4, BASE_SCALE),
+		        new EWMAC(baseValue, null, getStartOfReferenceWindow(), getEndOfReferenceWindow(), 32, 8,
+		                BASE_SCALE) };
+		return new EWMAC(baseValue, variations, getStartOfReferenceWindow(), getEndOfReferenceWindow(), 0, 0,
+		        BASE_SCALE);
+	}
+
+	/**
+	 * Creates a VolatilityDifference working on the volatility index of this series.
+	 * 
+	 * @param  baseValue {@link BaseValue} The base value of the rule.
+	 * @return           {@link VolatilityDifference} The created VolatilityDifference.
+	 */
+	VolatilityDifference createVolatilityDifference(BaseValue baseValue) {
+		return new VolatilityDifference(baseValue, null, getStartOfReferenceWindow(), getEndOfReferenceWindow(),
+		        LOOKBACK_WINDOW, BASE_SCALE, volatilityIndexValues);
+	}
+
+	/**
+	 * Creates the rules of the ExampleClient: an EWMAC with three variations and a VolatilityDifference.
+	 * 
+	 * @param  baseValue {@link BaseValue} The base value of the rules.
+	 * @return           {@code Rule[]} The created rules.
+	 */
+	Rule[] createRules(BaseValue baseValue) {
+		return new Rule[] { createVolatilityDifference(baseValue), createEwmac(baseValue) };
+	}
+
+	/**
+	 * Creates a SubSystem with the rules of {@link #createRules(BaseValue)}.
+	 * 
+	 * @return {@link SubSystem} The created SubSystem.
+	 */
+	SubSystem createSubSystem() {
+		BaseValue baseValue = createBaseValue();
+		return new SubSystem(baseValue, createRules(baseValue), CAPITAL, BASE_SCALE);
+	}
+
+	/**
+	 * Creates a BaseValue of the values of this series.
+	 * 
+	 * @return {@link BaseValue} The created BaseValue.
+	 */
+	BaseValue createBaseValue() {
+		return new BaseValue("benchmark", values);
+	}
+
+	/**
+	 * The reference window starts after the first tenth of the values, leaving room for the EWMAs to settle.
+	 * 
+	 * @return {@code LocalDateTime} The start of the reference window.
+	 */
+	LocalDateTime getStartOfReferenceWindow() {
+		return values[values.length / 10].getDate();
+	}
+
+	/**
+	 * The reference window ends at the middle of the values.
+	 * 
+	 * @return {@code LocalDateTime} The end of the reference window.
+	 */
+	LocalDateTime getEndOfReferenceWindow() {
+		return values[values.length / 2].getDate();
+	}
+
+	/**
+	 * The backtest starts right after the reference window.
+	 * 
+	 * @return {@code LocalDateTime} The start of the backtest.
+	 */
+	LocalDateTime getStartOfTestWindow() {
+		return values[values.length / 2 + 1].getDate();
+	}
+
+	/**
+	 * The backtest ends at the last value.
+	 * 
+	 * @return {@code LocalDateTime} The end of the backtest.
+	 */
+	LocalDateTime getEndOfTestWindow() {
+		return values[values.length - 1].getDate();
+	}
+
+	/**
+	 * @return {@code ValueDateTupel[]} values of this BenchmarkSeries
+	 */
+	ValueDateTupel[] getValues() {
+		return values;
+	}
+
+	/**
+	 * @return {@code ValueDateTupel[]} volatilityIndexValues of this BenchmarkSeries
+	 */
+	ValueDateTupel[] getVolatilityIndexValues() {
+		return volatilityIndexValues;
+	}
+}
@@ -0,0 +1,76 @@
+package de.rumford.tradingsystem.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.rumford.tradingsystem.helper.CsvFormat;
+import de.rumford.tradingsystem.helper.DataSource;
+import de.rumford.tradingsystem.helper.SyntheticSeriesGenerator;
+import de.rumford.tradingsystem.helper.SyntheticSeriesGenerator.Series;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * Benchmark of {@link DataSource#getDataFromCsv(String, CsvFormat)}. Reads a CSV file in {@link CsvFormat#EU} as
+ * found in the test resources.
+ * 
+ * @author Max Rumford
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataSourceBenchmark {
+
+	@Param({ "1000", "10000" })
+	int length;
+
+	Path file;
+
+	/**
+	 * Writes the base values of a {@link SyntheticSeriesGenerator} of the given length to a temporary CSV file.
+	 * 
+	 * @throws IOException if the file cannot be written.
+	 */
+	@Setup
+	public void setUp() throws IOException {
+		file = Files.createTempFile("DataSourceBenchmark", ".csv");
+		new SyntheticSeriesGenerator(BenchmarkSeries.SEED, length).writeCsv(file.toString(), Series.BASE_VALUES,
+		        CsvFormat.EU);
+	}
+
+	/**
+	 * Deletes the temporary CSV file.
+	 * 
+	 * @throws IOException if the file cannot be deleted.
+	 */
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	/**
+	 * @return             {@code ValueDateTupel[]} The values read from the CSV file.
+	 * @throws IOException if the file cannot be read.
+	 */
+	@Benchmark
+	public ValueDateTupel[] getDataFromCsv() throws IOException {
+		return DataSource.getDataFromCsv(file.toString(), CsvFormat.EU);
+	}
+}
@@ -0,0 +1,54 @@
+package de.rumford.tradingsystem.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.rumford.tradingsystem.DiversificationMultiplier;
+import de.rumford.tradingsystem.Rule;
+
+/**
+ * Benchmark of the construction of a {@link DiversificationMultiplier} of the rules of the ExampleClient.
+ * 
+ * @author Max Rumford
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DiversificationMultiplierBenchmark {
+
+	@Param({ "1000", "10000" })
+	int length;
+
+	Rule[] rules;
+
+	/**
+	 * Creates the rules, so only the DiversificationMultiplier is measured.
+	 */
+	@Setup
+	public void setUp() {
+		BenchmarkSeries series = new BenchmarkSeries(length);
+		rules = series.createRules(series.createBaseValue());
+	}
+
+	/**
+	 * @return {@link DiversificationMultiplier} The created DiversificationMultiplier.
+	 */
+	@Benchmark
+	public DiversificationMultiplier createDiversificationMultiplier() {
+		return new DiversificationMultiplier(rules);
+	}
+}
@@ -0,0 +1,56 @@
+package de.rumford.tradingsystem.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.rumford.tradingsystem.EWMA;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * Benchmark of the construction of an {@link EWMA}, which calculates the EWMA of every value.
+ * 
+ * @author Max Rumford
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EwmaBenchmark {
+
+	@Param({ "1000", "10000" })
+	int length;
+
+	@Param({ "8", "32" })
+	int horizon;
+
+	ValueDateTupel[] values;
+
+	/**
+	 * Creates the values of a {@link BenchmarkSeries} of the given length.
+	 */
+	@Setup
+	public void setUp() {
+		values = new BenchmarkSeries(length).getValues();
+	}
+
+	/**
+	 * @return {@link EWMA} The created EWMA.
+	 */
+	@Benchmark
+	public EWMA createEwma() {
+		return new EWMA(values, horizon);
+	}
+}
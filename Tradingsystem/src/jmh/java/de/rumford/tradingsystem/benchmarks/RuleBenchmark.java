@@ -0,0 +1,65 @@
+package de.rumford.tradingsystem.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.rumford.tradingsystem.BaseValue;
+import de.rumford.tradingsystem.EWMAC;
+import de.rumford.tradingsystem.VolatilityDifference;
+
+/**
+ * Benchmark of the forecast generation of the rules. Constructing a rule calculates its forecasts, its forecast
+ * scalar and those of its variations.
+ * 
+ * @author Max Rumford
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RuleBenchmark {
+
+	@Param({ "1000", "10000" })
+	int length;
+
+	BenchmarkSeries series;
+	BaseValue baseValue;
+
+	/**
+	 * Creates the {@link BenchmarkSeries} and its {@link BaseValue}, so only the rules are measured.
+	 */
+	@Setup
+	public void setUp() {
+		series = new BenchmarkSeries(length);
+		baseValue = series.createBaseValue();
+	}
+
+	/**
+	 * @return {@link EWMAC} The created EWMAC with three variations.
+	 */
+	@Benchmark
+	public EWMAC createEwmac() {
+		return series.createEwmac(baseValue);
+	}
+
+	/**
+	 * @return {@link VolatilityDifference} The created VolatilityDifference.
+	 */
+	@Benchmark
+	public VolatilityDifference createVolatilityDifference() {
+		return series.createVolatilityDifference(baseValue);
+	}
+}
@@ -0,0 +1,62 @@
+package de.rumford.tradingsystem.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.rumford.tradingsystem.SubSystem;
+
+/**
+ * Benchmark of a {@link SubSystem}: its construction, which combines the forecasts of all rules, and its backtest.
+ * 
+ * @author Max Rumford
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SubSystemBenchmark {
+
+	@Param({ "1000", "10000" })
+	int length;
+
+	BenchmarkSeries series;
+	SubSystem subSystem;
+
+	/**
+	 * Creates the {@link BenchmarkSeries} and a SubSystem to be backtested.
+	 */
+	@Setup
+	public void setUp() {
+		series = new BenchmarkSeries(length);
+		subSystem = series.createSubSystem();
+	}
+
+	/**
+	 * @return {@link SubSystem} The created SubSystem.
+	 */
+	@Benchmark
+	public SubSystem createSubSystem() {
+		return series.createSubSystem();
+	}
+
+	/**
+	 * @return {@code double} The performance of the backtest.
+	 */
+	@Benchmark
+	public double backtest() {
+		return subSystem.backtest(series.getStartOfTestWindow(), series.getEndOfTestWindow());
+	}
+}
@@ -0,0 +1,62 @@
+package de.rumford.tradingsystem.benchmarks;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.rumford.tradingsystem.helper.SyntheticSeriesGenerator;
+import de.rumford.tradingsystem.helper.SyntheticSeriesGenerator.Series;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * Benchmark of {@link ValueDateTupel#alignDates(ValueDateTupel[][])}. Aligns the base values and the volatility index
+ * of a {@link SyntheticSeriesGenerator}, each missing some of the other's dates.
+ * 
+ * @author Max Rumford
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValueDateTupelBenchmark {
+
+	/* The probability of a bar missing in either series. */
+	static final double GAP_PROBABILITY = 0.1;
+
+	@Param({ "1000", "10000" })
+	int length;
+
+	ValueDateTupel[][] valueDateTupels;
+
+	/**
+	 * Generates the series with a gap probability of {@link #GAP_PROBABILITY}.
+	 */
+	@Setup
+	public void setUp() {
+		SyntheticSeriesGenerator generator = new SyntheticSeriesGenerator(BenchmarkSeries.SEED, length,
+		        SyntheticSeriesGenerator.DEFAULT_FIRST_DATE, Duration.ofDays(1), GAP_PROBABILITY);
+		valueDateTupels = new ValueDateTupel[][] { generator.generate(Series.BASE_VALUES),
+		        generator.generate(Series.VOLATILITY_INDEX) };
+	}
+
+	/**
+	 * @return {@code ValueDateTupel[][]} The aligned values.
+	 */
+	@Benchmark
+	public ValueDateTupel[][] alignDates() {
+		return ValueDateTupel.alignDates(valueDateTupels);
+	}
+}
@@ -1,11 +1,16 @@
 package de.rumford.tradingsystem;
 
-import java.util.Arrays;
-
-import org.apache.commons.lang3.ArrayUtils;
+import java.time.LocalDateTime;
 
+import de.rumford.tradingsystem.helper.AppendableSeries;
+import de.rumford.tradingsystem.helper.CalculationEvent;
+import de.rumford.tradingsystem.helper.DerivedSeriesCache;
+import de.rumford.tradingsystem.helper.Fingerprint;
 import de.rumford.tradingsystem.helper.GeneratedCode;
+import de.rumford.tradingsystem.helper.Metrics;
+import de.rumford.tradingsystem.helper.MetricsRegistry;
 import de.rumford.tradingsystem.helper.Util;
+import de.rumford.tradingsystem.helper.ValidatedSeries;
 import de.rumford.tradingsystem.helper.Validator;
 import de.rumford.tradingsystem.helper.ValueDateTupel;
 
@@ -27,6 +32,12 @@ import de.rumford.tradingsystem.helper.ValueDateTupel;
  * between two time intervals from the previous short index value. The short index initial value simply marks the value
  * to be set for the first time interval. Its value does not play any role in further calculations, as proportions will
  * remain unaltered, no matter the actual initial value.
+ * <p>
+ * Further values can be appended by {@link #append(ValueDateTupel)} (or {@link #append(ValueDateTupel, ValueDateTupel)}
+ * if short index values were given). Standard deviation and short index are updated in constant time per appended
+ * value, continuing from the last values instead of recalculating all values. The values are held in
+ * {@link AppendableSeries}, so appending never copies previous values. Rules created before appending values do not
+ * take the appended values into account (see {@link LiveSubSystem} for updating forecasts incrementally).
  * 
  * @author Max Rumford
  */
@@ -36,17 +47,31 @@ public class BaseValue {
 	private static final int LOOKBACK_WINDOW = 25;
 	/* Starting value for the short index values if no values are provided */
 	private static final double SHORT_INDEX_INITIAL_VALUE = 1000d;
+	/* The name of the computation of short index values in the DerivedSeriesCache. */
+	static final String SHORT_INDEX_COMPUTATION = "BaseValue.shortIndex";
 
 	/* Name to identify an instance. Has no effect. */
 	private String name;
 	/* The values upon which the calculations shall take place. */
-	private ValueDateTupel[] values;
+	private AppendableSeries values;
 	/*
-	 * An array of values representing the short index values to the given values.
+	 * The series of values representing the short index values to the given values.
 	 */
-	private ValueDateTupel[] shortIndexValues;
-	/* An array of values representing the standard deviation values. */
-	private ValueDateTupel[] standardDeviationValues;
+	private AppendableSeries shortIndexValues;
+	/* The series of values representing the standard deviation values. */
+	private AppendableSeries standardDeviationValues;
+	/* The values as validated series. Null, if values have been appended since it was last validated. */
+	private ValidatedSeries validatedValues;
+	/* The fingerprint of the values, extended by every appended value. */
+	private Fingerprint valuesFingerprint;
+	/* The fingerprint of the short index values, extended by every appended short index value. */
+	private Fingerprint shortIndexValuesFingerprint;
+	/* Whether the short index values are calculated from the values instead of being given. */
+	private boolean shortIndexCalculated;
+	/* The EWMA of the squared returns, providing the decay for appended values. */
+	private EWMA squaredReturnsEwma;
+	/* The last value of the EWMA of the squared returns. */
+	private double squaredReturnsEwmaValue;
 
 	/**
 	 * Creates a new {@link BaseValue} instance using the passed {@code String} for identification and stores the passed
@@ -61,13 +86,9 @@ public class BaseValue {
 	 * @throws IllegalArgumentException if the input values are not within specification
 	 */
 	public BaseValue(String name, ValueDateTupel[] values) {
-		validateInput(name, values);
-
-		this.setName(name);
-		this.setValues(values);
+		ValidatedSeries validatedInput = validateInput(name, values);
 
-		this.setShortIndexValues(calculateShortIndexValues(values));
-		this.setStandardDeviationValues(calculateStandardDeviationValues(values));
+		this.initialize(name, values, validatedInput, null);
 	}
 
 	/**
@@ -87,7 +108,7 @@ public class BaseValue {
 	 * @throws IllegalArgumentException if the input values are not within specification
 	 */
 	public BaseValue(String name, ValueDateTupel[] values, ValueDateTupel[] shortIndexValues) {
-		this(name, values);
+		ValidatedSeries validatedInput = validateInput(name, values);
 
 		try {
 			Validator.validateValues(shortIndexValues);
@@ -99,8 +120,253 @@ public class BaseValue {
 		ValueDateTupel[][] valuesAndShortIndexValues = { values, shortIndexValues };
 
 		ValueDateTupel[][] alignedValuesAndShortIndexValues = ValueDateTupel.alignDates(valuesAndShortIndexValues);
-		this.setValues(alignedValuesAndShortIndexValues[0]);
-		this.setShortIndexValues(alignedValuesAndShortIndexValues[1]);
+		ValueDateTupel[] alignedValues = alignedValuesAndShortIndexValues[0];
+		/* If aligning added values, the aligned values are validated upon request. */
+		this.initialize(name, alignedValues, alignedValues.length == values.length ? validatedInput : null,
+		        alignedValuesAndShortIndexValues[1]);
+	}
+
+	/**
+	 * Sets the given values and derives the short index values, if none are given, and the standard deviation values
+	 * from them. Shared by the public constructors, so every derived value is calculated once from the final values.
+	 * 
+	 * @param name             {@code String} Name used to identify the represented base value.
+	 * @param values           {@code ValueDateTupel[]} The validated values, aligned to the short index values if
+	 *                         given.
+	 * @param validatedValues  {@link ValidatedSeries} The given values as validated series, null if it is to be
+	 *                         created upon request.
+	 * @param shortIndexValues {@code ValueDateTupel[]} The given short index values, aligned to the values. Null if
+	 *                         they are to be calculated.
+	 */
+	private void initialize(String name, ValueDateTupel[] values, ValidatedSeries validatedValues,
+	        ValueDateTupel[] shortIndexValues) {
+		this.setName(name);
+		this.setValues(values);
+		this.validatedValues = validatedValues;
+
+		long startNanos = System.nanoTime();
+		CalculationEvent event = new CalculationEvent.BaseValueDerivation();
+		event.begin();
+		this.shortIndexCalculated = shortIndexValues == null;
+		this.setShortIndexValues(this.shortIndexCalculated ? calculateShortIndexValues(values) : shortIndexValues);
+
+		EWMA calculatedSquaredReturnsEwma = calculateSquaredReturnsEwma(values);
+		ValueDateTupel[] squaredReturnsEwmaValues = calculatedSquaredReturnsEwma.getEwmaValues();
+		this.squaredReturnsEwma = calculatedSquaredReturnsEwma;
+		this.squaredReturnsEwmaValue = squaredReturnsEwmaValues[squaredReturnsEwmaValues.length - 1].getValue();
+		this.setStandardDeviationValues(calculateStandardDeviationValues(values, calculatedSquaredReturnsEwma));
+		event.commit(name, null, values.length);
+		MetricsRegistry registry = Metrics.getRegistry();
+		registry.counter(Metrics.BARS_PROCESSED, name).increment(values.length);
+		registry.timer(Metrics.BASE_VALUE_DERIVATION_DURATION, name).record(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Restores a {@link BaseValue} from its already derived values, e.g. read by {@link SubSystemCheckpoint}. Name and
+	 * values are validated like in {@link #BaseValue(String, ValueDateTupel[])} and the derived values are validated to
+	 * fit them, but nothing is calculated but the fingerprints of the values and short index values.
+	 * 
+	 * @param  name                     {@code String} Name used to identify the represented base value.
+	 * @param  values                   {@code ValueDateTupel[]} Values of the represented base value.
+	 * @param  shortIndexValues         {@code ValueDateTupel[]} Short index values of the represented base value.
+	 * @param  shortIndexCalculated     {@code boolean} Whether the short index values were calculated from the values
+	 *                                  instead of being given.
+	 * @param  standardDeviationValues  {@code ValueDateTupel[]} Standard deviation values of the represented base
+	 *                                  value.
+	 * @param  squaredReturnsEwma       {@link EWMA} The EWMA of the squared returns.
+	 * @param  squaredReturnsEwmaValue  {@code double} The last value of the EWMA of the squared returns, including
+	 *                                  appended values.
+	 * @throws IllegalArgumentException if the given values do not meet specifications.
+	 */
+	BaseValue(String name, ValueDateTupel[] values, ValueDateTupel[] shortIndexValues, boolean shortIndexCalculated,
+	        ValueDateTupel[] standardDeviationValues, EWMA squaredReturnsEwma, double squaredReturnsEwmaValue) {
+		ValidatedSeries validatedInput = validateInput(name, values);
+		validateDerivedValues(values, shortIndexValues, standardDeviationValues, squaredReturnsEwma,
+		        squaredReturnsEwmaValue);
+
+		this.restore(name, values, shortIndexValues, shortIndexCalculated, standardDeviationValues, squaredReturnsEwma,
+		        squaredReturnsEwmaValue, Fingerprint.EMPTY.with(values), Fingerprint.EMPTY.with(shortIndexValues));
+		this.validatedValues = validatedInput;
+	}
+
+	/**
+	 * Creates a {@link BaseValue} of already derived values and their fingerprints. Nothing is validated or
+	 * calculated, see {@link #restore(String, ValueDateTupel[], ValueDateTupel[], boolean, ValueDateTupel[], EWMA,
+	 * double, Fingerprint, Fingerprint)}.
+	 * 
+	 * @param name                        {@code String} Name used to identify the represented base value.
+	 * @param values                      {@code ValueDateTupel[]} Values of the represented base value.
+	 * @param shortIndexValues            {@code ValueDateTupel[]} Short index values of the represented base value.
+	 * @param shortIndexCalculated        {@code boolean} Whether the short index values are calculated from the
+	 *                                    values instead of being given.
+	 * @param standardDeviationValues     {@code ValueDateTupel[]} Standard deviation values of the represented base
+	 *                                    value.
+	 * @param squaredReturnsEwma          {@link EWMA} The EWMA of the squared returns.
+	 * @param squaredReturnsEwmaValue     {@code double} The last value of the EWMA of the squared returns, including
+	 *                                    appended values.
+	 * @param valuesFingerprint           {@link Fingerprint} The fingerprint of the given values.
+	 * @param shortIndexValuesFingerprint {@link Fingerprint} The fingerprint of the given short index values.
+	 */
+	private BaseValue(String name, ValueDateTupel[] values, ValueDateTupel[] shortIndexValues,
+	        boolean shortIndexCalculated, ValueDateTupel[] standardDeviationValues, EWMA squaredReturnsEwma,
+	        double squaredReturnsEwmaValue, Fingerprint valuesFingerprint, Fingerprint shortIndexValuesFingerprint) {
+		this.restore(name, values, shortIndexValues, shortIndexCalculated, standardDeviationValues, squaredReturnsEwma,
+		        squaredReturnsEwmaValue, valuesFingerprint, shortIndexValuesFingerprint);
+	}
+
+	/**
+	 * Sets the given already derived values and their fingerprints. Shared by the restoring constructors.
+	 * 
+	 * @param name                        {@code String} Name used to identify the represented base value.
+	 * @param values                      {@code ValueDateTupel[]} Values of the represented base value.
+	 * @param shortIndexValues            {@code ValueDateTupel[]} Short index values of the represented base value.
+	 * @param shortIndexCalculated        {@code boolean} Whether the short index values are calculated from the
+	 *                                    values instead of being given.
+	 * @param standardDeviationValues     {@code ValueDateTupel[]} Standard deviation values of the represented base
+	 *                                    value.
+	 * @param squaredReturnsEwma          {@link EWMA} The EWMA of the squared returns.
+	 * @param squaredReturnsEwmaValue     {@code double} The last value of the EWMA of the squared returns, including
+	 *                                    appended values.
+	 * @param valuesFingerprint           {@link Fingerprint} The fingerprint of the given values.
+	 * @param shortIndexValuesFingerprint {@link Fingerprint} The fingerprint of the given short index values.
+	 */
+	private void restore(String name, ValueDateTupel[] values, ValueDateTupel[] shortIndexValues,
+	        boolean shortIndexCalculated, ValueDateTupel[] standardDeviationValues, EWMA squaredReturnsEwma,
+	        double squaredReturnsEwmaValue, Fingerprint valuesFingerprint, Fingerprint shortIndexValuesFingerprint) {
+		this.setName(name);
+		this.values = new AppendableSeries(values);
+		this.valuesFingerprint = valuesFingerprint;
+		this.shortIndexValues = new AppendableSeries(shortIndexValues);
+		this.shortIndexValuesFingerprint = shortIndexValuesFingerprint;
+		this.shortIndexCalculated = shortIndexCalculated;
+		this.setStandardDeviationValues(standardDeviationValues);
+		this.squaredReturnsEwma = squaredReturnsEwma;
+		this.squaredReturnsEwmaValue = squaredReturnsEwmaValue;
+	}
+
+	/**
+	 * Creates a BaseValue continuing this BaseValue: It holds the same values and the same state of the standard
+	 * deviation, but values appended to either of both do not alter the other one. Nothing is copied or calculated, as
+	 * long as no values have been appended to this BaseValue. Used by {@link LiveSubSystem}, which appends every new
+	 * value to its own continuation, so the given SubSystem stays unchanged.
+	 * <p>
+	 * As live updates provide base values only, the short index values of the continuation are always continued by
+	 * calculation (see {@link #append(ValueDateTupel)}), even if the short index values of this BaseValue were given.
+	 * 
+	 * @return {@link BaseValue} The continuation of this BaseValue.
+	 */
+	BaseValue createContinuation() {
+		BaseValue continuation = new BaseValue(this.getName(), this.getValues(), this.getShortIndexValues(), true,
+		        this.getStandardDeviationValues(), this.squaredReturnsEwma, this.squaredReturnsEwmaValue,
+		        this.valuesFingerprint, this.shortIndexValuesFingerprint);
+		continuation.validatedValues = this.validatedValues;
+		return continuation;
+	}
+
+	/**
+	 * Appends the given value. Standard deviation and short index value are calculated for the appended value in
+	 * constant time. Only usable if the short index values are calculated, i.e. this BaseValue was created by
+	 * {@link #BaseValue(String, ValueDateTupel[])}.
+	 * 
+	 * @param  value                    {@link ValueDateTupel} The value to be appended. Must not be null. Must not be
+	 *                                  of Double.NaN. Its date must be after the date of the last value.
+	 * @throws IllegalArgumentException if the given value does not meet specifications or if the short index values
+	 *                                  were given.
+	 */
+	public void append(ValueDateTupel value) {
+		if (!this.shortIndexCalculated)
+			throw new IllegalArgumentException("Short index values were given upon instantiation, so a short index "
+			        + "value must be appended as well");
+		this.validateAppendedValue(value);
+
+		double returnPercentagePoints = this.appendValue(value);
+		this.appendShortIndexValue(new ValueDateTupel(value.getDate(),
+		        calculateShortIndexValue(this.shortIndexValues.getLast().getValue(), returnPercentagePoints)));
+	}
+
+	/**
+	 * Appends the given value and short index value. The standard deviation is calculated for the appended value in
+	 * constant time. Only usable if the short index values were given, i.e. this BaseValue was created by
+	 * {@link #BaseValue(String, ValueDateTupel[], ValueDateTupel[])}.
+	 * 
+	 * @param  value                    {@link ValueDateTupel} The value to be appended. Must not be null. Must not be
+	 *                                  of Double.NaN. Its date must be after the date of the last value.
+	 * @param  shortIndexValue          {@link ValueDateTupel} The short index value to be appended. Must not be null.
+	 *                                  Must not be of Double.NaN. Must be of the same date as the given value.
+	 * @throws IllegalArgumentException if the given values do not meet specifications or if the short index values
+	 *                                  are calculated.
+	 */
+	public void append(ValueDateTupel value, ValueDateTupel shortIndexValue) {
+		if (this.shortIndexCalculated)
+			throw new IllegalArgumentException(
+			        "Short index values are calculated, so no short index value must be appended");
+		this.validateAppendedValue(value);
+		if (shortIndexValue == null)
+			throw new IllegalArgumentException("Short index value must not be null");
+		if (Double.isNaN(shortIndexValue.getValue()))
+			throw new IllegalArgumentException("Short index value must not be NaN");
+		if (!shortIndexValue.getDate().equals(value.getDate()))
+			throw new IllegalArgumentException("Short index value must be of the same date as the value");
+
+		this.appendValue(value);
+		this.appendShortIndexValue(shortIndexValue);
+	}
+
+	/**
+	 * Appends the given short index value.
+	 * 
+	 * @param shortIndexValue {@link ValueDateTupel} The short index value to be appended.
+	 */
+	private void appendShortIndexValue(ValueDateTupel shortIndexValue) {
+		this.shortIndexValues.append(shortIndexValue);
+		this.shortIndexValuesFingerprint = this.shortIndexValuesFingerprint.with(shortIndexValue);
+	}
+
+	/**
+	 * Appends the given value and its standard deviation.
+	 * 
+	 * @param  value {@link ValueDateTupel} The value to be appended.
+	 * @return       {@code double} The return between the last value and the appended value.
+	 */
+	private double appendValue(ValueDateTupel value) {
+		double returns = Util.calculateReturn(this.values.getLast().getValue(), value.getValue());
+
+		/* Continue the EWMA of the squared returns as EWMA does, including its handling of Double.NaN. */
+		double squaredReturn = Math.pow(returns, 2);
+		double standardDeviation;
+		if (Double.isNaN(squaredReturn)) {
+			this.squaredReturnsEwmaValue = 0;
+			standardDeviation = Double.NaN;
+		} else {
+			this.squaredReturnsEwmaValue = this.squaredReturnsEwma.calculateEWMA(this.squaredReturnsEwmaValue,
+			        squaredReturn);
+			standardDeviation = calculateStandardDeviation(this.squaredReturnsEwmaValue, value.getValue());
+		}
+
+		this.values.append(value);
+		this.validatedValues = null;
+		this.valuesFingerprint = this.valuesFingerprint.with(value);
+		this.standardDeviationValues.append(new ValueDateTupel(value.getDate(), standardDeviation));
+		Metrics.getRegistry().counter(Metrics.BARS_PROCESSED, this.getName()).increment(1);
+		return returns;
+	}
+
+	/**
+	 * Validates a value to be appended.
+	 * 
+	 * @param  value                    {@link ValueDateTupel} Must not be null. Must not be of Double.NaN. Its date
+	 *                                  must be after the date of the last value.
+	 * @throws IllegalArgumentException if the given value does not meet specifications.
+	 */
+	private void validateAppendedValue(ValueDateTupel value) {
+		if (value == null)
+			throw new IllegalArgumentException("Value must not be null");
+		if (Double.isNaN(value.getValue()))
+			throw new IllegalArgumentException("Value must not be NaN");
+		LocalDateTime lastDate = this.values.getLast().getDate();
+		if (!value.getDate().isAfter(lastDate))
+			throw new IllegalArgumentException(
+			        "Date of the value must be after the date of the last value: " + lastDate);
 	}
 
 	/**
@@ -123,11 +389,29 @@ public class BaseValue {
 	 * @throws IllegalArgumentException if the passed values array contains no elements
 	 */
 	private static ValueDateTupel[] calculateShortIndexValues(ValueDateTupel[] values) {
+		/* Short index values are causal, so the values of a cached prefix of the values can be continued. */
+		return DerivedSeriesCache.getCache().computeCausal(SHORT_INDEX_COMPUTATION, values, new long[0],
+		        BaseValue::continueShortIndexValues);
+	}
+
+	/**
+	 * Calculates the short index values of the given values as of {@link #calculateShortIndexValues(ValueDateTupel[])},
+	 * continuing the given short index values of the first values.
+	 * 
+	 * @param  values              {@code ValueDateTupel[]} values to base the short index values on
+	 * @param  previousIndexValues {@code ValueDateTupel[]} The short index values of the first values. Empty if all
+	 *                             values are to be calculated.
+	 * @return                     {@code ValueDateTupel[]} array of short index values
+	 */
+	private static ValueDateTupel[] continueShortIndexValues(ValueDateTupel[] values,
+	        ValueDateTupel[] previousIndexValues) {
 		/**
 		 * Declare the return value. There are always as many short index values as there are base values.
 		 */
 		ValueDateTupel[] calculatedShortIndexValues = ValueDateTupel.createEmptyArray(values.length);
-		calculatedShortIndexValues[0] = new ValueDateTupel(values[0].getDate(), SHORT_INDEX_INITIAL_VALUE);
+		System.arraycopy(previousIndexValues, 0, calculatedShortIndexValues, 0, previousIndexValues.length);
+		if (previousIndexValues.length == 0)
+			calculatedShortIndexValues[0] = new ValueDateTupel(values[0].getDate(), SHORT_INDEX_INITIAL_VALUE);
 
 		ValueDateTupel formerValue;
 		ValueDateTupel latterValue;
@@ -136,21 +420,14 @@ public class BaseValue {
 		 * Loop over the provided values array and calculate the corresponding short index value for every time interval
 		 * t > 0.
 		 */
-		for (int i = 1; i < values.length; i++) {
+		for (int i = Math.max(1, previousIndexValues.length); i < values.length; i++) {
 			formerValue = values[i - 1];
 			latterValue = values[i];
 
 			double returnPercentagePoints = Util.calculateReturn(formerValue.getValue(), latterValue.getValue());
 
-			/**
-			 * If the base value generates more than 50% in returns (and thus decreasing the short index value by more
-			 * than 50%) the return percentage is set to 50%.
-			 */
-			if (returnPercentagePoints > 0.5)
-				returnPercentagePoints = 0.5;
-
-			double shortIndexValue = calculatedShortIndexValues[i - 1].getValue()
-			        - calculatedShortIndexValues[i - 1].getValue() * returnPercentagePoints;
+			double shortIndexValue = calculateShortIndexValue(calculatedShortIndexValues[i - 1].getValue(),
+			        returnPercentagePoints);
 
 			calculatedShortIndexValues[i] = new ValueDateTupel(latterValue.getDate(), shortIndexValue);
 		}
@@ -159,55 +436,92 @@ public class BaseValue {
 	}
 
 	/**
-	 * Calculate the standard deviation values for the given base values. The first value is always Double.NaN.
-	 * <p>
-	 * {@code sd = baseValue * sqrt[ EWMA( return^2 ) ]}
+	 * Calculates the short index value following the given short index value for the given return of the base value.
 	 * 
-	 * @param  baseValues {@code ValueDateTupel[]} the given base values.
-	 * @return            {@code ValueDateTupel[]} the calculated standard deviation values.
+	 * @param  previousShortIndexValue {@code double} The short index value of the previous time interval.
+	 * @param  returnPercentagePoints  {@code double} The return of the base value between both time intervals.
+	 * @return                         {@code double} The short index value.
 	 */
-	private static ValueDateTupel[] calculateStandardDeviationValues(ValueDateTupel[] baseValues) {
-
-		/*
-		 * Initiate the squared returns. The first value is always Double.NaN
+	private static double calculateShortIndexValue(double previousShortIndexValue, double returnPercentagePoints) {
+		/**
+		 * If the base value generates more than 50% in returns (and thus decreasing the short index value by more than
+		 * 50%) the return percentage is set to 50%.
 		 */
-		ValueDateTupel[] squaredReturns = {};
-
-		/* Calculate the squared returns */
-		for (int i = 0; i < baseValues.length - 1; i++) {
-			double returns;
-			returns = Util.calculateReturn(baseValues[i].getValue(), baseValues[i + 1].getValue());
-			squaredReturns = ArrayUtils.add(squaredReturns,
-			        new ValueDateTupel(baseValues[i + 1].getDate(), Math.pow(returns, 2)));
-		}
+		if (returnPercentagePoints > 0.5)
+			returnPercentagePoints = 0.5;
 
-		/* Instantiate the EWMA used for the standard deviation. */
-		EWMA ewmaOfStandardDeviation = new EWMA(squaredReturns, LOOKBACK_WINDOW);
+		return previousShortIndexValue - previousShortIndexValue * returnPercentagePoints;
+	}
 
+	/**
+	 * Calculate the standard deviation values for the given base values. The first value is always Double.NaN.
+	 * <p>
+	 * {@code sd = baseValue * sqrt[ EWMA( return^2 ) ]}
+	 * 
+	 * @param  baseValues              {@code ValueDateTupel[]} the given base values.
+	 * @param  ewmaOfStandardDeviation {@link EWMA} the EWMA of the squared returns of the given base values, see
+	 *                                 {@link #calculateSquaredReturnsEwma(ValueDateTupel[])}.
+	 * @return                         {@code ValueDateTupel[]} the calculated standard deviation values.
+	 */
+	private static ValueDateTupel[] calculateStandardDeviationValues(ValueDateTupel[] baseValues,
+	        EWMA ewmaOfStandardDeviation) {
 		/*
 		 * The first value is always Double.NaN, as the first value cannot have standard deviation from itself.
 		 */
-		ValueDateTupel[] standardDeviationValues = {};
+		ValueDateTupel[] ewmaValues = ewmaOfStandardDeviation.getEwmaValues();
+		ValueDateTupel[] standardDeviationValues = ValueDateTupel.createEmptyArray(ewmaValues.length);
 
 		/* Fill in the calculated values. */
-		for (int i = 0; i < squaredReturns.length; i++) {
-			double squaredEwmaOfVolatility = ewmaOfStandardDeviation.getEwmaValues()[i].getValue();
-			double ewmaOfVolatility = Math.sqrt(squaredEwmaOfVolatility);
+		for (int i = 0; i < ewmaValues.length; i++) {
 			/*
 			 * The base values array has one more value than the standardDeviationValues will have, as there cannot be a
 			 * standard deviation value for the first time interval. The first base value will not have a standard
 			 * deviation value. Therefore to e.g. calculate the _first_ sd value, the _second_ base value has to be
 			 * used.
 			 */
-			double standardDeviation = ewmaOfVolatility * baseValues[i + 1].getValue();
-			standardDeviationValues = ArrayUtils.add(standardDeviationValues,
-			        new ValueDateTupel(baseValues[i + 1].getDate(), standardDeviation));
+			double standardDeviation = calculateStandardDeviation(ewmaValues[i].getValue(),
+			        baseValues[i + 1].getValue());
+			standardDeviationValues[i] = new ValueDateTupel(baseValues[i + 1].getDate(), standardDeviation);
 		}
 
 		/* Return the standard deviations. */
 		return standardDeviationValues;
 	}
 
+	/**
+	 * Calculate the EWMA of the squared returns of the given base values. The EWMA values start with the second base
+	 * value, as there is no return for the first one.
+	 * 
+	 * @param  baseValues {@code ValueDateTupel[]} the given base values.
+	 * @return            {@link EWMA} The EWMA of the squared returns.
+	 */
+	static EWMA calculateSquaredReturnsEwma(ValueDateTupel[] baseValues) {
+		/*
+		 * Initiate the squared returns. The first value is always Double.NaN
+		 */
+		ValueDateTupel[] squaredReturns = ValueDateTupel.createEmptyArray(baseValues.length - 1);
+
+		/* Calculate the squared returns */
+		for (int i = 0; i < baseValues.length - 1; i++) {
+			double returns;
+			returns = Util.calculateReturn(baseValues[i].getValue(), baseValues[i + 1].getValue());
+			squaredReturns[i] = new ValueDateTupel(baseValues[i + 1].getDate(), Math.pow(returns, 2));
+		}
+
+		return new EWMA(squaredReturns, LOOKBACK_WINDOW);
+	}
+
+	/**
+	 * Calculate the standard deviation for one base value from the EWMA of the squared returns up to this base value.
+	 * 
+	 * @param  squaredReturnsEwmaValue {@code double} The EWMA of the squared returns.
+	 * @param  baseValue               {@code double} The base value.
+	 * @return                         {@code double} The standard deviation.
+	 */
+	static double calculateStandardDeviation(double squaredReturnsEwmaValue, double baseValue) {
+		return Math.sqrt(squaredReturnsEwmaValue) * baseValue;
+	}
+
 	/**
 	 * Validates the given parameters. Used by the Constructors to validate the constructor parameters.
 	 * 
@@ -216,9 +530,10 @@ public class BaseValue {
 	 * @param  values                   {@code ValueDateTupel[]} Values to be set for a {@link BaseValue}. Must pass
 	 *                                  {@link Validator#validateValues(ValueDateTupel[])} and
 	 *                                  {@link Validator#validateDates(ValueDateTupel[])}.
+	 * @return                          {@link ValidatedSeries} The given values as validated series.
 	 * @throws IllegalArgumentException if one of the above specifications is not met.
 	 */
-	private static void validateInput(String name, ValueDateTupel[] values) {
+	private static ValidatedSeries validateInput(String name, ValueDateTupel[] values) {
 		/* Check if name is null */
 		if (name == null)
 			throw new IllegalArgumentException("The given name must not be null");
@@ -227,8 +542,56 @@ public class BaseValue {
 		if (name.length() == 0)
 			throw new IllegalArgumentException("Name must not be an empty String");
 
-		Validator.validateValues(values);
-		Validator.validateDates(values);
+		return ValidatedSeries.of(values);
+	}
+
+	/**
+	 * Validates the given derived values fit the given validated values, as calculated by the public constructors and
+	 * {@link #append(ValueDateTupel)}. Used to validate restored values.
+	 * 
+	 * @param  values                   {@code ValueDateTupel[]} The validated values.
+	 * @param  shortIndexValues         {@code ValueDateTupel[]} The short index values. Must be of the dates of the
+	 *                                  values. Must not contain Double.NaN.
+	 * @param  standardDeviationValues  {@code ValueDateTupel[]} The standard deviation values. Must be of the dates of
+	 *                                  the values but the first one. Must not contain Double.NaN.
+	 * @param  squaredReturnsEwma       {@link EWMA} The EWMA of the squared returns. Must not be null. Must not be of
+	 *                                  more squared returns than there are values but the first one.
+	 * @param  squaredReturnsEwmaValue  {@code double} The last value of the EWMA of the squared returns. Must not be
+	 *                                  negative or Double.NaN.
+	 * @throws IllegalArgumentException if one of the above specifications is not met.
+	 */
+	private static void validateDerivedValues(ValueDateTupel[] values, ValueDateTupel[] shortIndexValues,
+	        ValueDateTupel[] standardDeviationValues, EWMA squaredReturnsEwma, double squaredReturnsEwmaValue) {
+		if (!fitsValues(values, shortIndexValues, 0))
+			throw new IllegalArgumentException("Short index values do not fit the values");
+
+		if (!fitsValues(values, standardDeviationValues, 1))
+			throw new IllegalArgumentException("Standard deviation values do not fit the values");
+
+		if (squaredReturnsEwma == null || squaredReturnsEwma.getBaseValues().length > values.length - 1)
+			throw new IllegalArgumentException("EWMA of the squared returns does not fit the values");
+
+		if (!(squaredReturnsEwmaValue >= 0))
+			throw new IllegalArgumentException("Last value of the EWMA of the squared returns must not be negative");
+	}
+
+	/**
+	 * Evaluates if the given series holds a value for every date of the given values from the given offset on.
+	 * 
+	 * @param  values {@code ValueDateTupel[]} The values.
+	 * @param  series {@code ValueDateTupel[]} The series to be evaluated.
+	 * @param  offset {@code int} The position of the value of the date of the first value of the series.
+	 * @return        {@code boolean} True, if the series is not null, has the dates of the values from the given
+	 *                offset on and does not contain Double.NaN. False otherwise.
+	 */
+	private static boolean fitsValues(ValueDateTupel[] values, ValueDateTupel[] series, int offset) {
+		if (series == null || series.length != values.length - offset)
+			return false;
+		for (int i = 0; i < series.length; i++)
+			if (series[i] == null || !values[i + offset].getDate().equals(series[i].getDate())
+			        || Double.isNaN(series[i].getValue()))
+				return false;
+		return true;
 	}
 
 	/**
@@ -237,23 +600,18 @@ public class BaseValue {
 	 */
 
 	/**
-	 * A hash code for this base value
+	 * A hash code for this base value, taken from its fingerprint.
 	 */
-	@GeneratedCode
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + ((name == null) ? 0 : name.hashCode());
-		result = prime * result + Arrays.hashCode(shortIndexValues);
-		result = prime * result + Arrays.hashCode(values);
-		return result;
+		return this.getFingerprint().hashCode();
 	}
 
 	/**
-	 * Checks if this base value is equal to another base value.
+	 * Checks if this base value is equal to another base value: of the same name, values and short index values. The
+	 * contents are compared by their fingerprints in constant time instead of value by value, see
+	 * {@link #getFingerprint()}.
 	 */
-	@GeneratedCode
 	@Override
 	public boolean equals(Object obj) {
 		if (this == obj)
@@ -263,16 +621,7 @@ public class BaseValue {
 		if (getClass() != obj.getClass())
 			return false;
 		BaseValue other = (BaseValue) obj;
-		if (name == null) {
-			if (other.name != null)
-				return false;
-		} else if (!name.equals(other.name))
-			return false;
-		if (!Arrays.equals(shortIndexValues, other.shortIndexValues))
-			return false;
-		if (!Arrays.equals(values, other.values))
-			return false;
-		return true;
+		return this.getFingerprint().equals(other.getFingerprint());
 	}
 
 	/**
@@ -285,11 +634,11 @@ public class BaseValue {
 		builder.append("BaseValue [name=");
 		builder.append(name);
 		builder.append(", values=");
-		builder.append(Arrays.toString(values));
+		builder.append(values);
 		builder.append(", shortIndexValues=");
-		builder.append(Arrays.toString(shortIndexValues));
+		builder.append(shortIndexValues);
 		builder.append(", standardDeviationValues=");
-		builder.append(Arrays.toString(standardDeviationValues));
+		builder.append(standardDeviationValues);
 		builder.append("]");
 		return builder.toString();
 	}
@@ -298,6 +647,17 @@ public class BaseValue {
 	 * ====================================================================== GETTERS AND SETTERS
 	 * ======================================================================
 	 */
+	/**
+	 * Get the fingerprint of this base value's name, values and short index values. The fingerprints of the values are
+	 * calculated upon instantiation and extended by every appended value, so this takes constant time. The standard
+	 * deviation values are derived from the values and therefore not fingerprinted separately.
+	 * 
+	 * @return {@link Fingerprint} The fingerprint of this base value.
+	 */
+	public Fingerprint getFingerprint() {
+		return Fingerprint.EMPTY.with(this.name).with(this.valuesFingerprint).with(this.shortIndexValuesFingerprint);
+	}
+
 	/**
 	 * Get the name of this {@link BaseValue}
 	 * 
@@ -317,12 +677,51 @@ public class BaseValue {
 	}
 
 	/**
-	 * Get the values of this {@link BaseValue}
+	 * Get the values of this {@link BaseValue}. After a value has been appended, the first call assembles all values
+	 * into a new array. To read values after every appended value, use {@link #getValue(int)} and
+	 * {@link #getNumberOfValues()} instead, which take constant time.
 	 * 
 	 * @return values {@code ValueDateTupel[]} BaseValue
 	 */
 	public ValueDateTupel[] getValues() {
-		return values;
+		return values.toArray();
+	}
+
+	/**
+	 * Get the value at the given position in constant time, including appended values.
+	 * 
+	 * @param  position                 {@code int} The position of the value. Must be at least 0 and less than
+	 *                                  {@link #getNumberOfValues()}.
+	 * @return                          {@link ValueDateTupel} The value at the given position.
+	 * @throws IllegalArgumentException if the given position is out of bounds.
+	 */
+	public ValueDateTupel getValue(int position) {
+		return values.get(position);
+	}
+
+	/**
+	 * Get the number of values of this {@link BaseValue}, including appended values.
+	 * 
+	 * @return {@code int} The number of values.
+	 */
+	public int getNumberOfValues() {
+		return values.size();
+	}
+
+	/**
+	 * Get the values of this {@link BaseValue} as validated series, so rules built upon them need not validate them
+	 * again. The values are validated upon instantiation; after values have been appended, they are validated once
+	 * upon the next call.
+	 * 
+	 * @return {@link ValidatedSeries} The values of this base value.
+	 */
+	public ValidatedSeries getValidatedValues() {
+		ValidatedSeries localValidatedValues = this.validatedValues;
+		if (localValidatedValues == null) {
+			localValidatedValues = ValidatedSeries.of(this.getValues());
+			this.validatedValues = localValidatedValues;
+		}
+		return localValidatedValues;
 	}
 
 	/**
@@ -331,7 +730,9 @@ public class BaseValue {
 	 * @param values {@code ValueDateTupel[]} the values to be set
 	 */
 	private void setValues(ValueDateTupel[] values) {
-		this.values = values;
+		this.values = new AppendableSeries(values);
+		this.validatedValues = null;
+		this.valuesFingerprint = Fingerprint.EMPTY.with(values);
 	}
 
 	/**
@@ -340,7 +741,19 @@ public class BaseValue {
 	 * @return shortIndexValues {@code ValueDateTupel[]} shortIndexValues of this {@link BaseValue}
 	 */
 	public ValueDateTupel[] getShortIndexValues() {
-		return shortIndexValues;
+		return shortIndexValues.toArray();
+	}
+
+	/**
+	 * Get the short index value at the given position in constant time, including appended values.
+	 * 
+	 * @param  position                 {@code int} The position of the short index value. Must be at least 0 and less
+	 *                                  than {@link #getNumberOfValues()}.
+	 * @return                          {@link ValueDateTupel} The short index value at the given position.
+	 * @throws IllegalArgumentException if the given position is out of bounds.
+	 */
+	public ValueDateTupel getShortIndexValue(int position) {
+		return shortIndexValues.get(position);
 	}
 
 	/**
@@ -349,7 +762,8 @@ public class BaseValue {
 	 * @param shortIndexValues {@code ValueDateTupel[]} the shortIndexValues to be set
 	 */
 	private void setShortIndexValues(ValueDateTupel[] shortIndexValues) {
-		this.shortIndexValues = shortIndexValues;
+		this.shortIndexValues = new AppendableSeries(shortIndexValues);
+		this.shortIndexValuesFingerprint = Fingerprint.EMPTY.with(shortIndexValues);
 	}
 
 	/**
@@ -358,7 +772,20 @@ public class BaseValue {
 	 * @return standardDeviationValues BaseValue
 	 */
 	public ValueDateTupel[] getStandardDeviationValues() {
-		return standardDeviationValues;
+		return standardDeviationValues.toArray();
+	}
+
+	/**
+	 * Get the standard deviation value at the given position in constant time, including appended values. Positions
+	 * are those of {@link #getStandardDeviationValues()}, which holds no value for the first value.
+	 * 
+	 * @param  position                 {@code int} The position of the standard deviation value. Must be at least 0
+	 *                                  and less than {@link #getNumberOfValues()} - 1.
+	 * @return                          {@link ValueDateTupel} The standard deviation value at the given position.
+	 * @throws IllegalArgumentException if the given position is out of bounds.
+	 */
+	public ValueDateTupel getStandardDeviationValue(int position) {
+		return standardDeviationValues.get(position);
 	}
 
 	/**
@@ -367,6 +794,33 @@ public class BaseValue {
 	 * @param standardDeviationValues the standardDeviationValues to set
 	 */
 	private void setStandardDeviationValues(ValueDateTupel[] standardDeviationValues) {
-		this.standardDeviationValues = standardDeviationValues;
+		this.standardDeviationValues = new AppendableSeries(standardDeviationValues);
+	}
+
+	/**
+	 * Evaluates if the short index values of this base value are calculated from its values.
+	 * 
+	 * @return {@code boolean} True, if the short index values are calculated. False, if they were given.
+	 */
+	boolean isShortIndexCalculated() {
+		return shortIndexCalculated;
+	}
+
+	/**
+	 * Get the EWMA of the squared returns of this base value. Does not include appended values.
+	 * 
+	 * @return {@link EWMA} The EWMA of the squared returns.
+	 */
+	EWMA getSquaredReturnsEwma() {
+		return squaredReturnsEwma;
+	}
+
+	/**
+	 * Get the last value of the EWMA of the squared returns, including appended values.
+	 * 
+	 * @return {@code double} The last value of the EWMA of the squared returns.
+	 */
+	double getSquaredReturnsEwmaValue() {
+		return squaredReturnsEwmaValue;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,777 @@
+package de.rumford.tradingsystem;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import de.rumford.tradingsystem.helper.CsvFormat;
+import de.rumford.tradingsystem.helper.DataSource;
+import de.rumford.tradingsystem.helper.DerivedSeriesCache;
+import de.rumford.tradingsystem.helper.GeneratedCode;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * The BatchConfiguration describes a set of {@link SubSystem}s to be built and backtested by the {@link BatchRunner}.
+ * It is read from a properties file, for example:
+ * 
+ * <pre>
+ * instruments = DAX, STOXX
+ * parallelism = 4
+ * output = results.csv
+ * csvFormat = EU
+ * capital = 100000
+ * baseScale = 10
+ * referenceWindow = 2014-01-02T22:00/2018-12-28T22:00
+ * testWindow = 2019-01-02T22:00/2019-12-30T22:00
+ * rules = VolatilityDifference(8); EWMAC[EWMAC(8, 2), EWMAC(16, 4), EWMAC(32, 8)]
+ * 
+ * DAX.file = DAX.csv
+ * DAX.shortFile = DAX_short.csv
+ * DAX.volatilityFile = DAX_VDAX.csv
+ * DAX.capital = 20020
+ * 
+ * STOXX.name = EURO STOXX 50
+ * STOXX.file = STOXX.csv
+ * </pre>
+ * 
+ * "instruments" lists the ids of all instruments. Every other key but "parallelism" and "output" can be given for
+ * all instruments and overridden per instrument by prefixing it with the id of the instrument and a dot. The keys are:
+ * <ul>
+ * <li>name: The name of the base value. The id of the instrument by default.</li>
+ * <li>file: The CSV file of the base values. Required.</li>
+ * <li>shortFile: The CSV file of the short index values. Optional.</li>
+ * <li>volatilityFile: The CSV file of the volatility index values used by {@link VolatilityDifference}s. Optional,
+ * if not given the VolatilityDifferences calculate their volatility indices themselves.</li>
+ * <li>csvFormat: The {@link CsvFormat} of all files of the instrument. {@link CsvFormat#EU} by default.</li>
+ * <li>capital, baseScale: The capital and base scale of the SubSystem. Required.</li>
+ * <li>referenceWindow, testWindow: The reference window of the rules and the test window of the backtest as start
+ * and end in ISO format separated by "/". Required.</li>
+ * <li>rules: The rules of the SubSystem separated by ";", see {@link RuleDefinition#parse(String)}. Required.</li>
+ * </ul>
+ * "parallelism" is the number of instruments processed at once, the number of available processors by default.
+ * "output" is the CSV file the results are written to, "results.csv" by default. "cacheDirectory" is the directory of
+ * the {@link DerivedSeriesCache}, so nightly reruns reuse the values derived in earlier runs; nothing is cached if not
+ * given. Relative paths are resolved against the directory of the configuration file.
+ * 
+ * @author Max Rumford
+ */
+public class BatchConfiguration {
+
+	/* The key of the list of instrument ids. */
+	static final String INSTRUMENTS = "instruments";
+	/* The key of the parallelism. */
+	static final String PARALLELISM = "parallelism";
+	/* The key of the output file. */
+	static final String OUTPUT = "output";
+	/* The default output file. */
+	static final String DEFAULT_OUTPUT = "results.csv";
+	/* The key of the directory of the derived series cache. */
+	static final String CACHE_DIRECTORY = "cacheDirectory";
+
+	/* The configured instruments in order. */
+	private final List<InstrumentConfiguration> instruments;
+	/* The number of instruments processed at once. */
+	private final int parallelism;
+	/* The file the results are written to. */
+	private final Path output;
+	/* The directory of the derived series cache, null if not given. */
+	private final Path cacheDirectory;
+
+	/**
+	 * Creates a new BatchConfiguration of the given properties.
+	 * 
+	 * @param  properties               {@link Properties} The properties as described in {@link BatchConfiguration}.
+	 *                                  Must not be null.
+	 * @param  baseDirectory            {@link Path} The directory relative paths are resolved against. Must not be
+	 *                                  null.
+	 * @throws IllegalArgumentException if the given properties do not meet the specifications.
+	 */
+	public BatchConfiguration(Properties properties, Path baseDirectory) {
+		if (properties == null)
+			throw new IllegalArgumentException("Properties must not be null");
+		if (baseDirectory == null)
+			throw new IllegalArgumentException("Base directory must not be null");
+
+		Set<String> ids = new LinkedHashSet<>();
+		for (String id : getRequired(properties, INSTRUMENTS).split(","))
+			if (!id.isBlank() && !ids.add(id.strip()))
+				throw new IllegalArgumentException("Instrument " + id.strip() + " is listed more than once");
+		if (ids.isEmpty())
+			throw new IllegalArgumentException("Instruments must not be empty");
+
+		List<InstrumentConfiguration> configuredInstruments = new ArrayList<>(ids.size());
+		for (String id : ids)
+			configuredInstruments.add(new InstrumentConfiguration(id, properties, baseDirectory));
+		this.instruments = Collections.unmodifiableList(configuredInstruments);
+
+		String parallelismValue = properties.getProperty(PARALLELISM);
+		this.parallelism = parallelismValue == null ? Runtime.getRuntime().availableProcessors()
+		        : parseInt(PARALLELISM, parallelismValue);
+		if (this.parallelism < 1)
+			throw new IllegalArgumentException("Parallelism must be at least 1");
+
+		this.output = baseDirectory.resolve(properties.getProperty(OUTPUT, DEFAULT_OUTPUT).strip());
+		String cacheDirectoryName = properties.getProperty(CACHE_DIRECTORY);
+		this.cacheDirectory = cacheDirectoryName == null || cacheDirectoryName.isBlank() ? null
+		        : baseDirectory.resolve(cacheDirectoryName.strip());
+	}
+
+	/**
+	 * Reads the BatchConfiguration of the given properties file. Relative paths in it are resolved against the
+	 * directory of the file.
+	 * 
+	 * @param  path                     {@link Path} The properties file. Must not be null.
+	 * @return                          {@link BatchConfiguration} The read configuration.
+	 * @throws IOException              if the given file cannot be read.
+	 * @throws IllegalArgumentException if the given path is null or the properties do not meet the specifications.
+	 */
+	public static BatchConfiguration read(Path path) throws IOException {
+		if (path == null)
+			throw new IllegalArgumentException("Path must not be null");
+
+		Properties properties = new Properties();
+		try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			properties.load(reader);
+		}
+		Path baseDirectory = path.toAbsolutePath().getParent();
+		return new BatchConfiguration(properties, baseDirectory);
+	}
+
+	/**
+	 * Get the value of the given key, which is required.
+	 * 
+	 * @param  properties               {@link Properties} The properties.
+	 * @param  key                      {@code String} The key.
+	 * @return                          {@code String} The stripped value.
+	 * @throws IllegalArgumentException if the given key is not set.
+	 */
+	private static String getRequired(Properties properties, String key) {
+		String value = properties.getProperty(key);
+		if (value == null || value.isBlank())
+			throw new IllegalArgumentException("Property " + key + " must be set");
+		return value.strip();
+	}
+
+	/**
+	 * Parses the given value of the given key as int.
+	 * 
+	 * @param  key                      {@code String} The key, for the exception message.
+	 * @param  value                    {@code String} The value.
+	 * @return                          {@code int} The parsed value.
+	 * @throws IllegalArgumentException if the given value is no int.
+	 */
+	private static int parseInt(String key, String value) {
+		try {
+			return Integer.parseInt(value.strip());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Property " + key + " must be an integer but is " + value, e);
+		}
+	}
+
+	/**
+	 * Parses the given value of the given key as double.
+	 * 
+	 * @param  key                      {@code String} The key, for the exception message.
+	 * @param  value                    {@code String} The value.
+	 * @return                          {@code double} The parsed value.
+	 * @throws IllegalArgumentException if the given value is no double.
+	 */
+	private static double parseDouble(String key, String value) {
+		try {
+			return Double.parseDouble(value.strip());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Property " + key + " must be a number but is " + value, e);
+		}
+	}
+
+	/**
+	 * Parses the given value of the given key as window of two dates in ISO format separated by "/".
+	 * 
+	 * @param  key                      {@code String} The key, for the exception message.
+	 * @param  value                    {@code String} The value.
+	 * @return                          {@code LocalDateTime[]} The start and end of the window.
+	 * @throws IllegalArgumentException if the given value is no window.
+	 */
+	private static LocalDateTime[] parseWindow(String key, String value) {
+		String[] dates = value.split("/");
+		if (dates.length != 2)
+			throw new IllegalArgumentException("Property " + key + " must be given as start/end but is " + value);
+		try {
+			return new LocalDateTime[] { LocalDateTime.parse(dates[0].strip()), LocalDateTime.parse(dates[1].strip()) };
+		} catch (DateTimeParseException e) {
+			throw new IllegalArgumentException("Property " + key + " must consist of ISO dates but is " + value, e);
+		}
+	}
+
+	/**
+	 * ====================================================================== GETTERS AND SETTERS
+	 * ======================================================================
+	 */
+
+	/**
+	 * Get the configured instruments in order.
+	 * 
+	 * @return {@code List<InstrumentConfiguration>} An unmodifiable list of the instruments.
+	 */
+	public List<InstrumentConfiguration> getInstruments() {
+		return instruments;
+	}
+
+	/**
+	 * Get the number of instruments processed at once.
+	 * 
+	 * @return {@code int} The parallelism.
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Get the file the results are written to.
+	 * 
+	 * @return {@link Path} The output file.
+	 */
+	public Path getOutput() {
+		return output;
+	}
+
+	/**
+	 * Get the directory of the {@link DerivedSeriesCache}.
+	 * 
+	 * @return {@link Path} The cache directory, null if nothing is to be cached.
+	 */
+	public Path getCacheDirectory() {
+		return cacheDirectory;
+	}
+
+	/**
+	 * The configuration of one instrument, i.e. of one SubSystem. It holds the paths of the data files only, so the
+	 * data is not read before {@link #createSubSystem()} is called.
+	 */
+	public static final class InstrumentConfiguration {
+		/* The id of the instrument. */
+		private final String id;
+		/* The name of the base value. */
+		private final String name;
+		/* The file of the base values. */
+		private final Path file;
+		/* The file of the short index values, null if not given. */
+		private final Path shortFile;
+		/* The file of the volatility index values, null if not given. */
+		private final Path volatilityFile;
+		/* The format of all files. */
+		private final CsvFormat csvFormat;
+		/* The capital of the SubSystem. */
+		private final double capital;
+		/* The base scale of the SubSystem. */
+		private final double baseScale;
+		/* The start and end of the reference window. */
+		private final LocalDateTime[] referenceWindow;
+		/* The start and end of the test window. */
+		private final LocalDateTime[] testWindow;
+		/* The rules of the SubSystem. */
+		private final List<RuleDefinition> rules;
+
+		/**
+		 * Creates the configuration of the given instrument of the given properties.
+		 * 
+		 * @param  id                       {@code String} The id of the instrument.
+		 * @param  properties               {@link Properties} The properties.
+		 * @param  baseDirectory            {@link Path} The directory relative paths are resolved against.
+		 * @throws IllegalArgumentException if the properties of the instrument do not meet the specifications.
+		 */
+		InstrumentConfiguration(String id, Properties properties, Path baseDirectory) {
+			this.id = id;
+			this.name = this.get(properties, "name", id);
+			this.file = baseDirectory.resolve(this.getRequired(properties, "file"));
+			String shortFileName = this.get(properties, "shortFile", null);
+			this.shortFile = shortFileName == null ? null : baseDirectory.resolve(shortFileName);
+			String volatilityFileName = this.get(properties, "volatilityFile", null);
+			this.volatilityFile = volatilityFileName == null ? null : baseDirectory.resolve(volatilityFileName);
+
+			String csvFormatName = this.get(properties, "csvFormat", CsvFormat.EU.name());
+			try {
+				this.csvFormat = CsvFormat.valueOf(csvFormatName);
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException("CSV format of " + id + " is unknown: " + csvFormatName, e);
+			}
+
+			this.capital = parseDouble(id + ".capital", this.getRequired(properties, "capital"));
+			this.baseScale = parseDouble(id + ".baseScale", this.getRequired(properties, "baseScale"));
+			this.referenceWindow = parseWindow(id + ".referenceWindow",
+			        this.getRequired(properties, "referenceWindow"));
+			this.testWindow = parseWindow(id + ".testWindow", this.getRequired(properties, "testWindow"));
+			this.rules = RuleDefinition.parse(this.getRequired(properties, "rules"));
+		}
+
+		/**
+		 * Get the value of the given key for this instrument, i.e. the value of the key prefixed by the id if set,
+		 * else the value of the key itself.
+		 * 
+		 * @param  properties   {@link Properties} The properties.
+		 * @param  key          {@code String} The key.
+		 * @param  defaultValue {@code String} The value if neither is set.
+		 * @return              {@code String} The stripped value.
+		 */
+		private String get(Properties properties, String key, String defaultValue) {
+			String value = properties.getProperty(this.id + "." + key, properties.getProperty(key));
+			return value == null || value.isBlank() ? defaultValue : value.strip();
+		}
+
+		/**
+		 * Get the value of the given key for this instrument, which is required.
+		 * 
+		 * @param  properties               {@link Properties} The properties.
+		 * @param  key                      {@code String} The key.
+		 * @return                          {@code String} The stripped value.
+		 * @throws IllegalArgumentException if the given key is not set.
+		 */
+		private String getRequired(Properties properties, String key) {
+			String value = this.get(properties, key, null);
+			if (value == null)
+				throw new IllegalArgumentException("Property " + key + " must be set for " + this.id);
+			return value;
+		}
+
+		/**
+		 * Reads the data files and creates the SubSystem of this instrument. The values of all files are aligned to
+		 * the union of their dates by {@link ValueDateTupel#alignDates(ValueDateTupel[][])}: values missing in one
+		 * file are filled with the average of the values around them, or with the nearest value at either end. The
+		 * base value, the rules and the SubSystem are created by a {@link CalculationGraph}, creating and calculating
+		 * independent rules concurrently.
+		 * 
+		 * @return                          {@link SubSystem} The created SubSystem.
+		 * @throws IOException              if a data file cannot be read.
+		 * @throws IllegalArgumentException if the data or the rules do not meet the specifications of the SubSystem.
+		 */
+		public SubSystem createSubSystem() throws IOException {
+			List<ValueDateTupel[]> rows = new ArrayList<>(3);
+			rows.add(DataSource.getDataFromCsv(this.file.toString(), this.csvFormat));
+			if (this.shortFile != null)
+				rows.add(DataSource.getDataFromCsv(this.shortFile.toString(), this.csvFormat));
+			if (this.volatilityFile != null)
+				rows.add(DataSource.getDataFromCsv(this.volatilityFile.toString(), this.csvFormat));
+
+			ValueDateTupel[][] aligned = rows.size() == 1 ? new ValueDateTupel[][] { rows.get(0) }
+			        : ValueDateTupel.alignDates(rows.toArray(new ValueDateTupel[0][]));
+			Supplier<BaseValue> baseValue = this.shortFile == null ? () -> new BaseValue(this.name, aligned[0])
+			        : () -> new BaseValue(this.name, aligned[0], aligned[1]);
+			ValueDateTupel[] volatilityIndex = this.volatilityFile == null ? null : aligned[aligned.length - 1];
+
+			CalculationGraph.RuleNode[] ruleNodes = new CalculationGraph.RuleNode[this.rules.size()];
+			for (int i = 0; i < ruleNodes.length; i++)
+				ruleNodes[i] = this.rules.get(i).toNode(volatilityIndex, this.referenceWindow[0],
+				        this.referenceWindow[1], this.baseScale);
+			return new CalculationGraph(baseValue, ruleNodes, this.capital, this.baseScale).run();
+		}
+
+		/**
+		 * Outputs the fields of this InstrumentConfiguration as a {@code String}.
+		 */
+		@GeneratedCode
+		@Override
+		public String toString() {
+			StringBuilder builder = new StringBuilder();
+			builder.append("InstrumentConfiguration [id=");
+			builder.append(id);
+			builder.append(", name=");
+			builder.append(name);
+			builder.append(", file=");
+			builder.append(file);
+			builder.append(", capital=");
+			builder.append(capital);
+			builder.append(", rules=");
+			builder.append(rules);
+			builder.append("]");
+			return builder.toString();
+		}
+
+		/**
+		 * Get the id of the instrument.
+		 * 
+		 * @return {@code String} The id.
+		 */
+		public String getId() {
+			return id;
+		}
+
+		/**
+		 * Get the name of the base value.
+		 * 
+		 * @return {@code String} The name.
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Get the capital of the SubSystem.
+		 * 
+		 * @return {@code double} The capital.
+		 */
+		public double getCapital() {
+			return capital;
+		}
+
+		/**
+		 * Get the start of the test window.
+		 * 
+		 * @return {@link LocalDateTime} The start of the test window.
+		 */
+		public LocalDateTime getStartOfTestWindow() {
+			return testWindow[0];
+		}
+
+		/**
+		 * Get the end of the test window.
+		 * 
+		 * @return {@link LocalDateTime} The end of the test window.
+		 */
+		public LocalDateTime getEndOfTestWindow() {
+			return testWindow[1];
+		}
+
+		/**
+		 * Get the definitions of the rules of the SubSystem.
+		 * 
+		 * @return {@code List<RuleDefinition>} An unmodifiable list of the rule definitions.
+		 */
+		public List<RuleDefinition> getRules() {
+			return rules;
+		}
+	}
+
+	/**
+	 * The definition of a rule tree: either a rule with parameters, or a rule with variations of the same type.
+	 */
+	public static final class RuleDefinition {
+		/* The name of EWMACs. */
+		static final String EWMAC_NAME = "EWMAC";
+		/* The name of VolatilityDifferences. */
+		static final String VOLATILITY_DIFFERENCE_NAME = "VolatilityDifference";
+
+		/* The name of the type of the rule. */
+		private final String type;
+		/* The parameters of the rule, empty if it has variations. */
+		private final int[] parameters;
+		/* The definitions of the variations, empty if it has none. */
+		private final List<RuleDefinition> variations;
+
+		/**
+		 * Creates a new rule definition.
+		 * 
+		 * @param  type                     {@code String} The name of the type.
+		 * @param  parameters               {@code int[]} The parameters.
+		 * @param  variations               {@code List<RuleDefinition>} The variations.
+		 * @throws IllegalArgumentException if the type is unknown, the number of parameters does not fit the type or
+		 *                                  a variation is of another type.
+		 */
+		private RuleDefinition(String type, int[] parameters, List<RuleDefinition> variations) {
+			int expectedParameters;
+			if (EWMAC_NAME.equals(type))
+				expectedParameters = 2;
+			else if (VOLATILITY_DIFFERENCE_NAME.equals(type))
+				expectedParameters = 1;
+			else
+				throw new IllegalArgumentException("Rule type " + type + " is unknown");
+
+			if (variations.isEmpty() && parameters.length != expectedParameters)
+				throw new IllegalArgumentException(
+				        type + " must have " + expectedParameters + " parameters but has " + parameters.length);
+			for (RuleDefinition variation : variations)
+				if (!variation.type.equals(type))
+					throw new IllegalArgumentException("Variations of " + type + " must be of the same type");
+
+			this.type = type;
+			this.parameters = parameters;
+			this.variations = Collections.unmodifiableList(variations);
+		}
+
+		/**
+		 * Parses the given rule definitions separated by ";". A rule is given either with its parameters, the long and
+		 * short horizon for an EWMAC and the lookback window for a VolatilityDifference, or with its variations of the
+		 * same type, e.g.:
+		 * 
+		 * <pre>
+		 * VolatilityDifference(8); EWMAC[EWMAC(8, 2), EWMAC(16, 4), EWMAC(32, 8)]
+		 * </pre>
+		 * 
+		 * @param  text                     {@code String} The rule definitions. Must not be null.
+		 * @return                          {@code List<RuleDefinition>} An unmodifiable list of the parsed rules.
+		 * @throws IllegalArgumentException if the given text is null or no valid rule definitions.
+		 */
+		public static List<RuleDefinition> parse(String text) {
+			if (text == null)
+				throw new IllegalArgumentException("Rule definitions must not be null");
+
+			List<RuleDefinition> definitions = new ArrayList<>();
+			for (String rule : text.split(";"))
+				if (!rule.isBlank())
+					definitions.add(new RuleParser(rule).parseAll());
+			if (definitions.isEmpty())
+				throw new IllegalArgumentException("Rule definitions must not be empty");
+			return Collections.unmodifiableList(definitions);
+		}
+
+		/**
+		 * Creates the rule of this definition.
+		 * 
+		 * @param  baseValue                {@link BaseValue} The base value of the rule.
+		 * @param  volatilityIndex          {@code ValueDateTupel[]} The volatility index values for
+		 *                                  VolatilityDifferences. If null, they calculate their volatility indices
+		 *                                  themselves.
+		 * @param  startOfReferenceWindow   {@link LocalDateTime} The start of the reference window.
+		 * @param  endOfReferenceWindow     {@link LocalDateTime} The end of the reference window.
+		 * @param  baseScale                {@code double} The base scale.
+		 * @return                          {@link Rule} The created rule.
+		 * @throws IllegalArgumentException if the rule cannot be created of the given values.
+		 */
+		public Rule create(BaseValue baseValue, ValueDateTupel[] volatilityIndex, LocalDateTime startOfReferenceWindow,
+		        LocalDateTime endOfReferenceWindow, double baseScale) {
+			Rule[] createdVariations = null;
+			if (!this.variations.isEmpty()) {
+				createdVariations = new Rule[this.variations.size()];
+				for (int i = 0; i < createdVariations.length; i++)
+					createdVariations[i] = this.variations.get(i).create(baseValue, volatilityIndex,
+					        startOfReferenceWindow, endOfReferenceWindow, baseScale);
+			}
+			return this.create(baseValue, createdVariations, volatilityIndex, startOfReferenceWindow,
+			        endOfReferenceWindow, baseScale);
+		}
+
+		/**
+		 * Creates the node of this definition in a {@link CalculationGraph}, so the rule and its variations are created
+		 * by the graph.
+		 * 
+		 * @param  volatilityIndex        {@code ValueDateTupel[]} The volatility index values for
+		 *                                VolatilityDifferences. If null, they calculate their volatility indices
+		 *                                themselves.
+		 * @param  startOfReferenceWindow {@link LocalDateTime} The start of the reference window.
+		 * @param  endOfReferenceWindow   {@link LocalDateTime} The end of the reference window.
+		 * @param  baseScale              {@code double} The base scale.
+		 * @return                        {@link CalculationGraph.RuleNode} The node creating the rule.
+		 */
+		public CalculationGraph.RuleNode toNode(ValueDateTupel[] volatilityIndex,
+		        LocalDateTime startOfReferenceWindow, LocalDateTime endOfReferenceWindow, double baseScale) {
+			CalculationGraph.RuleNode[] variationNodes = new CalculationGraph.RuleNode[this.variations.size()];
+			for (int i = 0; i < variationNodes.length; i++)
+				variationNodes[i] = this.variations.get(i).toNode(volatilityIndex, startOfReferenceWindow,
+				        endOfReferenceWindow, baseScale);
+			return new CalculationGraph.RuleNode((baseValue, createdVariations) -> this.create(baseValue,
+			        createdVariations, volatilityIndex, startOfReferenceWindow, endOfReferenceWindow, baseScale),
+			        variationNodes);
+		}
+
+		/**
+		 * Creates the rule of this definition of its already created variations.
+		 * 
+		 * @param  baseValue                {@link BaseValue} The base value of the rule.
+		 * @param  createdVariations        {@code Rule[]} The created variations, of the type of this definition.
+		 *                                  Null if there are none.
+		 * @param  volatilityIndex          {@code ValueDateTupel[]} The volatility index values for
+		 *                                  VolatilityDifferences. If null, they calculate their volatility indices
+		 *                                  themselves.
+		 * @param  startOfReferenceWindow   {@link LocalDateTime} The start of the reference window.
+		 * @param  endOfReferenceWindow     {@link LocalDateTime} The end of the reference window.
+		 * @param  baseScale                {@code double} The base scale.
+		 * @return                          {@link Rule} The created rule.
+		 * @throws IllegalArgumentException if the rule cannot be created of the given values.
+		 */
+		private Rule create(BaseValue baseValue, Rule[] createdVariations, ValueDateTupel[] volatilityIndex,
+		        LocalDateTime startOfReferenceWindow, LocalDateTime endOfReferenceWindow, double baseScale) {
+			boolean hasVariations = createdVariations != null;
+			if (EWMAC_NAME.equals(this.type))
+				return new EWMAC(baseValue,
+				        hasVariations ? Arrays.copyOf(createdVariations, createdVariations.length, EWMAC[].class)
+				                : null,
+				        startOfReferenceWindow, endOfReferenceWindow, hasVariations ? 0 : this.parameters[0],
+				        hasVariations ? 0 : this.parameters[1], baseScale);
+
+			VolatilityDifference[] variationsOfType = hasVariations
+			        ? Arrays.copyOf(createdVariations, createdVariations.length, VolatilityDifference[].class)
+			        : null;
+			int lookbackWindow = hasVariations ? 0 : this.parameters[0];
+			if (volatilityIndex == null)
+				return new VolatilityDifference(baseValue, variationsOfType, startOfReferenceWindow,
+				        endOfReferenceWindow, lookbackWindow, baseScale);
+			return new VolatilityDifference(baseValue, variationsOfType, startOfReferenceWindow, endOfReferenceWindow,
+			        lookbackWindow, baseScale, volatilityIndex);
+		}
+
+		/**
+		 * Outputs this RuleDefinition in the syntax of {@link #parse(String)}.
+		 */
+		@Override
+		public String toString() {
+			StringBuilder builder = new StringBuilder(this.type);
+			if (this.variations.isEmpty()) {
+				builder.append('(');
+				for (int i = 0; i < this.parameters.length; i++)
+					builder.append(i == 0 ? "" : ", ").append(this.parameters[i]);
+				builder.append(')');
+			} else {
+				builder.append('[');
+				for (int i = 0; i < this.variations.size(); i++)
+					builder.append(i == 0 ? "" : ", ").append(this.variations.get(i));
+				builder.append(']');
+			}
+			return builder.toString();
+		}
+
+		/**
+		 * Get the name of the type of the rule.
+		 * 
+		 * @return {@code String} The name of the type.
+		 */
+		public String getType() {
+			return type;
+		}
+
+		/**
+		 * Get the definitions of the variations.
+		 * 
+		 * @return {@code List<RuleDefinition>} An unmodifiable list of the variations, empty if there are none.
+		 */
+		public List<RuleDefinition> getVariations() {
+			return variations;
+		}
+	}
+
+	/**
+	 * A recursive descent parser of a single rule definition.
+	 */
+	private static final class RuleParser {
+		/* The text to be parsed. */
+		private final String text;
+		/* The position of the next character to be parsed. */
+		private int position;
+
+		/**
+		 * Creates a new parser of the given text.
+		 * 
+		 * @param text {@code String} The text of one rule definition.
+		 */
+		RuleParser(String text) {
+			this.text = text;
+		}
+
+		/**
+		 * Parses the whole text as one rule definition.
+		 * 
+		 * @return                          {@link RuleDefinition} The parsed definition.
+		 * @throws IllegalArgumentException if the text is no valid rule definition.
+		 */
+		RuleDefinition parseAll() {
+			RuleDefinition definition = this.parseRule();
+			this.skipWhitespace();
+			if (this.position != this.text.length())
+				throw this.error("end of rule");
+			return definition;
+		}
+
+		/**
+		 * Parses a rule definition starting at the current position.
+		 * 
+		 * @return {@link RuleDefinition} The parsed definition.
+		 */
+		private RuleDefinition parseRule() {
+			this.skipWhitespace();
+			int start = this.position;
+			while (this.position < this.text.length() && Character.isLetter(this.text.charAt(this.position)))
+				this.position++;
+			if (start == this.position)
+				throw this.error("rule type");
+			String type = this.text.substring(start, this.position);
+
+			this.skipWhitespace();
+			if (this.accept('(')) {
+				List<Integer> parameters = new ArrayList<>();
+				do {
+					parameters.add(this.parseInt());
+				} while (this.accept(','));
+				this.expect(')');
+				return new RuleDefinition(type, parameters.stream().mapToInt(Integer::intValue).toArray(),
+				        new ArrayList<>());
+			}
+
+			this.expect('[');
+			List<RuleDefinition> variations = new ArrayList<>();
+			do {
+				variations.add(this.parseRule());
+			} while (this.accept(','));
+			this.expect(']');
+			return new RuleDefinition(type, new int[0], variations);
+		}
+
+		/**
+		 * Parses an int starting at the current position.
+		 * 
+		 * @return {@code int} The parsed int.
+		 */
+		private int parseInt() {
+			this.skipWhitespace();
+			int start = this.position;
+			while (this.position < this.text.length() && Character.isDigit(this.text.charAt(this.position)))
+				this.position++;
+			if (start == this.position)
+				throw this.error("integer");
+			return Integer.parseInt(this.text.substring(start, this.position));
+		}
+
+		/**
+		 * Skips the given character if it is next.
+		 * 
+		 * @param  character {@code char} The expected character.
+		 * @return           {@code boolean} True, if the character was skipped.
+		 */
+		private boolean accept(char character) {
+			this.skipWhitespace();
+			if (this.position < this.text.length() && this.text.charAt(this.position) == character) {
+				this.position++;
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Skips the given character, which must be next.
+		 * 
+		 * @param character {@code char} The expected character.
+		 */
+		private void expect(char character) {
+			if (!this.accept(character))
+				throw this.error("'" + character + "'");
+		}
+
+		/**
+		 * Skips all whitespace at the current position.
+		 */
+		private void skipWhitespace() {
+			while (this.position < this.text.length() && Character.isWhitespace(this.text.charAt(this.position)))
+				this.position++;
+		}
+
+		/**
+		 * Creates the exception for a missing element at the current position.
+		 * 
+		 * @param  expected {@code String} The expected element.
+		 * @return          {@link IllegalArgumentException} The exception to be thrown.
+		 */
+		private IllegalArgumentException error(String expected) {
+			return new IllegalArgumentException(
+			        "Expected " + expected + " at position " + this.position + " of rule " + this.text.strip());
+		}
+	}
+}
@@ -0,0 +1,317 @@
+package de.rumford.tradingsystem;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.Logger;
+
+import de.rumford.tradingsystem.BatchConfiguration.InstrumentConfiguration;
+import de.rumford.tradingsystem.helper.DerivedSeriesCache;
+import de.rumford.tradingsystem.helper.GeneratedCode;
+import de.rumford.tradingsystem.helper.InMemoryMetricsRegistry;
+import de.rumford.tradingsystem.helper.Metrics;
+import de.rumford.tradingsystem.helper.MetricsRegistry;
+import de.rumford.tradingsystem.helper.Util;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * The BatchRunner builds and backtests the SubSystems of all instruments of a {@link BatchConfiguration} and writes
+ * the results to a CSV file. It is meant to be run unattended, e.g. nightly over hundreds of instruments.
+ * <p>
+ * The instruments are processed by a pool of as many threads as the configured parallelism. Each task reads the data
+ * of its instrument, builds and backtests the SubSystem and keeps only the small {@link Result}, so at most as many
+ * SubSystems as the parallelism are held in memory at any time. An instrument that fails does not stop the others; its
+ * result carries the error message instead.
+ * 
+ * @author Max Rumford
+ */
+public class BatchRunner {
+
+	/* The logger of this class. */
+	private static final Logger logger = Logger.getLogger(BatchRunner.class);
+
+	/* The field separator of the written results. */
+	static final String SEPARATOR = ";";
+	/* The header of the written results. */
+	static final String HEADER = String.join(SEPARATOR, "instrument", "capital", "performanceValue", "return",
+	        "lastDate", "lastForecast", "position", "error");
+
+	/* The configuration to be run. */
+	private final BatchConfiguration configuration;
+
+	/**
+	 * Creates a new BatchRunner of the given configuration.
+	 * 
+	 * @param  configuration            {@link BatchConfiguration} The configuration. Must not be null.
+	 * @throws IllegalArgumentException if the given configuration is null.
+	 */
+	public BatchRunner(BatchConfiguration configuration) {
+		if (configuration == null)
+			throw new IllegalArgumentException("Configuration must not be null");
+		this.configuration = configuration;
+	}
+
+	/**
+	 * Builds and backtests the SubSystems of all instruments.
+	 * 
+	 * @return                       {@code List<Result>} The results in order of the configured instruments.
+	 * @throws IllegalStateException if the calling thread is interrupted while waiting for the instruments.
+	 */
+	public List<Result> run() {
+		List<InstrumentConfiguration> instruments = this.configuration.getInstruments();
+		ExecutorService executor = Executors
+		        .newFixedThreadPool(Math.min(this.configuration.getParallelism(), instruments.size()));
+		try {
+			List<Future<Result>> futures = new ArrayList<>(instruments.size());
+			for (InstrumentConfiguration instrument : instruments)
+				futures.add(executor.submit(() -> runInstrument(instrument)));
+
+			List<Result> results = new ArrayList<>(instruments.size());
+			for (int i = 0; i < futures.size(); i++) {
+				try {
+					results.add(futures.get(i).get());
+				} catch (ExecutionException e) {
+					/* runInstrument catches all exceptions, so only errors end up here. */
+					results.add(Result.ofError(instruments.get(i), e.getCause()));
+				}
+			}
+			return results;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while running the instruments.", e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Builds and backtests the SubSystem of the given instrument.
+	 * 
+	 * @param  instrument {@link InstrumentConfiguration} The instrument.
+	 * @return            {@link Result} The result, carrying the error if the instrument failed.
+	 */
+	static Result runInstrument(InstrumentConfiguration instrument) {
+		try {
+			SubSystem subSystem = instrument.createSubSystem();
+			double performanceValue = subSystem.backtest(instrument.getStartOfTestWindow(),
+			        instrument.getEndOfTestWindow());
+			ValueDateTupel[] combinedForecasts = subSystem.getCombinedForecasts();
+			ValueDateTupel lastForecast = combinedForecasts[combinedForecasts.length - 1];
+			logger.info("Instrument " + instrument.getId() + " done.");
+			return new Result(instrument.getName(), subSystem.getCapital(), performanceValue, lastForecast.getDate(),
+			        lastForecast.getValue(), null);
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Instrument " + instrument.getId() + " failed.", e);
+			return Result.ofError(instrument, e);
+		}
+	}
+
+	/**
+	 * Writes the given results as CSV, one line per result after a header line.
+	 * 
+	 * @param  results     {@code List<Result>} The results.
+	 * @param  output      {@link Path} The file to be written. Is replaced if it exists.
+	 * @throws IOException if the file cannot be written.
+	 */
+	public static void writeResults(List<Result> results, Path output) throws IOException {
+		try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+			writer.write(HEADER);
+			writer.newLine();
+			for (Result result : results) {
+				writer.write(result.toCsvLine());
+				writer.newLine();
+			}
+		}
+	}
+
+	/**
+	 * Runs the batch of the given configuration file and writes the results to the configured output file. The
+	 * {@link Metrics} of the run are collected in an {@link InMemoryMetricsRegistry} and logged at the end.
+	 * 
+	 * @param  args                     The path of the configuration file, see {@link BatchConfiguration}.
+	 * @throws IOException              if the configuration file cannot be read or the results cannot be written.
+	 * @throws IllegalArgumentException if the arguments or the configuration do not meet the specifications.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 1)
+			throw new IllegalArgumentException("Usage: BatchRunner <configuration file>");
+
+		BatchConfiguration configuration = BatchConfiguration.read(Path.of(args[0]));
+		if (configuration.getCacheDirectory() != null)
+			DerivedSeriesCache.setCache(new DerivedSeriesCache(configuration.getCacheDirectory()));
+		InMemoryMetricsRegistry metricsRegistry = new InMemoryMetricsRegistry();
+		Metrics.setRegistry(metricsRegistry);
+		LocalDateTime startingTime = LocalDateTime.now();
+		List<Result> results = new BatchRunner(configuration).run();
+		writeResults(results, configuration.getOutput());
+
+		long failed = results.stream().filter(result -> result.getError() != null).count();
+		logger.info(String.format("Ran %d instruments, %d failed, in %d ms. Results written to %s", results.size(),
+		        failed, Duration.between(startingTime, LocalDateTime.now()).toMillis(),
+		        configuration.getOutput()));
+		logger.info("Metrics:" + System.lineSeparator() + metricsRegistry.toText());
+		Metrics.setRegistry(MetricsRegistry.NOOP);
+	}
+
+	/**
+	 * The result of one instrument.
+	 */
+	public static final class Result {
+		/* The name of the instrument. */
+		private final String instrument;
+		/* The capital of the SubSystem. */
+		private final double capital;
+		/* The capital after the backtest, Double.NaN if failed. */
+		private final double performanceValue;
+		/* The date of the last combined forecast, null if failed. */
+		private final LocalDateTime lastDate;
+		/* The last combined forecast, Double.NaN if failed. */
+		private final double lastForecast;
+		/* The error message, null if succeeded. */
+		private final String error;
+
+		/**
+		 * Creates a new result.
+		 * 
+		 * @param instrument       {@code String} The name of the instrument.
+		 * @param capital          {@code double} The capital of the SubSystem.
+		 * @param performanceValue {@code double} The capital after the backtest.
+		 * @param lastDate         {@link LocalDateTime} The date of the last combined forecast.
+		 * @param lastForecast     {@code double} The last combined forecast.
+		 * @param error            {@code String} The error message, null if succeeded.
+		 */
+		Result(String instrument, double capital, double performanceValue, LocalDateTime lastDate,
+		        double lastForecast, String error) {
+			this.instrument = instrument;
+			this.capital = capital;
+			this.performanceValue = performanceValue;
+			this.lastDate = lastDate;
+			this.lastForecast = lastForecast;
+			this.error = error;
+		}
+
+		/**
+		 * Creates the result of the given failed instrument.
+		 * 
+		 * @param  instrument {@link InstrumentConfiguration} The instrument.
+		 * @param  cause      {@link Throwable} The cause of the failure.
+		 * @return            {@link Result} The result carrying the message of the cause.
+		 */
+		static Result ofError(InstrumentConfiguration instrument, Throwable cause) {
+			String message = cause.getMessage() == null ? cause.getClass().getName() : cause.getMessage();
+			return new Result(instrument.getName(), instrument.getCapital(), Double.NaN, null, Double.NaN, message);
+		}
+
+		/**
+		 * Outputs this result as CSV line matching {@link BatchRunner#HEADER}. Line breaks and separators in the
+		 * error message are replaced by blanks.
+		 * 
+		 * @return {@code String} The CSV line.
+		 */
+		String toCsvLine() {
+			boolean failed = this.error != null;
+			return String.join(SEPARATOR, this.instrument, String.valueOf(this.capital),
+			        failed ? "" : String.valueOf(this.performanceValue), failed ? "" : String.valueOf(this.getReturn()),
+			        failed ? "" : this.lastDate.toString(), failed ? "" : String.valueOf(this.lastForecast),
+			        failed ? "" : Util.getPositionFromForecast(this.lastForecast),
+			        failed ? this.error.replaceAll("[\\r\\n" + SEPARATOR + "]", " ") : "");
+		}
+
+		/**
+		 * Get the return of the backtest, see {@link Util#calculateReturn(double, double)}.
+		 * 
+		 * @return {@code double} The return, Double.NaN if failed.
+		 */
+		public double getReturn() {
+			return this.error != null ? Double.NaN : Util.calculateReturn(this.capital, this.performanceValue);
+		}
+
+		/**
+		 * Outputs the fields of this Result as a {@code String}.
+		 */
+		@GeneratedCode
+		@Override
+		public String toString() {
+			StringBuilder builder = new StringBuilder();
+			builder.append("Result [instrument=");
+			builder.append(instrument);
+			builder.append(", capital=");
+			builder.append(capital);
+			builder.append(", performanceValue=");
+			builder.append(performanceValue);
+			builder.append(", lastDate=");
+			builder.append(lastDate);
+			builder.append(", lastForecast=");
+			builder.append(lastForecast);
+			builder.append(", error=");
+			builder.append(error);
+			builder.append("]");
+			return builder.toString();
+		}
+
+		/**
+		 * Get the name of the instrument.
+		 * 
+		 * @return {@code String} The name.
+		 */
+		public String getInstrument() {
+			return instrument;
+		}
+
+		/**
+		 * Get the capital of the SubSystem.
+		 * 
+		 * @return {@code double} The capital.
+		 */
+		public double getCapital() {
+			return capital;
+		}
+
+		/**
+		 * Get the capital after the backtest.
+		 * 
+		 * @return {@code double} The performance value, Double.NaN if failed.
+		 */
+		public double getPerformanceValue() {
+			return performanceValue;
+		}
+
+		/**
+		 * Get the date of the last combined forecast.
+		 * 
+		 * @return {@link LocalDateTime} The date, null if failed.
+		 */
+		public LocalDateTime getLastDate() {
+			return lastDate;
+		}
+
+		/**
+		 * Get the last combined forecast.
+		 * 
+		 * @return {@code double} The forecast, Double.NaN if failed.
+		 */
+		public double getLastForecast() {
+			return lastForecast;
+		}
+
+		/**
+		 * Get the error message.
+		 * 
+		 * @return {@code String} The message, null if succeeded.
+		 */
+		public String getError() {
+			return error;
+		}
+	}
+}
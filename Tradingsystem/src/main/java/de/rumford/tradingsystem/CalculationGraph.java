@@ -0,0 +1,309 @@
+package de.rumford.tradingsystem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * The CalculationGraph builds a {@link SubSystem} from its definition, i.e. its base value, rules, capital and base
+ * scale, calculating independent parts concurrently.
+ * <p>
+ * Building a SubSystem derives the short index and standard deviation values of the base value, creates every rule,
+ * which calculates its EWMAs or volatility index and weighs its variations, calculates the forecasts of every rule,
+ * and finally calculates the diversification multiplier and the combined forecasts. Instead of doing so strictly one
+ * after the other, the CalculationGraph makes the base value a node, every rule a node creating it and a node
+ * calculating its forecasts, and the SubSystem a node depending on all its rules. The rules are created once the base
+ * value is derived; a rule with variations is created once the forecasts of its variations are calculated, as it weighs
+ * its variations upon creation. Every node is run on a work-stealing {@link ForkJoinPool} once all of its
+ * dependencies are done, so independent rules, e.g. all variations of a rule, are created and calculated concurrently.
+ * A {@link RuleNode} given more than once, e.g. as variation of several rules, is created and calculated once. As the
+ * rules it is a variation of weigh it upon creation, they are created one after the other in the order of their
+ * definition, so its weight is the same as if they were created sequentially.
+ * <p>
+ * A graph can also be made of already created rules, e.g. restored ones. Only their forecasts are calculated by the
+ * nodes then, as all values derived upon creation are already done. The base value and the rules must not be used by
+ * other threads while the graph is run.
+ * 
+ * @author Max Rumford
+ */
+public class CalculationGraph {
+
+	/* The node deriving the base value of the SubSystem. */
+	private final Supplier<BaseValue> baseValue;
+	/* The nodes of the rules of the SubSystem. */
+	private final RuleNode[] rules;
+	/* The capital of the SubSystem. */
+	private final double capital;
+	/* The base scale of the SubSystem. */
+	private final double baseScale;
+	/* All rule nodes including variations, each once, ordered so every node follows its variations. */
+	private final List<RuleNode> ruleNodes = new ArrayList<>();
+
+	/**
+	 * Creates the calculation graph of a SubSystem of the given definition. See
+	 * {@link SubSystem#SubSystem(BaseValue, Rule[], double, double)} for the specifications of the parameters, which
+	 * are validated upon {@link #run()}. The base value and the rules are created by the nodes of the graph.
+	 * 
+	 * @param  baseValue                {@code Supplier<BaseValue>} The supplier creating the base value of the
+	 *                                  SubSystem. Must not be null.
+	 * @param  rules                    {@code RuleNode[]} The nodes creating the rules of the SubSystem. Must not be
+	 *                                  null. Must not be empty. Must not contain null.
+	 * @param  capital                  {@code double} The capital of the SubSystem.
+	 * @param  baseScale                {@code double} The base scale of the SubSystem.
+	 * @throws IllegalArgumentException if the given supplier is null or the given rules are null, empty or contain
+	 *                                  null.
+	 */
+	public CalculationGraph(Supplier<BaseValue> baseValue, RuleNode[] rules, double capital, double baseScale) {
+		if (baseValue == null)
+			throw new IllegalArgumentException("Base value supplier must not be null");
+		if (rules == null)
+			throw new IllegalArgumentException("Rules must not be null");
+		if (rules.length == 0)
+			throw new IllegalArgumentException("Rules must not be an empty array");
+		for (int i = 0; i < rules.length; i++)
+			if (rules[i] == null)
+				throw new IllegalArgumentException("Rules must not contain null");
+
+		this.baseValue = baseValue;
+		this.rules = rules.clone();
+		this.capital = capital;
+		this.baseScale = baseScale;
+
+		Set<RuleNode> addedRules = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (RuleNode rule : this.rules)
+			this.addRuleNode(rule, addedRules);
+	}
+
+	/**
+	 * Creates the calculation graph of a SubSystem of the given definition, the rules of which are already created.
+	 * See {@link SubSystem#SubSystem(BaseValue, Rule[], double, double)} for the specifications of the parameters,
+	 * which are validated upon {@link #run()}. The nodes calculate the forecasts of the rules.
+	 * 
+	 * @param  baseValue                {@link BaseValue} The base value of the SubSystem.
+	 * @param  rules                    {@code Rule[]} The rules of the SubSystem. Must not be null. Must not be
+	 *                                  empty. Must not contain null.
+	 * @param  capital                  {@code double} The capital of the SubSystem.
+	 * @param  baseScale                {@code double} The base scale of the SubSystem.
+	 * @throws IllegalArgumentException if the given rules are null, empty or contain null.
+	 */
+	public CalculationGraph(BaseValue baseValue, Rule[] rules, double capital, double baseScale) {
+		this(() -> baseValue, RuleNode.ofCreated(rules), capital, baseScale);
+	}
+
+	/**
+	 * Adds the given node after all of its variations, unless it has already been added.
+	 * 
+	 * @param rule       {@link RuleNode} The node to be added.
+	 * @param addedRules {@code Set<RuleNode>} The nodes already added, by identity.
+	 */
+	private void addRuleNode(RuleNode rule, Set<RuleNode> addedRules) {
+		if (!addedRules.add(rule))
+			return;
+		for (RuleNode variation : rule.variations)
+			this.addRuleNode(variation, addedRules);
+		this.ruleNodes.add(rule);
+	}
+
+	/**
+	 * Runs this graph on the common {@link ForkJoinPool}.
+	 * 
+	 * @return                          {@link SubSystem} The built SubSystem.
+	 * @throws IllegalArgumentException if the definition does not meet the specifications of
+	 *                                  {@link SubSystem#SubSystem(BaseValue, Rule[], double, double)}.
+	 */
+	public SubSystem run() {
+		return this.run(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Runs this graph on the given pool and waits for the built SubSystem.
+	 * 
+	 * @param  pool                     {@link ForkJoinPool} The pool to run the nodes on. Must not be null.
+	 * @return                          {@link SubSystem} The built SubSystem.
+	 * @throws IllegalArgumentException if the given pool is null or if the definition does not meet the
+	 *                                  specifications of
+	 *                                  {@link SubSystem#SubSystem(BaseValue, Rule[], double, double)}.
+	 */
+	public SubSystem run(ForkJoinPool pool) {
+		if (pool == null)
+			throw new IllegalArgumentException("Pool must not be null");
+
+		CompletableFuture<BaseValue> derivedBaseValue = CompletableFuture.supplyAsync(this.baseValue, pool);
+
+		Map<RuleNode, CompletableFuture<Rule>> calculatedRules = new IdentityHashMap<>();
+		/* The creation of the last rule weighing a variation, so rules sharing a variation are created in order. */
+		Map<RuleNode, CompletableFuture<?>> lastWeighings = new IdentityHashMap<>();
+		for (RuleNode rule : this.ruleNodes) {
+			CompletableFuture<Rule[]> calculatedVariations = allOf(rule.variations, calculatedRules);
+			CompletableFuture<?>[] previousWeighings = new CompletableFuture<?>[rule.variations.length];
+			for (int i = 0; i < previousWeighings.length; i++)
+				previousWeighings[i] = lastWeighings.getOrDefault(rule.variations[i],
+				        CompletableFuture.completedFuture(null));
+
+			CompletableFuture<Rule> created = CompletableFuture.allOf(previousWeighings)
+			        .thenCombine(calculatedVariations, (done, variations) -> variations)
+			        .thenCombineAsync(derivedBaseValue, (variations, base) -> rule.create(base, variations), pool);
+			for (RuleNode variation : rule.variations)
+				lastWeighings.put(variation, created);
+
+			/* Getting the forecasts calculates them. */
+			calculatedRules.put(rule, created.thenApplyAsync(createdRule -> {
+				createdRule.getForecasts();
+				return createdRule;
+			}, pool));
+		}
+
+		CompletableFuture<SubSystem> subSystem = allOf(this.rules, calculatedRules).thenCombineAsync(
+		        derivedBaseValue, (rules, base) -> new SubSystem(base, rules, this.capital, this.baseScale), pool);
+		try {
+			return subSystem.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw e;
+		}
+	}
+
+	/**
+	 * Combines the futures of the given nodes.
+	 * 
+	 * @param  rules           {@code RuleNode[]} The nodes.
+	 * @param  calculatedRules {@code Map<RuleNode, CompletableFuture<Rule>>} The futures of all nodes, by identity.
+	 * @return                 {@code CompletableFuture<Rule[]>} A future of the rules of the given nodes, completed
+	 *                         once the futures of all given nodes are.
+	 */
+	private static CompletableFuture<Rule[]> allOf(RuleNode[] rules,
+	        Map<RuleNode, CompletableFuture<Rule>> calculatedRules) {
+		@SuppressWarnings("unchecked")
+		CompletableFuture<Rule>[] futures = new CompletableFuture[rules.length];
+		for (int i = 0; i < rules.length; i++)
+			futures[i] = calculatedRules.get(rules[i]);
+		return CompletableFuture.allOf(futures).thenApply(done -> {
+			Rule[] results = new Rule[futures.length];
+			for (int i = 0; i < futures.length; i++)
+				results[i] = futures[i].join();
+			return results;
+		});
+	}
+
+	/**
+	 * Get the number of rule nodes in this graph, i.e. all rules and their variations, each counted once.
+	 * 
+	 * @return {@code int} The number of rule nodes.
+	 */
+	public int getNumberOfRuleNodes() {
+		return this.ruleNodes.size();
+	}
+
+	/**
+	 * Creates a rule of the base value and its variations.
+	 */
+	@FunctionalInterface
+	public interface RuleFactory {
+		/**
+		 * Creates the rule.
+		 * 
+		 * @param  baseValue                {@link BaseValue} The base value of the rule.
+		 * @param  variations               {@code Rule[]} The created variations of the rule, their forecasts
+		 *                                  already calculated. Null if the rule has none.
+		 * @return                          {@link Rule} The created rule.
+		 * @throws IllegalArgumentException if the rule cannot be created of the given values.
+		 */
+		Rule create(BaseValue baseValue, Rule[] variations);
+	}
+
+	/**
+	 * The node of a rule in a {@link CalculationGraph}: The factory creating the rule and the nodes of its variations.
+	 */
+	public static final class RuleNode {
+		/* The factory creating the rule. */
+		private final RuleFactory factory;
+		/* The nodes of the variations, empty if the rule has none. */
+		private final RuleNode[] variations;
+
+		/**
+		 * Creates the node of a rule created by the given factory of the rules of the given nodes as variations.
+		 * 
+		 * @param  factory                  {@link RuleFactory} The factory creating the rule. Must not be null.
+		 * @param  variations               {@code RuleNode[]} The nodes of the variations of the rule. Must not
+		 *                                  contain null. Empty if the rule has no variations.
+		 * @throws IllegalArgumentException if the given factory is null or the given variations contain null.
+		 */
+		public RuleNode(RuleFactory factory, RuleNode... variations) {
+			if (factory == null)
+				throw new IllegalArgumentException("Rule factory must not be null");
+			if (variations == null)
+				throw new IllegalArgumentException("Variations must not be null");
+			for (RuleNode variation : variations)
+				if (variation == null)
+					throw new IllegalArgumentException("Variations must not contain null");
+
+			this.factory = factory;
+			this.variations = variations.clone();
+		}
+
+		/**
+		 * Creates the nodes of the given rules, which are already created. A rule given more than once, e.g. as
+		 * variation of several rules, is a single node.
+		 * 
+		 * @param  rules                    {@code Rule[]} The created rules. Must not be null. Must not be empty.
+		 *                                  Must not contain null.
+		 * @return                          {@code RuleNode[]} The nodes of the given rules, in the same order.
+		 * @throws IllegalArgumentException if the given rules are null, empty or contain null.
+		 */
+		static RuleNode[] ofCreated(Rule[] rules) {
+			if (rules == null)
+				throw new IllegalArgumentException("Rules must not be null");
+			if (rules.length == 0)
+				throw new IllegalArgumentException("Rules must not be an empty array");
+
+			Map<Rule, RuleNode> nodes = new IdentityHashMap<>();
+			RuleNode[] ruleNodes = new RuleNode[rules.length];
+			for (int i = 0; i < rules.length; i++) {
+				if (rules[i] == null)
+					throw new IllegalArgumentException("Rules must not contain null");
+				ruleNodes[i] = ofCreated(rules[i], nodes);
+			}
+			return ruleNodes;
+		}
+
+		/**
+		 * Creates the node of the given rule, which is already created, unless there is one.
+		 * 
+		 * @param  rule  {@link Rule} The created rule.
+		 * @param  nodes {@code Map<Rule, RuleNode>} The nodes already created, by identity of their rules.
+		 * @return       {@link RuleNode} The node of the given rule.
+		 */
+		private static RuleNode ofCreated(Rule rule, Map<Rule, RuleNode> nodes) {
+			RuleNode node = nodes.get(rule);
+			if (node != null)
+				return node;
+
+			Rule[] ruleVariations = rule.hasVariations() ? rule.getVariations() : new Rule[0];
+			RuleNode[] variationNodes = new RuleNode[ruleVariations.length];
+			for (int i = 0; i < ruleVariations.length; i++)
+				variationNodes[i] = ofCreated(ruleVariations[i], nodes);
+			node = new RuleNode((baseValue, variations) -> rule, variationNodes);
+			nodes.put(rule, node);
+			return node;
+		}
+
+		/**
+		 * Creates the rule of this node.
+		 * 
+		 * @param  baseValue  {@link BaseValue} The base value of the rule.
+		 * @param  variations {@code Rule[]} The created variations of the rule.
+		 * @return            {@link Rule} The created rule.
+		 */
+		private Rule create(BaseValue baseValue, Rule[] variations) {
+			return this.factory.create(baseValue, variations.length == 0 ? null : variations);
+		}
+	}
+}
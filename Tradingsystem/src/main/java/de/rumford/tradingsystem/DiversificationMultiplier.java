@@ -6,7 +6,10 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.math3.linear.BlockRealMatrix;
 import org.apache.commons.math3.stat.correlation.PearsonsCorrelation;
 
+import de.rumford.tradingsystem.helper.CalculationEvent;
 import de.rumford.tradingsystem.helper.GeneratedCode;
+import de.rumford.tradingsystem.helper.Metrics;
+import de.rumford.tradingsystem.helper.MetricsRegistry;
 import de.rumford.tradingsystem.helper.Validator;
 
 /**
@@ -54,6 +57,9 @@ public class DiversificationMultiplier {
 	public DiversificationMultiplier(Rule[] rules) {
 		validateInput(rules);
 
+		long startNanos = System.nanoTime();
+		CalculationEvent event = new CalculationEvent.DiversificationMultiplier();
+		event.begin();
 		WeightsAndForecasts weightsAndForecasts = getWeightsAndForecastsFromRules(rules);
 		this.setWeights(weightsAndForecasts.weights);
 		this.setRelevantForecasts(weightsAndForecasts.forecasts);
@@ -61,6 +67,27 @@ public class DiversificationMultiplier {
 		this.setCorrelations(getCorrelationsFromForecasts(this.getRelevantForecasts()));
 
 		this.setValue(this.calculateDiversificiationMultiplierValue());
+		String instrument = rules[0].getBaseValue().getName();
+		event.commit(instrument, null, this.getRelevantForecasts()[0].length);
+		MetricsRegistry registry = Metrics.getRegistry();
+		registry.gauge(Metrics.DIVERSIFICATION_MULTIPLIER_VALUE, instrument).set(this.getValue());
+		registry.timer(Metrics.DIVERSIFICATION_MULTIPLIER_DURATION, instrument).record(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Restores a DiversificationMultiplier from its already calculated values, e.g. read by
+	 * {@link SubSystemCheckpoint}. Nothing is validated or calculated.
+	 * 
+	 * @param value             {@code double} The value of the diversification multiplier.
+	 * @param weights           {@code double[]} The weights of the rules.
+	 * @param relevantForecasts {@code double[][]} The relevant forecasts of the rules, one row per rule.
+	 * @param correlations      {@code double[][]} The correlations of the rules.
+	 */
+	DiversificationMultiplier(double value, double[] weights, double[][] relevantForecasts, double[][] correlations) {
+		this.setValue(value);
+		this.setWeights(weights);
+		this.setRelevantForecasts(relevantForecasts);
+		this.setCorrelations(correlations);
 	}
 
 	/**
@@ -77,30 +104,39 @@ public class DiversificationMultiplier {
 	}
 
 	/**
-	 * Calculate the diversification multiplier for the weights and correlations set with this class. Represents this
-	 * formula with c = matrix of correlations, w = list of weights, i,j = indices: 1 / sqrt[ SUM( c_i,j * w_i * w_j ) ]
+	 * Calculate the diversification multiplier for the weights and correlations set with this class. See
+	 * {@link #calculateDiversificationMultiplierValue(double[][], double[])}.
 	 * 
-	 * @return                          {@code double} diversification multiplier for set weights and correlations
-	 * @throws IllegalArgumentException if correlations or weights do not meet criteria: non-empty, same number of
-	 *                                  values, correlations: same amount of rows and columns
+	 * @return {@code double} diversification multiplier for set weights and correlations
 	 */
 	private double calculateDiversificiationMultiplierValue() {
-		double[][] instanceCorrelations = this.getCorrelations();
-		double[] instanceWeights = this.getWeights();
+		return calculateDiversificationMultiplierValue(this.getCorrelations(), this.getWeights());
+	}
 
+	/**
+	 * Calculate the diversification multiplier for the given weights and correlations. Represents this formula with c =
+	 * matrix of correlations, w = list of weights, i,j = indices: 1 / sqrt[ SUM( c_i,j * w_i * w_j ) ]
+	 * <p>
+	 * Used for the diversification between rules as well as for the diversification between instruments (see
+	 * {@link InstrumentDiversificationMultiplier}).
+	 * 
+	 * @param  correlations {@code double[][]} A square matrix of correlations, one row and column per weight.
+	 * @param  weights      {@code double[]} The weights, one per row of the correlations.
+	 * @return              {@code double} diversification multiplier for the given weights and correlations
+	 */
+	static double calculateDiversificationMultiplierValue(double[][] correlations, double[] weights) {
 		/* local field to hold sum of correlations multiplied with weights */
 		double sumOfCorrelationsWeights = 0f;
 
 		/*
 		 * Get the sum of all correlations multiplier with both corresponding weights...
 		 */
-		for (int row = 0; row < instanceCorrelations.length; row++) {
-			for (int col = 0; col < instanceCorrelations.length; col++) {
+		for (int row = 0; row < correlations.length; row++) {
+			for (int col = 0; col < correlations.length; col++) {
 				/*
 				 * ... by multiplying the correlation with both corresponding weights
 				 */
-				sumOfCorrelationsWeights += instanceCorrelations[row][col] * instanceWeights[row]
-				        * instanceWeights[col];
+				sumOfCorrelationsWeights += correlations[row][col] * weights[row] * weights[col];
 			}
 		}
 
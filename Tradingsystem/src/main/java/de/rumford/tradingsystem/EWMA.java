@@ -2,9 +2,9 @@ package de.rumford.tradingsystem;
 
 import java.util.Arrays;
 
-import org.apache.commons.lang3.ArrayUtils;
-
+import de.rumford.tradingsystem.helper.DerivedSeriesCache;
 import de.rumford.tradingsystem.helper.GeneratedCode;
+import de.rumford.tradingsystem.helper.ValidatedSeries;
 import de.rumford.tradingsystem.helper.Validator;
 import de.rumford.tradingsystem.helper.ValueDateTupel;
 
@@ -17,14 +17,19 @@ import de.rumford.tradingsystem.helper.ValueDateTupel;
  */
 public class EWMA {
 
+	/* The name of the computation of EWMA values in the DerivedSeriesCache. */
+	static final String CACHED_COMPUTATION = "EWMA";
+
 	/* The horizon this EWMA shall cover. */
 	private int horizon;
 	/*
 	 * The decay factor for recent values calculated from the given horizon.
 	 */
 	private double decay;
-	/* The values this EWMA shall be based upon. */
+	/* The values this EWMA shall be based upon. Null, if they are only given as validated series and not yet copied. */
 	private ValueDateTupel[] baseValues;
+	/* The validated series of the values this EWMA shall be based upon. Null, if they are given as array. */
+	private ValidatedSeries validatedBaseValues;
 	/* The calculated EWMA values. */
 	private ValueDateTupel[] ewmaValues;
 
@@ -41,7 +46,49 @@ public class EWMA {
 		this.setBaseValues(baseValues);
 		this.setHorizon(horizon);
 		this.setDecay(this.calculateDecay(this.getHorizon()));
-		this.setEwmaValues(this.calculateEwmaValues(this.getBaseValues()));
+		/* EWMAs are causal, so the values of a cached prefix of the base values can be continued. */
+		this.setEwmaValues(DerivedSeriesCache.getCache().computeCausal(CACHED_COMPUTATION, baseValues,
+		        new long[] { horizon }, this::calculateEwmaValues));
+	}
+
+	/**
+	 * Constructor for the {@link EWMA} class using already validated base values, which are not validated again. The
+	 * values are read from the series without copying them.
+	 *
+	 * @param baseValues {@link ValidatedSeries} The values this EWMA is to be based on.
+	 * @param horizon    {@code int} horizon this EWMA is to be over
+	 */
+	public EWMA(ValidatedSeries baseValues, int horizon) {
+		validateHorizon(horizon);
+
+		this.validatedBaseValues = baseValues;
+		this.setHorizon(horizon);
+		this.setDecay(this.calculateDecay(this.getHorizon()));
+		/* EWMAs are causal, so the values of a cached prefix of the base values can be continued. */
+		this.setEwmaValues(DerivedSeriesCache.getCache().computeCausal(CACHED_COMPUTATION, baseValues,
+		        new long[] { horizon }, this::calculateEwmaValues));
+	}
+
+	/**
+	 * Restores an EWMA of the given base values and horizon from its already calculated values, e.g. read by
+	 * {@link SubSystemCheckpoint}. The given values are validated like in {@link #EWMA(ValueDateTupel[], int)}, but
+	 * nothing is calculated.
+	 * 
+	 * @param  baseValues               {@code ValueDateTupel[]} The values the EWMA was based on.
+	 * @param  horizon                  {@code int} The horizon of the EWMA.
+	 * @param  ewmaValues               {@code ValueDateTupel[]} The EWMA values calculated of the given base values.
+	 *                                  Must be of the dates of the given base values. Must not contain Double.NaN.
+	 * @throws IllegalArgumentException if the given values do not meet specifications.
+	 */
+	EWMA(ValueDateTupel[] baseValues, int horizon, ValueDateTupel[] ewmaValues) {
+		validateBaseValues(baseValues);
+		validateHorizon(horizon);
+		validateEwmaValues(baseValues, ewmaValues);
+
+		this.setBaseValues(baseValues);
+		this.setHorizon(horizon);
+		this.setDecay(this.calculateDecay(horizon));
+		this.setEwmaValues(ewmaValues);
 	}
 
 	/**
@@ -67,16 +114,23 @@ public class EWMA {
 	}
 
 	/**
-	 * Calculate the EWMA values based on the given base values.
+	 * Calculate the EWMA values based on the given base values, continuing the given EWMA values of the first base
+	 * values.
 	 * 
-	 * @param  baseValues {@code ValueDateTupel[]} The base values of the given asset.
-	 * @return            {@code ValueDateTupel[]} An array of calculated EWMA values.
+	 * @param  baseValues     {@code ValueDateTupel[]} The base values of the given asset.
+	 * @param  previousValues {@code ValueDateTupel[]} The EWMA values of the first base values, e.g. from the
+	 *                        {@link DerivedSeriesCache}. Empty if all values are to be calculated.
+	 * @return                {@code ValueDateTupel[]} An array of calculated EWMA values.
 	 */
-	private ValueDateTupel[] calculateEwmaValues(ValueDateTupel[] baseValues) {
-		ValueDateTupel[] newEwmaValues = ValueDateTupel.createEmptyArray();
+	private ValueDateTupel[] calculateEwmaValues(ValueDateTupel[] baseValues, ValueDateTupel[] previousValues) {
+		ValueDateTupel[] newEwmaValues = ValueDateTupel.createEmptyArray(baseValues.length);
+		System.arraycopy(previousValues, 0, newEwmaValues, 0, previousValues.length);
 		double previousEwma = 0;
+		if (previousValues.length > 0 && !Double.isNaN(previousValues[previousValues.length - 1].getValue()))
+			previousEwma = previousValues[previousValues.length - 1].getValue();
 		/* Calculate all EWMA-Values */
-		for (ValueDateTupel baseValue : baseValues) {
+		for (int i = previousValues.length; i < baseValues.length; i++) {
+			ValueDateTupel baseValue = baseValues[i];
 			double newValue = 0;
 			if (Double.isNaN(baseValue.getValue())) {
 				newValue = Double.NaN;
@@ -87,7 +141,7 @@ public class EWMA {
 				previousEwma = newValue;
 			}
 			/* Add the new value to the array of EWMA values */
-			newEwmaValues = ArrayUtils.add(newEwmaValues, new ValueDateTupel(baseValue.getDate(), newValue));
+			newEwmaValues[i] = new ValueDateTupel(baseValue.getDate(), newValue);
 		}
 		return newEwmaValues;
 	}
@@ -120,6 +174,24 @@ public class EWMA {
 			throw new IllegalArgumentException("The horizon must not be < 2");
 	}
 
+	/**
+	 * Validates the given EWMA values fit the given base values.
+	 * 
+	 * @param  baseValues               {@code ValueDateTupel[]} The validated base values.
+	 * @param  ewmaValues               {@code ValueDateTupel[]} The EWMA values to be validated. Must not be null.
+	 *                                  Must be of the dates of the given base values. Must not contain Double.NaN.
+	 * @throws IllegalArgumentException if the above specifications are not met.
+	 */
+	private static void validateEwmaValues(ValueDateTupel[] baseValues, ValueDateTupel[] ewmaValues) {
+		if (ewmaValues == null || ewmaValues.length != baseValues.length)
+			throw new IllegalArgumentException("The EWMA values do not fit the base values");
+
+		for (int i = 0; i < ewmaValues.length; i++)
+			if (ewmaValues[i] == null || !baseValues[i].getDate().equals(ewmaValues[i].getDate())
+			        || Double.isNaN(ewmaValues[i].getValue()))
+				throw new IllegalArgumentException("The EWMA values do not fit the base values");
+	}
+
 	/**
 	 * ====================================================================== OVERRIDES
 	 * ======================================================================
@@ -216,12 +288,14 @@ public class EWMA {
 	}
 
 	/**
-	 * Get the base values of this EWMA.
+	 * Get the base values of this EWMA. If they were given as validated series, they are copied upon the first call.
 	 * 
 	 * @return baseValues EWMA
 	 */
 	public ValueDateTupel[] getBaseValues() {
-		return baseValues;
+		if (this.baseValues == null)
+			this.baseValues = this.validatedBaseValues.toArray();
+		return this.baseValues;
 	}
 
 	/**
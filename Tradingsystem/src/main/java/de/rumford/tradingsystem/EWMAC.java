@@ -2,6 +2,7 @@ package de.rumford.tradingsystem;
 
 import java.time.LocalDateTime;
 
+import de.rumford.tradingsystem.helper.Fingerprint;
 import de.rumford.tradingsystem.helper.GeneratedCode;
 import de.rumford.tradingsystem.helper.ValueDateTupel;
 
@@ -49,13 +50,46 @@ public class EWMAC extends Rule {
 		this.validateHorizonValues(longHorizon, shortHorizon);
 
 		if (variations == null) {
-			EWMA localLongHorizonEwma = new EWMA(this.getBaseValue().getValues(), longHorizon);
-			EWMA localShortHorizonEwma = new EWMA(this.getBaseValue().getValues(), shortHorizon);
+			EWMA localLongHorizonEwma = new EWMA(this.getBaseValue().getValidatedValues(), longHorizon);
+			EWMA localShortHorizonEwma = new EWMA(this.getBaseValue().getValidatedValues(), shortHorizon);
 			this.setLongHorizonEwma(localLongHorizonEwma);
 			this.setShortHorizonEwma(localShortHorizonEwma);
 		}
 	}
 
+	/**
+	 * Restores an EWMAC from its already calculated EWMAs, e.g. read by {@link SubSystemCheckpoint}. The horizons of
+	 * the EWMAs are validated like in
+	 * {@link #EWMAC(BaseValue, EWMAC[], LocalDateTime, LocalDateTime, int, int, double)}, but the EWMAs are not
+	 * recalculated.
+	 * 
+	 * @param  baseValue                Same as in
+	 *                                  {@link Rule#Rule(BaseValue, Rule[], LocalDateTime, LocalDateTime, double)}.
+	 * @param  variations               {@code EWMAC[]} The restored variations of this rule, null if none.
+	 * @param  startOfReferenceWindow   Same as in
+	 *                                  {@link Rule#Rule(BaseValue, Rule[], LocalDateTime, LocalDateTime, double)}.
+	 * @param  endOfReferenceWindow     Same as in
+	 *                                  {@link Rule#Rule(BaseValue, Rule[], LocalDateTime, LocalDateTime, double)}.
+	 * @param  baseScale                Same as in
+	 *                                  {@link Rule#Rule(BaseValue, Rule[], LocalDateTime, LocalDateTime, double)}.
+	 * @param  longHorizonEwma          {@link EWMA} The long horizon EWMA, null if this rule has variations.
+	 * @param  shortHorizonEwma         {@link EWMA} The short horizon EWMA, null if this rule has variations.
+	 * @throws IllegalArgumentException if the given values do not meet specifications.
+	 */
+	EWMAC(BaseValue baseValue, EWMAC[] variations, LocalDateTime startOfReferenceWindow,
+	        LocalDateTime endOfReferenceWindow, double baseScale, EWMA longHorizonEwma, EWMA shortHorizonEwma) {
+		super(baseValue, variations, startOfReferenceWindow, endOfReferenceWindow, baseScale);
+
+		if (variations == null) {
+			if (longHorizonEwma == null || shortHorizonEwma == null)
+				throw new IllegalArgumentException("The EWMAs must not be null");
+			this.validateHorizonValues(longHorizonEwma.getHorizon(), shortHorizonEwma.getHorizon());
+		}
+
+		this.setLongHorizonEwma(longHorizonEwma);
+		this.setShortHorizonEwma(shortHorizonEwma);
+	}
+
 	/**
 	 * Calculates the raw forecast for a given LocalDateTime by subtracting the long horizon EWMA value from the short
 	 * horizon EWMA value for this LocalDateTime.
@@ -70,6 +104,27 @@ public class EWMAC extends Rule {
 		return shortHorizonEwmaValue - longHorizonEwmaValue;
 	}
 
+	/**
+	 * Creates a {@link LiveRawForecast} continuing both EWMAs from their last values. Every update costs one EWMA step
+	 * per horizon.
+	 */
+	@Override
+	LiveRawForecast createLiveRawForecast() {
+		return new LiveEwmac(this.getLongHorizonEwma(), this.getShortHorizonEwma());
+	}
+
+	/**
+	 * Extends the given fingerprint by the horizons of both EWMAs. The EWMA values are derived from the base value and
+	 * the horizons, so they need not be fingerprinted.
+	 */
+	@Override
+	Fingerprint fingerprintParameters(Fingerprint fingerprint) {
+		EWMA localLongHorizonEwma = this.getLongHorizonEwma();
+		EWMA localShortHorizonEwma = this.getShortHorizonEwma();
+		return fingerprint.with(localLongHorizonEwma == null ? 0L : localLongHorizonEwma.getHorizon())
+		        .with(localShortHorizonEwma == null ? 0L : localShortHorizonEwma.getHorizon());
+	}
+
 	/**
 	 * Validate the given longHorizon and shortHorizon values.
 	 * 
@@ -93,45 +148,6 @@ public class EWMAC extends Rule {
 	 * ====================================================================== OVERRIDES
 	 * ======================================================================
 	 */
-	/**
-	 * A hash code for this EWMAC.
-	 */
-	@GeneratedCode
-	@Override
-	public int hashCode() {
-		final int prime = 31;
-		int result = super.hashCode();
-		result = prime * result + ((longHorizonEwma == null) ? 0 : longHorizonEwma.hashCode());
-		result = prime * result + ((shortHorizonEwma == null) ? 0 : shortHorizonEwma.hashCode());
-		return result;
-	}
-
-	/**
-	 * Checks if this EWMAC is equal to another EWMAC.
-	 */
-	@GeneratedCode
-	@Override
-	public boolean equals(Object obj) {
-		if (this == obj)
-			return true;
-		if (!super.equals(obj))
-			return false;
-		if (getClass() != obj.getClass())
-			return false;
-		EWMAC other = (EWMAC) obj;
-		if (longHorizonEwma == null) {
-			if (other.longHorizonEwma != null)
-				return false;
-		} else if (!longHorizonEwma.equals(other.longHorizonEwma))
-			return false;
-		if (shortHorizonEwma == null) {
-			if (other.shortHorizonEwma != null)
-				return false;
-		} else if (!shortHorizonEwma.equals(other.shortHorizonEwma))
-			return false;
-		return true;
-	}
-
 	/**
 	 * Outputs the fields of this EWMAC as a {@code String}.
 	 */
@@ -187,4 +203,56 @@ public class EWMAC extends Rule {
 	private void setShortHorizonEwma(EWMA shortHorizonEwma) {
 		this.shortHorizonEwma = shortHorizonEwma;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * The {@link LiveRawForecast} of an EWMAC. Holds the last value of the long and the short horizon EWMA.
+	 */
+	private static class LiveEwmac implements LiveRawForecast {
+
+		/* The long horizon EWMA providing the decay. */
+		private final EWMA longHorizonEwma;
+		/* The short horizon EWMA providing the decay. */
+		private final EWMA shortHorizonEwma;
+		/* The last value of the long horizon EWMA. */
+		private double longHorizonEwmaValue;
+		/* The last value of the short horizon EWMA. */
+		private double shortHorizonEwmaValue;
+
+		/**
+		 * Creates a new LiveEwmac continuing the given EWMAs from their last values.
+		 * 
+		 * @param longHorizonEwma  {@link EWMA} The long horizon EWMA.
+		 * @param shortHorizonEwma {@link EWMA} The short horizon EWMA.
+		 */
+		LiveEwmac(EWMA longHorizonEwma, EWMA shortHorizonEwma) {
+			this.longHorizonEwma = longHorizonEwma;
+			this.shortHorizonEwma = shortHorizonEwma;
+
+			ValueDateTupel[] longHorizonEwmaValues = longHorizonEwma.getEwmaValues();
+			ValueDateTupel[] shortHorizonEwmaValues = shortHorizonEwma.getEwmaValues();
+			this.longHorizonEwmaValue = longHorizonEwmaValues[longHorizonEwmaValues.length - 1].getValue();
+			this.shortHorizonEwmaValue = shortHorizonEwmaValues[shortHorizonEwmaValues.length - 1].getValue();
+		}
+
+		@Override
+		public double update(double value, double volatilityIndex) {
+			this.longHorizonEwmaValue = this.longHorizonEwma.calculateEWMA(this.longHorizonEwmaValue, value);
+			this.shortHorizonEwmaValue = this.shortHorizonEwma.calculateEWMA(this.shortHorizonEwmaValue, value);
+			return this.shortHorizonEwmaValue - this.longHorizonEwmaValue;
+		}
+
+		@Override
+		public boolean requiresVolatilityIndex() {
+			return false;
+		}
+
+		/**
+		 * Both EWMAs start from 0, as in {@link EWMA}.
+		 */
+		@Override
+		public void reset() {
+			this.longHorizonEwmaValue = 0;
+			this.shortHorizonEwmaValue = 0;
+		}
+	}
+}
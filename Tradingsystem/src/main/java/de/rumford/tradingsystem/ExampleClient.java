@@ -6,7 +6,10 @@ import java.nio.file.Path;
 import java.text.NumberFormat;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.Callable;
 
 import org.apache.log4j.Logger;
 
@@ -64,6 +67,9 @@ public class ExampleClient {
 		}
 		setPathNames(basePath);
 
+		InMemoryMetricsRegistry metricsRegistry = new InMemoryMetricsRegistry();
+		Metrics.setRegistry(metricsRegistry);
+
 		LocalDateTime startingTime = LocalDateTime.now();
 
 		if (args.length > 1) {
@@ -85,6 +91,8 @@ public class ExampleClient {
 		}
 
 		logDuration(startingTime);
+		logger.info("Metrics:" + System.lineSeparator() + metricsRegistry.toText());
+		Metrics.setRegistry(MetricsRegistry.NOOP);
 	}
 
 	private static void setPathNames(String basePath) throws IOException {
@@ -125,33 +133,54 @@ public class ExampleClient {
 	}
 
 	/**
-	 * Performs all necessary constructions for three base values.
-	 * 
-	 * @throws IOException if any file handling goes wrong.
+	 * Performs all necessary constructions for three base values. The files are read by the loaders of the
+	 * {@link Portfolio}, which reports a file that cannot be read as IllegalArgumentException.
 	 */
-	private static void exampleForThreeBaseValues() throws IOException {
-		double daxPerf = forOneBaseValueWithShort(DAX, daxFileName, daxShortFileName, daxVolatilityFileName,
-		        CAPITAL * 0.2002);
-
-		double stoxxPerf = forOneBaseValueWithShort(STOXX, stoxxFileName, stoxxShortFileName, stoxxVolatilityFileName,
-		        CAPITAL * 0.407);
+	private static void exampleForThreeBaseValues() {
+		/*
+		 * The SubSystems are loaded concurrently by the Portfolio, each built by a CalculationGraph calculating its
+		 * rules concurrently.
+		 */
+		List<Callable<SubSystem>> subSystemLoaders = List.of( //
+		        () -> createSubSystemWithShort(DAX, daxFileName, daxShortFileName, daxVolatilityFileName,
+		                CAPITAL * 0.2002), //
+		        () -> createSubSystemWithShort(STOXX, stoxxFileName, stoxxShortFileName, stoxxVolatilityFileName,
+		                CAPITAL * 0.407), //
+		        () -> createSubSystem(SP500, sp500FileName, sp500VolatilityFileName, CAPITAL * 0.3928));
+
+		logger.info("Starting backtest for Portfolio with testing window " + START_OF_TEST_WINDOW + " - "
+		        + END_OF_TEST_WINDOW);
+		Portfolio portfolio = new Portfolio(subSystemLoaders, START_OF_TEST_WINDOW, END_OF_TEST_WINDOW,
+		        Runtime.getRuntime().availableProcessors());
 
-		double spPerf = forOneBaseValue(SP500, sp500FileName, sp500VolatilityFileName, CAPITAL * 0.3928);
+		/*
+		 * The Portfolio already backtested every SubSystem. Aligning keeps the last performance value at the end of
+		 * each row, so it is the SubSystem's backtest result.
+		 */
+		SubSystem[] subSystems = portfolio.getSubSystems();
+		ValueDateTupel[][] performanceValues = portfolio.getPerformanceValues();
+		for (int i = 0; i < subSystems.length; i++) {
+			logger.info("BaseValue " + subSystems[i].getBaseValue().getName() + ":");
+			formatPerformance(subSystems[i].getCapital(),
+			        performanceValues[i][performanceValues[i].length - 1].getValue());
+			logPosition(subSystems[i]);
+		}
 
-		formatPerformance(CAPITAL, daxPerf + stoxxPerf + spPerf);
+		logger.info("Portfolio:");
+		formatPerformance(portfolio.getCapital(), portfolio.backtest());
 	}
 
 	/**
-	 * Perform all calculations for one base value. No Short index values given.
+	 * Creates the {@link SubSystem} for one base value. No Short index values given.
 	 * 
 	 * @param  baseValueName      Name of the base value.
 	 * @param  longFileName       File name with long index values.
 	 * @param  volatilityFileName File name with volatility index values.
 	 * @param  capital            Capital to be spent on this base value.
-	 * @return                    The backtested performance value
+	 * @return                    The created {@link SubSystem}.
 	 * @throws IOException        if the filenames cause issues in file handling.
 	 */
-	private static double forOneBaseValue(String baseValueName, String longFileName, String volatilityFileName,
+	private static SubSystem createSubSystem(String baseValueName, String longFileName, String volatilityFileName,
 	        double capital) throws IOException {
 
 		ValueDateTupel[] baseValues = DataSource.getDataFromCsv(longFileName, CsvFormat.EU);
@@ -163,10 +192,10 @@ public class ExampleClient {
 		baseValues = aligned[0];
 		volatilityIndexValues = aligned[1];
 
-		BaseValue baseValue = new BaseValue(baseValueName, baseValues);
-		// logger.info("BaseValue " + baseValue.getName() + " created.");
-
-		return instantiateAndBacktest(capital, volatilityIndexValues, baseValue);
+		ValueDateTupel[] alignedBaseValues = baseValues;
+		/* The graph derives the base value and creates the rules concurrently. */
+		return new CalculationGraph(() -> new BaseValue(baseValueName, alignedBaseValues),
+		        createRuleNodes(volatilityIndexValues), capital, BASE_SCALE).run();
 	}
 
 	/**
@@ -182,6 +211,25 @@ public class ExampleClient {
 	 */
 	private static double forOneBaseValueWithShort(String baseValueName, String longFileName, String shortFileName,
 	        String volatilityFileName, double capital) throws IOException {
+		SubSystem subSystem = createSubSystemWithShort(baseValueName, longFileName, shortFileName, volatilityFileName,
+		        capital);
+
+		return backtestAndLog(subSystem);
+	}
+
+	/**
+	 * Creates the {@link SubSystem} for one base value. Short index values given.
+	 * 
+	 * @param  baseValueName      Name of the base value.
+	 * @param  longFileName       File name with long index values.
+	 * @param  shortFileName      File name with short index values.
+	 * @param  volatilityFileName File name with volatility index values.
+	 * @param  capital            Capital to be spent on this base value.
+	 * @return                    The created {@link SubSystem}.
+	 * @throws IOException        if the filenames cause issues in file handling.
+	 */
+	private static SubSystem createSubSystemWithShort(String baseValueName, String longFileName, String shortFileName,
+	        String volatilityFileName, double capital) throws IOException {
 
 		ValueDateTupel[] baseValues = DataSource.getDataFromCsv(longFileName, CsvFormat.EU);
 		ValueDateTupel[] shortIndexValues = DataSource.getDataFromCsv(shortFileName, CsvFormat.EU);
@@ -194,46 +242,43 @@ public class ExampleClient {
 		shortIndexValues = aligned[1];
 		volatilityIndexValues = aligned[2];
 
-		BaseValue baseValue = new BaseValue(baseValueName, baseValues, shortIndexValues);
-		// logger.info("BaseValue " + baseValue.getName() + " created.");
-
-		return instantiateAndBacktest(capital, volatilityIndexValues, baseValue);
+		ValueDateTupel[] alignedBaseValues = baseValues;
+		ValueDateTupel[] alignedShortIndexValues = shortIndexValues;
+		/* The graph derives the base value and creates the rules concurrently. */
+		return new CalculationGraph(() -> new BaseValue(baseValueName, alignedBaseValues, alignedShortIndexValues),
+		        createRuleNodes(volatilityIndexValues), capital, BASE_SCALE).run();
 	}
 
 	/**
-	 * Sets up the rules and runs a backtest for the set testing window.
+	 * Runs a backtest for the set testing window and logs its results.
 	 * 
-	 * @param  capital               The capital to be invested upon the given base value.
-	 * @param  volatilityIndexValues The volatility index values to be used in the volatility difference rule.
-	 * @param  baseValue             The base value to be evaluated.
-	 * @return                       The result as of {@link SubSystem#backtest(LocalDateTime, LocalDateTime)}
+	 * @param  subSystem The subsystem to be tested.
+	 * @return           The result as of {@link SubSystem#backtest(LocalDateTime, LocalDateTime)}
 	 */
-	private static double instantiateAndBacktest(double capital, ValueDateTupel[] volatilityIndexValues,
-	        BaseValue baseValue) {
-
-		/* Create the rules for the given base value. */
-		Rule[] rules = createRules(volatilityIndexValues, baseValue);
-
-		/* Create the subsystem. */
-		SubSystem subSystem = new SubSystem(baseValue, rules, capital, BASE_SCALE);
-
+	private static double backtestAndLog(SubSystem subSystem) {
 		/*
 		 * Perform the backtest. Gets the available capital after the last trading period.
 		 */
 		double performanceValue = performBacktest(subSystem);
 
 		/* Formats and logs the realized returns. */
-		formatPerformance(capital, performanceValue);
+		formatPerformance(subSystem.getCapital(), performanceValue);
 
-		/*
-		 * Extracts the last forecast given in the subsystem. Also depicts the position held after end of test window.
-		 */
-		double lastForecast = subSystem.getCombinedForecasts()[subSystem.getCombinedForecasts().length - 1].getValue();
-		logger.info("Current position: " + Util.getPositionFromForecast(lastForecast) + ", " + lastForecast);
+		logPosition(subSystem);
 
 		return performanceValue;
 	}
 
+	/**
+	 * Extracts the last forecast given in the subsystem and logs the position held after end of test window.
+	 * 
+	 * @param subSystem The subsystem to be examined.
+	 */
+	private static void logPosition(SubSystem subSystem) {
+		double lastForecast = subSystem.getCombinedForecasts()[subSystem.getCombinedForecasts().length - 1].getValue();
+		logger.info("Current position: " + Util.getPositionFromForecast(lastForecast) + ", " + lastForecast);
+	}
+
 	/**
 	 * Performs the backtest for for the given subsystem.
 	 * 
@@ -271,39 +316,40 @@ public class ExampleClient {
 	}
 
 	/**
-	 * Creates the rules for the given base value.
+	 * Creates the nodes of the rules, which are created by a {@link CalculationGraph} for its base value.
 	 * 
 	 * @param  volatilityIndexValues volatility index values to be used in the {@link VolatilityDifference}.
-	 * @param  baseValue             the base value to be used in the rules.
-	 * @return                       An array of top level rules.
+	 * @return                       An array of the nodes of the top level rules.
 	 */
-	private static Rule[] createRules(ValueDateTupel[] volatilityIndexValues, BaseValue baseValue) {
-		VolatilityDifference volDif = createOneVolatilityDifference(volatilityIndexValues, baseValue);
+	private static CalculationGraph.RuleNode[] createRuleNodes(ValueDateTupel[] volatilityIndexValues) {
+		CalculationGraph.RuleNode volDif = new CalculationGraph.RuleNode(
+		        (baseValue, variations) -> createOneVolatilityDifference(volatilityIndexValues, baseValue));
 
-		EWMAC ewmacTop = createEwmacs(baseValue);
+		CalculationGraph.RuleNode ewmacTop = createEwmacNodes();
 
-		return new Rule[] { volDif, ewmacTop };
+		return new CalculationGraph.RuleNode[] { volDif, ewmacTop };
 	}
 
 	/**
-	 * Creates all {@link EWMAC}s for this example.
+	 * Creates the nodes of all {@link EWMAC}s for this example.
 	 * 
-	 * @param  baseValue the {@link BaseValue} to be used in the {@link EWMAC}s.
-	 * @return           The top level {@link EWMAC}.
+	 * @return The node of the top level {@link EWMAC}, the nodes of its variations given.
 	 */
-	private static EWMAC createEwmacs(BaseValue baseValue) {
-		EWMAC ewmacShort = createOneEwmac(baseValue, null, 8, 2);
+	private static CalculationGraph.RuleNode createEwmacNodes() {
+		CalculationGraph.RuleNode ewmacShort = new CalculationGraph.RuleNode(
+		        (baseValue, variations) -> createOneEwmac(baseValue, null, 8, 2));
 
-		EWMAC ewmacMiddle = createOneEwmac(baseValue, null, 16, 4);
+		CalculationGraph.RuleNode ewmacMiddle = new CalculationGraph.RuleNode(
+		        (baseValue, variations) -> createOneEwmac(baseValue, null, 16, 4));
 
-		EWMAC ewmacLong = createOneEwmac(baseValue, null, 32, 8);
+		CalculationGraph.RuleNode ewmacLong = new CalculationGraph.RuleNode(
+		        (baseValue, variations) -> createOneEwmac(baseValue, null, 32, 8));
 
-		EWMAC[] ewmacVariations = { //
+		return new CalculationGraph.RuleNode((baseValue, variations) -> createOneEwmac(baseValue,
+		        Arrays.copyOf(variations, variations.length, EWMAC[].class), 0, 0), //
 		        ewmacShort, //
 		        ewmacMiddle, //
-		        ewmacLong };
-
-		return createOneEwmac(baseValue, ewmacVariations, 0, 0);
+		        ewmacLong);
 	}
 
 	/**
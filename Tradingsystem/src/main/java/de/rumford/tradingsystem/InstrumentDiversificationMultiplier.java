@@ -0,0 +1,315 @@
+package de.rumford.tradingsystem;
+
+import java.util.Arrays;
+
+import de.rumford.tradingsystem.helper.CorrelationAccumulator;
+import de.rumford.tradingsystem.helper.GeneratedCode;
+import de.rumford.tradingsystem.helper.Util;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * The InstrumentDiversificationMultiplier is the portfolio level counterpart of the {@link DiversificationMultiplier}.
+ * Where the DiversificationMultiplier accounts for the diversification between the rules of one {@link SubSystem}, the
+ * InstrumentDiversificationMultiplier accounts for the diversification between the SubSystems (i.e. instruments) of a
+ * {@link Portfolio}.
+ * <p>
+ * The instrument weights and the multiplier are based on the correlations of the SubSystems' returns. Every SubSystem
+ * gets a weight proportional to 1 minus its average correlation with all other SubSystems (see
+ * {@link Util#calculateWeightsForCorrelations(double[][])}). The multiplier is calculated by the same formula as the
+ * DiversificationMultiplier (see {@link DiversificationMultiplier#calculateDiversificationMultiplierValue(double[][],
+ * double[])}). Negative correlations are floored at 0 and the multiplier is capped at {@value #MAX_VALUE}, so a few
+ * (possibly random) negative correlations cannot lead to excessive leverage (Robert Carver, Systematic Trading (2015),
+ * pp. 131 f.).
+ * <p>
+ * The correlations are calculated incrementally by a {@link CorrelationAccumulator}. New returns can be added by
+ * {@link #update(double[])} without recalculating the correlations of all previous returns.
+ * 
+ * @author Max Rumford
+ */
+public class InstrumentDiversificationMultiplier {
+
+	/* The maximum value of an instrument diversification multiplier. */
+	static final double MAX_VALUE = 2.5;
+
+	/* The value of this instrument diversification multiplier. */
+	private double value;
+	/* The weights of the instruments. */
+	private double[] weights;
+	/* The correlations of the instruments' returns. */
+	private double[][] correlations;
+	/* The accumulator for the correlations. */
+	private CorrelationAccumulator correlationAccumulator;
+
+	/**
+	 * Creates a new InstrumentDiversificationMultiplier for the SubSystems of the given Portfolio, based on their
+	 * performance values.
+	 * 
+	 * @param  portfolio                {@link Portfolio} The Portfolio whose SubSystems are to be weighted. Must not be
+	 *                                  null.
+	 * @throws IllegalArgumentException if the given Portfolio is null.
+	 */
+	public InstrumentDiversificationMultiplier(Portfolio portfolio) {
+		this(getPerformanceValues(portfolio));
+	}
+
+	/**
+	 * Creates a new InstrumentDiversificationMultiplier for the given performance values (or any other values, e.g.
+	 * prices, whose returns shall be decisive).
+	 * 
+	 * @param  performanceValues        {@code ValueDateTupel[][]} One row of values per instrument. Must not be null.
+	 *                                  Must not be empty. Must not contain null. All rows must share the same dates
+	 *                                  (see {@link ValueDateTupel#alignDates(ValueDateTupel[][])}) and must contain at
+	 *                                  least two values.
+	 * @throws IllegalArgumentException if the given performance values do not meet specifications.
+	 */
+	public InstrumentDiversificationMultiplier(ValueDateTupel[][] performanceValues) {
+		validateInput(performanceValues);
+
+		CorrelationAccumulator accumulator = new CorrelationAccumulator(performanceValues.length);
+		accumulator.acceptAll(calculateReturns(performanceValues));
+		this.setCorrelationAccumulator(accumulator);
+
+		this.calculate();
+	}
+
+	/**
+	 * Adds the given returns of all instruments for one further time interval and recalculates correlations, weights
+	 * and value of this InstrumentDiversificationMultiplier.
+	 * 
+	 * @param  returns                  {@code double[]} One return per instrument, in the order of the instruments
+	 *                                  upon instantiation. Must not be null.
+	 * @throws IllegalArgumentException if the given returns do not contain one value per instrument.
+	 */
+	public void update(double[] returns) {
+		this.getCorrelationAccumulator().accept(returns);
+		this.calculate();
+	}
+
+	/**
+	 * Calculates correlations, weights and value from the current state of the correlation accumulator.
+	 */
+	private void calculate() {
+		double[][] calculatedCorrelations = this.getCorrelationAccumulator().getCorrelations();
+		this.setCorrelations(calculatedCorrelations);
+
+		double[] calculatedWeights = Util.calculateWeightsForCorrelations(calculatedCorrelations);
+		this.setWeights(calculatedWeights);
+
+		this.setValue(calculateInstrumentDiversificationMultiplierValue(calculatedCorrelations, calculatedWeights));
+	}
+
+	/**
+	 * Calculate the instrument diversification multiplier for the given correlations and weights. Negative correlations
+	 * and correlations of Double.NaN are floored at 0, the result is capped at {@value #MAX_VALUE}.
+	 * 
+	 * @param  correlations {@code double[][]} The correlations of the instruments.
+	 * @param  weights      {@code double[]} The weights of the instruments.
+	 * @return              {@code double} The instrument diversification multiplier.
+	 */
+	private static double calculateInstrumentDiversificationMultiplierValue(double[][] correlations,
+	        double[] weights) {
+		double[][] flooredCorrelations = new double[correlations.length][];
+		for (int row = 0; row < correlations.length; row++) {
+			flooredCorrelations[row] = new double[correlations.length];
+			for (int column = 0; column < correlations.length; column++)
+				flooredCorrelations[row][column] = correlations[row][column] > 0 ? correlations[row][column] : 0;
+		}
+
+		double calculatedValue = DiversificationMultiplier.calculateDiversificationMultiplierValue(flooredCorrelations,
+		        weights);
+		return Math.min(calculatedValue, MAX_VALUE);
+	}
+
+	/**
+	 * Calculate the returns of the given rows of values, arranged as one observation (containing one return per row)
+	 * per time interval.
+	 * 
+	 * @param  values {@code ValueDateTupel[][]} The rows of values. All rows must be of the same length.
+	 * @return        {@code double[][]} The returns, one array per time interval after the first.
+	 */
+	private static double[][] calculateReturns(ValueDateTupel[][] values) {
+		final int numberOfReturns = values[0].length - 1;
+		double[][] returns = new double[numberOfReturns][values.length];
+		for (int row = 0; row < values.length; row++) {
+			for (int t = 0; t < numberOfReturns; t++)
+				returns[t][row] = Util.calculateReturn(values[row][t].getValue(), values[row][t + 1].getValue());
+		}
+		return returns;
+	}
+
+	/**
+	 * Get the aligned performance values of the given Portfolio.
+	 * 
+	 * @param  portfolio                {@link Portfolio} The Portfolio to be examined.
+	 * @return                          {@code ValueDateTupel[][]} The Portfolio's aligned performance values.
+	 * @throws IllegalArgumentException if the given Portfolio is null.
+	 */
+	private static ValueDateTupel[][] getPerformanceValues(Portfolio portfolio) {
+		if (portfolio == null)
+			throw new IllegalArgumentException("Portfolio must not be null");
+		return portfolio.getPerformanceValues();
+	}
+
+	/**
+	 * Validates the given input values.
+	 * 
+	 * @param  performanceValues        {@code ValueDateTupel[][]} Must not be null. Must not be empty. Must not contain
+	 *                                  null. All rows must have the same length of at least 2 and must share the same
+	 *                                  dates.
+	 * @throws IllegalArgumentException if any of the above specifications are not met.
+	 */
+	private static void validateInput(ValueDateTupel[][] performanceValues) {
+		if (performanceValues == null)
+			throw new IllegalArgumentException("Performance values must not be null");
+		if (performanceValues.length == 0)
+			throw new IllegalArgumentException("Performance values must not be empty");
+		for (int row = 0; row < performanceValues.length; row++) {
+			if (performanceValues[row] == null)
+				throw new IllegalArgumentException("Performance values must not contain null");
+			if (performanceValues[row].length < 2)
+				throw new IllegalArgumentException("Performance values at position " + row
+				        + " must contain at least two values");
+			if (!Arrays.equals(ValueDateTupel.getDates(performanceValues[row]),
+			        ValueDateTupel.getDates(performanceValues[0])))
+				throw new IllegalArgumentException(
+				        "Performance values at position " + row + " are not aligned with those at position 0");
+		}
+	}
+
+	/**
+	 * ====================================================================== OVERRIDES
+	 * ======================================================================
+	 */
+
+	/**
+	 * A hash code for this instrument diversification multiplier.
+	 */
+	@GeneratedCode
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Arrays.deepHashCode(correlations);
+		long temp;
+		temp = Double.doubleToLongBits(value);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		result = prime * result + Arrays.hashCode(weights);
+		return result;
+	}
+
+	/**
+	 * Checks if this instrument diversification multiplier is equal to another instrument diversification multiplier.
+	 */
+	@GeneratedCode
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		InstrumentDiversificationMultiplier other = (InstrumentDiversificationMultiplier) obj;
+		if (!Arrays.deepEquals(correlations, other.correlations))
+			return false;
+		if (Double.doubleToLongBits(value) != Double.doubleToLongBits(other.value))
+			return false;
+		if (!Arrays.equals(weights, other.weights))
+			return false;
+		return true;
+	}
+
+	/**
+	 * Outputs the fields of this instrument diversification multiplier as a {@code String}.
+	 */
+	@GeneratedCode
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("InstrumentDiversificationMultiplier [value=");
+		builder.append(value);
+		builder.append(", weights=");
+		builder.append(Arrays.toString(weights));
+		builder.append(", correlations=");
+		builder.append(Arrays.deepToString(correlations));
+		builder.append("]");
+		return builder.toString();
+	}
+
+	/**
+	 * ====================================================================== GETTERS AND SETTERS
+	 * ======================================================================
+	 */
+
+	/**
+	 * Get value of this {@link InstrumentDiversificationMultiplier}
+	 * 
+	 * @return {@code double} value of this {@link InstrumentDiversificationMultiplier}
+	 */
+	public double getValue() {
+		return value;
+	}
+
+	/**
+	 * Set the value in this {@link InstrumentDiversificationMultiplier}
+	 * 
+	 * @param value the value to set
+	 */
+	private void setValue(double value) {
+		this.value = value;
+	}
+
+	/**
+	 * Get the weights of the instruments in this {@link InstrumentDiversificationMultiplier}
+	 * 
+	 * @return {@code double[]} Weights of the instruments, in the order of the instruments.
+	 */
+	public double[] getWeights() {
+		return weights;
+	}
+
+	/**
+	 * Set the weights in this {@link InstrumentDiversificationMultiplier}
+	 * 
+	 * @param weights {@code double[]} the weights to set
+	 */
+	private void setWeights(double[] weights) {
+		this.weights = weights;
+	}
+
+	/**
+	 * Get the correlations in this {@link InstrumentDiversificationMultiplier}
+	 * 
+	 * @return {@code double[][]} The correlations of the instruments' returns
+	 */
+	public double[][] getCorrelations() {
+		return correlations;
+	}
+
+	/**
+	 * Set the correlations in this {@link InstrumentDiversificationMultiplier}
+	 * 
+	 * @param correlations {@code double[][]} the correlations to set
+	 */
+	private void setCorrelations(double[][] correlations) {
+		this.correlations = correlations;
+	}
+
+	/**
+	 * Get the correlation accumulator of this {@link InstrumentDiversificationMultiplier}
+	 * 
+	 * @return {@link CorrelationAccumulator} The accumulator holding the state of the correlations
+	 */
+	private CorrelationAccumulator getCorrelationAccumulator() {
+		return correlationAccumulator;
+	}
+
+	/**
+	 * Set the correlation accumulator of this {@link InstrumentDiversificationMultiplier}
+	 * 
+	 * @param correlationAccumulator {@link CorrelationAccumulator} the accumulator to set
+	 */
+	private void setCorrelationAccumulator(CorrelationAccumulator correlationAccumulator) {
+		this.correlationAccumulator = correlationAccumulator;
+	}
+}
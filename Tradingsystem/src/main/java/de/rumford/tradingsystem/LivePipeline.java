@@ -0,0 +1,535 @@
+package de.rumford.tradingsystem;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import org.apache.log4j.Logger;
+
+import de.rumford.tradingsystem.helper.BarEvent;
+import de.rumford.tradingsystem.helper.BarJournal;
+import de.rumford.tradingsystem.helper.GeneratedCode;
+import de.rumford.tradingsystem.helper.SpscRingBuffer;
+
+/**
+ * The LivePipeline feeds bars arriving from a data feed through a {@link LiveSubSystem} and hands the resulting
+ * positions to a consumer. The work is split into stages, each running on its own thread and connected to the next
+ * stage by a {@link SpscRingBuffer}:
+ * <ol>
+ * <li>ingest: the thread calling {@link #offer(LocalDateTime, double, double)} or
+ * {@link #put(LocalDateTime, double, double)} publishes the bar,</li>
+ * <li>align: bars not after the last accepted bar or without a value are dropped, a missing volatility index value is
+ * carried forward from the last bar it was given for,</li>
+ * <li>update: the {@link LiveSubSystem} updates the standard deviation of the base value, the forecasts of all rules
+ * and the combined forecast, from which the position is derived. If a {@link BarJournal} is given, the bar is
+ * appended to it, so it can be replayed after a restart (see {@link LiveSubSystem#replay(BarJournal)}),</li>
+ * <li>position: the thread calling {@link #drainPositions(Consumer)} receives the results.</li>
+ * </ol>
+ * The steps within the update stage depend on each other for every bar, so they run on one thread. All
+ * {@link BarEvent}s are preallocated by the ring buffers and reused, so the pipeline itself does not allocate anything
+ * per bar.
+ * <p>
+ * If a ring buffer is full, the stage feeding it waits (backpressure). {@link #offer(LocalDateTime, double, double)}
+ * returns false instead of waiting. The number of bars waiting between the stages and the number of times a stage had
+ * to wait are provided for monitoring.
+ * <p>
+ * Ingesting and draining must each be done by one thread at a time. The threads of the stages are started upon
+ * instantiation and stopped by {@link #close()}. If a stage fails with an unexpected exception, the state of the
+ * {@link LiveSubSystem} cannot be relied upon anymore, so all stages are stopped and further bars are rejected (see
+ * {@link #getFailure()}).
+ * 
+ * @author Max Rumford
+ */
+public class LivePipeline implements AutoCloseable {
+
+	/* The logger of this class, used to report bars that could not be journaled and failed stages. */
+	private static final Logger logger = Logger.getLogger(LivePipeline.class);
+	/* The number of times an idle stage spins before it starts parking. */
+	private static final int MAX_SPINS = 100;
+	/* The time an idle stage parks for once it stopped spinning. */
+	private static final long PARK_NANOS = 50_000;
+
+	/* The LiveSubSystem updated by the update stage. */
+	private final LiveSubSystem liveSubSystem;
+	/* The journal the update stage appends the bars to. Null, if bars are not journaled. */
+	private final BarJournal journal;
+	/* The bars published by the ingesting thread. */
+	private final SpscRingBuffer<BarEvent> ingested;
+	/* The bars accepted by the align stage. */
+	private final SpscRingBuffer<BarEvent> aligned;
+	/* The bars including their forecasts and positions. */
+	private final SpscRingBuffer<BarEvent> positions;
+	/* The thread running the align stage. */
+	private final Thread alignThread;
+	/* The thread running the update stage. */
+	private final Thread updateThread;
+	/* Whether the stages are running. */
+	private volatile boolean running = true;
+	/* The exception a stage failed with. Null, if no stage failed. Set before running is cleared. */
+	private volatile RuntimeException failure;
+
+	/* The number of bars rejected by offer because the pipeline was full. */
+	private final AtomicLong rejectedBars = new AtomicLong();
+	/* The number of bars dropped by the align or update stage. */
+	private final AtomicLong droppedBars = new AtomicLong();
+	/* The number of bars whose positions have been published. */
+	private final AtomicLong processedBars = new AtomicLong();
+	/* The number of bars that could not be appended to the journal. */
+	private final AtomicLong journalFailures = new AtomicLong();
+	/* The number of times the ingesting thread waited for the align stage. */
+	private final AtomicLong ingestWaits = new AtomicLong();
+	/* The number of times the align stage waited for the update stage. */
+	private final AtomicLong alignWaits = new AtomicLong();
+	/* The number of times the update stage waited for the draining thread. */
+	private final AtomicLong updateWaits = new AtomicLong();
+
+	/* The date of the last bar accepted by the align stage. Only accessed by the align stage. */
+	private LocalDateTime lastAlignedDate;
+	/* The last volatility index value given. Only accessed by the align stage. */
+	private double lastVolatilityIndex = Double.NaN;
+
+	/**
+	 * Creates a new LivePipeline updating the given LiveSubSystem and starts the threads of its stages.
+	 * 
+	 * @param  liveSubSystem            {@link LiveSubSystem} The LiveSubSystem to be updated. Must not be null. Must
+	 *                                  not be updated by anyone else while this LivePipeline is running.
+	 * @param  capacity                 {@code int} The minimum number of bars each ring buffer can hold. Must be at
+	 *                                  least 1. Rounded up to the next power of two.
+	 * @throws IllegalArgumentException if the given values do not meet specifications.
+	 */
+	public LivePipeline(LiveSubSystem liveSubSystem, int capacity) {
+		this(liveSubSystem, capacity, null);
+	}
+
+	/**
+	 * Creates a new LivePipeline updating the given LiveSubSystem and appending every bar it was updated with to the
+	 * given journal, and starts the threads of its stages.
+	 * 
+	 * @param  liveSubSystem            Same as in {@link #LivePipeline(LiveSubSystem, int)}.
+	 * @param  capacity                 Same as in {@link #LivePipeline(LiveSubSystem, int)}.
+	 * @param  journal                  {@link BarJournal} The journal of the base value. Null, if bars are not to be
+	 *                                  journaled. Must not be appended to by anyone else while this LivePipeline is
+	 *                                  running. Bars the journal rejects, e.g. for fractions of seconds, are processed
+	 *                                  anyway and counted by {@link #getJournalFailures()}.
+	 * @throws IllegalArgumentException if the given values do not meet specifications.
+	 */
+	public LivePipeline(LiveSubSystem liveSubSystem, int capacity, BarJournal journal) {
+		if (liveSubSystem == null)
+			throw new IllegalArgumentException("LiveSubSystem must not be null");
+
+		this.liveSubSystem = liveSubSystem;
+		this.journal = journal;
+		this.lastAlignedDate = liveSubSystem.getLastDate();
+
+		this.ingested = new SpscRingBuffer<>(capacity, BarEvent::new);
+		this.aligned = new SpscRingBuffer<>(capacity, BarEvent::new);
+		this.positions = new SpscRingBuffer<>(capacity, BarEvent::new);
+
+		this.alignThread = new Thread(() -> this.runStage(this::runAlignStage), "LivePipeline-align");
+		this.updateThread = new Thread(() -> this.runStage(this::runUpdateStage), "LivePipeline-update");
+		this.alignThread.setDaemon(true);
+		this.updateThread.setDaemon(true);
+		this.alignThread.start();
+		this.updateThread.start();
+	}
+
+	/**
+	 * Publishes the given bar to the pipeline if there is room for it.
+	 * 
+	 * @param  date                  {@link LocalDateTime} The date of the bar. Bars without date or not after the last
+	 *                               accepted bar are dropped.
+	 * @param  value                 {@code double} The base value of the bar. Bars with Double.NaN are dropped.
+	 * @param  volatilityIndex       {@code double} The volatility index value of the bar. Double.NaN if not given.
+	 * @return                       {@code boolean} True, if the bar was published. False, if the pipeline was full.
+	 * @throws IllegalStateException if this LivePipeline was closed or a stage failed.
+	 */
+	public boolean offer(LocalDateTime date, double value, double volatilityIndex) {
+		this.validateRunning();
+
+		BarEvent event = this.ingested.tryClaim();
+		if (event == null) {
+			this.rejectedBars.incrementAndGet();
+			return false;
+		}
+		event.set(date, value, volatilityIndex);
+		this.ingested.publish();
+		return true;
+	}
+
+	/**
+	 * Publishes the given bar to the pipeline, waiting for room if necessary.
+	 * 
+	 * @param  date                  Same as in {@link #offer(LocalDateTime, double, double)}.
+	 * @param  value                 Same as in {@link #offer(LocalDateTime, double, double)}.
+	 * @param  volatilityIndex       Same as in {@link #offer(LocalDateTime, double, double)}.
+	 * @throws IllegalStateException if this LivePipeline was closed or a stage failed, also while waiting.
+	 */
+	public void put(LocalDateTime date, double value, double volatilityIndex) {
+		this.validateRunning();
+
+		BarEvent event = this.ingested.tryClaim();
+		for (int idleCount = 0; event == null; idleCount++) {
+			this.validateRunning();
+			if (idleCount == 0)
+				this.ingestWaits.incrementAndGet();
+			idle(idleCount);
+			event = this.ingested.tryClaim();
+		}
+		event.set(date, value, volatilityIndex);
+		this.ingested.publish();
+	}
+
+	/**
+	 * Hands all bars processed so far to the given consumer, in order of their dates. The {@link BarEvent}s are reused
+	 * by the pipeline once the consumer returns, so the consumer must copy any value it wants to keep.
+	 * 
+	 * @param  consumer                 {@code Consumer<BarEvent>} Receives the bars including their standard
+	 *                                  deviations, forecasts and positions. Must not be null.
+	 * @return                          {@code int} The number of bars handed to the consumer.
+	 * @throws IllegalArgumentException if the given consumer is null.
+	 */
+	public int drainPositions(Consumer<BarEvent> consumer) {
+		if (consumer == null)
+			throw new IllegalArgumentException("Consumer must not be null");
+
+		int drained = 0;
+		for (BarEvent event = this.positions.peek(); event != null; event = this.positions.peek()) {
+			consumer.accept(event);
+			this.positions.release();
+			drained++;
+		}
+		return drained;
+	}
+
+	/**
+	 * Stops the threads of all stages and waits for them to finish. Bars not yet drained are discarded.
+	 */
+	@Override
+	public void close() {
+		this.running = false;
+		boolean interrupted = false;
+		for (Thread thread : new Thread[] { this.alignThread, this.updateThread }) {
+			while (thread.isAlive()) {
+				try {
+					thread.join();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	/**
+	 * Runs the given stage. If it fails with an unexpected exception, the failure is recorded and all stages are
+	 * stopped, so the ingesting thread does not wait for a stage that will never take its bars.
+	 * 
+	 * @param stage {@link Runnable} The stage to be run.
+	 */
+	private void runStage(Runnable stage) {
+		try {
+			stage.run();
+		} catch (RuntimeException e) {
+			this.failure = e;
+			this.running = false;
+			logger.error("Stage " + Thread.currentThread().getName() + " failed, LivePipeline is stopped", e);
+		}
+	}
+
+	/**
+	 * The align stage: Drops bars without date or value or not after the last accepted bar and carries forward the
+	 * last volatility index value given if a bar lacks it.
+	 */
+	private void runAlignStage() {
+		int idleCount = 0;
+		while (this.running) {
+			BarEvent event = this.ingested.peek();
+			if (event == null) {
+				idle(idleCount++);
+				continue;
+			}
+			idleCount = 0;
+
+			if (event.getDate() == null || !event.getDate().isAfter(this.lastAlignedDate)
+			        || Double.isNaN(event.getValue())) {
+				this.droppedBars.incrementAndGet();
+				this.ingested.release();
+				continue;
+			}
+			if (Double.isNaN(event.getVolatilityIndex()))
+				event.setVolatilityIndex(this.lastVolatilityIndex);
+			else
+				this.lastVolatilityIndex = event.getVolatilityIndex();
+			if (this.liveSubSystem.isVolatilityIndexRequired() && Double.isNaN(event.getVolatilityIndex())) {
+				this.droppedBars.incrementAndGet();
+				this.ingested.release();
+				continue;
+			}
+
+			BarEvent alignedEvent = this.claim(this.aligned, this.alignWaits);
+			if (alignedEvent == null)
+				return;
+			alignedEvent.copyFrom(event);
+			this.lastAlignedDate = event.getDate();
+			this.ingested.release();
+			this.aligned.publish();
+		}
+	}
+
+	/**
+	 * The update stage: Updates the LiveSubSystem with every aligned bar and publishes the bar including its standard
+	 * deviation, forecast and position.
+	 */
+	private void runUpdateStage() {
+		int idleCount = 0;
+		while (this.running) {
+			BarEvent event = this.aligned.peek();
+			if (event == null) {
+				idle(idleCount++);
+				continue;
+			}
+			idleCount = 0;
+
+			String position;
+			try {
+				position = this.liveSubSystem.update(event.getDate(), event.getValue(), event.getVolatilityIndex());
+			} catch (IllegalArgumentException e) {
+				/* Cannot happen for aligned bars, but a bar failing validation must not stop the stage. */
+				this.droppedBars.incrementAndGet();
+				this.aligned.release();
+				continue;
+			}
+			if (this.journal != null)
+				this.appendToJournal(event);
+
+			BarEvent positionEvent = this.claim(this.positions, this.updateWaits);
+			if (positionEvent == null)
+				return;
+			positionEvent.copyFrom(event);
+			this.aligned.release();
+
+			positionEvent.setPosition(position);
+			positionEvent.setStandardDeviation(this.liveSubSystem.getStandardDeviation());
+			positionEvent.setForecast(this.liveSubSystem.getForecast());
+			this.positions.publish();
+			this.processedBars.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Appends the given bar to the journal. Failures are logged and counted, as the bar has already been processed.
+	 * 
+	 * @param event {@link BarEvent} The bar.
+	 */
+	private void appendToJournal(BarEvent event) {
+		try {
+			this.journal.append(event.getDate(), event.getValue());
+		} catch (IOException | RuntimeException e) {
+			this.journalFailures.incrementAndGet();
+			logger.error("Bar of " + event.getDate() + " could not be journaled", e);
+		}
+	}
+
+	/**
+	 * Claims the next event of the given ring buffer, waiting for room while this LivePipeline is running.
+	 * 
+	 * @param  ringBuffer {@code SpscRingBuffer<BarEvent>} The ring buffer to claim the event of.
+	 * @param  waits      {@link AtomicLong} Counts the number of times the stage had to wait.
+	 * @return            {@link BarEvent} The claimed event. Null, if this LivePipeline was closed while waiting.
+	 */
+	private BarEvent claim(SpscRingBuffer<BarEvent> ringBuffer, AtomicLong waits) {
+		BarEvent event = ringBuffer.tryClaim();
+		for (int idleCount = 0; event == null; idleCount++) {
+			if (!this.running)
+				return null;
+			if (idleCount == 0)
+				waits.incrementAndGet();
+			idle(idleCount);
+			event = ringBuffer.tryClaim();
+		}
+		return event;
+	}
+
+	/**
+	 * Waits briefly before a stage looks for work again. Spins at first, then parks the thread.
+	 * 
+	 * @param idleCount {@code int} The number of times the stage was idle in a row.
+	 */
+	private static void idle(int idleCount) {
+		if (idleCount < MAX_SPINS)
+			Thread.onSpinWait();
+		else
+			LockSupport.parkNanos(PARK_NANOS);
+	}
+
+	/**
+	 * Validates this LivePipeline is still running.
+	 * 
+	 * @throws IllegalStateException if this LivePipeline was closed or a stage failed.
+	 */
+	private void validateRunning() {
+		if (!this.running) {
+			RuntimeException localFailure = this.failure;
+			if (localFailure != null)
+				throw new IllegalStateException("LivePipeline was stopped by a failed stage", localFailure);
+			throw new IllegalStateException("LivePipeline was closed");
+		}
+	}
+
+	/**
+	 * ====================================================================== OVERRIDES
+	 * ======================================================================
+	 */
+
+	/**
+	 * Outputs the metrics of this LivePipeline as a {@code String}.
+	 */
+	@GeneratedCode
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("LivePipeline [running=");
+		builder.append(running);
+		builder.append(", failure=");
+		builder.append(failure);
+		builder.append(", ingestedDepth=");
+		builder.append(ingested.size());
+		builder.append(", alignedDepth=");
+		builder.append(aligned.size());
+		builder.append(", positionsDepth=");
+		builder.append(positions.size());
+		builder.append(", processedBars=");
+		builder.append(processedBars);
+		builder.append(", droppedBars=");
+		builder.append(droppedBars);
+		builder.append(", rejectedBars=");
+		builder.append(rejectedBars);
+		builder.append(", journalFailures=");
+		builder.append(journalFailures);
+		builder.append(", ingestWaits=");
+		builder.append(ingestWaits);
+		builder.append(", alignWaits=");
+		builder.append(alignWaits);
+		builder.append(", updateWaits=");
+		builder.append(updateWaits);
+		builder.append("]");
+		return builder.toString();
+	}
+
+	/**
+	 * ====================================================================== GETTERS AND SETTERS
+	 * ======================================================================
+	 */
+
+	/**
+	 * Get the exception a stage failed with, which stopped this LivePipeline.
+	 * 
+	 * @return {@link RuntimeException} The failure. Null, if no stage failed.
+	 */
+	public RuntimeException getFailure() {
+		return failure;
+	}
+
+	/**
+	 * Get the number of bars ingested but not yet taken by the align stage.
+	 * 
+	 * @return {@code int} The current depth of the queue in front of the align stage.
+	 */
+	public int getIngestedDepth() {
+		return ingested.size();
+	}
+
+	/**
+	 * Get the number of bars aligned but not yet taken by the update stage.
+	 * 
+	 * @return {@code int} The current depth of the queue in front of the update stage.
+	 */
+	public int getAlignedDepth() {
+		return aligned.size();
+	}
+
+	/**
+	 * Get the number of bars processed but not yet drained.
+	 * 
+	 * @return {@code int} The current depth of the queue in front of {@link #drainPositions(Consumer)}.
+	 */
+	public int getPositionsDepth() {
+		return positions.size();
+	}
+
+	/**
+	 * Get the number of bars each queue of this LivePipeline can hold.
+	 * 
+	 * @return {@code int} The capacity of each queue.
+	 */
+	public int getCapacity() {
+		return ingested.getCapacity();
+	}
+
+	/**
+	 * Get the number of bars whose positions have been published.
+	 * 
+	 * @return {@code long} The number of processed bars.
+	 */
+	public long getProcessedBars() {
+		return processedBars.get();
+	}
+
+	/**
+	 * Get the number of bars dropped for lacking a date, a value or a required volatility index value, or for not being
+	 * after the last accepted bar.
+	 * 
+	 * @return {@code long} The number of dropped bars.
+	 */
+	public long getDroppedBars() {
+		return droppedBars.get();
+	}
+
+	/**
+	 * Get the number of bars rejected by {@link #offer(LocalDateTime, double, double)} as the pipeline was full.
+	 * 
+	 * @return {@code long} The number of rejected bars.
+	 */
+	public long getRejectedBars() {
+		return rejectedBars.get();
+	}
+
+	/**
+	 * Get the number of bars that were processed but could not be appended to the journal.
+	 * 
+	 * @return {@code long} The number of journal failures. Always 0 if bars are not journaled.
+	 */
+	public long getJournalFailures() {
+		return journalFailures.get();
+	}
+
+	/**
+	 * Get the number of times {@link #put(LocalDateTime, double, double)} had to wait for the align stage.
+	 * 
+	 * @return {@code long} The number of waits of the ingesting thread.
+	 */
+	public long getIngestWaits() {
+		return ingestWaits.get();
+	}
+
+	/**
+	 * Get the number of times the align stage had to wait for the update stage.
+	 * 
+	 * @return {@code long} The number of waits of the align stage.
+	 */
+	public long getAlignWaits() {
+		return alignWaits.get();
+	}
+
+	/**
+	 * Get the number of times the update stage had to wait for the positions to be drained.
+	 * 
+	 * @return {@code long} The number of waits of the update stage.
+	 */
+	public long getUpdateWaits() {
+		return updateWaits.get();
+	}
+}
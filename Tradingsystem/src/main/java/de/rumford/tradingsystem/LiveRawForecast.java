@@ -0,0 +1,38 @@
+package de.rumford.tradingsystem;
+
+/**
+ * The incremental counterpart of {@link Rule#calculateRawForecast(java.time.LocalDateTime)}. A LiveRawForecast holds
+ * all state a rule needs to calculate the raw forecast for a further base value (e.g. the last values of its EWMAs) and
+ * updates this state in constant time per value, instead of recalculating it from all previous base values. Instances
+ * are created by {@link Rule#createLiveRawForecast()} and used by {@link LiveSubSystem}. After {@link #reset()}, the
+ * state is calculated from the following values alone, e.g. for the synthetic paths of a {@link MonteCarloSimulation}.
+ * 
+ * @author Max Rumford
+ */
+interface LiveRawForecast {
+
+	/**
+	 * Updates the state of this LiveRawForecast with the given values of the next time interval and returns the raw
+	 * forecast for this time interval.
+	 * 
+	 * @param  value           {@code double} The base value of the next time interval.
+	 * @param  volatilityIndex {@code double} The volatility index value of the next time interval. Double.NaN if not
+	 *                         given. Must be given if {@link #requiresVolatilityIndex()} is true.
+	 * @return                 {@code double} The raw forecast for the next time interval.
+	 */
+	double update(double value, double volatilityIndex);
+
+	/**
+	 * Whether this LiveRawForecast depends on volatility index values being given on update.
+	 * 
+	 * @return {@code boolean} True, if volatility index values must be given. False otherwise.
+	 */
+	boolean requiresVolatilityIndex();
+
+	/**
+	 * Resets the state of this LiveRawForecast to the state before the first base value, so the following updates
+	 * calculate the raw forecasts of the rule for a base value starting with the next value. Raw forecasts that cannot
+	 * be calculated yet (e.g. before a lookback window is filled) are Double.NaN, as in the rule.
+	 */
+	void reset();
+}
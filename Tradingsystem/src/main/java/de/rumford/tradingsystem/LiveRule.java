@@ -0,0 +1,104 @@
+package de.rumford.tradingsystem;
+
+import de.rumford.tradingsystem.helper.Util;
+
+/**
+ * The incremental counterpart of one {@link Rule}. Holds the frozen forecast scalar and either the
+ * {@link LiveRawForecast} of the rule or the incremental counterparts of its variations and their frozen weights. Used
+ * by {@link LiveSubSystem} to continue a rule and by {@link MonteCarloSimulation} to calculate a rule's forecasts for
+ * synthetic paths.
+ * 
+ * @author Max Rumford
+ */
+class LiveRule {
+
+	/* The incremental raw forecast. Null, if the rule has variations. */
+	private final LiveRawForecast rawForecast;
+	/* The incremental counterparts of the rule's variations. Null, if the rule has no variations. */
+	private final LiveRule[] variations;
+	/* The weights of the rule's variations. Null, if the rule has no variations. */
+	private final double[] variationsWeights;
+	/* The frozen forecast scalar. */
+	private final double forecastScalar;
+	/* The value the forecasts are scaled to. */
+	private final double baseScale;
+
+	/**
+	 * Creates the incremental counterpart of the given rule.
+	 * 
+	 * @param  rule                     {@link Rule} The rule to be continued.
+	 * @throws IllegalArgumentException if the given rule (or one of its variations) does not support live updates.
+	 */
+	LiveRule(Rule rule) {
+		this.forecastScalar = rule.getForecastScalar();
+		this.baseScale = rule.getBaseScale();
+
+		if (rule.hasVariations()) {
+			Rule[] ruleVariations = rule.getVariations();
+			this.rawForecast = null;
+			this.variations = new LiveRule[ruleVariations.length];
+			this.variationsWeights = new double[ruleVariations.length];
+			for (int i = 0; i < ruleVariations.length; i++) {
+				this.variations[i] = new LiveRule(ruleVariations[i]);
+				this.variationsWeights[i] = ruleVariations[i].getWeight();
+			}
+		} else {
+			this.rawForecast = rule.createLiveRawForecast();
+			this.variations = null;
+			this.variationsWeights = null;
+		}
+	}
+
+	/**
+	 * Updates this rule with the given values and returns its new forecast. The forecast of a rule with variations
+	 * is the weighted sum of its variations' forecasts, as in {@link Rule}.
+	 * 
+	 * @param  value             {@code double} The new base value.
+	 * @param  standardDeviation {@code double} The standard deviation of the base value at the new value.
+	 * @param  volatilityIndex   {@code double} The new volatility index value. Double.NaN if not given.
+	 * @return                   {@code double} The new forecast of this rule.
+	 */
+	double update(double value, double standardDeviation, double volatilityIndex) {
+		if (this.variations != null) {
+			double weightedForecast = 0;
+			for (int i = 0; i < this.variations.length; i++) {
+				double valueToBeAdded = this.variations[i].update(value, standardDeviation, volatilityIndex)
+				        * this.variationsWeights[i];
+				weightedForecast = i == 0 ? valueToBeAdded : weightedForecast + valueToBeAdded;
+			}
+			return weightedForecast;
+		}
+
+		double sdAdjustedForecast = Util.adjustForStandardDeviation(
+		        this.rawForecast.update(value, volatilityIndex), standardDeviation);
+		return Rule.scaleForecast(sdAdjustedForecast, this.forecastScalar, this.baseScale);
+	}
+
+	/**
+	 * Whether this rule or any of its variations depends on volatility index values being given on update.
+	 * 
+	 * @return {@code boolean} True, if volatility index values must be given. False otherwise.
+	 */
+	boolean requiresVolatilityIndex() {
+		if (this.variations == null)
+			return this.rawForecast.requiresVolatilityIndex();
+		for (LiveRule variation : this.variations) {
+			if (variation.requiresVolatilityIndex())
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Resets this rule and all its variations to the state before the first base value, see
+	 * {@link LiveRawForecast#reset()}. Forecast scalar and weights stay frozen.
+	 */
+	void reset() {
+		if (this.variations == null) {
+			this.rawForecast.reset();
+			return;
+		}
+		for (LiveRule variation : this.variations)
+			variation.reset();
+	}
+}
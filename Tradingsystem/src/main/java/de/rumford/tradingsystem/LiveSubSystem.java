@@ -0,0 +1,566 @@
+package de.rumford.tradingsystem;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import de.rumford.tradingsystem.helper.BarJournal;
+import de.rumford.tradingsystem.helper.CsvFollower;
+import de.rumford.tradingsystem.helper.GeneratedCode;
+import de.rumford.tradingsystem.helper.LatencyHistogram;
+import de.rumford.tradingsystem.helper.Util;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * The LiveSubSystem continues a {@link SubSystem} with new base values as they arrive, e.g. one bar at a time from a
+ * data feed. Instead of rebuilding the {@link BaseValue}, every {@link Rule}, the {@link DiversificationMultiplier} and
+ * the combined forecasts from scratch, every new value is propagated incrementally:
+ * <ol>
+ * <li>the standard deviation of the base value (EWMA of the squared returns), by appending the value to a
+ * continuation of the given SubSystem's base value (see {@link BaseValue#append(ValueDateTupel)}),</li>
+ * <li>the raw forecast of every rule (see {@link LiveRawForecast}),</li>
+ * <li>the standard deviation adjusted and scaled forecast of every rule and the weighted forecast of their
+ * variations,</li>
+ * <li>the combined forecast including the diversification multiplier.</li>
+ * </ol>
+ * Each of these steps costs constant time per value, independent of the number of previous values. The duration of
+ * every step (and of the rules one by one) is recorded in a {@link LatencyHistogram}, so the tail latency of live
+ * updates can be monitored. Recording is on by default and can be turned off by
+ * {@link #setLatencyRecordingEnabled(boolean)}.
+ * <p>
+ * All values derived from the reference window (forecast scalars, weights of variations and the diversification
+ * multiplier) are frozen upon instantiation, just as they do not change for values after the reference window in the
+ * given SubSystem. Thus the forecasts of this LiveSubSystem equal the forecasts of a SubSystem built from all values
+ * (except for rounding). Only rules supporting live updates ({@link EWMAC} and {@link VolatilityDifference}) can be
+ * used.
+ * <p>
+ * Instances of this class are not thread-safe. Every update must be done by the same thread or be synchronized
+ * externally.
+ * 
+ * @author Max Rumford
+ */
+public class LiveSubSystem {
+
+	/* The value all forecasts are scaled to. */
+	private double baseScale;
+	/* The frozen value of the diversification multiplier. */
+	private double diversificationMultiplierValue;
+	/* The incremental counterparts of the SubSystem's rules. */
+	private LiveRule[] rules;
+	/* The continuation of the SubSystem's base value, every new value is appended to. */
+	private BaseValue baseValue;
+	/* Whether the rules depend on volatility index values being given on update. */
+	private boolean volatilityIndexRequired;
+	/* The date of the last value. */
+	private LocalDateTime lastDate;
+	/* The last value. */
+	private double lastValue;
+	/* The standard deviation of the base value at the last value. */
+	private double standardDeviation;
+	/* The combined forecast at the last value. */
+	private double forecast;
+	/* Whether the durations of updates are recorded. */
+	private boolean latencyRecordingEnabled = true;
+	/* The durations of whole updates. */
+	private LatencyHistogram updateLatencies;
+	/* The durations of updating the standard deviation. */
+	private LatencyHistogram standardDeviationLatencies;
+	/* The durations of updating each rule. */
+	private LatencyHistogram[] ruleLatencies;
+	/* The durations of combining the forecasts of all rules. */
+	private LatencyHistogram combinationLatencies;
+
+	/**
+	 * Creates a new LiveSubSystem continuing the given SubSystem after its last base value. The state of all rules is
+	 * taken over from the given SubSystem in one pass over its values.
+	 * 
+	 * @param  subSystem                {@link SubSystem} The SubSystem to be continued. Must not be null. All its rules
+	 *                                  (or their variations) must support live updates, see
+	 *                                  {@link Rule#createLiveRawForecast()}.
+	 * @throws IllegalArgumentException if the given SubSystem does not meet specifications.
+	 */
+	public LiveSubSystem(SubSystem subSystem) {
+		if (subSystem == null)
+			throw new IllegalArgumentException("SubSystem must not be null");
+
+		Rule[] subSystemRules = subSystem.getRules();
+		LiveRule[] liveRules = new LiveRule[subSystemRules.length];
+		boolean calculatedVolatilityIndexRequired = false;
+		for (int i = 0; i < subSystemRules.length; i++) {
+			liveRules[i] = new LiveRule(subSystemRules[i]);
+			calculatedVolatilityIndexRequired |= liveRules[i].requiresVolatilityIndex();
+		}
+		this.setRules(liveRules);
+		this.setVolatilityIndexRequired(calculatedVolatilityIndexRequired);
+
+		LatencyHistogram[] calculatedRuleLatencies = new LatencyHistogram[subSystemRules.length];
+		for (int i = 0; i < subSystemRules.length; i++)
+			calculatedRuleLatencies[i] = new LatencyHistogram(
+			        "rule " + i + " (" + subSystemRules[i].getClass().getSimpleName() + ")");
+		this.setRuleLatencies(calculatedRuleLatencies);
+		this.setUpdateLatencies(new LatencyHistogram("update"));
+		this.setStandardDeviationLatencies(new LatencyHistogram("standard deviation"));
+		this.setCombinationLatencies(new LatencyHistogram("combination"));
+
+		this.setBaseScale(subSystem.getBaseScale());
+		this.setDiversificationMultiplierValue(subSystem.getDiversificationMultiplier().getValue());
+
+		/* The state of the standard deviation is taken over from the base value instead of being recalculated. */
+		BaseValue continuedBaseValue = subSystem.getBaseValue().createContinuation();
+		this.setBaseValue(continuedBaseValue);
+
+		int numberOfValues = continuedBaseValue.getNumberOfValues();
+		ValueDateTupel lastBaseValue = continuedBaseValue.getValue(numberOfValues - 1);
+		this.setLastDate(lastBaseValue.getDate());
+		this.setLastValue(lastBaseValue.getValue());
+		this.setStandardDeviation(numberOfValues > 1
+		        ? continuedBaseValue.getStandardDeviationValue(numberOfValues - 2).getValue()
+		        : Double.NaN);
+
+		ValueDateTupel[] combinedForecasts = subSystem.getCombinedForecasts();
+		this.setForecast(combinedForecasts[combinedForecasts.length - 1].getValue());
+	}
+
+	/**
+	 * Appends the given value and returns the resulting position. Only usable if no rule depends on volatility index
+	 * values being given (see {@link #isVolatilityIndexRequired()}).
+	 * 
+	 * @param  date                     {@link LocalDateTime} The date of the new value. Must not be null. Must be
+	 *                                  after the date of the last value.
+	 * @param  value                    {@code double} The new value. Must not be Double.NaN.
+	 * @return                          {@code String} The position as of {@link Util#getPositionFromForecast(double)}.
+	 * @throws IllegalArgumentException if the given values do not meet specifications or if a volatility index value
+	 *                                  is required.
+	 */
+	public String update(LocalDateTime date, double value) {
+		return this.update(date, value, Double.NaN);
+	}
+
+	/**
+	 * Appends the given value and volatility index value and returns the resulting position.
+	 * 
+	 * @param  date                     {@link LocalDateTime} The date of the new value. Must not be null. Must be
+	 *                                  after the date of the last value.
+	 * @param  value                    {@code double} The new value. Must not be Double.NaN.
+	 * @param  volatilityIndex          {@code double} The new volatility index value. Must not be Double.NaN if
+	 *                                  {@link #isVolatilityIndexRequired()}.
+	 * @return                          {@code String} The position as of {@link Util#getPositionFromForecast(double)}.
+	 * @throws IllegalArgumentException if the given values do not meet specifications.
+	 */
+	public String update(LocalDateTime date, double value, double volatilityIndex) {
+		this.validateUpdate(date, value, volatilityIndex);
+
+		boolean recording = this.latencyRecordingEnabled;
+		long startNanos = recording ? System.nanoTime() : 0;
+		long stepNanos = startNanos;
+
+		/* The base value continues its standard deviation for the appended value in constant time. */
+		this.baseValue.append(new ValueDateTupel(date, value));
+		this.standardDeviation = this.baseValue
+		        .getStandardDeviationValue(this.baseValue.getNumberOfValues() - 2).getValue();
+		if (recording)
+			stepNanos = this.standardDeviationLatencies.recordSince(stepNanos);
+
+		/* All rules are weighted equally, as in SubSystem. */
+		double rulesWeight = 1d / this.rules.length;
+		double combinedForecast = 0;
+		for (int i = 0; i < this.rules.length; i++) {
+			double weightedForecast = this.rules[i].update(value, this.standardDeviation, volatilityIndex)
+			        * rulesWeight;
+			combinedForecast = i == 0 ? weightedForecast : combinedForecast + weightedForecast;
+			if (recording)
+				stepNanos = this.ruleLatencies[i].recordSince(stepNanos);
+		}
+		this.forecast = SubSystem.applyDiversificationMultiplier(combinedForecast, this.diversificationMultiplierValue,
+		        this.baseScale);
+		if (recording) {
+			long endNanos = this.combinationLatencies.recordSince(stepNanos);
+			this.updateLatencies.recordValue(endNanos - startNanos);
+		}
+
+		this.lastDate = date;
+		this.lastValue = value;
+
+		return this.getPosition();
+	}
+
+	/**
+	 * Updates this LiveSubSystem with all bars of the given journal dated after the last value, e.g. after a restart
+	 * from a SubSystem restored by {@link SubSystemCheckpoint}. Only usable if no rule depends on volatility index
+	 * values being given (see {@link #isVolatilityIndexRequired()}), as journals hold base values only.
+	 * 
+	 * @param  journal                  {@link BarJournal} The journal of the base value. Must not be null.
+	 * @return                          {@code int} The number of bars replayed.
+	 * @throws IllegalArgumentException if the given journal is null or if a volatility index value is required.
+	 * @throws IllegalStateException    if the given journal was closed.
+	 */
+	public int replay(BarJournal journal) {
+		if (journal == null)
+			throw new IllegalArgumentException("Journal must not be null");
+
+		ValueDateTupel[] bars = journal.getValuesAfter(this.getLastDate());
+		for (ValueDateTupel bar : bars)
+			this.update(bar.getDate(), bar.getValue());
+		return bars.length;
+	}
+
+	/**
+	 * Updates this LiveSubSystem with the rows appended to the CSV file of the given follower since it was last polled.
+	 * Rows dated not after the last value are skipped, so a file can be followed from its beginning although its first
+	 * rows are already part of the SubSystem this LiveSubSystem was created of. Only usable if no rule depends on
+	 * volatility index values being given (see {@link #isVolatilityIndexRequired()}), as the CSV file holds base
+	 * values only.
+	 * <p>
+	 * The follower consumes a row only once it has been updated with or skipped. If a row cannot be parsed or be
+	 * updated with, the rows before it remain updated with and the follower stays before it.
+	 * 
+	 * @param  follower                 {@link CsvFollower} The follower of the CSV file of the base value. Must not be
+	 *                                  null.
+	 * @return                          {@code int} The number of rows updated with.
+	 * @throws IOException              if the CSV file cannot be read.
+	 * @throws IllegalArgumentException if the given follower is null, if a volatility index value is required, if any
+	 *                                  of the rows cannot be parsed or does not meet the specifications of
+	 *                                  {@link #update(LocalDateTime, double)}.
+	 */
+	public int follow(CsvFollower follower) throws IOException {
+		if (follower == null)
+			throw new IllegalArgumentException("Follower must not be null");
+		if (this.isVolatilityIndexRequired())
+			throw new IllegalArgumentException(
+			        "Rows of a CSV file cannot be followed, as at least one rule depends on a volatility index");
+
+		int[] updated = { 0 };
+		follower.poll(row -> {
+			if (!row.getDate().isAfter(this.getLastDate()))
+				return;
+			this.update(row.getDate(), row.getValue());
+			updated[0]++;
+		});
+		return updated[0];
+	}
+
+	/**
+	 * Get the position resulting from the last combined forecast.
+	 * 
+	 * @return {@code String} The position as of {@link Util#getPositionFromForecast(double)}.
+	 */
+	public String getPosition() {
+		return Util.getPositionFromForecast(this.getForecast());
+	}
+
+	/**
+	 * Get all LatencyHistograms of this LiveSubSystem: the durations of whole updates, of updating the standard
+	 * deviation, of updating each rule and of combining their forecasts.
+	 * 
+	 * @return {@code LatencyHistogram[]} The LatencyHistograms in the order of the steps of an update.
+	 */
+	public LatencyHistogram[] getLatencyHistograms() {
+		LatencyHistogram[] histograms = new LatencyHistogram[this.ruleLatencies.length + 3];
+		histograms[0] = this.getUpdateLatencies();
+		histograms[1] = this.getStandardDeviationLatencies();
+		System.arraycopy(this.ruleLatencies, 0, histograms, 2, this.ruleLatencies.length);
+		histograms[histograms.length - 1] = this.getCombinationLatencies();
+		return histograms;
+	}
+
+	/**
+	 * Validates the given values of an update. No state is changed if validation fails.
+	 * 
+	 * @param  date                     {@link LocalDateTime} Must not be null. Must be after the date of the last
+	 *                                  value.
+	 * @param  value                    {@code double} Must not be Double.NaN.
+	 * @param  volatilityIndex          {@code double} Must not be Double.NaN if a volatility index is required.
+	 * @throws IllegalArgumentException if any of the above specifications are not met.
+	 */
+	private void validateUpdate(LocalDateTime date, double value, double volatilityIndex) {
+		if (date == null)
+			throw new IllegalArgumentException("Date must not be null");
+		if (!date.isAfter(this.getLastDate()))
+			throw new IllegalArgumentException("Date must be after the date of the last value: " + this.getLastDate());
+		if (Double.isNaN(value))
+			throw new IllegalArgumentException("Value must not be NaN");
+		if (this.isVolatilityIndexRequired() && Double.isNaN(volatilityIndex))
+			throw new IllegalArgumentException("Volatility index must be given, as at least one rule depends on it");
+	}
+
+	/**
+	 * ====================================================================== OVERRIDES
+	 * ======================================================================
+	 */
+
+	/**
+	 * Outputs the fields of this LiveSubSystem as a {@code String}.
+	 */
+	@GeneratedCode
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("LiveSubSystem [baseScale=");
+		builder.append(baseScale);
+		builder.append(", diversificationMultiplierValue=");
+		builder.append(diversificationMultiplierValue);
+		builder.append(", numberOfRules=");
+		builder.append(rules.length);
+		builder.append(", volatilityIndexRequired=");
+		builder.append(volatilityIndexRequired);
+		builder.append(", lastDate=");
+		builder.append(lastDate);
+		builder.append(", lastValue=");
+		builder.append(lastValue);
+		builder.append(", standardDeviation=");
+		builder.append(standardDeviation);
+		builder.append(", forecast=");
+		builder.append(forecast);
+		builder.append("]");
+		return builder.toString();
+	}
+
+	/**
+	 * ====================================================================== GETTERS AND SETTERS
+	 * ======================================================================
+	 */
+
+	/**
+	 * Get the base scale of this LiveSubSystem.
+	 * 
+	 * @return {@code double} The base scale.
+	 */
+	public double getBaseScale() {
+		return baseScale;
+	}
+
+	/**
+	 * Set the base scale of this LiveSubSystem.
+	 * 
+	 * @param baseScale {@code double} The base scale to set.
+	 */
+	private void setBaseScale(double baseScale) {
+		this.baseScale = baseScale;
+	}
+
+	/**
+	 * Get the frozen value of the diversification multiplier of this LiveSubSystem.
+	 * 
+	 * @return {@code double} The value of the diversification multiplier.
+	 */
+	public double getDiversificationMultiplierValue() {
+		return diversificationMultiplierValue;
+	}
+
+	/**
+	 * Set the value of the diversification multiplier of this LiveSubSystem.
+	 * 
+	 * @param diversificationMultiplierValue {@code double} The value to set.
+	 */
+	private void setDiversificationMultiplierValue(double diversificationMultiplierValue) {
+		this.diversificationMultiplierValue = diversificationMultiplierValue;
+	}
+
+	/**
+	 * Set the incremental counterparts of the rules of this LiveSubSystem.
+	 * 
+	 * @param rules {@code LiveRule[]} The rules to set.
+	 */
+	private void setRules(LiveRule[] rules) {
+		this.rules = rules;
+	}
+
+	/**
+	 * Get the base value of this LiveSubSystem: the continuation of the given SubSystem's base value, including all
+	 * values updated with. Must not be appended to other than by this LiveSubSystem.
+	 * 
+	 * @return {@link BaseValue} The base value.
+	 */
+	BaseValue getBaseValue() {
+		return baseValue;
+	}
+
+	/**
+	 * Set the base value of this LiveSubSystem.
+	 * 
+	 * @param baseValue {@link BaseValue} The base value to set.
+	 */
+	private void setBaseValue(BaseValue baseValue) {
+		this.baseValue = baseValue;
+	}
+
+	/**
+	 * Whether the rules of this LiveSubSystem depend on volatility index values being given on update.
+	 * 
+	 * @return {@code boolean} True, if {@link #update(LocalDateTime, double, double)} must be used. False otherwise.
+	 */
+	public boolean isVolatilityIndexRequired() {
+		return volatilityIndexRequired;
+	}
+
+	/**
+	 * Set whether the rules of this LiveSubSystem depend on volatility index values.
+	 * 
+	 * @param volatilityIndexRequired {@code boolean} The value to set.
+	 */
+	private void setVolatilityIndexRequired(boolean volatilityIndexRequired) {
+		this.volatilityIndexRequired = volatilityIndexRequired;
+	}
+
+	/**
+	 * Get the date of the last value of this LiveSubSystem.
+	 * 
+	 * @return {@link LocalDateTime} The date of the last value.
+	 */
+	public LocalDateTime getLastDate() {
+		return lastDate;
+	}
+
+	/**
+	 * Set the date of the last value of this LiveSubSystem.
+	 * 
+	 * @param lastDate {@link LocalDateTime} The date to set.
+	 */
+	private void setLastDate(LocalDateTime lastDate) {
+		this.lastDate = lastDate;
+	}
+
+	/**
+	 * Get the last value of this LiveSubSystem.
+	 * 
+	 * @return {@code double} The last value.
+	 */
+	public double getLastValue() {
+		return lastValue;
+	}
+
+	/**
+	 * Set the last value of this LiveSubSystem.
+	 * 
+	 * @param lastValue {@code double} The value to set.
+	 */
+	private void setLastValue(double lastValue) {
+		this.lastValue = lastValue;
+	}
+
+	/**
+	 * Get the standard deviation of the base value at the last value of this LiveSubSystem.
+	 * 
+	 * @return {@code double} The standard deviation.
+	 */
+	public double getStandardDeviation() {
+		return standardDeviation;
+	}
+
+	/**
+	 * Set the standard deviation of this LiveSubSystem.
+	 * 
+	 * @param standardDeviation {@code double} The standard deviation to set.
+	 */
+	private void setStandardDeviation(double standardDeviation) {
+		this.standardDeviation = standardDeviation;
+	}
+
+	/**
+	 * Get the combined forecast at the last value of this LiveSubSystem.
+	 * 
+	 * @return {@code double} The combined forecast.
+	 */
+	public double getForecast() {
+		return forecast;
+	}
+
+	/**
+	 * Set the combined forecast of this LiveSubSystem.
+	 * 
+	 * @param forecast {@code double} The forecast to set.
+	 */
+	private void setForecast(double forecast) {
+		this.forecast = forecast;
+	}
+
+	/**
+	 * Whether the durations of updates are recorded by this LiveSubSystem.
+	 * 
+	 * @return {@code boolean} True, if latency recording is enabled. False otherwise.
+	 */
+	public boolean isLatencyRecordingEnabled() {
+		return latencyRecordingEnabled;
+	}
+
+	/**
+	 * Set whether the durations of updates are recorded by this LiveSubSystem.
+	 * 
+	 * @param latencyRecordingEnabled {@code boolean} True to record the durations. False otherwise.
+	 */
+	public void setLatencyRecordingEnabled(boolean latencyRecordingEnabled) {
+		this.latencyRecordingEnabled = latencyRecordingEnabled;
+	}
+
+	/**
+	 * Get the durations of whole updates of this LiveSubSystem.
+	 * 
+	 * @return {@link LatencyHistogram} The durations of updates in nanoseconds.
+	 */
+	public LatencyHistogram getUpdateLatencies() {
+		return updateLatencies;
+	}
+
+	/**
+	 * Set the durations of whole updates of this LiveSubSystem.
+	 * 
+	 * @param updateLatencies {@link LatencyHistogram} The LatencyHistogram to set.
+	 */
+	private void setUpdateLatencies(LatencyHistogram updateLatencies) {
+		this.updateLatencies = updateLatencies;
+	}
+
+	/**
+	 * Get the durations of updating the standard deviation of this LiveSubSystem.
+	 * 
+	 * @return {@link LatencyHistogram} The durations of updating the standard deviation in nanoseconds.
+	 */
+	public LatencyHistogram getStandardDeviationLatencies() {
+		return standardDeviationLatencies;
+	}
+
+	/**
+	 * Set the durations of updating the standard deviation of this LiveSubSystem.
+	 * 
+	 * @param standardDeviationLatencies {@link LatencyHistogram} The LatencyHistogram to set.
+	 */
+	private void setStandardDeviationLatencies(LatencyHistogram standardDeviationLatencies) {
+		this.standardDeviationLatencies = standardDeviationLatencies;
+	}
+
+	/**
+	 * Get the durations of updating each rule of this LiveSubSystem, including its variations.
+	 * 
+	 * @return {@code LatencyHistogram[]} The durations of updating each rule in nanoseconds, in the order of the
+	 *         rules.
+	 */
+	public LatencyHistogram[] getRuleLatencies() {
+		return ruleLatencies;
+	}
+
+	/**
+	 * Set the durations of updating each rule of this LiveSubSystem.
+	 * 
+	 * @param ruleLatencies {@code LatencyHistogram[]} The LatencyHistograms to set.
+	 */
+	private void setRuleLatencies(LatencyHistogram[] ruleLatencies) {
+		this.ruleLatencies = ruleLatencies;
+	}
+
+	/**
+	 * Get the durations of combining the forecasts of all rules of this LiveSubSystem.
+	 * 
+	 * @return {@link LatencyHistogram} The durations of combining the forecasts in nanoseconds.
+	 */
+	public LatencyHistogram getCombinationLatencies() {
+		return combinationLatencies;
+	}
+
+	/**
+	 * Set the durations of combining the forecasts of all rules of this LiveSubSystem.
+	 * 
+	 * @param combinationLatencies {@link LatencyHistogram} The LatencyHistogram to set.
+	 */
+	private void setCombinationLatencies(LatencyHistogram combinationLatencies) {
+		this.combinationLatencies = combinationLatencies;
+	}
+}
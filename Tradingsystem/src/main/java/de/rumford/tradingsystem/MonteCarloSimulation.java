@@ -0,0 +1,635 @@
+package de.rumford.tradingsystem;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import org.apache.commons.math3.stat.descriptive.rank.Percentile;
+
+import de.rumford.tradingsystem.helper.GeneratedCode;
+import de.rumford.tradingsystem.helper.Util;
+import de.rumford.tradingsystem.helper.Validator;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * The MonteCarloSimulation evaluates a {@link SubSystem} not only on the single historical path of its
+ * {@link BaseValue}, but on a large number of synthetic paths.
+ * <p>
+ * Each synthetic path is generated by a block bootstrap: The returns of the base value and its short index are split
+ * into blocks of consecutive returns, which are drawn with replacement and chained together, starting from the
+ * original first value. Drawing whole blocks instead of single returns keeps the short-term structure of the returns
+ * (e.g. clusters of volatility) intact. Base value and short index always draw the very same blocks, so both stay
+ * consistent with each other.
+ * <p>
+ * For each path the forecasts are recalculated and a backtest is performed over the given test window. The final
+ * capital and the maximum drawdown of every path are collected, resulting in a distribution of both. All values
+ * derived from the reference window (forecast scalars, weights of variations and the diversification multiplier) are
+ * taken over from the given SubSystem, as in {@link LiveSubSystem}, so only the rules' raw forecasts and the standard
+ * deviation of the base value depend on the synthetic values. Therefore only rules supporting live updates
+ * ({@link EWMAC} and {@link VolatilityDifference} calculating its volatility indices) can be simulated.
+ * <p>
+ * Paths are calculated on primitive buffers: Growth factors are extracted once and shared by all paths. Every worker
+ * thread allocates its buffers for values, short index values, forecasts and performance values as well as the
+ * incremental counterparts of the rules once and reuses them for all its paths. Neither a BaseValue nor a Rule nor an
+ * EWMA is created per path, so the synthetic values never enter the {@link DerivedSeriesCache}. As every path uses its
+ * own random number generator derived from the given seed, the results are reproducible regardless of the order the
+ * paths are calculated in.
+ * 
+ * @author Max Rumford
+ */
+public class MonteCarloSimulation {
+
+	/* The increment used to derive each path's seed from the simulation's seed. */
+	private static final long SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+	/* The number of chunks of paths per available processor, balancing the load of the worker threads. */
+	private static final int CHUNKS_PER_PROCESSOR = 4;
+
+	/* The SubSystem providing base value, capital and base scale for all paths. */
+	private SubSystem subSystem;
+	/* The start of the test window used for each path's backtest. */
+	private LocalDateTime startOfTestWindow;
+	/* The end of the test window used for each path's backtest. */
+	private LocalDateTime endOfTestWindow;
+	/* The number of synthetic paths. */
+	private int numberOfPaths;
+	/* The number of consecutive returns drawn at once. */
+	private int blockLength;
+	/* The seed all paths' random number generators are derived from. */
+	private long seed;
+	/* The final capital of each synthetic path. */
+	private double[] finalCapitals;
+	/* The maximum drawdown of each synthetic path. */
+	private double[] maxDrawdowns;
+
+	/**
+	 * Creates a new MonteCarloSimulation and calculates all synthetic paths.
+	 * 
+	 * @param  subSystem                {@link SubSystem} The SubSystem to be simulated. Its base value is resampled,
+	 *                                  its rules, diversification multiplier, capital and base scale are used for all
+	 *                                  paths. Must not be null. All its rules (or their variations) must support live
+	 *                                  updates without volatility index values being given, see
+	 *                                  {@link Rule#createLiveRawForecast()}.
+	 * @param  startOfTestWindow        {@link LocalDateTime} The start of each path's backtest. See
+	 *                                  {@link Validator#validateTimeWindow(LocalDateTime, LocalDateTime, ValueDateTupel[])}
+	 *                                  for limitations. Must be covered by the SubSystem's combined forecasts.
+	 * @param  endOfTestWindow          {@link LocalDateTime} The end of each path's backtest. See
+	 *                                  {@link Validator#validateTimeWindow(LocalDateTime, LocalDateTime, ValueDateTupel[])}
+	 *                                  for limitations. Must be covered by the SubSystem's combined forecasts.
+	 * @param  numberOfPaths            {@code int} The number of synthetic paths to be calculated. Must be at least 1.
+	 * @param  blockLength              {@code int} The number of consecutive returns per block. Must be at least 1 and
+	 *                                  must not exceed the number of returns of the base value.
+	 * @param  seed                     {@code long} The seed for the random number generation.
+	 * @throws IllegalArgumentException if any of the above specifications are not met.
+	 */
+	public MonteCarloSimulation(SubSystem subSystem, LocalDateTime startOfTestWindow, LocalDateTime endOfTestWindow,
+	        int numberOfPaths, int blockLength, long seed) {
+		validateInput(subSystem, startOfTestWindow, endOfTestWindow, numberOfPaths, blockLength);
+
+		this.setSubSystem(subSystem);
+		this.setStartOfTestWindow(startOfTestWindow);
+		this.setEndOfTestWindow(endOfTestWindow);
+		this.setNumberOfPaths(numberOfPaths);
+		this.setBlockLength(blockLength);
+		this.setSeed(seed);
+
+		this.calculatePaths();
+	}
+
+	/**
+	 * Calculates all synthetic paths in parallel and stores their final capitals and maximum drawdowns. The paths are
+	 * split into chunks, so every worker thread creates its {@link PathSimulator} once per chunk instead of once per
+	 * path.
+	 */
+	private void calculatePaths() {
+		double[] valueFactors = calculateGrowthFactors(this.getSubSystem().getBaseValue().getValues());
+		double[] shortIndexFactors = calculateGrowthFactors(this.getSubSystem().getBaseValue().getShortIndexValues());
+
+		double[] calculatedFinalCapitals = new double[this.getNumberOfPaths()];
+		double[] calculatedMaxDrawdowns = new double[this.getNumberOfPaths()];
+		int numberOfChunks = Math.min(this.getNumberOfPaths(),
+		        Runtime.getRuntime().availableProcessors() * CHUNKS_PER_PROCESSOR);
+
+		/* Each path writes only to its own position, hence no synchronization is needed. */
+		IntStream.range(0, numberOfChunks).parallel().forEach(chunk -> {
+			PathSimulator simulator = this.createPathSimulator(valueFactors, shortIndexFactors);
+			for (int path = chunk; path < this.getNumberOfPaths(); path += numberOfChunks) {
+				SplittableRandom random = new SplittableRandom(this.getSeed() + path * SEED_INCREMENT);
+				drawReturnIndices(simulator.returnIndices, valueFactors.length, this.getBlockLength(), random);
+
+				calculatedFinalCapitals[path] = simulator.simulate();
+				calculatedMaxDrawdowns[path] = Util.calculateMaxDrawdown(simulator.performanceValues);
+			}
+		});
+
+		this.setFinalCapitals(calculatedFinalCapitals);
+		this.setMaxDrawdowns(calculatedMaxDrawdowns);
+	}
+
+	/**
+	 * Calculates the performance values of the synthetic path chaining the returns at the given positions. Used to
+	 * verify a path against the backtest of the given SubSystem.
+	 * 
+	 * @param  returnIndices {@code int[]} The positions of the returns to be chained. Must contain one position per
+	 *                       value up to the end of the test window, except for the first value.
+	 * @return               {@code double[]} The performance values of the test window.
+	 */
+	double[] calculatePerformanceValues(int[] returnIndices) {
+		PathSimulator simulator = this.createPathSimulator(
+		        calculateGrowthFactors(this.getSubSystem().getBaseValue().getValues()),
+		        calculateGrowthFactors(this.getSubSystem().getBaseValue().getShortIndexValues()));
+		System.arraycopy(returnIndices, 0, simulator.returnIndices, 0, simulator.returnIndices.length);
+		simulator.simulate();
+		return simulator.performanceValues.clone();
+	}
+
+	/**
+	 * Creates a {@link PathSimulator} for the SubSystem and test window of this MonteCarloSimulation.
+	 * 
+	 * @param  valueFactors      {@code double[]} The growth factors of the base value.
+	 * @param  shortIndexFactors {@code double[]} The growth factors of the short index.
+	 * @return                   {@link PathSimulator} The created PathSimulator.
+	 */
+	private PathSimulator createPathSimulator(double[] valueFactors, double[] shortIndexFactors) {
+		ValueDateTupel[] values = this.getSubSystem().getBaseValue().getValues();
+		int startPosition = ValueDateTupel.getPosition(values, this.getStartOfTestWindow());
+		int endPosition = ValueDateTupel.getPosition(values, this.getEndOfTestWindow());
+		return new PathSimulator(this.getSubSystem(), valueFactors, shortIndexFactors, startPosition,
+		        endPosition - startPosition + 1);
+	}
+
+	/**
+	 * Calculates the growth factors between consecutive values, i.e. {@code v_t / v_t-1}.
+	 * 
+	 * @param  values {@code ValueDateTupel[]} The values to be examined.
+	 * @return        {@code double[]} The growth factors. Has one element less than the given values.
+	 */
+	private static double[] calculateGrowthFactors(ValueDateTupel[] values) {
+		double[] growthFactors = new double[values.length - 1];
+		for (int i = 1; i < values.length; i++)
+			growthFactors[i - 1] = values[i].getValue() / values[i - 1].getValue();
+		return growthFactors;
+	}
+
+	/**
+	 * Draws the positions of the returns making up a synthetic path into the given array. Blocks of consecutive
+	 * positions are drawn with replacement. A block reaching past the last return continues with the first one
+	 * (circular block bootstrap), so every return has the same chance of being drawn.
+	 * 
+	 * @param returnIndices   {@code int[]} The array the drawn positions are written to, one per return of the path.
+	 * @param numberOfReturns {@code int} The number of returns available.
+	 * @param blockLength     {@code int} The number of consecutive returns per block.
+	 * @param random          {@link SplittableRandom} The random number generator to be used.
+	 */
+	private static void drawReturnIndices(int[] returnIndices, int numberOfReturns, int blockLength,
+	        SplittableRandom random) {
+		int blockStart = 0;
+		for (int i = 0; i < returnIndices.length; i++) {
+			if (i % blockLength == 0)
+				blockStart = random.nextInt(numberOfReturns);
+			returnIndices[i] = (blockStart + i % blockLength) % numberOfReturns;
+		}
+	}
+
+	/**
+	 * Simulates synthetic paths of one SubSystem on buffers allocated once. Synthetic values are only calculated up to
+	 * the end of the test window, as later values cannot influence the backtest. Instances are not thread-safe, every
+	 * worker thread uses its own.
+	 */
+	private static class PathSimulator {
+
+		/* The growth factors of the base value, shared by all simulators. */
+		private final double[] valueFactors;
+		/* The growth factors of the short index, shared by all simulators. */
+		private final double[] shortIndexFactors;
+		/* The first value of the base value. */
+		private final double firstValue;
+		/* The first value of the short index. */
+		private final double firstShortIndexValue;
+		/* The EWMA of the squared returns of the base value, providing the decay for the standard deviation. */
+		private final EWMA squaredReturnsEwma;
+		/* The incremental counterparts of the SubSystem's rules. */
+		private final LiveRule[] rules;
+		/* The frozen value of the diversification multiplier. */
+		private final double diversificationMultiplierValue;
+		/* The value all forecasts are scaled to. */
+		private final double baseScale;
+		/* The starting capital of each backtest. */
+		private final double capital;
+		/* The position of the start of the test window. */
+		private final int startPosition;
+		/* The number of values in the test window. */
+		private final int length;
+		/* The positions of the returns making up the current path. */
+		private final int[] returnIndices;
+		/* The synthetic values of the current path. */
+		private final double[] values;
+		/* The synthetic short index values of the current path. */
+		private final double[] shortIndexValues;
+		/* The combined forecasts of the current path. */
+		private final double[] forecasts;
+		/* The performance values of the test window of the current path. */
+		private final double[] performanceValues;
+
+		/**
+		 * Creates a new PathSimulator and allocates its buffers.
+		 * 
+		 * @param  subSystem                {@link SubSystem} The SubSystem to be simulated.
+		 * @param  valueFactors             {@code double[]} The growth factors of the base value.
+		 * @param  shortIndexFactors        {@code double[]} The growth factors of the short index.
+		 * @param  startPosition            {@code int} The position of the start of the test window.
+		 * @param  length                   {@code int} The number of values in the test window.
+		 * @throws IllegalArgumentException if a rule of the given SubSystem does not support live updates.
+		 */
+		PathSimulator(SubSystem subSystem, double[] valueFactors, double[] shortIndexFactors, int startPosition,
+		        int length) {
+			BaseValue baseValue = subSystem.getBaseValue();
+			this.valueFactors = valueFactors;
+			this.shortIndexFactors = shortIndexFactors;
+			this.firstValue = baseValue.getValues()[0].getValue();
+			this.firstShortIndexValue = baseValue.getShortIndexValues()[0].getValue();
+			this.squaredReturnsEwma = baseValue.getSquaredReturnsEwma();
+			this.diversificationMultiplierValue = subSystem.getDiversificationMultiplier().getValue();
+			this.baseScale = subSystem.getBaseScale();
+			this.capital = subSystem.getCapital();
+			this.startPosition = startPosition;
+			this.length = length;
+
+			Rule[] subSystemRules = subSystem.getRules();
+			this.rules = new LiveRule[subSystemRules.length];
+			for (int i = 0; i < subSystemRules.length; i++)
+				this.rules[i] = new LiveRule(subSystemRules[i]);
+
+			int numberOfValues = startPosition + length;
+			this.returnIndices = new int[numberOfValues - 1];
+			this.values = new double[numberOfValues];
+			this.shortIndexValues = new double[numberOfValues];
+			this.forecasts = new double[numberOfValues];
+			this.performanceValues = new double[length];
+		}
+
+		/**
+		 * Simulates the path chaining the returns at the positions of {@link #returnIndices}: Calculates its values,
+		 * the standard deviation and the combined forecast of every value as {@link LiveSubSystem} does and performs
+		 * the backtest of the test window. The performance values are written to {@link #performanceValues}.
+		 * 
+		 * @return {@code double} The final capital of the path.
+		 */
+		double simulate() {
+			this.values[0] = this.firstValue;
+			this.shortIndexValues[0] = this.firstShortIndexValue;
+			for (int i = 1; i < this.values.length; i++) {
+				this.values[i] = this.values[i - 1] * this.valueFactors[this.returnIndices[i - 1]];
+				this.shortIndexValues[i] = this.shortIndexValues[i - 1]
+				        * this.shortIndexFactors[this.returnIndices[i - 1]];
+			}
+
+			for (LiveRule rule : this.rules)
+				rule.reset();
+
+			/* All rules are weighted equally, as in SubSystem. */
+			double rulesWeight = 1d / this.rules.length;
+			/* The EWMA of the squared returns starts from 0, as in BaseValue. There is no sd for the first value. */
+			double squaredReturnsEwmaValue = 0;
+			double standardDeviation = Double.NaN;
+			for (int i = 0; i < this.values.length; i++) {
+				if (i > 0) {
+					double squaredReturn = Math.pow(Util.calculateReturn(this.values[i - 1], this.values[i]), 2);
+					squaredReturnsEwmaValue = this.squaredReturnsEwma.calculateEWMA(squaredReturnsEwmaValue,
+					        squaredReturn);
+					standardDeviation = BaseValue.calculateStandardDeviation(squaredReturnsEwmaValue,
+					        this.values[i]);
+				}
+
+				double combinedForecast = 0;
+				for (LiveRule rule : this.rules)
+					combinedForecast += rule.update(this.values[i], standardDeviation, Double.NaN) * rulesWeight;
+				this.forecasts[i] = SubSystem.applyDiversificationMultiplier(combinedForecast,
+				        this.diversificationMultiplierValue, this.baseScale);
+			}
+
+			return SubSystem.simulateTrading(this.values, this.shortIndexValues, this.forecasts, this.startPosition,
+			        this.length, this.baseScale, this.capital, this.performanceValues);
+		}
+	}
+
+	/**
+	 * Get the given percentile of the final capitals of all synthetic paths.
+	 * 
+	 * @param  percentile               {@code double} The percentile to be returned. Must be in {@code (0, 100]}.
+	 * @return                          {@code double} The final capital at the given percentile.
+	 * @throws IllegalArgumentException if the given percentile is out of bounds.
+	 */
+	public double getFinalCapitalPercentile(double percentile) {
+		return calculatePercentile(this.getFinalCapitals(), percentile);
+	}
+
+	/**
+	 * Get the given percentile of the maximum drawdowns of all synthetic paths.
+	 * 
+	 * @param  percentile               {@code double} The percentile to be returned. Must be in {@code (0, 100]}.
+	 * @return                          {@code double} The maximum drawdown at the given percentile.
+	 * @throws IllegalArgumentException if the given percentile is out of bounds.
+	 */
+	public double getMaxDrawdownPercentile(double percentile) {
+		return calculatePercentile(this.getMaxDrawdowns(), percentile);
+	}
+
+	/**
+	 * Calculate the given percentile of the given values.
+	 * 
+	 * @param  values                   {@code double[]} The values to be examined.
+	 * @param  percentile               {@code double} The percentile to be calculated. Must be in {@code (0, 100]}.
+	 * @return                          {@code double} The value at the given percentile.
+	 * @throws IllegalArgumentException if the given percentile is out of bounds.
+	 */
+	private static double calculatePercentile(double[] values, double percentile) {
+		if (Double.isNaN(percentile) || percentile <= 0 || percentile > 100)
+			throw new IllegalArgumentException("Percentile must be greater than 0 and less than or equal to 100");
+		return new Percentile().evaluate(values, percentile);
+	}
+
+	/**
+	 * Validates the given input values.
+	 * 
+	 * @param  subSystem                {@link SubSystem} Must not be null. All its rules (or their variations) must
+	 *                                  support live updates without volatility index values being given.
+	 * @param  startOfTestWindow        {@link LocalDateTime} Must pass
+	 *                                  {@link Validator#validateTimeWindow(LocalDateTime, LocalDateTime, ValueDateTupel[])}
+	 *                                  for the base values and the combined forecasts of the given SubSystem.
+	 * @param  endOfTestWindow          {@link LocalDateTime} Must pass
+	 *                                  {@link Validator#validateTimeWindow(LocalDateTime, LocalDateTime, ValueDateTupel[])}
+	 *                                  for the base values and the combined forecasts of the given SubSystem.
+	 * @param  numberOfPaths            {@code int} Must be at least 1.
+	 * @param  blockLength              {@code int} Must be at least 1. Must not exceed the number of returns of the
+	 *                                  given SubSystem's base value.
+	 * @throws IllegalArgumentException if any of the above specifications are not met.
+	 */
+	private static void validateInput(SubSystem subSystem, LocalDateTime startOfTestWindow,
+	        LocalDateTime endOfTestWindow, int numberOfPaths, int blockLength) {
+		if (subSystem == null)
+			throw new IllegalArgumentException("SubSystem must not be null");
+		for (Rule rule : subSystem.getRules()) {
+			if (new LiveRule(rule).requiresVolatilityIndex())
+				throw new IllegalArgumentException("Rules depending on given volatility index values cannot be "
+				        + "simulated, as there are no volatility index values for synthetic paths");
+		}
+
+		ValueDateTupel[] values = subSystem.getBaseValue().getValues();
+		Validator.validateTimeWindow(startOfTestWindow, endOfTestWindow, values);
+		try {
+			Validator.validateTimeWindow(startOfTestWindow, endOfTestWindow, subSystem.getCombinedForecasts());
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Given forecasts and test window do not fit.", e);
+		}
+
+		if (numberOfPaths < 1)
+			throw new IllegalArgumentException("Number of paths must be at least 1");
+		if (blockLength < 1)
+			throw new IllegalArgumentException("Block length must be at least 1");
+		if (blockLength > values.length - 1)
+			throw new IllegalArgumentException(
+			        "Block length must not exceed the number of returns (" + (values.length - 1) + ")");
+	}
+
+	/**
+	 * ====================================================================== OVERRIDES
+	 * ======================================================================
+	 */
+
+	/**
+	 * A hash code for this MonteCarloSimulation.
+	 */
+	@GeneratedCode
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + blockLength;
+		result = prime * result + ((endOfTestWindow == null) ? 0 : endOfTestWindow.hashCode());
+		result = prime * result + Arrays.hashCode(finalCapitals);
+		result = prime * result + Arrays.hashCode(maxDrawdowns);
+		result = prime * result + numberOfPaths;
+		result = prime * result + (int) (seed ^ (seed >>> 32));
+		result = prime * result + ((startOfTestWindow == null) ? 0 : startOfTestWindow.hashCode());
+		result = prime * result + ((subSystem == null) ? 0 : subSystem.hashCode());
+		return result;
+	}
+
+	/**
+	 * Checks if this MonteCarloSimulation is equal to another MonteCarloSimulation.
+	 */
+	@GeneratedCode
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		MonteCarloSimulation other = (MonteCarloSimulation) obj;
+		if (blockLength != other.blockLength)
+			return false;
+		if (endOfTestWindow == null) {
+			if (other.endOfTestWindow != null)
+				return false;
+		} else if (!endOfTestWindow.equals(other.endOfTestWindow))
+			return false;
+		if (!Arrays.equals(finalCapitals, other.finalCapitals))
+			return false;
+		if (!Arrays.equals(maxDrawdowns, other.maxDrawdowns))
+			return false;
+		if (numberOfPaths != other.numberOfPaths)
+			return false;
+		if (seed != other.seed)
+			return false;
+		if (startOfTestWindow == null) {
+			if (other.startOfTestWindow != null)
+				return false;
+		} else if (!startOfTestWindow.equals(other.startOfTestWindow))
+			return false;
+		if (subSystem == null) {
+			if (other.subSystem != null)
+				return false;
+		} else if (!subSystem.equals(other.subSystem))
+			return false;
+		return true;
+	}
+
+	/**
+	 * Outputs the fields of this MonteCarloSimulation as a {@code String}.
+	 */
+	@GeneratedCode
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("MonteCarloSimulation [subSystem=");
+		builder.append(subSystem);
+		builder.append(", startOfTestWindow=");
+		builder.append(startOfTestWindow);
+		builder.append(", endOfTestWindow=");
+		builder.append(endOfTestWindow);
+		builder.append(", numberOfPaths=");
+		builder.append(numberOfPaths);
+		builder.append(", blockLength=");
+		builder.append(blockLength);
+		builder.append(", seed=");
+		builder.append(seed);
+		builder.append(", finalCapitals=");
+		builder.append(Arrays.toString(finalCapitals));
+		builder.append(", maxDrawdowns=");
+		builder.append(Arrays.toString(maxDrawdowns));
+		builder.append("]");
+		return builder.toString();
+	}
+
+	/**
+	 * ====================================================================== GETTERS AND SETTERS
+	 * ======================================================================
+	 */
+
+	/**
+	 * Get the SubSystem simulated in this MonteCarloSimulation.
+	 * 
+	 * @return {@link SubSystem} The simulated SubSystem.
+	 */
+	public SubSystem getSubSystem() {
+		return subSystem;
+	}
+
+	/**
+	 * Set the SubSystem simulated in this MonteCarloSimulation.
+	 * 
+	 * @param subSystem {@link SubSystem} The SubSystem to set.
+	 */
+	private void setSubSystem(SubSystem subSystem) {
+		this.subSystem = subSystem;
+	}
+
+	/**
+	 * Get the start of the test window of this MonteCarloSimulation.
+	 * 
+	 * @return {@link LocalDateTime} The start of the test window.
+	 */
+	public LocalDateTime getStartOfTestWindow() {
+		return startOfTestWindow;
+	}
+
+	/**
+	 * Set the start of the test window of this MonteCarloSimulation.
+	 * 
+	 * @param startOfTestWindow {@link LocalDateTime} The start of the test window to set.
+	 */
+	private void setStartOfTestWindow(LocalDateTime startOfTestWindow) {
+		this.startOfTestWindow = startOfTestWindow;
+	}
+
+	/**
+	 * Get the end of the test window of this MonteCarloSimulation.
+	 * 
+	 * @return {@link LocalDateTime} The end of the test window.
+	 */
+	public LocalDateTime getEndOfTestWindow() {
+		return endOfTestWindow;
+	}
+
+	/**
+	 * Set the end of the test window of this MonteCarloSimulation.
+	 * 
+	 * @param endOfTestWindow {@link LocalDateTime} The end of the test window to set.
+	 */
+	private void setEndOfTestWindow(LocalDateTime endOfTestWindow) {
+		this.endOfTestWindow = endOfTestWindow;
+	}
+
+	/**
+	 * Get the number of synthetic paths of this MonteCarloSimulation.
+	 * 
+	 * @return {@code int} The number of synthetic paths.
+	 */
+	public int getNumberOfPaths() {
+		return numberOfPaths;
+	}
+
+	/**
+	 * Set the number of synthetic paths of this MonteCarloSimulation.
+	 * 
+	 * @param numberOfPaths {@code int} The number of synthetic paths to set.
+	 */
+	private void setNumberOfPaths(int numberOfPaths) {
+		this.numberOfPaths = numberOfPaths;
+	}
+
+	/**
+	 * Get the block length of this MonteCarloSimulation.
+	 * 
+	 * @return {@code int} The number of consecutive returns per block.
+	 */
+	public int getBlockLength() {
+		return blockLength;
+	}
+
+	/**
+	 * Set the block length of this MonteCarloSimulation.
+	 * 
+	 * @param blockLength {@code int} The block length to set.
+	 */
+	private void setBlockLength(int blockLength) {
+		this.blockLength = blockLength;
+	}
+
+	/**
+	 * Get the seed of this MonteCarloSimulation.
+	 * 
+	 * @return {@code long} The seed all random number generators are derived from.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Set the seed of this MonteCarloSimulation.
+	 * 
+	 * @param seed {@code long} The seed to set.
+	 */
+	private void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Get the final capitals of all synthetic paths, in the order of the paths.
+	 * 
+	 * @return {@code double[]} The final capitals.
+	 */
+	public double[] getFinalCapitals() {
+		return finalCapitals;
+	}
+
+	/**
+	 * Set the final capitals of all synthetic paths.
+	 * 
+	 * @param finalCapitals {@code double[]} The final capitals to set.
+	 */
+	private void setFinalCapitals(double[] finalCapitals) {
+		this.finalCapitals = finalCapitals;
+	}
+
+	/**
+	 * Get the maximum drawdowns of all synthetic paths, in the order of the paths.
+	 * 
+	 * @return {@code double[]} The maximum drawdowns.
+	 */
+	public double[] getMaxDrawdowns() {
+		return maxDrawdowns;
+	}
+
+	/**
+	 * Set the maximum drawdowns of all synthetic paths.
+	 * 
+	 * @param maxDrawdowns {@code double[]} The maximum drawdowns to set.
+	 */
+	private void setMaxDrawdowns(double[] maxDrawdowns) {
+		this.maxDrawdowns = maxDrawdowns;
+	}
+}
@@ -0,0 +1,401 @@
+package de.rumford.tradingsystem;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.rumford.tradingsystem.helper.GeneratedCode;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * The Portfolio combines multiple {@link SubSystem}s, each trading its own base value with its own capital, into one
+ * overall performance.
+ * <p>
+ * The SubSystems are handed over as loaders, so loading data and calculating forecasts (which make up the biggest part
+ * of the work) can take place concurrently for all instruments. A loader building its SubSystem by a
+ * {@link CalculationGraph} also calculates the rules of each instrument concurrently. Once built, every SubSystem is
+ * backtested for the given test window. As the base values of different instruments do not necessarily share the same
+ * trading days, their performance values are aligned on a shared date axis by
+ * {@link ValueDateTupel#alignDates(ValueDateTupel[][])} before being summed up to the combined performance values of
+ * this Portfolio.
+ * 
+ * @author Max Rumford
+ */
+public class Portfolio {
+
+	/* The SubSystems of this portfolio, in the order of their loaders. */
+	private SubSystem[] subSystems;
+	/* The first time interval of the test window. */
+	private LocalDateTime startOfTestWindow;
+	/* The last time interval of the test window. */
+	private LocalDateTime endOfTestWindow;
+	/* The performance values of all SubSystems, aligned on a shared date axis. */
+	private ValueDateTupel[][] performanceValues;
+	/* The sum of all SubSystems' performance values. */
+	private ValueDateTupel[] combinedPerformanceValues;
+
+	/**
+	 * Creates a new Portfolio by building all SubSystems through the given loaders concurrently and backtesting them
+	 * for the given test window.
+	 * 
+	 * @param  subSystemLoaders         {@code List<Callable<SubSystem>>} One loader per instrument, each building a
+	 *                                  {@link SubSystem} (e.g. by reading its base value from a file). Must not be
+	 *                                  null. Must not be empty. Must not contain null.
+	 * @param  startOfTestWindow        {@link LocalDateTime} First time interval of the test window. Must not be null.
+	 *                                  Must be contained in the base values of all SubSystems.
+	 * @param  endOfTestWindow          {@link LocalDateTime} Last time interval of the test window. Must not be null.
+	 *                                  Must be after startOfTestWindow. Must be contained in the base values of all
+	 *                                  SubSystems.
+	 * @param  parallelism              {@code int} The maximum number of SubSystems to be built at the same time. Must
+	 *                                  be at least 1.
+	 * @throws IllegalArgumentException if any of the above specifications are not met or if any SubSystem could not be
+	 *                                  built or backtested.
+	 * @throws IllegalStateException    if the calling thread is interrupted while waiting for the SubSystems.
+	 */
+	public Portfolio(List<Callable<SubSystem>> subSystemLoaders, LocalDateTime startOfTestWindow,
+	        LocalDateTime endOfTestWindow, int parallelism) {
+		validateInput(subSystemLoaders, startOfTestWindow, endOfTestWindow, parallelism);
+
+		this.setStartOfTestWindow(startOfTestWindow);
+		this.setEndOfTestWindow(endOfTestWindow);
+
+		this.buildSubSystems(subSystemLoaders, parallelism);
+		this.setCombinedPerformanceValues(calculateCombinedPerformanceValues(this.getPerformanceValues()));
+	}
+
+	/**
+	 * Creates a new Portfolio for the given, already built SubSystems. The backtests are performed concurrently.
+	 * 
+	 * @param  subSystems               {@code SubSystem[]} The SubSystems to be combined. Must not be null. Must not be
+	 *                                  empty. Must not contain null.
+	 * @param  startOfTestWindow        Same as in {@link #Portfolio(List, LocalDateTime, LocalDateTime, int)}.
+	 * @param  endOfTestWindow          Same as in {@link #Portfolio(List, LocalDateTime, LocalDateTime, int)}.
+	 * @param  parallelism              Same as in {@link #Portfolio(List, LocalDateTime, LocalDateTime, int)}.
+	 * @throws IllegalArgumentException if any of the above specifications are not met.
+	 */
+	public Portfolio(SubSystem[] subSystems, LocalDateTime startOfTestWindow, LocalDateTime endOfTestWindow,
+	        int parallelism) {
+		this(toLoaders(subSystems), startOfTestWindow, endOfTestWindow, parallelism);
+	}
+
+	/**
+	 * Get the value of all SubSystems combined after the last time interval of the test window.
+	 * 
+	 * @return {@code double} The last combined performance value.
+	 */
+	public double backtest() {
+		ValueDateTupel[] instanceCombinedPerformanceValues = this.getCombinedPerformanceValues();
+		return instanceCombinedPerformanceValues[instanceCombinedPerformanceValues.length - 1].getValue();
+	}
+
+	/**
+	 * Get the capital initially managed by all SubSystems of this Portfolio combined.
+	 * 
+	 * @return {@code double} The sum of all SubSystems' capital.
+	 */
+	public double getCapital() {
+		double sumOfCapital = 0;
+		for (SubSystem subSystem : this.getSubSystems())
+			sumOfCapital += subSystem.getCapital();
+		return sumOfCapital;
+	}
+
+	/**
+	 * Builds and backtests all SubSystems using a pool of the given size. Each SubSystem is built and backtested by the
+	 * same task, so the backtest of a finished SubSystem does not have to wait for the other SubSystems.
+	 * 
+	 * @param  subSystemLoaders         {@code List<Callable<SubSystem>>} The loaders of all SubSystems.
+	 * @param  parallelism              {@code int} The number of threads to be used.
+	 * @throws IllegalArgumentException if any SubSystem could not be built or backtested.
+	 * @throws IllegalStateException    if the calling thread is interrupted while waiting for the SubSystems.
+	 */
+	private void buildSubSystems(List<Callable<SubSystem>> subSystemLoaders, int parallelism) {
+		SubSystem[] builtSubSystems = new SubSystem[subSystemLoaders.size()];
+		ValueDateTupel[][] calculatedPerformanceValues = new ValueDateTupel[subSystemLoaders.size()][];
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, subSystemLoaders.size()));
+		try {
+			List<Future<?>> futures = new ArrayList<>(subSystemLoaders.size());
+			for (int i = 0; i < subSystemLoaders.size(); i++) {
+				final int position = i;
+				final Callable<SubSystem> loader = subSystemLoaders.get(i);
+				/* Each task writes only to its own position, hence no synchronization is needed. */
+				futures.add(executor.submit(() -> {
+					SubSystem subSystem = loader.call();
+					if (subSystem == null)
+						throw new IllegalArgumentException("Loader returned null");
+					builtSubSystems[position] = subSystem;
+					calculatedPerformanceValues[position] = subSystem
+					        .calculatePerformanceValues(this.getStartOfTestWindow(), this.getEndOfTestWindow());
+					return null;
+				}));
+			}
+
+			/* Wait for all tasks. Future#get guarantees the visibility of the tasks' results. */
+			for (int i = 0; i < futures.size(); i++) {
+				try {
+					futures.get(i).get();
+				} catch (ExecutionException e) {
+					throw new IllegalArgumentException("SubSystem at position " + i + " could not be built.",
+					        e.getCause());
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while building the SubSystems.", e);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		this.setSubSystems(builtSubSystems);
+		this.setPerformanceValues(ValueDateTupel.alignDates(calculatedPerformanceValues));
+	}
+
+	/**
+	 * Sums up the given aligned performance values for each time interval.
+	 * 
+	 * @param  alignedPerformanceValues {@code ValueDateTupel[][]} The performance values of all SubSystems. All rows
+	 *                                  must share the same dates.
+	 * @return                          {@code ValueDateTupel[]} The combined performance values.
+	 */
+	private static ValueDateTupel[] calculateCombinedPerformanceValues(ValueDateTupel[][] alignedPerformanceValues) {
+		ValueDateTupel[] calculatedCombinedPerformanceValues = ValueDateTupel
+		        .createEmptyArray(alignedPerformanceValues[0].length);
+
+		for (int i = 0; i < calculatedCombinedPerformanceValues.length; i++) {
+			double sumOfPerformanceValues = 0;
+			for (ValueDateTupel[] row : alignedPerformanceValues)
+				sumOfPerformanceValues += row[i].getValue();
+
+			calculatedCombinedPerformanceValues[i] = new ValueDateTupel(alignedPerformanceValues[0][i].getDate(),
+			        sumOfPerformanceValues);
+		}
+		return calculatedCombinedPerformanceValues;
+	}
+
+	/**
+	 * Wraps the given SubSystems into loaders simply returning them.
+	 * 
+	 * @param  subSystems               {@code SubSystem[]} The SubSystems to be wrapped.
+	 * @return                          {@code List<Callable<SubSystem>>} One loader per given SubSystem.
+	 * @throws IllegalArgumentException if the given array is null.
+	 */
+	private static List<Callable<SubSystem>> toLoaders(SubSystem[] subSystems) {
+		if (subSystems == null)
+			throw new IllegalArgumentException("SubSystems must not be null");
+
+		List<Callable<SubSystem>> loaders = new ArrayList<>(subSystems.length);
+		for (SubSystem subSystem : subSystems)
+			loaders.add(subSystem == null ? null : () -> subSystem);
+		return loaders;
+	}
+
+	/**
+	 * Validates the given input values.
+	 * 
+	 * @param  subSystemLoaders         {@code List<Callable<SubSystem>>} Must not be null. Must not be empty. Must not
+	 *                                  contain null.
+	 * @param  startOfTestWindow        {@link LocalDateTime} Must not be null.
+	 * @param  endOfTestWindow          {@link LocalDateTime} Must not be null. Must be after startOfTestWindow.
+	 * @param  parallelism              {@code int} Must be at least 1.
+	 * @throws IllegalArgumentException if any of the above specifications are not met.
+	 */
+	private static void validateInput(List<Callable<SubSystem>> subSystemLoaders, LocalDateTime startOfTestWindow,
+	        LocalDateTime endOfTestWindow, int parallelism) {
+		if (subSystemLoaders == null)
+			throw new IllegalArgumentException("SubSystem loaders must not be null");
+		if (subSystemLoaders.isEmpty())
+			throw new IllegalArgumentException("SubSystem loaders must not be empty");
+		/* List#contains(null) is not supported by all lists, e.g. those of List#of. */
+		for (Callable<SubSystem> loader : subSystemLoaders)
+			if (loader == null)
+				throw new IllegalArgumentException("SubSystem loaders must not contain null");
+
+		if (startOfTestWindow == null)
+			throw new IllegalArgumentException("Start of test window must not be null");
+		if (endOfTestWindow == null)
+			throw new IllegalArgumentException("End of test window must not be null");
+		if (!endOfTestWindow.isAfter(startOfTestWindow))
+			throw new IllegalArgumentException("End of test window must be after start of test window");
+
+		if (parallelism < 1)
+			throw new IllegalArgumentException("Parallelism must be at least 1");
+	}
+
+	/**
+	 * ====================================================================== OVERRIDES
+	 * ======================================================================
+	 */
+
+	/**
+	 * A hash code for this Portfolio.
+	 */
+	@GeneratedCode
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Arrays.hashCode(combinedPerformanceValues);
+		result = prime * result + ((endOfTestWindow == null) ? 0 : endOfTestWindow.hashCode());
+		result = prime * result + Arrays.deepHashCode(performanceValues);
+		result = prime * result + ((startOfTestWindow == null) ? 0 : startOfTestWindow.hashCode());
+		result = prime * result + Arrays.hashCode(subSystems);
+		return result;
+	}
+
+	/**
+	 * Checks if this Portfolio is equal to another Portfolio.
+	 */
+	@GeneratedCode
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		Portfolio other = (Portfolio) obj;
+		if (!Arrays.equals(combinedPerformanceValues, other.combinedPerformanceValues))
+			return false;
+		if (endOfTestWindow == null) {
+			if (other.endOfTestWindow != null)
+				return false;
+		} else if (!endOfTestWindow.equals(other.endOfTestWindow))
+			return false;
+		if (!Arrays.deepEquals(performanceValues, other.performanceValues))
+			return false;
+		if (startOfTestWindow == null) {
+			if (other.startOfTestWindow != null)
+				return false;
+		} else if (!startOfTestWindow.equals(other.startOfTestWindow))
+			return false;
+		if (!Arrays.equals(subSystems, other.subSystems))
+			return false;
+		return true;
+	}
+
+	/**
+	 * Outputs the fields of this Portfolio as a {@code String}.
+	 */
+	@GeneratedCode
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("Portfolio [subSystems=");
+		builder.append(Arrays.toString(subSystems));
+		builder.append(", startOfTestWindow=");
+		builder.append(startOfTestWindow);
+		builder.append(", endOfTestWindow=");
+		builder.append(endOfTestWindow);
+		builder.append(", performanceValues=");
+		builder.append(Arrays.toString(performanceValues));
+		builder.append(", combinedPerformanceValues=");
+		builder.append(Arrays.toString(combinedPerformanceValues));
+		builder.append("]");
+		return builder.toString();
+	}
+
+	/**
+	 * ====================================================================== GETTERS AND SETTERS
+	 * ======================================================================
+	 */
+
+	/**
+	 * Get the SubSystems of this Portfolio, in the order of their loaders.
+	 * 
+	 * @return {@code SubSystem[]} The SubSystems of this Portfolio.
+	 */
+	public SubSystem[] getSubSystems() {
+		return subSystems;
+	}
+
+	/**
+	 * Set the SubSystems of this Portfolio.
+	 * 
+	 * @param subSystems {@code SubSystem[]} The SubSystems to set.
+	 */
+	private void setSubSystems(SubSystem[] subSystems) {
+		this.subSystems = subSystems;
+	}
+
+	/**
+	 * Get the start of the test window of this Portfolio.
+	 * 
+	 * @return {@link LocalDateTime} The start of the test window.
+	 */
+	public LocalDateTime getStartOfTestWindow() {
+		return startOfTestWindow;
+	}
+
+	/**
+	 * Set the start of the test window of this Portfolio.
+	 * 
+	 * @param startOfTestWindow {@link LocalDateTime} The start of the test window to set.
+	 */
+	private void setStartOfTestWindow(LocalDateTime startOfTestWindow) {
+		this.startOfTestWindow = startOfTestWindow;
+	}
+
+	/**
+	 * Get the end of the test window of this Portfolio.
+	 * 
+	 * @return {@link LocalDateTime} The end of the test window.
+	 */
+	public LocalDateTime getEndOfTestWindow() {
+		return endOfTestWindow;
+	}
+
+	/**
+	 * Set the end of the test window of this Portfolio.
+	 * 
+	 * @param endOfTestWindow {@link LocalDateTime} The end of the test window to set.
+	 */
+	private void setEndOfTestWindow(LocalDateTime endOfTestWindow) {
+		this.endOfTestWindow = endOfTestWindow;
+	}
+
+	/**
+	 * Get the performance values of all SubSystems, aligned on a shared date axis. The rows are in the order of the
+	 * SubSystems.
+	 * 
+	 * @return {@code ValueDateTupel[][]} The aligned performance values.
+	 */
+	public ValueDateTupel[][] getPerformanceValues() {
+		return performanceValues;
+	}
+
+	/**
+	 * Set the aligned performance values of all SubSystems.
+	 * 
+	 * @param performanceValues {@code ValueDateTupel[][]} The performance values to set.
+	 */
+	private void setPerformanceValues(ValueDateTupel[][] performanceValues) {
+		this.performanceValues = performanceValues;
+	}
+
+	/**
+	 * Get the combined performance values of this Portfolio, i.e. the sum of all SubSystems' performance values for
+	 * each time interval.
+	 * 
+	 * @return {@code ValueDateTupel[]} The combined performance values.
+	 */
+	public ValueDateTupel[] getCombinedPerformanceValues() {
+		return combinedPerformanceValues;
+	}
+
+	/**
+	 * Set the combined performance values of this Portfolio.
+	 * 
+	 * @param combinedPerformanceValues {@code ValueDateTupel[]} The combined performance values to set.
+	 */
+	private void setCombinedPerformanceValues(ValueDateTupel[] combinedPerformanceValues) {
+		this.combinedPerformanceValues = combinedPerformanceValues;
+	}
+}
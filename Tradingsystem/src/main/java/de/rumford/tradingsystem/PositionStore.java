@@ -0,0 +1,249 @@
+package de.rumford.tradingsystem;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.log4j.Logger;
+
+import de.rumford.tradingsystem.helper.GeneratedCode;
+import de.rumford.tradingsystem.helper.Util;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * The PositionStore holds the current forecast and position of many instruments, e.g. of all {@link SubSystem}s of a
+ * {@link Portfolio}, for any number of consumers reading them while they are updated intraday.
+ * <p>
+ * Every update publishes a new immutable {@link Position} carrying a sequence number counting the updates of its
+ * instrument. Positions are kept in a {@link ConcurrentHashMap} by instrument: Reading a position neither locks nor
+ * allocates and always returns a position in full. Updates of the same instrument are serialized by the map, so
+ * sequence numbers are never skipped or repeated; updates of different instruments do not block each other.
+ * <p>
+ * Consumers can either query the current position or subscribe a {@link Listener}, which is notified of every update
+ * on the updating thread after the position was published. If an instrument is updated by several threads, listeners
+ * may be notified out of order and should discard positions of a lower sequence number than already seen.
+ * 
+ * @author Max Rumford
+ */
+public class PositionStore {
+
+	/* The logger of this class, used to report failing listeners. */
+	private static final Logger logger = Logger.getLogger(PositionStore.class);
+
+	/* The current positions by instrument. */
+	private final ConcurrentMap<String, Position> positions = new ConcurrentHashMap<>();
+	/* The subscribed listeners. */
+	private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Publishes the given forecast as the current position of the given instrument.
+	 * 
+	 * @param  instrument               {@code String} The name of the instrument. Must not be null.
+	 * @param  date                     {@link LocalDateTime} The date of the forecast. Must not be null. Must not be
+	 *                                  before the date of the current position of the instrument, so a position can
+	 *                                  be updated several times per date.
+	 * @param  forecast                 {@code double} The forecast. Must not be Double.NaN.
+	 * @return                          {@link Position} The published position.
+	 * @throws IllegalArgumentException if the above specifications are not met.
+	 */
+	public Position update(String instrument, LocalDateTime date, double forecast) {
+		if (instrument == null)
+			throw new IllegalArgumentException("Instrument must not be null");
+		if (date == null)
+			throw new IllegalArgumentException("Date must not be null");
+		if (Double.isNaN(forecast))
+			throw new IllegalArgumentException("Forecast must not be Double.NaN");
+
+		Position published = this.positions.compute(instrument, (key, current) -> {
+			if (current == null)
+				return new Position(instrument, 1, date, forecast);
+			if (date.isBefore(current.getDate()))
+				throw new IllegalArgumentException("Date must not be before the date of the current position of "
+				        + instrument + " but is " + date + " instead of " + current.getDate());
+			return new Position(instrument, current.getSequence() + 1, date, forecast);
+		});
+
+		for (Listener listener : this.listeners) {
+			try {
+				listener.onUpdate(published);
+			} catch (RuntimeException e) {
+				logger.warn("Listener failed upon update of " + instrument, e);
+			}
+		}
+		return published;
+	}
+
+	/**
+	 * Publishes the last combined forecast of the given SubSystem as the current position of its base value.
+	 * 
+	 * @param  subSystem                {@link SubSystem} The SubSystem. Must not be null.
+	 * @return                          {@link Position} The published position.
+	 * @throws IllegalArgumentException if the given SubSystem is null or its last forecast is before the date of the
+	 *                                  current position.
+	 */
+	public Position update(SubSystem subSystem) {
+		if (subSystem == null)
+			throw new IllegalArgumentException("SubSystem must not be null");
+
+		ValueDateTupel[] combinedForecasts = subSystem.getCombinedForecasts();
+		ValueDateTupel lastForecast = combinedForecasts[combinedForecasts.length - 1];
+		return this.update(subSystem.getBaseValue().getName(), lastForecast.getDate(), lastForecast.getValue());
+	}
+
+	/**
+	 * Get the current position of the given instrument.
+	 * 
+	 * @param  instrument {@code String} The name of the instrument.
+	 * @return            {@link Position} The current position, null if the instrument was never updated.
+	 */
+	public Position get(String instrument) {
+		if (instrument == null)
+			return null;
+		return this.positions.get(instrument);
+	}
+
+	/**
+	 * Get the current positions of all instruments. The positions of different instruments may be updated while the
+	 * returned map is assembled, so it is not necessarily a consistent view across instruments.
+	 * 
+	 * @return {@code Map<String, Position>} An unmodifiable copy of the current positions by instrument.
+	 */
+	public Map<String, Position> getAll() {
+		return Collections.unmodifiableMap(new HashMap<>(this.positions));
+	}
+
+	/**
+	 * Subscribe the given listener to all updates from now on.
+	 * 
+	 * @param  listener                 {@link Listener} The listener. Must not be null.
+	 * @throws IllegalArgumentException if the given listener is null.
+	 */
+	public void subscribe(Listener listener) {
+		if (listener == null)
+			throw new IllegalArgumentException("Listener must not be null");
+		this.listeners.add(listener);
+	}
+
+	/**
+	 * Unsubscribe the given listener.
+	 * 
+	 * @param  listener {@link Listener} The listener.
+	 * @return          {@code boolean} True, if the listener was subscribed, false otherwise.
+	 */
+	public boolean unsubscribe(Listener listener) {
+		return this.listeners.remove(listener);
+	}
+
+	/**
+	 * A listener notified of every update of a {@link PositionStore}. It is called on the updating thread and should
+	 * return quickly, as it delays the update. Exceptions thrown are logged and do not affect other listeners.
+	 */
+	@FunctionalInterface
+	public interface Listener {
+		/**
+		 * Called after the given position was published.
+		 * 
+		 * @param position {@link Position} The published position.
+		 */
+		void onUpdate(Position position);
+	}
+
+	/**
+	 * The immutable position of an instrument as of one update.
+	 */
+	public static final class Position {
+		/* The name of the instrument. */
+		private final String instrument;
+		/* The number of updates of the instrument up to and including this one. */
+		private final long sequence;
+		/* The date of the forecast. */
+		private final LocalDateTime date;
+		/* The forecast. */
+		private final double forecast;
+
+		/**
+		 * Creates a new position.
+		 * 
+		 * @param instrument {@code String} The name of the instrument.
+		 * @param sequence   {@code long} The number of updates of the instrument up to and including this one.
+		 * @param date       {@link LocalDateTime} The date of the forecast.
+		 * @param forecast   {@code double} The forecast.
+		 */
+		Position(String instrument, long sequence, LocalDateTime date, double forecast) {
+			this.instrument = instrument;
+			this.sequence = sequence;
+			this.date = date;
+			this.forecast = forecast;
+		}
+
+		/**
+		 * Get the position literal of the forecast.
+		 * 
+		 * @return {@code String} The position as of {@link Util#getPositionFromForecast(double)}.
+		 */
+		public String getPosition() {
+			return Util.getPositionFromForecast(this.forecast);
+		}
+
+		/**
+		 * Outputs the fields of this Position as a {@code String}.
+		 */
+		@GeneratedCode
+		@Override
+		public String toString() {
+			StringBuilder builder = new StringBuilder();
+			builder.append("Position [instrument=");
+			builder.append(instrument);
+			builder.append(", sequence=");
+			builder.append(sequence);
+			builder.append(", date=");
+			builder.append(date);
+			builder.append(", forecast=");
+			builder.append(forecast);
+			builder.append("]");
+			return builder.toString();
+		}
+
+		/**
+		 * Get the name of the instrument.
+		 * 
+		 * @return {@code String} The name of the instrument.
+		 */
+		public String getInstrument() {
+			return instrument;
+		}
+
+		/**
+		 * Get the sequence number of this position, i.e. the number of updates of the instrument up to and including
+		 * this one. Starts at 1.
+		 * 
+		 * @return {@code long} The sequence number.
+		 */
+		public long getSequence() {
+			return sequence;
+		}
+
+		/**
+		 * Get the date of the forecast.
+		 * 
+		 * @return {@link LocalDateTime} The date.
+		 */
+		public LocalDateTime getDate() {
+			return date;
+		}
+
+		/**
+		 * Get the forecast.
+		 * 
+		 * @return {@code double} The forecast.
+		 */
+		public double getForecast() {
+			return forecast;
+		}
+	}
+}
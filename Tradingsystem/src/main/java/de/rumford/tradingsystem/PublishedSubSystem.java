@@ -0,0 +1,51 @@
+package de.rumford.tradingsystem;
+
+/**
+ * The PublishedSubSystem holds the latest {@link SubSystemSnapshot} of a {@link SubSystem}, so many threads, e.g. for
+ * risk, reporting and order generation, can read the latest results while a writer builds the next SubSystem.
+ * <p>
+ * The snapshot is held in a volatile field. Publishing a snapshot replaces it atomically, so every reader sees either
+ * the previous or the new snapshot in full, never a mixture. Readers should get the snapshot once and use it for all
+ * values belonging together, as consecutive calls of {@link #getSnapshot()} may return different snapshots. Neither
+ * publishing nor reading locks.
+ * 
+ * @author Max Rumford
+ */
+public class PublishedSubSystem {
+
+	/* The latest published snapshot. */
+	private volatile SubSystemSnapshot snapshot;
+
+	/**
+	 * Creates a new PublishedSubSystem publishing a snapshot of the given SubSystem.
+	 * 
+	 * @param  subSystem                {@link SubSystem} The SubSystem to be published. Must not be null.
+	 * @throws IllegalArgumentException if the given SubSystem is null.
+	 */
+	public PublishedSubSystem(SubSystem subSystem) {
+		this.publish(subSystem);
+	}
+
+	/**
+	 * Takes a snapshot of the given SubSystem and publishes it. The snapshot is taken before it is published, so
+	 * readers keep reading the previous snapshot meanwhile.
+	 * 
+	 * @param  subSystem                {@link SubSystem} The SubSystem to be published. Must not be null.
+	 * @return                          {@link SubSystemSnapshot} The published snapshot.
+	 * @throws IllegalArgumentException if the given SubSystem is null.
+	 */
+	public SubSystemSnapshot publish(SubSystem subSystem) {
+		SubSystemSnapshot newSnapshot = new SubSystemSnapshot(subSystem);
+		this.snapshot = newSnapshot;
+		return newSnapshot;
+	}
+
+	/**
+	 * Get the latest published snapshot.
+	 * 
+	 * @return {@link SubSystemSnapshot} The latest snapshot.
+	 */
+	public SubSystemSnapshot getSnapshot() {
+		return this.snapshot;
+	}
+}
@@ -0,0 +1,475 @@
+package de.rumford.tradingsystem;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+
+import org.apache.log4j.Logger;
+
+import de.rumford.tradingsystem.helper.BinarySeries;
+import de.rumford.tradingsystem.helper.CsvFormat;
+import de.rumford.tradingsystem.helper.DataSource;
+import de.rumford.tradingsystem.helper.GeneratedCode;
+import de.rumford.tradingsystem.helper.LatencyHistogram;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * The ReplayHarness feeds historical values bar by bar through a {@link LiveSubSystem}, as if they arrived from a data
+ * feed, and measures the throughput and the latency of every update. The first values are used to build the
+ * {@link SubSystem} the LiveSubSystem continues, the last values are replayed, either as fast as possible or at a given
+ * rate.
+ * <p>
+ * As the forecasts of a LiveSubSystem must equal the forecasts of a SubSystem built from all values, the replay doubles
+ * as a check of the incremental calculation: {@link #calculateMaximumDeviation()} rebuilds the SubSystem from all
+ * values and compares its combined forecasts with the replayed ones.
+ * <p>
+ * {@link #main(String[])} replays a CSV file (in {@link CsvFormat#EU}) or binary series (see {@link BinarySeries}),
+ * using the rules of the {@link ExampleClient}.
+ * 
+ * @author Max Rumford
+ */
+public class ReplayHarness {
+
+	private static final Logger logger = Logger.getLogger(ReplayHarness.class);
+
+	/* The parameters of the rules used by main, as in the ExampleClient. */
+	private static final double BASE_SCALE = 10;
+	private static final double CAPITAL = 100000;
+	private static final int LOOKBACK_WINDOW = 8;
+	/*
+	 * The number of values before the default reference window of main, covering the longest horizon of the rules and
+	 * the lookback window.
+	 */
+	private static final int WARM_UP_VALUES = 32;
+
+	/* All base values, including the replayed ones. */
+	private ValueDateTupel[] baseValues;
+	/* All volatility index values, aligned with the base values. Null, if not given. */
+	private ValueDateTupel[] volatilityIndexValues;
+	/* Builds a SubSystem from base values and volatility index values. */
+	private BiFunction<ValueDateTupel[], ValueDateTupel[], SubSystem> subSystemFactory;
+	/* The number of values replayed. */
+	private int numberOfReplayedValues;
+
+	/* The combined forecasts after every replayed value. Null, if not replayed yet. */
+	private ValueDateTupel[] replayedForecasts;
+	/* The durations of the updates of the last replay. */
+	private LatencyHistogram latencies;
+	/* The time the last replay took in total, including any waiting for the rate. */
+	private long elapsedNanos;
+
+	/**
+	 * Creates a new ReplayHarness for the given values.
+	 * 
+	 * @param  baseValues               {@code ValueDateTupel[]} All base values, including the ones to be replayed.
+	 *                                  Must not be null.
+	 * @param  volatilityIndexValues    {@code ValueDateTupel[]} All volatility index values. Null, if the rules do not
+	 *                                  depend on them. Must be of the same dates as the base values otherwise (see
+	 *                                  {@link ValueDateTupel#alignDates(ValueDateTupel[][])}).
+	 * @param  subSystemFactory         {@code BiFunction<ValueDateTupel[], ValueDateTupel[], SubSystem>} Builds a
+	 *                                  {@link SubSystem} from base values and volatility index values (null, if not
+	 *                                  given). Must not be null. Its rules must support live updates.
+	 * @param  numberOfReplayedValues   {@code int} The number of values at the end to be replayed. Must be at least 1
+	 *                                  and less than the number of base values.
+	 * @throws IllegalArgumentException if the given values do not meet specifications.
+	 */
+	public ReplayHarness(ValueDateTupel[] baseValues, ValueDateTupel[] volatilityIndexValues,
+	        BiFunction<ValueDateTupel[], ValueDateTupel[], SubSystem> subSystemFactory, int numberOfReplayedValues) {
+		validateInput(baseValues, volatilityIndexValues, subSystemFactory, numberOfReplayedValues);
+
+		this.setBaseValues(baseValues);
+		this.setVolatilityIndexValues(volatilityIndexValues);
+		this.setSubSystemFactory(subSystemFactory);
+		this.setNumberOfReplayedValues(numberOfReplayedValues);
+	}
+
+	/**
+	 * Replays the values. Builds the SubSystem from all values but the replayed ones and feeds the replayed values one
+	 * by one into a {@link LiveSubSystem} continuing it. The results can be obtained by {@link #getLatencies()},
+	 * {@link #getThroughput()} and {@link #getReplayedForecasts()} afterwards.
+	 * 
+	 * @param  barsPerSecond            {@code double} The rate values are fed at. 0 to feed them as fast as possible.
+	 *                                  Must not be negative.
+	 * @throws IllegalArgumentException if the given rate is negative.
+	 */
+	public void replay(double barsPerSecond) {
+		if (!(barsPerSecond >= 0) || Double.isInfinite(barsPerSecond))
+			throw new IllegalArgumentException("Bars per second must be a finite value of at least 0");
+
+		int firstReplayedValue = this.baseValues.length - this.numberOfReplayedValues;
+		LiveSubSystem liveSubSystem = new LiveSubSystem(this.subSystemFactory.apply(
+		        Arrays.copyOf(this.baseValues, firstReplayedValue), this.volatilityIndexValues == null ? null
+		                : Arrays.copyOf(this.volatilityIndexValues, firstReplayedValue)));
+		liveSubSystem.setLatencyRecordingEnabled(false);
+
+		/* Nothing is allocated while replaying, so the garbage collector does not distort the latencies. */
+		LatencyHistogram replayLatencies = new LatencyHistogram("replay");
+		double[] forecasts = new double[this.numberOfReplayedValues];
+		long nanosPerBar = barsPerSecond == 0 ? 0 : (long) (1_000_000_000d / barsPerSecond);
+
+		long startNanos = System.nanoTime();
+		for (int i = 0; i < this.numberOfReplayedValues; i++) {
+			if (nanosPerBar > 0)
+				waitUntil(startNanos + i * nanosPerBar);
+
+			ValueDateTupel value = this.baseValues[firstReplayedValue + i];
+			double volatilityIndex = this.volatilityIndexValues == null ? Double.NaN
+			        : this.volatilityIndexValues[firstReplayedValue + i].getValue();
+			long updateStartNanos = System.nanoTime();
+			liveSubSystem.update(value.getDate(), value.getValue(), volatilityIndex);
+			replayLatencies.recordSince(updateStartNanos);
+			forecasts[i] = liveSubSystem.getForecast();
+		}
+		this.setElapsedNanos(System.nanoTime() - startNanos);
+		this.setLatencies(replayLatencies);
+
+		ValueDateTupel[] calculatedForecasts = ValueDateTupel.createEmptyArray(this.numberOfReplayedValues);
+		for (int i = 0; i < this.numberOfReplayedValues; i++)
+			calculatedForecasts[i] = new ValueDateTupel(this.baseValues[firstReplayedValue + i].getDate(),
+			        forecasts[i]);
+		this.setReplayedForecasts(calculatedForecasts);
+	}
+
+	/**
+	 * Rebuilds the SubSystem from all values and compares its combined forecasts with the forecasts of the last
+	 * replay.
+	 * 
+	 * @return                       {@code double} The highest absolute difference between a replayed forecast and
+	 *                               the forecast of the rebuilt SubSystem for the same date.
+	 * @throws IllegalStateException if no replay took place yet.
+	 */
+	public double calculateMaximumDeviation() {
+		if (this.replayedForecasts == null)
+			throw new IllegalStateException("Values must be replayed before comparing their forecasts");
+
+		ValueDateTupel[] expectedForecasts = this.subSystemFactory
+		        .apply(this.baseValues, this.volatilityIndexValues).getCombinedForecasts();
+		int offset = expectedForecasts.length - this.replayedForecasts.length;
+
+		double maximumDeviation = 0;
+		for (int i = 0; i < this.replayedForecasts.length; i++) {
+			double deviation = Math
+			        .abs(expectedForecasts[offset + i].getValue() - this.replayedForecasts[i].getValue());
+			maximumDeviation = Math.max(maximumDeviation, deviation);
+		}
+		return maximumDeviation;
+	}
+
+	/**
+	 * Get the number of values fed per second in the last replay.
+	 * 
+	 * @return                       {@code double} The throughput in bars per second.
+	 * @throws IllegalStateException if no replay took place yet.
+	 */
+	public double getThroughput() {
+		if (this.replayedForecasts == null)
+			throw new IllegalStateException("Values must be replayed before calculating the throughput");
+
+		return this.numberOfReplayedValues / (Math.max(1, this.elapsedNanos) / 1_000_000_000d);
+	}
+
+	/**
+	 * Waits until {@link System#nanoTime()} reaches the given time.
+	 * 
+	 * @param deadlineNanos {@code long} The time to wait for as of {@link System#nanoTime()}.
+	 */
+	private static void waitUntil(long deadlineNanos) {
+		long remainingNanos = deadlineNanos - System.nanoTime();
+		while (remainingNanos > 0) {
+			LockSupport.parkNanos(remainingNanos);
+			remainingNanos = deadlineNanos - System.nanoTime();
+		}
+	}
+
+	/**
+	 * Validates the given input values.
+	 * 
+	 * @param  baseValues               Same as in {@link #ReplayHarness(ValueDateTupel[], ValueDateTupel[], BiFunction,
+	 *                                  int)}.
+	 * @param  volatilityIndexValues    Same as above.
+	 * @param  subSystemFactory         Same as above.
+	 * @param  numberOfReplayedValues   Same as above.
+	 * @throws IllegalArgumentException if any of the specifications above are not met.
+	 */
+	private static void validateInput(ValueDateTupel[] baseValues, ValueDateTupel[] volatilityIndexValues,
+	        BiFunction<ValueDateTupel[], ValueDateTupel[], SubSystem> subSystemFactory, int numberOfReplayedValues) {
+		if (baseValues == null)
+			throw new IllegalArgumentException("Base values must not be null");
+		if (subSystemFactory == null)
+			throw new IllegalArgumentException("SubSystem factory must not be null");
+		if (numberOfReplayedValues < 1 || numberOfReplayedValues >= baseValues.length)
+			throw new IllegalArgumentException(
+			        "Number of replayed values must be at least 1 and less than the number of base values");
+
+		if (volatilityIndexValues == null)
+			return;
+		if (volatilityIndexValues.length != baseValues.length)
+			throw new IllegalArgumentException("Volatility index values must be aligned with the base values");
+		for (int i = 0; i < baseValues.length; i++) {
+			if (!baseValues[i].getDate().equals(volatilityIndexValues[i].getDate()))
+				throw new IllegalArgumentException("Volatility index values must be aligned with the base values");
+		}
+	}
+
+	/**
+	 * Replays the given files and logs throughput, latencies and the maximum deviation from a full rebuild. The rules
+	 * of the {@link ExampleClient} are used.
+	 * <p>
+	 * Arguments:
+	 * <ol>
+	 * <li>the path of the base values, a CSV file (ending in ".csv") or a binary series,</li>
+	 * <li>the path of the volatility index values in the same format, or "-" if not given (the
+	 * {@link VolatilityDifference} then calculates its volatility indices itself),</li>
+	 * <li>optional: the number of values at the end to be replayed, 250 by default,</li>
+	 * <li>optional: the bars per second, 0 (as fast as possible) by default,</li>
+	 * <li>optional: the reference window of the rules as two dates in ISO format separated by "/". By default, it
+	 * starts after the first {@value #WARM_UP_VALUES} values and ends with the last value not replayed.</li>
+	 * </ol>
+	 * 
+	 * @param  args                     The arguments as described above.
+	 * @throws IOException              if the given files cannot be read.
+	 * @throws IllegalArgumentException if the arguments do not meet specifications.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2)
+			throw new IllegalArgumentException(
+			        "Usage: ReplayHarness <base values> <volatility index values or -> [replayed values] [bars/s] "
+			                + "[reference window start/end]");
+
+		ValueDateTupel[] baseValues = readValues(args[0]);
+		ValueDateTupel[] volatilityIndexValues = null;
+		if (!"-".equals(args[1])) {
+			ValueDateTupel[][] aligned = ValueDateTupel
+			        .alignDates(new ValueDateTupel[][] { baseValues, readValues(args[1]) });
+			baseValues = aligned[0];
+			volatilityIndexValues = aligned[1];
+		}
+		int numberOfReplayedValues = args.length > 2 ? Integer.parseInt(args[2]) : 250;
+		double barsPerSecond = args.length > 3 ? Double.parseDouble(args[3]) : 0;
+		LocalDateTime[] referenceWindow = args.length > 4 ? parseWindow(args[4])
+		        : getDefaultReferenceWindow(baseValues, numberOfReplayedValues);
+
+		ReplayHarness harness = new ReplayHarness(baseValues, volatilityIndexValues,
+		        (values, volatilityIndex) -> createSubSystem(values, volatilityIndex, referenceWindow[0],
+		                referenceWindow[1]),
+		        numberOfReplayedValues);
+		harness.replay(barsPerSecond);
+
+		logger.info(String.format("Replayed %d bars at %.0f bars/s", numberOfReplayedValues, harness.getThroughput()));
+		logger.info(harness.getLatencies().toText());
+		logger.info("Maximum deviation from full rebuild: " + harness.calculateMaximumDeviation());
+	}
+
+	/**
+	 * Reads the values of the given file, either CSV (in {@link CsvFormat#EU}, if the name ends in ".csv") or binary
+	 * series.
+	 * 
+	 * @param  path        {@code String} The path of the file.
+	 * @return             {@code ValueDateTupel[]} The read values.
+	 * @throws IOException if the given file cannot be read.
+	 */
+	static ValueDateTupel[] readValues(String path) throws IOException {
+		if (path.toLowerCase().endsWith(".csv"))
+			return DataSource.getDataFromCsv(path, CsvFormat.EU);
+		return BinarySeries.getDataFromBinary(path);
+	}
+
+	/**
+	 * Parses the given reference window of two dates in ISO format separated by "/".
+	 * 
+	 * @param  window                   {@code String} The reference window.
+	 * @return                          {@code LocalDateTime[]} The start and end of the reference window.
+	 * @throws IllegalArgumentException if the given value is no window.
+	 */
+	static LocalDateTime[] parseWindow(String window) {
+		String[] dates = window.split("/");
+		if (dates.length != 2)
+			throw new IllegalArgumentException("Reference window must be given as start/end but is " + window);
+		try {
+			return new LocalDateTime[] { LocalDateTime.parse(dates[0].strip()), LocalDateTime.parse(dates[1].strip()) };
+		} catch (DateTimeParseException e) {
+			throw new IllegalArgumentException("Reference window must consist of ISO dates but is " + window, e);
+		}
+	}
+
+	/**
+	 * Get the default reference window of the given base values: It starts after the first
+	 * {@value #WARM_UP_VALUES} values and ends with the last value not replayed, so the SubSystem the replay starts
+	 * from covers it.
+	 * 
+	 * @param  baseValues               {@code ValueDateTupel[]} All base values, including the replayed ones.
+	 * @param  numberOfReplayedValues   {@code int} The number of values replayed.
+	 * @return                          {@code LocalDateTime[]} The start and end of the reference window.
+	 * @throws IllegalArgumentException if there are not enough values before the replayed values.
+	 */
+	static LocalDateTime[] getDefaultReferenceWindow(ValueDateTupel[] baseValues, int numberOfReplayedValues) {
+		int numberOfHistoricValues = baseValues.length - numberOfReplayedValues;
+		if (numberOfHistoricValues <= WARM_UP_VALUES + 1)
+			throw new IllegalArgumentException("There must be more than " + (WARM_UP_VALUES + 1)
+			        + " values before the replayed values to derive a reference window");
+		return new LocalDateTime[] { baseValues[WARM_UP_VALUES].getDate(),
+		        baseValues[numberOfHistoricValues - 1].getDate() };
+	}
+
+	/**
+	 * Creates a SubSystem with the rules of the {@link ExampleClient}: an {@link EWMAC} with three variations and a
+	 * {@link VolatilityDifference}.
+	 * 
+	 * @param  values                 {@code ValueDateTupel[]} The base values.
+	 * @param  volatilityIndex        {@code ValueDateTupel[]} The volatility index values. If null, the
+	 *                                {@link VolatilityDifference} calculates its volatility indices itself.
+	 * @param  startOfReferenceWindow {@link LocalDateTime} The start of the reference window of the rules.
+	 * @param  endOfReferenceWindow   {@link LocalDateTime} The end of the reference window of the rules.
+	 * @return                        {@link SubSystem} The created SubSystem.
+	 */
+	static SubSystem createSubSystem(ValueDateTupel[] values, ValueDateTupel[] volatilityIndex,
+	        LocalDateTime startOfReferenceWindow, LocalDateTime endOfReferenceWindow) {
+		BaseValue baseValue = new BaseValue("replay", values);
+		EWMAC[] ewmacVariations = {
+		        new EWMAC(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 8, 2, BASE_SCALE),
+		        new EWMAC(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 16, 4, BASE_SCALE),
+		        new EWMAC(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 32, 8, BASE_SCALE) };
+		EWMAC ewmac = new EWMAC(baseValue, ewmacVariations, startOfReferenceWindow, endOfReferenceWindow, 0, 0,
+		        BASE_SCALE);
+		VolatilityDifference volatilityDifference = volatilityIndex == null
+		        ? new VolatilityDifference(baseValue, null, startOfReferenceWindow, endOfReferenceWindow,
+		                LOOKBACK_WINDOW, BASE_SCALE)
+		        : new VolatilityDifference(baseValue, null, startOfReferenceWindow, endOfReferenceWindow,
+		                LOOKBACK_WINDOW, BASE_SCALE, volatilityIndex);
+
+		return new SubSystem(baseValue, new Rule[] { volatilityDifference, ewmac }, CAPITAL, BASE_SCALE);
+	}
+
+	/**
+	 * ====================================================================== OVERRIDES
+	 * ======================================================================
+	 */
+
+	/**
+	 * Outputs the fields of this ReplayHarness as a {@code String}.
+	 */
+	@GeneratedCode
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("ReplayHarness [numberOfBaseValues=");
+		builder.append(baseValues.length);
+		builder.append(", volatilityIndexGiven=");
+		builder.append(volatilityIndexValues != null);
+		builder.append(", numberOfReplayedValues=");
+		builder.append(numberOfReplayedValues);
+		builder.append(", elapsedNanos=");
+		builder.append(elapsedNanos);
+		builder.append(", latencies=");
+		builder.append(latencies);
+		builder.append("]");
+		return builder.toString();
+	}
+
+	/**
+	 * ====================================================================== GETTERS AND SETTERS
+	 * ======================================================================
+	 */
+
+	/**
+	 * Set the base values of this ReplayHarness.
+	 * 
+	 * @param baseValues {@code ValueDateTupel[]} The base values to set.
+	 */
+	private void setBaseValues(ValueDateTupel[] baseValues) {
+		this.baseValues = baseValues;
+	}
+
+	/**
+	 * Set the volatility index values of this ReplayHarness.
+	 * 
+	 * @param volatilityIndexValues {@code ValueDateTupel[]} The volatility index values to set.
+	 */
+	private void setVolatilityIndexValues(ValueDateTupel[] volatilityIndexValues) {
+		this.volatilityIndexValues = volatilityIndexValues;
+	}
+
+	/**
+	 * Set the SubSystem factory of this ReplayHarness.
+	 * 
+	 * @param subSystemFactory {@code BiFunction<ValueDateTupel[], ValueDateTupel[], SubSystem>} The factory to set.
+	 */
+	private void setSubSystemFactory(BiFunction<ValueDateTupel[], ValueDateTupel[], SubSystem> subSystemFactory) {
+		this.subSystemFactory = subSystemFactory;
+	}
+
+	/**
+	 * Get the number of values replayed by this ReplayHarness.
+	 * 
+	 * @return {@code int} The number of replayed values.
+	 */
+	public int getNumberOfReplayedValues() {
+		return numberOfReplayedValues;
+	}
+
+	/**
+	 * Set the number of values replayed by this ReplayHarness.
+	 * 
+	 * @param numberOfReplayedValues {@code int} The number of replayed values to set.
+	 */
+	private void setNumberOfReplayedValues(int numberOfReplayedValues) {
+		this.numberOfReplayedValues = numberOfReplayedValues;
+	}
+
+	/**
+	 * Get the combined forecasts after every value of the last replay.
+	 * 
+	 * @return {@code ValueDateTupel[]} The replayed forecasts. Null, if no replay took place yet.
+	 */
+	public ValueDateTupel[] getReplayedForecasts() {
+		return replayedForecasts;
+	}
+
+	/**
+	 * Set the combined forecasts of the last replay.
+	 * 
+	 * @param replayedForecasts {@code ValueDateTupel[]} The forecasts to set.
+	 */
+	private void setReplayedForecasts(ValueDateTupel[] replayedForecasts) {
+		this.replayedForecasts = replayedForecasts;
+	}
+
+	/**
+	 * Get the durations of the updates of the last replay.
+	 * 
+	 * @return {@link LatencyHistogram} The durations in nanoseconds. Null, if no replay took place yet.
+	 */
+	public LatencyHistogram getLatencies() {
+		return latencies;
+	}
+
+	/**
+	 * Set the durations of the updates of the last replay.
+	 * 
+	 * @param latencies {@link LatencyHistogram} The LatencyHistogram to set.
+	 */
+	private void setLatencies(LatencyHistogram latencies) {
+		this.latencies = latencies;
+	}
+
+	/**
+	 * Get the time the last replay took in total, including any waiting for the rate.
+	 * 
+	 * @return {@code long} The elapsed time in nanoseconds.
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * Set the time the last replay took.
+	 * 
+	 * @param elapsedNanos {@code long} The elapsed time to set.
+	 */
+	private void setElapsedNanos(long elapsedNanos) {
+		this.elapsedNanos = elapsedNanos;
+	}
+}
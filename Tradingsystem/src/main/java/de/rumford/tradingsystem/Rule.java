@@ -5,7 +5,12 @@ import java.util.Arrays;
 
 import org.apache.commons.lang3.ArrayUtils;
 
+import de.rumford.tradingsystem.helper.CalculationEvent;
+import de.rumford.tradingsystem.helper.DerivedSeriesCache;
+import de.rumford.tradingsystem.helper.Fingerprint;
 import de.rumford.tradingsystem.helper.GeneratedCode;
+import de.rumford.tradingsystem.helper.Metrics;
+import de.rumford.tradingsystem.helper.MetricsRegistry;
 import de.rumford.tradingsystem.helper.Util;
 import de.rumford.tradingsystem.helper.Validator;
 import de.rumford.tradingsystem.helper.ValueDateTupel;
@@ -26,6 +31,9 @@ import de.rumford.tradingsystem.helper.ValueDateTupel;
  */
 public abstract class Rule {
 
+	/* The name of the computation of standard deviation adjusted forecasts in the DerivedSeriesCache. */
+	static final String SD_ADJUSTED_FORECASTS_COMPUTATION = "Rule.sdAdjustedForecasts";
+
 	/* The base value used for forecast calculation. */
 	private BaseValue baseValue;
 	/* The variations this rule might have. */
@@ -96,6 +104,29 @@ public abstract class Rule {
 	 */
 	abstract double calculateRawForecast(LocalDateTime forecastDateTime);
 
+	/**
+	 * Extends the given fingerprint by all parameters of the extending class that determine its raw forecasts, e.g.
+	 * horizons or given series. Together with the inputs of this class, they make up {@link #getFingerprint()}.
+	 * 
+	 * @param  fingerprint {@link Fingerprint} The fingerprint of the inputs of this class.
+	 * @return             {@link Fingerprint} The given fingerprint extended by the parameters of the extending class.
+	 */
+	abstract Fingerprint fingerprintParameters(Fingerprint fingerprint);
+
+	/**
+	 * Creates the incremental counterpart of {@link #calculateRawForecast(LocalDateTime)} used by
+	 * {@link LiveSubSystem}. The returned {@link LiveRawForecast} starts from the state after the last base value of
+	 * this rule and calculates the raw forecast for every further value in constant time. Rules supporting live updates
+	 * override this method. Only called on rules without variations.
+	 * 
+	 * @return                          {@link LiveRawForecast} The incremental raw forecast of this rule.
+	 * @throws IllegalArgumentException if this type of rule does not support live updates.
+	 */
+	LiveRawForecast createLiveRawForecast() {
+		throw new IllegalArgumentException(
+		        "Rules of type " + this.getClass().getSimpleName() + " do not support live updates");
+	}
+
 	/**
 	 * Extract the relevant forecasts for this rule.
 	 * 
@@ -129,9 +160,87 @@ public abstract class Rule {
 	 * might be known upon call of Rule constructor.
 	 */
 	private void calculateAndSetDerivedValues() {
-		this.setSdAdjustedForecasts(this.calculateSdAdjustedForecasts());
+		long startNanos = System.nanoTime();
+		CalculationEvent event = new CalculationEvent.RuleForecast();
+		event.begin();
+		this.setSdAdjustedForecasts(this.getCachedSdAdjustedForecasts());
+
+		CalculationEvent forecastScalarEvent = new CalculationEvent.ForecastScalar();
+		forecastScalarEvent.begin();
 		this.setForecastScalar(this.calculateForecastScalar());
+		forecastScalarEvent.commit(this.getBaseValue().getName(), this.getClass().getSimpleName(),
+		        this.getSdAdjustedForecasts().length);
+
 		this.setForecasts(this.calculateScaledForecasts());
+		event.commit(this.getBaseValue().getName(), this.getClass().getSimpleName(), this.getForecasts().length);
+		MetricsRegistry registry = Metrics.getRegistry();
+		registry.counter(Metrics.RULES_BUILT, this.getBaseValue().getName()).increment(1);
+		registry.timer(Metrics.RULE_FORECAST_DURATION, this.getBaseValue().getName())
+		        .record(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Restores all values derived from raw forecasts and the weight of this rule, e.g. read by
+	 * {@link SubSystemCheckpoint}, so they are not calculated upon first invocation of {@link #getForecasts()}.
+	 * 
+	 * @param sdAdjustedForecasts {@code ValueDateTupel[]} The standard deviation adjusted forecasts. Must not be null.
+	 * @param forecastScalar      {@code double} The forecast scalar.
+	 * @param forecasts           {@code ValueDateTupel[]} The scaled forecasts.
+	 * @param weight              {@code double} The weight of this rule.
+	 */
+	final void restoreDerivedValues(ValueDateTupel[] sdAdjustedForecasts, double forecastScalar,
+	        ValueDateTupel[] forecasts, double weight) {
+		this.setSdAdjustedForecasts(sdAdjustedForecasts);
+		this.setForecastScalar(forecastScalar);
+		this.setForecasts(forecasts);
+		this.setWeight(weight);
+	}
+
+	/**
+	 * Get the standard deviation adjusted forecasts for this rule from the {@link DerivedSeriesCache}, calculating and
+	 * caching them if there is no entry. The entry is keyed by {@link #getFingerprint()}, which covers all inputs the
+	 * forecasts are derived of. An entry is only used if its dates match the dates of the base value from the start of
+	 * the reference window. Rules with variations have no standard deviation adjusted forecasts of their own, so they
+	 * are not cached.
+	 * <p>
+	 * As the fingerprint covers the whole base value, appending a value misses the entry and all forecasts are
+	 * calculated again, unlike the causal computations of the {@link DerivedSeriesCache}.
+	 * 
+	 * @return {@code ValueDateTupel[]} An array of standard deviation adjusted forecasts.
+	 */
+	private ValueDateTupel[] getCachedSdAdjustedForecasts() {
+		if (this.hasVariations())
+			return this.calculateSdAdjustedForecasts();
+
+		DerivedSeriesCache cache = DerivedSeriesCache.getCache();
+		Fingerprint key = DerivedSeriesCache.key(SD_ADJUSTED_FORECASTS_COMPUTATION, this.getFingerprint());
+		ValueDateTupel[] cachedSdAdjustedForecasts = cache.get(key);
+
+		ValueDateTupel[] baseValues = this.getBaseValue().getValues();
+		int startPosition = ValueDateTupel.getPosition(baseValues, this.getStartOfReferenceWindow());
+		if (cachedSdAdjustedForecasts != null && matchesDates(cachedSdAdjustedForecasts, baseValues, startPosition))
+			return cachedSdAdjustedForecasts;
+
+		ValueDateTupel[] calculatedSdAdjustedForecasts = this.calculateSdAdjustedForecasts();
+		cache.put(key, calculatedSdAdjustedForecasts);
+		return calculatedSdAdjustedForecasts;
+	}
+
+	/**
+	 * Check if the given cached values are of the dates of the given base values from the given position on.
+	 * 
+	 * @param  cachedValues  {@code ValueDateTupel[]} The cached values.
+	 * @param  baseValues    {@code ValueDateTupel[]} The base values.
+	 * @param  startPosition {@code int} The position of the base value of the first cached value.
+	 * @return               {@code boolean} True, if the dates match, false otherwise.
+	 */
+	private static boolean matchesDates(ValueDateTupel[] cachedValues, ValueDateTupel[] baseValues, int startPosition) {
+		if (cachedValues.length != baseValues.length - startPosition)
+			return false;
+		for (int i = 0; i < cachedValues.length; i++)
+			if (!cachedValues[i].getDate().equals(baseValues[startPosition + i].getDate()))
+				return false;
+		return true;
 	}
 
 	/**
@@ -142,17 +251,19 @@ public abstract class Rule {
 	 */
 	private ValueDateTupel[] calculateSdAdjustedForecasts() {
 		/*
-		 * All dates from startOfReferenceWindow are relevant for the calculation
+		 * All dates from startOfReferenceWindow are relevant for the calculation. They are read in place, copying them
+		 * first would allocate for every date.
 		 */
-		LocalDateTime[] relevantDates = ValueDateTupel.getDates(
-		        ValueDateTupel.getElements(this.getBaseValue().getValues(), this.getStartOfReferenceWindow(), null));
+		ValueDateTupel[] baseValues = this.getBaseValue().getValues();
+		int startPosition = ValueDateTupel.getPosition(baseValues, this.getStartOfReferenceWindow());
 
-		ValueDateTupel[] calculatedSdAdjustedForecasts = {};
+		ValueDateTupel[] calculatedSdAdjustedForecasts = ValueDateTupel
+		        .createEmptyArray(baseValues.length - startPosition);
 
 		/* For all relevant dates: Calculate the sd adjusted forecast */
-		for (LocalDateTime dt : relevantDates) {
-			calculatedSdAdjustedForecasts = ArrayUtils.add(calculatedSdAdjustedForecasts,
-			        new ValueDateTupel(dt, this.calculateSdAdjustedForecast(dt)));
+		for (int i = 0; i < calculatedSdAdjustedForecasts.length; i++) {
+			LocalDateTime dt = baseValues[startPosition + i].getDate();
+			calculatedSdAdjustedForecasts[i] = new ValueDateTupel(dt, this.calculateSdAdjustedForecast(dt));
 		}
 		return calculatedSdAdjustedForecasts;
 	}
@@ -188,39 +299,34 @@ public abstract class Rule {
 
 		double instanceBaseScale = this.getBaseScale();
 		Rule[] instanceVariations = this.getVariations();
-		ValueDateTupel[] relevantForecastValues;
+		double[] relevantForecastValues;
 
 		/*
 		 * If the rule has variations, use the variations' forecasts multiplied with their respective weights method to
 		 * get the base for the forecast scalar.
 		 */
 		if (instanceVariations != null) {
-			/* local array of weighted and combined variations' forecasts. */
-			relevantForecastValues = ValueDateTupel.createEmptyArray(instanceVariations[0].getForecasts().length);
+			/* The forecasts of all variations share the same dates. */
+			ValueDateTupel[] firstForecasts = instanceVariations[0].getForecasts();
+			int startPosition = ValueDateTupel.getPosition(firstForecasts, this.getStartOfReferenceWindow());
+			int endPosition = ValueDateTupel.getPosition(firstForecasts, this.getEndOfReferenceWindow());
 
-			/* Loop over each variation */
-			for (Rule variation : instanceVariations) {
-				/* Loop over each forecast value inside each variation. */
-				for (int i = 0; i < variation.getForecasts().length; i++) {
-
-					/*
-					 * Calculate the value to be added to the current weighted forecast value for this rule
-					 */
-					double valueToBeAdded = variation.getForecasts()[i].getValue() * variation.getWeight();
+			/* local array of weighted and combined variations' forecasts inside the reference window. */
+			relevantForecastValues = new double[endPosition - startPosition + 1];
 
-					/*
-					 * If the variations forecast value at this position is null (i.e. when we're in the first
-					 * variation's loop) create a new ValueDateTupel
-					 */
-					if (relevantForecastValues[i] == null) {
-						relevantForecastValues[i] = new ValueDateTupel(variation.getForecasts()[i].getDate(),
-						        valueToBeAdded);
-					} else {
-						/*
-						 * If there already is a value at position i add the value to the existing value
-						 */
-						relevantForecastValues[i].setValue(relevantForecastValues[i].getValue() + valueToBeAdded);
-					}
+			/* Loop over each variation */
+			for (int variationsIndex = 0; variationsIndex < instanceVariations.length; variationsIndex++) {
+				Rule variation = instanceVariations[variationsIndex];
+				ValueDateTupel[] variationForecasts = variation.getForecasts();
+				/* Loop over each forecast value inside the reference window. */
+				for (int i = 0; i < relevantForecastValues.length; i++) {
+					double valueToBeAdded = variationForecasts[startPosition + i].getValue() * variation.getWeight();
+
+					/* The first variation sets the value, all further ones add to it. */
+					if (variationsIndex == 0)
+						relevantForecastValues[i] = valueToBeAdded;
+					else
+						relevantForecastValues[i] += valueToBeAdded;
 				}
 			}
 
@@ -228,14 +334,17 @@ public abstract class Rule {
 			/*
 			 * If the rule doesn't have variations use this rules sd adjusted forecast values
 			 */
-			relevantForecastValues = this.getSdAdjustedForecasts();
+			ValueDateTupel[] instanceSdAdjustedForecasts = this.getSdAdjustedForecasts();
+			int startPosition = ValueDateTupel.getPosition(instanceSdAdjustedForecasts,
+			        this.getStartOfReferenceWindow());
+			int endPosition = ValueDateTupel.getPosition(instanceSdAdjustedForecasts, this.getEndOfReferenceWindow());
+
+			relevantForecastValues = new double[endPosition - startPosition + 1];
+			for (int i = 0; i < relevantForecastValues.length; i++)
+				relevantForecastValues[i] = instanceSdAdjustedForecasts[startPosition + i].getValue();
 		}
 
-		relevantForecastValues = ValueDateTupel.getElements(relevantForecastValues, this.getStartOfReferenceWindow(),
-		        this.getEndOfReferenceWindow());
-
-		double calculatedForecastScalar = Util.calculateForecastScalar(ValueDateTupel.getValues(relevantForecastValues),
-		        instanceBaseScale);
+		double calculatedForecastScalar = Util.calculateForecastScalar(relevantForecastValues, instanceBaseScale);
 		if (Double.isNaN(calculatedForecastScalar))
 			throw new IllegalArgumentException(
 			        "Illegal values in calulated forecast values." + " Adjust reference window.");
@@ -311,15 +420,18 @@ public abstract class Rule {
 		/*
 		 * If the Rule does not have variations, use the sd adjusted forecasts of this Rule alone.
 		 */
-		LocalDateTime[] relevantDates = ValueDateTupel
-		        .getDates(ValueDateTupel.getElements(this.getBaseValue().getValues(), calculateFrom, calculateTo));
+		ValueDateTupel[] baseValues = this.getBaseValue().getValues();
+		int fromPosition = calculateFrom == null ? 0 : ValueDateTupel.getPosition(baseValues, calculateFrom);
+		int toPosition = calculateTo == null ? baseValues.length - 1
+		        : ValueDateTupel.getPosition(baseValues, calculateTo);
 
 		ValueDateTupel[] instanceSdAdjustedForecasts = this.getSdAdjustedForecasts();
 
-		for (int i = 0; i < relevantDates.length; i++) {
-			LocalDateTime dt = relevantDates[i];
-			calculatedScaledForecasts = ArrayUtils.add(calculatedScaledForecasts,
-			        new ValueDateTupel(dt, this.calculateScaledForecast(instanceSdAdjustedForecasts[i].getValue())));
+		calculatedScaledForecasts = ValueDateTupel.createEmptyArray(toPosition - fromPosition + 1);
+		for (int i = 0; i < calculatedScaledForecasts.length; i++) {
+			LocalDateTime dt = baseValues[fromPosition + i].getDate();
+			calculatedScaledForecasts[i] = new ValueDateTupel(dt,
+			        this.calculateScaledForecast(instanceSdAdjustedForecasts[i].getValue()));
 		}
 		return calculatedScaledForecasts;
 	}
@@ -332,13 +444,23 @@ public abstract class Rule {
 	 * @return                    {@code double} the scaled forecast value.
 	 */
 	private double calculateScaledForecast(double sdAdjustedForecast) {
-		double instanceBaseScale = this.getBaseScale();
-		double instanceForecastScalar = this.getForecastScalar();
+		return scaleForecast(sdAdjustedForecast, this.getForecastScalar(), this.getBaseScale());
+	}
 
-		final double MAX_FORECAST = instanceBaseScale * 2;
+	/**
+	 * Scale the given standard deviation adjusted forecast by the given forecast scalar. Cut off forecast values if
+	 * they exceed 2 * base scale positively or -2 * base scale negatively.
+	 * 
+	 * @param  sdAdjustedForecast {@code double} The standard deviation adjusted value to be scaled.
+	 * @param  forecastScalar     {@code double} The forecast scalar to be applied.
+	 * @param  baseScale          {@code double} The base scale determining the cut off values.
+	 * @return                    {@code double} the scaled forecast value.
+	 */
+	static double scaleForecast(double sdAdjustedForecast, double forecastScalar, double baseScale) {
+		final double MAX_FORECAST = baseScale * 2;
 		final double MIN_FORECAST = 0 - MAX_FORECAST;
 
-		double scaledForecast = sdAdjustedForecast * instanceForecastScalar;
+		double scaledForecast = sdAdjustedForecast * forecastScalar;
 
 		if (scaledForecast > MAX_FORECAST)
 			return MAX_FORECAST;
@@ -380,7 +502,7 @@ public abstract class Rule {
 		Validator.validateBaseValue(baseValue);
 
 		try {
-			Validator.validateTimeWindow(startOfReferenceWindow, endOfReferenceWindow, baseValue.getValues());
+			Validator.validateTimeWindow(startOfReferenceWindow, endOfReferenceWindow, baseValue.getValidatedValues());
 		} catch (IllegalArgumentException e) {
 			/*
 			 * If the message contains "values" the message references an error in the given base values in combination
@@ -474,33 +596,18 @@ public abstract class Rule {
 	 */
 
 	/**
-	 * A hash code for this Rule.
+	 * A hash code for this Rule, taken from its fingerprint.
 	 */
-	@GeneratedCode
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		long temp;
-		temp = Double.doubleToLongBits(baseScale);
-		result = prime * result + (int) (temp ^ (temp >>> 32));
-		result = prime * result + ((baseValue == null) ? 0 : baseValue.hashCode());
-		result = prime * result + ((endOfReferenceWindow == null) ? 0 : endOfReferenceWindow.hashCode());
-		temp = Double.doubleToLongBits(forecastScalar);
-		result = prime * result + (int) (temp ^ (temp >>> 32));
-		result = prime * result + Arrays.hashCode(forecasts);
-		result = prime * result + Arrays.hashCode(sdAdjustedForecasts);
-		result = prime * result + ((startOfReferenceWindow == null) ? 0 : startOfReferenceWindow.hashCode());
-		result = prime * result + Arrays.hashCode(variations);
-		temp = Double.doubleToLongBits(weight);
-		result = prime * result + (int) (temp ^ (temp >>> 32));
-		return result;
-	}
-
-	/**
-	 * Checks if this Rule is equal to another Rule.
+		return this.getFingerprint().hashCode();
+	}
+
+	/**
+	 * Checks if this Rule is equal to another Rule: of the same type, inputs and weight. The inputs are compared by
+	 * their fingerprints in constant time, see {@link #getFingerprint()}. The forecasts are derived from the inputs and
+	 * therefore not compared, so rules are equal whether their forecasts have been calculated yet or not.
 	 */
-	@GeneratedCode
 	@Override
 	public boolean equals(Object obj) {
 		if (this == obj)
@@ -510,34 +617,9 @@ public abstract class Rule {
 		if (getClass() != obj.getClass())
 			return false;
 		Rule other = (Rule) obj;
-		if (Double.doubleToLongBits(baseScale) != Double.doubleToLongBits(other.baseScale))
-			return false;
-		if (baseValue == null) {
-			if (other.baseValue != null)
-				return false;
-		} else if (!baseValue.equals(other.baseValue))
-			return false;
-		if (endOfReferenceWindow == null) {
-			if (other.endOfReferenceWindow != null)
-				return false;
-		} else if (!endOfReferenceWindow.equals(other.endOfReferenceWindow))
-			return false;
-		if (Double.doubleToLongBits(forecastScalar) != Double.doubleToLongBits(other.forecastScalar))
-			return false;
-		if (!Arrays.equals(forecasts, other.forecasts))
-			return false;
-		if (!Arrays.equals(sdAdjustedForecasts, other.sdAdjustedForecasts))
-			return false;
-		if (startOfReferenceWindow == null) {
-			if (other.startOfReferenceWindow != null)
-				return false;
-		} else if (!startOfReferenceWindow.equals(other.startOfReferenceWindow))
-			return false;
-		if (!Arrays.equals(variations, other.variations))
-			return false;
 		if (Double.doubleToLongBits(weight) != Double.doubleToLongBits(other.weight))
 			return false;
-		return true;
+		return this.getFingerprint().equals(other.getFingerprint());
 	}
 
 	/**
@@ -592,6 +674,28 @@ public abstract class Rule {
 		this.baseValue = baseValue;
 	}
 
+	/**
+	 * Get the fingerprint of the inputs of this rule: its type, the fingerprints of its base value and variations, its
+	 * reference window, base scale and the parameters of the extending class. Rules with equal fingerprints calculate
+	 * equal forecasts. The fingerprint is calculated from the current fingerprint of the base value, so it takes values
+	 * appended to the base value into account, in time linear to the number of variations.
+	 * 
+	 * @return {@link Fingerprint} The fingerprint of this rule.
+	 */
+	public final Fingerprint getFingerprint() {
+		Fingerprint fingerprint = Fingerprint.EMPTY.with(this.getClass().getName())
+		        .with(baseValue == null ? null : baseValue.getFingerprint());
+		if (variations == null) {
+			fingerprint = fingerprint.with(0L);
+		} else {
+			fingerprint = fingerprint.with((long) variations.length);
+			for (Rule variation : variations)
+				fingerprint = fingerprint.with(variation == null ? null : variation.getFingerprint());
+		}
+		fingerprint = fingerprint.with(startOfReferenceWindow).with(endOfReferenceWindow).with(baseScale);
+		return this.fingerprintParameters(fingerprint);
+	}
+
 	/**
 	 * Get the forecast scalar of this rule. Invokes {@link #calculateAndSetDerivedValues()} if
 	 * {@code (this.sdAdjustedForecasts == null)} evaluates to {@code true}.
@@ -725,11 +829,14 @@ public abstract class Rule {
 	}
 
 	/**
-	 * Get the standard deviation adjusted forecasts for this rule.
+	 * Get the standard deviation adjusted forecasts for this rule. Invokes {@link #calculateAndSetDerivedValues()} if
+	 * {@code (this.sdAdjustedForecasts == null)} evaluates to {@code true}.
 	 * 
 	 * @return sdAdjustedForecasts Rule
 	 */
-	private ValueDateTupel[] getSdAdjustedForecasts() {
+	final ValueDateTupel[] getSdAdjustedForecasts() {
+		if (sdAdjustedForecasts == null)
+			this.calculateAndSetDerivedValues();
 		return sdAdjustedForecasts;
 	}
 
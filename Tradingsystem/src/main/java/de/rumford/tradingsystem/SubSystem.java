@@ -3,10 +3,12 @@ package de.rumford.tradingsystem;
 import java.time.LocalDateTime;
 import java.time.chrono.ChronoLocalDateTime;
 import java.util.Arrays;
+import java.util.DoubleSummaryStatistics;
 
-import org.apache.commons.lang3.ArrayUtils;
-
+import de.rumford.tradingsystem.helper.CalculationEvent;
 import de.rumford.tradingsystem.helper.GeneratedCode;
+import de.rumford.tradingsystem.helper.Metrics;
+import de.rumford.tradingsystem.helper.MetricsRegistry;
 import de.rumford.tradingsystem.helper.Util;
 import de.rumford.tradingsystem.helper.Validator;
 import de.rumford.tradingsystem.helper.ValueDateTupel;
@@ -69,9 +71,38 @@ public class SubSystem {
 	}
 
 	/**
-	 * Performs a backtest for the given parameters. Utilizes
-	 * {@link #calculatePerformanceValues(BaseValue, LocalDateTime, LocalDateTime, ValueDateTupel[], double, double)}
-	 * for actual performance calculation and returns performance value for the last day.
+	 * Restores a SubSystem from its already calculated diversification multiplier and combined forecasts, e.g. read by
+	 * {@link SubSystemCheckpoint}. The given values are validated like in
+	 * {@link #SubSystem(BaseValue, Rule[], double, double)}, but nothing is calculated.
+	 * 
+	 * @param  baseValue                 {@link BaseValue} The base value of the restored rules.
+	 * @param  rules                     {@code Rule[]} The restored rules.
+	 * @param  capital                   {@code double} The capital to be managed by this SubSystem.
+	 * @param  baseScale                 {@code double} The base scale for this SubSystem's forecasts.
+	 * @param  diversificationMultiplier {@link DiversificationMultiplier} The restored diversification multiplier.
+	 * @param  combinedForecasts         {@code ValueDateTupel[]} The combined forecasts of the given rules.
+	 * @throws IllegalArgumentException  if the given values do not meet the specifications of
+	 *                                   {@link #validateInput( BaseValue, Rule[], double, double)}.
+	 */
+	SubSystem(BaseValue baseValue, Rule[] rules, double capital, double baseScale,
+	        DiversificationMultiplier diversificationMultiplier, ValueDateTupel[] combinedForecasts) {
+
+		validateInput(baseValue, rules, capital, baseScale);
+
+		validateRules(rules);
+		this.setRules(rules);
+
+		this.setBaseValue(baseValue);
+		this.setCapital(capital);
+		this.setBaseScale(baseScale);
+		this.setDiversificationMultiplier(diversificationMultiplier);
+		this.setCombinedForecasts(combinedForecasts);
+	}
+
+	/**
+	 * Performs a backtest for the given parameters and returns the performance value for the last day, as by
+	 * {@link #calculatePerformanceValues(BaseValue, LocalDateTime, LocalDateTime, ValueDateTupel[], double, double)}.
+	 * Other than the latter, no value is allocated per day of the test window.
 	 * 
 	 * @see                      SubSystem#calculatePerformanceValues(BaseValue, LocalDateTime, LocalDateTime,
 	 *                           ValueDateTupel[], double, double)
@@ -85,16 +116,15 @@ public class SubSystem {
 	 */
 	public static double backtest(BaseValue baseValue, LocalDateTime startOfTestWindow, LocalDateTime endOfTestWindow,
 	        ValueDateTupel[] combinedForecasts, double baseScale, double capital) {
+		validateTestWindow(baseValue, startOfTestWindow, endOfTestWindow, combinedForecasts);
 
-		ValueDateTupel[] performanceValues = calculatePerformanceValues(baseValue, startOfTestWindow, endOfTestWindow,
-		        combinedForecasts, baseScale, capital);
-
-		return performanceValues[performanceValues.length - 1].getValue();
+		return simulateTrading(baseValue, startOfTestWindow, endOfTestWindow, combinedForecasts, baseScale, capital,
+		        null);
 	}
 
 	/**
 	 * Calls
-	 * {@link #calculatePerformanceValues(BaseValue, LocalDateTime, LocalDateTime, ValueDateTupel[], double, double)}
+	 * {@link #backtest(BaseValue, LocalDateTime, LocalDateTime, ValueDateTupel[], double, double)}
 	 * with instance properties.
 	 * 
 	 * @param  startOfTestWindow {@link LocalDateTime} First time interval of test window.
@@ -124,9 +154,31 @@ public class SubSystem {
 	 */
 	public static ValueDateTupel[] calculatePerformanceValues(BaseValue baseValue, LocalDateTime startOfTestWindow,
 	        LocalDateTime endOfTestWindow, ValueDateTupel[] combinedForecasts, double baseScale, double capital) {
+		validateTestWindow(baseValue, startOfTestWindow, endOfTestWindow, combinedForecasts);
 
+		ValueDateTupel[] performanceValues = ValueDateTupel
+		        .createEmptyArray(ValueDateTupel.getPosition(combinedForecasts, endOfTestWindow)
+		                - ValueDateTupel.getPosition(combinedForecasts, startOfTestWindow) + 1);
+
+		simulateTrading(baseValue, startOfTestWindow, endOfTestWindow, combinedForecasts, baseScale, capital,
+		        performanceValues);
+
+		return performanceValues;
+	}
+
+	/**
+	 * Validates the given test window fits the given base value and forecasts.
+	 * 
+	 * @param  baseValue                {@link BaseValue} The base value to be tested against.
+	 * @param  startOfTestWindow        {@link LocalDateTime} First time interval of test window.
+	 * @param  endOfTestWindow          {@link LocalDateTime} Last time interval of test window.
+	 * @param  combinedForecasts        {@code ValueDateTupel[]} The forecasts to be used for performance calculation.
+	 * @throws IllegalArgumentException if the given test window does not fit the given base value or forecasts.
+	 */
+	private static void validateTestWindow(BaseValue baseValue, LocalDateTime startOfTestWindow,
+	        LocalDateTime endOfTestWindow, ValueDateTupel[] combinedForecasts) {
 		try {
-			Validator.validateTimeWindow(startOfTestWindow, endOfTestWindow, baseValue.getValues());
+			Validator.validateTimeWindow(startOfTestWindow, endOfTestWindow, baseValue.getValidatedValues());
 		} catch (IllegalArgumentException e) {
 			/*
 			 * If the message contains "values" the message references an error in the given base values in combination
@@ -147,46 +199,61 @@ public class SubSystem {
 			 */
 			throw new IllegalArgumentException("Given forecasts and test window do not fit.", e);
 		}
+	}
 
-		/* Fetch all base values inside the test window */
-		ValueDateTupel[] relevantBaseValues = ValueDateTupel.getElements(baseValue.getValues(), startOfTestWindow,
-		        endOfTestWindow);
+	/**
+	 * Trades the products of the given base value according to the given forecasts over the given test window. The
+	 * values are read in place by their positions, so no value is allocated per day.
+	 * 
+	 * @param  baseValue         {@link BaseValue} The base value upon which the products' prices are to be based.
+	 * @param  startOfTestWindow {@link LocalDateTime} First time interval for testing. Must be validated.
+	 * @param  endOfTestWindow   {@link LocalDateTime} Last time interval for testing. Must be validated.
+	 * @param  combinedForecasts {@code ValueDateTupel[]} The forecasts for this performance calculation.
+	 * @param  baseScale         {@code double} The scale the given forecasts are based upon.
+	 * @param  capital           {@code double} The starting capital.
+	 * @param  performanceValues {@code ValueDateTupel[]} The array the performance value of each day is written to.
+	 *                           Must be of the length of the test window. If null, the performance values are only
+	 *                           calculated.
+	 * @return                   {@code double} The performance value on the last day of the given test window.
+	 */
+	private static double simulateTrading(BaseValue baseValue, LocalDateTime startOfTestWindow,
+	        LocalDateTime endOfTestWindow, ValueDateTupel[] combinedForecasts, double baseScale, double capital,
+	        ValueDateTupel[] performanceValues) {
+		long startNanos = System.nanoTime();
+		CalculationEvent event = new CalculationEvent.Backtest();
+		event.begin();
+		ValueDateTupel[] baseValues = baseValue.getValues();
+		ValueDateTupel[] shortIndexValues = baseValue.getShortIndexValues();
+
+		int basePosition = ValueDateTupel.getPosition(baseValues, startOfTestWindow);
+		int shortIndexPosition = ValueDateTupel.getPosition(shortIndexValues, startOfTestWindow);
+		int forecastPosition = ValueDateTupel.getPosition(combinedForecasts, startOfTestWindow);
+		int length = ValueDateTupel.getPosition(combinedForecasts, endOfTestWindow) - forecastPosition + 1;
 
 		/*
 		 * Get the product price factor to calculate long and short product prices
 		 */
-		double productPriceFactor = calculateProductPriceFactor(ValueDateTupel.getValues(relevantBaseValues));
-
-		/*
-		 * Calculate the product prices based on the base value for each interval inside the testing timespan and the
-		 * calculated productPriceFactor
-		 */
-		ValueDateTupel[] productPrices = calculateProductPrices(relevantBaseValues, productPriceFactor);
-
-		/*
-		 * Calculate the short product prices based on the base value for each interval inside the testing timespan and
-		 * the calculated productPriceFactor
-		 */
-		ValueDateTupel[] relevantShortIndexValues = ValueDateTupel.getElements(baseValue.getShortIndexValues(),
-		        startOfTestWindow, endOfTestWindow);
-		ValueDateTupel[] shortProductPrices = calculateProductPrices(relevantShortIndexValues, productPriceFactor);
-
-		/* Fetch all forecasts relevant for this backtest. */
-		ValueDateTupel[] relevantCombinedForecasts = ValueDateTupel.getElements(combinedForecasts, startOfTestWindow,
-		        endOfTestWindow);
-
-		ValueDateTupel[] performanceValues = {};
+		double productPriceFactor = calculateProductPriceFactor(baseValues, basePosition,
+		        ValueDateTupel.getPosition(baseValues, endOfTestWindow) - basePosition + 1);
 
+		double performanceValue = capital;
 		long longProductsCount = 0;
 		long shortProductsCount = 0;
-		for (int i = 0; i < relevantCombinedForecasts.length; i++) {
+		for (int i = 0; i < length; i++) {
+			/*
+			 * Calculate the product prices based on the base value and short index value of this time interval and the
+			 * calculated productPriceFactor
+			 */
+			double productPrice = baseValues[basePosition + i].getValue() * productPriceFactor;
+			double shortProductPrice = shortIndexValues[shortIndexPosition + i].getValue() * productPriceFactor;
+			ValueDateTupel combinedForecast = combinedForecasts[forecastPosition + i];
 
 			/*
 			 * Calculate the capital available for this time interval by "selling" off all currently held positions at
 			 * the this time interval's prices.
 			 */
-			capital += longProductsCount * productPrices[i].getValue();
-			capital += shortProductsCount * shortProductPrices[i].getValue();
+			capital += longProductsCount * productPrice;
+			capital += shortProductsCount * shortProductPrice;
 
 			/* Reset the products count as they were sold off */
 			shortProductsCount = 0;
@@ -196,28 +263,29 @@ public class SubSystem {
 			 * Add this capital as performance value, as the overall value of cash + assets held will not change during
 			 * buying.
 			 */
-			ValueDateTupel performanceValue = new ValueDateTupel(relevantCombinedForecasts[i].getDate(), capital);
-			performanceValues = ArrayUtils.add(performanceValues, performanceValue);
+			performanceValue = capital;
+			if (performanceValues != null)
+				performanceValues[i] = new ValueDateTupel(combinedForecast.getDate(), performanceValue);
 
-			if (relevantCombinedForecasts[i].getValue() > 0) {
+			if (combinedForecast.getValue() > 0) {
 				/* Long position */
-				longProductsCount = calculateProductsCount(capital, productPrices[i].getValue(),
-				        relevantCombinedForecasts[i].getValue(), baseScale);
+				longProductsCount = calculateProductsCount(capital, productPrice, combinedForecast.getValue(),
+				        baseScale);
 
 				/*
 				 * "Buy" the calculated count of products and thus reduce the cash capital
 				 */
-				capital -= longProductsCount * productPrices[i].getValue();
+				capital -= longProductsCount * productPrice;
 
-			} else if (relevantCombinedForecasts[i].getValue() < 0) {
+			} else if (combinedForecast.getValue() < 0) {
 				/* short position */
-				shortProductsCount = calculateProductsCount(capital, shortProductPrices[i].getValue(),
-				        relevantCombinedForecasts[i].getValue(), baseScale);
+				shortProductsCount = calculateProductsCount(capital, shortProductPrice, combinedForecast.getValue(),
+				        baseScale);
 
 				/*
 				 * "Buy" the calculated count of products and thus reduce the cash capital
 				 */
-				capital -= shortProductsCount * shortProductPrices[i].getValue();
+				capital -= shortProductsCount * shortProductPrice;
 			} else {
 				/*
 				 * If forecast was 0 nothing would be bought so no default-else branch is needed.
@@ -225,7 +293,60 @@ public class SubSystem {
 			}
 
 		}
-		return performanceValues;
+		event.commit(baseValue.getName(), null, length);
+		MetricsRegistry registry = Metrics.getRegistry();
+		registry.counter(Metrics.BACKTEST_BARS, baseValue.getName()).increment(length);
+		registry.gauge(Metrics.BACKTEST_PERFORMANCE_VALUE, baseValue.getName()).set(performanceValue);
+		registry.timer(Metrics.BACKTEST_DURATION, baseValue.getName()).record(System.nanoTime() - startNanos);
+		return performanceValue;
+	}
+
+	/**
+	 * Trades as
+	 * {@link #simulateTrading(BaseValue, LocalDateTime, LocalDateTime, ValueDateTupel[], double, double, ValueDateTupel[])}
+	 * does, but on primitive values of the same positions, e.g. the buffers of a synthetic path of a
+	 * {@link MonteCarloSimulation}. Neither values are allocated nor metrics are recorded, so the method can be called
+	 * for a large number of paths.
+	 * 
+	 * @param  baseValues        {@code double[]} The base values upon which the products' prices are to be based.
+	 * @param  shortIndexValues  {@code double[]} The short index values of the same positions as the base values.
+	 * @param  combinedForecasts {@code double[]} The forecasts of the same positions as the base values.
+	 * @param  position          {@code int} The position of the first time interval for testing.
+	 * @param  length            {@code int} The number of time intervals for testing.
+	 * @param  baseScale         {@code double} The scale the given forecasts are based upon.
+	 * @param  capital           {@code double} The starting capital.
+	 * @param  performanceValues {@code double[]} The array the performance value of each day is written to. Must be
+	 *                           at least of the given length.
+	 * @return                   {@code double} The performance value on the last day of the test window.
+	 */
+	static double simulateTrading(double[] baseValues, double[] shortIndexValues, double[] combinedForecasts,
+	        int position, int length, double baseScale, double capital, double[] performanceValues) {
+		double productPriceFactor = calculateProductPriceFactor(baseValues, position, length);
+
+		long longProductsCount = 0;
+		long shortProductsCount = 0;
+		for (int i = 0; i < length; i++) {
+			double productPrice = baseValues[position + i] * productPriceFactor;
+			double shortProductPrice = shortIndexValues[position + i] * productPriceFactor;
+			double combinedForecast = combinedForecasts[position + i];
+
+			/* Sell off all currently held positions. */
+			capital += longProductsCount * productPrice;
+			capital += shortProductsCount * shortProductPrice;
+			shortProductsCount = 0;
+			longProductsCount = 0;
+
+			performanceValues[i] = capital;
+
+			if (combinedForecast > 0) {
+				longProductsCount = calculateProductsCount(capital, productPrice, combinedForecast, baseScale);
+				capital -= longProductsCount * productPrice;
+			} else if (combinedForecast < 0) {
+				shortProductsCount = calculateProductsCount(capital, shortProductPrice, combinedForecast, baseScale);
+				capital -= shortProductsCount * shortProductPrice;
+			}
+		}
+		return performanceValues[length - 1];
 	}
 
 	/**
@@ -250,19 +371,24 @@ public class SubSystem {
 	 *         {@link DiversificationMultiplier#getValue()} of this Sub System.
 	 */
 	private ValueDateTupel[] calculateCombinedForecasts() {
+		long startNanos = System.nanoTime();
+		CalculationEvent event = new CalculationEvent.CombinedForecast();
+		event.begin();
 		Rule[] instanceRules = this.getRules();
 		/*
 		 * Calculate the weight by which all rules' forecasts shall be multiplied by
 		 */
 		double rulesWeight = 1d / instanceRules.length;
 
-		ValueDateTupel[] calculatedCombinedForecasts = {};
+		ValueDateTupel[] calculatedCombinedForecasts = null;
 
 		/* Step through the given rules */
 		for (int rulesIndex = 0; rulesIndex < instanceRules.length; rulesIndex++) {
 
 			/* For each rule: Step through the forecasts */
 			ValueDateTupel[] forecasts = instanceRules[rulesIndex].getForecasts();
+			if (rulesIndex == 0)
+				calculatedCombinedForecasts = ValueDateTupel.createEmptyArray(forecasts.length);
 			for (int fcIndex = 0; fcIndex < forecasts.length; fcIndex++) {
 
 				if (rulesIndex == 0) {
@@ -271,15 +397,14 @@ public class SubSystem {
 					 */
 					ValueDateTupel vdtToAdd = new ValueDateTupel(forecasts[fcIndex].getDate(),
 					        forecasts[fcIndex].getValue() * rulesWeight);
-					calculatedCombinedForecasts = ArrayUtils.add(calculatedCombinedForecasts, vdtToAdd);
+					calculatedCombinedForecasts[fcIndex] = vdtToAdd;
 				} else {
 					/*
-					 * If this is not the first go-through add the weighted forecasts of the current rule
+					 * If this is not the first go-through add the weighted forecasts of the current rule. The combined
+					 * forecast was created by the first go-through, so it can be updated in place.
 					 */
-					ValueDateTupel vdtToAdd = new ValueDateTupel(calculatedCombinedForecasts[fcIndex].getDate(),
-					        calculatedCombinedForecasts[fcIndex].getValue()
-					                + forecasts[fcIndex].getValue() * rulesWeight);
-					calculatedCombinedForecasts[fcIndex] = vdtToAdd;
+					calculatedCombinedForecasts[fcIndex].setValue(calculatedCombinedForecasts[fcIndex].getValue()
+					        + forecasts[fcIndex].getValue() * rulesWeight);
 				}
 			}
 		}
@@ -290,63 +415,77 @@ public class SubSystem {
 		 */
 		final double instanceBaseScale = this.getBaseScale();
 		final double diversificationMultiplierValue = this.getDiversificationMultiplier().getValue();
-		final double MAX_VALUE = instanceBaseScale * 2;
-		final double MIN_VALUE = 0 - MAX_VALUE;
 
 		for (int fcIndex = 0; fcIndex < calculatedCombinedForecasts.length; fcIndex++) {
-			double fcWithDM = calculatedCombinedForecasts[fcIndex].getValue() * diversificationMultiplierValue;
-			if (fcWithDM > MAX_VALUE)
-				fcWithDM = MAX_VALUE;
-			if (fcWithDM < MIN_VALUE)
-				fcWithDM = MIN_VALUE;
-
+			double fcWithDM = applyDiversificationMultiplier(calculatedCombinedForecasts[fcIndex].getValue(),
+			        diversificationMultiplierValue, instanceBaseScale);
 			calculatedCombinedForecasts[fcIndex].setValue(fcWithDM);
 		}
 
+		event.commit(this.getBaseValue().getName(), null, calculatedCombinedForecasts.length);
+		Metrics.getRegistry().timer(Metrics.COMBINED_FORECAST_DURATION, this.getBaseValue().getName())
+		        .record(System.nanoTime() - startNanos);
 		return calculatedCombinedForecasts;
 	}
 
 	/**
-	 * Call {@link SubSystem#calculateProductPriceFactor(double[], double)} passing PRICE_FACTOR_BASE_SCALE as param.
+	 * Apply the given diversification multiplier to the given combined forecast. Cut off the result at 2 x base scale
+	 * or -2 x base scale respectively.
 	 * 
-	 * @see           SubSystem#calculateProductPriceFactor(double[], double)
-	 * @param  values {@code double[]} An Array of values the factor is to be calculated for
-	 * @return        {@code double} The calculated factor.
+	 * @param  combinedForecast               {@code double} The weighted sum of all rules' forecasts.
+	 * @param  diversificationMultiplierValue {@code double} The value of the diversification multiplier.
+	 * @param  baseScale                      {@code double} The base scale determining the cut off values.
+	 * @return                                {@code double} The combined forecast including the diversification
+	 *                                        multiplier.
 	 */
-	private static double calculateProductPriceFactor(double[] values) {
-		return SubSystem.calculateProductPriceFactor(values, PRICE_FACTOR_BASE_SCALE);
+	static double applyDiversificationMultiplier(double combinedForecast, double diversificationMultiplierValue,
+	        double baseScale) {
+		final double MAX_VALUE = baseScale * 2;
+		final double MIN_VALUE = 0 - MAX_VALUE;
+
+		double fcWithDM = combinedForecast * diversificationMultiplierValue;
+		if (fcWithDM > MAX_VALUE)
+			fcWithDM = MAX_VALUE;
+		if (fcWithDM < MIN_VALUE)
+			fcWithDM = MIN_VALUE;
+		return fcWithDM;
 	}
 
 	/**
-	 * Calculate the factor by which all of the given values must be multiplied so their products have an average of
-	 * priceFactorBaseScale. <br>
-	 * The factor is calculated by inverting the average of the given values divided by the given priceFactorBaseScale.
+	 * Calculate the factor by which the given range of values must be multiplied so their products have an average of
+	 * PRICE_FACTOR_BASE_SCALE. <br>
+	 * The factor is calculated by inverting the average of the given values divided by PRICE_FACTOR_BASE_SCALE.
 	 * 
-	 * @param  values               {@code double[]} An Array of values the factor is to be calculated for
-	 * @param  priceFactorBaseScale {@code double} The base scale to use.
-	 * @return                      {@code double} The calculated factor.
+	 * @param  values   {@code ValueDateTupel[]} An Array of values the factor is to be calculated for.
+	 * @param  position {@code int} The position of the first value to be included.
+	 * @param  length   {@code int} The number of values to be included.
+	 * @return          {@code double} The calculated factor.
 	 */
-	private static double calculateProductPriceFactor(double[] values, double priceFactorBaseScale) {
-		double averageCourseValue = Util.calculateAverage(values);
+	private static double calculateProductPriceFactor(ValueDateTupel[] values, int position, int length) {
+		DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
+		for (int i = position; i < position + length; i++)
+			stats.accept(values[i].getValue());
+		double averageCourseValue = stats.getAverage();
 
-		return 1 / (averageCourseValue / priceFactorBaseScale);
+		return 1 / (averageCourseValue / PRICE_FACTOR_BASE_SCALE);
 	}
 
 	/**
-	 * Calculate product prices based on the given array of values and a given product price factor.
+	 * Calculate the factor as of {@link #calculateProductPriceFactor(ValueDateTupel[], int, int)} for primitive
+	 * values.
 	 * 
-	 * @param  baseValues         {@code ValueDateTupel[]} The values the prices are to be based on.
-	 * @param  productPriceFactor {@code double} The factor used to calculate the product prices.
-	 * @return                    {@code ValueDateTupel[]} An array of prices using the dates of the given baseValues.
-	 */
-	private static ValueDateTupel[] calculateProductPrices(ValueDateTupel[] baseValues, double productPriceFactor) {
-		ValueDateTupel[] productPrices = {};
-		for (ValueDateTupel baseValue : baseValues)
-			productPrices = ValueDateTupel.addOneAt(productPrices,
-			        new ValueDateTupel(baseValue.getDate(), baseValue.getValue() * productPriceFactor),
-			        productPrices.length);
-
-		return productPrices;
+	 * @param  values   {@code double[]} An Array of values the factor is to be calculated for.
+	 * @param  position {@code int} The position of the first value to be included.
+	 * @param  length   {@code int} The number of values to be included.
+	 * @return          {@code double} The calculated factor.
+	 */
+	private static double calculateProductPriceFactor(double[] values, int position, int length) {
+		DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
+		for (int i = position; i < position + length; i++)
+			stats.accept(values[i]);
+		double averageCourseValue = stats.getAverage();
+
+		return 1 / (averageCourseValue / PRICE_FACTOR_BASE_SCALE);
 	}
 
 	/**
@@ -561,7 +700,7 @@ public class SubSystem {
 	 * 
 	 * @param rules the rules to set
 	 */
-	public void setRules(Rule[] rules) {
+	private void setRules(Rule[] rules) {
 		this.rules = rules;
 	}
 
@@ -615,7 +754,7 @@ public class SubSystem {
 	 * 
 	 * @param combinedForecasts the combinedForecasts to set
 	 */
-	public void setCombinedForecasts(ValueDateTupel[] combinedForecasts) {
+	private void setCombinedForecasts(ValueDateTupel[] combinedForecasts) {
 		this.combinedForecasts = combinedForecasts;
 	}
 
@@ -633,7 +772,7 @@ public class SubSystem {
 	 * 
 	 * @param baseScale the baseScale to set
 	 */
-	public void setBaseScale(double baseScale) {
+	private void setBaseScale(double baseScale) {
 		this.baseScale = baseScale;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,677 @@
+package de.rumford.tradingsystem;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import de.rumford.tradingsystem.helper.DerivedSeriesCache;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * The SubSystemCheckpoint writes a fully built {@link SubSystem} to a file and restores it without recalculating
+ * anything, so a process can be restarted without rebuilding its SubSystems from the raw data.
+ * <p>
+ * A checkpoint holds everything calculated upon building a SubSystem: the values of the base value and all values
+ * derived from them (short index, standard deviation, EWMA of the squared returns), the rules including their
+ * variations, EWMAs, volatility indices, standard deviation adjusted forecasts, forecast scalars, forecasts and
+ * weights, and the diversification multiplier and combined forecasts of the SubSystem. A restored SubSystem behaves
+ * exactly like the written one, e.g. its base value can be appended to.
+ * <p>
+ * A checkpoint starts with the magic number {@link #MAGIC} ("TSCP") and the version of the format, both as {@code int},
+ * followed by the version of this library (see {@link DerivedSeriesCache#getImplementationVersion()}). Checkpoints of
+ * another version of the format or of this library are rejected, so they have to be rewritten after an update, as the
+ * restored values might have been calculated differently. All restored parameters are validated like by the
+ * constructors of the restored classes. The dates of the base value follow as columns of epoch seconds (UTC) and
+ * nanoseconds; series are written as their length followed by a column of values, their dates referencing a range of
+ * the dates of the base value where possible. All numbers are big-endian. Upon restoring, the file is mapped into
+ * memory and each column is read by a single bulk transfer, so restoring takes little more than copying the values.
+ * <p>
+ * Only rules of type {@link EWMAC} and {@link VolatilityDifference} can be checkpointed. A checkpoint is written to a
+ * temporary file first and moved into place atomically, so a crash while writing never leaves a partial checkpoint.
+ * 
+ * @author Max Rumford
+ */
+public final class SubSystemCheckpoint {
+
+	/* The magic number every checkpoint starts with: "TSCP" */
+	public static final int MAGIC = 0x54534350;
+	/* The version of the format written. */
+	public static final int VERSION = 2;
+
+	/* The tag of a rule already written, followed by its position in order of writing. */
+	private static final byte RULE_REFERENCE = 0;
+	/* The tag of an EWMAC. */
+	private static final byte RULE_EWMAC = 1;
+	/* The tag of a VolatilityDifference. */
+	private static final byte RULE_VOLATILITY_DIFFERENCE = 2;
+	/* The encoding of dates of a series referencing a range of the dates of the base value. */
+	private static final byte DATES_OF_BASE_VALUE = 0;
+	/* The encoding of dates of a series written explicitly. */
+	private static final byte DATES_EXPLICIT = 1;
+	/* The length written instead of a series or array that is null. */
+	private static final int NULL_LENGTH = -1;
+	/* An Exception message. */
+	private static final String MESSAGE_CORRUPT = "The given checkpoint is corrupt";
+
+	/**
+	 * Don't let anyone instantiate this class.
+	 */
+	private SubSystemCheckpoint() {
+	}
+
+	/**
+	 * Writes a checkpoint of the given SubSystem to the given path. An existing file is replaced. Forecasts of rules
+	 * not calculated yet are calculated first.
+	 * 
+	 * @param  subSystem                {@link SubSystem} The SubSystem to be written. Must not be null. Must only
+	 *                                  contain rules of type {@link EWMAC} or {@link VolatilityDifference}.
+	 * @param  path                     {@link Path} The path of the checkpoint. Must not be null.
+	 * @throws IOException              if writing fails.
+	 * @throws IllegalArgumentException if the above specifications are not met.
+	 */
+	public static void write(SubSystem subSystem, Path path) throws IOException {
+		if (subSystem == null)
+			throw new IllegalArgumentException("SubSystem must not be null");
+		if (path == null)
+			throw new IllegalArgumentException("Path must not be null");
+
+		Path target = path.toAbsolutePath();
+		Path temporaryFile = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+		try {
+			try (DataOutputStream output = new DataOutputStream(
+			        new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+				new Writer(output, subSystem.getBaseValue().getValues()).writeSubSystem(subSystem);
+			}
+			Files.move(temporaryFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(temporaryFile);
+		}
+	}
+
+	/**
+	 * Restores the SubSystem of the checkpoint at the given path.
+	 * 
+	 * @param  path                     {@link Path} The path of the checkpoint. Must not be null.
+	 * @return                          {@link SubSystem} The restored SubSystem.
+	 * @throws IOException              if the given path does not point to a readable file or reading fails.
+	 * @throws IllegalArgumentException if the given path is null, if the file is no checkpoint, is of an unsupported
+	 *                                  version, was written by another version of this library, is truncated or
+	 *                                  corrupt, or if a restored value does not meet the specifications of its class.
+	 */
+	public static SubSystem read(Path path) throws IOException {
+		if (path == null)
+			throw new IllegalArgumentException("Path must not be null");
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new Reader(buffer).readSubSystem();
+		} catch (BufferUnderflowException e) {
+			throw new IllegalArgumentException("The given checkpoint is truncated", e);
+		}
+	}
+
+	/**
+	 * Writes the parts of one SubSystem.
+	 */
+	private static final class Writer {
+		/* The stream written to. */
+		private final DataOutputStream output;
+		/* The values of the base value, whose dates are referenced by series. */
+		private final ValueDateTupel[] baseValues;
+		/* The positions of the dates of the base value. */
+		private final Map<LocalDateTime, Integer> datePositions = new HashMap<>();
+		/* The positions of the rules already written, by identity. */
+		private final Map<Rule, Integer> rulePositions = new IdentityHashMap<>();
+
+		/**
+		 * Creates a new writer.
+		 * 
+		 * @param output     {@link DataOutputStream} The stream to write to.
+		 * @param baseValues {@code ValueDateTupel[]} The values of the base value of the SubSystem.
+		 */
+		Writer(DataOutputStream output, ValueDateTupel[] baseValues) {
+			this.output = output;
+			this.baseValues = baseValues;
+			for (int i = 0; i < baseValues.length; i++)
+				this.datePositions.put(baseValues[i].getDate(), i);
+		}
+
+		/**
+		 * Writes the header and the given SubSystem.
+		 * 
+		 * @param  subSystem   {@link SubSystem} The SubSystem.
+		 * @throws IOException if writing fails.
+		 */
+		void writeSubSystem(SubSystem subSystem) throws IOException {
+			this.output.writeInt(MAGIC);
+			this.output.writeInt(VERSION);
+			this.writeString(DerivedSeriesCache.getImplementationVersion());
+			this.writeDates(this.baseValues);
+
+			this.writeBaseValue(subSystem.getBaseValue());
+			this.output.writeDouble(subSystem.getCapital());
+			this.output.writeDouble(subSystem.getBaseScale());
+			Rule[] rules = subSystem.getRules();
+			this.output.writeInt(rules.length);
+			for (Rule rule : rules)
+				this.writeRule(rule);
+
+			DiversificationMultiplier diversificationMultiplier = subSystem.getDiversificationMultiplier();
+			this.output.writeDouble(diversificationMultiplier.getValue());
+			this.writeDoubles(diversificationMultiplier.getWeights());
+			this.writeMatrix(diversificationMultiplier.getRelevantForecasts());
+			this.writeMatrix(diversificationMultiplier.getCorrelations());
+			this.writeSeries(subSystem.getCombinedForecasts());
+		}
+
+		/**
+		 * Writes the given base value.
+		 * 
+		 * @param  baseValue   {@link BaseValue} The base value.
+		 * @throws IOException if writing fails.
+		 */
+		private void writeBaseValue(BaseValue baseValue) throws IOException {
+			this.writeString(baseValue.getName());
+			this.writeSeries(this.baseValues);
+			this.writeSeries(baseValue.getShortIndexValues());
+			this.output.writeBoolean(baseValue.isShortIndexCalculated());
+			this.writeSeries(baseValue.getStandardDeviationValues());
+			this.writeEwma(baseValue.getSquaredReturnsEwma());
+			this.output.writeDouble(baseValue.getSquaredReturnsEwmaValue());
+		}
+
+		/**
+		 * Writes the given rule after its variations, or a reference if it has already been written.
+		 * 
+		 * @param  rule                     {@link Rule} The rule.
+		 * @throws IOException              if writing fails.
+		 * @throws IllegalArgumentException if the rule is of a type that cannot be checkpointed.
+		 */
+		private void writeRule(Rule rule) throws IOException {
+			Integer position = this.rulePositions.get(rule);
+			if (position != null) {
+				this.output.writeByte(RULE_REFERENCE);
+				this.output.writeInt(position);
+				return;
+			}
+
+			/* Subclasses might calculate differently, so only the exact types are supported. */
+			if (rule.getClass() == EWMAC.class)
+				this.output.writeByte(RULE_EWMAC);
+			else if (rule.getClass() == VolatilityDifference.class)
+				this.output.writeByte(RULE_VOLATILITY_DIFFERENCE);
+			else
+				throw new IllegalArgumentException(
+				        "Rules of type " + rule.getClass().getName() + " cannot be checkpointed");
+
+			Rule[] variations = rule.getVariations();
+			this.output.writeInt(variations == null ? NULL_LENGTH : variations.length);
+			if (variations != null)
+				for (Rule variation : variations)
+					this.writeRule(variation);
+
+			this.writeDate(rule.getStartOfReferenceWindow());
+			this.writeDate(rule.getEndOfReferenceWindow());
+			this.output.writeDouble(rule.getBaseScale());
+			if (rule instanceof EWMAC) {
+				EWMAC ewmac = (EWMAC) rule;
+				this.writeEwma(ewmac.getLongHorizonEwma());
+				this.writeEwma(ewmac.getShortHorizonEwma());
+			} else {
+				VolatilityDifference volatilityDifference = (VolatilityDifference) rule;
+				this.output.writeInt(volatilityDifference.getLookbackWindow());
+				this.output.writeBoolean(volatilityDifference.isVolatilityIndicesCalculated());
+				this.writeSeries(volatilityDifference.getVolatilityIndices());
+			}
+
+			this.writeSeries(rule.getSdAdjustedForecasts());
+			this.output.writeDouble(rule.getForecastScalar());
+			this.writeSeries(rule.getForecasts());
+			this.output.writeDouble(rule.getWeight());
+			this.rulePositions.put(rule, this.rulePositions.size());
+		}
+
+		/**
+		 * Writes the given EWMA.
+		 * 
+		 * @param  ewma        {@link EWMA} The EWMA. May be null.
+		 * @throws IOException if writing fails.
+		 */
+		private void writeEwma(EWMA ewma) throws IOException {
+			this.output.writeBoolean(ewma != null);
+			if (ewma == null)
+				return;
+			this.output.writeInt(ewma.getHorizon());
+			this.writeSeries(ewma.getBaseValues());
+			this.writeSeries(ewma.getEwmaValues());
+		}
+
+		/**
+		 * Writes the length and the UTF-8 bytes of the given String.
+		 * 
+		 * @param  string      {@code String} The String. May be null.
+		 * @throws IOException if writing fails.
+		 */
+		private void writeString(String string) throws IOException {
+			if (string == null) {
+				this.output.writeInt(NULL_LENGTH);
+				return;
+			}
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			this.output.writeInt(bytes.length);
+			this.output.write(bytes);
+		}
+
+		/**
+		 * Writes the given series. Its dates reference the dates of the base value if they are a range of them.
+		 * 
+		 * @param  series      {@code ValueDateTupel[]} The series. May be null.
+		 * @throws IOException if writing fails.
+		 */
+		private void writeSeries(ValueDateTupel[] series) throws IOException {
+			if (series == null) {
+				this.output.writeInt(NULL_LENGTH);
+				return;
+			}
+
+			this.output.writeInt(series.length);
+			int offset = this.getOffsetInBaseValues(series);
+			if (offset < 0) {
+				this.output.writeByte(DATES_EXPLICIT);
+				this.writeDates(series);
+			} else {
+				this.output.writeByte(DATES_OF_BASE_VALUE);
+				this.output.writeInt(offset);
+			}
+			for (ValueDateTupel value : series)
+				this.output.writeDouble(value.getValue());
+		}
+
+		/**
+		 * Get the position in the base values from which on their dates equal the dates of the given series.
+		 * 
+		 * @param  series {@code ValueDateTupel[]} The series.
+		 * @return        {@code int} The position, -1 if the dates of the series are no range of the dates of the
+		 *                base values.
+		 */
+		private int getOffsetInBaseValues(ValueDateTupel[] series) {
+			if (series.length == 0)
+				return 0;
+			Integer offset = this.datePositions.get(series[0].getDate());
+			if (offset == null || offset + series.length > this.baseValues.length)
+				return -1;
+			for (int i = 1; i < series.length; i++)
+				if (!this.baseValues[offset + i].getDate().equals(series[i].getDate()))
+					return -1;
+			return offset;
+		}
+
+		/**
+		 * Writes the length and the dates of the given series, as columns of epoch seconds and nanoseconds.
+		 * 
+		 * @param  series      {@code ValueDateTupel[]} The series.
+		 * @throws IOException if writing fails.
+		 */
+		private void writeDates(ValueDateTupel[] series) throws IOException {
+			this.output.writeInt(series.length);
+			for (ValueDateTupel value : series)
+				this.output.writeLong(value.getDate().toEpochSecond(ZoneOffset.UTC));
+			for (ValueDateTupel value : series)
+				this.output.writeInt(value.getDate().getNano());
+		}
+
+		/**
+		 * Writes the given date.
+		 * 
+		 * @param  date        {@link LocalDateTime} The date.
+		 * @throws IOException if writing fails.
+		 */
+		private void writeDate(LocalDateTime date) throws IOException {
+			this.output.writeLong(date.toEpochSecond(ZoneOffset.UTC));
+			this.output.writeInt(date.getNano());
+		}
+
+		/**
+		 * Writes the given matrix row by row.
+		 * 
+		 * @param  matrix      {@code double[][]} The matrix. May be null.
+		 * @throws IOException if writing fails.
+		 */
+		private void writeMatrix(double[][] matrix) throws IOException {
+			this.output.writeInt(matrix == null ? NULL_LENGTH : matrix.length);
+			if (matrix != null)
+				for (double[] row : matrix)
+					this.writeDoubles(row);
+		}
+
+		/**
+		 * Writes the length and the given values.
+		 * 
+		 * @param  values      {@code double[]} The values. May be null.
+		 * @throws IOException if writing fails.
+		 */
+		private void writeDoubles(double[] values) throws IOException {
+			this.output.writeInt(values == null ? NULL_LENGTH : values.length);
+			if (values != null)
+				for (double value : values)
+					this.output.writeDouble(value);
+		}
+	}
+
+	/**
+	 * Restores the parts of one SubSystem.
+	 */
+	private static final class Reader {
+		/* The buffer read from. */
+		private final ByteBuffer buffer;
+		/* The rules already restored, in order of writing. */
+		private final List<Rule> rules = new ArrayList<>();
+		/* The dates of the base value, shared by all series referencing them. */
+		private LocalDateTime[] baseValueDates;
+
+		/**
+		 * Creates a new reader.
+		 * 
+		 * @param buffer {@link ByteBuffer} The buffer to read from.
+		 */
+		Reader(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		/**
+		 * Checks the header and restores the SubSystem.
+		 * 
+		 * @return                          {@link SubSystem} The restored SubSystem.
+		 * @throws IllegalArgumentException if the checkpoint is of an unsupported version, of another version of this
+		 *                                  library or corrupt.
+		 */
+		SubSystem readSubSystem() {
+			if (this.buffer.getInt() != MAGIC)
+				throw new IllegalArgumentException("The given file is not a SubSystem checkpoint");
+			int version = this.buffer.getInt();
+			if (version != VERSION)
+				throw new IllegalArgumentException("Unsupported version of SubSystem checkpoint: " + version);
+			String implementationVersion = this.readString();
+			if (!Objects.equals(implementationVersion, DerivedSeriesCache.getImplementationVersion()))
+				throw new IllegalArgumentException("SubSystem checkpoint was written by version "
+				        + implementationVersion + " of this library, not by the current version "
+				        + DerivedSeriesCache.getImplementationVersion());
+			this.baseValueDates = this.readDates();
+
+			BaseValue baseValue = this.readBaseValue();
+			double capital = this.buffer.getDouble();
+			double baseScale = this.buffer.getDouble();
+			Rule[] subSystemRules = new Rule[this.readLength()];
+			for (int i = 0; i < subSystemRules.length; i++)
+				subSystemRules[i] = this.readRule(baseValue);
+
+			DiversificationMultiplier diversificationMultiplier = new DiversificationMultiplier(
+			        this.buffer.getDouble(), this.readDoubles(), this.readMatrix(), this.readMatrix());
+			ValueDateTupel[] combinedForecasts = this.readSeries();
+			if (this.buffer.hasRemaining())
+				throw new IllegalArgumentException(MESSAGE_CORRUPT);
+
+			return new SubSystem(baseValue, subSystemRules, capital, baseScale, diversificationMultiplier,
+			        combinedForecasts);
+		}
+
+		/**
+		 * Restores the base value.
+		 * 
+		 * @return {@link BaseValue} The restored base value.
+		 */
+		private BaseValue readBaseValue() {
+			String name = this.readString();
+			ValueDateTupel[] values = this.readSeries();
+			ValueDateTupel[] shortIndexValues = this.readSeries();
+			boolean shortIndexCalculated = this.buffer.get() != 0;
+			ValueDateTupel[] standardDeviationValues = this.readSeries();
+			EWMA squaredReturnsEwma = this.readEwma();
+			return new BaseValue(name, values, shortIndexValues, shortIndexCalculated, standardDeviationValues,
+			        squaredReturnsEwma, this.buffer.getDouble());
+		}
+
+		/**
+		 * Restores a rule after its variations, or returns the rule referenced.
+		 * 
+		 * @param  baseValue                {@link BaseValue} The restored base value of the rule.
+		 * @return                          {@link Rule} The restored rule.
+		 * @throws IllegalArgumentException if the checkpoint is corrupt.
+		 */
+		private Rule readRule(BaseValue baseValue) {
+			byte tag = this.buffer.get();
+			if (tag == RULE_REFERENCE) {
+				int position = this.buffer.getInt();
+				if (position < 0 || position >= this.rules.size())
+					throw new IllegalArgumentException(MESSAGE_CORRUPT);
+				return this.rules.get(position);
+			}
+
+			int numberOfVariations = this.buffer.getInt();
+			Rule[] variations = null;
+			if (numberOfVariations != NULL_LENGTH) {
+				variations = new Rule[this.checkLength(numberOfVariations)];
+				for (int i = 0; i < variations.length; i++)
+					variations[i] = this.readRule(baseValue);
+			}
+
+			LocalDateTime startOfReferenceWindow = this.readDate();
+			LocalDateTime endOfReferenceWindow = this.readDate();
+			double baseScale = this.buffer.getDouble();
+			Rule rule;
+			try {
+				if (tag == RULE_EWMAC) {
+					EWMAC[] ewmacVariations = variations == null ? null
+					        : Arrays.copyOf(variations, variations.length, EWMAC[].class);
+					rule = new EWMAC(baseValue, ewmacVariations, startOfReferenceWindow, endOfReferenceWindow,
+					        baseScale, this.readEwma(), this.readEwma());
+				} else if (tag == RULE_VOLATILITY_DIFFERENCE) {
+					VolatilityDifference[] volatilityDifferenceVariations = variations == null ? null
+					        : Arrays.copyOf(variations, variations.length, VolatilityDifference[].class);
+					int lookbackWindow = this.buffer.getInt();
+					boolean volatilityIndicesCalculated = this.buffer.get() != 0;
+					rule = new VolatilityDifference(baseValue, volatilityDifferenceVariations,
+					        startOfReferenceWindow, endOfReferenceWindow, baseScale, lookbackWindow, this.readSeries(),
+					        volatilityIndicesCalculated);
+				} else {
+					throw new IllegalArgumentException(MESSAGE_CORRUPT);
+				}
+			} catch (ArrayStoreException e) {
+				/* A variation is of another type than the rule. */
+				throw new IllegalArgumentException(MESSAGE_CORRUPT, e);
+			}
+
+			ValueDateTupel[] sdAdjustedForecasts = this.readSeries();
+			double forecastScalar = this.buffer.getDouble();
+			ValueDateTupel[] forecasts = this.readSeries();
+			rule.restoreDerivedValues(sdAdjustedForecasts, forecastScalar, forecasts, this.buffer.getDouble());
+			this.rules.add(rule);
+			return rule;
+		}
+
+		/**
+		 * Restores an EWMA.
+		 * 
+		 * @return {@link EWMA} The restored EWMA, null if none was written.
+		 */
+		private EWMA readEwma() {
+			if (this.buffer.get() == 0)
+				return null;
+			int horizon = this.buffer.getInt();
+			ValueDateTupel[] baseValues = this.readSeries();
+			return new EWMA(baseValues, horizon, this.readSeries());
+		}
+
+		/**
+		 * Restores a String written by {@link Writer#writeString(String)}.
+		 * 
+		 * @return {@link String} The restored String, null if null was written.
+		 */
+		private String readString() {
+			int length = this.buffer.getInt();
+			if (length == NULL_LENGTH)
+				return null;
+			byte[] bytes = new byte[this.checkLength(length)];
+			this.buffer.get(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		/**
+		 * Restores a series, sharing the dates of the base value if referenced.
+		 * 
+		 * @return                          {@code ValueDateTupel[]} The restored series, null if null was written.
+		 * @throws IllegalArgumentException if the checkpoint is corrupt.
+		 */
+		private ValueDateTupel[] readSeries() {
+			int length = this.buffer.getInt();
+			if (length == NULL_LENGTH)
+				return null;
+			this.checkLength(length);
+
+			LocalDateTime[] dates;
+			int offset;
+			byte encoding = this.buffer.get();
+			if (encoding == DATES_OF_BASE_VALUE) {
+				dates = this.baseValueDates;
+				offset = this.buffer.getInt();
+				if (offset < 0 || offset > dates.length - length)
+					throw new IllegalArgumentException(MESSAGE_CORRUPT);
+			} else if (encoding == DATES_EXPLICIT) {
+				dates = this.readDates();
+				offset = 0;
+				if (dates.length != length)
+					throw new IllegalArgumentException(MESSAGE_CORRUPT);
+			} else {
+				throw new IllegalArgumentException(MESSAGE_CORRUPT);
+			}
+
+			double[] values = this.readDoubles(length);
+			ValueDateTupel[] series = ValueDateTupel.createEmptyArray(length);
+			for (int i = 0; i < length; i++)
+				series[i] = new ValueDateTupel(dates[offset + i], values[i]);
+			return series;
+		}
+
+		/**
+		 * Restores a length and the dates written by {@link Writer#writeDates(ValueDateTupel[])}.
+		 * 
+		 * @return {@code LocalDateTime[]} The restored dates.
+		 */
+		private LocalDateTime[] readDates() {
+			int length = this.readLength();
+			long[] epochSeconds = new long[length];
+			this.buffer.asLongBuffer().get(epochSeconds);
+			this.skip(length, Long.BYTES);
+			int[] nanos = new int[length];
+			this.buffer.asIntBuffer().get(nanos);
+			this.skip(length, Integer.BYTES);
+
+			LocalDateTime[] dates = new LocalDateTime[length];
+			for (int i = 0; i < length; i++)
+				dates[i] = LocalDateTime.ofEpochSecond(epochSeconds[i], nanos[i], ZoneOffset.UTC);
+			return dates;
+		}
+
+		/**
+		 * Restores a date.
+		 * 
+		 * @return {@link LocalDateTime} The restored date.
+		 */
+		private LocalDateTime readDate() {
+			return LocalDateTime.ofEpochSecond(this.buffer.getLong(), this.buffer.getInt(), ZoneOffset.UTC);
+		}
+
+		/**
+		 * Restores a matrix written row by row.
+		 * 
+		 * @return {@code double[][]} The restored matrix, null if null was written.
+		 */
+		private double[][] readMatrix() {
+			int rows = this.buffer.getInt();
+			if (rows == NULL_LENGTH)
+				return null;
+			double[][] matrix = new double[this.checkLength(rows)][];
+			for (int i = 0; i < rows; i++)
+				matrix[i] = this.readDoubles();
+			return matrix;
+		}
+
+		/**
+		 * Restores a length and as many values.
+		 * 
+		 * @return {@code double[]} The restored values, null if null was written.
+		 */
+		private double[] readDoubles() {
+			int length = this.buffer.getInt();
+			if (length == NULL_LENGTH)
+				return null;
+			return this.readDoubles(this.checkLength(length));
+		}
+
+		/**
+		 * Restores the given number of values.
+		 * 
+		 * @param  length {@code int} The number of values.
+		 * @return        {@code double[]} The restored values.
+		 */
+		private double[] readDoubles(int length) {
+			double[] values = new double[length];
+			this.buffer.asDoubleBuffer().get(values);
+			this.skip(length, Double.BYTES);
+			return values;
+		}
+
+		/**
+		 * Reads a length.
+		 * 
+		 * @return                          {@code int} The length.
+		 * @throws IllegalArgumentException if the length is negative or exceeds the remaining bytes.
+		 */
+		private int readLength() {
+			return this.checkLength(this.buffer.getInt());
+		}
+
+		/**
+		 * Checks the given length is not negative and does not exceed the remaining bytes, so corrupt lengths do not
+		 * allocate huge arrays.
+		 * 
+		 * @param  length                   {@code int} The length.
+		 * @return                          {@code int} The given length.
+		 * @throws IllegalArgumentException if the above specifications are not met.
+		 */
+		private int checkLength(int length) {
+			if (length < 0)
+				throw new IllegalArgumentException(MESSAGE_CORRUPT);
+			if (length > this.buffer.remaining())
+				throw new BufferUnderflowException();
+			return length;
+		}
+
+		/**
+		 * Advances the buffer past the given number of elements read by a bulk transfer of a view.
+		 * 
+		 * @param length      {@code int} The number of elements.
+		 * @param elementSize {@code int} The number of bytes of each element.
+		 */
+		private void skip(int length, int elementSize) {
+			this.buffer.position(this.buffer.position() + length * elementSize);
+		}
+	}
+}
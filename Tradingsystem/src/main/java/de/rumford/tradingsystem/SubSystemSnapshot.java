@@ -0,0 +1,310 @@
+package de.rumford.tradingsystem;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import de.rumford.tradingsystem.helper.Fingerprint;
+import de.rumford.tradingsystem.helper.GeneratedCode;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * The SubSystemSnapshot is an immutable copy of the results of a built {@link SubSystem}: the combined forecasts, the
+ * forecasts and weights of its rules and its diversification multiplier.
+ * <p>
+ * A SubSystem hands out its internal arrays of mutable {@link ValueDateTupel}, so it cannot be shared between threads
+ * without copying. A snapshot copies all values once upon creation into arrays of primitives and immutable
+ * {@link LocalDateTime}, which are never handed out. All fields are final, so once created, a snapshot can be read by
+ * any number of threads without locking, e.g. after being published by {@link PublishedSubSystem}. The getters read
+ * single values by position or date and allocate nothing, except for {@link #getCombinedForecasts()}, which returns a
+ * new copy on every call.
+ * 
+ * @author Max Rumford
+ */
+public final class SubSystemSnapshot {
+
+	/* The name of the base value of the SubSystem. */
+	private final String baseValueName;
+	/* The fingerprint of the base value of the SubSystem. */
+	private final Fingerprint baseValueFingerprint;
+	/* The fingerprints of the rules of the SubSystem. */
+	private final Fingerprint[] ruleFingerprints;
+	/* The weights of the rules of the SubSystem. */
+	private final double[] ruleWeights;
+	/* The forecasts of the rules of the SubSystem, per rule and date. */
+	private final double[][] ruleForecasts;
+	/* The dates of the combined forecasts, sorted ascending. */
+	private final LocalDateTime[] dates;
+	/* The values of the combined forecasts, one per date. */
+	private final double[] combinedForecasts;
+	/* The value of the diversification multiplier of the SubSystem. */
+	private final double diversificationMultiplier;
+	/* The capital of the SubSystem. */
+	private final double capital;
+	/* The base scale of the SubSystem. */
+	private final double baseScale;
+
+	/**
+	 * Creates a snapshot of the given SubSystem. The forecasts of all rules are calculated if they have not been yet.
+	 * The SubSystem must not be altered by another thread during creation of the snapshot.
+	 * 
+	 * @param  subSystem                {@link SubSystem} The SubSystem to take a snapshot of. Must not be null.
+	 * @throws IllegalArgumentException if the given SubSystem is null.
+	 */
+	public SubSystemSnapshot(SubSystem subSystem) {
+		if (subSystem == null)
+			throw new IllegalArgumentException("SubSystem must not be null");
+
+		BaseValue baseValue = subSystem.getBaseValue();
+		this.baseValueName = baseValue.getName();
+		this.baseValueFingerprint = baseValue.getFingerprint();
+
+		ValueDateTupel[] subSystemCombinedForecasts = subSystem.getCombinedForecasts();
+		this.dates = new LocalDateTime[subSystemCombinedForecasts.length];
+		this.combinedForecasts = new double[subSystemCombinedForecasts.length];
+		for (int i = 0; i < subSystemCombinedForecasts.length; i++) {
+			this.dates[i] = subSystemCombinedForecasts[i].getDate();
+			this.combinedForecasts[i] = subSystemCombinedForecasts[i].getValue();
+		}
+
+		Rule[] rules = subSystem.getRules();
+		this.ruleFingerprints = new Fingerprint[rules.length];
+		this.ruleWeights = new double[rules.length];
+		this.ruleForecasts = new double[rules.length][];
+		for (int i = 0; i < rules.length; i++) {
+			this.ruleFingerprints[i] = rules[i].getFingerprint();
+			this.ruleWeights[i] = rules[i].getWeight();
+			this.ruleForecasts[i] = ValueDateTupel.getValues(rules[i].getForecasts());
+		}
+
+		this.diversificationMultiplier = subSystem.getDiversificationMultiplier().getValue();
+		this.capital = subSystem.getCapital();
+		this.baseScale = subSystem.getBaseScale();
+	}
+
+	/**
+	 * Get the position of the given date in the combined forecasts.
+	 * 
+	 * @param  date                     {@link LocalDateTime} The date to be found. Must not be null.
+	 * @return                          {@code int} The position of the given date, a negative value if there is no
+	 *                                  combined forecast for it.
+	 * @throws IllegalArgumentException if the given date is null.
+	 */
+	public int getPosition(LocalDateTime date) {
+		if (date == null)
+			throw new IllegalArgumentException("Date must not be null");
+		return Arrays.binarySearch(this.dates, date);
+	}
+
+	/**
+	 * Get the combined forecast for the given date.
+	 * 
+	 * @param  date                     {@link LocalDateTime} The date of the combined forecast. Must not be null.
+	 * @return                          {@code double} The combined forecast, Double.NaN if there is none for the given
+	 *                                  date.
+	 * @throws IllegalArgumentException if the given date is null.
+	 */
+	public double getCombinedForecast(LocalDateTime date) {
+		int position = this.getPosition(date);
+		return position < 0 ? Double.NaN : this.combinedForecasts[position];
+	}
+
+	/**
+	 * Get the combined forecast at the given position.
+	 * 
+	 * @param  position                 {@code int} The position of the combined forecast. Must be at least 0 and less
+	 *                                  than {@link #size()}.
+	 * @return                          {@code double} The combined forecast.
+	 * @throws IllegalArgumentException if the given position is out of bounds.
+	 */
+	public double getCombinedForecast(int position) {
+		this.validatePosition(position);
+		return this.combinedForecasts[position];
+	}
+
+	/**
+	 * Get the date of the combined forecast at the given position.
+	 * 
+	 * @param  position                 {@code int} The position of the combined forecast. Must be at least 0 and less
+	 *                                  than {@link #size()}.
+	 * @return                          {@link LocalDateTime} The date.
+	 * @throws IllegalArgumentException if the given position is out of bounds.
+	 */
+	public LocalDateTime getDate(int position) {
+		this.validatePosition(position);
+		return this.dates[position];
+	}
+
+	/**
+	 * Get the forecast of the given rule at the given position.
+	 * 
+	 * @param  ruleIndex                {@code int} The index of the rule in the rules of the SubSystem.
+	 * @param  position                 {@code int} The position of the forecast, as of the combined forecasts.
+	 * @return                          {@code double} The forecast of the rule.
+	 * @throws IllegalArgumentException if the given index or position is out of bounds.
+	 */
+	public double getRuleForecast(int ruleIndex, int position) {
+		this.validateRuleIndex(ruleIndex);
+		this.validatePosition(position);
+		return this.ruleForecasts[ruleIndex][position];
+	}
+
+	/**
+	 * Get the weight of the given rule.
+	 * 
+	 * @param  ruleIndex                {@code int} The index of the rule in the rules of the SubSystem.
+	 * @return                          {@code double} The weight of the rule.
+	 * @throws IllegalArgumentException if the given index is out of bounds.
+	 */
+	public double getRuleWeight(int ruleIndex) {
+		this.validateRuleIndex(ruleIndex);
+		return this.ruleWeights[ruleIndex];
+	}
+
+	/**
+	 * Get the fingerprint of the given rule, see {@link Rule#getFingerprint()}.
+	 * 
+	 * @param  ruleIndex                {@code int} The index of the rule in the rules of the SubSystem.
+	 * @return                          {@link Fingerprint} The fingerprint of the rule.
+	 * @throws IllegalArgumentException if the given index is out of bounds.
+	 */
+	public Fingerprint getRuleFingerprint(int ruleIndex) {
+		this.validateRuleIndex(ruleIndex);
+		return this.ruleFingerprints[ruleIndex];
+	}
+
+	/**
+	 * Get all combined forecasts as new array of {@link ValueDateTupel}, as by
+	 * {@link SubSystem#getCombinedForecasts()}. Every call returns a new copy, which may be altered by the caller.
+	 * 
+	 * @return {@code ValueDateTupel[]} The combined forecasts.
+	 */
+	public ValueDateTupel[] getCombinedForecasts() {
+		ValueDateTupel[] copy = ValueDateTupel.createEmptyArray(this.dates.length);
+		for (int i = 0; i < this.dates.length; i++)
+			copy[i] = new ValueDateTupel(this.dates[i], this.combinedForecasts[i]);
+		return copy;
+	}
+
+	/**
+	 * Validates the given position.
+	 * 
+	 * @param  position                 {@code int} The position. Must be at least 0 and less than {@link #size()}.
+	 * @throws IllegalArgumentException if the given position is out of bounds.
+	 */
+	private void validatePosition(int position) {
+		if (position < 0 || position >= this.dates.length)
+			throw new IllegalArgumentException(
+			        "Position must be at least 0 and less than " + this.dates.length + " but is " + position);
+	}
+
+	/**
+	 * Validates the given rule index.
+	 * 
+	 * @param  ruleIndex                {@code int} The index. Must be at least 0 and less than
+	 *                                  {@link #getNumberOfRules()}.
+	 * @throws IllegalArgumentException if the given index is out of bounds.
+	 */
+	private void validateRuleIndex(int ruleIndex) {
+		if (ruleIndex < 0 || ruleIndex >= this.ruleWeights.length)
+			throw new IllegalArgumentException(
+			        "Rule index must be at least 0 and less than " + this.ruleWeights.length + " but is " + ruleIndex);
+	}
+
+	/**
+	 * ====================================================================== OVERRIDES
+	 * ======================================================================
+	 */
+
+	/**
+	 * Outputs the fields of this SubSystemSnapshot as a {@code String}, without the forecasts.
+	 */
+	@GeneratedCode
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("SubSystemSnapshot [baseValueName=");
+		builder.append(baseValueName);
+		builder.append(", baseValueFingerprint=");
+		builder.append(baseValueFingerprint);
+		builder.append(", ruleWeights=");
+		builder.append(Arrays.toString(ruleWeights));
+		builder.append(", size=");
+		builder.append(dates.length);
+		builder.append(", diversificationMultiplier=");
+		builder.append(diversificationMultiplier);
+		builder.append(", capital=");
+		builder.append(capital);
+		builder.append(", baseScale=");
+		builder.append(baseScale);
+		builder.append("]");
+		return builder.toString();
+	}
+
+	/**
+	 * ====================================================================== GETTERS AND SETTERS
+	 * ======================================================================
+	 */
+
+	/**
+	 * Get the name of the base value of the SubSystem.
+	 * 
+	 * @return {@code String} The name of the base value.
+	 */
+	public String getBaseValueName() {
+		return baseValueName;
+	}
+
+	/**
+	 * Get the fingerprint of the base value of the SubSystem, see {@link BaseValue#getFingerprint()}.
+	 * 
+	 * @return {@link Fingerprint} The fingerprint of the base value.
+	 */
+	public Fingerprint getBaseValueFingerprint() {
+		return baseValueFingerprint;
+	}
+
+	/**
+	 * Get the number of combined forecasts.
+	 * 
+	 * @return {@code int} The number of combined forecasts.
+	 */
+	public int size() {
+		return dates.length;
+	}
+
+	/**
+	 * Get the number of rules of the SubSystem.
+	 * 
+	 * @return {@code int} The number of rules.
+	 */
+	public int getNumberOfRules() {
+		return ruleWeights.length;
+	}
+
+	/**
+	 * Get the value of the diversification multiplier of the SubSystem.
+	 * 
+	 * @return {@code double} The value of the diversification multiplier.
+	 */
+	public double getDiversificationMultiplier() {
+		return diversificationMultiplier;
+	}
+
+	/**
+	 * Get the capital of the SubSystem.
+	 * 
+	 * @return {@code double} The capital.
+	 */
+	public double getCapital() {
+		return capital;
+	}
+
+	/**
+	 * Get the base scale of the SubSystem.
+	 * 
+	 * @return {@code double} The base scale.
+	 */
+	public double getBaseScale() {
+		return baseScale;
+	}
+}
@@ -3,12 +3,10 @@ package de.rumford.tradingsystem;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.DoubleSummaryStatistics;
-import java.util.HashSet;
-import java.util.Set;
 
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.math3.stat.descriptive.moment.StandardDeviation;
 
+import de.rumford.tradingsystem.helper.Fingerprint;
 import de.rumford.tradingsystem.helper.GeneratedCode;
 import de.rumford.tradingsystem.helper.Util;
 import de.rumford.tradingsystem.helper.Validator;
@@ -29,8 +27,16 @@ public class VolatilityDifference extends Rule {
 	 * An array of values representing volatility values for a given base value.
 	 */
 	private ValueDateTupel[] volatilityIndices;
+	/* The fingerprint of the volatility indices, calculated when they are set. */
+	private Fingerprint volatilityIndicesFingerprint;
 	/* The lookback window used for volatility calculation. */
 	private int lookbackWindow;
+	/*
+	 * The running average volatilities, one per volatility index. Calculated lazily upon first use.
+	 */
+	private double[] averageVolatilities;
+	/* Whether the volatility indices were calculated from the base value instead of being given. */
+	private boolean volatilityIndicesCalculated;
 
 	/**
 	 * Creates a new VolatilityDifference instance using the passed {@link BaseValue} to calculate the volatility
@@ -67,8 +73,13 @@ public class VolatilityDifference extends Rule {
 			 * Calculate volatility index values based on the base value and set it
 			 */
 			ValueDateTupel[] calculatedVolatilityIndices = calculateVolatilityIndices(baseValue, lookbackWindow);
-			this.validateVolatilityIndices(calculatedVolatilityIndices);
+			/*
+			 * The calculated volatility indices share the dates of the validated base values, so they are sorted and
+			 * aligned by construction. Only the reference window has to be checked.
+			 */
+			this.validateVolatilityIndicesInReferenceWindow(calculatedVolatilityIndices);
 			this.setVolatilityIndices(calculatedVolatilityIndices);
+			this.volatilityIndicesCalculated = true;
 		}
 	}
 
@@ -113,6 +124,43 @@ public class VolatilityDifference extends Rule {
 		}
 	}
 
+	/**
+	 * Restores a VolatilityDifference from its volatility indices, e.g. read by {@link SubSystemCheckpoint}. The
+	 * lookback window and the volatility indices are validated like in
+	 * {@link #VolatilityDifference(BaseValue, VolatilityDifference[], LocalDateTime, LocalDateTime, int, double, ValueDateTupel[])},
+	 * but nothing is calculated.
+	 * 
+	 * @param  baseValue                   Same as in
+	 *                                     {@link Rule#Rule(BaseValue, Rule[], LocalDateTime, LocalDateTime, double)}.
+	 * @param  variations                  {@code VolatilityDifference[]} The restored variations of this rule, null if
+	 *                                     none.
+	 * @param  startOfReferenceWindow      Same as in
+	 *                                     {@link Rule#Rule(BaseValue, Rule[], LocalDateTime, LocalDateTime, double)}.
+	 * @param  endOfReferenceWindow        Same as in
+	 *                                     {@link Rule#Rule(BaseValue, Rule[], LocalDateTime, LocalDateTime, double)}.
+	 * @param  baseScale                   Same as in
+	 *                                     {@link Rule#Rule(BaseValue, Rule[], LocalDateTime, LocalDateTime, double)}.
+	 * @param  lookbackWindow              {@code int} The lookback window, 0 if this rule has variations.
+	 * @param  volatilityIndices           {@code ValueDateTupel[]} The volatility indices, null if this rule has
+	 *                                     variations.
+	 * @param  volatilityIndicesCalculated {@code boolean} Whether the volatility indices were calculated from the base
+	 *                                     value instead of being given.
+	 * @throws IllegalArgumentException    if the given values do not meet specifications.
+	 */
+	VolatilityDifference(BaseValue baseValue, VolatilityDifference[] variations, LocalDateTime startOfReferenceWindow,
+	        LocalDateTime endOfReferenceWindow, double baseScale, int lookbackWindow,
+	        ValueDateTupel[] volatilityIndices, boolean volatilityIndicesCalculated) {
+		super(baseValue, variations, startOfReferenceWindow, endOfReferenceWindow, baseScale);
+
+		if (variations == null) {
+			validateLookbackWindow(lookbackWindow);
+			this.setLookbackWindow(lookbackWindow);
+			this.validateVolatilityIndices(volatilityIndices);
+			this.setVolatilityIndices(volatilityIndices);
+			this.volatilityIndicesCalculated = volatilityIndicesCalculated;
+		}
+	}
+
 	/**
 	 * Calculates the raw forecast by subtracting the forecast for the given LocalDateTIme from the average volatility
 	 * at that same given point in time. Positive results result in a positive forecast.
@@ -123,6 +171,40 @@ public class VolatilityDifference extends Rule {
 		return calculateAverageVolatility(forecastDateTime) - currentVolatilty;
 	}
 
+	/**
+	 * Extends the given fingerprint by the lookback window and the volatility indices, whether given or calculated.
+	 */
+	@Override
+	Fingerprint fingerprintParameters(Fingerprint fingerprint) {
+		return fingerprint.with((long) this.getLookbackWindow()).with(this.volatilityIndicesFingerprint);
+	}
+
+	/**
+	 * Creates a {@link LiveRawForecast} continuing the running average of the volatility indices. If the volatility
+	 * indices were calculated from the base value, the standard deviation of the returns inside the lookback window is
+	 * continued as well. Otherwise, the volatility index value has to be given on every update.
+	 */
+	@Override
+	LiveRawForecast createLiveRawForecast() {
+		ValueDateTupel[] baseValues = this.getBaseValue().getValues();
+		double[] lastReturns = null;
+		if (this.volatilityIndicesCalculated) {
+			lastReturns = new double[this.getLookbackWindow()];
+			int firstPosition = baseValues.length - 1 - lastReturns.length;
+			for (int i = 0; i < lastReturns.length; i++)
+				lastReturns[i] = Util.calculateReturn(baseValues[firstPosition + i].getValue(),
+				        baseValues[firstPosition + i + 1].getValue());
+		}
+
+		DoubleSummaryStatistics volatilityStatistics = new DoubleSummaryStatistics();
+		ValueDateTupel[] instanceVolatilityIndices = this.getVolatilityIndices();
+		for (int i = this.getLookbackWindow(); i < instanceVolatilityIndices.length; i++)
+			volatilityStatistics.accept(instanceVolatilityIndices[i].getValue());
+
+		return new LiveVolatilityDifference(baseValues[baseValues.length - 1].getValue(), lastReturns,
+		        this.getLookbackWindow(), volatilityStatistics);
+	}
+
 	/**
 	 * Calculate the volatility index values for this VolatilityDifference. If the lookback window is longer than there
 	 * are base values, an empty {@code ValueDateTupel[]} is returned.
@@ -137,8 +219,6 @@ public class VolatilityDifference extends Rule {
 	private static ValueDateTupel[] calculateVolatilityIndices(BaseValue baseValue, int lookbackWindow) {
 		ValueDateTupel[] baseValues = baseValue.getValues();
 
-		ValueDateTupel[] volatilityIndices = null;
-
 		/**
 		 * If there are less base values than the lookback window is long no volatility values can be calculated. The
 		 * volatility values only have any true meaning, when the lookback window is used in its entirety.
@@ -148,52 +228,77 @@ public class VolatilityDifference extends Rule {
 			        + " window. Number of base values: " + baseValues.length + ", lookback window: " + lookbackWindow
 			        + ".");
 
+		ValueDateTupel[] volatilityIndices = ValueDateTupel.createEmptyArray(baseValues.length);
+
 		/**
 		 * Fill the spaces before reaching lookbackWindow with NaN
 		 */
 		for (int i = 0; i < lookbackWindow; i++) {
 			ValueDateTupel volatilityIndexNaN = new ValueDateTupel(baseValues[i].getDate(), Double.NaN);
-			volatilityIndices = ArrayUtils.add(volatilityIndices, volatilityIndexNaN);
+			volatilityIndices[i] = volatilityIndexNaN;
 		}
 
 		/**
 		 * Start calculation with first adequate time value (after lookback window is reached), e.g. lookbackWindow = 4,
 		 * start with index 2 (4th element), as the returns of each day will be needed.
 		 */
+		/*
+		 * The returns are reused for every time value, so the calculation allocates nothing but the volatility indices
+		 * themselves.
+		 */
+		double[] tempDoubleValues = new double[lookbackWindow];
 		for (int i = lookbackWindow; i < baseValues.length; i++) {
-			/* Copy the relevant values into a temporary array */
-			ValueDateTupel[] tempBaseValues = ValueDateTupel.createEmptyArray(lookbackWindow + 1);
-			System.arraycopy(baseValues, /* source array */
-			        i - (lookbackWindow), /*
-			                               * source array position (starting position for copy)
-			                               */
-			        tempBaseValues, /* destination array */
-			        0, /* destination position (starting position for paste) */
-			        lookbackWindow + 1/* length (number of values to copy */
-			);
-
-			/* Calculate relevant returns and store them into an array. */
-			double[] tempDoubleValues = {};
-			for (int j = 1; j < tempBaseValues.length; j++) {
-				double returnForDayI = Util.calculateReturn(tempBaseValues[j - 1].getValue(),
-				        tempBaseValues[j].getValue());
-				tempDoubleValues = ArrayUtils.add(tempDoubleValues, returnForDayI);
+			/* Calculate the returns of the lookback window ending at i and store them into the array. */
+			for (int j = 0; j < lookbackWindow; j++) {
+				tempDoubleValues[j] = Util.calculateReturn(baseValues[i - lookbackWindow + j].getValue(),
+				        baseValues[i - lookbackWindow + j + 1].getValue());
 			}
 
 			/* Calculate standard deviation and save into local variable */
-			StandardDeviation sd = new StandardDeviation();
-			double volatilityIndexValue = sd.evaluate(tempDoubleValues);
+			double volatilityIndexValue = calculateStandardDeviation(tempDoubleValues);
 
 			ValueDateTupel volatilityIndexValueDateTupel = new ValueDateTupel(baseValues[i].getDate(),
 			        volatilityIndexValue);
 
 			/* Add calculated standard deviation to volatility indices */
-			volatilityIndices = ArrayUtils.add(volatilityIndices, volatilityIndexValueDateTupel);
+			volatilityIndices[i] = volatilityIndexValueDateTupel;
 		}
 
 		return volatilityIndices;
 	}
 
+	/**
+	 * Calculate the bias corrected standard deviation of the given values. Computes exactly what
+	 * {@link StandardDeviation#evaluate(double[])} computes (the corrected two-pass algorithm), but without
+	 * allocating the {@code Mean} that method creates on every call.
+	 * 
+	 * @param  values {@code double[]} The values to calculate the standard deviation of.
+	 * @return        {@code double} The standard deviation of the given values.
+	 */
+	static double calculateStandardDeviation(double[] values) {
+		if (values.length == 1)
+			return 0;
+
+		double sum = 0;
+		for (double value : values)
+			sum += value;
+		double mean = sum / values.length;
+		double correction = 0;
+		for (double value : values)
+			correction += value - mean;
+		mean += correction / values.length;
+
+		double sumOfSquaredDeviations = 0;
+		double sumOfDeviations = 0;
+		for (double value : values) {
+			double deviation = value - mean;
+			sumOfSquaredDeviations += deviation * deviation;
+			sumOfDeviations += deviation;
+		}
+		return Math.sqrt((sumOfSquaredDeviations - sumOfDeviations * sumOfDeviations / values.length)
+		        / (values.length - 1.0));
+	}
+
 	/**
 	 * Calculate the average volatility for a given {@link LocalDateTime}.
 	 * 
@@ -202,6 +307,20 @@ public class VolatilityDifference extends Rule {
 	 * @return                       {@code double} The average volatility up until the given LocalDateTime.
 	 */
 	private double calculateAverageVolatility(LocalDateTime dateToBeCalculatedFor) {
+		ValueDateTupel[] instanceVolatilityIndices = this.getVolatilityIndices();
+
+		/*
+		 * Use the precalculated running averages, so the values before the given LocalDateTime do not have to be
+		 * summed up again for every forecast.
+		 */
+		int position = ValueDateTupel.getPosition(instanceVolatilityIndices, dateToBeCalculatedFor);
+		if (position != Integer.MIN_VALUE) {
+			if (this.averageVolatilities == null)
+				this.averageVolatilities = calculateAverageVolatilities(instanceVolatilityIndices,
+				        this.getLookbackWindow());
+			return this.averageVolatilities[position];
+		}
+
 		/*
 		 * Starting point is the first DateTime that exceeds the lookback window.
 		 */
@@ -220,6 +339,30 @@ public class VolatilityDifference extends Rule {
 		return stats.getAverage();
 	}
 
+	/**
+	 * Calculate the average volatility for every position of the given volatility indices in a single pass. The
+	 * average at position i equals the average of all volatility index values from the given lookback window up to
+	 * and including position i. Positions before the lookback window have an average of 0, as there are no relevant
+	 * values yet.
+	 * 
+	 * @param  volatilityIndices {@code ValueDateTupel[]} The volatility indices to calculate the averages for.
+	 * @param  lookbackWindow    {@code int} The position of the first relevant volatility index.
+	 * @return                   {@code double[]} The average volatilities, one per given volatility index.
+	 */
+	private static double[] calculateAverageVolatilities(ValueDateTupel[] volatilityIndices, int lookbackWindow) {
+		double[] calculatedAverages = new double[volatilityIndices.length];
+
+		/*
+		 * Accepting the values in order yields the exact same averages as evaluating each window on its own.
+		 */
+		DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
+		for (int i = lookbackWindow; i < volatilityIndices.length; i++) {
+			stats.accept(volatilityIndices[i].getValue());
+			calculatedAverages[i] = stats.getAverage();
+		}
+		return calculatedAverages;
+	}
+
 	/**
 	 * Validates the given lookback window. The lookback window must be greater than or equal to 1.
 	 * 
@@ -264,6 +407,39 @@ public class VolatilityDifference extends Rule {
 			throw new IllegalArgumentException("Given volatility indices are not properly sorted or there are"
 			        + " duplicate LocalDateTime values");
 
+		this.validateVolatilityIndicesInReferenceWindow(volatilityIndices);
+
+		/*
+		 * Both arrays are sorted ascending, so they can be compared in a single pass: Every volatility index date must
+		 * be found in the base value's dates. Otherwise, the both are not properly aligned.
+		 */
+		ValueDateTupel[] baseValues = this.getBaseValue().getValues();
+		int basePosition = 0;
+		for (ValueDateTupel volatilityIndex : volatilityIndices) {
+			while (basePosition < baseValues.length
+			        && baseValues[basePosition].getDate().isBefore(volatilityIndex.getDate()))
+				basePosition++;
+			if (basePosition == baseValues.length
+			        || !baseValues[basePosition].getDate().equals(volatilityIndex.getDate()))
+				throw new IllegalArgumentException("Base value and volatility index values are not properly"
+				        + " aligned. Utilize" + " ValueDateTupel.alignDates(ValueDateTupel[][])"
+				        + " before creating a new VolatilityDifference.");
+		}
+	}
+
+	/**
+	 * Validates the given sorted volatility indices against this instance's reference window.
+	 * 
+	 * @param  volatilityIndices        {@code ValueDateTupel[]} the array of volatility indices to be validated. Must
+	 *                                  be sorted in ascending order. Must comply as follows:
+	 *                                  <ul>
+	 *                                  <li>Must contain this instances startOfReferenceWindow and
+	 *                                  endOfReferenceWindow.</li>
+	 *                                  <li>Must not contain Double.NaN values between those.</li>
+	 *                                  </ul>
+	 * @throws IllegalArgumentException if the given volatility indices do not meet specifications.
+	 */
+	private void validateVolatilityIndicesInReferenceWindow(ValueDateTupel[] volatilityIndices) {
 		try {
 			Validator.validateTimeWindow(this.getStartOfReferenceWindow(), this.getEndOfReferenceWindow(),
 			        volatilityIndices);
@@ -284,27 +460,6 @@ public class VolatilityDifference extends Rule {
 				        + "values in the area delimited by startOfReferenceWindow" + " and endOfReferenceWindow");
 			}
 		}
-
-		/*
-		 * Extract dates out of the base value's values array and add it to a HashSet
-		 */
-		Set<LocalDateTime> baseValueSet = new HashSet<>();
-		for (ValueDateTupel value : this.getBaseValue().getValues())
-			baseValueSet.add(value.getDate());
-		/*
-		 * Extract dates out of the volatility indices values array and add them to to a copy of the same HashSet
-		 */
-		Set<LocalDateTime> volatilityIndicesSet = new HashSet<>(baseValueSet);
-		for (ValueDateTupel value : volatilityIndices)
-			volatilityIndicesSet.add(value.getDate());
-		/*
-		 * If the Sets differ in length, the volatility indices added unique LocalDateTimes to the set. Therefore, the
-		 * both are not properly aligned.
-		 */
-		if (baseValueSet.size() != volatilityIndicesSet.size())
-			throw new IllegalArgumentException("Base value and volatility index values are not properly"
-			        + " aligned. Utilize" + " ValueDateTupel.alignDates(ValueDateTupel[][])"
-			        + " before creating a new VolatilityDifference.");
 	}
 
 	/**
@@ -312,39 +467,6 @@ public class VolatilityDifference extends Rule {
 	 * ======================================================================
 	 */
 
-	/**
-	 * A hash code for this VolatilityDifference.
-	 */
-	@GeneratedCode
-	@Override
-	public int hashCode() {
-		final int prime = 31;
-		int result = super.hashCode();
-		result = prime * result + lookbackWindow;
-		result = prime * result + Arrays.hashCode(volatilityIndices);
-		return result;
-	}
-
-	/**
-	 * Checks if this VolatilityDifference is equal to another VolatilityDifference.
-	 */
-	@GeneratedCode
-	@Override
-	public boolean equals(Object obj) {
-		if (this == obj)
-			return true;
-		if (!super.equals(obj))
-			return false;
-		if (getClass() != obj.getClass())
-			return false;
-		VolatilityDifference other = (VolatilityDifference) obj;
-		if (lookbackWindow != other.lookbackWindow)
-			return false;
-		if (!Arrays.equals(volatilityIndices, other.volatilityIndices))
-			return false;
-		return true;
-	}
-
 	/**
 	 * Outputs the fields of this VolatilityDifference as a {@code String}.
 	 */
@@ -381,6 +503,7 @@ public class VolatilityDifference extends Rule {
 	 */
 	private void setVolatilityIndices(ValueDateTupel[] volatilityIndices) {
 		this.volatilityIndices = volatilityIndices;
+		this.volatilityIndicesFingerprint = Fingerprint.EMPTY.with(volatilityIndices);
 	}
 
 	/**
@@ -400,4 +523,127 @@ public class VolatilityDifference extends Rule {
 	private void setLookbackWindow(int lookbackWindow) {
 		this.lookbackWindow = lookbackWindow;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Evaluates if the volatility indices of this VolatilityDifference were calculated from the base value.
+	 * 
+	 * @return {@code boolean} True, if the volatility indices were calculated. False, if they were given.
+	 */
+	boolean isVolatilityIndicesCalculated() {
+		return volatilityIndicesCalculated;
+	}
+
+	/**
+	 * The {@link LiveRawForecast} of a VolatilityDifference. Holds the running statistics of the volatility indices
+	 * and, if the volatility indices are calculated from the base value, the returns inside the lookback window.
+	 * <p>
+	 * The standard deviation of the returns inside the lookback window is updated in constant time by removing the
+	 * oldest and adding the newest return (sliding variant of Welford's method). It therefore may differ from the one
+	 * calculated by {@link StandardDeviation} in the last digits.
+	 */
+	private static class LiveVolatilityDifference implements LiveRawForecast {
+
+		/* The returns inside the lookback window as ring buffer. Null, if volatility indices are given. */
+		private final double[] returns;
+		/* The position of the oldest return in the ring buffer. */
+		private int oldestReturnPosition;
+		/* The mean of the returns inside the lookback window. */
+		private double returnsMean;
+		/* The sum of squared deviations from the mean of the returns inside the lookback window. */
+		private double returnsSquaredDeviations;
+		/* The last base value. Double.NaN, if there was none since the last reset. */
+		private double lastValue;
+		/* The lookback window of the rule. */
+		private final int lookbackWindow;
+		/* The number of values still to be updated with before the volatility indices enter the average. */
+		private int remainingValuesBeforeAverage;
+		/* The statistics of all volatility indices so far, providing their average. */
+		private DoubleSummaryStatistics volatilityStatistics;
+
+		/**
+		 * Creates a new LiveVolatilityDifference.
+		 * 
+		 * @param lastValue            {@code double} The last base value.
+		 * @param lastReturns          {@code double[]} The returns inside the lookback window, oldest first. Null, if
+		 *                             volatility indices are given.
+		 * @param lookbackWindow       {@code int} The lookback window of the rule.
+		 * @param volatilityStatistics {@link DoubleSummaryStatistics} The statistics of all volatility indices so far.
+		 */
+		LiveVolatilityDifference(double lastValue, double[] lastReturns, int lookbackWindow,
+		        DoubleSummaryStatistics volatilityStatistics) {
+			this.lastValue = lastValue;
+			this.returns = lastReturns;
+			this.lookbackWindow = lookbackWindow;
+			this.volatilityStatistics = volatilityStatistics;
+
+			if (lastReturns != null) {
+				double sum = 0;
+				for (double lastReturn : lastReturns)
+					sum += lastReturn;
+				this.returnsMean = sum / lastReturns.length;
+				for (double lastReturn : lastReturns)
+					this.returnsSquaredDeviations += (lastReturn - this.returnsMean) * (lastReturn - this.returnsMean);
+			}
+		}
+
+		@Override
+		public double update(double value, double volatilityIndex) {
+			double currentVolatility = volatilityIndex;
+			if (this.returns != null && !Double.isNaN(this.lastValue))
+				currentVolatility = this.updateReturns(Util.calculateReturn(this.lastValue, value));
+			this.lastValue = value;
+
+			/* As in the rule, volatility indices enter the average once the lookback window is reached. */
+			if (this.remainingValuesBeforeAverage > 0) {
+				this.remainingValuesBeforeAverage--;
+				return Double.NaN;
+			}
+
+			this.volatilityStatistics.accept(currentVolatility);
+			return this.volatilityStatistics.getAverage() - currentVolatility;
+		}
+
+		/**
+		 * The returns inside the lookback window restart as zeros. Replacing them one by one yields the returns of the
+		 * first lookback window once it is reached, so no separate filling is needed.
+		 */
+		@Override
+		public void reset() {
+			this.lastValue = Double.NaN;
+			this.remainingValuesBeforeAverage = this.lookbackWindow;
+			this.volatilityStatistics = new DoubleSummaryStatistics();
+			if (this.returns != null) {
+				Arrays.fill(this.returns, 0);
+				this.oldestReturnPosition = 0;
+				this.returnsMean = 0;
+				this.returnsSquaredDeviations = 0;
+			}
+		}
+
+		/**
+		 * Replaces the oldest return inside the lookback window with the given return.
+		 * 
+		 * @param  newReturn {@code double} The newest return.
+		 * @return           {@code double} The standard deviation of the returns inside the lookback window.
+		 */
+		private double updateReturns(double newReturn) {
+			double oldReturn = this.returns[this.oldestReturnPosition];
+			this.returns[this.oldestReturnPosition] = newReturn;
+			this.oldestReturnPosition = (this.oldestReturnPosition + 1) % this.returns.length;
+
+			double oldMean = this.returnsMean;
+			this.returnsMean += (newReturn - oldReturn) / this.returns.length;
+			this.returnsSquaredDeviations += (newReturn - oldReturn)
+			        * (newReturn - this.returnsMean + oldReturn - oldMean);
+			/* Rounding may lead to slightly negative values if all returns are equal. */
+			this.returnsSquaredDeviations = Math.max(0, this.returnsSquaredDeviations);
+
+			return Math.sqrt(this.returnsSquaredDeviations / (this.returns.length - 1));
+		}
+
+		@Override
+		public boolean requiresVolatilityIndex() {
+			return this.returns == null;
+		}
+	}
+}
@@ -0,0 +1,173 @@
+package de.rumford.tradingsystem.helper;
+
+import java.util.Arrays;
+
+/**
+ * The AppendableSeries holds a series of {@link ValueDateTupel} that can grow one value at a time without copying the
+ * values already held.
+ * <p>
+ * The initial values are kept as given. Appended values are stored in chunks of fixed size. Once a chunk is full, a
+ * new chunk is started, so appending a value costs constant time and never copies any previous value. Only the
+ * references to the chunks are copied when their number has to grow, which happens once per doubling of the number of
+ * chunks.
+ * <p>
+ * {@link #toArray()} provides all values as one array, as used throughout this library. As long as no value has been
+ * appended, this is the very array given upon instantiation. Otherwise, the array is assembled on the first call after
+ * an append and kept until the next append.
+ *
+ * @author Max Rumford
+ */
+public class AppendableSeries {
+
+	/* The number of values per chunk of appended values. */
+	private static final int CHUNK_SIZE = 1024;
+
+	/* The values given upon instantiation. */
+	private final ValueDateTupel[] initialValues;
+	/* The chunks of appended values. */
+	private ValueDateTupel[][] chunks = new ValueDateTupel[0][];
+	/* The number of chunks in use. */
+	private int numberOfChunks;
+	/* The total number of values. */
+	private int size;
+	/* All values as one array. Null, if values have been appended since it was last assembled. */
+	private ValueDateTupel[] array;
+
+	/**
+	 * Creates a new AppendableSeries starting with the given values. The given array is not copied.
+	 *
+	 * @param  initialValues            {@code ValueDateTupel[]} The initial values. Must not be null.
+	 * @throws IllegalArgumentException if the given initial values are null.
+	 */
+	public AppendableSeries(ValueDateTupel[] initialValues) {
+		if (initialValues == null)
+			throw new IllegalArgumentException("Initial values must not be null");
+
+		this.initialValues = initialValues;
+		this.size = initialValues.length;
+		this.array = initialValues;
+	}
+
+	/**
+	 * Appends the given value at the end of this series.
+	 *
+	 * @param  value                    {@link ValueDateTupel} The value to be appended. Must not be null.
+	 * @throws IllegalArgumentException if the given value is null.
+	 */
+	public void append(ValueDateTupel value) {
+		if (value == null)
+			throw new IllegalArgumentException("Value must not be null");
+
+		int appendedPosition = this.size - this.initialValues.length;
+		int positionInChunk = appendedPosition % CHUNK_SIZE;
+
+		/* Start a new chunk if the last one is full. */
+		if (positionInChunk == 0) {
+			if (this.numberOfChunks == this.chunks.length)
+				this.chunks = Arrays.copyOf(this.chunks, Math.max(1, this.chunks.length * 2));
+			this.chunks[this.numberOfChunks++] = new ValueDateTupel[CHUNK_SIZE];
+		}
+
+		this.chunks[this.numberOfChunks - 1][positionInChunk] = value;
+		this.size++;
+		this.array = null;
+	}
+
+	/**
+	 * Get the value at the given position.
+	 *
+	 * @param  position                 {@code int} The position of the value. Must be at least 0 and less than
+	 *                                  {@link #size()}.
+	 * @return                          {@link ValueDateTupel} The value at the given position.
+	 * @throws IllegalArgumentException if the given position is out of bounds.
+	 */
+	public ValueDateTupel get(int position) {
+		if (position < 0 || position >= this.size)
+			throw new IllegalArgumentException(
+			        "Position must be at least 0 and less than " + this.size + " but is " + position);
+
+		if (position < this.initialValues.length)
+			return this.initialValues[position];
+
+		int appendedPosition = position - this.initialValues.length;
+		return this.chunks[appendedPosition / CHUNK_SIZE][appendedPosition % CHUNK_SIZE];
+	}
+
+	/**
+	 * Get the last value of this series.
+	 *
+	 * @return                          {@link ValueDateTupel} The last value.
+	 * @throws IllegalArgumentException if this series is empty.
+	 */
+	public ValueDateTupel getLast() {
+		return this.get(this.size - 1);
+	}
+
+	/**
+	 * Get the number of values in this series.
+	 *
+	 * @return {@code int} The number of values.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Get all values of this series as one array. The returned array is shared until the next value is appended and
+	 * therefore must not be altered.
+	 *
+	 * @return {@code ValueDateTupel[]} All values in order.
+	 */
+	public ValueDateTupel[] toArray() {
+		if (this.array == null) {
+			ValueDateTupel[] assembledArray = Arrays.copyOf(this.initialValues, this.size);
+			int position = this.initialValues.length;
+			for (int chunk = 0; chunk < this.numberOfChunks; chunk++) {
+				int length = Math.min(CHUNK_SIZE, this.size - position);
+				System.arraycopy(this.chunks[chunk], 0, assembledArray, position, length);
+				position += length;
+			}
+			this.array = assembledArray;
+		}
+		return this.array;
+	}
+
+	/**
+	 * ====================================================================== OVERRIDES
+	 * ======================================================================
+	 */
+
+	/**
+	 * A hash code for this AppendableSeries, based on its values.
+	 */
+	@GeneratedCode
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(this.toArray());
+	}
+
+	/**
+	 * Checks if this AppendableSeries holds the same values as another AppendableSeries.
+	 */
+	@GeneratedCode
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		AppendableSeries other = (AppendableSeries) obj;
+		return Arrays.equals(this.toArray(), other.toArray());
+	}
+
+	/**
+	 * Outputs the values of this AppendableSeries as a {@code String}.
+	 */
+	@GeneratedCode
+	@Override
+	public String toString() {
+		return Arrays.toString(this.toArray());
+	}
+}
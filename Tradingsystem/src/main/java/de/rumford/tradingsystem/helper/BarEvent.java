@@ -0,0 +1,181 @@
+package de.rumford.tradingsystem.helper;
+
+import java.time.LocalDateTime;
+
+/**
+ * The BarEvent is a mutable container for the values of one time interval on its way through a pipeline of
+ * {@link SpscRingBuffer}s. Events are preallocated by the ring buffers and reused for every time interval, so its
+ * fields are plain and overwritten by every stage filling them. Values not (yet) known are Double.NaN, the position is
+ * null until calculated.
+ * 
+ * @author Max Rumford
+ */
+public class BarEvent {
+
+	/* The date of the time interval. */
+	private LocalDateTime date;
+	/* The base value of the time interval. */
+	private double value = Double.NaN;
+	/* The volatility index value of the time interval. */
+	private double volatilityIndex = Double.NaN;
+	/* The standard deviation of the base value at the time interval. */
+	private double standardDeviation = Double.NaN;
+	/* The combined forecast for the time interval. */
+	private double forecast = Double.NaN;
+	/* The position resulting from the forecast. */
+	private String position;
+
+	/**
+	 * Sets the given input values of a time interval and clears all calculated values.
+	 * 
+	 * @param date            {@link LocalDateTime} The date of the time interval.
+	 * @param value           {@code double} The base value of the time interval.
+	 * @param volatilityIndex {@code double} The volatility index value of the time interval. Double.NaN if not given.
+	 */
+	public void set(LocalDateTime date, double value, double volatilityIndex) {
+		this.date = date;
+		this.value = value;
+		this.volatilityIndex = volatilityIndex;
+		this.standardDeviation = Double.NaN;
+		this.forecast = Double.NaN;
+		this.position = null;
+	}
+
+	/**
+	 * Copies all values of the given BarEvent into this BarEvent.
+	 * 
+	 * @param other {@link BarEvent} The BarEvent to copy from.
+	 */
+	public void copyFrom(BarEvent other) {
+		this.date = other.date;
+		this.value = other.value;
+		this.volatilityIndex = other.volatilityIndex;
+		this.standardDeviation = other.standardDeviation;
+		this.forecast = other.forecast;
+		this.position = other.position;
+	}
+
+	/**
+	 * ====================================================================== OVERRIDES
+	 * ======================================================================
+	 */
+
+	/**
+	 * Outputs the fields of this BarEvent as a {@code String}.
+	 */
+	@GeneratedCode
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("BarEvent [date=");
+		builder.append(date);
+		builder.append(", value=");
+		builder.append(value);
+		builder.append(", volatilityIndex=");
+		builder.append(volatilityIndex);
+		builder.append(", standardDeviation=");
+		builder.append(standardDeviation);
+		builder.append(", forecast=");
+		builder.append(forecast);
+		builder.append(", position=");
+		builder.append(position);
+		builder.append("]");
+		return builder.toString();
+	}
+
+	/**
+	 * ====================================================================== GETTERS AND SETTERS
+	 * ======================================================================
+	 */
+
+	/**
+	 * Get the date of this BarEvent.
+	 * 
+	 * @return {@link LocalDateTime} The date.
+	 */
+	public LocalDateTime getDate() {
+		return date;
+	}
+
+	/**
+	 * Get the base value of this BarEvent.
+	 * 
+	 * @return {@code double} The base value.
+	 */
+	public double getValue() {
+		return value;
+	}
+
+	/**
+	 * Get the volatility index value of this BarEvent.
+	 * 
+	 * @return {@code double} The volatility index value. Double.NaN if not given.
+	 */
+	public double getVolatilityIndex() {
+		return volatilityIndex;
+	}
+
+	/**
+	 * Set the volatility index value of this BarEvent.
+	 * 
+	 * @param volatilityIndex {@code double} The volatility index value to set.
+	 */
+	public void setVolatilityIndex(double volatilityIndex) {
+		this.volatilityIndex = volatilityIndex;
+	}
+
+	/**
+	 * Get the standard deviation of the base value of this BarEvent.
+	 * 
+	 * @return {@code double} The standard deviation. Double.NaN if not yet calculated.
+	 */
+	public double getStandardDeviation() {
+		return standardDeviation;
+	}
+
+	/**
+	 * Set the standard deviation of the base value of this BarEvent.
+	 * 
+	 * @param standardDeviation {@code double} The standard deviation to set.
+	 */
+	public void setStandardDeviation(double standardDeviation) {
+		this.standardDeviation = standardDeviation;
+	}
+
+	/**
+	 * Get the combined forecast of this BarEvent.
+	 * 
+	 * @return {@code double} The combined forecast. Double.NaN if not yet calculated.
+	 */
+	public double getForecast() {
+		return forecast;
+	}
+
+	/**
+	 * Set the combined forecast of this BarEvent.
+	 * 
+	 * @param forecast {@code double} The forecast to set.
+	 */
+	public void setForecast(double forecast) {
+		this.forecast = forecast;
+	}
+
+	/**
+	 * Get the position of this BarEvent.
+	 * 
+	 * @return {@code String} The position as of {@link Util#getPositionFromForecast(double)}. Null if not yet
+	 *         calculated.
+	 */
+	public String getPosition() {
+		return position;
+	}
+
+	/**
+	 * Set the position of this BarEvent.
+	 * 
+	 * @param position {@code String} The position to set.
+	 */
+	public void setPosition(String position) {
+		this.position = position;
+	}
+}
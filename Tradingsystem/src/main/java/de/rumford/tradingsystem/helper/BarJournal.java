@@ -0,0 +1,439 @@
+package de.rumford.tradingsystem.helper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * The BarJournal persists the bars of one instrument as they arrive, so a live process can be restarted without
+ * losing any bar. It is a file in the {@link BinarySeries} format, i.e. of the same header and the same records of
+ * epoch second and value, which bars are only ever appended to.
+ * <p>
+ * The file is mapped into memory in segments of {@link #SEGMENT_RECORDS} records. Appending a bar writes its record
+ * into the mapped memory and publishes the new size, so it takes constant time and survives a crash of the process as
+ * soon as {@link #append(LocalDateTime, double)} returns. {@link #force()} additionally writes the appended records to
+ * the storage device, so they survive a crash of the operating system.
+ * <p>
+ * One thread at a time may append while any number of threads read: Readers only see records up to the published size,
+ * which are never changed again. Each read takes the published size before the segments, which are published before the
+ * size covering them, and validates the journal is open after taking them, as {@link #close()} stops using the segments
+ * after marking the journal closed. The bars read serve as values of a {@link de.rumford.tradingsystem.BaseValue} upon
+ * restart, and the bars after the last date of a restored {@link de.rumford.tradingsystem.LiveSubSystem} are replayed
+ * into it by {@link de.rumford.tradingsystem.LiveSubSystem#replay(BarJournal)}.
+ * <p>
+ * While open, the file is extended to whole segments; unused records are zero, i.e. dated 1970-01-01T00:00. The date of
+ * a record is written after its value, so a record interrupted by a crash is unused as well. {@link #close()} stops
+ * using the segments and then cuts the file to the records appended, so it can be read by
+ * {@link BinarySeries#getDataFromBinary(String)}. No record cut off is ever accessed again. After a crash, the trailing
+ * unused records are cut off upon opening the journal again. Therefore bars must be in ascending order and must not be
+ * dated 1970-01-01T00:00. As in the binary series format, dates must be in whole seconds.
+ * 
+ * @author Max Rumford
+ */
+public class BarJournal implements AutoCloseable {
+
+	/* The number of records of each mapped segment. */
+	public static final int SEGMENT_RECORDS = 1 << 16;
+	/* The number of bytes of each mapped segment. */
+	private static final long SEGMENT_SIZE = (long) SEGMENT_RECORDS * BinarySeries.RECORD_SIZE;
+	/* The segments of a journal not mapped yet or closed. */
+	private static final MappedByteBuffer[] NO_SEGMENTS = new MappedByteBuffer[0];
+
+	/* The path of the journal. */
+	private final Path path;
+	/* The channel of the journal file. */
+	private final FileChannel channel;
+	/* The mapped segments. Replaced by a longer array when the journal grows. */
+	private volatile MappedByteBuffer[] segments = NO_SEGMENTS;
+	/* The number of records. Written after the records, so readers see all records up to it. */
+	private volatile int size;
+	/* Whether this journal was closed. */
+	private volatile boolean closed;
+	/* The number of records written to the storage device. Only accessed while holding the lock. */
+	private int forcedSize;
+	/* The epoch second of the last record. Only accessed while holding the lock. */
+	private long lastEpochSecond = Long.MIN_VALUE;
+
+	/**
+	 * Opens the journal at the given path, creating it if it does not exist. Records left unused by a crash are
+	 * discarded.
+	 * 
+	 * @param  path                     {@link Path} The path of the journal. Must not be null.
+	 * @throws IOException              if the file cannot be opened, read or mapped.
+	 * @throws IllegalArgumentException if the given path is null or if the file is no binary series, is of an
+	 *                                  unsupported version or is truncated.
+	 */
+	public BarJournal(Path path) throws IOException {
+		if (path == null)
+			throw new IllegalArgumentException("Path must not be null");
+
+		this.path = path;
+		this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+		        StandardOpenOption.CREATE);
+		try {
+			this.recover();
+		} catch (IOException | RuntimeException e) {
+			this.channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Writes or validates the header, maps all segments holding records and finds the number of records appended.
+	 * 
+	 * @throws IOException              if the file cannot be read or mapped.
+	 * @throws IllegalArgumentException if the file is no binary series, is of an unsupported version or is truncated.
+	 */
+	private void recover() throws IOException {
+		long fileSize = this.channel.size();
+		ByteBuffer header = ByteBuffer.allocate(BinarySeries.HEADER_SIZE);
+		if (fileSize == 0) {
+			header.putInt(BinarySeries.MAGIC).putInt(BinarySeries.VERSION).flip();
+			while (header.hasRemaining())
+				this.channel.write(header, header.position());
+		} else {
+			if (fileSize < BinarySeries.HEADER_SIZE)
+				throw new IllegalArgumentException("The given binary series is truncated");
+			while (header.hasRemaining())
+				this.channel.read(header, header.position());
+			header.flip();
+			if (header.getInt() != BinarySeries.MAGIC)
+				throw new IllegalArgumentException("The given file is not a binary series");
+			int version = header.getInt();
+			if (version != BinarySeries.VERSION)
+				throw new IllegalArgumentException("Unsupported version of binary series: " + version);
+		}
+
+		/* A record only partly written is cut off along with the unused records. */
+		long records = Math.max(0, fileSize - BinarySeries.HEADER_SIZE) / BinarySeries.RECORD_SIZE;
+		int recordCount = (int) Math.min(records, Integer.MAX_VALUE);
+		this.mapSegments((recordCount + SEGMENT_RECORDS - 1) / SEGMENT_RECORDS);
+
+		MappedByteBuffer[] mappedSegments = this.segments;
+		while (recordCount > 0 && getEpochSecond(mappedSegments, recordCount - 1) == 0)
+			recordCount--;
+		if (recordCount > 0)
+			this.lastEpochSecond = getEpochSecond(mappedSegments, recordCount - 1);
+		this.size = recordCount;
+		this.forcedSize = recordCount;
+	}
+
+	/**
+	 * Appends the given bar.
+	 * 
+	 * @param  bar                      {@link ValueDateTupel} The bar. Must not be null. See
+	 *                                  {@link #append(LocalDateTime, double)} for further limitations.
+	 * @throws IOException              if the journal cannot be extended.
+	 * @throws IllegalArgumentException if the given bar does not meet specifications.
+	 * @throws IllegalStateException    if this journal was closed.
+	 */
+	public void append(ValueDateTupel bar) throws IOException {
+		if (bar == null)
+			throw new IllegalArgumentException("Bar must not be null");
+		this.append(bar.getDate(), bar.getValue());
+	}
+
+	/**
+	 * Appends a bar of the given date and value. Visible to readers once this method returns.
+	 * 
+	 * @param  date                     {@link LocalDateTime} The date of the bar. Must not be null. Must be in whole
+	 *                                  seconds. Must be after the date of the last bar. Must not be
+	 *                                  1970-01-01T00:00.
+	 * @param  value                    {@code double} The value of the bar. Must not be Double.NaN.
+	 * @throws IOException              if the journal cannot be extended.
+	 * @throws IllegalArgumentException if the above specifications are not met.
+	 * @throws IllegalStateException    if this journal was closed.
+	 */
+	public synchronized void append(LocalDateTime date, double value) throws IOException {
+		this.validateOpen();
+		if (date == null)
+			throw new IllegalArgumentException("Date must not be null");
+		if (date.getNano() != 0)
+			throw new IllegalArgumentException("Date must be in whole seconds but is " + date);
+		if (Double.isNaN(value))
+			throw new IllegalArgumentException("Value must not be Double.NaN");
+		long epochSecond = date.toEpochSecond(ZoneOffset.UTC);
+		if (epochSecond <= this.lastEpochSecond)
+			throw new IllegalArgumentException("Date must be after the date of the last bar: "
+			        + LocalDateTime.ofEpochSecond(this.lastEpochSecond, 0, ZoneOffset.UTC));
+		if (epochSecond == 0)
+			throw new IllegalArgumentException("Date must not be " + date + ", which marks unused records");
+
+		int index = this.size;
+		if (index == Integer.MAX_VALUE)
+			throw new IllegalStateException("BarJournal is full");
+		if (index / SEGMENT_RECORDS == this.segments.length)
+			this.mapSegments(this.segments.length + 1);
+
+		MappedByteBuffer segment = this.segments[index / SEGMENT_RECORDS];
+		int position = (index % SEGMENT_RECORDS) * BinarySeries.RECORD_SIZE;
+		/* The epoch second is written last, so a record interrupted by a crash is still marked unused. */
+		segment.putDouble(position + Long.BYTES, value);
+		segment.putLong(position, epochSecond);
+		this.lastEpochSecond = epochSecond;
+		this.size = index + 1;
+	}
+
+	/**
+	 * Writes all records appended so far to the storage device.
+	 * 
+	 * @throws IllegalStateException if this journal was closed.
+	 */
+	public synchronized void force() {
+		this.validateOpen();
+		this.forceSegments();
+	}
+
+	/**
+	 * Get the date of the bar at the given position.
+	 * 
+	 * @param  index                    {@code int} The position of the bar.
+	 * @return                          {@link LocalDateTime} The date of the bar.
+	 * @throws IllegalArgumentException if there is no bar at the given position.
+	 * @throws IllegalStateException    if this journal was closed.
+	 */
+	public LocalDateTime getDate(int index) {
+		int localSize = this.size;
+		MappedByteBuffer[] localSegments = this.segments;
+		this.validateIndex(index, localSize);
+		return LocalDateTime.ofEpochSecond(getEpochSecond(localSegments, index), 0, ZoneOffset.UTC);
+	}
+
+	/**
+	 * Get the value of the bar at the given position.
+	 * 
+	 * @param  index                    {@code int} The position of the bar.
+	 * @return                          {@code double} The value of the bar.
+	 * @throws IllegalArgumentException if there is no bar at the given position.
+	 * @throws IllegalStateException    if this journal was closed.
+	 */
+	public double getValue(int index) {
+		int localSize = this.size;
+		MappedByteBuffer[] localSegments = this.segments;
+		this.validateIndex(index, localSize);
+		return getRawValue(localSegments, index);
+	}
+
+	/**
+	 * Get all bars appended so far.
+	 * 
+	 * @return                       {@code ValueDateTupel[]} The bars in order of their dates.
+	 * @throws IllegalStateException if this journal was closed.
+	 */
+	public ValueDateTupel[] getValues() {
+		int localSize = this.size;
+		MappedByteBuffer[] localSegments = this.segments;
+		this.validateOpen();
+		return getValues(localSegments, 0, localSize);
+	}
+
+	/**
+	 * Get the bars appended so far that are dated after the given date, e.g. the bars to be replayed after the last
+	 * value of a restored SubSystem.
+	 * 
+	 * @param  date                     {@link LocalDateTime} The date. Must not be null.
+	 * @return                          {@code ValueDateTupel[]} The bars after the given date in order of their dates.
+	 * @throws IllegalArgumentException if the given date is null.
+	 * @throws IllegalStateException    if this journal was closed.
+	 */
+	public ValueDateTupel[] getValuesAfter(LocalDateTime date) {
+		int localSize = this.size;
+		MappedByteBuffer[] localSegments = this.segments;
+		this.validateOpen();
+		if (date == null)
+			throw new IllegalArgumentException("Date must not be null");
+
+		/* The dates are ascending, so the first bar after the given date is found by binary search. */
+		int low = 0;
+		int high = localSize;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (LocalDateTime.ofEpochSecond(getEpochSecond(localSegments, middle), 0, ZoneOffset.UTC).isAfter(date))
+				high = middle;
+			else
+				low = middle + 1;
+		}
+		return getValues(localSegments, low, localSize);
+	}
+
+	/**
+	 * Writes all records to the storage device, stops using the mapped segments and cuts the file to the records
+	 * appended. Closing a closed journal has no effect.
+	 * <p>
+	 * The mappings are released once the segments are garbage collected. Platforms refusing to cut a file that is still
+	 * mapped make this method throw an IOException after closing the journal; the unused records are then cut off upon
+	 * opening the journal again.
+	 * 
+	 * @throws IOException if the file cannot be cut or closed.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (this.closed)
+			return;
+		this.closed = true;
+		try {
+			this.forceSegments();
+			/*
+			 * Readers validate the journal is open after taking the segments, so no one accesses the segments from here
+			 * on but readers that took them before, which only access records up to the size kept.
+			 */
+			this.segments = NO_SEGMENTS;
+			this.channel.truncate(BinarySeries.HEADER_SIZE + (long) this.size * BinarySeries.RECORD_SIZE);
+		} finally {
+			this.channel.close();
+		}
+	}
+
+	/**
+	 * Maps the segments up to the given number, extending the file if necessary. The segments already mapped are kept.
+	 * 
+	 * @param  numberOfSegments {@code int} The number of segments to be mapped.
+	 * @throws IOException      if a segment cannot be mapped.
+	 */
+	private void mapSegments(int numberOfSegments) throws IOException {
+		MappedByteBuffer[] mappedSegments = Arrays.copyOf(this.segments, numberOfSegments);
+		for (int i = this.segments.length; i < numberOfSegments; i++)
+			mappedSegments[i] = this.channel.map(FileChannel.MapMode.READ_WRITE,
+			        BinarySeries.HEADER_SIZE + i * SEGMENT_SIZE, SEGMENT_SIZE);
+		/* Published before the size covering the new segments, so readers always find the segments they need. */
+		this.segments = mappedSegments;
+	}
+
+	/**
+	 * Writes the segments holding records not yet written to the storage device.
+	 */
+	private void forceSegments() {
+		MappedByteBuffer[] localSegments = this.segments;
+		int localSize = this.size;
+		for (int i = this.forcedSize / SEGMENT_RECORDS; i < localSegments.length
+		        && i * (long) SEGMENT_RECORDS < localSize; i++)
+			localSegments[i].force();
+		this.forcedSize = localSize;
+	}
+
+	/**
+	 * Get the bars between the given positions.
+	 * 
+	 * @param  segments {@code MappedByteBuffer[]} The segments taken after the size.
+	 * @param  from     {@code int} The position of the first bar.
+	 * @param  to       {@code int} The position after the last bar. Must not exceed the size taken before the
+	 *                  segments.
+	 * @return          {@code ValueDateTupel[]} The bars.
+	 */
+	private static ValueDateTupel[] getValues(MappedByteBuffer[] segments, int from, int to) {
+		ValueDateTupel[] bars = ValueDateTupel.createEmptyArray(to - from);
+		for (int i = from; i < to; i++)
+			bars[i - from] = new ValueDateTupel(
+			        LocalDateTime.ofEpochSecond(getEpochSecond(segments, i), 0, ZoneOffset.UTC),
+			        getRawValue(segments, i));
+		return bars;
+	}
+
+	/**
+	 * Get the epoch second of the record at the given position.
+	 * 
+	 * @param  segments {@code MappedByteBuffer[]} The segments.
+	 * @param  index    {@code int} The position of the record. Must be covered by the given segments.
+	 * @return          {@code long} The epoch second.
+	 */
+	private static long getEpochSecond(MappedByteBuffer[] segments, int index) {
+		return segments[index / SEGMENT_RECORDS].getLong((index % SEGMENT_RECORDS) * BinarySeries.RECORD_SIZE);
+	}
+
+	/**
+	 * Get the value of the record at the given position.
+	 * 
+	 * @param  segments {@code MappedByteBuffer[]} The segments.
+	 * @param  index    {@code int} The position of the record. Must be covered by the given segments.
+	 * @return          {@code double} The value.
+	 */
+	private static double getRawValue(MappedByteBuffer[] segments, int index) {
+		return segments[index / SEGMENT_RECORDS]
+		        .getDouble((index % SEGMENT_RECORDS) * BinarySeries.RECORD_SIZE + Long.BYTES);
+	}
+
+	/**
+	 * Validates this journal is still open and there is a bar at the given position.
+	 * 
+	 * @param  index                    {@code int} The position.
+	 * @param  localSize                {@code int} The size taken before the segments.
+	 * @throws IllegalArgumentException if there is no bar at the given position.
+	 * @throws IllegalStateException    if this journal was closed.
+	 */
+	private void validateIndex(int index, int localSize) {
+		this.validateOpen();
+		if (index < 0 || index >= localSize)
+			throw new IllegalArgumentException(
+			        "Index must be at least 0 and less than " + localSize + " but is " + index);
+	}
+
+	/**
+	 * Validates this journal is still open.
+	 * 
+	 * @throws IllegalStateException if this journal was closed.
+	 */
+	private void validateOpen() {
+		if (this.closed)
+			throw new IllegalStateException("BarJournal was closed");
+	}
+
+	/**
+	 * ====================================================================== OVERRIDES
+	 * ======================================================================
+	 */
+
+	/**
+	 * Outputs the fields of this BarJournal as a {@code String}.
+	 */
+	@GeneratedCode
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("BarJournal [path=");
+		builder.append(path);
+		builder.append(", size=");
+		builder.append(size);
+		builder.append(", closed=");
+		builder.append(closed);
+		builder.append("]");
+		return builder.toString();
+	}
+
+	/**
+	 * ====================================================================== GETTERS AND SETTERS
+	 * ======================================================================
+	 */
+
+	/**
+	 * Get the path of this journal.
+	 * 
+	 * @return {@link Path} The path.
+	 */
+	public Path getPath() {
+		return path;
+	}
+
+	/**
+	 * Get the number of bars appended so far.
+	 * 
+	 * @return {@code int} The number of bars.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Evaluates if this journal was closed.
+	 * 
+	 * @return {@code boolean} True, if closed.
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+}
@@ -0,0 +1,147 @@
+package de.rumford.tradingsystem.helper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * The BinarySeries reads and writes values in a compact binary format, which is much faster to read than CSV as no
+ * text has to be parsed.
+ * <p>
+ * A binary series starts with a header of 8 bytes: the magic number {@link #MAGIC} ("TSBS") and the version of the
+ * format, both as {@code int}. The header is followed by one record of 16 bytes per value: the date as seconds since
+ * 1970-01-01T00:00 (UTC) as {@code long} and the value as {@code double}. All numbers are big-endian. The number of
+ * values is given by the size of the file, so values can be appended without rewriting the header.
+ * 
+ * @author Max Rumford
+ */
+public class BinarySeries {
+
+	/* The magic number every binary series starts with: "TSBS" */
+	public static final int MAGIC = 0x54534253;
+	/* The version of the format written. */
+	public static final int VERSION = 1;
+	/* The number of bytes of the header. */
+	public static final int HEADER_SIZE = 8;
+	/* The number of bytes of each record. */
+	public static final int RECORD_SIZE = 16;
+
+	/**
+	 * Don't let anyone instantiate this class.
+	 */
+	private BinarySeries() {
+	}
+
+	/**
+	 * Reads the values of the binary series at the given path.
+	 * 
+	 * @param  sourcePath               {@code String} The path to the binary series to be read. Must not be null.
+	 * @return                          {@code ValueDateTupel[]} The read values in the order of the file.
+	 * @throws IOException              if the given path does not point to a readable file or reading fails.
+	 * @throws IllegalArgumentException if the given path is null, if the file is no binary series, is of an
+	 *                                  unsupported version or is truncated.
+	 */
+	public static ValueDateTupel[] getDataFromBinary(String sourcePath) throws IOException {
+		File file = validateSourcePath(sourcePath);
+
+		long bodySize = file.length() - HEADER_SIZE;
+		if (bodySize < 0 || bodySize % RECORD_SIZE != 0)
+			throw new IllegalArgumentException("The given binary series is truncated");
+
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (input.readInt() != MAGIC)
+				throw new IllegalArgumentException("The given file is not a binary series");
+			int version = input.readInt();
+			if (version != VERSION)
+				throw new IllegalArgumentException("Unsupported version of binary series: " + version);
+
+			ValueDateTupel[] values = ValueDateTupel.createEmptyArray((int) (bodySize / RECORD_SIZE));
+			for (int i = 0; i < values.length; i++) {
+				LocalDateTime date = LocalDateTime.ofEpochSecond(input.readLong(), 0, ZoneOffset.UTC);
+				values[i] = new ValueDateTupel(date, input.readDouble());
+			}
+			return values;
+		}
+	}
+
+	/**
+	 * Writes the given values as binary series to the given path. An existing file is overwritten.
+	 * 
+	 * @param  targetPath               {@code String} The path of the binary series to be written. Must not be null.
+	 * @param  values                   {@code ValueDateTupel[]} The values to be written. Must not be null. Must not
+	 *                                  contain null. Dates must not be null. Fractions of seconds are not written.
+	 * @throws IOException              if writing fails.
+	 * @throws IllegalArgumentException if the given values do not meet specifications.
+	 */
+	public static void writeDataToBinary(String targetPath, ValueDateTupel[] values) throws IOException {
+		if (targetPath == null)
+			throw new IllegalArgumentException("Target path must not be null");
+		if (values == null)
+			throw new IllegalArgumentException("Values must not be null");
+		for (ValueDateTupel value : values) {
+			if (value == null || value.getDate() == null)
+				throw new IllegalArgumentException("Values must not contain null or values without date");
+		}
+
+		try (DataOutputStream output = new DataOutputStream(
+		        new BufferedOutputStream(new FileOutputStream(targetPath)))) {
+			writeHeader(output);
+			for (ValueDateTupel value : values)
+				writeRecord(output, value.getDate(), value.getValue());
+		}
+	}
+
+	/**
+	 * Writes the header of a binary series, i.e. magic number and version, to the given output.
+	 * 
+	 * @param  output      {@link DataOutputStream} The output at the beginning of the binary series.
+	 * @throws IOException if writing fails.
+	 */
+	static void writeHeader(DataOutputStream output) throws IOException {
+		output.writeInt(MAGIC);
+		output.writeInt(VERSION);
+	}
+
+	/**
+	 * Writes the record of the given value to the given output. Fractions of seconds of the given date are not
+	 * written.
+	 * 
+	 * @param  output      {@link DataOutputStream} The output after the header or the previous record.
+	 * @param  date        {@link LocalDateTime} The date of the value. Must not be null.
+	 * @param  value       {@code double} The value.
+	 * @throws IOException if writing fails.
+	 */
+	static void writeRecord(DataOutputStream output, LocalDateTime date, double value) throws IOException {
+		output.writeLong(date.toEpochSecond(ZoneOffset.UTC));
+		output.writeDouble(value);
+	}
+
+	/**
+	 * Validates the given path points to a readable file.
+	 * 
+	 * @param  sourcePath               {@code String} The path to be validated.
+	 * @return                          {@link File} The file the given path points to.
+	 * @throws IOException              if the given path does not point to a readable file.
+	 * @throws IllegalArgumentException if the given path is null.
+	 */
+	private static File validateSourcePath(String sourcePath) throws IOException {
+		if (sourcePath == null)
+			throw new IllegalArgumentException("Source path must not be null");
+
+		File file = new File(sourcePath);
+		if (!file.exists())
+			throw new IOException("Given source path does not point to an existing destination");
+		if (!file.isFile())
+			throw new IOException("Given source path does not point to a file");
+		if (!file.canRead())
+			throw new IOException("Given file path cannot be read");
+		return file;
+	}
+}
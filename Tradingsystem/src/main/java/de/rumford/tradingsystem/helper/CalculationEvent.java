@@ -0,0 +1,130 @@
+package de.rumford.tradingsystem.helper;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The CalculationEvent is the base of the Java Flight Recorder events emitted by the calculation stages of this
+ * library, from loading a CSV file to the backtest. Each stage has its own event type nested in this class, so stages
+ * can be enabled and given thresholds independently, e.g. in a .jfc file or by
+ * {@code -XX:StartFlightRecording:settings=...}.
+ * <p>
+ * A stage creates its event and calls {@link #begin()} before calculating and
+ * {@link #commit(String, String, int)} afterwards. If no recording is running or the event is disabled, the event is
+ * discarded without its fields being set. Events of stages throwing an exception are not committed.
+ * 
+ * @author Max Rumford
+ */
+@Category("Tradingsystem")
+public abstract class CalculationEvent extends Event {
+
+	/*
+	 * The fields are not private, as the recorder only includes fields of a super class of the committed event type
+	 * that are visible to it.
+	 */
+	/* The name of the processed instrument, e.g. the base value's name or the loaded file. */
+	@Label("Instrument")
+	String instrument;
+	/* The simple class name of the processed rule, if the stage belongs to a rule. */
+	@Label("Rule Type")
+	String ruleType;
+	/* The number of values processed or created by the stage. */
+	@Label("Series Length")
+	int seriesLength;
+
+	/**
+	 * Ends the timing of this event and commits it with the given fields, if it is enabled and its duration passes the
+	 * configured threshold.
+	 * 
+	 * @param instrument   {@code String} The name of the processed instrument. May be null.
+	 * @param ruleType     {@code String} The simple class name of the processed rule. May be null.
+	 * @param seriesLength {@code int} The number of values processed or created.
+	 */
+	public void commit(String instrument, String ruleType, int seriesLength) {
+		this.end();
+		if (this.shouldCommit()) {
+			this.instrument = instrument;
+			this.ruleType = ruleType;
+			this.seriesLength = seriesLength;
+			this.commit();
+		}
+	}
+
+	/**
+	 * Emitted by {@link DataSource#getDataFromCsv(String, CsvFormat)}. The instrument is the path of the read file.
+	 */
+	@Name("de.rumford.tradingsystem.CsvLoad")
+	@Label("CSV Load")
+	@Description("Reading and parsing a CSV file")
+	public static final class CsvLoad extends CalculationEvent {
+	}
+
+	/**
+	 * Emitted by {@link ValueDateTupel#alignDates(ValueDateTupel[][])}. The series length is the length of the aligned
+	 * arrays.
+	 */
+	@Name("de.rumford.tradingsystem.Alignment")
+	@Label("Alignment")
+	@Description("Aligning the dates of multiple series")
+	public static final class Alignment extends CalculationEvent {
+	}
+
+	/**
+	 * Emitted upon creation of a base value, covering its short index and standard deviation values.
+	 */
+	@Name("de.rumford.tradingsystem.BaseValueDerivation")
+	@Label("Base Value Derivation")
+	@Description("Calculating the short index and standard deviation values of a base value")
+	public static final class BaseValueDerivation extends CalculationEvent {
+	}
+
+	/**
+	 * Emitted upon calculation of a rule's forecasts, covering its standard deviation adjusted forecasts, forecast
+	 * scalar and scaled forecasts.
+	 */
+	@Name("de.rumford.tradingsystem.RuleForecast")
+	@Label("Rule Forecast")
+	@Description("Calculating the forecasts of a rule")
+	public static final class RuleForecast extends CalculationEvent {
+	}
+
+	/**
+	 * Emitted upon calculation of a rule's forecast scalar, nested in its {@link RuleForecast}.
+	 */
+	@Name("de.rumford.tradingsystem.ForecastScalar")
+	@Label("Forecast Scalar")
+	@Description("Calculating the forecast scalar of a rule")
+	public static final class ForecastScalar extends CalculationEvent {
+	}
+
+	/**
+	 * Emitted upon creation of a diversification multiplier for the rules of a sub system.
+	 */
+	@Name("de.rumford.tradingsystem.DiversificationMultiplier")
+	@Label("Diversification Multiplier")
+	@Description("Calculating the diversification multiplier of rules")
+	public static final class DiversificationMultiplier extends CalculationEvent {
+	}
+
+	/**
+	 * Emitted upon calculation of the combined forecasts of a sub system.
+	 */
+	@Name("de.rumford.tradingsystem.CombinedForecast")
+	@Label("Combined Forecast")
+	@Description("Combining the forecasts of the rules of a sub system")
+	public static final class CombinedForecast extends CalculationEvent {
+	}
+
+	/**
+	 * Emitted by the backtest and the calculation of the performance values of a sub system. The series length is the
+	 * number of values of the test window.
+	 */
+	@Name("de.rumford.tradingsystem.Backtest")
+	@Label("Backtest")
+	@Description("Trading a sub system's forecasts over a test window")
+	public static final class Backtest extends CalculationEvent {
+	}
+}
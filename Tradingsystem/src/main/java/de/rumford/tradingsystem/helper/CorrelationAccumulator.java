@@ -0,0 +1,225 @@
+package de.rumford.tradingsystem.helper;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * The CorrelationAccumulator calculates the Pearson correlations between any number of series of values incrementally.
+ * <p>
+ * Instead of keeping all values, only the number of observations, the mean of each series and the co-moments (sum of
+ * products of the deviations from the mean) of each pair of series are kept. Those are updated for every new
+ * observation in a numerically stable way (Welford's method), so an additional observation costs {@code O(n^2)} for n
+ * series, independent of the number of previous observations.
+ * <p>
+ * The co-moments of different series are independent of each other, so they are updated in parallel for large numbers
+ * of series. An instance of this class itself is not thread-safe.
+ * 
+ * @author Max Rumford
+ */
+public class CorrelationAccumulator {
+
+	/* The number of series from which on the co-moments are updated in parallel. */
+	private static final int PARALLEL_THRESHOLD = 64;
+
+	/* The number of series. */
+	private final int dimension;
+	/* The number of observations accepted so far. */
+	private long count;
+	/* The mean of each series. */
+	private final double[] means;
+	/* The co-moments of each pair of series. Only the upper triangle (column >= row) is used. */
+	private final double[][] coMoments;
+
+	/**
+	 * Creates a new CorrelationAccumulator for the given number of series.
+	 * 
+	 * @param  dimension                {@code int} The number of series. Must be at least 1.
+	 * @throws IllegalArgumentException if the given dimension is less than 1.
+	 */
+	public CorrelationAccumulator(int dimension) {
+		if (dimension < 1)
+			throw new IllegalArgumentException("Dimension must be at least 1");
+
+		this.dimension = dimension;
+		this.means = new double[dimension];
+		this.coMoments = new double[dimension][dimension];
+	}
+
+	/**
+	 * Accepts one observation, i.e. the next value of each series.
+	 * 
+	 * @param  observation              {@code double[]} One value per series. Must not be null. Must be of the length
+	 *                                  of this accumulator's dimension.
+	 * @throws IllegalArgumentException if the given observation does not meet specifications.
+	 */
+	public void accept(double[] observation) {
+		this.validateObservation(observation);
+
+		this.count++;
+		final double factor = (this.count - 1d) / this.count;
+
+		/* Deviations from the means before this observation. */
+		double[] deviations = new double[this.dimension];
+		for (int i = 0; i < this.dimension; i++) {
+			deviations[i] = observation[i] - this.means[i];
+			this.means[i] += deviations[i] / this.count;
+		}
+
+		this.forEachRow(row -> {
+			double[] coMomentsRow = this.coMoments[row];
+			double scaledDeviation = deviations[row] * factor;
+			for (int column = row; column < this.dimension; column++)
+				coMomentsRow[column] += scaledDeviation * deviations[column];
+		});
+	}
+
+	/**
+	 * Accepts all given observations in the given order. Yields the same correlations as accepting each observation
+	 * separately (except for rounding), but first calculates the deviations of all observations for each series and
+	 * then sums up the co-moments row by row. Thus all rows can be processed in parallel without any coordination per
+	 * observation.
+	 * 
+	 * @param  observations             {@code double[][]} The observations, each containing one value per series. Must
+	 *                                  not be null. Each observation must meet the specifications of
+	 *                                  {@link #accept(double[])}.
+	 * @throws IllegalArgumentException if the given observations do not meet specifications.
+	 */
+	public void acceptAll(double[][] observations) {
+		if (observations == null)
+			throw new IllegalArgumentException("Observations must not be null");
+		for (double[] observation : observations)
+			this.validateObservation(observation);
+
+		final int numberOfObservations = observations.length;
+		final long previousCount = this.count;
+
+		/* The factor of each observation as in accept(double[]). */
+		double[] factors = new double[numberOfObservations];
+		for (int t = 0; t < numberOfObservations; t++) {
+			long countAtT = previousCount + t + 1;
+			factors[t] = (countAtT - 1d) / countAtT;
+		}
+
+		/* The deviations per series, calculated series by series. */
+		double[][] deviations = new double[this.dimension][numberOfObservations];
+		this.forEachRow(series -> {
+			double mean = this.means[series];
+			double[] seriesDeviations = deviations[series];
+			for (int t = 0; t < numberOfObservations; t++) {
+				seriesDeviations[t] = observations[t][series] - mean;
+				mean += seriesDeviations[t] / (previousCount + t + 1);
+			}
+			this.means[series] = mean;
+		});
+
+		this.forEachRow(row -> {
+			double[] rowDeviations = deviations[row];
+			double[] coMomentsRow = this.coMoments[row];
+			for (int column = row; column < this.dimension; column++) {
+				double[] columnDeviations = deviations[column];
+				double sum = 0;
+				for (int t = 0; t < numberOfObservations; t++)
+					sum += rowDeviations[t] * factors[t] * columnDeviations[t];
+				coMomentsRow[column] += sum;
+			}
+		});
+
+		this.count += numberOfObservations;
+	}
+
+	/**
+	 * Get the correlation matrix of all series accepted so far.
+	 * 
+	 * @return {@code double[][]} A square matrix of correlations, where position [i][j] holds the correlation of series
+	 *         i and j. The diagonal always holds 1. Correlations involving a series without any variance are
+	 *         Double.NaN.
+	 */
+	public double[][] getCorrelations() {
+		double[][] correlations = new double[this.dimension][this.dimension];
+		for (int row = 0; row < this.dimension; row++) {
+			correlations[row][row] = 1;
+			for (int column = row + 1; column < this.dimension; column++) {
+				double denominator = Math.sqrt(this.coMoments[row][row] * this.coMoments[column][column]);
+				double correlation = denominator == 0 ? Double.NaN : this.coMoments[row][column] / denominator;
+				/* Rounding may lead to values slightly out of bounds. */
+				correlation = Math.max(-1, Math.min(1, correlation));
+				correlations[row][column] = correlation;
+				correlations[column][row] = correlation;
+			}
+		}
+		return correlations;
+	}
+
+	/**
+	 * Runs the given action for each row, in parallel if the number of series is large enough to benefit from it.
+	 * 
+	 * @param action {@link IntConsumer} The action to be run for each row.
+	 */
+	private void forEachRow(IntConsumer action) {
+		IntStream rows = IntStream.range(0, this.dimension);
+		if (this.dimension >= PARALLEL_THRESHOLD)
+			rows = rows.parallel();
+		rows.forEach(action);
+	}
+
+	/**
+	 * Validates the given observation.
+	 * 
+	 * @param  observation              {@code double[]} Must not be null. Must be of the length of this accumulator's
+	 *                                  dimension.
+	 * @throws IllegalArgumentException if the given observation does not meet specifications.
+	 */
+	private void validateObservation(double[] observation) {
+		if (observation == null)
+			throw new IllegalArgumentException("Observation must not be null");
+		if (observation.length != this.dimension)
+			throw new IllegalArgumentException("Observation must contain " + this.dimension + " values but contains "
+			        + observation.length + ".");
+	}
+
+	/**
+	 * ====================================================================== OVERRIDES
+	 * ======================================================================
+	 */
+
+	/**
+	 * Outputs the fields of this CorrelationAccumulator as a {@code String}.
+	 */
+	@GeneratedCode
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("CorrelationAccumulator [dimension=");
+		builder.append(dimension);
+		builder.append(", count=");
+		builder.append(count);
+		builder.append(", means=");
+		builder.append(Arrays.toString(means));
+		builder.append("]");
+		return builder.toString();
+	}
+
+	/**
+	 * ====================================================================== GETTERS AND SETTERS
+	 * ======================================================================
+	 */
+
+	/**
+	 * Get the number of series of this CorrelationAccumulator.
+	 * 
+	 * @return {@code int} The number of series.
+	 */
+	public int getDimension() {
+		return dimension;
+	}
+
+	/**
+	 * Get the number of observations accepted so far.
+	 * 
+	 * @return {@code long} The number of observations.
+	 */
+	public long getCount() {
+		return count;
+	}
+}
@@ -0,0 +1,258 @@
+package de.rumford.tradingsystem.helper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The CsvFollower reads the rows appended to a CSV file since it was last polled, e.g. of a file a vendor appends to
+ * throughout the day. The rows are of the same columns and formats as read by
+ * {@link DataSource#getDataFromCsv(String, CsvFormat)}.
+ * <p>
+ * The follower remembers the byte offset after the last row it parsed, so every {@link #poll()} reads the newly
+ * appended bytes only instead of the whole file. A last row not yet terminated by a line break is considered
+ * incomplete: it is not parsed until its line break has been appended. The rows polled can be passed on to a
+ * {@link de.rumford.tradingsystem.LiveSubSystem} by
+ * {@link de.rumford.tradingsystem.LiveSubSystem#follow(CsvFollower)}, which polls by {@link #poll(Consumer)} so only
+ * the rows actually applied are consumed.
+ * <p>
+ * A CsvFollower is not thread-safe and is meant to be polled by one thread.
+ * 
+ * @author Max Rumford
+ */
+public class CsvFollower {
+
+	/* The number of bytes read from the file at once. */
+	private static final int READ_BUFFER_SIZE = 8192;
+
+	/* The path of the followed CSV file. */
+	private final Path path;
+	/* The format of the followed CSV file. */
+	private final CsvFormat format;
+	/* The byte offset after the last parsed row. */
+	private long offset;
+
+	/**
+	 * Follows the CSV file at the given path from its beginning.
+	 * 
+	 * @param  path                     {@link Path} The path of the CSV file. Must not be null.
+	 * @param  format                   {@link CsvFormat} The format of the CSV file. Must not be null.
+	 * @throws IllegalArgumentException if the given path or format is null.
+	 */
+	public CsvFollower(Path path, CsvFormat format) {
+		this(path, format, 0);
+	}
+
+	/**
+	 * Follows the CSV file at the given path from the given byte offset, e.g. the {@link #getOffset()} of a previous
+	 * follower of the same file.
+	 * 
+	 * @param  path                     {@link Path} The path of the CSV file. Must not be null.
+	 * @param  format                   {@link CsvFormat} The format of the CSV file. Must not be null.
+	 * @param  offset                   {@code long} The byte offset of the first row to be read. Must not be negative.
+	 * @throws IllegalArgumentException if the above specifications are not met.
+	 */
+	public CsvFollower(Path path, CsvFormat format, long offset) {
+		if (path == null)
+			throw new IllegalArgumentException("Path must not be null");
+		if (format == null)
+			throw new IllegalArgumentException("Format must not be null");
+		if (offset < 0)
+			throw new IllegalArgumentException("Offset must not be negative but is " + offset);
+
+		this.path = path;
+		this.format = format;
+		this.setOffset(offset);
+	}
+
+	/**
+	 * Parses the complete rows appended since the last poll. If any of these rows cannot be parsed, none of them is
+	 * consumed, so the offset stays unchanged.
+	 * 
+	 * @return                          {@code ValueDateTupel[]} The parsed rows in the order of the file. Empty if no
+	 *                                  complete row has been appended.
+	 * @throws IOException              if the file cannot be read or has become shorter than the offset, e.g. by
+	 *                                  being replaced.
+	 * @throws IllegalArgumentException if any of the appended rows cannot be parsed.
+	 */
+	public ValueDateTupel[] poll() throws IOException {
+		List<ValueDateTupel> rows = new ArrayList<>();
+		long[] newOffset = { this.getOffset() };
+
+		this.readLines((line, end) -> {
+			rows.add(DataSource.parseLine(line, this.getFormat()));
+			newOffset[0] = end;
+		});
+
+		this.setOffset(newOffset[0]);
+		Metrics.getRegistry().counter(Metrics.CSV_ROWS_READ, this.getPath().toString()).increment(rows.size());
+		return rows.toArray(ValueDateTupel.createEmptyArray());
+	}
+
+	/**
+	 * Parses the complete rows appended since the last poll one by one and passes each to the given consumer. The
+	 * offset is moved after a row once the consumer has returned, so a row is consumed only if it was applied: If a row
+	 * cannot be parsed or the consumer throws an exception, the offset stays before that row and the next poll starts
+	 * with it.
+	 * 
+	 * @param  consumer                 {@code Consumer<ValueDateTupel>} The consumer of the parsed rows in the order
+	 *                                  of the file. Must not be null.
+	 * @return                          {@code int} The number of rows consumed.
+	 * @throws IOException              if the file cannot be read or has become shorter than the offset, e.g. by
+	 *                                  being replaced.
+	 * @throws IllegalArgumentException if the given consumer is null or if any of the appended rows cannot be parsed.
+	 */
+	public int poll(Consumer<ValueDateTupel> consumer) throws IOException {
+		if (consumer == null)
+			throw new IllegalArgumentException("Consumer must not be null");
+
+		int[] consumed = { 0 };
+		try {
+			this.readLines((line, end) -> {
+				consumer.accept(DataSource.parseLine(line, this.getFormat()));
+				this.setOffset(end);
+				consumed[0]++;
+			});
+		} finally {
+			Metrics.getRegistry().counter(Metrics.CSV_ROWS_READ, this.getPath().toString()).increment(consumed[0]);
+		}
+		return consumed[0];
+	}
+
+	/**
+	 * Reads the complete lines appended after the offset and passes each to the given handler. Only reads up to the
+	 * size of the file when called, lines appended meanwhile are read by the next call.
+	 * 
+	 * @param  handler     {@link LineHandler} The handler of the lines in the order of the file.
+	 * @throws IOException if the file cannot be read or has become shorter than the offset.
+	 */
+	private void readLines(LineHandler handler) throws IOException {
+		try (FileChannel channel = FileChannel.open(this.getPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			long position = this.getOffset();
+			if (size < position)
+				throw new IOException("The followed file is shorter than the offset of " + position + " bytes");
+
+			ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+			ByteArrayOutputStream line = new ByteArrayOutputStream();
+			while (position < size) {
+				buffer.clear();
+				if (size - position < buffer.capacity())
+					buffer.limit((int) (size - position));
+				int read = channel.read(buffer, position);
+				if (read < 0)
+					break;
+				buffer.flip();
+				while (buffer.hasRemaining()) {
+					byte b = buffer.get();
+					position++;
+					if (b != '\n') {
+						line.write(b);
+						continue;
+					}
+					handler.handle(this.decodeLine(line), position);
+					line.reset();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Decodes the given bytes of a row, dropping the carriage return of a Windows line break. The bytes are decoded in
+	 * the default charset, as {@link DataSource#getDataFromCsv(String, CsvFormat)} does.
+	 * 
+	 * @param  line {@link ByteArrayOutputStream} The bytes of the row without the line feed.
+	 * @return      {@code String} The decoded row.
+	 */
+	private String decodeLine(ByteArrayOutputStream line) {
+		byte[] bytes = line.toByteArray();
+		int length = bytes.length;
+		if (length > 0 && bytes[length - 1] == '\r')
+			length--;
+		return new String(bytes, 0, length, Charset.defaultCharset());
+	}
+
+	/**
+	 * A handler of the lines read by {@link CsvFollower#readLines(LineHandler)}.
+	 */
+	@FunctionalInterface
+	private interface LineHandler {
+		/**
+		 * Handles the given line.
+		 * 
+		 * @param line {@code String} The line without its line break.
+		 * @param end  {@code long} The byte offset after the line break of the line.
+		 */
+		void handle(String line, long end);
+	}
+
+	/**
+	 * ====================================================================== OVERRIDES
+	 * ======================================================================
+	 */
+
+	/**
+	 * Outputs the fields of this CsvFollower as a {@code String}.
+	 */
+	@GeneratedCode
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("CsvFollower [path=");
+		builder.append(path);
+		builder.append(", format=");
+		builder.append(format);
+		builder.append(", offset=");
+		builder.append(offset);
+		builder.append("]");
+		return builder.toString();
+	}
+
+	/**
+	 * ====================================================================== GETTERS AND SETTERS
+	 * ======================================================================
+	 */
+
+	/**
+	 * Get the path of the followed CSV file.
+	 * 
+	 * @return {@link Path} The path of the CSV file.
+	 */
+	public Path getPath() {
+		return this.path;
+	}
+
+	/**
+	 * Get the format of the followed CSV file.
+	 * 
+	 * @return {@link CsvFormat} The format of the CSV file.
+	 */
+	public CsvFormat getFormat() {
+		return this.format;
+	}
+
+	/**
+	 * Get the byte offset after the last parsed row, i.e. where the next poll starts reading.
+	 * 
+	 * @return {@code long} The byte offset after the last parsed row.
+	 */
+	public long getOffset() {
+		return this.offset;
+	}
+
+	/**
+	 * Set the byte offset after the last parsed row.
+	 * 
+	 * @param offset {@code long} The byte offset to be set.
+	 */
+	private void setOffset(long offset) {
+		this.offset = offset;
+	}
+}
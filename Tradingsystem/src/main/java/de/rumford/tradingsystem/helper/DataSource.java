@@ -2,9 +2,10 @@ package de.rumford.tradingsystem.helper;
 
 import java.io.*;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Pattern;
-
-import org.apache.commons.lang3.ArrayUtils;
+import java.util.zip.GZIPInputStream;
 
 /**
  * The DataSource provides course value data from a given data source.
@@ -13,6 +14,11 @@ import org.apache.commons.lang3.ArrayUtils;
  */
 public class DataSource {
 
+	/* The first two bytes of every GZIP member. */
+	private static final int GZIP_MAGIC = 0x8b1f;
+	/* The size of the buffer of the compressed bytes. */
+	private static final int GZIP_BUFFER_SIZE = 1 << 16;
+
 	/**
 	 * Don't let anyone instantiate this class.
 	 */
@@ -28,12 +34,16 @@ public class DataSource {
 	 * be parsed and an IllegalArgumentException as explained below might be thrown. If the row can be parsed it will
 	 * most likely not contain any useful information and might result in incorrect calculation results. The CSV file
 	 * should always be cleared of headings.
+	 * <p>
+	 * CSV files compressed by GZIP, e.g. "DAX.csv.gz", are recognized by their first bytes regardless of their name and
+	 * are decompressed while being parsed, without writing the decompressed file anywhere. Files of several
+	 * concatenated GZIP members, e.g. block compressed ones, are read as a whole.
 	 * 
 	 * @param  sourcePath               {@code String} The path to the CSV file to be read.
 	 * @param  format                   {@link CsvFormat} The format of the CSV file.
 	 * @return                          {@code ValueDateTupel[]} An array of {@link ValueDateTupel} representing the
 	 *                                  read data.
-	 * @throws FileNotFoundException    if the FileReader can not find a file for the given {@code sourcePath}.
+	 * @throws FileNotFoundException    if the FileInputStream can not find a file for the given {@code sourcePath}.
 	 * @throws IOException              if the given {@code sourcePath} cannot be properly resolved to an actual file.
 	 * @throws IllegalArgumentException if the given path is invalid.
 	 * @throws IllegalArgumentException if any of the rows in the read CSV file does not contain exactly 3 columns.
@@ -53,41 +63,85 @@ public class DataSource {
 		if (!file.canRead())
 			throw new IOException("Given file path cannot be read");
 
-		try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+		long startNanos = System.nanoTime();
+		CalculationEvent event = new CalculationEvent.CsvLoad();
+		event.begin();
+		try (BufferedReader br = new BufferedReader(new InputStreamReader(openInputStream(file)))) {
 			String line;
 
-			ValueDateTupel[] returnValues = ValueDateTupel.createEmptyArray();
-			while ((line = br.readLine()) != null) {
-				/* Extract the fields into separate Strings */
-				String[] columns = line.split(Pattern.quote(format.getFieldSeparator()));
-
-				if (columns.length != 3) {
-					throw new IllegalArgumentException(
-					        "The passed CSV does not have an appropriate number of" + " columns");
-				}
-
-				/*
-				 * Parse the first and second field (date, time) into a LocalDateTime instance
-				 */
-				String[] dateAndTimeStrings = new String[2];
-				System.arraycopy(columns, 0, dateAndTimeStrings, 0, 2);
-				LocalDateTime localDateTime;
-				double value;
-				localDateTime = parseLocalDateTime(dateAndTimeStrings, format);
-
-				/* Pass the third field (course value) into a double */
-				String[] valueStrings = new String[1];
-				System.arraycopy(columns, 2, valueStrings, 0, 1);
-				value = parseCourseValue(valueStrings, format);
-
-				ValueDateTupel newElement = new ValueDateTupel(localDateTime, value);
-
-				returnValues = ArrayUtils.add(returnValues, newElement);
-			}
-			return returnValues;
+			/* Collect into a list, extending an array per row would copy all previous rows each time. */
+			List<ValueDateTupel> returnValues = new ArrayList<>();
+			while ((line = br.readLine()) != null)
+				returnValues.add(parseLine(line, format));
+			event.commit(sourcePath, null, returnValues.size());
+			MetricsRegistry registry = Metrics.getRegistry();
+			registry.counter(Metrics.CSV_ROWS_READ, sourcePath).increment(returnValues.size());
+			registry.timer(Metrics.CSV_LOAD_DURATION, sourcePath).record(System.nanoTime() - startNanos);
+			return returnValues.toArray(ValueDateTupel.createEmptyArray());
+		}
+	}
+
+	/**
+	 * Opens the given file for reading, decompressing it on the fly if it is compressed by GZIP.
+	 * 
+	 * @param  file        {@link File} The file to be opened.
+	 * @return             {@link InputStream} The uncompressed contents of the given file.
+	 * @throws IOException if the file cannot be opened or its GZIP header cannot be read.
+	 */
+	private static InputStream openInputStream(File file) throws IOException {
+		InputStream input = new BufferedInputStream(new FileInputStream(file), GZIP_BUFFER_SIZE);
+		try {
+			input.mark(2);
+			int first = input.read();
+			int second = input.read();
+			input.reset();
+			/* GZIP stores its magic number in little-endian byte order. */
+			if (first != -1 && second != -1 && (first | second << 8) == GZIP_MAGIC)
+				return new GZIPInputStream(input, GZIP_BUFFER_SIZE);
+			return input;
+		} catch (IOException | RuntimeException e) {
+			input.close();
+			throw e;
 		}
 	}
 
+	/**
+	 * Parses a single row of a CSV file into a {@link ValueDateTupel}. Assumes the "columns" Date, Time, value, as in
+	 * {@link #getDataFromCsv(String, CsvFormat)}.
+	 * 
+	 * @param  line                     {@code String} The row to be parsed, without line terminator.
+	 * @param  format                   {@link CsvFormat} The format of the CSV file.
+	 * @return                          {@link ValueDateTupel} The parsed row.
+	 * @throws IllegalArgumentException if the row does not contain exactly 3 columns or cannot be parsed.
+	 */
+	static ValueDateTupel parseLine(String line, CsvFormat format) {
+		/* Extract the fields into separate Strings */
+		String[] columns = line.split(Pattern.quote(format.getFieldSeparator()));
+
+		if (columns.length != 3) {
+			throw new IllegalArgumentException(
+			        "The passed CSV does not have an appropriate number of" + " columns");
+		}
+
+		/*
+		 * Parse the first and second field (date, time) into a LocalDateTime instance
+		 */
+		String[] dateAndTimeStrings = new String[2];
+		System.arraycopy(columns, 0, dateAndTimeStrings, 0, 2);
+		LocalDateTime localDateTime;
+		double value;
+		localDateTime = parseLocalDateTime(dateAndTimeStrings, format);
+
+		/* Pass the third field (course value) into a double */
+		String[] valueStrings = new String[1];
+		System.arraycopy(columns, 2, valueStrings, 0, 1);
+		value = parseCourseValue(valueStrings, format);
+
+		ValueDateTupel newElement = new ValueDateTupel(localDateTime, value);
+
+		return newElement;
+	}
+
 	/**
 	 * Parse the given columns {date, time} into a {@link LocalDateTime} instance. Expects an array of Strings of length
 	 * 2.
@@ -0,0 +1,389 @@
+package de.rumford.tradingsystem.helper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+/**
+ * The DerivedSeriesCache stores series derived from other series on disk, so they are not recalculated of identical
+ * inputs across runs. Every entry is a file in the {@link BinarySeries} format named after its key, which is the
+ * {@link Fingerprint} of the computation, the fingerprint of its input, its parameters, {@link #VERSION} and the
+ * version of this library. As the key changes with any of these, entries are never invalidated; outdated entries are
+ * simply no longer looked up and the directory can be cleared at any time.
+ * <p>
+ * Causal computations, whose derived value at a position depends on the input values up to that position only (e.g.
+ * EWMAs), are consulted by {@link #computeCausal(String, ValueDateTupel[], long[], CausalCalculation)}: If there is no
+ * entry for the whole input, the entries of its last {@link #MAX_PREFIX_PROBES} prefixes are looked up and the longest
+ * one found is continued. So a nightly rerun where the last value was appended calculates only that value.
+ * <p>
+ * The cache is best effort: Entries that cannot be read or written are logged and treated as missing. Entries are
+ * written to a temporary file first and moved into place atomically, so concurrent runs sharing a directory never read
+ * a partial entry. Until a cache is set by {@link #setCache(DerivedSeriesCache)}, {@link #DISABLED} caches nothing.
+ * 
+ * @author Max Rumford
+ */
+public final class DerivedSeriesCache {
+
+	/*
+	 * The version of the cached calculations. Must be increased whenever a cached calculation changes its results, so
+	 * outdated entries are no longer found.
+	 */
+	public static final int VERSION = 1;
+	/* The number of prefixes of an input looked up for causal computations. */
+	public static final int MAX_PREFIX_PROBES = 5;
+	/* The cache caching nothing. */
+	public static final DerivedSeriesCache DISABLED = new DerivedSeriesCache();
+
+	/* The file extension of entries. */
+	static final String EXTENSION = ".tsbs";
+
+	/* The logger of this class, used to report unreadable and unwritable entries. */
+	private static final Logger logger = Logger.getLogger(DerivedSeriesCache.class);
+	/* The resource holding the version of this library, filled in by the build. */
+	static final String VERSION_RESOURCE = "version.properties";
+	/* The version of this library, null if unknown. */
+	static final String IMPLEMENTATION_VERSION = readImplementationVersion();
+	/* The fingerprint of the version of this library, the start of every key. */
+	private static final Fingerprint VERSION_FINGERPRINT = versionFingerprint(IMPLEMENTATION_VERSION);
+
+	/* The cache all calculations consult. */
+	private static volatile DerivedSeriesCache cache = DISABLED;
+
+	/* The directory of the entries, null if disabled. */
+	private final Path directory;
+	/* The number of lookups finding an entry. */
+	private final AtomicLong hits = new AtomicLong();
+	/* The number of lookups finding no entry. */
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Creates the disabled cache.
+	 */
+	private DerivedSeriesCache() {
+		this.directory = null;
+	}
+
+	/**
+	 * Creates a new cache storing its entries in the given directory, which is created if it does not exist.
+	 * 
+	 * @param  directory                {@link Path} The directory of the entries. Must not be null.
+	 * @throws IOException              if the directory cannot be created.
+	 * @throws IllegalArgumentException if the given directory is null.
+	 */
+	public DerivedSeriesCache(Path directory) throws IOException {
+		if (directory == null)
+			throw new IllegalArgumentException("Directory must not be null");
+		this.directory = Files.createDirectories(directory);
+	}
+
+	/**
+	 * Get the cache all calculations consult.
+	 * 
+	 * @return {@link DerivedSeriesCache} The current cache.
+	 */
+	public static DerivedSeriesCache getCache() {
+		return cache;
+	}
+
+	/**
+	 * Get the version of this library, filled in by the build. Values derived by another version of this library may
+	 * have been calculated differently.
+	 * 
+	 * @return {@code String} The version of this library, null if unknown.
+	 */
+	public static String getImplementationVersion() {
+		return IMPLEMENTATION_VERSION;
+	}
+
+	/**
+	 * Set the cache all calculations consult from now on. Set {@link #DISABLED} to stop caching.
+	 * 
+	 * @param  cache                    {@link DerivedSeriesCache} The cache. Must not be null.
+	 * @throws IllegalArgumentException if the given cache is null.
+	 */
+	public static void setCache(DerivedSeriesCache cache) {
+		if (cache == null)
+			throw new IllegalArgumentException("Cache must not be null");
+		DerivedSeriesCache.cache = cache;
+	}
+
+	/**
+	 * Reads the version of this library from {@link #VERSION_RESOURCE}. Logs a warning if the version is unknown, e.g.
+	 * if the classes were compiled without the build filling in the resource, as the entries of different versions of
+	 * this library then share their keys.
+	 * 
+	 * @return {@code String} The version of this library, null if unknown.
+	 */
+	private static String readImplementationVersion() {
+		String version = null;
+		try (InputStream stream = DerivedSeriesCache.class.getResourceAsStream(VERSION_RESOURCE)) {
+			if (stream != null) {
+				Properties properties = new Properties();
+				properties.load(stream);
+				version = properties.getProperty("version");
+			}
+		} catch (IOException e) {
+			logger.warn("Resource " + VERSION_RESOURCE + " could not be read", e);
+		}
+
+		if (version == null || version.isBlank() || version.startsWith("${")) {
+			logger.warn("The version of this library is unknown. Clear the cache directories after updating it, as "
+			        + "entries of its previous version are not told apart.");
+			return null;
+		}
+		return version;
+	}
+
+	/**
+	 * Creates the fingerprint of the given version of this library, the start of every key.
+	 * 
+	 * @param  implementationVersion {@code String} The version of this library, null if unknown.
+	 * @return                       {@link Fingerprint} The fingerprint of {@link #VERSION} and the given version.
+	 */
+	static Fingerprint versionFingerprint(String implementationVersion) {
+		return Fingerprint.EMPTY.with((long) VERSION).with(implementationVersion);
+	}
+
+	/**
+	 * Creates the key of the given computation of the given input.
+	 * 
+	 * @param  computation {@code String} The name of the computation, e.g. "EWMA".
+	 * @param  input       {@link Fingerprint} The fingerprint of the input.
+	 * @param  parameters  {@code long[]} The parameters of the computation.
+	 * @return             {@link Fingerprint} The key.
+	 */
+	public static Fingerprint key(String computation, Fingerprint input, long... parameters) {
+		return key(VERSION_FINGERPRINT, computation, input, parameters);
+	}
+
+	/**
+	 * Creates the key of the given computation of the given input for the given version of this library.
+	 * 
+	 * @param  version     {@link Fingerprint} The fingerprint of the version, see {@link #versionFingerprint(String)}.
+	 * @param  computation {@code String} The name of the computation, e.g. "EWMA".
+	 * @param  input       {@link Fingerprint} The fingerprint of the input.
+	 * @param  parameters  {@code long[]} The parameters of the computation.
+	 * @return             {@link Fingerprint} The key.
+	 */
+	static Fingerprint key(Fingerprint version, String computation, Fingerprint input, long... parameters) {
+		Fingerprint key = version.with(computation).with(input).with((long) parameters.length);
+		for (long parameter : parameters)
+			key = key.with(parameter);
+		return key;
+	}
+
+	/**
+	 * Get the entry of the given key.
+	 * 
+	 * @param  key {@link Fingerprint} The key.
+	 * @return     {@code ValueDateTupel[]} The cached values, null if there is no readable entry.
+	 */
+	public ValueDateTupel[] get(Fingerprint key) {
+		ValueDateTupel[] values = this.read(key);
+		(values == null ? this.misses : this.hits).incrementAndGet();
+		return values;
+	}
+
+	/**
+	 * Stores the given values as entry of the given key, replacing an existing entry.
+	 * 
+	 * @param key    {@link Fingerprint} The key.
+	 * @param values {@code ValueDateTupel[]} The values. Fractions of seconds of their dates are not stored.
+	 */
+	public void put(Fingerprint key, ValueDateTupel[] values) {
+		if (this.directory == null)
+			return;
+
+		Path temporaryFile = null;
+		try {
+			temporaryFile = Files.createTempFile(this.directory, key.toString(), ".tmp");
+			BinarySeries.writeDataToBinary(temporaryFile.toString(), values);
+			Files.move(temporaryFile, this.getPath(key), StandardCopyOption.ATOMIC_MOVE,
+			        StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException | IllegalArgumentException e) {
+			logger.warn("Entry " + key + " could not be written", e);
+			deleteQuietly(temporaryFile);
+		}
+	}
+
+	/**
+	 * Get the values derived of the given input by the given causal computation, from the cache if possible.
+	 * <p>
+	 * If there is an entry for the whole input, it is returned. Else the longest entry for one of the last
+	 * {@link #MAX_PREFIX_PROBES} prefixes of the input is continued by the given calculation, or all values are
+	 * calculated if there is none. The result is stored for the whole input.
+	 * 
+	 * @param  computation              {@code String} The name of the computation.
+	 * @param  input                    {@code ValueDateTupel[]} The input. Must not be null. Must not be empty.
+	 * @param  parameters               {@code long[]} The parameters of the computation.
+	 * @param  calculation              {@link CausalCalculation} The calculation. Must derive exactly one value of
+	 *                                  each input value, of the same date.
+	 * @return                          {@code ValueDateTupel[]} The derived values.
+	 * @throws IllegalArgumentException if the given input is null or empty.
+	 */
+	public ValueDateTupel[] computeCausal(String computation, ValueDateTupel[] input, long[] parameters,
+	        CausalCalculation calculation) {
+		if (input == null || input.length == 0)
+			throw new IllegalArgumentException("Input must not be null or empty");
+		if (this.directory == null)
+			return calculation.calculate(input, ValueDateTupel.createEmptyArray(0));
+
+		int shortestProbe = Math.max(1, input.length - MAX_PREFIX_PROBES);
+		Fingerprint[] prefixFingerprints = new Fingerprint[input.length - shortestProbe + 1];
+		prefixFingerprints[0] = Fingerprint.EMPTY.with(input, shortestProbe);
+		for (int i = 1; i < prefixFingerprints.length; i++)
+			prefixFingerprints[i] = prefixFingerprints[i - 1].with(input[shortestProbe + i - 1]);
+
+		Fingerprint wholeKey = key(computation, prefixFingerprints[prefixFingerprints.length - 1], parameters);
+		for (int i = prefixFingerprints.length - 1; i >= 0; i--) {
+			Fingerprint prefixKey = i == prefixFingerprints.length - 1 ? wholeKey
+			        : key(computation, prefixFingerprints[i], parameters);
+			ValueDateTupel[] prefix = this.read(prefixKey);
+			if (prefix != null && matchesDates(prefix, input, shortestProbe + i)) {
+				this.hits.incrementAndGet();
+				if (prefix.length == input.length)
+					return prefix;
+				ValueDateTupel[] derived = calculation.calculate(input, prefix);
+				this.put(wholeKey, derived);
+				return derived;
+			}
+		}
+
+		this.misses.incrementAndGet();
+		ValueDateTupel[] derived = calculation.calculate(input, ValueDateTupel.createEmptyArray(0));
+		this.put(wholeKey, derived);
+		return derived;
+	}
+
+	/**
+	 * Get the values derived of the given validated input by the given causal computation, from the cache if possible,
+	 * as specified in {@link #computeCausal(String, ValueDateTupel[], long[], CausalCalculation)}. The values held by
+	 * the input are passed to the calculation without copying them, so the calculation must not alter them.
+	 * 
+	 * @param  computation              {@code String} The name of the computation.
+	 * @param  input                    {@link ValidatedSeries} The input. Must not be null.
+	 * @param  parameters               {@code long[]} The parameters of the computation.
+	 * @param  calculation              {@link CausalCalculation} The calculation. Must derive exactly one value of
+	 *                                  each input value, of the same date. Must not alter the input.
+	 * @return                          {@code ValueDateTupel[]} The derived values.
+	 * @throws IllegalArgumentException if the given input is null.
+	 */
+	public ValueDateTupel[] computeCausal(String computation, ValidatedSeries input, long[] parameters,
+	        CausalCalculation calculation) {
+		if (input == null)
+			throw new IllegalArgumentException("Input must not be null");
+		return this.computeCausal(computation, input.values(), parameters, calculation);
+	}
+
+	/**
+	 * Checks that the given derived values are of the given length and share the dates of the input.
+	 * 
+	 * @param  derived {@code ValueDateTupel[]} The derived values.
+	 * @param  input   {@code ValueDateTupel[]} The input.
+	 * @param  length  {@code int} The expected length.
+	 * @return         {@code boolean} True, if the derived values match.
+	 */
+	private static boolean matchesDates(ValueDateTupel[] derived, ValueDateTupel[] input, int length) {
+		if (derived.length != length)
+			return false;
+		/* Only the last date is compared, the fingerprint in the key covers the others. */
+		LocalDateTime lastDate = input[length - 1].getDate();
+		return derived[length - 1].getDate().equals(lastDate);
+	}
+
+	/**
+	 * Reads the entry of the given key.
+	 * 
+	 * @param  key {@link Fingerprint} The key.
+	 * @return     {@code ValueDateTupel[]} The cached values, null if there is no readable entry.
+	 */
+	private ValueDateTupel[] read(Fingerprint key) {
+		if (this.directory == null)
+			return null;
+
+		Path path = this.getPath(key);
+		if (!Files.isRegularFile(path))
+			return null;
+		try {
+			return BinarySeries.getDataFromBinary(path.toString());
+		} catch (IOException | IllegalArgumentException e) {
+			logger.warn("Entry " + key + " could not be read", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Get the path of the entry of the given key.
+	 * 
+	 * @param  key {@link Fingerprint} The key.
+	 * @return     {@link Path} The path of the entry.
+	 */
+	private Path getPath(Fingerprint key) {
+		return this.directory.resolve(key + EXTENSION);
+	}
+
+	/**
+	 * Deletes the given file, if any, ignoring failures.
+	 * 
+	 * @param path {@link Path} The file to be deleted. May be null.
+	 */
+	private static void deleteQuietly(Path path) {
+		if (path == null)
+			return;
+		try {
+			Files.deleteIfExists(path);
+		} catch (IOException e) {
+			logger.warn("Temporary file " + path + " could not be deleted", e);
+		}
+	}
+
+	/**
+	 * Get the directory of the entries.
+	 * 
+	 * @return {@link Path} The directory, null if this cache is {@link #DISABLED}.
+	 */
+	public Path getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Get the number of lookups that found an entry, including prefixes of causal computations.
+	 * 
+	 * @return {@code long} The number of hits.
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Get the number of lookups that found no entry.
+	 * 
+	 * @return {@code long} The number of misses.
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * A causal computation continuing already derived values of the first input values.
+	 */
+	@FunctionalInterface
+	public interface CausalCalculation {
+		/**
+		 * Derives the values of the given input, continuing the given derived values of its first values.
+		 * 
+		 * @param  input   {@code ValueDateTupel[]} The input.
+		 * @param  derived {@code ValueDateTupel[]} The values already derived of the first values of the input, empty
+		 *                 if none. Must not be altered.
+		 * @return         {@code ValueDateTupel[]} One derived value of each input value.
+		 */
+		ValueDateTupel[] calculate(ValueDateTupel[] input, ValueDateTupel[] derived);
+	}
+}
@@ -0,0 +1,278 @@
+package de.rumford.tradingsystem.helper;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * The Fingerprint is a 128 bit hash of the contents of an object, e.g. all values of a base value. It lets objects be
+ * compared in constant time once their fingerprints are calculated and serves as a key for caching values derived from
+ * them.
+ * <p>
+ * A fingerprint is extended one value at a time by the {@code with} methods, each returning a new fingerprint. The
+ * order of the values matters. Extending the fingerprint of a series by an appended value results in the fingerprint
+ * of the whole series, so fingerprints of growing series are kept up to date in constant time per value.
+ * <p>
+ * Two independent lanes of 64 bits each mix every value. Equal fingerprints of different contents are possible, but
+ * with a probability of about 2^-64 for any pair of not deliberately crafted contents, far below that of a hardware
+ * error.
+ * 
+ * @author Max Rumford
+ */
+public final class Fingerprint {
+
+	/* The fingerprint of no values, every fingerprint starts from. */
+	public static final Fingerprint EMPTY = new Fingerprint(0x243F6A8885A308D3L, 0x13198A2E03707344L);
+
+	/* Odd multipliers of the lanes, taken from the golden ratio and from MurmurHash3. */
+	private static final long HIGH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+	private static final long LOW_MULTIPLIER = 0xC6A4A7935BD1E995L;
+	/* Keys making the lanes mix the same value differently. */
+	private static final long HIGH_KEY = 0xA4093822299F31D0L;
+	private static final long LOW_KEY = 0x082EFA98EC4E6C89L;
+	/* Mixed for a null value, so null differs from any other value. */
+	private static final long NULL_MARKER = 0x452821E638D01377L;
+
+	/* The first 64 bits. */
+	private final long high;
+	/* The last 64 bits. */
+	private final long low;
+
+	/**
+	 * Creates a fingerprint of the given bits.
+	 * 
+	 * @param high {@code long} The first 64 bits.
+	 * @param low  {@code long} The last 64 bits.
+	 */
+	public Fingerprint(long high, long low) {
+		this.high = high;
+		this.low = low;
+	}
+
+	/**
+	 * Extends this fingerprint by the given value.
+	 * 
+	 * @param  value {@code long} The value.
+	 * @return       {@link Fingerprint} The extended fingerprint.
+	 */
+	public Fingerprint with(long value) {
+		return new Fingerprint(mixHigh(this.high, value), mixLow(this.low, value));
+	}
+
+	/**
+	 * Extends this fingerprint by the given value. All values of Double.NaN are considered equal.
+	 * 
+	 * @param  value {@code double} The value.
+	 * @return       {@link Fingerprint} The extended fingerprint.
+	 */
+	public Fingerprint with(double value) {
+		return this.with(Double.doubleToLongBits(value));
+	}
+
+	/**
+	 * Extends this fingerprint by the given String.
+	 * 
+	 * @param  value {@code String} The String. May be null.
+	 * @return       {@link Fingerprint} The extended fingerprint.
+	 */
+	public Fingerprint with(String value) {
+		if (value == null)
+			return this.with(NULL_MARKER);
+
+		long newHigh = mixHigh(this.high, value.length());
+		long newLow = mixLow(this.low, value.length());
+		for (int i = 0; i < value.length(); i++) {
+			newHigh = mixHigh(newHigh, value.charAt(i));
+			newLow = mixLow(newLow, value.charAt(i));
+		}
+		return new Fingerprint(newHigh, newLow);
+	}
+
+	/**
+	 * Extends this fingerprint by the given date.
+	 * 
+	 * @param  value {@link LocalDateTime} The date. May be null.
+	 * @return       {@link Fingerprint} The extended fingerprint.
+	 */
+	public Fingerprint with(LocalDateTime value) {
+		if (value == null)
+			return this.with(NULL_MARKER);
+		return new Fingerprint(
+		        mixHigh(mixHigh(this.high, value.toEpochSecond(ZoneOffset.UTC)), value.getNano()),
+		        mixLow(mixLow(this.low, value.toEpochSecond(ZoneOffset.UTC)), value.getNano()));
+	}
+
+	/**
+	 * Extends this fingerprint by the date and value of the given {@link ValueDateTupel}.
+	 * 
+	 * @param  value {@link ValueDateTupel} The value. May be null.
+	 * @return       {@link Fingerprint} The extended fingerprint.
+	 */
+	public Fingerprint with(ValueDateTupel value) {
+		if (value == null)
+			return this.with(NULL_MARKER);
+		return this.with(value.getDate()).with(value.getValue());
+	}
+
+	/**
+	 * Extends this fingerprint by the dates and values of all given {@link ValueDateTupel}, in order. Equals extending
+	 * this fingerprint by each value one after the other, but allocates only the resulting fingerprint.
+	 * 
+	 * @param  values {@code ValueDateTupel[]} The values. May be null or contain null.
+	 * @return        {@link Fingerprint} The extended fingerprint.
+	 */
+	public Fingerprint with(ValueDateTupel[] values) {
+		if (values == null)
+			return this.with(NULL_MARKER);
+		return this.with(values, values.length);
+	}
+
+	/**
+	 * Extends this fingerprint by the dates and values of the given number of first {@link ValueDateTupel}, in order.
+	 * Equals extending this fingerprint by a copy of these first values, so the fingerprints of all prefixes of a
+	 * series can be derived from each other.
+	 * 
+	 * @param  values                   {@code ValueDateTupel[]} The values. Must not be null. May contain null.
+	 * @param  length                   {@code int} The number of first values. Must be at least 0 and at most the
+	 *                                  length of the given values.
+	 * @return                          {@link Fingerprint} The extended fingerprint.
+	 * @throws IllegalArgumentException if the given values are null or the given length is out of bounds.
+	 */
+	public Fingerprint with(ValueDateTupel[] values, int length) {
+		if (values == null)
+			throw new IllegalArgumentException("Values must not be null");
+		if (length < 0 || length > values.length)
+			throw new IllegalArgumentException(
+			        "Length must be at least 0 and at most " + values.length + " but is " + length);
+
+		long newHigh = this.high;
+		long newLow = this.low;
+		for (int i = 0; i < length; i++) {
+			ValueDateTupel value = values[i];
+			if (value == null) {
+				newHigh = mixHigh(newHigh, NULL_MARKER);
+				newLow = mixLow(newLow, NULL_MARKER);
+				continue;
+			}
+			LocalDateTime date = value.getDate();
+			if (date == null) {
+				newHigh = mixHigh(newHigh, NULL_MARKER);
+				newLow = mixLow(newLow, NULL_MARKER);
+			} else {
+				newHigh = mixHigh(mixHigh(newHigh, date.toEpochSecond(ZoneOffset.UTC)), date.getNano());
+				newLow = mixLow(mixLow(newLow, date.toEpochSecond(ZoneOffset.UTC)), date.getNano());
+			}
+			long valueBits = Double.doubleToLongBits(value.getValue());
+			newHigh = mixHigh(newHigh, valueBits);
+			newLow = mixLow(newLow, valueBits);
+		}
+		return new Fingerprint(newHigh, newLow);
+	}
+
+	/**
+	 * Extends this fingerprint by another fingerprint, e.g. of a part of the fingerprinted object.
+	 * 
+	 * @param  other {@link Fingerprint} The other fingerprint. May be null.
+	 * @return       {@link Fingerprint} The extended fingerprint.
+	 */
+	public Fingerprint with(Fingerprint other) {
+		if (other == null)
+			return this.with(NULL_MARKER);
+		return new Fingerprint(mixHigh(mixHigh(this.high, other.high), other.low),
+		        mixLow(mixLow(this.low, other.high), other.low));
+	}
+
+	/**
+	 * Mixes the given value into the first lane. The rotation makes the order of values matter.
+	 * 
+	 * @param  state {@code long} The state of the lane.
+	 * @param  value {@code long} The value to be mixed in.
+	 * @return       {@code long} The new state of the lane.
+	 */
+	private static long mixHigh(long state, long value) {
+		return (Long.rotateLeft(state, 31) ^ finalizeMix(value + HIGH_KEY)) * HIGH_MULTIPLIER;
+	}
+
+	/**
+	 * Mixes the given value into the second lane. The rotation makes the order of values matter.
+	 * 
+	 * @param  state {@code long} The state of the lane.
+	 * @param  value {@code long} The value to be mixed in.
+	 * @return       {@code long} The new state of the lane.
+	 */
+	private static long mixLow(long state, long value) {
+		return (Long.rotateLeft(state, 27) + finalizeMix(value ^ LOW_KEY)) * LOW_MULTIPLIER;
+	}
+
+	/**
+	 * Spreads every bit of the given value over all bits of the result, as the finalizer of MurmurHash3 does.
+	 * 
+	 * @param  value {@code long} The value.
+	 * @return       {@code long} The mixed value.
+	 */
+	private static long finalizeMix(long value) {
+		long mixed = value;
+		mixed ^= mixed >>> 33;
+		mixed *= 0xFF51AFD7ED558CCDL;
+		mixed ^= mixed >>> 33;
+		mixed *= 0xC4CEB9FE1A85EC53L;
+		mixed ^= mixed >>> 33;
+		return mixed;
+	}
+
+	/**
+	 * ====================================================================== OVERRIDES
+	 * ======================================================================
+	 */
+
+	/**
+	 * Returns the last 32 bits of this fingerprint, as all bits are equally well mixed.
+	 */
+	@Override
+	public int hashCode() {
+		return (int) this.low;
+	}
+
+	/**
+	 * Checks if this fingerprint has the same bits as another fingerprint.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		Fingerprint other = (Fingerprint) obj;
+		return this.high == other.high && this.low == other.low;
+	}
+
+	/**
+	 * Outputs this fingerprint as 32 hexadecimal digits.
+	 */
+	@Override
+	public String toString() {
+		return String.format("%016x%016x", this.high, this.low);
+	}
+
+	/**
+	 * ====================================================================== GETTERS AND SETTERS
+	 * ======================================================================
+	 */
+
+	/**
+	 * Get the first 64 bits of this fingerprint.
+	 * 
+	 * @return {@code long} The first 64 bits.
+	 */
+	public long getHigh() {
+		return this.high;
+	}
+
+	/**
+	 * Get the last 64 bits of this fingerprint.
+	 * 
+	 * @return {@code long} The last 64 bits.
+	 */
+	public long getLow() {
+		return this.low;
+	}
+}
@@ -0,0 +1,232 @@
+package de.rumford.tradingsystem.helper;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * The InMemoryMetricsRegistry keeps all metrics in memory and outputs them as text, e.g. to be logged periodically.
+ * <p>
+ * Counters and timers accumulate in {@link LongAdder}s, which stripe concurrent updates over multiple cells instead of
+ * contending on a single value, so updates never lock. Metrics are kept per name and instrument in two levels of
+ * {@link ConcurrentHashMap}, so looking up an existing metric allocates nothing. Reading a metric during updates
+ * returns a snapshot.
+ * 
+ * @author Max Rumford
+ */
+public class InMemoryMetricsRegistry implements MetricsRegistry {
+
+	/* The counters by name and instrument. */
+	private final ConcurrentMap<String, ConcurrentMap<String, InMemoryCounter>> counters = new ConcurrentHashMap<>();
+	/* The gauges by name and instrument. */
+	private final ConcurrentMap<String, ConcurrentMap<String, InMemoryGauge>> gauges = new ConcurrentHashMap<>();
+	/* The timers by name and instrument. */
+	private final ConcurrentMap<String, ConcurrentMap<String, InMemoryTimer>> timers = new ConcurrentHashMap<>();
+
+	/**
+	 * @throws IllegalArgumentException if the given name or instrument is null.
+	 */
+	@Override
+	public Counter counter(String name, String instrument) {
+		return lookUp(this.counters, name, instrument, key -> new InMemoryCounter());
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the given name or instrument is null.
+	 */
+	@Override
+	public Gauge gauge(String name, String instrument) {
+		return lookUp(this.gauges, name, instrument, key -> new InMemoryGauge());
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the given name or instrument is null.
+	 */
+	@Override
+	public Timer timer(String name, String instrument) {
+		return lookUp(this.timers, name, instrument, key -> new InMemoryTimer());
+	}
+
+	/**
+	 * Look up the metric of the given name and instrument, creating it if necessary. Existing metrics are found by
+	 * {@link Map#get(Object)}, which neither locks nor allocates.
+	 * 
+	 * @param  <M>                      The type of the metric.
+	 * @param  metrics                  {@code ConcurrentMap} The metrics by name and instrument.
+	 * @param  name                     {@code String} The name of the metric.
+	 * @param  instrument               {@code String} The instrument of the metric.
+	 * @param  factory                  {@code Function} Creates a new metric.
+	 * @return                          {@code M} The metric.
+	 * @throws IllegalArgumentException if the given name or instrument is null.
+	 */
+	private static <M> M lookUp(ConcurrentMap<String, ConcurrentMap<String, M>> metrics, String name,
+	        String instrument, Function<String, M> factory) {
+		if (name == null)
+			throw new IllegalArgumentException("Metric name must not be null");
+		if (instrument == null)
+			throw new IllegalArgumentException("Instrument must not be null");
+
+		ConcurrentMap<String, M> metricsByInstrument = metrics.get(name);
+		if (metricsByInstrument == null)
+			metricsByInstrument = metrics.computeIfAbsent(name, key -> new ConcurrentHashMap<>());
+		M metric = metricsByInstrument.get(instrument);
+		if (metric == null)
+			metric = metricsByInstrument.computeIfAbsent(instrument, factory);
+		return metric;
+	}
+
+	/**
+	 * Get the count of the given counter.
+	 * 
+	 * @param  name       {@code String} The name of the counter.
+	 * @param  instrument {@code String} The instrument of the counter.
+	 * @return            {@code long} The count, 0 if nothing was counted.
+	 */
+	public long getCount(String name, String instrument) {
+		InMemoryCounter counter = find(this.counters, name, instrument);
+		return counter == null ? 0 : counter.count.sum();
+	}
+
+	/**
+	 * Get the value of the given gauge.
+	 * 
+	 * @param  name       {@code String} The name of the gauge.
+	 * @param  instrument {@code String} The instrument of the gauge.
+	 * @return            {@code double} The value last set, Double.NaN if the gauge was never set.
+	 */
+	public double getGaugeValue(String name, String instrument) {
+		InMemoryGauge gauge = find(this.gauges, name, instrument);
+		return gauge == null ? Double.NaN : gauge.value;
+	}
+
+	/**
+	 * Get the number of durations recorded by the given timer.
+	 * 
+	 * @param  name       {@code String} The name of the timer.
+	 * @param  instrument {@code String} The instrument of the timer.
+	 * @return            {@code long} The number of recorded durations, 0 if nothing was recorded.
+	 */
+	public long getTimerCount(String name, String instrument) {
+		InMemoryTimer timer = find(this.timers, name, instrument);
+		return timer == null ? 0 : timer.count.sum();
+	}
+
+	/**
+	 * Get the sum of the durations recorded by the given timer.
+	 * 
+	 * @param  name       {@code String} The name of the timer.
+	 * @param  instrument {@code String} The instrument of the timer.
+	 * @return            {@code long} The sum of the recorded durations in nanoseconds, 0 if nothing was recorded.
+	 */
+	public long getTimerTotalNanos(String name, String instrument) {
+		InMemoryTimer timer = find(this.timers, name, instrument);
+		return timer == null ? 0 : timer.totalNanos.sum();
+	}
+
+	/**
+	 * Get the longest duration recorded by the given timer.
+	 * 
+	 * @param  name       {@code String} The name of the timer.
+	 * @param  instrument {@code String} The instrument of the timer.
+	 * @return            {@code long} The longest recorded duration in nanoseconds, 0 if nothing was recorded.
+	 */
+	public long getTimerMaxNanos(String name, String instrument) {
+		InMemoryTimer timer = find(this.timers, name, instrument);
+		return timer == null ? 0 : timer.maxNanos.get();
+	}
+
+	/**
+	 * Find the metric of the given name and instrument without creating it.
+	 * 
+	 * @param  <M>        The type of the metric.
+	 * @param  metrics    {@code ConcurrentMap} The metrics by name and instrument.
+	 * @param  name       {@code String} The name of the metric.
+	 * @param  instrument {@code String} The instrument of the metric.
+	 * @return            {@code M} The metric, null if it does not exist.
+	 */
+	private static <M> M find(ConcurrentMap<String, ConcurrentMap<String, M>> metrics, String name,
+	        String instrument) {
+		if (name == null || instrument == null)
+			return null;
+		ConcurrentMap<String, M> metricsByInstrument = metrics.get(name);
+		return metricsByInstrument == null ? null : metricsByInstrument.get(instrument);
+	}
+
+	/**
+	 * Outputs all metrics, one per line, sorted by name and instrument. Counters and gauges are output as
+	 * {@code name{instrument="..."} value}, timers as {@code name{instrument="..."} count=..., totalNanos=...,
+	 * maxNanos=...}.
+	 * 
+	 * @return {@code String} The metrics as text.
+	 */
+	public String toText() {
+		TreeMap<String, String> lines = new TreeMap<>();
+		this.counters.forEach((name, byInstrument) -> byInstrument.forEach(
+		        (instrument, counter) -> lines.put(key(name, instrument), Long.toString(counter.count.sum()))));
+		this.gauges.forEach((name, byInstrument) -> byInstrument.forEach((instrument,
+		        gauge) -> lines.put(key(name, instrument), String.format(Locale.ROOT, "%.6f", gauge.value))));
+		this.timers.forEach((name, byInstrument) -> byInstrument.forEach((instrument,
+		        timer) -> lines.put(key(name, instrument), "count=" + timer.count.sum() + ", totalNanos="
+		                + timer.totalNanos.sum() + ", maxNanos=" + timer.maxNanos.get())));
+
+		StringBuilder builder = new StringBuilder();
+		lines.forEach((key, value) -> builder.append(key).append(' ').append(value).append(System.lineSeparator()));
+		return builder.toString();
+	}
+
+	/**
+	 * Create the key of a metric as output by {@link #toText()}.
+	 * 
+	 * @param  name       {@code String} The name of the metric.
+	 * @param  instrument {@code String} The instrument of the metric.
+	 * @return            {@code String} The key.
+	 */
+	private static String key(String name, String instrument) {
+		return name + "{instrument=\"" + instrument + "\"}";
+	}
+
+	/**
+	 * A counter accumulating in a {@link LongAdder}.
+	 */
+	private static final class InMemoryCounter implements Counter {
+		private final LongAdder count = new LongAdder();
+
+		@Override
+		public void increment(long amount) {
+			this.count.add(amount);
+		}
+	}
+
+	/**
+	 * A gauge holding the value last set. Last write wins, so no accumulation is needed.
+	 */
+	private static final class InMemoryGauge implements Gauge {
+		private volatile double value = Double.NaN;
+
+		@Override
+		public void set(double value) {
+			this.value = value;
+		}
+	}
+
+	/**
+	 * A timer accumulating count and sum in {@link LongAdder}s and the maximum in a {@link LongAccumulator}.
+	 */
+	private static final class InMemoryTimer implements Timer {
+		private final LongAdder count = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+		@Override
+		public void record(long nanos) {
+			this.count.increment();
+			this.totalNanos.add(nanos);
+			this.maxNanos.accumulate(nanos);
+		}
+	}
+}
@@ -0,0 +1,363 @@
+package de.rumford.tradingsystem.helper;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The LatencyHistogram records durations in nanoseconds in a fixed amount of memory, so recording is cheap enough to
+ * be left on for every single update of a live system.
+ * <p>
+ * Values are counted in buckets of exponentially growing width: Values below 2^subBucketBits are counted exactly.
+ * Above, every power of two is split into 2^(subBucketBits - 1) buckets of equal width, so the relative error of any
+ * reported value stays below 2^-(subBucketBits - 1) (e.g. 1.6% for the default of 7 bits). Values above the highest
+ * trackable value are counted in the last bucket. All buckets are allocated upon instantiation, recording a value
+ * allocates nothing.
+ * <p>
+ * Values must be recorded by one thread at a time. The counts can be read by any thread at any time, e.g. to export
+ * them periodically, though the result of a read during recording is only a snapshot.
+ * 
+ * @author Max Rumford
+ */
+public class LatencyHistogram {
+
+	/* The default number of bits used for the values below the first power of two with reduced precision. */
+	public static final int DEFAULT_SUB_BUCKET_BITS = 7;
+	/* The default highest trackable value: one minute. */
+	public static final long DEFAULT_HIGHEST_TRACKABLE_VALUE = 60_000_000_000L;
+	/* The percentiles reported by toText. */
+	private static final double[] REPORTED_PERCENTILES = { 50, 90, 99, 99.9, 99.99 };
+
+	/* The name of this histogram, e.g. the measured step. */
+	private final String name;
+	/* The number of bits used for the values below the first power of two with reduced precision. */
+	private final int subBucketBits;
+	/* The number of buckets counting values exactly: 2^subBucketBits */
+	private final int subBucketCount;
+	/* The number of buckets per power of two above: 2^(subBucketBits - 1) */
+	private final int subBucketHalfCount;
+	/* The highest value that is counted in its own bucket. */
+	private final long highestTrackableValue;
+	/* The counts of all buckets. */
+	private final AtomicLongArray counts;
+	/* The number of recorded values. */
+	private final AtomicLong totalCount = new AtomicLong();
+	/* The sum of all recorded values. */
+	private final AtomicLong sum = new AtomicLong();
+	/* The lowest recorded value. */
+	private final AtomicLong minValue = new AtomicLong(Long.MAX_VALUE);
+	/* The highest recorded value. */
+	private final AtomicLong maxValue = new AtomicLong();
+
+	/**
+	 * Creates a new LatencyHistogram tracking values of up to one minute with a relative error below 1.6%.
+	 * 
+	 * @param  name                     {@code String} The name of the histogram. Must not be null.
+	 * @throws IllegalArgumentException if the given name is null.
+	 */
+	public LatencyHistogram(String name) {
+		this(name, DEFAULT_HIGHEST_TRACKABLE_VALUE, DEFAULT_SUB_BUCKET_BITS);
+	}
+
+	/**
+	 * Creates a new LatencyHistogram.
+	 * 
+	 * @param  name                     {@code String} The name of the histogram. Must not be null.
+	 * @param  highestTrackableValue    {@code long} The highest value to be counted in its own bucket. Must be at
+	 *                                  least 2^subBucketBits.
+	 * @param  subBucketBits            {@code int} Determines the precision: The relative error of reported values is
+	 *                                  below 2^-(subBucketBits - 1). Must be at least 2 and at most 20.
+	 * @throws IllegalArgumentException if the given values do not meet specifications.
+	 */
+	public LatencyHistogram(String name, long highestTrackableValue, int subBucketBits) {
+		if (name == null)
+			throw new IllegalArgumentException("Name must not be null");
+		if (subBucketBits < 2 || subBucketBits > 20)
+			throw new IllegalArgumentException("Sub bucket bits must be at least 2 and at most 20");
+		if (highestTrackableValue < 1L << subBucketBits)
+			throw new IllegalArgumentException("Highest trackable value must be at least " + (1L << subBucketBits));
+
+		this.name = name;
+		this.subBucketBits = subBucketBits;
+		this.subBucketCount = 1 << subBucketBits;
+		this.subBucketHalfCount = 1 << (subBucketBits - 1);
+		this.highestTrackableValue = highestTrackableValue;
+		this.counts = new AtomicLongArray(this.getBucketIndex(highestTrackableValue) + 1);
+	}
+
+	/**
+	 * Records the given value.
+	 * 
+	 * @param  value                    {@code long} The value to be recorded, e.g. a duration in nanoseconds. Must not
+	 *                                  be negative.
+	 * @throws IllegalArgumentException if the given value is negative.
+	 */
+	public void recordValue(long value) {
+		if (value < 0)
+			throw new IllegalArgumentException("Value must not be negative");
+
+		int index = this.getBucketIndex(Math.min(value, this.highestTrackableValue));
+		/* There is only one recording thread, so ordered writes suffice. */
+		this.counts.lazySet(index, this.counts.get(index) + 1);
+		this.totalCount.lazySet(this.totalCount.get() + 1);
+		this.sum.lazySet(this.sum.get() + value);
+		if (value < this.minValue.get())
+			this.minValue.lazySet(value);
+		if (value > this.maxValue.get())
+			this.maxValue.lazySet(value);
+	}
+
+	/**
+	 * Records the time passed since the given time.
+	 * 
+	 * @param  startNanos {@code long} The start of the measured duration as of {@link System#nanoTime()}.
+	 * @return            {@code long} The current time as of {@link System#nanoTime()}, to be used as start of the next
+	 *                    measured duration.
+	 */
+	public long recordSince(long startNanos) {
+		long now = System.nanoTime();
+		this.recordValue(Math.max(0, now - startNanos));
+		return now;
+	}
+
+	/**
+	 * Get the value the given percentage of all recorded values is lower than or equal to. The value is reported as
+	 * the highest value of its bucket, but not above the highest recorded value. Values in the last bucket are
+	 * reported as the highest recorded value, as they may exceed the highest trackable value.
+	 * 
+	 * @param  percentile               {@code double} The percentile. Must be at least 0 and at most 100.
+	 * @return                          {@code long} The value at the given percentile. 0, if no value was recorded.
+	 * @throws IllegalArgumentException if the given percentile does not meet specifications.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		if (!(percentile >= 0 && percentile <= 100))
+			throw new IllegalArgumentException("Percentile must be at least 0 and at most 100");
+
+		long total = this.getTotalCount();
+		if (total == 0)
+			return 0;
+
+		long countAtPercentile = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+		long cumulativeCount = 0;
+		for (int index = 0; index < this.counts.length(); index++) {
+			cumulativeCount += this.counts.get(index);
+			if (cumulativeCount >= countAtPercentile)
+				return this.getReportedValueOfBucket(index);
+		}
+		return this.getMaxValue();
+	}
+
+	/**
+	 * Get the mean of all recorded values.
+	 * 
+	 * @return {@code double} The mean. 0, if no value was recorded.
+	 */
+	public double getMean() {
+		long total = this.getTotalCount();
+		return total == 0 ? 0 : (double) this.sum.get() / total;
+	}
+
+	/**
+	 * Clears all recorded values. Must not be called while recording.
+	 */
+	public void reset() {
+		for (int index = 0; index < this.counts.length(); index++)
+			this.counts.set(index, 0);
+		this.totalCount.set(0);
+		this.sum.set(0);
+		this.minValue.set(Long.MAX_VALUE);
+		this.maxValue.set(0);
+	}
+
+	/**
+	 * Outputs a summary of the recorded values in one line: the count, the lowest, mean and highest value and the
+	 * values at the 50th, 90th, 99th, 99.9th and 99.99th percentile.
+	 * 
+	 * @return {@code String} The summary.
+	 */
+	public String toText() {
+		StringBuilder builder = new StringBuilder();
+		builder.append(this.name);
+		builder.append(": count=");
+		builder.append(this.getTotalCount());
+		builder.append(", min=");
+		builder.append(this.getMinValue());
+		builder.append(", mean=");
+		builder.append(String.format(Locale.ROOT, "%.1f", this.getMean()));
+		for (double percentile : REPORTED_PERCENTILES) {
+			builder.append(", p");
+			builder.append(formatPercentile(percentile));
+			builder.append("=");
+			builder.append(this.getValueAtPercentile(percentile));
+		}
+		builder.append(", max=");
+		builder.append(this.getMaxValue());
+		return builder.toString();
+	}
+
+	/**
+	 * Outputs the distribution of the recorded values as CSV: One line per non-empty bucket, holding the highest value
+	 * of the bucket, the percentage of all values lower than or equal to it and their count. The first line holds the
+	 * column names.
+	 * 
+	 * @param  csvFormat                {@link CsvFormat} The format providing field separator and decimal point. Must
+	 *                                  not be null.
+	 * @return                          {@code String} The CSV, each line ending with a line separator.
+	 * @throws IllegalArgumentException if the given CSV format is null.
+	 */
+	public String toCsv(CsvFormat csvFormat) {
+		if (csvFormat == null)
+			throw new IllegalArgumentException("CSV format must not be null");
+
+		String separator = csvFormat.getFieldSeparator();
+		String lineSeparator = System.lineSeparator();
+		StringBuilder builder = new StringBuilder();
+		builder.append("Value").append(separator).append("Percentile").append(separator).append("TotalCount");
+		builder.append(lineSeparator);
+
+		long total = this.getTotalCount();
+		long cumulativeCount = 0;
+		for (int index = 0; index < this.counts.length(); index++) {
+			long count = this.counts.get(index);
+			if (count == 0)
+				continue;
+			cumulativeCount += count;
+			builder.append(this.getReportedValueOfBucket(index));
+			builder.append(separator);
+			builder.append(String.format(Locale.ROOT, "%.6f", 100d * cumulativeCount / total)
+			        .replace(".", csvFormat.getDecimalPoint()));
+			builder.append(separator);
+			builder.append(cumulativeCount);
+			builder.append(lineSeparator);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Get the index of the bucket counting the given value.
+	 * 
+	 * @param  value {@code long} A value of at least 0 and at most the highest trackable value.
+	 * @return       {@code int} The index of the bucket.
+	 */
+	private int getBucketIndex(long value) {
+		if (value < this.subBucketCount)
+			return (int) value;
+
+		/* Keep subBucketBits bits of the value, the highest of which is always set. */
+		int shift = 64 - Long.numberOfLeadingZeros(value) - this.subBucketBits;
+		int subBucket = (int) (value >>> shift);
+		return this.subBucketCount + (shift - 1) * this.subBucketHalfCount + subBucket - this.subBucketHalfCount;
+	}
+
+	/**
+	 * Get the value reported for the values counted in the bucket of the given index: the highest value of the bucket,
+	 * but not above the highest recorded value. For the last bucket, which also counts all values above the highest
+	 * trackable value, this is the highest recorded value.
+	 * 
+	 * @param  index {@code int} The index of the bucket.
+	 * @return       {@code long} The reported value.
+	 */
+	private long getReportedValueOfBucket(int index) {
+		if (index == this.counts.length() - 1)
+			return this.getMaxValue();
+		return Math.min(this.getHighestValueOfBucket(index), this.getMaxValue());
+	}
+
+	/**
+	 * Get the highest value counted in the bucket of the given index.
+	 * 
+	 * @param  index {@code int} The index of the bucket.
+	 * @return       {@code long} The highest value of the bucket.
+	 */
+	private long getHighestValueOfBucket(int index) {
+		if (index < this.subBucketCount)
+			return index;
+
+		int shift = (index - this.subBucketCount) / this.subBucketHalfCount + 1;
+		long subBucket = (index - this.subBucketCount) % this.subBucketHalfCount + this.subBucketHalfCount;
+		return ((subBucket + 1) << shift) - 1;
+	}
+
+	/**
+	 * Formats the given percentile without trailing zeros.
+	 * 
+	 * @param  percentile {@code double} The percentile.
+	 * @return            {@code String} The formatted percentile, e.g. "99" or "99.9".
+	 */
+	private static String formatPercentile(double percentile) {
+		return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+	}
+
+	/**
+	 * ====================================================================== OVERRIDES
+	 * ======================================================================
+	 */
+
+	/**
+	 * Outputs the summary of this LatencyHistogram, see {@link #toText()}.
+	 */
+	@GeneratedCode
+	@Override
+	public String toString() {
+		return this.toText();
+	}
+
+	/**
+	 * ====================================================================== GETTERS AND SETTERS
+	 * ======================================================================
+	 */
+
+	/**
+	 * Get the name of this LatencyHistogram.
+	 * 
+	 * @return {@code String} The name.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Get the highest value counted in its own bucket.
+	 * 
+	 * @return {@code long} The highest trackable value.
+	 */
+	public long getHighestTrackableValue() {
+		return highestTrackableValue;
+	}
+
+	/**
+	 * Get the number of buckets, which determines the memory used by this LatencyHistogram.
+	 * 
+	 * @return {@code int} The number of buckets.
+	 */
+	public int getNumberOfBuckets() {
+		return counts.length();
+	}
+
+	/**
+	 * Get the number of recorded values.
+	 * 
+	 * @return {@code long} The number of recorded values.
+	 */
+	public long getTotalCount() {
+		return totalCount.get();
+	}
+
+	/**
+	 * Get the lowest recorded value.
+	 * 
+	 * @return {@code long} The lowest value. 0, if no value was recorded.
+	 */
+	public long getMinValue() {
+		return this.getTotalCount() == 0 ? 0 : minValue.get();
+	}
+
+	/**
+	 * Get the highest recorded value. May exceed the highest trackable value.
+	 * 
+	 * @return {@code long} The highest value. 0, if no value was recorded.
+	 */
+	public long getMaxValue() {
+		return maxValue.get();
+	}
+}
@@ -0,0 +1,66 @@
+package de.rumford.tradingsystem.helper;
+
+/**
+ * The Metrics class holds the {@link MetricsRegistry} all calculation stages of this library report to and the names
+ * of the reported metrics. Until a registry is set, {@link MetricsRegistry#NOOP} discards all values.
+ * <p>
+ * All metrics are reported per instrument: the name of the base value, or the path of the file for metrics of
+ * {@link DataSource}.
+ * 
+ * @author Max Rumford
+ */
+public final class Metrics {
+
+	/* Counter of the rows read from CSV files. */
+	public static final String CSV_ROWS_READ = "csv.rows.read";
+	/* Timer of reading and parsing CSV files. */
+	public static final String CSV_LOAD_DURATION = "csv.load.duration";
+	/* Counter of the bars of base values, both given upon creation and appended. */
+	public static final String BARS_PROCESSED = "bars.processed";
+	/* Timer of calculating the short index and standard deviation values of base values. */
+	public static final String BASE_VALUE_DERIVATION_DURATION = "baseValue.derivation.duration";
+	/* Counter of the rules whose forecasts were calculated. */
+	public static final String RULES_BUILT = "rules.built";
+	/* Timer of calculating the forecasts of rules. */
+	public static final String RULE_FORECAST_DURATION = "rule.forecast.duration";
+	/* Timer of calculating diversification multipliers. */
+	public static final String DIVERSIFICATION_MULTIPLIER_DURATION = "diversificationMultiplier.duration";
+	/* Gauge of the latest diversification multiplier value. */
+	public static final String DIVERSIFICATION_MULTIPLIER_VALUE = "diversificationMultiplier.value";
+	/* Timer of combining the forecasts of sub systems. */
+	public static final String COMBINED_FORECAST_DURATION = "combinedForecast.duration";
+	/* Timer of backtests and performance value calculations. */
+	public static final String BACKTEST_DURATION = "backtest.duration";
+	/* Counter of the bars traded in backtests and performance value calculations. */
+	public static final String BACKTEST_BARS = "backtest.bars";
+	/* Gauge of the performance value on the last day of the latest backtest. */
+	public static final String BACKTEST_PERFORMANCE_VALUE = "backtest.performanceValue";
+
+	/* The registry reported to. */
+	private static volatile MetricsRegistry registry = MetricsRegistry.NOOP;
+
+	private Metrics() {
+	}
+
+	/**
+	 * Get the registry all calculation stages report to.
+	 * 
+	 * @return {@link MetricsRegistry} The current registry.
+	 */
+	public static MetricsRegistry getRegistry() {
+		return registry;
+	}
+
+	/**
+	 * Set the registry all calculation stages report to from now on. Set {@link MetricsRegistry#NOOP} to stop
+	 * reporting.
+	 * 
+	 * @param  registry                 {@link MetricsRegistry} The registry to report to. Must not be null.
+	 * @throws IllegalArgumentException if the given registry is null.
+	 */
+	public static void setRegistry(MetricsRegistry registry) {
+		if (registry == null)
+			throw new IllegalArgumentException("Metrics registry must not be null");
+		Metrics.registry = registry;
+	}
+}
@@ -0,0 +1,108 @@
+package de.rumford.tradingsystem.helper;
+
+/**
+ * The MetricsRegistry is the service provider interface for the metrics of this library. The calculation stages look
+ * up their metrics by name and instrument in the registry set in {@link Metrics} and update them; an implementation
+ * decides where the values go, e.g. {@link InMemoryMetricsRegistry} or an adapter to a monitoring system.
+ * <p>
+ * Implementations must be thread safe, as sub systems are built concurrently, and should update metrics without
+ * locking. Looking up a metric should not allocate, as appending values looks up a counter per value.
+ * 
+ * @author Max Rumford
+ */
+public interface MetricsRegistry {
+
+	/**
+	 * The registry discarding all values. Set in {@link Metrics} unless another registry is set.
+	 */
+	MetricsRegistry NOOP = new MetricsRegistry() {
+
+		private final Counter noopCounter = amount -> {
+		};
+		private final Gauge noopGauge = value -> {
+		};
+		private final Timer noopTimer = nanos -> {
+		};
+
+		@Override
+		public Counter counter(String name, String instrument) {
+			return this.noopCounter;
+		}
+
+		@Override
+		public Gauge gauge(String name, String instrument) {
+			return this.noopGauge;
+		}
+
+		@Override
+		public Timer timer(String name, String instrument) {
+			return this.noopTimer;
+		}
+	};
+
+	/**
+	 * Get the counter of the given name for the given instrument, creating it if necessary.
+	 * 
+	 * @param  name       {@code String} The name of the counter, see {@link Metrics}.
+	 * @param  instrument {@code String} The name of the instrument the counted values belong to.
+	 * @return            {@link Counter} The counter.
+	 */
+	Counter counter(String name, String instrument);
+
+	/**
+	 * Get the gauge of the given name for the given instrument, creating it if necessary.
+	 * 
+	 * @param  name       {@code String} The name of the gauge, see {@link Metrics}.
+	 * @param  instrument {@code String} The name of the instrument the measured value belongs to.
+	 * @return            {@link Gauge} The gauge.
+	 */
+	Gauge gauge(String name, String instrument);
+
+	/**
+	 * Get the timer of the given name for the given instrument, creating it if necessary.
+	 * 
+	 * @param  name       {@code String} The name of the timer, see {@link Metrics}.
+	 * @param  instrument {@code String} The name of the instrument the timed calculations belong to.
+	 * @return            {@link Timer} The timer.
+	 */
+	Timer timer(String name, String instrument);
+
+	/**
+	 * A monotonically increasing count, e.g. of processed bars.
+	 */
+	@FunctionalInterface
+	interface Counter {
+		/**
+		 * Add the given amount to this counter.
+		 * 
+		 * @param amount {@code long} The amount to be added.
+		 */
+		void increment(long amount);
+	}
+
+	/**
+	 * The latest value of a measurement, e.g. a performance value.
+	 */
+	@FunctionalInterface
+	interface Gauge {
+		/**
+		 * Set this gauge to the given value.
+		 * 
+		 * @param value {@code double} The measured value.
+		 */
+		void set(double value);
+	}
+
+	/**
+	 * The durations of a repeated calculation.
+	 */
+	@FunctionalInterface
+	interface Timer {
+		/**
+		 * Record the given duration.
+		 * 
+		 * @param nanos {@code long} The duration in nanoseconds.
+		 */
+		void record(long nanos);
+	}
+}
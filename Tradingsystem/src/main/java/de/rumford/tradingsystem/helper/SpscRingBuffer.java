@@ -0,0 +1,181 @@
+package de.rumford.tradingsystem.helper;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * The SpscRingBuffer connects exactly one producing thread with exactly one consuming thread. All events are
+ * preallocated upon instantiation and reused: The producer claims the next free event, fills it and publishes it. The
+ * consumer peeks at the next published event, reads it and releases it for reuse. Thus passing events allocates
+ * nothing.
+ * <p>
+ * Producer and consumer each own one sequence (the number of events published and released, respectively). A sequence
+ * is only written by its owner and published with release semantics, so no locks are needed. Each side caches the last
+ * seen sequence of the other side and only rereads it if the ring buffer seems full (or empty), which keeps the shared
+ * memory traffic low.
+ * <p>
+ * The methods {@link #tryClaim()} and {@link #publish()} must only be called by the producing thread,
+ * {@link #peek()} and {@link #release()} only by the consuming thread. {@link #size()} may be called by any thread.
+ * 
+ * @param  <E> The type of the events.
+ * @author     Max Rumford
+ */
+public class SpscRingBuffer<E> {
+
+	/* The preallocated events. */
+	private final E[] events;
+	/* The mask to map a sequence onto a position, as the capacity is a power of two. */
+	private final int mask;
+	/* The number of events published by the producer. */
+	private final AtomicLong producerSequence = new AtomicLong();
+	/* The number of events released by the consumer. */
+	private final AtomicLong consumerSequence = new AtomicLong();
+	/* The consumer sequence last seen by the producer. Only accessed by the producer. */
+	private long cachedConsumerSequence;
+	/* The producer sequence last seen by the consumer. Only accessed by the consumer. */
+	private long cachedProducerSequence;
+	/* Whether the producer has claimed an event not published yet. Only accessed by the producer. */
+	private boolean claimed;
+
+	/**
+	 * Creates a new SpscRingBuffer and preallocates all its events.
+	 * 
+	 * @param  capacity                 {@code int} The minimum number of events. Must be at least 1. Rounded up to the
+	 *                                  next power of two.
+	 * @param  eventFactory             {@code Supplier<E>} Creates the events. Must not be null. Must not return null.
+	 * @throws IllegalArgumentException if the given values do not meet specifications.
+	 */
+	@SuppressWarnings("unchecked")
+	public SpscRingBuffer(int capacity, Supplier<E> eventFactory) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Capacity must be at least 1");
+		if (capacity > 1 << 30)
+			throw new IllegalArgumentException("Capacity must not exceed " + (1 << 30));
+		if (eventFactory == null)
+			throw new IllegalArgumentException("Event factory must not be null");
+
+		int roundedCapacity = Integer.highestOneBit(capacity);
+		if (roundedCapacity < capacity)
+			roundedCapacity <<= 1;
+
+		this.events = (E[]) new Object[roundedCapacity];
+		for (int i = 0; i < roundedCapacity; i++) {
+			this.events[i] = eventFactory.get();
+			if (this.events[i] == null)
+				throw new IllegalArgumentException("Event factory must not return null");
+		}
+		this.mask = roundedCapacity - 1;
+	}
+
+	/**
+	 * Claims the next free event. The claimed event has to be published by {@link #publish()} before the next event
+	 * can be claimed. Producer only.
+	 * 
+	 * @return                       {@code E} The claimed event, still holding the values of its previous use. Null, if
+	 *                               the ring buffer is full.
+	 * @throws IllegalStateException if the previously claimed event was not published.
+	 */
+	public E tryClaim() {
+		if (this.claimed)
+			throw new IllegalStateException("The claimed event must be published before claiming the next one");
+
+		long sequence = this.producerSequence.get();
+		if (sequence - this.cachedConsumerSequence >= this.events.length) {
+			this.cachedConsumerSequence = this.consumerSequence.get();
+			if (sequence - this.cachedConsumerSequence >= this.events.length)
+				return null;
+		}
+		this.claimed = true;
+		return this.events[(int) sequence & this.mask];
+	}
+
+	/**
+	 * Publishes the claimed event to the consumer. Producer only.
+	 * 
+	 * @throws IllegalStateException if no event was claimed.
+	 */
+	public void publish() {
+		if (!this.claimed)
+			throw new IllegalStateException("An event must be claimed before publishing it");
+
+		this.claimed = false;
+		this.producerSequence.lazySet(this.producerSequence.get() + 1);
+	}
+
+	/**
+	 * Get the next published event without releasing it. Consumer only.
+	 * 
+	 * @return {@code E} The next published event. Null, if there is none.
+	 */
+	public E peek() {
+		long sequence = this.consumerSequence.get();
+		if (sequence >= this.cachedProducerSequence) {
+			this.cachedProducerSequence = this.producerSequence.get();
+			if (sequence >= this.cachedProducerSequence)
+				return null;
+		}
+		return this.events[(int) sequence & this.mask];
+	}
+
+	/**
+	 * Releases the event last returned by {@link #peek()} for reuse by the producer. The released event must not be
+	 * accessed anymore. Consumer only.
+	 * 
+	 * @throws IllegalStateException if there is no published event to be released.
+	 */
+	public void release() {
+		long sequence = this.consumerSequence.get();
+		if (sequence >= this.cachedProducerSequence)
+			throw new IllegalStateException("There is no event to be released");
+
+		this.consumerSequence.lazySet(sequence + 1);
+	}
+
+	/**
+	 * Get the number of published events not yet released. As both sides may proceed concurrently, the result is only
+	 * a snapshot.
+	 * 
+	 * @return {@code int} The number of events waiting for the consumer.
+	 */
+	public int size() {
+		long consumed = this.consumerSequence.get();
+		long produced = this.producerSequence.get();
+		return (int) Math.max(0, Math.min(produced - consumed, this.events.length));
+	}
+
+	/**
+	 * ====================================================================== OVERRIDES
+	 * ======================================================================
+	 */
+
+	/**
+	 * Outputs the state of this SpscRingBuffer as a {@code String}.
+	 */
+	@GeneratedCode
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("SpscRingBuffer [capacity=");
+		builder.append(events.length);
+		builder.append(", producerSequence=");
+		builder.append(producerSequence);
+		builder.append(", consumerSequence=");
+		builder.append(consumerSequence);
+		builder.append("]");
+		return builder.toString();
+	}
+
+	/**
+	 * ====================================================================== GETTERS AND SETTERS
+	 * ======================================================================
+	 */
+
+	/**
+	 * Get the number of events of this SpscRingBuffer.
+	 * 
+	 * @return {@code int} The capacity, a power of two.
+	 */
+	public int getCapacity() {
+		return events.length;
+	}
+}
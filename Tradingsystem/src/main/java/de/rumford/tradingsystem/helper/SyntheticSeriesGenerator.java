@@ -0,0 +1,430 @@
+package de.rumford.tradingsystem.helper;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The SyntheticSeriesGenerator creates arbitrarily long, reproducible market data, so code can be tested and
+ * benchmarked on far more values than the test resources hold.
+ * <p>
+ * The base values follow a geometric Brownian motion whose volatility switches between a calm and a turbulent
+ * regime. The volatility index follows the annualized volatility of the current regime (in percent) with some noise,
+ * the short index moves inversely to the base values each bar. All three series are calculated from the same random
+ * path, so for a given seed bar i has the same date and values in every series.
+ * <p>
+ * Each series can have gaps: every bar is left out with the given probability, drawn independently per series. Series
+ * with gaps therefore have to be aligned by {@link ValueDateTupel#alignDates(ValueDateTupel[][])} before use.
+ * <p>
+ * Series can be generated as array or be written bar by bar as CSV file in any {@link CsvFormat} or as
+ * {@link BinarySeries}, so files of tens of millions of bars can be created without holding them in memory.
+ * 
+ * @author Max Rumford
+ */
+public class SyntheticSeriesGenerator {
+
+	/**
+	 * The series a SyntheticSeriesGenerator creates.
+	 */
+	public enum Series {
+		BASE_VALUES, VOLATILITY_INDEX, SHORT_INDEX;
+	}
+
+	/* The date of the first bar, unless specified otherwise. */
+	public static final LocalDateTime DEFAULT_FIRST_DATE = LocalDateTime.of(2000, 1, 3, 22, 0);
+	/* The first value of the base values. */
+	public static final double FIRST_VALUE = 10000;
+	/* The first value of the short index. */
+	public static final double FIRST_SHORT_INDEX_VALUE = 1000;
+	/* The annualized volatility of the calm regime. */
+	public static final double CALM_VOLATILITY = 0.15;
+	/* The annualized volatility of the turbulent regime. */
+	public static final double TURBULENT_VOLATILITY = 0.35;
+	/* The lowest value of the volatility index. */
+	public static final double MINIMUM_VOLATILITY_INDEX = 5;
+	/* The annualized drift of the base values. */
+	private static final double DRIFT = 0.05;
+	/* The number of bars per year used to scale the annualized drift and volatilities. */
+	private static final double BARS_PER_YEAR = 256;
+	/* The probability per bar of switching from the calm to the turbulent regime. */
+	private static final double PROBABILITY_OF_TURBULENCE = 0.01;
+	/* The probability per bar of switching from the turbulent to the calm regime. */
+	private static final double PROBABILITY_OF_CALM = 0.05;
+	/* The share of the distance to the current regime's volatility the volatility index closes each bar. */
+	private static final double VOLATILITY_INDEX_REVERSION = 0.1;
+	/* The standard deviation of the noise added to the volatility index each bar. */
+	private static final double VOLATILITY_INDEX_NOISE = 0.5;
+	/* The increment used to derive each series' seed for its gaps from the generator's seed. */
+	private static final long SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+	/* The maximum length of a generated array. */
+	private static final long MAXIMUM_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+	/* The number of decimals written to CSV files. */
+	private static final int CSV_DECIMALS = 4;
+
+	private long seed;
+	private long length;
+	private LocalDateTime firstDate;
+	private Duration interval;
+	private double gapProbability;
+
+	/**
+	 * Creates a SyntheticSeriesGenerator of daily bars without gaps, starting at {@link #DEFAULT_FIRST_DATE}.
+	 * 
+	 * @param  seed                     {@code long} The seed of the random path. The same seed always creates the
+	 *                                  same series.
+	 * @param  length                   {@code long} The number of bars. Must be at least 1.
+	 * @throws IllegalArgumentException if the given length is less than 1.
+	 */
+	public SyntheticSeriesGenerator(long seed, long length) {
+		this(seed, length, DEFAULT_FIRST_DATE, Duration.ofDays(1), 0);
+	}
+
+	/**
+	 * Creates a SyntheticSeriesGenerator.
+	 * 
+	 * @param  seed                     {@code long} The seed of the random path. The same seed always creates the
+	 *                                  same series.
+	 * @param  length                   {@code long} The number of bars. Must be at least 1.
+	 * @param  firstDate                {@code LocalDateTime} The date of the first bar. Must not be null.
+	 * @param  interval                 {@code Duration} The time between two bars. Must be positive. The dates of all
+	 *                                  bars must be of a year up to 9999 to be written as CSV.
+	 * @param  gapProbability           {@code double} The probability of a bar being left out of a series. Must be in
+	 *                                  {@code [0, 1)}.
+	 * @throws IllegalArgumentException if the given values do not meet specifications.
+	 */
+	public SyntheticSeriesGenerator(long seed, long length, LocalDateTime firstDate, Duration interval,
+	        double gapProbability) {
+		validateInput(length, firstDate, interval, gapProbability);
+
+		this.setSeed(seed);
+		this.setLength(length);
+		this.setFirstDate(firstDate);
+		this.setInterval(interval);
+		this.setGapProbability(gapProbability);
+	}
+
+	/**
+	 * Validates the input of the constructor.
+	 * 
+	 * @param  length                   {@code long} The number of bars.
+	 * @param  firstDate                {@code LocalDateTime} The date of the first bar.
+	 * @param  interval                 {@code Duration} The time between two bars.
+	 * @param  gapProbability           {@code double} The probability of a bar being left out.
+	 * @throws IllegalArgumentException if the given values do not meet specifications.
+	 */
+	private static void validateInput(long length, LocalDateTime firstDate, Duration interval,
+	        double gapProbability) {
+		if (length < 1)
+			throw new IllegalArgumentException("Length must be at least 1");
+		if (firstDate == null)
+			throw new IllegalArgumentException("First date must not be null");
+		if (interval == null || interval.isNegative() || interval.isZero())
+			throw new IllegalArgumentException("Interval must be positive");
+		if (!(gapProbability >= 0 && gapProbability < 1))
+			throw new IllegalArgumentException("Gap probability must be in [0, 1)");
+	}
+
+	/**
+	 * Receives the bars of a series one by one.
+	 */
+	@FunctionalInterface
+	private interface BarConsumer {
+		/**
+		 * @param  date        {@code LocalDateTime} The date of the bar.
+		 * @param  value       {@code double} The value of the bar.
+		 * @throws IOException if the bar cannot be written.
+		 */
+		void accept(LocalDateTime date, double value) throws IOException;
+	}
+
+	/**
+	 * Calculates the random path and passes every bar of the given series that is not left out to the given consumer.
+	 * 
+	 * @param  series      {@link Series} The series to be generated.
+	 * @param  consumer    {@link BarConsumer} The consumer of the bars.
+	 * @throws IOException if the consumer fails.
+	 */
+	private void generate(Series series, BarConsumer consumer) throws IOException {
+		Random pathRandom = new Random(this.getSeed());
+		Random gapRandom = new Random(this.getSeed() + (series.ordinal() + 1) * SEED_INCREMENT);
+		double sqrtOfBarLength = Math.sqrt(1 / BARS_PER_YEAR);
+
+		LocalDateTime date = this.getFirstDate();
+		double value = FIRST_VALUE;
+		double shortIndexValue = FIRST_SHORT_INDEX_VALUE;
+		double volatility = CALM_VOLATILITY;
+		double volatilityIndex = CALM_VOLATILITY * 100;
+
+		for (long i = 0; i < this.getLength(); i++) {
+			if (i > 0) {
+				date = date.plus(this.getInterval());
+
+				/* Geometric Brownian motion with the volatility of the current regime */
+				double logReturn = (DRIFT - volatility * volatility / 2) / BARS_PER_YEAR
+				        + volatility * sqrtOfBarLength * pathRandom.nextGaussian();
+				double growthFactor = Math.exp(logReturn);
+				value *= growthFactor;
+				shortIndexValue *= Math.max(0, 2 - growthFactor);
+
+				volatilityIndex += VOLATILITY_INDEX_REVERSION * (volatility * 100 - volatilityIndex)
+				        + VOLATILITY_INDEX_NOISE * pathRandom.nextGaussian();
+				volatilityIndex = Math.max(MINIMUM_VOLATILITY_INDEX, volatilityIndex);
+
+				/* Switch regimes for the next bar */
+				double switchProbability = volatility == CALM_VOLATILITY ? PROBABILITY_OF_TURBULENCE
+				        : PROBABILITY_OF_CALM;
+				if (pathRandom.nextDouble() < switchProbability)
+					volatility = volatility == CALM_VOLATILITY ? TURBULENT_VOLATILITY : CALM_VOLATILITY;
+			}
+
+			/* Draw the gap even if there are none, so the path does not depend on the gap probability */
+			if (gapRandom.nextDouble() < this.getGapProbability())
+				continue;
+
+			switch (series) {
+			case VOLATILITY_INDEX:
+				consumer.accept(date, volatilityIndex);
+				break;
+			case SHORT_INDEX:
+				consumer.accept(date, shortIndexValue);
+				break;
+			default:
+				consumer.accept(date, value);
+			}
+		}
+	}
+
+	/**
+	 * Generates the given series as array.
+	 * 
+	 * @param  series                   {@link Series} The series to be generated. Must not be null.
+	 * @return                          {@code ValueDateTupel[]} The bars of the series, sorted ascending by date.
+	 * @throws IllegalArgumentException if the given series is null or the length of this generator exceeds the
+	 *                                  maximum length of an array.
+	 */
+	public ValueDateTupel[] generate(Series series) {
+		if (series == null)
+			throw new IllegalArgumentException("Series must not be null");
+		if (this.getLength() > MAXIMUM_ARRAY_LENGTH)
+			throw new IllegalArgumentException("Length exceeds the maximum length of an array. Write the series to a "
+			        + "file instead.");
+
+		ValueDateTupel[] values = ValueDateTupel.createEmptyArray((int) this.getLength());
+		int[] numberOfValues = { 0 };
+		try {
+			this.generate(series, (date, value) -> values[numberOfValues[0]++] = new ValueDateTupel(date, value));
+		} catch (IOException e) {
+			/* Cannot happen, the consumer only writes to memory */
+			throw new IllegalStateException(e);
+		}
+		return numberOfValues[0] == values.length ? values : Arrays.copyOf(values, numberOfValues[0]);
+	}
+
+	/**
+	 * Writes the given series as CSV file in the given format to the given path, one bar at a time. Values are
+	 * written with four decimals and without thousands separator. An existing file is overwritten.
+	 * 
+	 * @param  targetPath               {@code String} The path of the CSV file. Must not be null.
+	 * @param  series                   {@link Series} The series to be written. Must not be null.
+	 * @param  format                   {@link CsvFormat} The format of the CSV file. Must not be null.
+	 * @throws IOException              if writing fails.
+	 * @throws IllegalArgumentException if any of the given values is null.
+	 */
+	public void writeCsv(String targetPath, Series series, CsvFormat format) throws IOException {
+		if (targetPath == null)
+			throw new IllegalArgumentException("Target path must not be null");
+		if (series == null)
+			throw new IllegalArgumentException("Series must not be null");
+		if (format == null)
+			throw new IllegalArgumentException("Format must not be null");
+
+		int[] datePositions = DataSource.evaluateDatePattern(format);
+		StringBuilder line = new StringBuilder();
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(targetPath))) {
+			this.generate(series, (date, value) -> {
+				line.setLength(0);
+				appendDate(line, date, datePositions, format);
+				line.append(format.getFieldSeparator());
+				appendPadded(line, date.getHour(), 2).append(format.getTimeSeparator());
+				appendPadded(line, date.getMinute(), 2).append(format.getTimeSeparator());
+				appendPadded(line, date.getSecond(), 2);
+				line.append(format.getFieldSeparator());
+				appendValue(line, value, format);
+				writer.append(line).append(System.lineSeparator());
+			});
+		}
+	}
+
+	/**
+	 * Writes the given series as {@link BinarySeries} to the given path, one bar at a time. An existing file is
+	 * overwritten.
+	 * 
+	 * @param  targetPath               {@code String} The path of the binary series. Must not be null.
+	 * @param  series                   {@link Series} The series to be written. Must not be null.
+	 * @throws IOException              if writing fails.
+	 * @throws IllegalArgumentException if any of the given values is null.
+	 */
+	public void writeBinary(String targetPath, Series series) throws IOException {
+		if (targetPath == null)
+			throw new IllegalArgumentException("Target path must not be null");
+		if (series == null)
+			throw new IllegalArgumentException("Series must not be null");
+
+		try (DataOutputStream output = new DataOutputStream(
+		        new BufferedOutputStream(new FileOutputStream(targetPath)))) {
+			BinarySeries.writeHeader(output);
+			this.generate(series, (date, value) -> BinarySeries.writeRecord(output, date, value));
+		}
+	}
+
+	/**
+	 * Appends the date of the given bar in the order of the given format.
+	 * 
+	 * @param line          {@code StringBuilder} The line to be appended to.
+	 * @param date          {@code LocalDateTime} The date to be appended.
+	 * @param datePositions {@code int[]} The positions of day, month and year as given by
+	 *                      {@link DataSource#evaluateDatePattern(CsvFormat)}.
+	 * @param format        {@link CsvFormat} The format of the CSV file.
+	 */
+	private static void appendDate(StringBuilder line, LocalDateTime date, int[] datePositions, CsvFormat format) {
+		int[] dateFields = new int[3];
+		dateFields[datePositions[0]] = date.getDayOfMonth();
+		dateFields[datePositions[1]] = date.getMonthValue();
+		dateFields[datePositions[2]] = date.getYear();
+		for (int i = 0; i < dateFields.length; i++) {
+			if (i > 0)
+				line.append(format.getDateSeparator());
+			appendPadded(line, dateFields[i], i == datePositions[2] ? 4 : 2);
+		}
+	}
+
+	/**
+	 * Appends the given value with the given number of digits, padded with leading zeros.
+	 * 
+	 * @param  line   {@code StringBuilder} The line to be appended to.
+	 * @param  value  {@code long} The value to be appended. Must not be negative.
+	 * @param  digits {@code int} The minimum number of digits.
+	 * @return        {@code StringBuilder} The given line.
+	 */
+	private static StringBuilder appendPadded(StringBuilder line, long value, int digits) {
+		for (long limit = 10, i = 1; i < digits; i++, limit *= 10) {
+			if (value < limit)
+				line.append('0');
+		}
+		return line.append(value);
+	}
+
+	/**
+	 * Appends the given value with {@link #CSV_DECIMALS} decimals and the decimal point of the given format. Much
+	 * faster than {@link String#format(String, Object...)}, which matters for files of millions of bars.
+	 * 
+	 * @param line   {@code StringBuilder} The line to be appended to.
+	 * @param value  {@code double} The value to be appended.
+	 * @param format {@link CsvFormat} The format of the CSV file.
+	 */
+	private static void appendValue(StringBuilder line, double value, CsvFormat format) {
+		long scale = (long) Math.pow(10, CSV_DECIMALS);
+		long scaledValue = Math.round(Math.abs(value) * scale);
+		if (value < 0 && scaledValue != 0)
+			line.append('-');
+		line.append(scaledValue / scale).append(format.getDecimalPoint());
+		appendPadded(line, scaledValue % scale, CSV_DECIMALS);
+	}
+
+	/**
+	 * ====================================================================== OVERRIDES
+	 * ======================================================================
+	 */
+
+	/**
+	 * Outputs the fields of this SyntheticSeriesGenerator as a {@code String}.
+	 */
+	@GeneratedCode
+	@Override
+	public String toString() {
+		return "SyntheticSeriesGenerator [seed=" + seed + ", length=" + length + ", firstDate=" + firstDate
+		        + ", interval=" + interval + ", gapProbability=" + gapProbability + "]";
+	}
+
+	/**
+	 * ====================================================================== GETTERS AND SETTERS
+	 * ======================================================================
+	 */
+
+	/**
+	 * @return seed SyntheticSeriesGenerator
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @param seed the seed to set
+	 */
+	private void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * @return length SyntheticSeriesGenerator
+	 */
+	public long getLength() {
+		return length;
+	}
+
+	/**
+	 * @param length the length to set
+	 */
+	private void setLength(long length) {
+		this.length = length;
+	}
+
+	/**
+	 * @return firstDate SyntheticSeriesGenerator
+	 */
+	public LocalDateTime getFirstDate() {
+		return firstDate;
+	}
+
+	/**
+	 * @param firstDate the firstDate to set
+	 */
+	private void setFirstDate(LocalDateTime firstDate) {
+		this.firstDate = firstDate;
+	}
+
+	/**
+	 * @return interval SyntheticSeriesGenerator
+	 */
+	public Duration getInterval() {
+		return interval;
+	}
+
+	/**
+	 * @param interval the interval to set
+	 */
+	private void setInterval(Duration interval) {
+		this.interval = interval;
+	}
+
+	/**
+	 * @return gapProbability SyntheticSeriesGenerator
+	 */
+	public double getGapProbability() {
+		return gapProbability;
+	}
+
+	/**
+	 * @param gapProbability the gapProbability to set
+	 */
+	private void setGapProbability(double gapProbability) {
+		this.gapProbability = gapProbability;
+	}
+}
@@ -1,5 +1,6 @@
 package de.rumford.tradingsystem.helper;
 
+import java.util.Arrays;
 import java.util.DoubleSummaryStatistics;
 import java.util.stream.DoubleStream;
 
@@ -175,6 +176,34 @@ public final class Util {
 		return baseScale / averageOfAbsolutes;
 	}
 
+	/**
+	 * Calculate the maximum drawdown of the given series of values. The drawdown at any point is the relative loss
+	 * from the highest value seen so far, the maximum drawdown is the largest of those losses.
+	 * 
+	 * @param  values                   {@code double[]} The values (e.g. performance values) to be examined. Must not
+	 *                                  be null.
+	 * @return                          {@code double} The maximum drawdown as a fraction between {@code 0} and
+	 *                                  {@code 1}. {@code 0} if the values never fall below a previous high.
+	 * @throws IllegalArgumentException if the given array is null.
+	 */
+	public static double calculateMaxDrawdown(double[] values) {
+		Validator.validateArrayOfDoubles(values);
+
+		double maxDrawdown = 0;
+		double highestValue = Double.NEGATIVE_INFINITY;
+		for (double value : values) {
+			if (value > highestValue)
+				highestValue = value;
+			/* Only positive highs can serve as base for a relative loss. */
+			if (highestValue > 0) {
+				double drawdown = 1d - value / highestValue;
+				if (drawdown > maxDrawdown)
+					maxDrawdown = drawdown;
+			}
+		}
+		return maxDrawdown;
+	}
+
 	/**
 	 * Calculates the difference between two values in percentage points of change as seen from the former value
 	 * 
@@ -189,6 +218,79 @@ public final class Util {
 		return latterValue / formerValue - 1d;
 	}
 
+	/**
+	 * Calculate the weights that should be given to the rows of values making up the given correlation matrix. This is
+	 * the generalization of {@link #calculateWeightsForThreeCorrelations(double[])} for any number of rows: Each row
+	 * gets a weight proportional to 1 minus its average correlation with all other rows, so rows correlating less with
+	 * the others get higher weights. Negative correlations and correlations of Double.NaN (e.g. for rows of identical
+	 * values) are floored at 0.
+	 * 
+	 * @param  correlationMatrix        {@code double[][]} A square matrix of correlations, where position [i][j] holds
+	 *                                  the correlation of rows i and j. Must not be null. Must not be empty. Must be
+	 *                                  square.
+	 * @return                          {@code double[]} The calculated weights, one per row, summing up to 1. If all
+	 *                                  rows correlate perfectly with each other all weights are equal.
+	 * @throws IllegalArgumentException if any of the above specifications are not met.
+	 */
+	public static double[] calculateWeightsForCorrelations(double[][] correlationMatrix) {
+		if (correlationMatrix == null)
+			throw new IllegalArgumentException("Correlation matrix must not be null");
+		if (correlationMatrix.length == 0)
+			throw new IllegalArgumentException("Correlation matrix must not be empty");
+		for (int row = 0; row < correlationMatrix.length; row++)
+			if (correlationMatrix[row] == null || correlationMatrix[row].length != correlationMatrix.length)
+				throw new IllegalArgumentException("Correlation matrix must be square, but row " + row + " is not");
+
+		final int numberOfRows = correlationMatrix.length;
+		double[] weights = new double[numberOfRows];
+
+		/* A single row gets all the weight. */
+		if (numberOfRows == 1) {
+			weights[0] = 1;
+			return weights;
+		}
+
+		/*
+		 * Get the average correlation each row has with all other rows. Floor negative correlations at 0 (See Carver:
+		 * "Systematic Trading", p. 79)
+		 */
+		double[] averageCorrelations = new double[numberOfRows];
+		for (int row = 0; row < numberOfRows; row++) {
+			double sumOfCorrelations = 0;
+			for (int column = 0; column < numberOfRows; column++) {
+				if (column == row)
+					continue;
+				double correlation = correlationMatrix[row][column];
+				if (correlation > 0)
+					sumOfCorrelations += correlation;
+			}
+			averageCorrelations[row] = sumOfCorrelations / (numberOfRows - 1);
+		}
+
+		/*
+		 * Subtract each average correlation from 1 to get an inverse-ish value
+		 */
+		for (int i = 0; i < averageCorrelations.length; i++)
+			averageCorrelations[i] = 1 - averageCorrelations[i];
+
+		/* Calculate the sum of average correlations. */
+		double sumOfAverageCorrelations = DoubleStream.of(averageCorrelations).sum();
+
+		/* If all rows correlate perfectly, no row is to be preferred. */
+		if (sumOfAverageCorrelations == 0) {
+			Arrays.fill(weights, 1d / numberOfRows);
+			return weights;
+		}
+
+		/*
+		 * Normalize the average correlations so they sum up to 1. These normalized values are the weights.
+		 */
+		for (int i = 0; i < averageCorrelations.length; i++)
+			weights[i] = averageCorrelations[i] / sumOfAverageCorrelations;
+
+		return weights;
+	}
+
 	/**
 	 * Calculate the weights that should be given to the rows of values making up the given correlations. Expects an
 	 * array of length 3, where position 0 holds the correlation of rows A and B, position 1 holds the correlation for
@@ -222,29 +324,13 @@ public final class Util {
 			return weights;
 		}
 
-		/* Get the average correlation each row of values has */
-		double averageCorrRowA = (correlations[0] + correlations[1]) / 2;
-		double averageCorrRowB = (correlations[0] + correlations[2]) / 2;
-		double averageCorrRowC = (correlations[1] + correlations[2]) / 2;
-
-		double[] averageCorrelations = { averageCorrRowA, averageCorrRowB, averageCorrRowC };
-
-		/*
-		 * Subtract each average correlation from 1 to get an inverse-ish value
-		 */
-		for (int i = 0; i < averageCorrelations.length; i++)
-			averageCorrelations[i] = 1 - averageCorrelations[i];
-
-		/* Calculate the sum of average correlations. */
-		double sumOfAverageCorrelations = DoubleStream.of(averageCorrelations).sum();
+		/* Expand the given correlations into a correlation matrix. */
+		double[][] correlationMatrix = { //
+		        { 1, correlations[0], correlations[1] }, //
+		        { correlations[0], 1, correlations[2] }, //
+		        { correlations[1], correlations[2], 1 } };
 
-		/*
-		 * Normalize the average correlations so they sum up to 1. These normalized values are the weights.
-		 */
-		for (int i = 0; i < averageCorrelations.length; i++)
-			weights = ArrayUtils.add(weights, averageCorrelations[i] / sumOfAverageCorrelations);
-
-		return weights;
+		return calculateWeightsForCorrelations(correlationMatrix);
 	}
 
 	/**
@@ -0,0 +1,178 @@
+package de.rumford.tradingsystem.helper;
+
+import java.time.LocalDateTime;
+
+/**
+ * The ValidatedSeries is an array of {@link ValueDateTupel} that passed
+ * {@link Validator#validateValues(ValueDateTupel[])} and {@link Validator#validateDates(ValueDateTupel[])} upon
+ * creation: It is not empty, contains neither null nor Double.NaN, and its dates are unique and sorted in ascending
+ * order.
+ * <p>
+ * Constructors receiving a ValidatedSeries rely on these invariants instead of checking them again, so a series is
+ * validated once, no matter how many rules are built upon it. As a {@link ValueDateTupel} is mutable, the series
+ * copies the given values once upon creation. Afterwards it is read without copying: Single dates and values are
+ * returned as primitives or immutable objects, and calculations of this package, e.g.
+ * {@link DerivedSeriesCache#computeCausal(String, ValidatedSeries, long[], DerivedSeriesCache.CausalCalculation)},
+ * read the held values directly, so the invariants cannot be broken after creation. Only {@link #toArray()} copies.
+ * 
+ * @author Max Rumford
+ */
+public final class ValidatedSeries {
+
+	/* The validated values. */
+	private final ValueDateTupel[] values;
+
+	/**
+	 * Creates a new ValidatedSeries of the given values, which have already been validated.
+	 * 
+	 * @param values {@code ValueDateTupel[]} The validated values.
+	 */
+	private ValidatedSeries(ValueDateTupel[] values) {
+		this.values = values;
+	}
+
+	/**
+	 * Validates the given values and creates a ValidatedSeries of copies of them.
+	 * 
+	 * @param  values                   {@code ValueDateTupel[]} The values. Must pass
+	 *                                  {@link Validator#validateValues(ValueDateTupel[])} and
+	 *                                  {@link Validator#validateDates(ValueDateTupel[])}.
+	 * @return                          {@link ValidatedSeries} The validated series of the given values.
+	 * @throws IllegalArgumentException if the given values do not meet the above specifications.
+	 */
+	public static ValidatedSeries of(ValueDateTupel[] values) {
+		Validator.validateValues(values);
+		Validator.validateDates(values);
+		return new ValidatedSeries(copy(values));
+	}
+
+	/**
+	 * Copies the given values, including each {@link ValueDateTupel}.
+	 * 
+	 * @param  values {@code ValueDateTupel[]} The values to be copied. Must not contain null.
+	 * @return        {@code ValueDateTupel[]} The copies of the given values in the same order.
+	 */
+	private static ValueDateTupel[] copy(ValueDateTupel[] values) {
+		ValueDateTupel[] copies = ValueDateTupel.createEmptyArray(values.length);
+		for (int i = 0; i < values.length; i++)
+			copies[i] = copy(values[i]);
+		return copies;
+	}
+
+	/**
+	 * Copies the given value.
+	 * 
+	 * @param  value {@link ValueDateTupel} The value to be copied. Must not be null.
+	 * @return       {@link ValueDateTupel} The copy of the given value.
+	 */
+	private static ValueDateTupel copy(ValueDateTupel value) {
+		return new ValueDateTupel(value.getDate(), value.getValue());
+	}
+
+	/**
+	 * Check if the given date is contained in this series. As the dates are sorted, a binary search suffices.
+	 * 
+	 * @param  date                     {@link LocalDateTime} The date to be found. Must not be null.
+	 * @return                          {@code boolean} True, if the given date is contained in this series, false
+	 *                                  otherwise.
+	 * @throws IllegalArgumentException if the given date is null.
+	 */
+	public boolean containsDate(LocalDateTime date) {
+		return this.getPosition(date) >= 0;
+	}
+
+	/**
+	 * Get the position of the given date in this series. As the dates are sorted and unique, a binary search suffices.
+	 * 
+	 * @param  date                     {@link LocalDateTime} The date to be found. Must not be null.
+	 * @return                          {@code int} The position of the given date, a negative value if it is not
+	 *                                  contained in this series.
+	 * @throws IllegalArgumentException if the given date is null.
+	 */
+	public int getPosition(LocalDateTime date) {
+		if (date == null)
+			throw new IllegalArgumentException("Date must not be null");
+
+		int low = 0;
+		int high = this.values.length - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int comparison = this.values[middle].getDate().compareTo(date);
+			if (comparison < 0)
+				low = middle + 1;
+			else if (comparison > 0)
+				high = middle - 1;
+			else
+				return middle;
+		}
+		return -(low + 1);
+	}
+
+	/**
+	 * Get the date of the value at the given position.
+	 * 
+	 * @param  position                 {@code int} The position of the value. Must be at least 0 and less than
+	 *                                  {@link #size()}.
+	 * @return                          {@link LocalDateTime} The date of the value at the given position.
+	 * @throws IllegalArgumentException if the given position is out of bounds.
+	 */
+	public LocalDateTime getDate(int position) {
+		this.validatePosition(position);
+		return this.values[position].getDate();
+	}
+
+	/**
+	 * Get the value at the given position.
+	 * 
+	 * @param  position                 {@code int} The position of the value. Must be at least 0 and less than
+	 *                                  {@link #size()}.
+	 * @return                          {@code double} The value at the given position.
+	 * @throws IllegalArgumentException if the given position is out of bounds.
+	 */
+	public double getValue(int position) {
+		this.validatePosition(position);
+		return this.values[position].getValue();
+	}
+
+	/**
+	 * Validates the given position.
+	 * 
+	 * @param  position                 {@code int} The position to be validated. Must be at least 0 and less than
+	 *                                  {@link #size()}.
+	 * @throws IllegalArgumentException if the given position is out of bounds.
+	 */
+	private void validatePosition(int position) {
+		if (position < 0 || position >= this.values.length)
+			throw new IllegalArgumentException(
+			        "Position must be at least 0 and less than " + this.values.length + " but is " + position);
+	}
+
+	/**
+	 * Get the number of values in this series.
+	 * 
+	 * @return {@code int} The number of values, at least 1.
+	 */
+	public int size() {
+		return this.values.length;
+	}
+
+	/**
+	 * Get copies of all values of this series. Altering them does not alter this series. As every value is copied,
+	 * calculations should read the series through {@link #getDate(int)} and {@link #getValue(int)} instead.
+	 * 
+	 * @return {@code ValueDateTupel[]} Copies of all values in order.
+	 */
+	public ValueDateTupel[] toArray() {
+		return copy(this.values);
+	}
+
+	/**
+	 * Get the held values of this series without copying them, for calculations of this package that only read them.
+	 * The returned values must not be altered.
+	 * 
+	 * @return {@code ValueDateTupel[]} The held values.
+	 */
+	ValueDateTupel[] values() {
+		return this.values;
+	}
+}
@@ -206,15 +206,7 @@ public class Validator {
 	 */
 	public static void validateTimeWindow(LocalDateTime startOfTimeWindow, LocalDateTime endOfTimeWindow,
 	        ValueDateTupel[] values) {
-		/* Check if LocalDateTimes are null */
-		if (startOfTimeWindow == null)
-			throw new IllegalArgumentException("Start of time window value must not be null");
-		if (endOfTimeWindow == null)
-			throw new IllegalArgumentException("End of time window value must not be null");
-		/* Check if time window is properly defined: end must be after start */
-		if (!endOfTimeWindow.isAfter(startOfTimeWindow))
-			throw new IllegalArgumentException(
-			        "End of time window value must be after start of time window" + " value");
+		validateTimeWindowBounds(startOfTimeWindow, endOfTimeWindow);
 
 		/*
 		 * The given startOfTimeWindow must be included in the given base values.
@@ -228,6 +220,50 @@ public class Validator {
 			throw new IllegalArgumentException("Given values do not include given end value for time window");
 	}
 
+	/**
+	 * Validates the given time window values against an already validated series. Same specifications as
+	 * {@link #validateTimeWindow(LocalDateTime, LocalDateTime, ValueDateTupel[])}, but containment is checked by a
+	 * binary search only, as the series is known to be sorted.
+	 * 
+	 * @param  startOfTimeWindow        {@link LocalDateTime} The start of Time window to be checked.
+	 * @param  endOfTimeWindow          {@link LocalDateTime} The end of Time window to be checked.
+	 * @param  values                   {@link ValidatedSeries} The series to be checked.
+	 * @throws IllegalArgumentException if any of the specifications are not met.
+	 */
+	public static void validateTimeWindow(LocalDateTime startOfTimeWindow, LocalDateTime endOfTimeWindow,
+	        ValidatedSeries values) {
+		validateTimeWindowBounds(startOfTimeWindow, endOfTimeWindow);
+
+		if (!values.containsDate(startOfTimeWindow))
+			throw new IllegalArgumentException("Given values do not include given start value for time window");
+		if (!values.containsDate(endOfTimeWindow))
+			throw new IllegalArgumentException("Given values do not include given end value for time window");
+	}
+
+	/**
+	 * Validates the given time window values regardless of any values.
+	 * <ul>
+	 * <li>startOfTimeWindow must not be null.</li>
+	 * <li>endOfTimeWindow must not be null.</li>
+	 * <li>endOfTimeWindow must be after startOfTimeWindow.</li>
+	 * </ul>
+	 * 
+	 * @param  startOfTimeWindow        {@link LocalDateTime} The start of Time window to be checked.
+	 * @param  endOfTimeWindow          {@link LocalDateTime} The end of Time window to be checked.
+	 * @throws IllegalArgumentException if any of the above specifications are not met.
+	 */
+	private static void validateTimeWindowBounds(LocalDateTime startOfTimeWindow, LocalDateTime endOfTimeWindow) {
+		/* Check if LocalDateTimes are null */
+		if (startOfTimeWindow == null)
+			throw new IllegalArgumentException("Start of time window value must not be null");
+		if (endOfTimeWindow == null)
+			throw new IllegalArgumentException("End of time window value must not be null");
+		/* Check if time window is properly defined: end must be after start */
+		if (!endOfTimeWindow.isAfter(startOfTimeWindow))
+			throw new IllegalArgumentException(
+			        "End of time window value must be after start of time window" + " value");
+	}
+
 	/**
 	 * Validates the given array of ValueDateTupel. The given array must fulfill the following specifications:
 	 * <ul>
@@ -2,13 +2,10 @@ package de.rumford.tradingsystem.helper;
 
 import java.time.LocalDateTime;
 import java.time.chrono.ChronoLocalDateTime;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
+import java.util.Objects;
 import java.util.TreeSet;
 
-import org.apache.commons.lang3.ArrayUtils;
-
 import de.rumford.tradingsystem.BaseValue;
 
 /**
@@ -124,19 +121,18 @@ public class ValueDateTupel {
 		if (valueDateTupels == null)
 			throw new IllegalArgumentException("Given array of arrays must not be null");
 
-		/* TreeSet (unique and sorted) of all dates in all valueDateTupel[] */
+		CalculationEvent event = new CalculationEvent.Alignment();
+		event.begin();
+
+		/*
+		 * TreeSet (unique and sorted) of all dates in all valueDateTupel[]. Validates every row, so the rows are known
+		 * to be sorted and free of Double.NaN from here on and are not validated again.
+		 */
 		TreeSet<LocalDateTime> uniqueSortedDates = getUniqueDates(valueDateTupels);
 
 		/* Loop over all rows */
 		for (int rowIndex = 0; rowIndex < valueDateTupels.length; rowIndex++) {
 
-			try {
-				/* Validate if the row contains at least one suitable value. */
-				Validator.validateRow(valueDateTupels[rowIndex]);
-			} catch (IllegalArgumentException e) {
-				throw new IllegalArgumentException("Row at position " + rowIndex + " is not valid.", e);
-			}
-
 			/*
 			 * If the row's length equals the length of uniqueSortedDates no Value has to be added as it already
 			 * contains all dateTimes.
@@ -151,6 +147,7 @@ public class ValueDateTupel {
 			valueDateTupels[rowIndex] = replaceNansByValues(valueDateTupels[rowIndex]);
 
 		}
+		event.commit(null, null, uniqueSortedDates.size());
 		return valueDateTupels;
 	}
 
@@ -166,8 +163,11 @@ public class ValueDateTupel {
 	public static boolean contains(ValueDateTupel[] valueDateTupels, ValueDateTupel vdtToBeFound) {
 		if (valueDateTupels == null)
 			throw new IllegalArgumentException(MESSAGE_ARRAY_MUST_NOT_BE_NULL);
-		List<ValueDateTupel> list = new ArrayList<>(Arrays.asList(valueDateTupels));
-		return list.contains(vdtToBeFound);
+		for (ValueDateTupel valueDateTupel : valueDateTupels) {
+			if (Objects.equals(vdtToBeFound, valueDateTupel))
+				return true;
+		}
+		return false;
 	}
 
 	/**
@@ -185,10 +185,8 @@ public class ValueDateTupel {
 			throw new IllegalArgumentException(MESSAGE_ARRAY_MUST_NOT_BE_NULL);
 		if (dtToBeFound == null)
 			throw new IllegalArgumentException(MESSAGE_VALUE_MUST_NOT_BE_NULL);
-		/* Load all values from the given array into an ArrayList. */
-		List<LocalDateTime> list = new ArrayList<>(Arrays.asList(ValueDateTupel.getDates(valueDateTupels)));
-		/* Utilize the generic contains method on ArrayList. */
-		return list.contains(dtToBeFound);
+		/* Utilize the position lookup, which does not copy the given array. */
+		return ValueDateTupel.getPosition(valueDateTupels, dtToBeFound) != Integer.MIN_VALUE;
 	}
 
 	/**
@@ -227,11 +225,10 @@ public class ValueDateTupel {
 		if (dtToBeFound == null)
 			throw new IllegalArgumentException(MESSAGE_VALUE_MUST_NOT_BE_NULL);
 
-		for (ValueDateTupel value : valueDateTupels) {
-			if (value.getDate().equals(dtToBeFound))
-				return value;
-		}
-		return null;
+		int position = ValueDateTupel.getPosition(valueDateTupels, dtToBeFound);
+		if (position == Integer.MIN_VALUE)
+			return null;
+		return valueDateTupels[position];
 	}
 
 	/**
@@ -271,13 +268,12 @@ public class ValueDateTupel {
 		if (positionFrom == Integer.MIN_VALUE || positionTo == Integer.MIN_VALUE)
 			return null;
 
-		ValueDateTupel[] elements = {};
-		/* Add all elements between the two found positions ... */
-		for (int i = positionFrom; i <= positionTo; i++) {
-			elements = ArrayUtils.add(elements, valueDateTupels[i]);
-		}
-		/* ... and return them. */
-		return elements;
+		/* If dtTo lies before dtFrom there are no elements in between. */
+		if (positionTo < positionFrom)
+			return ValueDateTupel.createEmptyArray();
+
+		/* Copy all elements between the two found positions in one go and return them. */
+		return Arrays.copyOfRange(valueDateTupels, positionFrom, positionTo + 1);
 	}
 
 	/**
@@ -292,10 +288,9 @@ public class ValueDateTupel {
 		if (valueDateTupels == null)
 			throw new IllegalArgumentException(MESSAGE_ARRAY_MUST_NOT_BE_NULL);
 
-		LocalDateTime[] values = {};
-		for (ValueDateTupel tupel : valueDateTupels) {
-			values = ArrayUtils.add(values, tupel.getDate());
-		}
+		LocalDateTime[] values = new LocalDateTime[valueDateTupels.length];
+		for (int i = 0; i < valueDateTupels.length; i++)
+			values[i] = valueDateTupels[i].getDate();
 		return values;
 	}
 
@@ -326,7 +321,19 @@ public class ValueDateTupel {
 			throw new IllegalArgumentException(MESSAGE_VALUE_MUST_NOT_BE_NULL);
 
 		/*
-		 * if the given LocalDateTime is in the given array, return its position.
+		 * Arrays of ValueDateTupel are sorted in ascending order throughout the library, so try a binary search first.
+		 */
+		int position = ValueDateTupel.binarySearch(valueDateTupels, dtToBeFound);
+		if (position >= 0) {
+			/* Step back to the first occurrence should the given array contain duplicates. */
+			while (position > 0 && valueDateTupels[position - 1].getDate().equals(dtToBeFound))
+				position--;
+			return position;
+		}
+
+		/*
+		 * If the binary search failed the array might not be sorted. If the given LocalDateTime is in the given array,
+		 * return its position.
 		 */
 		for (int i = 0; i < valueDateTupels.length; i++) {
 			if (valueDateTupels[i].getDate().equals(dtToBeFound))
@@ -337,6 +344,34 @@ public class ValueDateTupel {
 		return defaultReturnValue;
 	}
 
+	/**
+	 * Performs a binary search for the given {@link LocalDateTime} on the given array of {@link ValueDateTupel},
+	 * assuming the array to be sorted in ascending order.
+	 * 
+	 * @param  valueDateTupels {@code ValueDateTupel[]} The array to be searched. Must not be null.
+	 * @param  dtToBeFound     {@link LocalDateTime} The value to be found. Must not be null.
+	 * @return                 {@code int} The position of the given LocalDateTime, or a negative value if it could not
+	 *                         be found.
+	 */
+	private static int binarySearch(ValueDateTupel[] valueDateTupels, LocalDateTime dtToBeFound) {
+		int low = 0;
+		int high = valueDateTupels.length - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			LocalDateTime middleDate = valueDateTupels[middle].getDate();
+			if (middleDate == null)
+				return -1;
+			int comparison = middleDate.compareTo(dtToBeFound);
+			if (comparison < 0)
+				low = middle + 1;
+			else if (comparison > 0)
+				high = middle - 1;
+			else
+				return middle;
+		}
+		return -1;
+	}
+
 	/**
 	 * Get all values from an array of {@link ValueDateTupel}.
 	 * 
@@ -349,9 +384,9 @@ public class ValueDateTupel {
 		if (valueDateTupels == null)
 			throw new IllegalArgumentException(MESSAGE_ARRAY_MUST_NOT_BE_NULL);
 
-		double[] values = {};
-		for (ValueDateTupel tupel : valueDateTupels)
-			values = ArrayUtils.add(values, tupel.getValue());
+		double[] values = new double[valueDateTupels.length];
+		for (int i = 0; i < valueDateTupels.length; i++)
+			values[i] = valueDateTupels[i].getValue();
 		return values;
 	}
 
@@ -424,33 +459,26 @@ public class ValueDateTupel {
 	private static ValueDateTupel[] enhanceRowByNaNs(ValueDateTupel[] valueDateTupels,
 	        TreeSet<LocalDateTime> uniqueSortedDates) {
 
-		/*
-		 * Load unique sorted dates into an ArrayList to have access to an index.
-		 */
-		List<LocalDateTime> uniqueSortedDatesList = new ArrayList<>(uniqueSortedDates);
+		ValueDateTupel[] enhancedRow = ValueDateTupel.createEmptyArray(uniqueSortedDates.size());
 
 		/*
-		 * Loop over all unique dateTimes to assess if they are in the current row. If not, missing dateTimes are added
-		 * into the original arrays. Their value is set to Double.NaN
+		 * Merge the row into all unique dateTimes in a single pass, both being sorted ascending. Every dateTime missing
+		 * in the row gets a new ValueDateTupel with a value of Double.NaN. Inserting them one by one would copy the
+		 * whole row for every missing dateTime.
 		 */
-		for (int fieldIndex = 0; fieldIndex < uniqueSortedDates.size(); fieldIndex++) {
-			ValueDateTupel valueDateTupelToBeAdded = new ValueDateTupel(uniqueSortedDatesList.get(fieldIndex),
-			        Double.NaN);
-
-			if (fieldIndex < valueDateTupels.length
-			        && uniqueSortedDatesList.get(fieldIndex).isEqual(valueDateTupels[fieldIndex].getDate())) {
-
-				/*
-				 * Nothing has to be done, as we're not at the end of the list and the current LocalDateTime out of the
-				 * list of unique values is already in the given row.
-				 */
-				continue;
+		int rowIndex = 0;
+		int fieldIndex = 0;
+		for (LocalDateTime uniqueDate : uniqueSortedDates) {
+			if (rowIndex < valueDateTupels.length && uniqueDate.isEqual(valueDateTupels[rowIndex].getDate())) {
+				enhancedRow[fieldIndex] = valueDateTupels[rowIndex];
+				rowIndex++;
+			} else {
+				enhancedRow[fieldIndex] = new ValueDateTupel(uniqueDate, Double.NaN);
 			}
-
-			valueDateTupels = ValueDateTupel.addOneAt(valueDateTupels, valueDateTupelToBeAdded, fieldIndex);
+			fieldIndex++;
 		}
 
-		return valueDateTupels;
+		return enhancedRow;
 	}
 
 	/**
@@ -0,0 +1,177 @@
+package de.rumford.tradingsystem;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import de.rumford.tradingsystem.helper.SyntheticSeriesGenerator;
+import de.rumford.tradingsystem.helper.SyntheticSeriesGenerator.Series;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * Test class guarding the bytes allocated per processed bar by the per-bar code paths. The allocations of the testing
+ * thread are read from {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)} and divided by the number
+ * of processed bars. The budgets assume compressed object pointers, the default for heaps below 32 GB: a
+ * {@link ValueDateTupel} then takes 24 bytes plus 4 bytes for its slot in an array.
+ * <p>
+ * Unlike wall-clock measurements, the allocations do not depend on the load of the machine, so the budgets are
+ * guarded by every test run. They are skipped on JVMs that cannot measure the allocations of a thread.
+ * 
+ * @author Max Rumford
+ */
+class AllocationBudgetTest {
+
+	static final long SEED = 42;
+	static final int LENGTH = 100_000;
+	static final double BASE_SCALE = 10;
+	static final double CAPITAL = 100000;
+	static final int LOOKBACK_WINDOW = 8;
+	static final int LONG_HORIZON = 32;
+	static final int SHORT_HORIZON = 8;
+
+	/* One ValueDateTupel per bar. */
+	static final double EWMA_BUDGET = 32;
+	/* The two EWMAs plus the sd adjusted and the scaled forecasts. */
+	static final double EWMAC_BUDGET = 128;
+	/* The volatility values plus the sd adjusted and the scaled forecasts. */
+	static final double VOLATILITY_DIFFERENCE_BUDGET = 80;
+	/* Additionally the volatility index calculated from the base values. */
+	static final double VOLATILITY_DIFFERENCE_WITHOUT_INDEX_BUDGET = 112;
+	/* The combined forecasts plus the performance values. */
+	static final double SUBSYSTEM_BUDGET = 64;
+	/* The backtest allocates nothing per bar. */
+	static final double BACKTEST_BUDGET = 1;
+
+	static com.sun.management.ThreadMXBean threadMXBean;
+	static ValueDateTupel[] values;
+	static ValueDateTupel[] volatilityIndexValues;
+	static BaseValue baseValue;
+	static LocalDateTime startOfReferenceWindow;
+	static LocalDateTime endOfReferenceWindow;
+
+	@BeforeAll
+	static void setUpBeforeClass() {
+		assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+		        "Allocations per thread are not available on this JVM");
+		threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(threadMXBean.isThreadAllocatedMemorySupported(),
+		        "Allocations per thread are not supported on this JVM");
+		threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+		SyntheticSeriesGenerator generator = new SyntheticSeriesGenerator(SEED, LENGTH);
+		values = generator.generate(Series.BASE_VALUES);
+		volatilityIndexValues = generator.generate(Series.VOLATILITY_INDEX);
+		baseValue = new BaseValue("allocation", values, generator.generate(Series.SHORT_INDEX));
+		startOfReferenceWindow = values[LENGTH / 10].getDate();
+		endOfReferenceWindow = values[LENGTH / 2].getDate();
+	}
+
+	/**
+	 * Measures the bytes the given operation allocates per bar and asserts they stay within the given budget. The
+	 * operation runs twice before being measured, so class loading and lazy initialisation are not counted.
+	 * 
+	 * @param name           {@code String} The name of the operation for the failure message.
+	 * @param operation      {@code Runnable} The operation to be measured.
+	 * @param numberOfBars   {@code int} The number of bars the operation processes.
+	 * @param budgetPerBar   {@code double} The maximum number of bytes per bar.
+	 */
+	static void assertWithinBudget(String name, Runnable operation, int numberOfBars, double budgetPerBar) {
+		operation.run();
+		operation.run();
+
+		long threadId = Thread.currentThread().getId();
+		long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+		operation.run();
+		double bytesPerBar = (double) (threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore)
+		        / numberOfBars;
+
+		assertTrue(bytesPerBar <= budgetPerBar, name + " allocates " + String.format("%.1f", bytesPerBar)
+		        + " bytes per bar, exceeding its budget of " + budgetPerBar);
+	}
+
+	/**
+	 * Allocation test for {@link EWMA#EWMA(ValueDateTupel[], int)}.
+	 */
+	@Test
+	void testEWMA_allocation() {
+		assertWithinBudget("EWMA", () -> new EWMA(values, LONG_HORIZON), LENGTH, EWMA_BUDGET);
+	}
+
+	/**
+	 * Allocation test for {@link EWMAC#getForecasts()}.
+	 */
+	@Test
+	void testEWMAC_allocation() {
+		assertWithinBudget("EWMAC", () -> new EWMAC(baseValue, null, startOfReferenceWindow, endOfReferenceWindow,
+		        LONG_HORIZON, SHORT_HORIZON, BASE_SCALE).getForecasts(), LENGTH, EWMAC_BUDGET);
+	}
+
+	/**
+	 * Allocation test for {@link VolatilityDifference#getForecasts()} with given volatility index values.
+	 */
+	@Test
+	void testVolatilityDifference_allocation() {
+		assertWithinBudget("VolatilityDifference",
+		        () -> new VolatilityDifference(baseValue, null, startOfReferenceWindow, endOfReferenceWindow,
+		                LOOKBACK_WINDOW, BASE_SCALE, volatilityIndexValues).getForecasts(),
+		        LENGTH, VOLATILITY_DIFFERENCE_BUDGET);
+	}
+
+	/**
+	 * Allocation test for {@link VolatilityDifference#getForecasts()} with the volatility index calculated from the
+	 * base values.
+	 */
+	@Test
+	void testVolatilityDifference_allocationWithoutVolatilityIndex() {
+		assertWithinBudget("VolatilityDifference without volatility index",
+		        () -> new VolatilityDifference(baseValue, null, startOfReferenceWindow, endOfReferenceWindow,
+		                LOOKBACK_WINDOW, BASE_SCALE).getForecasts(),
+		        LENGTH, VOLATILITY_DIFFERENCE_WITHOUT_INDEX_BUDGET);
+	}
+
+	/**
+	 * Allocation test for {@link SubSystem#SubSystem(BaseValue, Rule[], double, double)}. The forecasts of the rules
+	 * are calculated beforehand, so only the combination and the performance values are measured.
+	 */
+	@Test
+	void testSubSystem_allocation() {
+		Rule[] rules = createRules();
+
+		assertWithinBudget("SubSystem", () -> new SubSystem(baseValue, rules, CAPITAL, BASE_SCALE), LENGTH,
+		        SUBSYSTEM_BUDGET);
+	}
+
+	/**
+	 * Allocation test for {@link SubSystem#backtest(LocalDateTime, LocalDateTime)} over the second half of the
+	 * values.
+	 */
+	@Test
+	void testBacktest_allocation() {
+		SubSystem subSystem = new SubSystem(baseValue, createRules(), CAPITAL, BASE_SCALE);
+		LocalDateTime startOfTestWindow = values[LENGTH / 2 + 1].getDate();
+		LocalDateTime endOfTestWindow = values[LENGTH - 1].getDate();
+
+		assertWithinBudget("SubSystem.backtest", () -> subSystem.backtest(startOfTestWindow, endOfTestWindow),
+		        LENGTH / 2 - 1, BACKTEST_BUDGET);
+	}
+
+	/**
+	 * Creates an {@link EWMAC} and a {@link VolatilityDifference} on the base value and calculates their forecasts.
+	 * 
+	 * @return {@code Rule[]} The created rules.
+	 */
+	static Rule[] createRules() {
+		Rule[] rules = { new EWMAC(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, LONG_HORIZON,
+		        SHORT_HORIZON, BASE_SCALE),
+		        new VolatilityDifference(baseValue, null, startOfReferenceWindow, endOfReferenceWindow,
+		                LOOKBACK_WINDOW, BASE_SCALE, volatilityIndexValues) };
+		for (Rule rule : rules)
+			rule.getForecasts();
+		return rules;
+	}
+}
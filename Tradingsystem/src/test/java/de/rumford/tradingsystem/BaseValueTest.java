@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Arrays;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.junit.jupiter.api.BeforeAll;
@@ -194,6 +195,25 @@ class BaseValueTest {
 		assertEquals(baseValue, baseValue2, "Two instances with the same contents are not equal");
 	}
 
+	/**
+	 * Test method for {@link BaseValue#BaseValue(String, ValueDateTupel[], ValueDateTupel[])}. The standard deviation
+	 * is derived from the values aligned to the short index values.
+	 */
+	@Test
+	void testBaseValue_name_values_shortIndexValues_aligned() {
+		/* The missing last value is filled with the previous value. */
+		ValueDateTupel[] alignedValues = { valuedatetupel1, valuedatetupel2, valuedatetupel3,
+		        new ValueDateTupel(localDateTimeJan04_22_00_00, valuedatetupel3.getValue()) };
+		ValueDateTupel[] expectedValues = new BaseValue(NAME_OF_TEST_BASE_VALUES, alignedValues)
+		        .getStandardDeviationValues();
+
+		baseValue = new BaseValue(NAME_OF_TEST_BASE_VALUES, Arrays.copyOf(values, values.length - 1), shortValues);
+
+		assertArrayEquals(alignedValues, baseValue.getValues(), "Values are not aligned");
+		assertArrayEquals(expectedValues, baseValue.getStandardDeviationValues(),
+		        "Standard deviation values are not derived from the aligned values");
+	}
+
 	/**
 	 * Test method for {@link BaseValue#BaseValue(String, ValueDateTupel[], ValueDateTupel[])}.
 	 */
@@ -326,4 +346,122 @@ class BaseValueTest {
 
 		assertArrayEquals(shortValues, actualValues, "The calculated short index values are not as expected");
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Test method for {@link BaseValue#append(ValueDateTupel)}.
+	 */
+	@Test
+	void testAppend() {
+		BaseValue expectedBaseValue = new BaseValue(NAME_OF_TEST_BASE_VALUES, values);
+
+		baseValue = new BaseValue(NAME_OF_TEST_BASE_VALUES, new ValueDateTupel[] { values[0], values[1] });
+		baseValue.append(values[2]);
+		baseValue.append(values[3]);
+
+		assertEquals(expectedBaseValue, baseValue, "Appended values are not equal to given values");
+		assertArrayEquals(expectedBaseValue.getStandardDeviationValues(), baseValue.getStandardDeviationValues(),
+		        "Standard deviation values are not correctly calculated for appended values");
+	}
+
+	/**
+	 * Test method for {@link BaseValue#getValue(int)}, {@link BaseValue#getShortIndexValue(int)},
+	 * {@link BaseValue#getStandardDeviationValue(int)} and {@link BaseValue#getNumberOfValues()}.
+	 */
+	@Test
+	void testGetValue_appendedValues() {
+		BaseValue expectedBaseValue = new BaseValue(NAME_OF_TEST_BASE_VALUES, values);
+
+		baseValue = new BaseValue(NAME_OF_TEST_BASE_VALUES, new ValueDateTupel[] { values[0], values[1] });
+		for (int i = 2; i < values.length; i++) {
+			baseValue.append(values[i]);
+
+			assertEquals(i + 1, baseValue.getNumberOfValues(), "Number of values is not updated");
+			assertEquals(values[i], baseValue.getValue(i), "Appended value is not readable");
+			assertEquals(expectedBaseValue.getShortIndexValues()[i], baseValue.getShortIndexValue(i),
+			        "Appended short index value is not readable");
+			assertEquals(expectedBaseValue.getStandardDeviationValues()[i - 1],
+			        baseValue.getStandardDeviationValue(i - 1), "Appended standard deviation value is not readable");
+		}
+		assertEquals(values[0], baseValue.getValue(0), "Initial value is not readable");
+	}
+
+	/**
+	 * Test method for {@link BaseValue#append(ValueDateTupel)}.
+	 */
+	@Test
+	void testAppend_shortIndexReturnCapped() {
+		ValueDateTupel valueDoubled = new ValueDateTupel(localDateTimeJan05_22_00_00, 800d);
+		ValueDateTupel[] allValues = ArrayUtils.add(values, valueDoubled);
+		BaseValue expectedBaseValue = new BaseValue(NAME_OF_TEST_BASE_VALUES, allValues);
+
+		baseValue = new BaseValue(NAME_OF_TEST_BASE_VALUES, values);
+		baseValue.append(valueDoubled);
+
+		assertArrayEquals(expectedBaseValue.getShortIndexValues(), baseValue.getShortIndexValues(),
+		        "Short index values are not correctly calculated for appended values");
+	}
+
+	/**
+	 * Test method for {@link BaseValue#append(ValueDateTupel, ValueDateTupel)}.
+	 */
+	@Test
+	void testAppend_shortIndexValue() {
+		BaseValue expectedBaseValue = new BaseValue(NAME_OF_TEST_BASE_VALUES, values, shortValues);
+
+		baseValue = new BaseValue(NAME_OF_TEST_BASE_VALUES, new ValueDateTupel[] { values[0], values[1] },
+		        new ValueDateTupel[] { shortValues[0], shortValues[1] });
+		baseValue.append(values[2], shortValues[2]);
+		baseValue.append(values[3], shortValues[3]);
+
+		assertEquals(expectedBaseValue, baseValue, "Appended values are not equal to given values");
+		assertArrayEquals(expectedBaseValue.getStandardDeviationValues(), baseValue.getStandardDeviationValues(),
+		        "Standard deviation values are not correctly calculated for appended values");
+	}
+
+	/**
+	 * Test method for {@link BaseValue#append(ValueDateTupel)}.
+	 */
+	@Test
+	void testAppend_dateNotAfterLastDate() {
+		baseValue = new BaseValue(NAME_OF_TEST_BASE_VALUES, values);
+		ValueDateTupel valueOfLastDate = new ValueDateTupel(localDateTimeJan04_22_00_00, 100d);
+		String expectedMessage = "Date of the value must be after the date of the last value: "
+		        + localDateTimeJan04_22_00_00;
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> baseValue.append(valueOfLastDate),
+		        "Value not after last value is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link BaseValue#append(ValueDateTupel)}.
+	 */
+	@Test
+	void testAppend_shortIndexValuesGiven() {
+		baseValue = new BaseValue(NAME_OF_TEST_BASE_VALUES, values, shortValues);
+		ValueDateTupel value = new ValueDateTupel(localDateTimeJan05_22_00_00, 100d);
+		String expectedMessage = "Short index values were given upon instantiation, so a short index value must be"
+		        + " appended as well";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> baseValue.append(value),
+		        "Missing short index value is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link BaseValue#append(ValueDateTupel, ValueDateTupel)}.
+	 */
+	@Test
+	void testAppend_shortIndexValueOfOtherDate() {
+		baseValue = new BaseValue(NAME_OF_TEST_BASE_VALUES, values, shortValues);
+		ValueDateTupel value = new ValueDateTupel(localDateTimeJan05_22_00_00, 100d);
+		String expectedMessage = "Short index value must be of the same date as the value";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> baseValue.append(value, valuedatetupel8),
+		        "Short index value of other date is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+}
@@ -0,0 +1,166 @@
+package de.rumford.tradingsystem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.rumford.tradingsystem.BatchConfiguration.InstrumentConfiguration;
+import de.rumford.tradingsystem.BatchConfiguration.RuleDefinition;
+
+/**
+ * Test class for {@link BatchConfiguration}.
+ * 
+ * @author Max Rumford
+ */
+class BatchConfigurationTest {
+
+	static final String MESSAGE_INCORRECT_EXCEPTION_MESSAGE = "Incorrect Exception message";
+	static final Path BASE_DIRECTORY = Path.of("src", "test", "resources");
+
+	Properties properties;
+
+	@BeforeEach
+	void setUp() {
+		properties = new Properties();
+		properties.setProperty("instruments", "DAX, SP");
+		properties.setProperty("parallelism", "2");
+		properties.setProperty("capital", "100000");
+		properties.setProperty("baseScale", "10");
+		properties.setProperty("referenceWindow", "2014-01-02T22:00/2018-12-28T22:00");
+		properties.setProperty("testWindow", "2019-01-02T22:00/2019-12-30T22:00");
+		properties.setProperty("rules", "VolatilityDifference(8); EWMAC[EWMAC(8, 2), EWMAC(16, 4), EWMAC(32, 8)]");
+		properties.setProperty("DAX.file", "DAX.csv");
+		properties.setProperty("DAX.capital", "20020");
+		properties.setProperty("SP.name", "S&P 500");
+		properties.setProperty("SP.file", "S&P.csv");
+	}
+
+	/**
+	 * Test method for {@link BatchConfiguration#BatchConfiguration(Properties, Path)}.
+	 */
+	@Test
+	void testBatchConfiguration() {
+		BatchConfiguration configuration = new BatchConfiguration(properties, BASE_DIRECTORY);
+
+		List<InstrumentConfiguration> instruments = configuration.getInstruments();
+		assertEquals(2, instruments.size(), "Number of instruments is not correct");
+		assertEquals("DAX", instruments.get(0).getName(), "Name does not default to the id");
+		assertEquals(20020, instruments.get(0).getCapital(), "Instrument property does not override");
+		assertEquals("S&P 500", instruments.get(1).getName(), "Name is not correct");
+		assertEquals(100000, instruments.get(1).getCapital(), "Property does not apply to all instruments");
+		assertEquals(LocalDateTime.of(2019, 12, 30, 22, 0), instruments.get(1).getEndOfTestWindow(),
+		        "End of test window is not correct");
+		assertEquals(2, configuration.getParallelism(), "Parallelism is not correct");
+		assertEquals(BASE_DIRECTORY.resolve(BatchConfiguration.DEFAULT_OUTPUT), configuration.getOutput(),
+		        "Output does not default correctly");
+		assertNull(configuration.getCacheDirectory(), "Cache directory is set although not given");
+	}
+
+	/**
+	 * Test method for {@link BatchConfiguration#BatchConfiguration(Properties, Path)}.
+	 */
+	@Test
+	void testBatchConfiguration_fileMissing() {
+		properties.remove("SP.file");
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new BatchConfiguration(properties, BASE_DIRECTORY));
+
+		assertEquals("Property file must be set for SP", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link BatchConfiguration#BatchConfiguration(Properties, Path)}.
+	 */
+	@Test
+	void testBatchConfiguration_instrumentListedTwice() {
+		properties.setProperty("instruments", "DAX, SP, DAX");
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new BatchConfiguration(properties, BASE_DIRECTORY));
+
+		assertEquals("Instrument DAX is listed more than once", thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link BatchConfiguration#BatchConfiguration(Properties, Path)}.
+	 */
+	@Test
+	void testBatchConfiguration_invalidWindow() {
+		properties.setProperty("DAX.testWindow", "2019-01-02T22:00");
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new BatchConfiguration(properties, BASE_DIRECTORY));
+
+		assertEquals("Property DAX.testWindow must be given as start/end but is 2019-01-02T22:00",
+		        thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link RuleDefinition#parse(String)}.
+	 */
+	@Test
+	void testParse() {
+		List<RuleDefinition> rules = RuleDefinition
+		        .parse(" VolatilityDifference( 8 ) ;EWMAC[EWMAC(8,2), EWMAC(16, 4),EWMAC(32, 8)]; ");
+
+		assertEquals(2, rules.size(), "Number of rules is not correct");
+		assertEquals("VolatilityDifference(8)", rules.get(0).toString(), "First rule is not correct");
+		assertEquals("EWMAC[EWMAC(8, 2), EWMAC(16, 4), EWMAC(32, 8)]", rules.get(1).toString(),
+		        "Second rule is not correct");
+	}
+
+	/**
+	 * Test method for {@link RuleDefinition#parse(String)}.
+	 */
+	@Test
+	void testParse_unknownType() {
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> RuleDefinition.parse("SMA(8)"));
+
+		assertEquals("Rule type SMA is unknown", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link RuleDefinition#parse(String)}.
+	 */
+	@Test
+	void testParse_wrongNumberOfParameters() {
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> RuleDefinition.parse("EWMAC(8)"));
+
+		assertEquals("EWMAC must have 2 parameters but has 1", thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link RuleDefinition#parse(String)}.
+	 */
+	@Test
+	void testParse_mixedVariations() {
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> RuleDefinition.parse("EWMAC[EWMAC(8, 2), VolatilityDifference(8)]"));
+
+		assertEquals("Variations of EWMAC must be of the same type", thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link RuleDefinition#parse(String)}.
+	 */
+	@Test
+	void testParse_unclosed() {
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> RuleDefinition.parse("EWMAC[EWMAC(8, 2)"));
+
+		assertEquals("Expected ']' at position 17 of rule EWMAC[EWMAC(8, 2)", thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+}
@@ -0,0 +1,140 @@
+package de.rumford.tradingsystem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.rumford.tradingsystem.BatchRunner.Result;
+import de.rumford.tradingsystem.helper.CsvFormat;
+import de.rumford.tradingsystem.helper.DataSource;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * Test class for {@link BatchRunner}.
+ * 
+ * @author Max Rumford
+ */
+class BatchRunnerTest {
+
+	static final String MESSAGE_INCORRECT_EXCEPTION_MESSAGE = "Incorrect Exception message";
+	static final Path BASE_DIRECTORY = Path.of("src", "test", "resources");
+	static final LocalDateTime START_OF_REFERENCE_WINDOW = LocalDateTime.of(2014, 1, 2, 22, 0);
+	static final LocalDateTime END_OF_REFERENCE_WINDOW = LocalDateTime.of(2018, 12, 28, 22, 0);
+	static final LocalDateTime START_OF_TEST_WINDOW = LocalDateTime.of(2019, 1, 2, 22, 0);
+	static final LocalDateTime END_OF_TEST_WINDOW = LocalDateTime.of(2019, 12, 30, 22, 0);
+	static final double BASE_SCALE = 10;
+	static final double CAPITAL = 100000;
+
+	Properties properties;
+
+	@BeforeEach
+	void setUp() {
+		properties = new Properties();
+		properties.setProperty("instruments", "DAX, MISSING");
+		properties.setProperty("parallelism", "2");
+		properties.setProperty("capital", String.valueOf(CAPITAL));
+		properties.setProperty("baseScale", String.valueOf(BASE_SCALE));
+		properties.setProperty("referenceWindow", START_OF_REFERENCE_WINDOW + "/" + END_OF_REFERENCE_WINDOW);
+		properties.setProperty("testWindow", START_OF_TEST_WINDOW + "/" + END_OF_TEST_WINDOW);
+		properties.setProperty("rules", "VolatilityDifference(8); EWMAC[EWMAC(8, 2), EWMAC(16, 4), EWMAC(32, 8)]");
+		properties.setProperty("DAX.file", "DAX.csv");
+		properties.setProperty("DAX.shortFile", "DAX_short.csv");
+		properties.setProperty("DAX.volatilityFile", "DAX_VDAX.csv");
+		properties.setProperty("MISSING.file", "MISSING.csv");
+	}
+
+	/**
+	 * Test method for {@link BatchRunner#run()}. The result of the DAX equals the one of the same SubSystem built as
+	 * by the {@link ExampleClient}, the missing file fails without affecting it.
+	 * 
+	 * @throws IOException if the test data cannot be read.
+	 */
+	@Test
+	void testRun() throws IOException {
+		List<Result> results = new BatchRunner(new BatchConfiguration(properties, BASE_DIRECTORY)).run();
+
+		SubSystem expected = createDaxSubSystem();
+		assertEquals(2, results.size(), "Number of results is not correct");
+		assertNull(results.get(0).getError(), "DAX failed");
+		assertEquals(expected.backtest(START_OF_TEST_WINDOW, END_OF_TEST_WINDOW),
+		        results.get(0).getPerformanceValue(), "Performance value is not correct");
+		ValueDateTupel[] combinedForecasts = expected.getCombinedForecasts();
+		assertEquals(combinedForecasts[combinedForecasts.length - 1].getValue(), results.get(0).getLastForecast(),
+		        "Last forecast is not correct");
+		assertEquals("MISSING", results.get(1).getInstrument(), "Failed instrument is not correct");
+		assertTrue(results.get(1).getError() != null, "Missing file did not fail");
+		assertTrue(Double.isNaN(results.get(1).getReturn()), "Return of failed instrument is not NaN");
+	}
+
+	/**
+	 * Test method for {@link BatchRunner#writeResults(List, Path)}.
+	 * 
+	 * @throws IOException if the temporary file cannot be handled.
+	 */
+	@Test
+	void testWriteResults() throws IOException {
+		List<Result> results = List.of(
+		        new Result("DAX", CAPITAL, 150000, END_OF_TEST_WINDOW, 12, null),
+		        new Result("MISSING", CAPITAL, Double.NaN, null, Double.NaN, "File not found;\nMISSING.csv"));
+		Path output = Files.createTempFile("results", ".csv");
+
+		try {
+			BatchRunner.writeResults(results, output);
+
+			List<String> lines = Files.readAllLines(output);
+			assertEquals(3, lines.size(), "Number of lines is not correct");
+			assertEquals(BatchRunner.HEADER, lines.get(0), "Header is not correct");
+			assertEquals("DAX;100000.0;150000.0;0.5;" + END_OF_TEST_WINDOW + ";12.0;Long;", lines.get(1),
+			        "Result line is not correct");
+			assertEquals("MISSING;100000.0;;;;;;File not found  MISSING.csv", lines.get(2),
+			        "Error line is not correct");
+		} finally {
+			Files.delete(output);
+		}
+	}
+
+	/**
+	 * Test method for {@link BatchRunner#BatchRunner(BatchConfiguration)}.
+	 */
+	@Test
+	void testBatchRunner_null() {
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> new BatchRunner(null));
+
+		assertEquals("Configuration must not be null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Creates the SubSystem of the DAX as the {@link ExampleClient} does.
+	 * 
+	 * @return             {@link SubSystem} The SubSystem.
+	 * @throws IOException if the test data cannot be read.
+	 */
+	static SubSystem createDaxSubSystem() throws IOException {
+		ValueDateTupel[][] aligned = ValueDateTupel.alignDates(new ValueDateTupel[][] {
+		        DataSource.getDataFromCsv(BASE_DIRECTORY.resolve("DAX.csv").toString(), CsvFormat.EU),
+		        DataSource.getDataFromCsv(BASE_DIRECTORY.resolve("DAX_short.csv").toString(), CsvFormat.EU),
+		        DataSource.getDataFromCsv(BASE_DIRECTORY.resolve("DAX_VDAX.csv").toString(), CsvFormat.EU) });
+		BaseValue baseValue = new BaseValue("DAX", aligned[0], aligned[1]);
+		EWMAC[] variations = {
+		        new EWMAC(baseValue, null, START_OF_REFERENCE_WINDOW, END_OF_REFERENCE_WINDOW, 8, 2, BASE_SCALE),
+		        new EWMAC(baseValue, null, START_OF_REFERENCE_WINDOW, END_OF_REFERENCE_WINDOW, 16, 4, BASE_SCALE),
+		        new EWMAC(baseValue, null, START_OF_REFERENCE_WINDOW, END_OF_REFERENCE_WINDOW, 32, 8, BASE_SCALE) };
+		Rule[] rules = {
+		        new VolatilityDifference(baseValue, null, START_OF_REFERENCE_WINDOW, END_OF_REFERENCE_WINDOW, 8,
+		                BASE_SCALE, aligned[2]),
+		        new EWMAC(baseValue, variations, START_OF_REFERENCE_WINDOW, END_OF_REFERENCE_WINDOW, 0, 0,
+		                BASE_SCALE) };
+		return new SubSystem(baseValue, rules, CAPITAL, BASE_SCALE);
+	}
+}
@@ -0,0 +1,311 @@
+package de.rumford.tradingsystem;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.rumford.tradingsystem.CalculationGraph.RuleNode;
+import de.rumford.tradingsystem.helper.InMemoryMetricsRegistry;
+import de.rumford.tradingsystem.helper.Metrics;
+import de.rumford.tradingsystem.helper.MetricsRegistry;
+import de.rumford.tradingsystem.helper.SyntheticSeriesGenerator;
+import de.rumford.tradingsystem.helper.SyntheticSeriesGenerator.Series;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * Test class for {@link CalculationGraph}.
+ * 
+ * @author Max Rumford
+ */
+class CalculationGraphTest {
+
+	static final String MESSAGE_INCORRECT_EXCEPTION_MESSAGE = "Incorrect Exception message";
+	static final long SEED = 42;
+	static final int LENGTH = 300;
+	static final double BASE_SCALE = 10;
+	static final double CAPITAL = 100000;
+
+	BaseValue baseValue;
+	ValueDateTupel[] volatilityIndex;
+	LocalDateTime startOfReferenceWindow;
+	LocalDateTime endOfReferenceWindow;
+
+	@BeforeEach
+	void setUp() {
+		SyntheticSeriesGenerator generator = new SyntheticSeriesGenerator(SEED, LENGTH);
+		ValueDateTupel[] values = generator.generate(Series.BASE_VALUES);
+		volatilityIndex = generator.generate(Series.VOLATILITY_INDEX);
+		baseValue = new BaseValue("DAX", values);
+		startOfReferenceWindow = values[LENGTH / 10].getDate();
+		endOfReferenceWindow = values[LENGTH / 2].getDate();
+	}
+
+	/**
+	 * Creates the rules of the SubSystems under test: An EWMAC with three variations and a VolatilityDifference.
+	 * 
+	 * @return {@code Rule[]} New rules.
+	 */
+	Rule[] createRules() {
+		EWMAC[] variations = {
+		        new EWMAC(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 8, 2, BASE_SCALE),
+		        new EWMAC(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 16, 4, BASE_SCALE),
+		        new EWMAC(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 32, 8, BASE_SCALE) };
+		return new Rule[] {
+		        new EWMAC(baseValue, variations, startOfReferenceWindow, endOfReferenceWindow, 0, 0, BASE_SCALE),
+		        new VolatilityDifference(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 8, BASE_SCALE,
+		                volatilityIndex) };
+	}
+
+	/**
+	 * Creates the nodes of the rules of {@link #createRules()}.
+	 * 
+	 * @return {@code RuleNode[]} New rule nodes.
+	 */
+	RuleNode[] createRuleNodes() {
+		RuleNode[] variations = { createEwmacNode(8, 2), createEwmacNode(16, 4), createEwmacNode(32, 8) };
+		return new RuleNode[] {
+		        new RuleNode((base, created) -> new EWMAC(base,
+		                Arrays.copyOf(created, created.length, EWMAC[].class), startOfReferenceWindow,
+		                endOfReferenceWindow, 0, 0, BASE_SCALE), variations),
+		        new RuleNode((base, created) -> new VolatilityDifference(base, null, startOfReferenceWindow,
+		                endOfReferenceWindow, 8, BASE_SCALE, volatilityIndex)) };
+	}
+
+	/**
+	 * Creates the node of an EWMAC without variations.
+	 * 
+	 * @param  longHorizon  {@code int} The long horizon.
+	 * @param  shortHorizon {@code int} The short horizon.
+	 * @return              {@link RuleNode} The new node.
+	 */
+	RuleNode createEwmacNode(int longHorizon, int shortHorizon) {
+		return new RuleNode((base, created) -> new EWMAC(base, null, startOfReferenceWindow, endOfReferenceWindow,
+		        longHorizon, shortHorizon, BASE_SCALE));
+	}
+
+	/**
+	 * Test method for {@link CalculationGraph#run()}.
+	 */
+	@Test
+	void testRun() {
+		SubSystem expected = new SubSystem(baseValue, createRules(), CAPITAL, BASE_SCALE);
+
+		SubSystem actual = new CalculationGraph(baseValue, createRules(), CAPITAL, BASE_SCALE).run();
+
+		assertArrayEquals(ValueDateTupel.getValues(expected.getCombinedForecasts()),
+		        ValueDateTupel.getValues(actual.getCombinedForecasts()),
+		        "Combined forecasts differ from the sequentially built SubSystem");
+		assertEquals(expected.getDiversificationMultiplier().getValue(),
+		        actual.getDiversificationMultiplier().getValue(),
+		        "Diversification multiplier differs from the sequentially built SubSystem");
+		for (int i = 0; i < expected.getRules().length; i++)
+			assertEquals(expected.getRules()[i].getFingerprint(), actual.getRules()[i].getFingerprint(),
+			        "Rule " + i + " differs from the sequentially built SubSystem");
+	}
+
+	/**
+	 * Test method for {@link CalculationGraph#run(ForkJoinPool)}.
+	 */
+	@Test
+	void testRun_pool() {
+		SubSystem expected = new SubSystem(baseValue, createRules(), CAPITAL, BASE_SCALE);
+		ForkJoinPool pool = new ForkJoinPool(4);
+
+		try {
+			SubSystem actual = new CalculationGraph(baseValue, createRules(), CAPITAL, BASE_SCALE).run(pool);
+
+			assertArrayEquals(ValueDateTupel.getValues(expected.getCombinedForecasts()),
+			        ValueDateTupel.getValues(actual.getCombinedForecasts()),
+			        "Combined forecasts differ from the sequentially built SubSystem");
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Test method for {@link CalculationGraph#run()} of a graph creating the base value and the rules.
+	 */
+	@Test
+	void testRun_ruleNodes() {
+		SubSystem expected = new SubSystem(baseValue, createRules(), CAPITAL, BASE_SCALE);
+
+		SubSystem actual = new CalculationGraph(() -> baseValue, createRuleNodes(), CAPITAL, BASE_SCALE).run();
+
+		assertArrayEquals(ValueDateTupel.getValues(expected.getCombinedForecasts()),
+		        ValueDateTupel.getValues(actual.getCombinedForecasts()),
+		        "Combined forecasts differ from the sequentially built SubSystem");
+		for (int i = 0; i < expected.getRules().length; i++)
+			assertEquals(expected.getRules()[i].getFingerprint(), actual.getRules()[i].getFingerprint(),
+			        "Rule " + i + " differs from the sequentially built SubSystem");
+	}
+
+	/**
+	 * Test method for {@link CalculationGraph#run()}. Neither the base value nor any rule is created or calculated
+	 * before the graph is run, all five rules are created and calculated by the nodes of the graph.
+	 */
+	@Test
+	void testRun_createdByNodes() {
+		InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+		Metrics.setRegistry(registry);
+		try {
+			AtomicInteger baseValuesCreated = new AtomicInteger();
+			CalculationGraph graph = new CalculationGraph(() -> {
+				baseValuesCreated.incrementAndGet();
+				return baseValue;
+			}, createRuleNodes(), CAPITAL, BASE_SCALE);
+
+			assertEquals(0, baseValuesCreated.get(), "Base value is created before the graph is run");
+			assertEquals(0, registry.getCount(Metrics.RULES_BUILT, baseValue.getName()),
+			        "Forecasts are calculated before the graph is run");
+
+			graph.run();
+
+			assertEquals(1, baseValuesCreated.get(), "Base value is not created once");
+			assertEquals(5, registry.getCount(Metrics.RULES_BUILT, baseValue.getName()),
+			        "Forecasts are not calculated once per rule");
+		} finally {
+			Metrics.setRegistry(MetricsRegistry.NOOP);
+		}
+	}
+
+	/**
+	 * Test method for {@link CalculationGraph#run(ForkJoinPool)} with a variation shared by two rules. Its weight is
+	 * set by the rule defined last, as if the rules were created sequentially.
+	 */
+	@Test
+	void testRun_sharedVariation() {
+		EWMAC sharedVariation = new EWMAC(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 16, 4,
+		        BASE_SCALE);
+		new EWMAC(baseValue, new EWMAC[] { new EWMAC(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 8,
+		        2, BASE_SCALE), sharedVariation }, startOfReferenceWindow, endOfReferenceWindow, 0, 0, BASE_SCALE);
+		new EWMAC(baseValue,
+		        new EWMAC[] { sharedVariation,
+		                new EWMAC(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 32, 8, BASE_SCALE),
+		                new EWMAC(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 64, 16, BASE_SCALE) },
+		        startOfReferenceWindow, endOfReferenceWindow, 0, 0, BASE_SCALE);
+		double expectedWeight = sharedVariation.getWeight();
+		RuleNode shared = createEwmacNode(16, 4);
+		RuleNode[] rules = { createParentNode(createEwmacNode(8, 2), shared),
+		        createParentNode(shared, createEwmacNode(32, 8), createEwmacNode(64, 16)) };
+		ForkJoinPool pool = new ForkJoinPool(4);
+
+		try {
+			for (int i = 0; i < 10; i++) {
+				SubSystem subSystem = new CalculationGraph(() -> baseValue, rules, CAPITAL, BASE_SCALE).run(pool);
+
+				Rule actualShared = subSystem.getRules()[1].getVariations()[0];
+				assertSame(subSystem.getRules()[0].getVariations()[1], actualShared,
+				        "Shared variation is created more than once");
+				assertEquals(expectedWeight, actualShared.getWeight(),
+				        "Weight of the shared variation differs from the sequentially created rules");
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Creates the node of an EWMAC with the given variations.
+	 * 
+	 * @param  variations {@code RuleNode[]} The nodes of the variations.
+	 * @return            {@link RuleNode} The new node.
+	 */
+	RuleNode createParentNode(RuleNode... variations) {
+		return new RuleNode((base, created) -> new EWMAC(base, Arrays.copyOf(created, created.length, EWMAC[].class),
+		        startOfReferenceWindow, endOfReferenceWindow, 0, 0, BASE_SCALE), variations);
+	}
+
+	/**
+	 * Test method for {@link CalculationGraph#run(ForkJoinPool)}.
+	 */
+	@Test
+	void testRun_poolNull() {
+		CalculationGraph graph = new CalculationGraph(baseValue, createRules(), CAPITAL, BASE_SCALE);
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> graph.run(null));
+
+		assertEquals("Pool must not be null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link CalculationGraph#run()} with a definition not meeting the specifications of a SubSystem.
+	 * The exception thrown by the SubSystem is passed on unwrapped.
+	 */
+	@Test
+	void testRun_invalidCapital() {
+		CalculationGraph graph = new CalculationGraph(baseValue, createRules(), 0, BASE_SCALE);
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> graph.run());
+
+		assertEquals("Given capital does not meet specifications.", thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link CalculationGraph#getNumberOfRuleNodes()}.
+	 */
+	@Test
+	void testGetNumberOfRuleNodes() {
+		CalculationGraph graph = new CalculationGraph(baseValue, createRules(), CAPITAL, BASE_SCALE);
+
+		assertEquals(5, graph.getNumberOfRuleNodes(), "Number of rule nodes is not correct");
+	}
+
+	/**
+	 * Test method for {@link CalculationGraph#getNumberOfRuleNodes()} with a rule given twice. It is a single node.
+	 */
+	@Test
+	void testGetNumberOfRuleNodes_sharedRule() {
+		Rule[] rules = createRules();
+		Rule[] sharingRules = { rules[0], rules[1], rules[0] };
+
+		CalculationGraph graph = new CalculationGraph(baseValue, sharingRules, CAPITAL, BASE_SCALE);
+
+		assertEquals(5, graph.getNumberOfRuleNodes(), "Shared rule is not a single node");
+	}
+
+	/**
+	 * Test method for {@link CalculationGraph#CalculationGraph(Supplier, RuleNode[], double, double)}.
+	 */
+	@Test
+	void testCalculationGraph_baseValueNull() {
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new CalculationGraph(null, createRuleNodes(), CAPITAL, BASE_SCALE));
+
+		assertEquals("Base value supplier must not be null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link CalculationGraph#CalculationGraph(BaseValue, Rule[], double, double)}.
+	 */
+	@Test
+	void testCalculationGraph_rulesNull() {
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new CalculationGraph(baseValue, null, CAPITAL, BASE_SCALE));
+
+		assertEquals("Rules must not be null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link CalculationGraph#CalculationGraph(BaseValue, Rule[], double, double)}.
+	 */
+	@Test
+	void testCalculationGraph_rulesContainNull() {
+		Rule[] rules = { createRules()[0], null };
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new CalculationGraph(baseValue, rules, CAPITAL, BASE_SCALE));
+
+		assertEquals("Rules must not contain null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+}
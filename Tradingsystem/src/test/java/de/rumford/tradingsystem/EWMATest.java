@@ -4,10 +4,13 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Arrays;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import de.rumford.tradingsystem.helper.BaseValueFactory;
+import de.rumford.tradingsystem.helper.ValidatedSeries;
 import de.rumford.tradingsystem.helper.ValueDateTupel;
 
 /**
@@ -43,6 +46,52 @@ class EWMATest {
 		assertEquals(ewma2, ewma2_1, "Two EWMAs with the same horizon are equal");
 	}
 
+	/**
+	 * Test method for {@link EWMA#EWMA(ValidatedSeries, int)}.
+	 */
+	@Test
+	void testEWMA_validatedSeries() {
+		EWMA ewmaOfValidatedSeries = new EWMA(baseValue.getValidatedValues(), 2);
+
+		assertEquals(ewma2, ewmaOfValidatedSeries, "EWMA of validated series differs from EWMA of the same values");
+	}
+
+	/**
+	 * Test method for {@link EWMA#EWMA(ValueDateTupel[], int, ValueDateTupel[])}.
+	 */
+	@Test
+	void testEWMA_restored() {
+		EWMA restored = new EWMA(baseValue.getValues(), 2, ewma2.getEwmaValues());
+
+		assertEquals(ewma2, restored, "Restored EWMA differs from the calculated EWMA");
+	}
+
+	/**
+	 * Test method for {@link EWMA#EWMA(ValueDateTupel[], int, ValueDateTupel[])}.
+	 */
+	@Test
+	void testEWMA_restored_ewmaValuesNotFitting() {
+		ValueDateTupel[] ewmaValues = ewma2.getEwmaValues();
+		ValueDateTupel[] tooFewEwmaValues = Arrays.copyOf(ewmaValues, ewmaValues.length - 1);
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new EWMA(baseValue.getValues(), 2, tooFewEwmaValues));
+
+		assertEquals("The EWMA values do not fit the base values", thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link EWMA#EWMA(ValueDateTupel[], int, ValueDateTupel[])}.
+	 */
+	@Test
+	void testEWMA_restored_horizon1() {
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new EWMA(baseValue.getValues(), 1, ewma2.getEwmaValues()));
+
+		assertEquals("The horizon must not be < 2", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
 	/**
 	 * Test method for {@link EWMA#validateHorizon(int)}.
 	 */
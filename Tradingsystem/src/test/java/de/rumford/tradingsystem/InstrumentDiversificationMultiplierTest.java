@@ -0,0 +1,173 @@
+package de.rumford.tradingsystem;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * Test class for {@link InstrumentDiversificationMultiplier}.
+ * 
+ * @author Max Rumford
+ */
+class InstrumentDiversificationMultiplierTest {
+
+	static final String MESSAGE_INCORRECT_EXCEPTION_MESSAGE = "Incorrect Exception message";
+	static final double DELTA = 1e-9;
+
+	static LocalDateTime[] dates;
+
+	@BeforeAll
+	static void setUpBeforeClass() {
+		dates = new LocalDateTime[17];
+		for (int i = 0; i < dates.length; i++)
+			dates[i] = LocalDateTime.of(2020, 1, i + 1, 22, 0);
+	}
+
+	/**
+	 * Creates a row of values on the set dates.
+	 * 
+	 * @param  values The values to be used.
+	 * @return        The created row.
+	 */
+	static ValueDateTupel[] row(double... values) {
+		ValueDateTupel[] row = ValueDateTupel.createEmptyArray(values.length);
+		for (int i = 0; i < values.length; i++)
+			row[i] = new ValueDateTupel(dates[i], values[i]);
+		return row;
+	}
+
+	/**
+	 * Test method for {@link InstrumentDiversificationMultiplier#InstrumentDiversificationMultiplier(ValueDateTupel[][])}.
+	 */
+	@Test
+	void testInstrumentDiversificationMultiplier_perfectlyCorrelated() {
+		ValueDateTupel[][] performanceValues = { row(100, 110, 99, 120, 100), row(50, 55, 49.5, 60, 50) };
+		double[] expectedWeights = { .5, .5 };
+		double expectedValue = 1;
+
+		InstrumentDiversificationMultiplier idm = new InstrumentDiversificationMultiplier(performanceValues);
+
+		assertArrayEquals(expectedWeights, idm.getWeights(), DELTA, "Weights are not correctly calculated");
+		assertEquals(expectedValue, idm.getValue(), DELTA, "Value is not correctly calculated");
+	}
+
+	/**
+	 * Test method for {@link InstrumentDiversificationMultiplier#InstrumentDiversificationMultiplier(ValueDateTupel[][])}.
+	 */
+	@Test
+	void testInstrumentDiversificationMultiplier_uncorrelated() {
+		ValueDateTupel[][] performanceValues = { row(100, 110, 99, 108.9, 98.01), row(100, 110, 121, 108.9, 98.01) };
+		double[] expectedWeights = { .5, .5 };
+		double expectedValue = Math.sqrt(2);
+
+		InstrumentDiversificationMultiplier idm = new InstrumentDiversificationMultiplier(performanceValues);
+
+		assertEquals(0, idm.getCorrelations()[0][1], DELTA, "Correlations are not correctly calculated");
+		assertArrayEquals(expectedWeights, idm.getWeights(), DELTA, "Weights are not correctly calculated");
+		assertEquals(expectedValue, idm.getValue(), DELTA, "Value is not correctly calculated");
+	}
+
+	/**
+	 * Test method for {@link InstrumentDiversificationMultiplier#InstrumentDiversificationMultiplier(ValueDateTupel[][])}.
+	 */
+	@Test
+	void testInstrumentDiversificationMultiplier_negativelyCorrelated() {
+		ValueDateTupel[][] performanceValues = { row(100, 110, 99, 108.9, 98.01), row(100, 90, 99, 89.1, 98.01) };
+
+		InstrumentDiversificationMultiplier idm = new InstrumentDiversificationMultiplier(performanceValues);
+
+		assertEquals(-1, idm.getCorrelations()[0][1], DELTA, "Correlations are not correctly calculated");
+		assertEquals(Math.sqrt(2), idm.getValue(), DELTA, "Negative correlations are not floored at 0");
+	}
+
+	/**
+	 * Test method for {@link InstrumentDiversificationMultiplier#InstrumentDiversificationMultiplier(ValueDateTupel[][])}.
+	 */
+	@Test
+	void testInstrumentDiversificationMultiplier_cappedValue() {
+		double[][] values = new double[10][17];
+		/* Ten instruments whose returns follow mutually orthogonal patterns (Walsh functions), i.e. are uncorrelated. */
+		for (int instrument = 0; instrument < values.length; instrument++) {
+			values[instrument][0] = 100;
+			for (int t = 1; t < 17; t++)
+				values[instrument][t] = values[instrument][t - 1]
+				        * (Integer.bitCount((instrument + 1) & (t - 1)) % 2 == 0 ? 1.1 : 0.9);
+		}
+		ValueDateTupel[][] performanceValues = new ValueDateTupel[values.length][];
+		for (int instrument = 0; instrument < values.length; instrument++)
+			performanceValues[instrument] = row(values[instrument]);
+
+		InstrumentDiversificationMultiplier idm = new InstrumentDiversificationMultiplier(performanceValues);
+
+		assertEquals(InstrumentDiversificationMultiplier.MAX_VALUE, idm.getValue(), "Value is not capped");
+	}
+
+	/**
+	 * Test method for {@link InstrumentDiversificationMultiplier#update(double[])}.
+	 */
+	@Test
+	void testUpdate() {
+		ValueDateTupel[][] allValues = { row(100, 110, 99, 120, 130), row(50, 54, 49.5, 61, 62) };
+		ValueDateTupel[][] firstValues = { row(100, 110, 99, 120), row(50, 54, 49.5, 61) };
+		double[] lastReturns = { 130d / 120d - 1, 62d / 61d - 1 };
+
+		InstrumentDiversificationMultiplier expectedIdm = new InstrumentDiversificationMultiplier(allValues);
+		InstrumentDiversificationMultiplier actualIdm = new InstrumentDiversificationMultiplier(firstValues);
+		actualIdm.update(lastReturns);
+
+		assertEquals(expectedIdm.getCorrelations()[0][1], actualIdm.getCorrelations()[0][1], DELTA,
+		        "Correlations are not correctly updated");
+		assertArrayEquals(expectedIdm.getWeights(), actualIdm.getWeights(), DELTA, "Weights are not correctly updated");
+		assertEquals(expectedIdm.getValue(), actualIdm.getValue(), DELTA, "Value is not correctly updated");
+	}
+
+	/**
+	 * Test method for {@link InstrumentDiversificationMultiplier#validateInput(ValueDateTupel[][])}.
+	 */
+	@Test
+	void testValidateInput_empty() {
+		String expectedMessage = "Performance values must not be empty";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new InstrumentDiversificationMultiplier(new ValueDateTupel[][] {}),
+		        "Empty performance values are not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link InstrumentDiversificationMultiplier#validateInput(ValueDateTupel[][])}.
+	 */
+	@Test
+	void testValidateInput_notAligned() {
+		ValueDateTupel[][] performanceValues = { row(100, 110, 99), row(100, 110) };
+		String expectedMessage = "Performance values at position 1 are not aligned with those at position 0";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new InstrumentDiversificationMultiplier(performanceValues),
+		        "Unaligned performance values are not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link InstrumentDiversificationMultiplier#InstrumentDiversificationMultiplier(Portfolio)}.
+	 */
+	@Test
+	void testInstrumentDiversificationMultiplier_portfolioNull() {
+		String expectedMessage = "Portfolio must not be null";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new InstrumentDiversificationMultiplier((Portfolio) null),
+		        "Portfolio of null is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+}
@@ -0,0 +1,263 @@
+package de.rumford.tradingsystem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import de.rumford.tradingsystem.helper.BarEvent;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * Test class for {@link LivePipeline}. Uses the values of {@link LiveSubSystemTest}.
+ * 
+ * @author Max Rumford
+ */
+class LivePipelineTest {
+
+	static final String MESSAGE_INCORRECT_EXCEPTION_MESSAGE = "Incorrect Exception message";
+	static final double DELTA = 1e-9;
+	/* The time to wait for the pipeline to process all bars. */
+	static final long TIMEOUT_MILLIS = 10_000;
+
+	static ValueDateTupel[] baseValues;
+	static ValueDateTupel[] volatilityIndexValues;
+	static SubSystem historicSubSystem;
+
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		LiveSubSystemTest.setUpBeforeClass();
+		baseValues = LiveSubSystemTest.baseValues;
+		volatilityIndexValues = LiveSubSystemTest.volatilityIndexValues;
+		historicSubSystem = LiveSubSystemTest.createSubSystem(LiveSubSystemTest.historicBaseValues,
+		        LiveSubSystemTest.historicVolatilityIndexValues);
+	}
+
+	/**
+	 * Drains the given pipeline until the given number of bars has been received, copying their values.
+	 * 
+	 * @param  pipeline       The pipeline to be drained.
+	 * @param  numberOfEvents The number of bars expected.
+	 * @return                Copies of the received bars.
+	 */
+	static List<BarEvent> drain(LivePipeline pipeline, int numberOfEvents) {
+		List<BarEvent> received = new ArrayList<>();
+		long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		while (received.size() < numberOfEvents && System.currentTimeMillis() < deadline) {
+			pipeline.drainPositions(event -> {
+				BarEvent copy = new BarEvent();
+				copy.copyFrom(event);
+				received.add(copy);
+			});
+			Thread.yield();
+		}
+		return received;
+	}
+
+	/**
+	 * Test method for {@link LivePipeline#put(LocalDateTime, double, double)}.
+	 * 
+	 * @throws InterruptedException if the test is interrupted.
+	 */
+	@Test
+	void testPut() throws InterruptedException {
+		SubSystem completeSubSystem = LiveSubSystemTest.createSubSystem(baseValues, volatilityIndexValues);
+		ValueDateTupel[] expectedForecasts = completeSubSystem.getCombinedForecasts();
+		int firstLiveValue = LiveSubSystemTest.historicBaseValues.length;
+		int numberOfLiveValues = baseValues.length - firstLiveValue;
+
+		List<BarEvent> received;
+		try (LivePipeline pipeline = new LivePipeline(new LiveSubSystem(historicSubSystem), 4)) {
+			/* More bars than fit into the pipeline, so they have to be drained while being put. */
+			Thread ingestThread = new Thread(() -> {
+				for (int i = firstLiveValue; i < baseValues.length; i++)
+					pipeline.put(baseValues[i].getDate(), baseValues[i].getValue(),
+					        volatilityIndexValues[i].getValue());
+			});
+			ingestThread.start();
+			received = drain(pipeline, numberOfLiveValues);
+			ingestThread.join();
+
+			assertEquals(numberOfLiveValues, pipeline.getProcessedBars(), "Processed bars are not correctly counted");
+			assertEquals(0, pipeline.getDroppedBars(), "Bars are dropped without reason");
+		}
+
+		assertEquals(numberOfLiveValues, received.size(), "Not all bars are processed");
+		for (int i = 0; i < numberOfLiveValues; i++) {
+			ValueDateTupel expectedForecast = expectedForecasts[expectedForecasts.length - numberOfLiveValues + i];
+			BarEvent event = received.get(i);
+			assertEquals(expectedForecast.getDate(), event.getDate(), "Bars are not passed in order");
+			assertEquals(expectedForecast.getValue(), event.getForecast(), DELTA,
+			        "Forecast on " + event.getDate() + " is not correctly calculated");
+		}
+	}
+
+	/**
+	 * Test method for {@link LivePipeline#put(LocalDateTime, double, double)}.
+	 */
+	@Test
+	void testPut_droppedBars() {
+		int firstLiveValue = LiveSubSystemTest.historicBaseValues.length;
+		LiveSubSystem expectedLiveSubSystem = new LiveSubSystem(historicSubSystem);
+		String expectedPosition = expectedLiveSubSystem.update(baseValues[firstLiveValue].getDate(),
+		        baseValues[firstLiveValue].getValue(), volatilityIndexValues[firstLiveValue].getValue());
+
+		List<BarEvent> received;
+		try (LivePipeline pipeline = new LivePipeline(new LiveSubSystem(historicSubSystem), 4)) {
+			/* Not after the last historic value */
+			pipeline.put(baseValues[firstLiveValue - 1].getDate(), 1, 1);
+			/* Value missing */
+			pipeline.put(baseValues[firstLiveValue].getDate(), Double.NaN, 1);
+			/* Date missing */
+			pipeline.put(null, 1, 1);
+			/* Volatility index missing, but none given yet */
+			pipeline.put(baseValues[firstLiveValue].getDate(), baseValues[firstLiveValue].getValue(), Double.NaN);
+			pipeline.put(baseValues[firstLiveValue].getDate(), baseValues[firstLiveValue].getValue(),
+			        volatilityIndexValues[firstLiveValue].getValue());
+			received = drain(pipeline, 1);
+
+			assertEquals(4, pipeline.getDroppedBars(), "Dropped bars are not correctly counted");
+		}
+
+		assertEquals(1, received.size(), "Invalid bars are not dropped");
+		assertEquals(expectedPosition, received.get(0).getPosition(), "Position is not correctly calculated");
+		assertEquals(expectedLiveSubSystem.getStandardDeviation(), received.get(0).getStandardDeviation(), DELTA,
+		        "Standard deviation is not correctly passed on");
+	}
+
+	/**
+	 * Test method for {@link LivePipeline#put(LocalDateTime, double, double)}.
+	 */
+	@Test
+	void testPut_volatilityIndexCarriedForward() {
+		int firstLiveValue = LiveSubSystemTest.historicBaseValues.length;
+		LiveSubSystem expectedLiveSubSystem = new LiveSubSystem(historicSubSystem);
+		expectedLiveSubSystem.update(baseValues[firstLiveValue].getDate(), baseValues[firstLiveValue].getValue(),
+		        volatilityIndexValues[firstLiveValue].getValue());
+		expectedLiveSubSystem.update(baseValues[firstLiveValue + 1].getDate(),
+		        baseValues[firstLiveValue + 1].getValue(), volatilityIndexValues[firstLiveValue].getValue());
+
+		List<BarEvent> received;
+		try (LivePipeline pipeline = new LivePipeline(new LiveSubSystem(historicSubSystem), 4)) {
+			pipeline.put(baseValues[firstLiveValue].getDate(), baseValues[firstLiveValue].getValue(),
+			        volatilityIndexValues[firstLiveValue].getValue());
+			pipeline.put(baseValues[firstLiveValue + 1].getDate(), baseValues[firstLiveValue + 1].getValue(),
+			        Double.NaN);
+			received = drain(pipeline, 2);
+		}
+
+		assertEquals(2, received.size(), "Bar without volatility index is dropped");
+		assertEquals(volatilityIndexValues[firstLiveValue].getValue(), received.get(1).getVolatilityIndex(),
+		        "Volatility index is not carried forward");
+		assertEquals(expectedLiveSubSystem.getForecast(), received.get(1).getForecast(), DELTA,
+		        "Forecast is not correctly calculated");
+	}
+
+	/**
+	 * Test method for {@link LivePipeline#offer(LocalDateTime, double, double)}.
+	 */
+	@Test
+	void testOffer_backpressure() {
+		int firstLiveValue = LiveSubSystemTest.historicBaseValues.length;
+
+		try (LivePipeline pipeline = new LivePipeline(new LiveSubSystem(historicSubSystem), 1)) {
+			/* Positions are not drained, so every queue fills up with one bar. */
+			int offered = 0;
+			for (int i = firstLiveValue; i < baseValues.length && pipeline.getRejectedBars() == 0; i++) {
+				if (!pipeline.offer(baseValues[i].getDate(), baseValues[i].getValue(),
+				        volatilityIndexValues[i].getValue()))
+					continue;
+				offered++;
+				/* Give the stages time to pass the bar on. */
+				long deadline = System.currentTimeMillis() + 100;
+				while (pipeline.getIngestedDepth() > 0 && System.currentTimeMillis() < deadline)
+					Thread.yield();
+			}
+
+			assertEquals(1, pipeline.getRejectedBars(), "Bars are not rejected although the pipeline is full");
+			assertEquals(3, offered, "Number of accepted bars does not match the capacity of the queues");
+			assertEquals(1, pipeline.getPositionsDepth(), "Depth of positions is not correctly calculated");
+			assertTrue(pipeline.getUpdateWaits() > 0, "Waits of the update stage are not counted");
+			assertTrue(pipeline.getAlignWaits() > 0, "Waits of the align stage are not counted");
+			assertEquals(offered, drain(pipeline, offered).size(), "Accepted bars are lost");
+		}
+	}
+
+	/**
+	 * Test method for {@link LivePipeline#close()}.
+	 */
+	@Test
+	void testClose() {
+		LivePipeline pipeline = new LivePipeline(new LiveSubSystem(historicSubSystem), 1);
+		pipeline.close();
+
+		Exception thrown = assertThrows(IllegalStateException.class,
+		        () -> pipeline.offer(LocalDateTime.now(), 1, 1));
+
+		assertEquals("LivePipeline was closed", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+		assertFalse(pipeline.toString().isEmpty(), "State is not output");
+	}
+
+	/**
+	 * Test method for {@link LivePipeline#put(LocalDateTime, double, double)}. A failing update stage stops the
+	 * pipeline, so putting bars fails instead of waiting forever.
+	 */
+	@Test
+	void testPut_failedStage() {
+		IllegalStateException expectedFailure = new IllegalStateException("LiveSubSystem is broken");
+		LiveSubSystem liveSubSystem = new LiveSubSystem(historicSubSystem) {
+			@Override
+			public String update(LocalDateTime date, double value, double volatilityIndex) {
+				throw expectedFailure;
+			}
+		};
+		int firstLiveValue = LiveSubSystemTest.historicBaseValues.length;
+
+		try (LivePipeline pipeline = new LivePipeline(liveSubSystem, 1)) {
+			/* More bars than fit into the pipeline, so put has to fail while waiting at the latest. */
+			Exception thrown = assertTimeoutPreemptively(Duration.ofMillis(TIMEOUT_MILLIS),
+			        () -> assertThrows(IllegalStateException.class, () -> {
+				        for (int i = firstLiveValue; i < baseValues.length; i++)
+					        pipeline.put(baseValues[i].getDate(), baseValues[i].getValue(),
+					                volatilityIndexValues[i].getValue());
+			        }));
+
+			assertEquals("LivePipeline was stopped by a failed stage", thrown.getMessage(),
+			        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+			assertSame(expectedFailure, thrown.getCause(), "Failure is not passed as cause");
+			assertSame(expectedFailure, pipeline.getFailure(), "Failure is not recorded");
+		}
+	}
+
+	/**
+	 * Test method for {@link LivePipeline#LivePipeline(LiveSubSystem, int)}.
+	 */
+	@Test
+	void testLivePipeline_liveSubSystemNull() {
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> new LivePipeline(null, 1));
+
+		assertEquals("LiveSubSystem must not be null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link LivePipeline#drainPositions(java.util.function.Consumer)}.
+	 */
+	@Test
+	void testDrainPositions_consumerNull() {
+		try (LivePipeline pipeline = new LivePipeline(new LiveSubSystem(historicSubSystem), 1)) {
+			Exception thrown = assertThrows(IllegalArgumentException.class, () -> pipeline.drainPositions(null));
+
+			assertEquals("Consumer must not be null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+		}
+	}
+}
@@ -0,0 +1,457 @@
+package de.rumford.tradingsystem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import de.rumford.tradingsystem.RuleTest.RealRule;
+import de.rumford.tradingsystem.helper.BarJournal;
+import de.rumford.tradingsystem.helper.BaseValueFactory;
+import de.rumford.tradingsystem.helper.CsvFollower;
+import de.rumford.tradingsystem.helper.CsvFormat;
+import de.rumford.tradingsystem.helper.DataSource;
+import de.rumford.tradingsystem.helper.LatencyHistogram;
+import de.rumford.tradingsystem.helper.Util;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * Test class for {@link LiveSubSystem}.
+ *
+ * @author Max Rumford
+ */
+class LiveSubSystemTest {
+	static final String MESSAGE_INCORRECT_EXCEPTION_MESSAGE = "Incorrect Exception message";
+	static final double DELTA = 1e-9;
+
+	static final String BASE_VALUE_NAME = "DAX";
+	static final double BASE_SCALE = 10;
+	static final double CAPITAL = 100000;
+	static final int LOOKBACK_WINDOW = 8;
+	/* The number of values not known to the SubSystem to be continued. */
+	static final int NUMBER_OF_LIVE_VALUES = 100;
+
+	static final LocalDateTime START_OF_REFERENCE_WINDOW = LocalDateTime.of(2014, 1, 2, 22, 0);
+	static final LocalDateTime END_OF_REFERENCE_WINDOW = LocalDateTime.of(2018, 12, 28, 22, 0);
+
+	static ValueDateTupel[] baseValues;
+	static ValueDateTupel[] volatilityIndexValues;
+	static ValueDateTupel[] historicBaseValues;
+	static ValueDateTupel[] historicVolatilityIndexValues;
+
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		String workingDir = Path.of("src", "test", "resources").toString();
+		ValueDateTupel[][] aligned = ValueDateTupel.alignDates(new ValueDateTupel[][] {
+		        DataSource.getDataFromCsv(Path.of(workingDir, "DAX.csv").toString(), CsvFormat.EU),
+		        DataSource.getDataFromCsv(Path.of(workingDir, "DAX_VDAX.csv").toString(), CsvFormat.EU) });
+		baseValues = aligned[0];
+		volatilityIndexValues = aligned[1];
+
+		int numberOfHistoricValues = baseValues.length - NUMBER_OF_LIVE_VALUES;
+		historicBaseValues = Arrays.copyOf(baseValues, numberOfHistoricValues);
+		historicVolatilityIndexValues = Arrays.copyOf(volatilityIndexValues, numberOfHistoricValues);
+	}
+
+	/**
+	 * Creates the rules used in the example client for the given values: A {@link VolatilityDifference} based on the
+	 * given volatility index values, a {@link VolatilityDifference} calculating its volatility indices and an
+	 * {@link EWMAC} with three variations.
+	 *
+	 * @param  baseValue       The base value to be used.
+	 * @param  volatilityIndex The volatility index values to be used. If null, only {@link EWMAC}s are created.
+	 * @return                 The created rules.
+	 */
+	static Rule[] createRules(BaseValue baseValue, ValueDateTupel[] volatilityIndex) {
+		EWMAC[] ewmacVariations = {
+		        new EWMAC(baseValue, null, START_OF_REFERENCE_WINDOW, END_OF_REFERENCE_WINDOW, 8, 2, BASE_SCALE),
+		        new EWMAC(baseValue, null, START_OF_REFERENCE_WINDOW, END_OF_REFERENCE_WINDOW, 16, 4, BASE_SCALE),
+		        new EWMAC(baseValue, null, START_OF_REFERENCE_WINDOW, END_OF_REFERENCE_WINDOW, 32, 8, BASE_SCALE) };
+		EWMAC ewmac = new EWMAC(baseValue, ewmacVariations, START_OF_REFERENCE_WINDOW, END_OF_REFERENCE_WINDOW, 0, 0,
+		        BASE_SCALE);
+		if (volatilityIndex == null)
+			return new Rule[] { ewmac };
+
+		return new Rule[] { //
+		        new VolatilityDifference(baseValue, null, START_OF_REFERENCE_WINDOW, END_OF_REFERENCE_WINDOW,
+		                LOOKBACK_WINDOW, BASE_SCALE, volatilityIndex), //
+		        new VolatilityDifference(baseValue, null, START_OF_REFERENCE_WINDOW, END_OF_REFERENCE_WINDOW,
+		                LOOKBACK_WINDOW, BASE_SCALE), //
+		        ewmac };
+	}
+
+	/**
+	 * Creates a SubSystem for the given values.
+	 *
+	 * @param  values          The base values.
+	 * @param  volatilityIndex The volatility index values. If null, only {@link EWMAC}s are used.
+	 * @return                 The created SubSystem.
+	 */
+	static SubSystem createSubSystem(ValueDateTupel[] values, ValueDateTupel[] volatilityIndex) {
+		BaseValue baseValue = new BaseValue(BASE_VALUE_NAME, values);
+		return new SubSystem(baseValue, createRules(baseValue, volatilityIndex), CAPITAL, BASE_SCALE);
+	}
+
+	/**
+	 * Test method for {@link LiveSubSystem#update(LocalDateTime, double, double)}.
+	 */
+	@Test
+	void testUpdate() {
+		SubSystem completeSubSystem = createSubSystem(baseValues, volatilityIndexValues);
+		ValueDateTupel[] expectedForecasts = completeSubSystem.getCombinedForecasts();
+
+		LiveSubSystem liveSubSystem = new LiveSubSystem(
+		        createSubSystem(historicBaseValues, historicVolatilityIndexValues));
+
+		for (int i = historicBaseValues.length; i < baseValues.length; i++) {
+			ValueDateTupel expectedForecast = expectedForecasts[expectedForecasts.length - baseValues.length + i];
+			String position = liveSubSystem.update(baseValues[i].getDate(), baseValues[i].getValue(),
+			        volatilityIndexValues[i].getValue());
+
+			assertEquals(expectedForecast.getValue(), liveSubSystem.getForecast(), DELTA,
+			        "Forecast on " + baseValues[i].getDate() + " is not correctly calculated");
+			assertEquals(Util.getPositionFromForecast(liveSubSystem.getForecast()), position,
+			        "Position is not correctly derived from forecast");
+		}
+		assertEquals(baseValues[baseValues.length - 1].getDate(), liveSubSystem.getLastDate(),
+		        "Date of last value is not updated");
+	}
+
+	/**
+	 * Test method for {@link LiveSubSystem#update(LocalDateTime, double)}.
+	 */
+	@Test
+	void testUpdate_withoutVolatilityIndex() {
+		SubSystem completeSubSystem = createSubSystem(baseValues, null);
+		ValueDateTupel[] expectedForecasts = completeSubSystem.getCombinedForecasts();
+		BaseValue completeBaseValue = completeSubSystem.getBaseValue();
+
+		LiveSubSystem liveSubSystem = new LiveSubSystem(createSubSystem(historicBaseValues, null));
+
+		assertFalse(liveSubSystem.isVolatilityIndexRequired(), "Volatility index is required without need");
+		for (int i = historicBaseValues.length; i < baseValues.length; i++)
+			liveSubSystem.update(baseValues[i].getDate(), baseValues[i].getValue());
+
+		assertEquals(expectedForecasts[expectedForecasts.length - 1].getValue(), liveSubSystem.getForecast(), DELTA,
+		        "Forecast is not correctly calculated");
+		ValueDateTupel[] expectedStandardDeviations = completeBaseValue.getStandardDeviationValues();
+		assertEquals(expectedStandardDeviations[expectedStandardDeviations.length - 1].getValue(),
+		        liveSubSystem.getStandardDeviation(), "Standard deviation is not correctly calculated");
+	}
+
+	/**
+	 * Test method for {@link LiveSubSystem#update(LocalDateTime, double)}.
+	 */
+	@Test
+	void testUpdate_givenSubSystemUnchanged() {
+		SubSystem historicSubSystem = createSubSystem(historicBaseValues, null);
+		BaseValue completeBaseValue = new BaseValue(BASE_VALUE_NAME, baseValues);
+
+		LiveSubSystem liveSubSystem = new LiveSubSystem(historicSubSystem);
+		for (int i = historicBaseValues.length; i < baseValues.length; i++)
+			liveSubSystem.update(baseValues[i].getDate(), baseValues[i].getValue());
+
+		assertEquals(historicBaseValues.length, historicSubSystem.getBaseValue().getNumberOfValues(),
+		        "Base value of the given SubSystem is altered");
+		assertEquals(completeBaseValue, liveSubSystem.getBaseValue(), "Updated values are not appended");
+	}
+
+	/**
+	 * Test method for {@link LiveSubSystem#replay(BarJournal)}.
+	 * 
+	 * @throws IOException if the journal cannot be accessed.
+	 */
+	@Test
+	void testReplay() throws IOException {
+		LiveSubSystem expectedLiveSubSystem = new LiveSubSystem(createSubSystem(historicBaseValues, null));
+		for (int i = historicBaseValues.length; i < baseValues.length; i++)
+			expectedLiveSubSystem.update(baseValues[i].getDate(), baseValues[i].getValue());
+
+		Path file = Files.createTempFile("LiveSubSystemTest", ".bin");
+		try (BarJournal journal = new BarJournal(file)) {
+			/* The journal holds all bars, of which only those after the historic values are replayed. */
+			for (ValueDateTupel bar : baseValues)
+				journal.append(bar);
+			LiveSubSystem liveSubSystem = new LiveSubSystem(createSubSystem(historicBaseValues, null));
+
+			assertEquals(NUMBER_OF_LIVE_VALUES, liveSubSystem.replay(journal), "Not every new bar is replayed");
+			assertEquals(0, liveSubSystem.replay(journal), "Bars are replayed twice");
+			assertEquals(expectedLiveSubSystem.getForecast(), liveSubSystem.getForecast(),
+			        "Forecast is not calculated as by updates");
+			assertEquals(expectedLiveSubSystem.getLastDate(), liveSubSystem.getLastDate(),
+			        "Date of last value is not updated");
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	/**
+	 * Test method for {@link LiveSubSystem#replay(BarJournal)}.
+	 */
+	@Test
+	void testReplay_journalNull() {
+		LiveSubSystem liveSubSystem = new LiveSubSystem(createSubSystem(historicBaseValues, null));
+		String expectedMessage = "Journal must not be null";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> liveSubSystem.replay(null),
+		        "Journal of null is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link LiveSubSystem#follow(CsvFollower)}.
+	 * 
+	 * @throws IOException if the CSV file cannot be accessed.
+	 */
+	@Test
+	void testFollow() throws IOException {
+		LiveSubSystem expectedLiveSubSystem = new LiveSubSystem(createSubSystem(historicBaseValues, null));
+		for (int i = historicBaseValues.length; i < baseValues.length; i++)
+			expectedLiveSubSystem.update(baseValues[i].getDate(), baseValues[i].getValue());
+
+		Path file = Files.createTempFile("LiveSubSystemTest", ".csv");
+		try {
+			/* The file holds all values, of which only those after the historic values are updated with. */
+			Files.writeString(file, toCsvRows(baseValues), Charset.defaultCharset());
+			CsvFollower follower = new CsvFollower(file, CsvFormat.EU);
+			LiveSubSystem liveSubSystem = new LiveSubSystem(createSubSystem(historicBaseValues, null));
+
+			assertEquals(NUMBER_OF_LIVE_VALUES, liveSubSystem.follow(follower), "Not every new row is updated with");
+			assertEquals(0, liveSubSystem.follow(follower), "Rows are updated with twice");
+			assertEquals(expectedLiveSubSystem.getForecast(), liveSubSystem.getForecast(),
+			        "Forecast is not calculated as by updates");
+			assertEquals(expectedLiveSubSystem.getLastDate(), liveSubSystem.getLastDate(),
+			        "Date of last value is not updated");
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	/**
+	 * Formats the given values as rows of a CSV file of {@link CsvFormat#EU}.
+	 * 
+	 * @param  values {@code ValueDateTupel[]} The values.
+	 * @return        {@code String} One row of each value, each terminated by a line break.
+	 */
+	static String toCsvRows(ValueDateTupel... values) {
+		StringBuilder rows = new StringBuilder();
+		for (ValueDateTupel value : values)
+			rows.append(value.getDate().format(DateTimeFormatter.ofPattern("dd.MM.yyyy;HH:mm:ss"))).append(';')
+			        .append(String.valueOf(value.getValue()).replace('.', ',')).append('\n');
+		return rows.toString();
+	}
+
+	/**
+	 * Test method for {@link LiveSubSystem#follow(CsvFollower)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testFollow_invalidRow() throws IOException {
+		ValueDateTupel firstValue = baseValues[historicBaseValues.length];
+		String firstRow = toCsvRows(firstValue);
+		Path file = Files.createTempFile("LiveSubSystemTest", ".csv");
+		try {
+			Files.writeString(file, firstRow + "01.01.2100;22:00:00\n", Charset.defaultCharset());
+			CsvFollower follower = new CsvFollower(file, CsvFormat.EU);
+			LiveSubSystem liveSubSystem = new LiveSubSystem(createSubSystem(historicBaseValues, null));
+			String expectedMessage = "The passed CSV does not have an appropriate number of columns";
+
+			Exception thrown = assertThrows(IllegalArgumentException.class, () -> liveSubSystem.follow(follower),
+			        "Invalid row is not properly handled");
+
+			assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+			assertEquals(firstValue.getDate(), liveSubSystem.getLastDate(), "Row before the invalid row is lost");
+			assertEquals(firstRow.getBytes(Charset.defaultCharset()).length, follower.getOffset(),
+			        "Follower is not before the invalid row");
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	/**
+	 * Test method for {@link LiveSubSystem#follow(CsvFollower)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testFollow_volatilityIndexRequired() throws IOException {
+		Path file = Files.createTempFile("LiveSubSystemTest", ".csv");
+		try {
+			Files.writeString(file, toCsvRows(baseValues[historicBaseValues.length]), Charset.defaultCharset());
+			CsvFollower follower = new CsvFollower(file, CsvFormat.EU);
+			LiveSubSystem liveSubSystem = new LiveSubSystem(
+			        createSubSystem(historicBaseValues, historicVolatilityIndexValues));
+			String expectedMessage = "Rows of a CSV file cannot be followed, as at least one rule depends on a "
+			        + "volatility index";
+
+			Exception thrown = assertThrows(IllegalArgumentException.class, () -> liveSubSystem.follow(follower),
+			        "Required volatility index is not properly handled");
+
+			assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+			assertEquals(0, follower.getOffset(), "Rows are consumed although they were not updated with");
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	/**
+	 * Test method for {@link LiveSubSystem#follow(CsvFollower)}.
+	 */
+	@Test
+	void testFollow_followerNull() {
+		LiveSubSystem liveSubSystem = new LiveSubSystem(createSubSystem(historicBaseValues, null));
+		String expectedMessage = "Follower must not be null";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> liveSubSystem.follow(null),
+		        "Follower of null is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link LiveSubSystem#LiveSubSystem(SubSystem)}.
+	 */
+	@Test
+	void testLiveSubSystem() {
+		SubSystem subSystem = createSubSystem(historicBaseValues, historicVolatilityIndexValues);
+		ValueDateTupel[] combinedForecasts = subSystem.getCombinedForecasts();
+
+		LiveSubSystem liveSubSystem = new LiveSubSystem(subSystem);
+
+		assertTrue(liveSubSystem.isVolatilityIndexRequired(), "Volatility index is not required");
+		assertEquals(combinedForecasts[combinedForecasts.length - 1].getValue(), liveSubSystem.getForecast(),
+		        "Last forecast is not taken over");
+		assertEquals(subSystem.getDiversificationMultiplier().getValue(),
+		        liveSubSystem.getDiversificationMultiplierValue(), "Diversification multiplier is not taken over");
+	}
+
+	/**
+	 * Test method for {@link LiveSubSystem#LiveSubSystem(SubSystem)}.
+	 */
+	@Test
+	void testLiveSubSystem_unsupportedRule() {
+		BaseValue baseValue = BaseValueFactory.jan1Feb05calcShort(BASE_VALUE_NAME);
+		Rule[] rules = { RealRule.from(baseValue, null, LocalDateTime.of(2020, 1, 10, 22, 0),
+		        LocalDateTime.of(2020, 1, 12, 22, 0), BASE_SCALE, 1) };
+		SubSystem subSystem = new SubSystem(baseValue, rules, CAPITAL, BASE_SCALE);
+		String expectedMessage = "Rules of type RealRule do not support live updates";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> new LiveSubSystem(subSystem),
+		        "Rules not supporting live updates are not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link LiveSubSystem#LiveSubSystem(SubSystem)}.
+	 */
+	@Test
+	void testLiveSubSystem_subSystemNull() {
+		String expectedMessage = "SubSystem must not be null";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> new LiveSubSystem(null),
+		        "SubSystem of null is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link LiveSubSystem#validateUpdate(LocalDateTime, double, double)}.
+	 */
+	@Test
+	void testValidateUpdate_dateNotAfterLastDate() {
+		LiveSubSystem liveSubSystem = new LiveSubSystem(createSubSystem(historicBaseValues, null));
+		LocalDateTime lastDate = historicBaseValues[historicBaseValues.length - 1].getDate();
+		String expectedMessage = "Date must be after the date of the last value: " + lastDate;
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> liveSubSystem.update(lastDate, 10000),
+		        "Date not after last date is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link LiveSubSystem#validateUpdate(LocalDateTime, double, double)}.
+	 */
+	@Test
+	void testValidateUpdate_valueNaN() {
+		LiveSubSystem liveSubSystem = new LiveSubSystem(createSubSystem(historicBaseValues, null));
+		String expectedMessage = "Value must not be NaN";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> liveSubSystem.update(baseValues[historicBaseValues.length].getDate(), Double.NaN),
+		        "Value of NaN is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link LiveSubSystem#validateUpdate(LocalDateTime, double, double)}.
+	 */
+	@Test
+	void testValidateUpdate_volatilityIndexMissing() {
+		LiveSubSystem liveSubSystem = new LiveSubSystem(
+		        createSubSystem(historicBaseValues, historicVolatilityIndexValues));
+		String expectedMessage = "Volatility index must be given, as at least one rule depends on it";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> liveSubSystem.update(baseValues[historicBaseValues.length].getDate(), 10000),
+		        "Missing volatility index is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link LiveSubSystem#getLatencyHistograms()}.
+	 */
+	@Test
+	void testGetLatencyHistograms() {
+		LiveSubSystem liveSubSystem = new LiveSubSystem(
+		        createSubSystem(historicBaseValues, historicVolatilityIndexValues));
+
+		for (int i = historicBaseValues.length; i < baseValues.length; i++)
+			liveSubSystem.update(baseValues[i].getDate(), baseValues[i].getValue(),
+			        volatilityIndexValues[i].getValue());
+		LatencyHistogram[] histograms = liveSubSystem.getLatencyHistograms();
+
+		/* update, standard deviation, three rules, combination */
+		assertEquals(6, histograms.length, "Not every step is recorded");
+		assertEquals("rule 2 (EWMAC)", histograms[4].getName(), "Histograms are not in the order of the steps");
+		for (LatencyHistogram histogram : histograms)
+			assertEquals(NUMBER_OF_LIVE_VALUES, histogram.getTotalCount(),
+			        "Not every update is recorded for " + histogram.getName());
+		long sumOfStepMaxima = 0;
+		for (int i = 1; i < histograms.length; i++)
+			sumOfStepMaxima += histograms[i].getMaxValue();
+		assertTrue(histograms[0].getMaxValue() <= sumOfStepMaxima, "Duration of an update exceeds its steps");
+	}
+
+	/**
+	 * Test method for {@link LiveSubSystem#setLatencyRecordingEnabled(boolean)}.
+	 */
+	@Test
+	void testSetLatencyRecordingEnabled_false() {
+		LiveSubSystem liveSubSystem = new LiveSubSystem(createSubSystem(historicBaseValues, null));
+
+		liveSubSystem.setLatencyRecordingEnabled(false);
+		liveSubSystem.update(baseValues[historicBaseValues.length].getDate(),
+		        baseValues[historicBaseValues.length].getValue());
+
+		assertFalse(liveSubSystem.isLatencyRecordingEnabled(), "Latency recording is not disabled");
+		for (LatencyHistogram histogram : liveSubSystem.getLatencyHistograms())
+			assertEquals(0, histogram.getTotalCount(), "Durations are recorded although disabled");
+	}
+}
@@ -0,0 +1,248 @@
+package de.rumford.tradingsystem;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.rumford.tradingsystem.RuleTest.RealRule;
+import de.rumford.tradingsystem.helper.BaseValueFactory;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * Test class for {@link MonteCarloSimulation}.
+ * 
+ * @author Max Rumford
+ */
+class MonteCarloSimulationTest {
+	static final String MESSAGE_INCORRECT_EXCEPTION_MESSAGE = "Incorrect Exception message";
+
+	static final String BASE_VALUE_NAME = "Base value name";
+	static BaseValue baseValue;
+	static final double BASE_SCALE = 10;
+	static final double CAPITAL = 10000000;
+	static final int NUMBER_OF_PATHS = 50;
+	static final int BLOCK_LENGTH = 5;
+	static final long SEED = 42;
+	static final int LOOKBACK_WINDOW = 3;
+	/* Allows for rounding differences of the incremental calculation of the forecasts. */
+	static final double DELTA = 1e-6;
+
+	static LocalDateTime localDateTimeJan10220000;
+	static LocalDateTime localDateTimeJan12220000;
+	static LocalDateTime localDateTimeFeb05220000;
+
+	static SubSystem subSystem;
+
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		baseValue = BaseValueFactory.jan1Feb05calcShort(BASE_VALUE_NAME);
+		localDateTimeJan10220000 = LocalDateTime.of(2020, 01, 10, 22, 0);
+		localDateTimeJan12220000 = LocalDateTime.of(2020, 01, 12, 22, 0);
+		localDateTimeFeb05220000 = LocalDateTime.of(2020, 02, 5, 22, 0);
+	}
+
+	@BeforeEach
+	void setUp() throws Exception {
+		subSystem = new SubSystem(baseValue, new Rule[] {
+		        new EWMAC(baseValue, null, localDateTimeJan10220000, localDateTimeJan12220000, 4, 2, BASE_SCALE),
+		        new VolatilityDifference(baseValue, null, localDateTimeJan10220000, localDateTimeJan12220000,
+		                LOOKBACK_WINDOW, BASE_SCALE) },
+		        CAPITAL, BASE_SCALE);
+	}
+
+	/**
+	 * Test method for
+	 * {@link MonteCarloSimulation#MonteCarloSimulation(SubSystem, LocalDateTime, LocalDateTime, int, int, long)}.
+	 */
+	@Test
+	void testMonteCarloSimulation() {
+		MonteCarloSimulation simulation = new MonteCarloSimulation(subSystem, localDateTimeJan10220000,
+		        localDateTimeFeb05220000, NUMBER_OF_PATHS, BLOCK_LENGTH, SEED);
+
+		assertEquals(NUMBER_OF_PATHS, simulation.getFinalCapitals().length, "Not all final capitals are calculated");
+		assertEquals(NUMBER_OF_PATHS, simulation.getMaxDrawdowns().length, "Not all maximum drawdowns are calculated");
+		for (int i = 0; i < NUMBER_OF_PATHS; i++) {
+			assertTrue(simulation.getFinalCapitals()[i] > 0, "Final capital of path " + i + " is not positive");
+			assertTrue(simulation.getMaxDrawdowns()[i] >= 0 && simulation.getMaxDrawdowns()[i] <= 1,
+			        "Maximum drawdown of path " + i + " is out of bounds");
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link MonteCarloSimulation#MonteCarloSimulation(SubSystem, LocalDateTime, LocalDateTime, int, int, long)}.
+	 */
+	@Test
+	void testMonteCarloSimulation_sameSeed() {
+		MonteCarloSimulation simulation1 = new MonteCarloSimulation(subSystem, localDateTimeJan10220000,
+		        localDateTimeFeb05220000, NUMBER_OF_PATHS, BLOCK_LENGTH, SEED);
+		MonteCarloSimulation simulation2 = new MonteCarloSimulation(subSystem, localDateTimeJan10220000,
+		        localDateTimeFeb05220000, NUMBER_OF_PATHS, BLOCK_LENGTH, SEED);
+
+		assertArrayEquals(simulation1.getFinalCapitals(), simulation2.getFinalCapitals(),
+		        "Simulations with the same seed do not produce the same final capitals");
+		assertEquals(simulation1, simulation2, "Equal Objects are not considered equal");
+	}
+
+	/**
+	 * Test method for {@link MonteCarloSimulation#calculatePerformanceValues(int[])}.
+	 */
+	@Test
+	void testCalculatePerformanceValues_originalPath() {
+		MonteCarloSimulation simulation = new MonteCarloSimulation(subSystem, localDateTimeJan10220000,
+		        localDateTimeFeb05220000, 1, BLOCK_LENGTH, SEED);
+		/* Chaining all returns in their original order results in the original base value. */
+		int[] returnIndices = new int[baseValue.getValues().length - 1];
+		for (int i = 0; i < returnIndices.length; i++)
+			returnIndices[i] = i;
+		double[] expectedValues = ValueDateTupel
+		        .getValues(subSystem.calculatePerformanceValues(localDateTimeJan10220000, localDateTimeFeb05220000));
+
+		double[] actualValues = simulation.calculatePerformanceValues(returnIndices);
+
+		assertArrayEquals(expectedValues, actualValues, DELTA,
+		        "Performance values of the original path do not match the backtest of the SubSystem");
+	}
+
+	/**
+	 * Test method for {@link MonteCarloSimulation#getFinalCapitalPercentile(double)}.
+	 */
+	@Test
+	void testGetFinalCapitalPercentile() {
+		MonteCarloSimulation simulation = new MonteCarloSimulation(subSystem, localDateTimeJan10220000,
+		        localDateTimeFeb05220000, NUMBER_OF_PATHS, BLOCK_LENGTH, SEED);
+
+		double minimum = Double.MAX_VALUE;
+		double maximum = -Double.MAX_VALUE;
+		for (double finalCapital : simulation.getFinalCapitals()) {
+			minimum = Math.min(minimum, finalCapital);
+			maximum = Math.max(maximum, finalCapital);
+		}
+
+		assertEquals(maximum, simulation.getFinalCapitalPercentile(100), "100th percentile is not the maximum");
+		assertTrue(simulation.getFinalCapitalPercentile(5) >= minimum, "5th percentile is below the minimum");
+		assertTrue(simulation.getFinalCapitalPercentile(5) <= simulation.getFinalCapitalPercentile(95),
+		        "Percentiles are not ordered");
+	}
+
+	/**
+	 * Test method for {@link MonteCarloSimulation#getMaxDrawdownPercentile(double)}.
+	 */
+	@Test
+	void testGetMaxDrawdownPercentile_percentileOutOfBounds() {
+		MonteCarloSimulation simulation = new MonteCarloSimulation(subSystem, localDateTimeJan10220000,
+		        localDateTimeFeb05220000, 1, BLOCK_LENGTH, SEED);
+		String expectedMessage = "Percentile must be greater than 0 and less than or equal to 100";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> simulation.getMaxDrawdownPercentile(0),
+		        "Percentile of 0 is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link MonteCarloSimulation#validateInput(SubSystem, LocalDateTime, LocalDateTime, int, int)}.
+	 */
+	@Test
+	void testValidateInput_subSystemNull() {
+		String expectedMessage = "SubSystem must not be null";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new MonteCarloSimulation(null, localDateTimeJan10220000, localDateTimeFeb05220000,
+		                NUMBER_OF_PATHS, BLOCK_LENGTH, SEED),
+		        "SubSystem of null is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link MonteCarloSimulation#validateInput(SubSystem, LocalDateTime, LocalDateTime, int, int)}.
+	 */
+	@Test
+	void testValidateInput_ruleNotSupportingLiveUpdates() {
+		SubSystem realRuleSubSystem = new SubSystem(baseValue, new Rule[] {
+		        RealRule.from(baseValue, null, localDateTimeJan10220000, localDateTimeJan12220000, BASE_SCALE, 1) },
+		        CAPITAL, BASE_SCALE);
+		String expectedMessage = "Rules of type RealRule do not support live updates";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new MonteCarloSimulation(realRuleSubSystem, localDateTimeJan10220000, localDateTimeFeb05220000,
+		                NUMBER_OF_PATHS, BLOCK_LENGTH, SEED),
+		        "Rule not supporting live updates is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link MonteCarloSimulation#validateInput(SubSystem, LocalDateTime, LocalDateTime, int, int)}.
+	 */
+	@Test
+	void testValidateInput_volatilityIndicesGiven() {
+		SubSystem volatilityIndexSubSystem = new SubSystem(baseValue,
+		        new Rule[] { new VolatilityDifference(baseValue, null, localDateTimeJan10220000,
+		                localDateTimeJan12220000, LOOKBACK_WINDOW, BASE_SCALE, baseValue.getValues()) },
+		        CAPITAL, BASE_SCALE);
+		String expectedMessage = "Rules depending on given volatility index values cannot be simulated, as there are "
+		        + "no volatility index values for synthetic paths";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new MonteCarloSimulation(volatilityIndexSubSystem, localDateTimeJan10220000,
+		                localDateTimeFeb05220000, NUMBER_OF_PATHS, BLOCK_LENGTH, SEED),
+		        "Rule depending on given volatility indices is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link MonteCarloSimulation#validateInput(SubSystem, LocalDateTime, LocalDateTime, int, int)}.
+	 */
+	@Test
+	void testValidateInput_numberOfPaths0() {
+		String expectedMessage = "Number of paths must be at least 1";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new MonteCarloSimulation(subSystem, localDateTimeJan10220000,
+		                localDateTimeFeb05220000, 0, BLOCK_LENGTH, SEED),
+		        "Number of paths of 0 is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link MonteCarloSimulation#validateInput(SubSystem, LocalDateTime, LocalDateTime, int, int)}.
+	 */
+	@Test
+	void testValidateInput_blockLength0() {
+		String expectedMessage = "Block length must be at least 1";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new MonteCarloSimulation(subSystem, localDateTimeJan10220000,
+		                localDateTimeFeb05220000, NUMBER_OF_PATHS, 0, SEED),
+		        "Block length of 0 is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link MonteCarloSimulation#validateInput(SubSystem, LocalDateTime, LocalDateTime, int, int)}.
+	 */
+	@Test
+	void testValidateInput_blockLengthTooLong() {
+		int numberOfReturns = baseValue.getValues().length - 1;
+		String expectedMessage = "Block length must not exceed the number of returns (" + numberOfReturns + ")";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new MonteCarloSimulation(subSystem, localDateTimeJan10220000,
+		                localDateTimeFeb05220000, NUMBER_OF_PATHS, numberOfReturns + 1, SEED),
+		        "Block length exceeding the number of returns is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+}
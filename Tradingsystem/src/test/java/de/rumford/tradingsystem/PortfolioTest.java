@@ -0,0 +1,234 @@
+package de.rumford.tradingsystem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.rumford.tradingsystem.RuleTest.RealRule;
+import de.rumford.tradingsystem.helper.BaseValueFactory;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * Test class for {@link Portfolio}.
+ * 
+ * @author Max Rumford
+ */
+class PortfolioTest {
+	static final String MESSAGE_INCORRECT_EXCEPTION_MESSAGE = "Incorrect Exception message";
+
+	static final String BASE_VALUE_NAME = "Base value name";
+	static BaseValue baseValue;
+	static final double BASE_SCALE = 10;
+	static final double CAPITAL = 10000000;
+	static final int PARALLELISM = 4;
+
+	static LocalDateTime localDateTimeJan10220000;
+	static LocalDateTime localDateTimeJan12220000;
+	static LocalDateTime localDateTimeFeb05220000;
+
+	static SubSystem subSystem1;
+	static SubSystem subSystem2;
+	static List<Callable<SubSystem>> subSystemLoaders;
+
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		baseValue = BaseValueFactory.jan1Feb05calcShort(BASE_VALUE_NAME);
+		localDateTimeJan10220000 = LocalDateTime.of(2020, 01, 10, 22, 0);
+		localDateTimeJan12220000 = LocalDateTime.of(2020, 01, 12, 22, 0);
+		localDateTimeFeb05220000 = LocalDateTime.of(2020, 02, 5, 22, 0);
+	}
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Rule[] rules1 = {
+		        RealRule.from(baseValue, null, localDateTimeJan10220000, localDateTimeJan12220000, BASE_SCALE, 1),
+		        RealRule.from(baseValue, null, localDateTimeJan10220000, localDateTimeJan12220000, BASE_SCALE, 2) };
+		Rule[] rules2 = {
+		        RealRule.from(baseValue, null, localDateTimeJan10220000, localDateTimeJan12220000, BASE_SCALE, 3) };
+
+		subSystem1 = new SubSystem(baseValue, rules1, CAPITAL, BASE_SCALE);
+		subSystem2 = new SubSystem(baseValue, rules2, CAPITAL / 2, BASE_SCALE);
+
+		subSystemLoaders = new ArrayList<>();
+		subSystemLoaders.add(() -> subSystem1);
+		subSystemLoaders.add(() -> subSystem2);
+	}
+
+	/**
+	 * Test method for {@link Portfolio#Portfolio(List, LocalDateTime, LocalDateTime, int)}.
+	 */
+	@Test
+	void testPortfolio() {
+		Portfolio portfolio = new Portfolio(subSystemLoaders, localDateTimeJan10220000, localDateTimeFeb05220000,
+		        PARALLELISM);
+
+		assertSame(subSystem1, portfolio.getSubSystems()[0], "SubSystems are not kept in order of their loaders");
+		assertSame(subSystem2, portfolio.getSubSystems()[1], "SubSystems are not kept in order of their loaders");
+	}
+
+	/**
+	 * Test method for {@link Portfolio#Portfolio(SubSystem[], LocalDateTime, LocalDateTime, int)}.
+	 */
+	@Test
+	void testPortfolio_subSystems() {
+		Portfolio portfolio1 = new Portfolio(subSystemLoaders, localDateTimeJan10220000, localDateTimeFeb05220000,
+		        PARALLELISM);
+		Portfolio portfolio2 = new Portfolio(new SubSystem[] { subSystem1, subSystem2 }, localDateTimeJan10220000,
+		        localDateTimeFeb05220000, 1);
+
+		assertEquals(portfolio1, portfolio2, "Equal Objects are not considered equal");
+	}
+
+	/**
+	 * Test method for {@link Portfolio#Portfolio(List, LocalDateTime, LocalDateTime, int)}.
+	 */
+	@Test
+	void testPortfolio_loaderThrows() {
+		IOException cause = new IOException("File not found");
+		subSystemLoaders.add(() -> {
+			throw cause;
+		});
+		String expectedMessage = "SubSystem at position 2 could not be built.";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new Portfolio(subSystemLoaders, localDateTimeJan10220000, localDateTimeFeb05220000, PARALLELISM),
+		        "Failing loaders are not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+		assertSame(cause, thrown.getCause(), "Cause of failing loader is not passed on");
+	}
+
+	/**
+	 * Test method for {@link Portfolio#backtest()}.
+	 */
+	@Test
+	void testBacktest() {
+		double expectedValue = subSystem1.backtest(localDateTimeJan10220000, localDateTimeFeb05220000)
+		        + subSystem2.backtest(localDateTimeJan10220000, localDateTimeFeb05220000);
+
+		Portfolio portfolio = new Portfolio(subSystemLoaders, localDateTimeJan10220000, localDateTimeFeb05220000,
+		        PARALLELISM);
+
+		assertEquals(expectedValue, portfolio.backtest(), "Combined performance is not correctly calculated");
+	}
+
+	/**
+	 * Test method for {@link Portfolio#getCapital()}.
+	 */
+	@Test
+	void testGetCapital() {
+		double expectedValue = CAPITAL + CAPITAL / 2;
+
+		Portfolio portfolio = new Portfolio(subSystemLoaders, localDateTimeJan10220000, localDateTimeFeb05220000,
+		        PARALLELISM);
+
+		assertEquals(expectedValue, portfolio.getCapital(), "Combined capital is not correctly calculated");
+	}
+
+	/**
+	 * Test method for {@link Portfolio#getCombinedPerformanceValues()}.
+	 */
+	@Test
+	void testGetCombinedPerformanceValues() {
+		ValueDateTupel[] performanceValues1 = subSystem1.calculatePerformanceValues(localDateTimeJan10220000,
+		        localDateTimeFeb05220000);
+		ValueDateTupel[] performanceValues2 = subSystem2.calculatePerformanceValues(localDateTimeJan10220000,
+		        localDateTimeFeb05220000);
+
+		Portfolio portfolio = new Portfolio(subSystemLoaders, localDateTimeJan10220000, localDateTimeFeb05220000,
+		        PARALLELISM);
+		ValueDateTupel[] actualValues = portfolio.getCombinedPerformanceValues();
+
+		assertEquals(performanceValues1.length, actualValues.length, "Combined performance values are not aligned");
+		for (int i = 0; i < actualValues.length; i++) {
+			assertEquals(performanceValues1[i].getDate(), actualValues[i].getDate(), "Dates are not aligned");
+			assertEquals(performanceValues1[i].getValue() + performanceValues2[i].getValue(),
+			        actualValues[i].getValue(), "Performance values are not correctly combined");
+		}
+	}
+
+	/**
+	 * Test method for {@link Portfolio#getPerformanceValues()}.
+	 */
+	@Test
+	void testGetPerformanceValues_lastValueIsBacktestResult() {
+		Portfolio portfolio = new Portfolio(subSystemLoaders, localDateTimeJan10220000, localDateTimeFeb05220000,
+		        PARALLELISM);
+		ValueDateTupel[][] performanceValues = portfolio.getPerformanceValues();
+
+		for (int i = 0; i < performanceValues.length; i++) {
+			double expectedValue = portfolio.getSubSystems()[i].backtest(localDateTimeJan10220000,
+			        localDateTimeFeb05220000);
+			assertEquals(expectedValue, performanceValues[i][performanceValues[i].length - 1].getValue(),
+			        "Last performance value of SubSystem " + i + " is not its backtest result");
+		}
+	}
+
+	/**
+	 * Test method for {@link Portfolio#validateInput(List, LocalDateTime, LocalDateTime, int)}.
+	 */
+	@Test
+	void testValidateInput_loadersEmpty() {
+		List<Callable<SubSystem>> loaders = new ArrayList<>();
+		String expectedMessage = "SubSystem loaders must not be empty";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new Portfolio(loaders, localDateTimeJan10220000, localDateTimeFeb05220000, PARALLELISM),
+		        "Empty list of loaders is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link Portfolio#validateInput(List, LocalDateTime, LocalDateTime, int)}.
+	 */
+	@Test
+	void testValidateInput_loadersContainNull() {
+		subSystemLoaders.add(null);
+		String expectedMessage = "SubSystem loaders must not contain null";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new Portfolio(subSystemLoaders, localDateTimeJan10220000, localDateTimeFeb05220000, PARALLELISM),
+		        "List of loaders containing null is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link Portfolio#validateInput(List, LocalDateTime, LocalDateTime, int)}.
+	 */
+	@Test
+	void testValidateInput_endBeforeStart() {
+		String expectedMessage = "End of test window must be after start of test window";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new Portfolio(subSystemLoaders, localDateTimeFeb05220000, localDateTimeJan10220000, PARALLELISM),
+		        "End of test window before start is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link Portfolio#validateInput(List, LocalDateTime, LocalDateTime, int)}.
+	 */
+	@Test
+	void testValidateInput_parallelism0() {
+		String expectedMessage = "Parallelism must be at least 1";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new Portfolio(subSystemLoaders, localDateTimeJan10220000, localDateTimeFeb05220000, 0),
+		        "Parallelism of 0 is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+}
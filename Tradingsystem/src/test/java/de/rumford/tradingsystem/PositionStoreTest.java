@@ -0,0 +1,191 @@
+package de.rumford.tradingsystem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.rumford.tradingsystem.PositionStore.Position;
+import de.rumford.tradingsystem.helper.SyntheticSeriesGenerator;
+import de.rumford.tradingsystem.helper.SyntheticSeriesGenerator.Series;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * Test class for {@link PositionStore}.
+ * 
+ * @author Max Rumford
+ */
+class PositionStoreTest {
+
+	static final String MESSAGE_INCORRECT_EXCEPTION_MESSAGE = "Incorrect Exception message";
+	static final String INSTRUMENT = "DAX";
+	static final String OTHER_INSTRUMENT = "S&P 500";
+	static final LocalDateTime DATE = LocalDateTime.of(2020, 1, 2, 22, 0);
+
+	PositionStore store;
+
+	@BeforeEach
+	void setUp() {
+		store = new PositionStore();
+	}
+
+	/**
+	 * Test method for {@link PositionStore#update(String, LocalDateTime, double)}.
+	 */
+	@Test
+	void testUpdate() {
+		Position first = store.update(INSTRUMENT, DATE, 5);
+		Position second = store.update(INSTRUMENT, DATE.plusDays(1), -3);
+		Position other = store.update(OTHER_INSTRUMENT, DATE, 0);
+
+		assertEquals(1, first.getSequence(), "First sequence number is not 1");
+		assertEquals(2, second.getSequence(), "Sequence number is not increased");
+		assertEquals(1, other.getSequence(), "Sequence number is not kept per instrument");
+		assertSame(second, store.get(INSTRUMENT), "Current position is not returned");
+		assertEquals("Long", first.getPosition(), "Position of a positive forecast is not correct");
+		assertEquals("Short", second.getPosition(), "Position of a negative forecast is not correct");
+		assertEquals("Hold", other.getPosition(), "Position of a forecast of 0 is not correct");
+		assertNull(store.get("unknown"), "Position of an unknown instrument is not null");
+	}
+
+	/**
+	 * Test method for {@link PositionStore#update(String, LocalDateTime, double)} with an earlier date.
+	 */
+	@Test
+	void testUpdate_dateBeforeCurrent() {
+		Position current = store.update(INSTRUMENT, DATE, 5);
+		String expectedMessage = "Date must not be before the date of the current position of " + INSTRUMENT
+		        + " but is " + DATE.minusDays(1) + " instead of " + DATE;
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> store.update(INSTRUMENT, DATE.minusDays(1), 1));
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+		assertSame(current, store.get(INSTRUMENT), "Current position is replaced although the update failed");
+	}
+
+	/**
+	 * Test method for {@link PositionStore#update(String, LocalDateTime, double)}.
+	 */
+	@Test
+	void testUpdate_forecastNaN() {
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> store.update(INSTRUMENT, DATE, Double.NaN));
+
+		assertEquals("Forecast must not be Double.NaN", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link PositionStore#update(SubSystem)}.
+	 */
+	@Test
+	void testUpdate_subSystem() {
+		int length = 300;
+		double baseScale = 10;
+		ValueDateTupel[] values = new SyntheticSeriesGenerator(42, length).generate(Series.BASE_VALUES);
+		BaseValue baseValue = new BaseValue(INSTRUMENT, values);
+		Rule[] rules = { new EWMAC(baseValue, null, values[length / 10].getDate(), values[length / 2].getDate(), 8,
+		        2, baseScale) };
+		SubSystem subSystem = new SubSystem(baseValue, rules, 100000, baseScale);
+		ValueDateTupel[] combinedForecasts = subSystem.getCombinedForecasts();
+		ValueDateTupel lastForecast = combinedForecasts[combinedForecasts.length - 1];
+
+		Position position = store.update(subSystem);
+
+		assertEquals(INSTRUMENT, position.getInstrument(), "Instrument is not the base value's name");
+		assertEquals(lastForecast.getDate(), position.getDate(), "Date is not the last forecast's date");
+		assertEquals(lastForecast.getValue(), position.getForecast(), "Forecast is not the last forecast");
+	}
+
+	/**
+	 * Test method for {@link PositionStore#subscribe(PositionStore.Listener)}.
+	 */
+	@Test
+	void testSubscribe() {
+		List<Position> notified = new ArrayList<>();
+		PositionStore.Listener listener = notified::add;
+		store.subscribe(position -> {
+			throw new IllegalStateException("Failing listener");
+		});
+		store.subscribe(listener);
+
+		Position position = store.update(INSTRUMENT, DATE, 5);
+		assertTrue(store.unsubscribe(listener), "Subscribed listener is not unsubscribed");
+		store.update(INSTRUMENT, DATE, 6);
+
+		assertEquals(1, notified.size(), "Listener is not notified exactly until unsubscribed");
+		assertSame(position, notified.get(0), "Listener is not notified of the published position");
+		assertFalse(store.unsubscribe(listener), "Listener is unsubscribed twice");
+	}
+
+	/**
+	 * Test method for {@link PositionStore#getAll()}.
+	 */
+	@Test
+	void testGetAll() {
+		store.update(INSTRUMENT, DATE, 5);
+		store.update(OTHER_INSTRUMENT, DATE, -5);
+
+		Map<String, Position> all = store.getAll();
+
+		assertEquals(2, all.size(), "Not all positions are returned");
+		assertEquals(-5, all.get(OTHER_INSTRUMENT).getForecast(), "Position is not correctly returned");
+		assertThrows(UnsupportedOperationException.class, () -> all.remove(INSTRUMENT), "Positions are modifiable");
+	}
+
+	/**
+	 * Test method for {@link PositionStore#update(String, LocalDateTime, double)} by concurrent writers of the same
+	 * instrument while readers read. No sequence number may be skipped or repeated and readers must never see a
+	 * sequence number decrease.
+	 * 
+	 * @throws InterruptedException if the test is interrupted.
+	 */
+	@Test
+	void testUpdate_concurrent() throws InterruptedException {
+		int numberOfWriters = 3;
+		int updatesPerWriter = 2000;
+		boolean[] decreasingSequenceRead = new boolean[1];
+		Thread[] writers = new Thread[numberOfWriters];
+		for (int i = 0; i < numberOfWriters; i++) {
+			writers[i] = new Thread(() -> {
+				for (int j = 0; j < updatesPerWriter; j++) {
+					store.update(INSTRUMENT, DATE, j);
+					if (j % 100 == 0)
+						Thread.yield();
+				}
+			});
+		}
+		Thread reader = new Thread(() -> {
+			long lastSequence = 0;
+			while (lastSequence < numberOfWriters * updatesPerWriter) {
+				Position position = store.get(INSTRUMENT);
+				if (position != null) {
+					if (position.getSequence() < lastSequence)
+						decreasingSequenceRead[0] = true;
+					lastSequence = position.getSequence();
+				}
+				Thread.yield();
+			}
+		});
+		reader.start();
+		for (Thread writer : writers)
+			writer.start();
+		for (Thread writer : writers)
+			writer.join();
+		reader.join();
+
+		assertEquals(numberOfWriters * updatesPerWriter, store.get(INSTRUMENT).getSequence(),
+		        "Sequence numbers are skipped or repeated");
+		assertFalse(decreasingSequenceRead[0], "Reader saw a decreasing sequence number");
+	}
+}
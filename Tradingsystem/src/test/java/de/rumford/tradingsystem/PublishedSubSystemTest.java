@@ -0,0 +1,126 @@
+package de.rumford.tradingsystem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.rumford.tradingsystem.helper.SyntheticSeriesGenerator;
+import de.rumford.tradingsystem.helper.SyntheticSeriesGenerator.Series;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * Test class for {@link PublishedSubSystem}.
+ * 
+ * @author Max Rumford
+ */
+class PublishedSubSystemTest {
+
+	static final String MESSAGE_INCORRECT_EXCEPTION_MESSAGE = "Incorrect Exception message";
+	static final long SEED = 42;
+	static final int LENGTH = 300;
+	static final double BASE_SCALE = 10;
+
+	SubSystem fastSubSystem;
+	SubSystem slowSubSystem;
+
+	@BeforeEach
+	void setUp() {
+		ValueDateTupel[] values = new SyntheticSeriesGenerator(SEED, LENGTH).generate(Series.BASE_VALUES);
+		BaseValue baseValue = new BaseValue("DAX", values);
+		LocalDateTime startOfReferenceWindow = values[LENGTH / 10].getDate();
+		LocalDateTime endOfReferenceWindow = values[LENGTH / 2].getDate();
+		fastSubSystem = new SubSystem(baseValue,
+		        new Rule[] {
+		                new EWMAC(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 8, 2, BASE_SCALE) },
+		        100000, BASE_SCALE);
+		slowSubSystem = new SubSystem(baseValue,
+		        new Rule[] {
+		                new EWMAC(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 64, 16, BASE_SCALE) },
+		        100000, BASE_SCALE);
+	}
+
+	/**
+	 * Test method for {@link PublishedSubSystem#publish(SubSystem)}.
+	 */
+	@Test
+	void testPublish() {
+		PublishedSubSystem published = new PublishedSubSystem(fastSubSystem);
+		SubSystemSnapshot firstSnapshot = published.getSnapshot();
+
+		SubSystemSnapshot secondSnapshot = published.publish(slowSubSystem);
+
+		assertEquals(fastSubSystem.getRules()[0].getFingerprint(), firstSnapshot.getRuleFingerprint(0),
+		        "First snapshot is not of the first SubSystem");
+		assertSame(secondSnapshot, published.getSnapshot(), "Published snapshot is not returned");
+		assertEquals(slowSubSystem.getRules()[0].getFingerprint(), secondSnapshot.getRuleFingerprint(0),
+		        "Second snapshot is not of the second SubSystem");
+	}
+
+	/**
+	 * Test method for {@link PublishedSubSystem#publish(SubSystem)}.
+	 */
+	@Test
+	void testPublish_null() {
+		PublishedSubSystem published = new PublishedSubSystem(fastSubSystem);
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> published.publish(null));
+
+		assertEquals("SubSystem must not be null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+		assertEquals(fastSubSystem.getRules()[0].getFingerprint(), published.getSnapshot().getRuleFingerprint(0),
+		        "Snapshot is replaced although publishing failed");
+	}
+
+	/**
+	 * Test method for {@link PublishedSubSystem#getSnapshot()} while a writer publishes concurrently. Every snapshot
+	 * read must be consistent in itself, i.e. its combined forecasts must belong to its rule.
+	 * 
+	 * @throws InterruptedException if the test is interrupted.
+	 */
+	@Test
+	void testGetSnapshot_concurrentPublish() throws InterruptedException {
+		SubSystemSnapshot fastSnapshot = new SubSystemSnapshot(fastSubSystem);
+		SubSystemSnapshot slowSnapshot = new SubSystemSnapshot(slowSubSystem);
+		PublishedSubSystem published = new PublishedSubSystem(fastSubSystem);
+		int numberOfReaders = 3;
+		int numberOfPublications = 200;
+		AtomicInteger inconsistentReads = new AtomicInteger();
+
+		Thread writer = new Thread(() -> {
+			for (int i = 0; i < numberOfPublications; i++) {
+				published.publish(i % 2 == 0 ? slowSubSystem : fastSubSystem);
+				Thread.yield();
+			}
+		});
+		Thread[] readers = new Thread[numberOfReaders];
+		for (int i = 0; i < numberOfReaders; i++) {
+			readers[i] = new Thread(() -> {
+				while (writer.isAlive()) {
+					SubSystemSnapshot snapshot = published.getSnapshot();
+					SubSystemSnapshot expected = snapshot.getRuleFingerprint(0)
+					        .equals(fastSnapshot.getRuleFingerprint(0)) ? fastSnapshot : slowSnapshot;
+					for (int position = 0; position < snapshot.size(); position++)
+						if (Double.compare(expected.getCombinedForecast(position),
+						        snapshot.getCombinedForecast(position)) != 0)
+							inconsistentReads.incrementAndGet();
+					Thread.yield();
+				}
+			});
+		}
+		for (Thread reader : readers)
+			reader.start();
+		writer.start();
+		writer.join();
+		for (Thread reader : readers)
+			reader.join();
+
+		assertEquals(0, inconsistentReads.get(), "Inconsistent snapshots were read");
+		assertEquals(fastSnapshot.getRuleFingerprint(0), published.getSnapshot().getRuleFingerprint(0),
+		        "Last published snapshot is not returned");
+	}
+}
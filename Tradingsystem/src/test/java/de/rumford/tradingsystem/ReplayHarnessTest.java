@@ -0,0 +1,260 @@
+package de.rumford.tradingsystem;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import de.rumford.tradingsystem.helper.BinarySeries;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * Test class for {@link ReplayHarness}. Uses the values of {@link LiveSubSystemTest}.
+ * 
+ * @author Max Rumford
+ */
+class ReplayHarnessTest {
+
+	static final String MESSAGE_INCORRECT_EXCEPTION_MESSAGE = "Incorrect Exception message";
+	static final double DELTA = 1e-9;
+	static final int NUMBER_OF_REPLAYED_VALUES = 100;
+
+	static ValueDateTupel[] baseValues;
+	static ValueDateTupel[] volatilityIndexValues;
+
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		LiveSubSystemTest.setUpBeforeClass();
+		baseValues = LiveSubSystemTest.baseValues;
+		volatilityIndexValues = LiveSubSystemTest.volatilityIndexValues;
+	}
+
+	/**
+	 * Test method for {@link ReplayHarness#replay(double)}.
+	 */
+	@Test
+	void testReplay() {
+		ReplayHarness harness = new ReplayHarness(baseValues, volatilityIndexValues,
+		        LiveSubSystemTest::createSubSystem, NUMBER_OF_REPLAYED_VALUES);
+
+		harness.replay(0);
+
+		assertEquals(NUMBER_OF_REPLAYED_VALUES, harness.getLatencies().getTotalCount(),
+		        "Not every update is recorded");
+		assertEquals(NUMBER_OF_REPLAYED_VALUES, harness.getReplayedForecasts().length, "Not every value is replayed");
+		assertEquals(baseValues[baseValues.length - 1].getDate(),
+		        harness.getReplayedForecasts()[NUMBER_OF_REPLAYED_VALUES - 1].getDate(),
+		        "Forecasts are not of the replayed dates");
+		assertTrue(harness.getThroughput() > 0, "Throughput is not calculated");
+		assertEquals(0, harness.calculateMaximumDeviation(), DELTA, "Replayed forecasts differ from full rebuild");
+	}
+
+	/**
+	 * Test method for {@link ReplayHarness#replay(double)}.
+	 */
+	@Test
+	void testReplay_withoutVolatilityIndex() {
+		ReplayHarness harness = new ReplayHarness(baseValues, null, LiveSubSystemTest::createSubSystem,
+		        NUMBER_OF_REPLAYED_VALUES);
+
+		harness.replay(0);
+
+		assertEquals(0, harness.calculateMaximumDeviation(), DELTA, "Replayed forecasts differ from full rebuild");
+	}
+
+	/**
+	 * Test method for {@link ReplayHarness#replay(double)}.
+	 */
+	@Test
+	void testReplay_rateLimited() {
+		int numberOfReplayedValues = 10;
+		ReplayHarness harness = new ReplayHarness(baseValues, volatilityIndexValues,
+		        LiveSubSystemTest::createSubSystem, numberOfReplayedValues);
+
+		harness.replay(500);
+
+		/* The first value is fed immediately, each further one 2ms later. */
+		assertTrue(harness.getElapsedNanos() >= (numberOfReplayedValues - 1) * 2_000_000L,
+		        "Values are fed faster than the given rate");
+		assertTrue(harness.getThroughput() <= 500 * 1.1 * numberOfReplayedValues / (numberOfReplayedValues - 1),
+		        "Throughput exceeds the given rate");
+	}
+
+	/**
+	 * Test method for {@link ReplayHarness#replay(double)}.
+	 */
+	@Test
+	void testReplay_negativeRate() {
+		ReplayHarness harness = new ReplayHarness(baseValues, null, LiveSubSystemTest::createSubSystem,
+		        NUMBER_OF_REPLAYED_VALUES);
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> harness.replay(-1));
+
+		assertEquals("Bars per second must be a finite value of at least 0", thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link ReplayHarness#calculateMaximumDeviation()}.
+	 */
+	@Test
+	void testCalculateMaximumDeviation_notReplayed() {
+		ReplayHarness harness = new ReplayHarness(baseValues, null, LiveSubSystemTest::createSubSystem,
+		        NUMBER_OF_REPLAYED_VALUES);
+
+		Exception thrown = assertThrows(IllegalStateException.class, () -> harness.calculateMaximumDeviation());
+
+		assertEquals("Values must be replayed before comparing their forecasts", thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link ReplayHarness#ReplayHarness(ValueDateTupel[], ValueDateTupel[],
+	 * java.util.function.BiFunction, int)}.
+	 */
+	@Test
+	void testReplayHarness_tooManyReplayedValues() {
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> new ReplayHarness(baseValues, null,
+		        LiveSubSystemTest::createSubSystem, baseValues.length));
+
+		assertEquals("Number of replayed values must be at least 1 and less than the number of base values",
+		        thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link ReplayHarness#ReplayHarness(ValueDateTupel[], ValueDateTupel[],
+	 * java.util.function.BiFunction, int)}.
+	 */
+	@Test
+	void testReplayHarness_volatilityIndexNotAligned() {
+		ValueDateTupel[] notAligned = volatilityIndexValues.clone();
+		notAligned[0] = new ValueDateTupel(notAligned[0].getDate().minusDays(1), notAligned[0].getValue());
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> new ReplayHarness(baseValues,
+		        notAligned, LiveSubSystemTest::createSubSystem, NUMBER_OF_REPLAYED_VALUES));
+
+		assertEquals("Volatility index values must be aligned with the base values", thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link ReplayHarness#ReplayHarness(ValueDateTupel[], ValueDateTupel[],
+	 * java.util.function.BiFunction, int)}.
+	 */
+	@Test
+	void testReplayHarness_subSystemFactoryNull() {
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new ReplayHarness(baseValues, null, null, NUMBER_OF_REPLAYED_VALUES));
+
+		assertEquals("SubSystem factory must not be null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link ReplayHarness#main(String[])} with a CSV file and a binary series.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testMain() throws IOException {
+		Path resources = Path.of("src", "test", "resources");
+		Path volatilityIndexFile = Files.createTempFile("ReplayHarnessTest", ".bin");
+		try {
+			BinarySeries.writeDataToBinary(volatilityIndexFile.toString(),
+			        ReplayHarness.readValues(resources.resolve("STOXX-VSTOXX.csv").toString()));
+
+			assertDoesNotThrow(() -> ReplayHarness.main(new String[] { resources.resolve("STOXX.csv").toString(),
+			        volatilityIndexFile.toString(), "20" }), "Replay of CSV and binary series fails");
+		} finally {
+			Files.delete(volatilityIndexFile);
+		}
+	}
+
+	/**
+	 * Test method for {@link ReplayHarness#main(String[])}.
+	 */
+	@Test
+	void testMain_missingArguments() {
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> ReplayHarness.main(new String[0]));
+
+		assertEquals("Usage: ReplayHarness <base values> <volatility index values or -> [replayed values] [bars/s] "
+		        + "[reference window start/end]", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link ReplayHarness#main(String[])} with a given reference window.
+	 */
+	@Test
+	void testMain_referenceWindow() {
+		String baseValuesFile = Path.of("src", "test", "resources", "STOXX.csv").toString();
+
+		assertDoesNotThrow(() -> ReplayHarness.main(new String[] { baseValuesFile, "-", "20", "0",
+		        "2015-01-02T22:00/2017-12-29T22:00" }), "Replay with a given reference window fails");
+	}
+
+	/**
+	 * Test method for {@link ReplayHarness#parseWindow(String)}.
+	 */
+	@Test
+	void testParseWindow() {
+		LocalDateTime[] window = ReplayHarness.parseWindow("2015-01-02T22:00/2017-12-29T22:00");
+
+		assertEquals(LocalDateTime.of(2015, 1, 2, 22, 0), window[0], "Start of window is not parsed correctly");
+		assertEquals(LocalDateTime.of(2017, 12, 29, 22, 0), window[1], "End of window is not parsed correctly");
+	}
+
+	/**
+	 * Test method for {@link ReplayHarness#parseWindow(String)}.
+	 */
+	@Test
+	void testParseWindow_noWindow() {
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> ReplayHarness.parseWindow("2015-01-02T22:00"));
+
+		assertEquals("Reference window must be given as start/end but is 2015-01-02T22:00", thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link ReplayHarness#parseWindow(String)}.
+	 */
+	@Test
+	void testParseWindow_noDates() {
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> ReplayHarness.parseWindow("2015/2017"));
+
+		assertEquals("Reference window must consist of ISO dates but is 2015/2017", thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link ReplayHarness#getDefaultReferenceWindow(ValueDateTupel[], int)}.
+	 */
+	@Test
+	void testGetDefaultReferenceWindow() {
+		LocalDateTime[] window = ReplayHarness.getDefaultReferenceWindow(baseValues, NUMBER_OF_REPLAYED_VALUES);
+
+		assertEquals(baseValues[32].getDate(), window[0], "Window does not start after the warm-up values");
+		assertEquals(baseValues[baseValues.length - NUMBER_OF_REPLAYED_VALUES - 1].getDate(), window[1],
+		        "Window does not end with the last value not replayed");
+	}
+
+	/**
+	 * Test method for {@link ReplayHarness#getDefaultReferenceWindow(ValueDateTupel[], int)}.
+	 */
+	@Test
+	void testGetDefaultReferenceWindow_tooFewValues() {
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> ReplayHarness.getDefaultReferenceWindow(baseValues, baseValues.length - 33));
+
+		assertEquals("There must be more than 33 values before the replayed values to derive a reference window",
+		        thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+}
@@ -13,6 +13,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import de.rumford.tradingsystem.helper.BaseValueFactory;
+import de.rumford.tradingsystem.helper.Fingerprint;
 import de.rumford.tradingsystem.helper.GeneratedCode;
 import de.rumford.tradingsystem.helper.ValueDateTupel;
 
@@ -44,6 +45,11 @@ public class RuleTest {
 			        + this.variator * 100;
 		}
 
+		@Override
+		Fingerprint fingerprintParameters(Fingerprint fingerprint) {
+			return fingerprint.with(this.variator);
+		}
+
 		@GeneratedCode
 		@Override
 		public int hashCode() {
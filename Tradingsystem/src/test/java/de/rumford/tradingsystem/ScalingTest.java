@@ -0,0 +1,240 @@
+package de.rumford.tradingsystem;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import de.rumford.tradingsystem.helper.CsvFormat;
+import de.rumford.tradingsystem.helper.DataSource;
+import de.rumford.tradingsystem.helper.SyntheticSeriesGenerator;
+import de.rumford.tradingsystem.helper.SyntheticSeriesGenerator.Series;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * Test class guarding the core operations against super-linear scaling. Each operation is timed at doubling numbers of
+ * values of a {@link SyntheticSeriesGenerator}. The exponent k of the fitted power law {@code time ~ n^k} must stay
+ * below {@link #MAXIMUM_EXPONENT}: linear and n log n operations measure about 1, operations regressing to O(n²)
+ * about 2.
+ * <p>
+ * As the timings depend on the load of the machine, the class is tagged "performance" and only run by
+ * {@code mvn -P performance test}.
+ * 
+ * @author Max Rumford
+ */
+@Tag("performance")
+class ScalingTest {
+
+	static final long SEED = 42;
+	static final int[] SIZES = { 20_000, 40_000, 80_000, 160_000 };
+	static final double MAXIMUM_EXPONENT = 1.5;
+	/* Each timing repeats the operation until this much time has passed, so short operations can be timed. */
+	static final long MINIMUM_BATCH_NANOS = 20_000_000L;
+	/* The fastest of these batches is used, as noise only ever adds time. */
+	static final int NUMBER_OF_BATCHES = 5;
+	static final double BASE_SCALE = 10;
+	static final double CAPITAL = 100000;
+
+	Path file;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		file = Files.createTempFile("ScalingTest", ".csv");
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	/**
+	 * Times the operation created for each of {@link #SIZES} and asserts the fitted exponent stays below
+	 * {@link #MAXIMUM_EXPONENT}.
+	 * 
+	 * @param name               {@code String} The name of the operation for the failure message.
+	 * @param operationForLength {@code IntFunction<Runnable>} Prepares everything the operation needs for the given
+	 *                           number of values and returns the operation to be timed.
+	 */
+	static void assertNearLinear(String name, IntFunction<Runnable> operationForLength) {
+		/* Warm up, so the smallest size is not timed in the interpreter. */
+		time(operationForLength.apply(SIZES[0]));
+
+		double[] nanosPerOperation = new double[SIZES.length];
+		for (int i = 0; i < SIZES.length; i++)
+			nanosPerOperation[i] = time(operationForLength.apply(SIZES[i]));
+
+		double exponent = fitExponent(SIZES, nanosPerOperation);
+		assertTrue(exponent < MAXIMUM_EXPONENT, name + " scales super-linearly: n^" + String.format("%.2f", exponent)
+		        + " for sizes " + Arrays.toString(SIZES) + ", ns " + Arrays.toString(nanosPerOperation));
+	}
+
+	/**
+	 * Times the given operation.
+	 * 
+	 * @param  operation {@code Runnable} The operation to be timed.
+	 * @return           {@code double} The nanoseconds of one run of the operation in the fastest batch.
+	 */
+	static double time(Runnable operation) {
+		double fastest = Double.MAX_VALUE;
+		for (int batch = 0; batch < NUMBER_OF_BATCHES; batch++) {
+			int runs = 0;
+			long start = System.nanoTime();
+			long elapsed;
+			do {
+				operation.run();
+				runs++;
+				elapsed = System.nanoTime() - start;
+			} while (elapsed < MINIMUM_BATCH_NANOS);
+			fastest = Math.min(fastest, (double) elapsed / runs);
+		}
+		return fastest;
+	}
+
+	/**
+	 * Fits {@code time = c * n^k} to the given timings by least squares on their logarithms.
+	 * 
+	 * @param  sizes  {@code int[]} The numbers of values.
+	 * @param  timings {@code double[]} The timing per number of values.
+	 * @return        {@code double} The exponent k.
+	 */
+	static double fitExponent(int[] sizes, double[] timings) {
+		double meanX = 0;
+		double meanY = 0;
+		for (int i = 0; i < sizes.length; i++) {
+			meanX += Math.log(sizes[i]) / sizes.length;
+			meanY += Math.log(timings[i]) / sizes.length;
+		}
+		double covariance = 0;
+		double variance = 0;
+		for (int i = 0; i < sizes.length; i++) {
+			double x = Math.log(sizes[i]) - meanX;
+			covariance += x * (Math.log(timings[i]) - meanY);
+			variance += x * x;
+		}
+		return covariance / variance;
+	}
+
+	/**
+	 * Creates the rules of the ExampleClient on the given base value: an {@link EWMAC} with three variations and a
+	 * {@link VolatilityDifference} on the given volatility index. The reference window spans the second to fifth tenth
+	 * of the values.
+	 * 
+	 * @param  baseValue             {@link BaseValue} The base value.
+	 * @param  volatilityIndexValues {@code ValueDateTupel[]} The volatility index values.
+	 * @return                       {@code Rule[]} The created rules.
+	 */
+	static Rule[] createRules(BaseValue baseValue, ValueDateTupel[] volatilityIndexValues) {
+		ValueDateTupel[] values = baseValue.getValues();
+		LocalDateTime start = values[values.length / 10].getDate();
+		LocalDateTime end = values[values.length / 2].getDate();
+		EWMAC[] variations = { new EWMAC(baseValue, null, start, end, 8, 2, BASE_SCALE),
+		        new EWMAC(baseValue, null, start, end, 16, 4, BASE_SCALE),
+		        new EWMAC(baseValue, null, start, end, 32, 8, BASE_SCALE) };
+		return new Rule[] { new VolatilityDifference(baseValue, null, start, end, 8, BASE_SCALE, volatilityIndexValues),
+		        new EWMAC(baseValue, variations, start, end, 0, 0, BASE_SCALE) };
+	}
+
+	/**
+	 * Scaling test for {@link DataSource#getDataFromCsv(String, CsvFormat)}.
+	 */
+	@Test
+	void testGetDataFromCsv_scaling() {
+		assertNearLinear("DataSource.getDataFromCsv", length -> {
+			try {
+				new SyntheticSeriesGenerator(SEED, length).writeCsv(file.toString(), Series.BASE_VALUES, CsvFormat.EU);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return () -> {
+				try {
+					DataSource.getDataFromCsv(file.toString(), CsvFormat.EU);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			};
+		});
+	}
+
+	/**
+	 * Scaling test for {@link ValueDateTupel#alignDates(ValueDateTupel[][])} on two series each missing a tenth of
+	 * the bars.
+	 */
+	@Test
+	void testAlignDates_scaling() {
+		assertNearLinear("ValueDateTupel.alignDates", length -> {
+			SyntheticSeriesGenerator generator = new SyntheticSeriesGenerator(SEED, length,
+			        SyntheticSeriesGenerator.DEFAULT_FIRST_DATE, Duration.ofDays(1), 0.1);
+			ValueDateTupel[] values = generator.generate(Series.BASE_VALUES);
+			ValueDateTupel[] volatilityIndexValues = generator.generate(Series.VOLATILITY_INDEX);
+			/* alignDates replaces the rows of the given array, so each run gets a new one. */
+			return () -> ValueDateTupel.alignDates(new ValueDateTupel[][] { values, volatilityIndexValues });
+		});
+	}
+
+	/**
+	 * Scaling test for {@link BaseValue#BaseValue(String, ValueDateTupel[], ValueDateTupel[])}.
+	 */
+	@Test
+	void testBaseValue_scaling() {
+		assertNearLinear("BaseValue construction", length -> {
+			SyntheticSeriesGenerator generator = new SyntheticSeriesGenerator(SEED, length);
+			ValueDateTupel[] values = generator.generate(Series.BASE_VALUES);
+			ValueDateTupel[] shortIndexValues = generator.generate(Series.SHORT_INDEX);
+			return () -> new BaseValue("scaling", values, shortIndexValues);
+		});
+	}
+
+	/**
+	 * Scaling test for the construction of {@link EWMAC} and {@link VolatilityDifference}.
+	 */
+	@Test
+	void testRule_scaling() {
+		assertNearLinear("Rule construction", length -> {
+			SyntheticSeriesGenerator generator = new SyntheticSeriesGenerator(SEED, length);
+			BaseValue baseValue = new BaseValue("scaling", generator.generate(Series.BASE_VALUES));
+			ValueDateTupel[] volatilityIndexValues = generator.generate(Series.VOLATILITY_INDEX);
+			return () -> createRules(baseValue, volatilityIndexValues);
+		});
+	}
+
+	/**
+	 * Scaling test for {@link SubSystem#SubSystem(BaseValue, Rule[], double, double)}.
+	 */
+	@Test
+	void testSubSystem_scaling() {
+		assertNearLinear("SubSystem construction", length -> {
+			SyntheticSeriesGenerator generator = new SyntheticSeriesGenerator(SEED, length);
+			BaseValue baseValue = new BaseValue("scaling", generator.generate(Series.BASE_VALUES));
+			Rule[] rules = createRules(baseValue, generator.generate(Series.VOLATILITY_INDEX));
+			return () -> new SubSystem(baseValue, rules, CAPITAL, BASE_SCALE);
+		});
+	}
+
+	/**
+	 * Scaling test for {@link SubSystem#backtest(LocalDateTime, LocalDateTime)} over the second half of the values.
+	 */
+	@Test
+	void testBacktest_scaling() {
+		assertNearLinear("SubSystem.backtest", length -> {
+			SyntheticSeriesGenerator generator = new SyntheticSeriesGenerator(SEED, length);
+			ValueDateTupel[] values = generator.generate(Series.BASE_VALUES);
+			BaseValue baseValue = new BaseValue("scaling", values, generator.generate(Series.SHORT_INDEX));
+			SubSystem subSystem = new SubSystem(baseValue,
+			        createRules(baseValue, generator.generate(Series.VOLATILITY_INDEX)), CAPITAL, BASE_SCALE);
+			LocalDateTime start = values[length / 2 + 1].getDate();
+			LocalDateTime end = values[length - 1].getDate();
+			return () -> subSystem.backtest(start, end);
+		});
+	}
+}
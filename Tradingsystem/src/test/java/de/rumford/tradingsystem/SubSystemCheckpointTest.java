@@ -0,0 +1,334 @@
+package de.rumford.tradingsystem;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.rumford.tradingsystem.RuleTest.RealRule;
+import de.rumford.tradingsystem.helper.DerivedSeriesCache;
+import de.rumford.tradingsystem.helper.SyntheticSeriesGenerator;
+import de.rumford.tradingsystem.helper.SyntheticSeriesGenerator.Series;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * Test class for {@link SubSystemCheckpoint}.
+ * 
+ * @author Max Rumford
+ */
+class SubSystemCheckpointTest {
+
+	static final String MESSAGE_INCORRECT_EXCEPTION_MESSAGE = "Incorrect Exception message";
+	static final long SEED = 42;
+	static final int LENGTH = 300;
+	static final double BASE_SCALE = 10;
+	static final double CAPITAL = 100000;
+
+	ValueDateTupel[] values;
+	BaseValue baseValue;
+	ValueDateTupel[] volatilityIndex;
+	LocalDateTime startOfReferenceWindow;
+	LocalDateTime endOfReferenceWindow;
+	Path checkpoint;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		SyntheticSeriesGenerator generator = new SyntheticSeriesGenerator(SEED, LENGTH + 1);
+		values = generator.generate(Series.BASE_VALUES);
+		volatilityIndex = Arrays.copyOf(generator.generate(Series.VOLATILITY_INDEX), LENGTH);
+		baseValue = new BaseValue("DAX", Arrays.copyOf(values, LENGTH));
+		startOfReferenceWindow = values[LENGTH / 10].getDate();
+		endOfReferenceWindow = values[LENGTH / 2].getDate();
+		checkpoint = Files.createTempFile("subSystem", ".tscp");
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		Files.deleteIfExists(checkpoint);
+	}
+
+	/**
+	 * Creates a SubSystem of an EWMAC with three variations, a VolatilityDifference with calculated and a
+	 * VolatilityDifference with given volatility indices.
+	 * 
+	 * @return {@link SubSystem} A new SubSystem.
+	 */
+	SubSystem createSubSystem() {
+		EWMAC[] variations = {
+		        new EWMAC(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 8, 2, BASE_SCALE),
+		        new EWMAC(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 16, 4, BASE_SCALE),
+		        new EWMAC(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 32, 8, BASE_SCALE) };
+		Rule[] rules = {
+		        new EWMAC(baseValue, variations, startOfReferenceWindow, endOfReferenceWindow, 0, 0, BASE_SCALE),
+		        new VolatilityDifference(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 8, BASE_SCALE),
+		        new VolatilityDifference(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 8, BASE_SCALE,
+		                volatilityIndex) };
+		return new SubSystem(baseValue, rules, CAPITAL, BASE_SCALE);
+	}
+
+	/**
+	 * Asserts the given rules and their variations are equal in all calculated values.
+	 * 
+	 * @param expected {@link Rule} The expected rule.
+	 * @param actual   {@link Rule} The actual rule.
+	 */
+	static void assertRuleEquals(Rule expected, Rule actual) {
+		assertEquals(expected.getClass(), actual.getClass(), "Incorrect type of rule");
+		assertEquals(expected.getFingerprint(), actual.getFingerprint(), "Incorrect fingerprint of rule");
+		assertEquals(expected.getForecastScalar(), actual.getForecastScalar(), "Incorrect forecast scalar");
+		assertEquals(expected.getWeight(), actual.getWeight(), "Incorrect weight");
+		assertArrayEquals(expected.getForecasts(), actual.getForecasts(), "Incorrect forecasts");
+		assertEquals(expected.hasVariations(), actual.hasVariations(), "Incorrect variations");
+		if (expected.hasVariations())
+			for (int i = 0; i < expected.getVariations().length; i++)
+				assertRuleEquals(expected.getVariations()[i], actual.getVariations()[i]);
+	}
+
+	/**
+	 * Test method for {@link SubSystemCheckpoint#write(SubSystem, Path)} and {@link SubSystemCheckpoint#read(Path)}.
+	 */
+	@Test
+	void testWriteRead() throws IOException {
+		SubSystem expected = createSubSystem();
+
+		SubSystemCheckpoint.write(expected, checkpoint);
+		SubSystem actual = SubSystemCheckpoint.read(checkpoint);
+
+		assertEquals(expected.getBaseValue().getFingerprint(), actual.getBaseValue().getFingerprint(),
+		        "Incorrect base value");
+		assertArrayEquals(expected.getBaseValue().getShortIndexValues(), actual.getBaseValue().getShortIndexValues(),
+		        "Incorrect short index values");
+		assertArrayEquals(expected.getBaseValue().getStandardDeviationValues(),
+		        actual.getBaseValue().getStandardDeviationValues(), "Incorrect standard deviation values");
+		assertEquals(expected.getCapital(), actual.getCapital(), "Incorrect capital");
+		assertEquals(expected.getBaseScale(), actual.getBaseScale(), "Incorrect base scale");
+		for (int i = 0; i < expected.getRules().length; i++)
+			assertRuleEquals(expected.getRules()[i], actual.getRules()[i]);
+		DiversificationMultiplier expectedMultiplier = expected.getDiversificationMultiplier();
+		DiversificationMultiplier actualMultiplier = actual.getDiversificationMultiplier();
+		assertEquals(expectedMultiplier.getValue(), actualMultiplier.getValue(), "Incorrect multiplier");
+		assertArrayEquals(expectedMultiplier.getWeights(), actualMultiplier.getWeights(), "Incorrect weights");
+		assertArrayEquals(expectedMultiplier.getCorrelations(), actualMultiplier.getCorrelations(),
+		        "Incorrect correlations");
+		assertArrayEquals(expected.getCombinedForecasts(), actual.getCombinedForecasts(),
+		        "Incorrect combined forecasts");
+		assertEquals(expected.backtest(endOfReferenceWindow, values[LENGTH - 1].getDate()),
+		        actual.backtest(endOfReferenceWindow, values[LENGTH - 1].getDate()), "Incorrect backtest");
+	}
+
+	/**
+	 * Test method for {@link SubSystemCheckpoint#read(Path)}. Values appended to the restored base value are derived
+	 * like values appended to the written one.
+	 */
+	@Test
+	void testRead_append() throws IOException {
+		SubSystem expected = createSubSystem();
+		SubSystemCheckpoint.write(expected, checkpoint);
+		SubSystem actual = SubSystemCheckpoint.read(checkpoint);
+
+		expected.getBaseValue().append(values[LENGTH]);
+		actual.getBaseValue().append(values[LENGTH]);
+
+		assertArrayEquals(expected.getBaseValue().getStandardDeviationValues(),
+		        actual.getBaseValue().getStandardDeviationValues(), "Incorrect standard deviation values");
+		assertArrayEquals(expected.getBaseValue().getShortIndexValues(), actual.getBaseValue().getShortIndexValues(),
+		        "Incorrect short index values");
+		assertEquals(expected.getBaseValue().getFingerprint(), actual.getBaseValue().getFingerprint(),
+		        "Incorrect base value");
+	}
+
+	/**
+	 * Test method for {@link SubSystemCheckpoint#write(SubSystem, Path)}. An existing checkpoint is replaced and no
+	 * temporary file is left.
+	 */
+	@Test
+	void testWrite_replace() throws IOException {
+		SubSystem subSystem = createSubSystem();
+
+		SubSystemCheckpoint.write(subSystem, checkpoint);
+		long size = Files.size(checkpoint);
+		SubSystemCheckpoint.write(subSystem, checkpoint);
+
+		assertEquals(size, Files.size(checkpoint), "Incorrect size of checkpoint");
+		try (Stream<Path> files = Files.list(checkpoint.getParent())) {
+			assertFalse(files.anyMatch(file -> file.getFileName().toString()
+			        .startsWith(checkpoint.getFileName().toString()) && file.toString().endsWith(".tmp")),
+			        "Temporary file left");
+		}
+	}
+
+	/**
+	 * Test method for {@link SubSystemCheckpoint#write(SubSystem, Path)}.
+	 */
+	@Test
+	void testWrite_subSystemNull() {
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> SubSystemCheckpoint.write(null, checkpoint));
+
+		assertEquals("SubSystem must not be null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link SubSystemCheckpoint#write(SubSystem, Path)}.
+	 */
+	@Test
+	void testWrite_pathNull() {
+		SubSystem subSystem = createSubSystem();
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> SubSystemCheckpoint.write(subSystem, null));
+
+		assertEquals("Path must not be null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link SubSystemCheckpoint#write(SubSystem, Path)} with a rule of another type.
+	 */
+	@Test
+	void testWrite_unsupportedRule() {
+		Rule[] rules = { RealRule.from(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, BASE_SCALE, 1) };
+		SubSystem subSystem = new SubSystem(baseValue, rules, CAPITAL, BASE_SCALE);
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> SubSystemCheckpoint.write(subSystem, checkpoint));
+
+		assertEquals("Rules of type " + RealRule.class.getName() + " cannot be checkpointed", thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link SubSystemCheckpoint#read(Path)}.
+	 */
+	@Test
+	void testRead_pathNull() {
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> SubSystemCheckpoint.read(null));
+
+		assertEquals("Path must not be null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link SubSystemCheckpoint#read(Path)} with a file of another format.
+	 */
+	@Test
+	void testRead_noCheckpoint() throws IOException {
+		Files.write(checkpoint, "date;value".getBytes());
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> SubSystemCheckpoint.read(checkpoint));
+
+		assertEquals("The given file is not a SubSystem checkpoint", thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link SubSystemCheckpoint#read(Path)} with a checkpoint of another version.
+	 */
+	@Test
+	void testRead_unsupportedVersion() throws IOException {
+		SubSystemCheckpoint.write(createSubSystem(), checkpoint);
+		byte[] bytes = Files.readAllBytes(checkpoint);
+		ByteBuffer.wrap(bytes).putInt(Integer.BYTES, SubSystemCheckpoint.VERSION + 1);
+		Files.write(checkpoint, bytes);
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> SubSystemCheckpoint.read(checkpoint));
+
+		assertEquals("Unsupported version of SubSystem checkpoint: " + (SubSystemCheckpoint.VERSION + 1),
+		        thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link SubSystemCheckpoint#read(Path)} with a restored lookback window of 1.
+	 */
+	@Test
+	void testRead_lookbackWindow1() throws IOException {
+		int lookbackWindow = 7;
+		Rule[] rules = { new VolatilityDifference(baseValue, null, startOfReferenceWindow, endOfReferenceWindow,
+		        lookbackWindow, BASE_SCALE, volatilityIndex) };
+		SubSystemCheckpoint.write(new SubSystem(baseValue, rules, CAPITAL, BASE_SCALE), checkpoint);
+		byte[] bytes = Files.readAllBytes(checkpoint);
+		/* The lookback window follows the base scale of the rule. */
+		byte[] baseScaleAndLookbackWindow = ByteBuffer.allocate(Double.BYTES + Integer.BYTES).putDouble(BASE_SCALE)
+		        .putInt(lookbackWindow).array();
+		int position = indexOf(bytes, baseScaleAndLookbackWindow);
+		ByteBuffer.wrap(bytes).putInt(position + Double.BYTES, 1);
+		Files.write(checkpoint, bytes);
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> SubSystemCheckpoint.read(checkpoint));
+
+		assertEquals("Lookback window must be at least 2", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link SubSystemCheckpoint#read(Path)} with a checkpoint written by another version of this
+	 * library.
+	 */
+	@Test
+	void testRead_otherImplementationVersion() throws IOException {
+		SubSystemCheckpoint.write(createSubSystem(), checkpoint);
+		byte[] bytes = Files.readAllBytes(checkpoint);
+		String implementationVersion = DerivedSeriesCache.getImplementationVersion();
+		/* Replace the last character of the version following magic number and version of the format. */
+		bytes[3 * Integer.BYTES + implementationVersion.length() - 1] = '~';
+		Files.write(checkpoint, bytes);
+		String writtenVersion = implementationVersion.substring(0, implementationVersion.length() - 1) + "~";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> SubSystemCheckpoint.read(checkpoint));
+
+		assertEquals("SubSystem checkpoint was written by version " + writtenVersion
+		        + " of this library, not by the current version " + implementationVersion, thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Get the position of the first occurrence of the given pattern in the given bytes.
+	 * 
+	 * @param  bytes   {@code byte[]} The bytes to be searched.
+	 * @param  pattern {@code byte[]} The pattern to be found.
+	 * @return         {@code int} The position of the pattern.
+	 */
+	static int indexOf(byte[] bytes, byte[] pattern) {
+		for (int i = 0; i <= bytes.length - pattern.length; i++)
+			if (Arrays.equals(bytes, i, i + pattern.length, pattern, 0, pattern.length))
+				return i;
+		throw new AssertionError("Pattern not found");
+	}
+
+	/**
+	 * Test method for {@link SubSystemCheckpoint#read(Path)} with a truncated checkpoint.
+	 */
+	@Test
+	void testRead_truncated() throws IOException {
+		SubSystemCheckpoint.write(createSubSystem(), checkpoint);
+		byte[] bytes = Files.readAllBytes(checkpoint);
+		Files.write(checkpoint, Arrays.copyOf(bytes, bytes.length / 2));
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> SubSystemCheckpoint.read(checkpoint));
+
+		assertEquals("The given checkpoint is truncated", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link SubSystemCheckpoint#read(Path)} with bytes after the end of the checkpoint.
+	 */
+	@Test
+	void testRead_trailingBytes() throws IOException {
+		SubSystemCheckpoint.write(createSubSystem(), checkpoint);
+		byte[] bytes = Files.readAllBytes(checkpoint);
+		Files.write(checkpoint, Arrays.copyOf(bytes, bytes.length + 1));
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> SubSystemCheckpoint.read(checkpoint));
+
+		assertEquals("The given checkpoint is corrupt", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+}
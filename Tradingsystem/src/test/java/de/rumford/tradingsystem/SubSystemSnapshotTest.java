@@ -0,0 +1,138 @@
+package de.rumford.tradingsystem;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.rumford.tradingsystem.helper.SyntheticSeriesGenerator;
+import de.rumford.tradingsystem.helper.SyntheticSeriesGenerator.Series;
+import de.rumford.tradingsystem.helper.ValueDateTupel;
+
+/**
+ * Test class for {@link SubSystemSnapshot}.
+ * 
+ * @author Max Rumford
+ */
+class SubSystemSnapshotTest {
+
+	static final String MESSAGE_INCORRECT_EXCEPTION_MESSAGE = "Incorrect Exception message";
+	static final long SEED = 42;
+	static final int LENGTH = 300;
+	static final double BASE_SCALE = 10;
+	static final double CAPITAL = 100000;
+
+	SubSystem subSystem;
+
+	@BeforeEach
+	void setUp() {
+		SyntheticSeriesGenerator generator = new SyntheticSeriesGenerator(SEED, LENGTH);
+		ValueDateTupel[] values = generator.generate(Series.BASE_VALUES);
+		BaseValue baseValue = new BaseValue("DAX", values);
+		LocalDateTime startOfReferenceWindow = values[LENGTH / 10].getDate();
+		LocalDateTime endOfReferenceWindow = values[LENGTH / 2].getDate();
+		Rule[] rules = { new EWMAC(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 8, 2, BASE_SCALE),
+		        new VolatilityDifference(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 8, BASE_SCALE,
+		                generator.generate(Series.VOLATILITY_INDEX)) };
+		subSystem = new SubSystem(baseValue, rules, CAPITAL, BASE_SCALE);
+	}
+
+	/**
+	 * Test method for {@link SubSystemSnapshot#SubSystemSnapshot(SubSystem)}.
+	 */
+	@Test
+	void testSubSystemSnapshot() {
+		SubSystemSnapshot snapshot = new SubSystemSnapshot(subSystem);
+		ValueDateTupel[] combinedForecasts = subSystem.getCombinedForecasts();
+
+		assertEquals(combinedForecasts.length, snapshot.size(), "Size is not correct");
+		assertArrayEquals(combinedForecasts, snapshot.getCombinedForecasts(), "Combined forecasts are not copied");
+		assertNotSame(snapshot.getCombinedForecasts(), snapshot.getCombinedForecasts(),
+		        "Combined forecasts are handed out");
+		assertEquals(subSystem.getDiversificationMultiplier().getValue(), snapshot.getDiversificationMultiplier(),
+		        "Diversification multiplier is not copied");
+		assertEquals(subSystem.getBaseValue().getFingerprint(), snapshot.getBaseValueFingerprint(),
+		        "Base value fingerprint is not copied");
+		assertEquals(CAPITAL, snapshot.getCapital(), "Capital is not copied");
+		assertEquals(BASE_SCALE, snapshot.getBaseScale(), "Base scale is not copied");
+		assertEquals(2, snapshot.getNumberOfRules(), "Number of rules is not correct");
+		for (int i = 0; i < snapshot.getNumberOfRules(); i++) {
+			Rule rule = subSystem.getRules()[i];
+			assertEquals(rule.getWeight(), snapshot.getRuleWeight(i), "Rule weight is not copied");
+			assertEquals(rule.getFingerprint(), snapshot.getRuleFingerprint(i), "Rule fingerprint is not copied");
+			int lastPosition = snapshot.size() - 1;
+			assertEquals(rule.getForecasts()[lastPosition].getValue(), snapshot.getRuleForecast(i, lastPosition),
+			        "Rule forecast is not copied");
+		}
+	}
+
+	/**
+	 * Test method for {@link SubSystemSnapshot#getCombinedForecast(LocalDateTime)}.
+	 */
+	@Test
+	void testGetCombinedForecast_date() {
+		SubSystemSnapshot snapshot = new SubSystemSnapshot(subSystem);
+		ValueDateTupel combinedForecast = subSystem.getCombinedForecasts()[snapshot.size() / 2];
+
+		assertEquals(combinedForecast.getValue(), snapshot.getCombinedForecast(combinedForecast.getDate()),
+		        "Combined forecast is not found by date");
+		assertEquals(snapshot.size() / 2, snapshot.getPosition(combinedForecast.getDate()), "Position is not correct");
+		assertTrue(Double.isNaN(snapshot.getCombinedForecast(snapshot.getDate(0).minusDays(1))),
+		        "Combined forecast of an unknown date is not NaN");
+	}
+
+	/**
+	 * Test method for {@link SubSystemSnapshot#getCombinedForecast(int)} after the SubSystem's forecasts were altered.
+	 */
+	@Test
+	void testGetCombinedForecast_alteredSubSystem() {
+		SubSystemSnapshot snapshot = new SubSystemSnapshot(subSystem);
+		double expected = subSystem.getCombinedForecasts()[0].getValue();
+
+		subSystem.getCombinedForecasts()[0].setValue(expected + 1);
+
+		assertEquals(expected, snapshot.getCombinedForecast(0), "Snapshot is altered along with the SubSystem");
+	}
+
+	/**
+	 * Test method for {@link SubSystemSnapshot#SubSystemSnapshot(SubSystem)}.
+	 */
+	@Test
+	void testSubSystemSnapshot_null() {
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> new SubSystemSnapshot(null));
+
+		assertEquals("SubSystem must not be null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link SubSystemSnapshot#getRuleForecast(int, int)}.
+	 */
+	@Test
+	void testGetRuleForecast_ruleIndexOutOfBounds() {
+		SubSystemSnapshot snapshot = new SubSystemSnapshot(subSystem);
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> snapshot.getRuleForecast(2, 0));
+
+		assertEquals("Rule index must be at least 0 and less than 2 but is 2", thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link SubSystemSnapshot#getDate(int)}.
+	 */
+	@Test
+	void testGetDate_positionOutOfBounds() {
+		SubSystemSnapshot snapshot = new SubSystemSnapshot(subSystem);
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> snapshot.getDate(-1));
+
+		assertEquals("Position must be at least 0 and less than " + snapshot.size() + " but is -1", thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+}
@@ -9,6 +9,7 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.math3.stat.descriptive.moment.StandardDeviation;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -380,4 +381,18 @@ class VolatilityDifferenceTest {
 
 		assertEquals(expectedValue, actualValue, "Raw Forecast is not correctly calculated");
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Test method for {@link VolatilityDifference#calculateStandardDeviation(double[])}.
+	 */
+	@Test
+	void testCalculateStandardDeviation() {
+		double[][] valueArrays = { { 0.01 }, { 0.01, -0.02 }, { 0.013, -0.021, 0.004, 0.0071, -0.0003 },
+		        { 1e8 + 1, 1e8 + 2, 1e8 + 3, 1e8 + 4 } };
+
+		for (double[] values : valueArrays)
+			assertEquals(new StandardDeviation().evaluate(values),
+			        VolatilityDifference.calculateStandardDeviation(values),
+			        "Standard deviation differs from the one of commons-math");
+	}
+}
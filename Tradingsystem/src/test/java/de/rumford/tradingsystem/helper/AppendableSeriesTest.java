@@ -0,0 +1,125 @@
+package de.rumford.tradingsystem.helper;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link AppendableSeries}.
+ * 
+ * @author Max Rumford
+ */
+class AppendableSeriesTest {
+
+	static final String MESSAGE_INCORRECT_EXCEPTION_MESSAGE = "Incorrect Exception message";
+	/* More values than fit into two chunks. */
+	static final int NUMBER_OF_VALUES = 2500;
+
+	/**
+	 * Creates the given number of consecutive values.
+	 * 
+	 * @param  numberOfValues The number of values.
+	 * @return                The created values.
+	 */
+	static ValueDateTupel[] createValues(int numberOfValues) {
+		ValueDateTupel[] values = ValueDateTupel.createEmptyArray(numberOfValues);
+		for (int i = 0; i < numberOfValues; i++)
+			values[i] = new ValueDateTupel(LocalDateTime.of(2020, 1, 1, 22, 0).plusMinutes(i), i);
+		return values;
+	}
+
+	/**
+	 * Test method for {@link AppendableSeries#toArray()}.
+	 */
+	@Test
+	void testToArray_noAppendedValues() {
+		ValueDateTupel[] values = createValues(3);
+
+		AppendableSeries series = new AppendableSeries(values);
+
+		assertSame(values, series.toArray(), "Initial values are copied");
+	}
+
+	/**
+	 * Test method for {@link AppendableSeries#append(ValueDateTupel)}.
+	 */
+	@Test
+	void testAppend() {
+		ValueDateTupel[] values = createValues(NUMBER_OF_VALUES);
+		AppendableSeries series = new AppendableSeries(new ValueDateTupel[] { values[0], values[1] });
+
+		for (int i = 2; i < NUMBER_OF_VALUES; i++)
+			series.append(values[i]);
+
+		assertEquals(NUMBER_OF_VALUES, series.size(), "Size is not correctly calculated");
+		assertArrayEquals(values, series.toArray(), "Values are not correctly appended");
+		for (int i = 0; i < NUMBER_OF_VALUES; i++)
+			assertSame(values[i], series.get(i), "Value at position " + i + " is not correctly returned");
+		assertSame(values[NUMBER_OF_VALUES - 1], series.getLast(), "Last value is not correctly returned");
+	}
+
+	/**
+	 * Test method for {@link AppendableSeries#toArray()}.
+	 */
+	@Test
+	void testToArray_afterAppend() {
+		ValueDateTupel[] values = createValues(3);
+		AppendableSeries series = new AppendableSeries(new ValueDateTupel[] { values[0] });
+		series.append(values[1]);
+		ValueDateTupel[] firstArray = series.toArray();
+
+		series.append(values[2]);
+
+		assertSame(series.toArray(), series.toArray(), "Assembled array is not kept");
+		assertEquals(2, firstArray.length, "Previously returned array is altered");
+		assertArrayEquals(values, series.toArray(), "Appended value is not part of assembled array");
+	}
+
+	/**
+	 * Test method for {@link AppendableSeries#equals(Object)}.
+	 */
+	@Test
+	void testEquals() {
+		ValueDateTupel[] values = createValues(3);
+		AppendableSeries appendedSeries = new AppendableSeries(new ValueDateTupel[] { values[0] });
+		appendedSeries.append(values[1]);
+		appendedSeries.append(values[2]);
+
+		assertEquals(new AppendableSeries(values), appendedSeries, "Series of equal values are not equal");
+		assertEquals(new AppendableSeries(values).hashCode(), appendedSeries.hashCode(),
+		        "Series of equal values do not have equal hash codes");
+	}
+
+	/**
+	 * Test method for {@link AppendableSeries#get(int)}.
+	 */
+	@Test
+	void testGet_outOfBounds() {
+		AppendableSeries series = new AppendableSeries(createValues(3));
+		String expectedMessage = "Position must be at least 0 and less than 3 but is 3";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> series.get(3),
+		        "Position out of bounds is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link AppendableSeries#append(ValueDateTupel)}.
+	 */
+	@Test
+	void testAppend_null() {
+		AppendableSeries series = new AppendableSeries(createValues(3));
+		String expectedMessage = "Value must not be null";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> series.append(null),
+		        "Value of null is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+}
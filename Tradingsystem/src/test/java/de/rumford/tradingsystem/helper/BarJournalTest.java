@@ -0,0 +1,429 @@
+package de.rumford.tradingsystem.helper;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link BarJournal}.
+ * 
+ * @author Max Rumford
+ */
+class BarJournalTest {
+
+	static final String MESSAGE_INCORRECT_EXCEPTION_MESSAGE = "Incorrect Exception message";
+	static final LocalDateTime FIRST_DATE = LocalDateTime.of(2020, 1, 1, 9, 0);
+
+	Path file;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		file = Files.createTempFile("BarJournalTest", ".bin");
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	/**
+	 * Creates the given number of bars, one minute apart, starting at {@link #FIRST_DATE}.
+	 * 
+	 * @param  numberOfBars The number of bars to be created.
+	 * @return              The created bars.
+	 */
+	static ValueDateTupel[] createBars(int numberOfBars) {
+		ValueDateTupel[] bars = ValueDateTupel.createEmptyArray(numberOfBars);
+		for (int i = 0; i < numberOfBars; i++)
+			bars[i] = new ValueDateTupel(FIRST_DATE.plusMinutes(i), 100d + i / 10d);
+		return bars;
+	}
+
+	/**
+	 * Appends the given bars to the given journal.
+	 * 
+	 * @param  journal     The journal to be appended to.
+	 * @param  bars        The bars to be appended.
+	 * @throws IOException if appending fails.
+	 */
+	static void appendAll(BarJournal journal, ValueDateTupel[] bars) throws IOException {
+		for (ValueDateTupel bar : bars)
+			journal.append(bar);
+	}
+
+	/**
+	 * Test method for {@link BarJournal#append(ValueDateTupel)} and {@link BarJournal#getValues()}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testAppend() throws IOException {
+		ValueDateTupel[] bars = createBars(10);
+
+		try (BarJournal journal = new BarJournal(file)) {
+			appendAll(journal, bars);
+
+			assertEquals(bars.length, journal.getSize(), "Size is not correctly counted");
+			assertArrayEquals(bars, journal.getValues(), "Bars are not read as appended");
+			assertEquals(bars[3].getDate(), journal.getDate(3), "Date is not read as appended");
+			assertEquals(bars[3].getValue(), journal.getValue(3), "Value is not read as appended");
+		}
+	}
+
+	/**
+	 * Test method for {@link BarJournal#close()}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testClose() throws IOException {
+		ValueDateTupel[] bars = createBars(10);
+		BarJournal journal = new BarJournal(file);
+		appendAll(journal, bars);
+
+		journal.close();
+		journal.close();
+
+		assertTrue(journal.isClosed(), "Journal is not closed");
+		assertEquals(BinarySeries.HEADER_SIZE + bars.length * BinarySeries.RECORD_SIZE, Files.size(file),
+		        "Journal is not cut to the appended bars");
+		assertArrayEquals(bars, BinarySeries.getDataFromBinary(file.toString()),
+		        "Journal cannot be read as binary series");
+	}
+
+	/**
+	 * Test method for {@link BarJournal#BarJournal(Path)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testBarJournal_reopen() throws IOException {
+		ValueDateTupel[] bars = createBars(10);
+		try (BarJournal journal = new BarJournal(file)) {
+			appendAll(journal, bars);
+		}
+
+		try (BarJournal journal = new BarJournal(file)) {
+			assertArrayEquals(bars, journal.getValues(), "Bars are not recovered");
+
+			LocalDateTime nextDate = bars[bars.length - 1].getDate().plusMinutes(1);
+			journal.append(nextDate, 200d);
+			assertEquals(bars.length + 1, journal.getSize(), "Bars cannot be appended after reopening");
+		}
+	}
+
+	/**
+	 * Test method for {@link BarJournal#BarJournal(Path)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testBarJournal_existingBinarySeries() throws IOException {
+		ValueDateTupel[] bars = createBars(10);
+		BinarySeries.writeDataToBinary(file.toString(), bars);
+
+		try (BarJournal journal = new BarJournal(file)) {
+			assertArrayEquals(bars, journal.getValues(), "Binary series is not read as journal");
+		}
+	}
+
+	/**
+	 * Test method for {@link BarJournal#BarJournal(Path)}. Simulates a crash, which leaves the file extended by unused
+	 * records and a record whose value, but not its date, has been written.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testBarJournal_recoverAfterCrash() throws IOException {
+		ValueDateTupel[] bars = createBars(10);
+		BinarySeries.writeDataToBinary(file.toString(), bars);
+		try (RandomAccessFile crashedFile = new RandomAccessFile(file.toFile(), "rw")) {
+			long tornRecord = crashedFile.length();
+			crashedFile.setLength(tornRecord + 100L * BinarySeries.RECORD_SIZE);
+			crashedFile.seek(tornRecord + Long.BYTES);
+			crashedFile.writeDouble(42d);
+		}
+
+		try (BarJournal journal = new BarJournal(file)) {
+			assertArrayEquals(bars, journal.getValues(), "Unused records are not discarded");
+
+			LocalDateTime nextDate = bars[bars.length - 1].getDate().plusMinutes(1);
+			journal.append(nextDate, 200d);
+			assertEquals(new ValueDateTupel(nextDate, 200d), journal.getValues()[bars.length],
+			        "Bar is not appended after the recovered bars");
+		}
+	}
+
+	/**
+	 * Test method for {@link BarJournal#BarJournal(Path)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testBarJournal_noBinarySeries() throws IOException {
+		try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(file))) {
+			output.writeInt(0x12345678);
+			output.writeInt(BinarySeries.VERSION);
+		}
+		String expectedMessage = "The given file is not a binary series";
+
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> new BarJournal(file),
+		        "File of wrong magic number is not correctly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link BarJournal#BarJournal(Path)}.
+	 */
+	@Test
+	void testBarJournal_pathNull() {
+		String expectedMessage = "Path must not be null";
+
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> new BarJournal(null),
+		        "Path of null is not correctly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link BarJournal#append(LocalDateTime, double)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testAppend_dateNotAfterLastDate() throws IOException {
+		try (BarJournal journal = new BarJournal(file)) {
+			journal.append(FIRST_DATE, 100d);
+			String expectedMessage = "Date must be after the date of the last bar: " + FIRST_DATE;
+
+			IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+			        () -> journal.append(FIRST_DATE, 101d), "Date not after the last date is not correctly handled");
+
+			assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+			assertEquals(1, journal.getSize(), "Rejected bar is appended");
+		}
+	}
+
+	/**
+	 * Test method for {@link BarJournal#append(LocalDateTime, double)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testAppend_dateNotInWholeSeconds() throws IOException {
+		LocalDateTime date = FIRST_DATE.plusNanos(500);
+		String expectedMessage = "Date must be in whole seconds but is " + date;
+
+		try (BarJournal journal = new BarJournal(file)) {
+			IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+			        () -> journal.append(date, 100d), "Date in fractions of seconds is not correctly handled");
+
+			assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+		}
+	}
+
+	/**
+	 * Test method for {@link BarJournal#append(LocalDateTime, double)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testAppend_dateOfUnusedRecords() throws IOException {
+		LocalDateTime date = LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC);
+		String expectedMessage = "Date must not be " + date + ", which marks unused records";
+
+		try (BarJournal journal = new BarJournal(file)) {
+			IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+			        () -> journal.append(date, 100d), "Date of unused records is not correctly handled");
+
+			assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+		}
+	}
+
+	/**
+	 * Test method for {@link BarJournal#append(LocalDateTime, double)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testAppend_valueNaN() throws IOException {
+		String expectedMessage = "Value must not be Double.NaN";
+
+		try (BarJournal journal = new BarJournal(file)) {
+			IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+			        () -> journal.append(FIRST_DATE, Double.NaN), "Value of NaN is not correctly handled");
+
+			assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+		}
+	}
+
+	/**
+	 * Test method for {@link BarJournal#append(ValueDateTupel)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testAppend_closed() throws IOException {
+		BarJournal journal = new BarJournal(file);
+		journal.close();
+		String expectedMessage = "BarJournal was closed";
+
+		IllegalStateException thrown = assertThrows(IllegalStateException.class,
+		        () -> journal.append(FIRST_DATE, 100d), "Closed journal is not correctly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link BarJournal#getValue(int)}. The segments are not read after closing, as the file is cut.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testGetValue_closed() throws IOException {
+		BarJournal journal = new BarJournal(file);
+		appendAll(journal, createBars(10));
+		journal.close();
+
+		IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> journal.getValue(0),
+		        "Closed journal is not correctly handled");
+
+		assertEquals("BarJournal was closed", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link BarJournal#append(ValueDateTupel)}. Appends more bars than fit into one segment.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testAppend_multipleSegments() throws IOException {
+		ValueDateTupel[] bars = createBars(BarJournal.SEGMENT_RECORDS + 10);
+
+		try (BarJournal journal = new BarJournal(file)) {
+			appendAll(journal, bars);
+			journal.force();
+
+			assertArrayEquals(bars, journal.getValues(), "Bars are not read across segments");
+		}
+		assertArrayEquals(bars, BinarySeries.getDataFromBinary(file.toString()),
+		        "Bars are not written across segments");
+	}
+
+	/**
+	 * Test method for {@link BarJournal#getValuesAfter(LocalDateTime)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testGetValuesAfter() throws IOException {
+		ValueDateTupel[] bars = createBars(10);
+
+		try (BarJournal journal = new BarJournal(file)) {
+			appendAll(journal, bars);
+
+			assertArrayEquals(new ValueDateTupel[] { bars[8], bars[9] }, journal.getValuesAfter(bars[7].getDate()),
+			        "Bars after an appended date are not correctly selected");
+			assertArrayEquals(new ValueDateTupel[] { bars[8], bars[9] },
+			        journal.getValuesAfter(bars[7].getDate().plusSeconds(30)),
+			        "Bars after a date between bars are not correctly selected");
+			assertArrayEquals(bars, journal.getValuesAfter(FIRST_DATE.minusDays(1)),
+			        "Bars after a date before all bars are not correctly selected");
+			assertEquals(0, journal.getValuesAfter(bars[9].getDate()).length,
+			        "Bars after the last bar are selected");
+		}
+	}
+
+	/**
+	 * Test method for {@link BarJournal#getValuesAfter(LocalDateTime)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testGetValuesAfter_dateNull() throws IOException {
+		String expectedMessage = "Date must not be null";
+
+		try (BarJournal journal = new BarJournal(file)) {
+			IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+			        () -> journal.getValuesAfter(null), "Date of null is not correctly handled");
+
+			assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+		}
+	}
+
+	/**
+	 * Test method for {@link BarJournal#getDate(int)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testGetDate_indexOutOfBounds() throws IOException {
+		String expectedMessage = "Index must be at least 0 and less than 1 but is 1";
+
+		try (BarJournal journal = new BarJournal(file)) {
+			journal.append(FIRST_DATE, 100d);
+
+			IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> journal.getDate(1),
+			        "Index out of bounds is not correctly handled");
+
+			assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+		}
+	}
+
+	/**
+	 * Test method for {@link BarJournal#getValues()}. Reads while another thread appends.
+	 * 
+	 * @throws IOException          if the test file cannot be accessed.
+	 * @throws InterruptedException if the test is interrupted.
+	 */
+	@Test
+	void testGetValues_concurrentAppend() throws IOException, InterruptedException {
+		ValueDateTupel[] bars = createBars(BarJournal.SEGMENT_RECORDS + 1_000);
+
+		try (BarJournal journal = new BarJournal(file)) {
+			AtomicReference<Throwable> failure = new AtomicReference<>();
+			Thread writer = new Thread(() -> {
+				try {
+					for (int i = 0; i < bars.length; i++) {
+						journal.append(bars[i]);
+						if (i % 1_000 == 0)
+							Thread.yield();
+					}
+				} catch (Throwable e) {
+					failure.set(e);
+				}
+			});
+			writer.start();
+
+			boolean consistent = true;
+			while (writer.isAlive()) {
+				ValueDateTupel[] read = journal.getValues();
+				for (int i = 0; i < read.length; i++)
+					consistent &= read[i].equals(bars[i]);
+				Thread.yield();
+			}
+			writer.join();
+
+			assertEquals(null, failure.get(), "Appending fails while reading");
+			assertTrue(consistent, "Bars are read before being completely appended");
+			assertArrayEquals(bars, journal.getValues(), "Not all bars are appended");
+			assertFalse(journal.isClosed(), "Journal is closed while appending");
+		}
+	}
+}
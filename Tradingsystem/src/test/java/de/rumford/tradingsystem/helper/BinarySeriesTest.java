@@ -0,0 +1,169 @@
+package de.rumford.tradingsystem.helper;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link BinarySeries}.
+ * 
+ * @author Max Rumford
+ */
+class BinarySeriesTest {
+
+	static final String MESSAGE_INCORRECT_EXCEPTION_MESSAGE = "Incorrect Exception message";
+
+	Path file;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		file = Files.createTempFile("BinarySeriesTest", ".bin");
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	/**
+	 * Writes the given header followed by the given number of bytes to the test file.
+	 * 
+	 * @param  magic       The magic number to be written.
+	 * @param  version     The version to be written.
+	 * @param  bodySize    The number of bytes to be written after the header.
+	 * @throws IOException if writing fails.
+	 */
+	void writeFile(int magic, int version, int bodySize) throws IOException {
+		try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(file))) {
+			output.writeInt(magic);
+			output.writeInt(version);
+			output.write(new byte[bodySize]);
+		}
+	}
+
+	/**
+	 * Test method for {@link BinarySeries#writeDataToBinary(String, ValueDateTupel[])} and
+	 * {@link BinarySeries#getDataFromBinary(String)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testGetDataFromBinary_csvRoundTrip() throws IOException {
+		ValueDateTupel[] values = DataSource.getDataFromCsv(Path.of("src", "test", "resources", "DAX.csv").toString(),
+		        CsvFormat.EU);
+
+		BinarySeries.writeDataToBinary(file.toString(), values);
+
+		assertEquals(BinarySeries.HEADER_SIZE + values.length * BinarySeries.RECORD_SIZE, Files.size(file),
+		        "Binary series is not of the expected size");
+		assertArrayEquals(values, BinarySeries.getDataFromBinary(file.toString()), "Values are not read as written");
+	}
+
+	/**
+	 * Test method for {@link BinarySeries#getDataFromBinary(String)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testGetDataFromBinary_empty() throws IOException {
+		BinarySeries.writeDataToBinary(file.toString(), ValueDateTupel.createEmptyArray());
+
+		assertEquals(0, BinarySeries.getDataFromBinary(file.toString()).length, "Values are read from nowhere");
+	}
+
+	/**
+	 * Test method for {@link BinarySeries#getDataFromBinary(String)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testGetDataFromBinary_truncated() throws IOException {
+		writeFile(BinarySeries.MAGIC, BinarySeries.VERSION, BinarySeries.RECORD_SIZE - 1);
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> BinarySeries.getDataFromBinary(file.toString()));
+
+		assertEquals("The given binary series is truncated", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link BinarySeries#getDataFromBinary(String)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testGetDataFromBinary_wrongMagic() throws IOException {
+		writeFile(0x12345678, BinarySeries.VERSION, 0);
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> BinarySeries.getDataFromBinary(file.toString()));
+
+		assertEquals("The given file is not a binary series", thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link BinarySeries#getDataFromBinary(String)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testGetDataFromBinary_unsupportedVersion() throws IOException {
+		writeFile(BinarySeries.MAGIC, BinarySeries.VERSION + 1, 0);
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> BinarySeries.getDataFromBinary(file.toString()));
+
+		assertEquals("Unsupported version of binary series: " + (BinarySeries.VERSION + 1), thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link BinarySeries#getDataFromBinary(String)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testGetDataFromBinary_fileMissing() throws IOException {
+		Files.delete(file);
+
+		Exception thrown = assertThrows(IOException.class, () -> BinarySeries.getDataFromBinary(file.toString()));
+
+		assertEquals("Given source path does not point to an existing destination", thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link BinarySeries#writeDataToBinary(String, ValueDateTupel[])}.
+	 */
+	@Test
+	void testWriteDataToBinary_valueWithoutDate() {
+		ValueDateTupel[] values = { new ValueDateTupel(null, 1) };
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> BinarySeries.writeDataToBinary(file.toString(), values));
+
+		assertEquals("Values must not contain null or values without date", thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link BinarySeries#writeDataToBinary(String, ValueDateTupel[])}.
+	 */
+	@Test
+	void testWriteDataToBinary_valuesNull() {
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> BinarySeries.writeDataToBinary(file.toString(), null));
+
+		assertEquals("Values must not be null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+}
@@ -0,0 +1,160 @@
+package de.rumford.tradingsystem.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.rumford.tradingsystem.BaseValue;
+import de.rumford.tradingsystem.EWMAC;
+import de.rumford.tradingsystem.Rule;
+import de.rumford.tradingsystem.SubSystem;
+import de.rumford.tradingsystem.VolatilityDifference;
+import de.rumford.tradingsystem.helper.SyntheticSeriesGenerator.Series;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Test class for {@link CalculationEvent}. Records the calculation stages of a small sub system and reads the events
+ * back from the dumped recording.
+ * 
+ * @author Max Rumford
+ */
+class CalculationEventTest {
+
+	static final long SEED = 42;
+	static final int LENGTH = 300;
+	static final String EVENT_PREFIX = "de.rumford.tradingsystem.";
+	static final String BASE_VALUE_NAME = "synthetic";
+	static final double BASE_SCALE = 10;
+
+	Path csvFile;
+	Path recordingFile;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		csvFile = Files.createTempFile("CalculationEventTest", ".csv");
+		recordingFile = Files.createTempFile("CalculationEventTest", ".jfr");
+		new SyntheticSeriesGenerator(SEED, LENGTH).writeCsv(csvFile.toString(), Series.BASE_VALUES, CsvFormat.EU);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		Files.deleteIfExists(csvFile);
+		Files.deleteIfExists(recordingFile);
+	}
+
+	/**
+	 * Loads, aligns and backtests a sub system with an {@link EWMAC} and a {@link VolatilityDifference}.
+	 * 
+	 * @throws IOException if the CSV file cannot be read.
+	 */
+	void runSubSystem() throws IOException {
+		ValueDateTupel[] values = DataSource.getDataFromCsv(csvFile.toString(), CsvFormat.EU);
+		ValueDateTupel[] volatilityIndexValues = new SyntheticSeriesGenerator(SEED, LENGTH)
+		        .generate(Series.VOLATILITY_INDEX);
+		ValueDateTupel[][] alignedValues = ValueDateTupel
+		        .alignDates(new ValueDateTupel[][] { values, volatilityIndexValues });
+
+		BaseValue baseValue = new BaseValue(BASE_VALUE_NAME, alignedValues[0]);
+		LocalDateTime startOfReferenceWindow = alignedValues[0][LENGTH / 10].getDate();
+		LocalDateTime endOfReferenceWindow = alignedValues[0][LENGTH / 2].getDate();
+		Rule[] rules = { new EWMAC(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 8, 2, BASE_SCALE),
+		        new VolatilityDifference(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 8, BASE_SCALE,
+		                alignedValues[1]) };
+		SubSystem subSystem = new SubSystem(baseValue, rules, 100000, BASE_SCALE);
+		subSystem.backtest(alignedValues[0][LENGTH / 2 + 1].getDate(), alignedValues[0][LENGTH - 1].getDate());
+	}
+
+	/**
+	 * Returns the recorded events of the given stage.
+	 * 
+	 * @param  events {@code List<RecordedEvent>} All recorded events.
+	 * @param  stage  {@code String} The event name without {@link #EVENT_PREFIX}.
+	 * @return        {@code List<RecordedEvent>} The events of the given stage.
+	 */
+	static List<RecordedEvent> eventsOf(List<RecordedEvent> events, String stage) {
+		return events.stream()
+		        .filter(event -> event.getEventType().getName().equals(EVENT_PREFIX + stage))
+		        .collect(Collectors.toList());
+	}
+
+	/**
+	 * Test method for {@link CalculationEvent#commit(String, String, int)}.
+	 * 
+	 * @throws IOException if the recording cannot be dumped or read.
+	 */
+	@Test
+	void testCommit() throws IOException {
+		try (Recording recording = new Recording()) {
+			recording.start();
+			runSubSystem();
+			recording.stop();
+			recording.dump(recordingFile);
+		}
+		List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+
+		List<RecordedEvent> csvLoads = eventsOf(events, "CsvLoad");
+		assertEquals(1, csvLoads.size(), "CSV load is not recorded once");
+		assertEquals(csvFile.toString(), csvLoads.get(0).getString("instrument"), "Instrument is not the file");
+		assertEquals(LENGTH, csvLoads.get(0).getInt("seriesLength"), "Series length is not the number of rows");
+
+		assertEquals(LENGTH, eventsOf(events, "Alignment").get(0).getInt("seriesLength"),
+		        "Series length is not the aligned length");
+
+		RecordedEvent baseValueDerivation = eventsOf(events, "BaseValueDerivation").get(0);
+		assertEquals(BASE_VALUE_NAME, baseValueDerivation.getString("instrument"), "Instrument is not the base value");
+		assertEquals(LENGTH, baseValueDerivation.getInt("seriesLength"), "Series length is not the base value's");
+
+		List<String> ruleTypes = eventsOf(events, "RuleForecast").stream()
+		        .map(event -> event.getString("ruleType"))
+		        .sorted()
+		        .collect(Collectors.toList());
+		assertEquals(List.of("EWMAC", "VolatilityDifference"), ruleTypes, "Rule forecasts are not recorded per rule");
+		assertEquals(2, eventsOf(events, "ForecastScalar").size(), "Forecast scalars are not recorded per rule");
+
+		for (String stage : new String[] { "DiversificationMultiplier", "CombinedForecast", "Backtest" }) {
+			List<RecordedEvent> stageEvents = eventsOf(events, stage);
+			assertEquals(1, stageEvents.size(), stage + " is not recorded once");
+			assertEquals(BASE_VALUE_NAME, stageEvents.get(0).getString("instrument"),
+			        stage + " is not recorded with the base value");
+		}
+		assertEquals(LENGTH - LENGTH / 2 - 1, eventsOf(events, "Backtest").get(0).getInt("seriesLength"),
+		        "Series length is not the length of the test window");
+
+		for (RecordedEvent event : events)
+			if (event.getEventType().getName().startsWith(EVENT_PREFIX))
+				assertFalse(event.getDuration().isNegative(), "Duration is not recorded");
+	}
+
+	/**
+	 * Test method for {@link CalculationEvent#commit(String, String, int)} with a disabled stage.
+	 * 
+	 * @throws IOException if the recording cannot be dumped or read.
+	 */
+	@Test
+	void testCommit_disabled() throws IOException {
+		try (Recording recording = new Recording()) {
+			recording.disable(CalculationEvent.Backtest.class);
+			recording.start();
+			runSubSystem();
+			recording.stop();
+			recording.dump(recordingFile);
+		}
+		List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+
+		assertTrue(eventsOf(events, "Backtest").isEmpty(), "Disabled event is recorded");
+		assertFalse(eventsOf(events, "CombinedForecast").isEmpty(), "Enabled event is not recorded");
+	}
+}
@@ -0,0 +1,148 @@
+package de.rumford.tradingsystem.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.apache.commons.math3.stat.correlation.PearsonsCorrelation;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link CorrelationAccumulator}.
+ * 
+ * @author Max Rumford
+ */
+class CorrelationAccumulatorTest {
+
+	static final String MESSAGE_INCORRECT_EXCEPTION_MESSAGE = "Incorrect Exception message";
+	static final double DELTA = 1e-9;
+
+	/**
+	 * Creates random observations with some correlation between the series.
+	 * 
+	 * @param  numberOfObservations The number of observations.
+	 * @param  dimension            The number of series.
+	 * @return                      The observations.
+	 */
+	static double[][] randomObservations(int numberOfObservations, int dimension) {
+		Random random = new Random(42);
+		double[][] observations = new double[numberOfObservations][dimension];
+		for (int t = 0; t < numberOfObservations; t++) {
+			double common = random.nextGaussian();
+			for (int i = 0; i < dimension; i++)
+				observations[t][i] = 100 + common * (i % 3) + random.nextGaussian();
+		}
+		return observations;
+	}
+
+	/**
+	 * Asserts the correlations of the given accumulator to match those of {@link PearsonsCorrelation}.
+	 * 
+	 * @param observations The observations accepted by the given accumulator.
+	 * @param accumulator  The accumulator to be checked.
+	 */
+	static void assertCorrelations(double[][] observations, CorrelationAccumulator accumulator) {
+		double[][] expectedCorrelations = new PearsonsCorrelation(observations).getCorrelationMatrix().getData();
+		double[][] actualCorrelations = accumulator.getCorrelations();
+
+		for (int row = 0; row < expectedCorrelations.length; row++)
+			for (int column = 0; column < expectedCorrelations.length; column++)
+				assertEquals(expectedCorrelations[row][column], actualCorrelations[row][column], DELTA,
+				        "Correlation at " + row + ", " + column + " is not correctly calculated");
+	}
+
+	/**
+	 * Test method for {@link CorrelationAccumulator#accept(double[])}.
+	 */
+	@Test
+	void testAccept() {
+		double[][] observations = randomObservations(200, 5);
+		CorrelationAccumulator accumulator = new CorrelationAccumulator(5);
+
+		for (double[] observation : observations)
+			accumulator.accept(observation);
+
+		assertEquals(200, accumulator.getCount(), "Observations are not counted");
+		assertCorrelations(observations, accumulator);
+	}
+
+	/**
+	 * Test method for {@link CorrelationAccumulator#acceptAll(double[][])}.
+	 */
+	@Test
+	void testAcceptAll() {
+		double[][] observations = randomObservations(200, 5);
+		double[][] firstObservations = new double[120][];
+		double[][] lastObservations = new double[80][];
+		System.arraycopy(observations, 0, firstObservations, 0, 120);
+		System.arraycopy(observations, 120, lastObservations, 0, 80);
+		CorrelationAccumulator accumulator = new CorrelationAccumulator(5);
+
+		accumulator.acceptAll(firstObservations);
+		accumulator.acceptAll(lastObservations);
+
+		assertEquals(200, accumulator.getCount(), "Observations are not counted");
+		assertCorrelations(observations, accumulator);
+	}
+
+	/**
+	 * Test method for {@link CorrelationAccumulator#acceptAll(double[][])}.
+	 */
+	@Test
+	void testAcceptAll_parallel() {
+		double[][] observations = randomObservations(100, 80);
+		CorrelationAccumulator accumulator = new CorrelationAccumulator(80);
+
+		accumulator.acceptAll(observations);
+		accumulator.accept(observations[0]);
+
+		double[][] allObservations = new double[101][];
+		System.arraycopy(observations, 0, allObservations, 0, 100);
+		allObservations[100] = observations[0];
+		assertCorrelations(allObservations, accumulator);
+	}
+
+	/**
+	 * Test method for {@link CorrelationAccumulator#getCorrelations()}.
+	 */
+	@Test
+	void testGetCorrelations_noVariance() {
+		CorrelationAccumulator accumulator = new CorrelationAccumulator(2);
+
+		accumulator.accept(new double[] { 1, 1 });
+		accumulator.accept(new double[] { 1, 2 });
+
+		assertEquals(1, accumulator.getCorrelations()[0][0], "Self correlation is not 1");
+		assertTrue(Double.isNaN(accumulator.getCorrelations()[0][1]),
+		        "Correlation with a series without variance is not Double.NaN");
+	}
+
+	/**
+	 * Test method for {@link CorrelationAccumulator#CorrelationAccumulator(int)}.
+	 */
+	@Test
+	void testCorrelationAccumulator_dimension0() {
+		String expectedMessage = "Dimension must be at least 1";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> new CorrelationAccumulator(0),
+		        "Dimension of 0 is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link CorrelationAccumulator#accept(double[])}.
+	 */
+	@Test
+	void testAccept_wrongLength() {
+		CorrelationAccumulator accumulator = new CorrelationAccumulator(3);
+		String expectedMessage = "Observation must contain 3 values but contains 2.";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> accumulator.accept(new double[2]),
+		        "Observation of wrong length is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+}
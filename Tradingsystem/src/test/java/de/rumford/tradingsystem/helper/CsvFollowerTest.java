@@ -0,0 +1,298 @@
+package de.rumford.tradingsystem.helper;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link CsvFollower}.
+ * 
+ * @author Max Rumford
+ */
+class CsvFollowerTest {
+
+	static final String MESSAGE_INCORRECT_EXCEPTION_MESSAGE = "Incorrect Exception message";
+	static final Path DAX_CSV = Path.of("src", "test", "resources", "DAX.csv");
+
+	Path file;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		file = Files.createTempFile("CsvFollowerTest", ".csv");
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	/**
+	 * Appends the given text to the test file.
+	 * 
+	 * @param  text        The text to be appended.
+	 * @throws IOException if writing fails.
+	 */
+	void append(String text) throws IOException {
+		Files.write(file, text.getBytes(Charset.defaultCharset()), StandardOpenOption.APPEND);
+	}
+
+	/**
+	 * Test method for {@link CsvFollower#poll()}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testPoll_wholeFile() throws IOException {
+		Files.copy(DAX_CSV, file, StandardCopyOption.REPLACE_EXISTING);
+		ValueDateTupel[] expectedValues = DataSource.getDataFromCsv(DAX_CSV.toString(), CsvFormat.EU);
+		CsvFollower follower = new CsvFollower(file, CsvFormat.EU);
+
+		assertArrayEquals(expectedValues, follower.poll(), "Rows are not parsed as by DataSource");
+		assertEquals(Files.size(file), follower.getOffset(), "Offset is not after the last row");
+		assertEquals(0, follower.poll().length, "Rows are parsed twice");
+	}
+
+	/**
+	 * Test method for {@link CsvFollower#poll()}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testPoll_appendedRows() throws IOException {
+		append("16.12.2013;22:00:00;9.163,56\n");
+		CsvFollower follower = new CsvFollower(file, CsvFormat.EU);
+		follower.poll();
+
+		append("17.12.2013;22:00:00;9.085,12\n18.12.2013;22:00:00;9.181,75\n");
+		ValueDateTupel[] expectedValues = { new ValueDateTupel(LocalDateTime.of(2013, 12, 17, 22, 0), 9085.12),
+		        new ValueDateTupel(LocalDateTime.of(2013, 12, 18, 22, 0), 9181.75) };
+
+		assertArrayEquals(expectedValues, follower.poll(), "Appended rows are not parsed");
+	}
+
+	/**
+	 * Test method for {@link CsvFollower#poll()}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testPoll_partialLastRow() throws IOException {
+		append("16.12.2013;22:00:00;9.163,56\n17.12.2013;22:0");
+		CsvFollower follower = new CsvFollower(file, CsvFormat.EU);
+
+		assertEquals(1, follower.poll().length, "Incomplete last row is parsed");
+		long offset = follower.getOffset();
+		assertEquals(0, follower.poll().length, "Incomplete last row is parsed");
+		assertEquals(offset, follower.getOffset(), "Offset is moved into the incomplete row");
+
+		append("0:00;9.085,12\n");
+		ValueDateTupel[] expectedValues = { new ValueDateTupel(LocalDateTime.of(2013, 12, 17, 22, 0), 9085.12) };
+
+		assertArrayEquals(expectedValues, follower.poll(), "Completed row is not parsed");
+	}
+
+	/**
+	 * Test method for {@link CsvFollower#poll()}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testPoll_windowsLineBreaks() throws IOException {
+		append("16.12.2013;22:00:00;9.163,56\r\n17.12.2013;22:00:00;9.085,12\r\n");
+		ValueDateTupel[] expectedValues = { new ValueDateTupel(LocalDateTime.of(2013, 12, 16, 22, 0), 9163.56),
+		        new ValueDateTupel(LocalDateTime.of(2013, 12, 17, 22, 0), 9085.12) };
+
+		assertArrayEquals(expectedValues, new CsvFollower(file, CsvFormat.EU).poll(),
+		        "Rows of Windows line breaks are not parsed");
+	}
+
+	/**
+	 * Test method for {@link CsvFollower#CsvFollower(Path, CsvFormat, long)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testCsvFollower_offset() throws IOException {
+		append("16.12.2013;22:00:00;9.163,56\n");
+		CsvFollower follower = new CsvFollower(file, CsvFormat.EU);
+		follower.poll();
+		append("17.12.2013;22:00:00;9.085,12\n");
+		ValueDateTupel[] expectedValues = { new ValueDateTupel(LocalDateTime.of(2013, 12, 17, 22, 0), 9085.12) };
+
+		CsvFollower restartedFollower = new CsvFollower(file, CsvFormat.EU, follower.getOffset());
+
+		assertArrayEquals(expectedValues, restartedFollower.poll(), "Rows before the offset are parsed");
+	}
+
+	/**
+	 * Test method for {@link CsvFollower#poll()}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testPoll_invalidRow() throws IOException {
+		append("16.12.2013;22:00:00;9.163,56\n17.12.2013;22:00:00\n");
+		CsvFollower follower = new CsvFollower(file, CsvFormat.EU);
+		String expectedMessage = "The passed CSV does not have an appropriate number of columns";
+
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, follower::poll,
+		        "Invalid row is not correctly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+		assertEquals(0, follower.getOffset(), "Rows are consumed although the poll failed");
+	}
+
+	/**
+	 * Test method for {@link CsvFollower#poll()}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testPoll_fileShortened() throws IOException {
+		append("16.12.2013;22:00:00;9.163,56\n");
+		CsvFollower follower = new CsvFollower(file, CsvFormat.EU);
+		follower.poll();
+		Files.write(file, new byte[0]);
+		String expectedMessage = "The followed file is shorter than the offset of " + follower.getOffset()
+		        + " bytes";
+
+		IOException thrown = assertThrows(IOException.class, follower::poll,
+		        "Shortened file is not correctly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link CsvFollower#poll(java.util.function.Consumer)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testPollConsumer() throws IOException {
+		append("16.12.2013;22:00:00;9.163,56\n17.12.2013;22:00:00;9.085,12\n");
+		CsvFollower follower = new CsvFollower(file, CsvFormat.EU);
+		List<ValueDateTupel> consumedRows = new ArrayList<>();
+		ValueDateTupel[] expectedValues = { new ValueDateTupel(LocalDateTime.of(2013, 12, 16, 22, 0), 9163.56),
+		        new ValueDateTupel(LocalDateTime.of(2013, 12, 17, 22, 0), 9085.12) };
+
+		assertEquals(2, follower.poll(consumedRows::add), "Not every row is consumed");
+		assertArrayEquals(expectedValues, consumedRows.toArray(), "Rows are not parsed as by DataSource");
+		assertEquals(Files.size(file), follower.getOffset(), "Offset is not after the last row");
+		assertEquals(0, follower.poll(consumedRows::add), "Rows are consumed twice");
+	}
+
+	/**
+	 * Test method for {@link CsvFollower#poll(java.util.function.Consumer)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testPollConsumer_consumerThrows() throws IOException {
+		String firstRow = "16.12.2013;22:00:00;9.163,56\n";
+		append(firstRow + "17.12.2013;22:00:00;9.085,12\n");
+		CsvFollower follower = new CsvFollower(file, CsvFormat.EU);
+		List<ValueDateTupel> consumedRows = new ArrayList<>();
+		String expectedMessage = "Row rejected";
+
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> follower.poll(row -> {
+			if (!consumedRows.isEmpty())
+				throw new IllegalArgumentException(expectedMessage);
+			consumedRows.add(row);
+		}), "Exception of the consumer is not passed on");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+		assertEquals(firstRow.getBytes(Charset.defaultCharset()).length, follower.getOffset(),
+		        "Offset is not after the last consumed row");
+		ValueDateTupel[] expectedValues = { new ValueDateTupel(LocalDateTime.of(2013, 12, 17, 22, 0), 9085.12) };
+		assertArrayEquals(expectedValues, follower.poll(), "Rejected row is not polled again");
+	}
+
+	/**
+	 * Test method for {@link CsvFollower#poll(java.util.function.Consumer)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testPollConsumer_invalidRow() throws IOException {
+		String firstRow = "16.12.2013;22:00:00;9.163,56\n";
+		append(firstRow + "17.12.2013;22:00:00\n");
+		CsvFollower follower = new CsvFollower(file, CsvFormat.EU);
+		List<ValueDateTupel> consumedRows = new ArrayList<>();
+		String expectedMessage = "The passed CSV does not have an appropriate number of columns";
+
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+		        () -> follower.poll(consumedRows::add), "Invalid row is not correctly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+		assertEquals(1, consumedRows.size(), "Row before the invalid row is not consumed");
+		assertEquals(firstRow.getBytes(Charset.defaultCharset()).length, follower.getOffset(),
+		        "Offset is not before the invalid row");
+	}
+
+	/**
+	 * Test method for {@link CsvFollower#poll(java.util.function.Consumer)}.
+	 */
+	@Test
+	void testPollConsumer_consumerNull() {
+		CsvFollower follower = new CsvFollower(file, CsvFormat.EU);
+		String expectedMessage = "Consumer must not be null";
+
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> follower.poll(null),
+		        "Consumer of null is not correctly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link CsvFollower#CsvFollower(Path, CsvFormat)}.
+	 */
+	@Test
+	void testCsvFollower_pathNull() {
+		String expectedMessage = "Path must not be null";
+
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new CsvFollower(null, CsvFormat.EU), "Path of null is not correctly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link CsvFollower#CsvFollower(Path, CsvFormat)}.
+	 */
+	@Test
+	void testCsvFollower_formatNull() {
+		String expectedMessage = "Format must not be null";
+
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new CsvFollower(file, null), "Format of null is not correctly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link CsvFollower#CsvFollower(Path, CsvFormat, long)}.
+	 */
+	@Test
+	void testCsvFollower_offsetNegative() {
+		String expectedMessage = "Offset must not be negative but is -1";
+
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new CsvFollower(file, CsvFormat.EU, -1), "Negative offset is not correctly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+}
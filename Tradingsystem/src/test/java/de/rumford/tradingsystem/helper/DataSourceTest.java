@@ -1,5 +1,6 @@
 package de.rumford.tradingsystem.helper;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -8,7 +9,11 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -628,4 +633,91 @@ class DataSourceTest {
 		        "Out of range date is not properly handled");
 		assertEquals(expectedValue, thrown.getMessage(), "Incorrect Exception message");
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Compresses the given bytes into the given file by GZIP, as one member per given chunk.
+	 * 
+	 * @param  file        The file to be written.
+	 * @param  content     The bytes to be compressed.
+	 * @param  chunks      The number of GZIP members to be written.
+	 * @throws IOException if writing fails.
+	 */
+	static void writeGzip(Path file, byte[] content, int chunks) throws IOException {
+		try (OutputStream output = Files.newOutputStream(file)) {
+			int chunkSize = content.length / chunks + 1;
+			for (int from = 0; from < content.length; from += chunkSize) {
+				/* Every member is finished, but the underlying stream is kept open. */
+				GZIPOutputStream member = new GZIPOutputStream(output) {
+					@Override
+					public void close() throws IOException {
+						this.finish();
+					}
+				};
+				member.write(content, from, Math.min(chunkSize, content.length - from));
+				member.close();
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link DataSource#getDataFromCsv(String, CsvFormat)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testGetDataFromCsv_gzip() throws IOException {
+		Path daxCsv = Path.of("src", "test", "resources", "DAX.csv");
+		Path file = Files.createTempFile("DataSourceTest", ".csv.gz");
+		try {
+			writeGzip(file, Files.readAllBytes(daxCsv), 1);
+
+			assertArrayEquals(DataSource.getDataFromCsv(daxCsv.toString(), CsvFormat.EU),
+			        DataSource.getDataFromCsv(file.toString(), CsvFormat.EU),
+			        "Compressed file is not read as the uncompressed one");
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	/**
+	 * Test method for {@link DataSource#getDataFromCsv(String, CsvFormat)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testGetDataFromCsv_gzipMultipleMembers() throws IOException {
+		Path daxCsv = Path.of("src", "test", "resources", "DAX.csv");
+		Path file = Files.createTempFile("DataSourceTest", ".csv.gz");
+		try {
+			/* The members are split in the middle of rows, as block compression does. */
+			writeGzip(file, Files.readAllBytes(daxCsv), 7);
+
+			assertArrayEquals(DataSource.getDataFromCsv(daxCsv.toString(), CsvFormat.EU),
+			        DataSource.getDataFromCsv(file.toString(), CsvFormat.EU),
+			        "Compressed file of several members is not read as the uncompressed one");
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	/**
+	 * Test method for {@link DataSource#getDataFromCsv(String, CsvFormat)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testGetDataFromCsv_gzipTruncated() throws IOException {
+		Path daxCsv = Path.of("src", "test", "resources", "DAX.csv");
+		Path file = Files.createTempFile("DataSourceTest", ".csv.gz");
+		try {
+			writeGzip(file, Files.readAllBytes(daxCsv), 1);
+			byte[] compressed = Files.readAllBytes(file);
+			Files.write(file, Arrays.copyOf(compressed, compressed.length / 2));
+
+			assertThrows(IOException.class, () -> DataSource.getDataFromCsv(file.toString(), CsvFormat.EU),
+			        "Truncated compressed file is not properly handled");
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+}
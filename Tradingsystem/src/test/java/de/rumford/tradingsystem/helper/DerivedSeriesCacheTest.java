@@ -0,0 +1,304 @@
+package de.rumford.tradingsystem.helper;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.rumford.tradingsystem.BaseValue;
+import de.rumford.tradingsystem.EWMA;
+import de.rumford.tradingsystem.EWMAC;
+import de.rumford.tradingsystem.helper.SyntheticSeriesGenerator.Series;
+
+/**
+ * Test class for {@link DerivedSeriesCache} and the calculations consulting it.
+ * 
+ * @author Max Rumford
+ */
+class DerivedSeriesCacheTest {
+
+	static final String MESSAGE_INCORRECT_EXCEPTION_MESSAGE = "Incorrect Exception message";
+	static final String COMPUTATION = "test";
+	static final long SEED = 42;
+	static final int LENGTH = 300;
+	static final double BASE_SCALE = 10;
+
+	Path directory;
+	DerivedSeriesCache cache;
+	ValueDateTupel[] values;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		directory = Files.createTempDirectory("derivedSeriesCache");
+		cache = new DerivedSeriesCache(directory);
+		values = new SyntheticSeriesGenerator(SEED, LENGTH).generate(Series.BASE_VALUES);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		DerivedSeriesCache.setCache(DerivedSeriesCache.DISABLED);
+		try (Stream<Path> files = Files.list(directory)) {
+			for (Path file : (Iterable<Path>) files::iterator)
+				Files.delete(file);
+		}
+		Files.delete(directory);
+	}
+
+	/**
+	 * A causal calculation of the running sum of the input, counting the values it calculates.
+	 * 
+	 * @param  calculated {@link AtomicInteger} The counter of calculated values.
+	 * @return            {@link DerivedSeriesCache.CausalCalculation} The calculation.
+	 */
+	static DerivedSeriesCache.CausalCalculation runningSum(AtomicInteger calculated) {
+		return (input, derived) -> {
+			ValueDateTupel[] sums = Arrays.copyOf(derived, input.length);
+			double sum = derived.length == 0 ? 0 : derived[derived.length - 1].getValue();
+			for (int i = derived.length; i < input.length; i++) {
+				sum += input[i].getValue();
+				sums[i] = new ValueDateTupel(input[i].getDate(), sum);
+				calculated.incrementAndGet();
+			}
+			return sums;
+		};
+	}
+
+	/**
+	 * Test method for {@link DerivedSeriesCache#put(Fingerprint, ValueDateTupel[])}.
+	 */
+	@Test
+	void testPut() {
+		Fingerprint key = DerivedSeriesCache.key(COMPUTATION, Fingerprint.EMPTY.with(values), 2);
+
+		cache.put(key, values);
+
+		assertArrayEquals(values, cache.get(key), "Cached values are not correct");
+		assertEquals(1, cache.getHits(), "Number of hits is not correct");
+	}
+
+	/**
+	 * Test method for {@link DerivedSeriesCache#get(Fingerprint)}.
+	 */
+	@Test
+	void testGet_missing() {
+		assertNull(cache.get(DerivedSeriesCache.key(COMPUTATION, Fingerprint.EMPTY.with(values))),
+		        "Missing entry is found");
+		assertEquals(1, cache.getMisses(), "Number of misses is not correct");
+	}
+
+	/**
+	 * Test method for {@link DerivedSeriesCache#get(Fingerprint)}.
+	 * 
+	 * @throws IOException if the entry cannot be corrupted.
+	 */
+	@Test
+	void testGet_corrupt() throws IOException {
+		Fingerprint key = DerivedSeriesCache.key(COMPUTATION, Fingerprint.EMPTY.with(values));
+		Files.write(directory.resolve(key + DerivedSeriesCache.EXTENSION), new byte[] { 1, 2, 3 });
+
+		assertNull(cache.get(key), "Corrupt entry is not treated as missing");
+	}
+
+	/**
+	 * Test method for {@link DerivedSeriesCache#key(String, Fingerprint, long...)}.
+	 */
+	@Test
+	void testKey_parameters() {
+		Fingerprint input = Fingerprint.EMPTY.with(values);
+
+		assertEquals(DerivedSeriesCache.key(COMPUTATION, input, 8, 2), DerivedSeriesCache.key(COMPUTATION, input, 8, 2),
+		        "Equal computations result in different keys");
+		assertNotEquals(DerivedSeriesCache.key(COMPUTATION, input, 8, 2),
+		        DerivedSeriesCache.key(COMPUTATION, input, 2, 8), "Order of parameters is not considered");
+	}
+
+	/**
+	 * Test method for {@link DerivedSeriesCache#key(Fingerprint, String, Fingerprint, long...)}.
+	 */
+	@Test
+	void testKey_version() {
+		Fingerprint input = Fingerprint.EMPTY.with(values);
+
+		assertNotEquals(DerivedSeriesCache.key(DerivedSeriesCache.versionFingerprint("1.0.1"), COMPUTATION, input, 8),
+		        DerivedSeriesCache.key(DerivedSeriesCache.versionFingerprint("1.0.2"), COMPUTATION, input, 8),
+		        "Version of the library is not considered");
+		Fingerprint version = DerivedSeriesCache.versionFingerprint(DerivedSeriesCache.IMPLEMENTATION_VERSION);
+		assertEquals(DerivedSeriesCache.key(version, COMPUTATION, input, 8),
+		        DerivedSeriesCache.key(COMPUTATION, input, 8), "Version of the library is not used");
+	}
+
+	/**
+	 * Test method for {@link DerivedSeriesCache#IMPLEMENTATION_VERSION}.
+	 */
+	@Test
+	void testImplementationVersion() {
+		assertNotNull(DerivedSeriesCache.IMPLEMENTATION_VERSION, "Version of the library is not read");
+		assertFalse(DerivedSeriesCache.IMPLEMENTATION_VERSION.startsWith("${"),
+		        "Version of the library is not filled in by the build");
+	}
+
+	/**
+	 * Test method for
+	 * {@link DerivedSeriesCache#computeCausal(String, ValueDateTupel[], long[], DerivedSeriesCache.CausalCalculation)}.
+	 */
+	@Test
+	void testComputeCausal_hit() {
+		AtomicInteger calculated = new AtomicInteger();
+		ValueDateTupel[] expected = cache.computeCausal(COMPUTATION, values, new long[0], runningSum(calculated));
+
+		ValueDateTupel[] actual = cache.computeCausal(COMPUTATION, values, new long[0], runningSum(calculated));
+
+		assertArrayEquals(expected, actual, "Cached values differ from calculated values");
+		assertEquals(LENGTH, calculated.get(), "Values are calculated again");
+		assertEquals(1, cache.getHits(), "Number of hits is not correct");
+		assertEquals(1, cache.getMisses(), "Number of misses is not correct");
+	}
+
+	/**
+	 * Test method for
+	 * {@link DerivedSeriesCache#computeCausal(String, ValueDateTupel[], long[], DerivedSeriesCache.CausalCalculation)}
+	 * with one value appended since the entry was stored. Only the appended value is calculated.
+	 */
+	@Test
+	void testComputeCausal_prefix() {
+		AtomicInteger calculated = new AtomicInteger();
+		cache.computeCausal(COMPUTATION, Arrays.copyOf(values, LENGTH - 1), new long[0], runningSum(calculated));
+
+		ValueDateTupel[] actual = cache.computeCausal(COMPUTATION, values, new long[0], runningSum(calculated));
+
+		assertArrayEquals(runningSum(new AtomicInteger()).calculate(values, ValueDateTupel.createEmptyArray(0)),
+		        actual, "Continued values differ from calculated values");
+		assertEquals(LENGTH, calculated.get(), "Cached prefix is calculated again");
+	}
+
+	/**
+	 * Test method for
+	 * {@link DerivedSeriesCache#computeCausal(String, ValueDateTupel[], long[], DerivedSeriesCache.CausalCalculation)}
+	 * with the last value changed since the entry was stored. Entries are stored for whole inputs only, so there is no
+	 * entry of the unchanged prefix and all values are calculated again.
+	 */
+	@Test
+	void testComputeCausal_changedValue() {
+		AtomicInteger calculated = new AtomicInteger();
+		cache.computeCausal(COMPUTATION, values, new long[0], runningSum(calculated));
+		ValueDateTupel[] changedValues = Arrays.copyOf(values, LENGTH);
+		changedValues[LENGTH - 1] = new ValueDateTupel(values[LENGTH - 1].getDate(), 1);
+
+		ValueDateTupel[] actual = cache.computeCausal(COMPUTATION, changedValues, new long[0],
+		        runningSum(calculated));
+
+		assertArrayEquals(runningSum(new AtomicInteger()).calculate(changedValues, ValueDateTupel.createEmptyArray(0)),
+		        actual, "Changed value is not considered");
+		assertEquals(2 * LENGTH, calculated.get(), "Number of calculated values is not correct");
+	}
+
+	/**
+	 * Test method for
+	 * {@link DerivedSeriesCache#computeCausal(String, ValueDateTupel[], long[], DerivedSeriesCache.CausalCalculation)}.
+	 */
+	@Test
+	void testComputeCausal_disabled() {
+		AtomicInteger calculated = new AtomicInteger();
+		DerivedSeriesCache.DISABLED.computeCausal(COMPUTATION, values, new long[0], runningSum(calculated));
+
+		DerivedSeriesCache.DISABLED.computeCausal(COMPUTATION, values, new long[0], runningSum(calculated));
+
+		assertEquals(2 * LENGTH, calculated.get(), "Disabled cache caches values");
+	}
+
+	/**
+	 * Test method for {@link EWMA#EWMA(ValueDateTupel[], int)} consulting the cache after a value was appended.
+	 */
+	@Test
+	void testEWMA_cachedPrefix() {
+		ValueDateTupel[] expected = new EWMA(values, 8).getEwmaValues();
+		DerivedSeriesCache.setCache(cache);
+		new EWMA(Arrays.copyOf(values, LENGTH - 1), 8);
+
+		ValueDateTupel[] actual = new EWMA(values, 8).getEwmaValues();
+
+		assertArrayEquals(expected, actual, "EWMA continued from the cache differs from the calculated EWMA");
+		assertEquals(1, cache.getHits(), "Cached prefix is not used");
+	}
+
+	/**
+	 * Test method for {@link de.rumford.tradingsystem.Rule#getForecasts()} consulting the cache.
+	 */
+	@Test
+	void testGetForecasts_cached() {
+		LocalDateTime startOfReferenceWindow = values[LENGTH / 10].getDate();
+		LocalDateTime endOfReferenceWindow = values[LENGTH / 2].getDate();
+		ValueDateTupel[] expected = new EWMAC(new BaseValue("DAX", values), null, startOfReferenceWindow,
+		        endOfReferenceWindow, 8, 2, BASE_SCALE).getForecasts();
+		DerivedSeriesCache.setCache(cache);
+		new EWMAC(new BaseValue("DAX", values), null, startOfReferenceWindow, endOfReferenceWindow, 8, 2, BASE_SCALE)
+		        .getForecasts();
+		long hitsBefore = cache.getHits();
+
+		ValueDateTupel[] actual = new EWMAC(new BaseValue("DAX", values), null, startOfReferenceWindow,
+		        endOfReferenceWindow, 8, 2, BASE_SCALE).getForecasts();
+
+		assertArrayEquals(expected, actual, "Forecasts of cached values differ from calculated forecasts");
+		/* Short index, squared returns EWMA, both EWMAs of the EWMAC and the forecasts themselves. */
+		assertEquals(5, cache.getHits() - hitsBefore, "Cached values are not used");
+	}
+
+	/**
+	 * Test method for {@link de.rumford.tradingsystem.Rule#getForecasts()} consulting the cache.
+	 */
+	@Test
+	void testGetForecasts_cachedOfOtherDates() {
+		LocalDateTime startOfReferenceWindow = values[LENGTH / 10].getDate();
+		LocalDateTime endOfReferenceWindow = values[LENGTH / 2].getDate();
+		DerivedSeriesCache.setCache(cache);
+		EWMAC rule = new EWMAC(new BaseValue("DAX", values), null, startOfReferenceWindow, endOfReferenceWindow, 8, 2,
+		        BASE_SCALE);
+		ValueDateTupel[] expected = rule.getForecasts();
+		Fingerprint key = DerivedSeriesCache.key("Rule.sdAdjustedForecasts", rule.getFingerprint());
+		ValueDateTupel[] otherDates = cache.get(key);
+		for (int i = 0; i < otherDates.length; i++)
+			otherDates[i] = new ValueDateTupel(otherDates[i].getDate().plusMinutes(1), otherDates[i].getValue());
+		cache.put(key, otherDates);
+
+		ValueDateTupel[] actual = new EWMAC(new BaseValue("DAX", values), null, startOfReferenceWindow,
+		        endOfReferenceWindow, 8, 2, BASE_SCALE).getForecasts();
+
+		assertArrayEquals(expected, actual, "Cached values of other dates are used");
+	}
+
+	/**
+	 * Test method for {@link DerivedSeriesCache#setCache(DerivedSeriesCache)}.
+	 */
+	@Test
+	void testSetCache() {
+		DerivedSeriesCache.setCache(cache);
+
+		assertSame(cache, DerivedSeriesCache.getCache(), "Cache is not set");
+	}
+
+	/**
+	 * Test method for {@link DerivedSeriesCache#setCache(DerivedSeriesCache)}.
+	 */
+	@Test
+	void testSetCache_null() {
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> DerivedSeriesCache.setCache(null));
+
+		assertEquals("Cache must not be null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+}
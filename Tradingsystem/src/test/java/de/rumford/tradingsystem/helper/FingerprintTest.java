@@ -0,0 +1,178 @@
+package de.rumford.tradingsystem.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.rumford.tradingsystem.BaseValue;
+import de.rumford.tradingsystem.EWMAC;
+import de.rumford.tradingsystem.VolatilityDifference;
+import de.rumford.tradingsystem.helper.SyntheticSeriesGenerator.Series;
+
+/**
+ * Test class for {@link Fingerprint} and the fingerprints of {@link BaseValue} and
+ * {@link de.rumford.tradingsystem.Rule}.
+ * 
+ * @author Max Rumford
+ */
+class FingerprintTest {
+
+	static final String MESSAGE_INCORRECT_EXCEPTION_MESSAGE = "Incorrect Exception message";
+	static final String NAME = "DAX";
+	static final long SEED = 42;
+	static final int LENGTH = 300;
+	static final double BASE_SCALE = 10;
+
+	ValueDateTupel[] values;
+	LocalDateTime startOfReferenceWindow;
+	LocalDateTime endOfReferenceWindow;
+
+	@BeforeEach
+	void setUp() {
+		values = new SyntheticSeriesGenerator(SEED, LENGTH).generate(Series.BASE_VALUES);
+		startOfReferenceWindow = values[LENGTH / 10].getDate();
+		endOfReferenceWindow = values[LENGTH / 2].getDate();
+	}
+
+	/**
+	 * Test method for {@link Fingerprint#with(long)}.
+	 */
+	@Test
+	void testWith_order() {
+		Fingerprint expected = Fingerprint.EMPTY.with(1L).with(2L);
+
+		assertEquals(expected, Fingerprint.EMPTY.with(1L).with(2L), "Equal values result in different fingerprints");
+		assertEquals(expected.hashCode(), Fingerprint.EMPTY.with(1L).with(2L).hashCode(),
+		        "Equal fingerprints result in different hash codes");
+		assertNotEquals(expected, Fingerprint.EMPTY.with(2L).with(1L), "Order of values is not considered");
+		assertNotEquals(Fingerprint.EMPTY, Fingerprint.EMPTY.with(0L), "Value 0 is not considered");
+	}
+
+	/**
+	 * Test method for {@link Fingerprint#with(ValueDateTupel[], int)}.
+	 */
+	@Test
+	void testWith_prefix() {
+		Fingerprint prefix = Fingerprint.EMPTY.with(values, LENGTH - 1);
+
+		assertEquals(Fingerprint.EMPTY.with(Arrays.copyOf(values, LENGTH - 1)), prefix,
+		        "Fingerprint of prefix differs from fingerprint of a copy of the prefix");
+		assertEquals(Fingerprint.EMPTY.with(values), prefix.with(values[LENGTH - 1]),
+		        "Extended prefix differs from fingerprint of all values");
+	}
+
+	/**
+	 * Test method for {@link Fingerprint#with(ValueDateTupel[], int)}.
+	 */
+	@Test
+	void testWith_prefixTooLong() {
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> Fingerprint.EMPTY.with(values, LENGTH + 1));
+
+		assertEquals("Length must be at least 0 and at most " + LENGTH + " but is " + (LENGTH + 1), thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link Fingerprint#with(ValueDateTupel[])}.
+	 */
+	@Test
+	void testWith_array() {
+		Fingerprint expected = Fingerprint.EMPTY;
+		for (ValueDateTupel value : values)
+			expected = expected.with(value);
+
+		assertEquals(expected, Fingerprint.EMPTY.with(values),
+		        "Fingerprint of an array differs from the fingerprint of its values");
+	}
+
+	/**
+	 * Test method for {@link Fingerprint#with(ValueDateTupel[])} with null values.
+	 */
+	@Test
+	void testWith_arrayNull() {
+		ValueDateTupel[] valuesWithNull = { values[0], null, new ValueDateTupel(null, 1) };
+		Fingerprint expected = Fingerprint.EMPTY.with(values[0]).with((ValueDateTupel) null)
+		        .with(new ValueDateTupel(null, 1));
+
+		assertEquals(expected, Fingerprint.EMPTY.with(valuesWithNull), "Null values are not correctly fingerprinted");
+		assertNotEquals(Fingerprint.EMPTY.with(new ValueDateTupel[0]),
+		        Fingerprint.EMPTY.with((ValueDateTupel[]) null), "Null array equals an empty array");
+		assertNotEquals(Fingerprint.EMPTY.with(""), Fingerprint.EMPTY.with((String) null),
+		        "Null String equals an empty String");
+	}
+
+	/**
+	 * Test method for {@link Fingerprint#with(ValueDateTupel[])} with a single changed value.
+	 */
+	@Test
+	void testWith_changedValue() {
+		ValueDateTupel[] changedValues = Arrays.copyOf(values, LENGTH);
+		changedValues[LENGTH / 2] = new ValueDateTupel(values[LENGTH / 2].getDate(),
+		        Math.nextUp(values[LENGTH / 2].getValue()));
+
+		assertNotEquals(Fingerprint.EMPTY.with(values), Fingerprint.EMPTY.with(changedValues),
+		        "Changed value is not considered");
+	}
+
+	/**
+	 * Test method for {@link Fingerprint#toString()}.
+	 */
+	@Test
+	void testToString() {
+		assertEquals("000000000000000100000000000000ff", new Fingerprint(1, 255).toString(),
+		        "Fingerprint is not output as hexadecimal digits");
+	}
+
+	/**
+	 * Test method for {@link BaseValue#getFingerprint()} after values were appended.
+	 */
+	@Test
+	void testBaseValueGetFingerprint_append() {
+		BaseValue expected = new BaseValue(NAME, values);
+		BaseValue appended = new BaseValue(NAME, Arrays.copyOf(values, LENGTH / 2));
+		for (int i = LENGTH / 2; i < LENGTH; i++)
+			appended.append(values[i]);
+
+		assertEquals(expected.getFingerprint(), appended.getFingerprint(),
+		        "Fingerprint after append differs from the fingerprint of all values");
+		assertEquals(expected, appended, "Base value after append is not equal to base value of all values");
+	}
+
+	/**
+	 * Test method for {@link BaseValue#getFingerprint()} with differing names.
+	 */
+	@Test
+	void testBaseValueGetFingerprint_name() {
+		assertNotEquals(new BaseValue(NAME, values).getFingerprint(),
+		        new BaseValue("S&P 500", values).getFingerprint(), "Name is not considered");
+	}
+
+	/**
+	 * Test method for {@link de.rumford.tradingsystem.Rule#getFingerprint()}.
+	 */
+	@Test
+	void testRuleGetFingerprint() {
+		BaseValue baseValue = new BaseValue(NAME, values);
+		EWMAC ewmac = new EWMAC(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 8, 2, BASE_SCALE);
+		EWMAC equalEwmac = new EWMAC(new BaseValue(NAME, values), null, startOfReferenceWindow,
+		        endOfReferenceWindow, 8, 2, BASE_SCALE);
+		EWMAC otherEwmac = new EWMAC(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 16, 4,
+		        BASE_SCALE);
+		VolatilityDifference volatilityDifference = new VolatilityDifference(baseValue, null, startOfReferenceWindow,
+		        endOfReferenceWindow, 8, BASE_SCALE);
+
+		assertEquals(ewmac.getFingerprint(), equalEwmac.getFingerprint(),
+		        "Rules of equal inputs have different fingerprints");
+		assertEquals(ewmac, equalEwmac, "Rules of equal inputs are not equal");
+		assertNotEquals(ewmac.getFingerprint(), otherEwmac.getFingerprint(), "Horizons are not considered");
+		assertNotEquals(ewmac.getFingerprint(), volatilityDifference.getFingerprint(),
+		        "Type of rule is not considered");
+	}
+}
@@ -0,0 +1,205 @@
+package de.rumford.tradingsystem.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.rumford.tradingsystem.BaseValue;
+import de.rumford.tradingsystem.EWMAC;
+import de.rumford.tradingsystem.Rule;
+import de.rumford.tradingsystem.SubSystem;
+import de.rumford.tradingsystem.VolatilityDifference;
+import de.rumford.tradingsystem.helper.SyntheticSeriesGenerator.Series;
+
+/**
+ * Test class for {@link InMemoryMetricsRegistry} and {@link Metrics}.
+ * 
+ * @author Max Rumford
+ */
+class InMemoryMetricsRegistryTest {
+
+	static final String MESSAGE_INCORRECT_EXCEPTION_MESSAGE = "Incorrect Exception message";
+	static final String NAME = "test.metric";
+	static final String INSTRUMENT = "DAX";
+	static final String OTHER_INSTRUMENT = "S&P 500";
+	static final long SEED = 42;
+	static final int LENGTH = 300;
+	static final double BASE_SCALE = 10;
+
+	InMemoryMetricsRegistry registry;
+
+	@BeforeEach
+	void setUp() {
+		registry = new InMemoryMetricsRegistry();
+	}
+
+	@AfterEach
+	void tearDown() {
+		Metrics.setRegistry(MetricsRegistry.NOOP);
+	}
+
+	/**
+	 * Test method for {@link InMemoryMetricsRegistry#counter(String, String)}.
+	 */
+	@Test
+	void testCounter() {
+		registry.counter(NAME, INSTRUMENT).increment(3);
+		registry.counter(NAME, INSTRUMENT).increment(4);
+		registry.counter(NAME, OTHER_INSTRUMENT).increment(1);
+
+		assertEquals(7, registry.getCount(NAME, INSTRUMENT), "Counter is not accumulated");
+		assertEquals(1, registry.getCount(NAME, OTHER_INSTRUMENT), "Counter is not kept per instrument");
+		assertEquals(0, registry.getCount("unknown", INSTRUMENT), "Unknown counter is not 0");
+		assertSame(registry.counter(NAME, INSTRUMENT), registry.counter(NAME, INSTRUMENT),
+		        "Counter is created on every look up");
+	}
+
+	/**
+	 * Test method for {@link InMemoryMetricsRegistry#counter(String, String)} with concurrent increments.
+	 * 
+	 * @throws InterruptedException if the test is interrupted.
+	 */
+	@Test
+	void testCounter_concurrent() throws InterruptedException {
+		int numberOfThreads = 4;
+		int incrementsPerThread = 10_000;
+		Thread[] threads = new Thread[numberOfThreads];
+		for (int i = 0; i < numberOfThreads; i++) {
+			threads[i] = new Thread(() -> {
+				for (int j = 0; j < incrementsPerThread; j++) {
+					registry.counter(NAME, INSTRUMENT).increment(1);
+					if (j % 1000 == 0)
+						Thread.yield();
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+
+		assertEquals(numberOfThreads * incrementsPerThread, registry.getCount(NAME, INSTRUMENT),
+		        "Concurrent increments are lost");
+	}
+
+	/**
+	 * Test method for {@link InMemoryMetricsRegistry#gauge(String, String)}.
+	 */
+	@Test
+	void testGauge() {
+		assertTrue(Double.isNaN(registry.getGaugeValue(NAME, INSTRUMENT)), "Unset gauge is not NaN");
+
+		registry.gauge(NAME, INSTRUMENT).set(1.5);
+		registry.gauge(NAME, INSTRUMENT).set(2.5);
+
+		assertEquals(2.5, registry.getGaugeValue(NAME, INSTRUMENT), "Gauge does not hold the last value");
+	}
+
+	/**
+	 * Test method for {@link InMemoryMetricsRegistry#timer(String, String)}.
+	 */
+	@Test
+	void testTimer() {
+		registry.timer(NAME, INSTRUMENT).record(100);
+		registry.timer(NAME, INSTRUMENT).record(300);
+		registry.timer(NAME, INSTRUMENT).record(200);
+
+		assertEquals(3, registry.getTimerCount(NAME, INSTRUMENT), "Timer count is not correct");
+		assertEquals(600, registry.getTimerTotalNanos(NAME, INSTRUMENT), "Timer total is not correct");
+		assertEquals(300, registry.getTimerMaxNanos(NAME, INSTRUMENT), "Timer maximum is not correct");
+	}
+
+	/**
+	 * Test method for {@link InMemoryMetricsRegistry#counter(String, String)}.
+	 */
+	@Test
+	void testCounter_nameNull() {
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> registry.counter(null, INSTRUMENT));
+
+		assertEquals("Metric name must not be null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link InMemoryMetricsRegistry#timer(String, String)}.
+	 */
+	@Test
+	void testTimer_instrumentNull() {
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> registry.timer(NAME, null));
+
+		assertEquals("Instrument must not be null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link InMemoryMetricsRegistry#toText()}.
+	 */
+	@Test
+	void testToText() {
+		registry.timer("b.timer", INSTRUMENT).record(5);
+		registry.counter("a.counter", OTHER_INSTRUMENT).increment(2);
+		registry.counter("a.counter", INSTRUMENT).increment(1);
+		registry.gauge("c.gauge", INSTRUMENT).set(0.25);
+		String lineSeparator = System.lineSeparator();
+
+		String expected = "a.counter{instrument=\"DAX\"} 1" + lineSeparator //
+		        + "a.counter{instrument=\"S&P 500\"} 2" + lineSeparator //
+		        + "b.timer{instrument=\"DAX\"} count=1, totalNanos=5, maxNanos=5" + lineSeparator //
+		        + "c.gauge{instrument=\"DAX\"} 0.250000" + lineSeparator;
+
+		assertEquals(expected, registry.toText(), "Metrics are not correctly output");
+	}
+
+	/**
+	 * Test method for {@link Metrics#setRegistry(MetricsRegistry)}.
+	 */
+	@Test
+	void testSetRegistry_null() {
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> Metrics.setRegistry(null));
+
+		assertEquals("Metrics registry must not be null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link Metrics#setRegistry(MetricsRegistry)} with the metrics reported by a sub system.
+	 */
+	@Test
+	void testSetRegistry_subSystem() {
+		Metrics.setRegistry(registry);
+
+		SyntheticSeriesGenerator generator = new SyntheticSeriesGenerator(SEED, LENGTH);
+		ValueDateTupel[] values = generator.generate(Series.BASE_VALUES);
+		BaseValue baseValue = new BaseValue(INSTRUMENT, values);
+		LocalDateTime startOfReferenceWindow = values[LENGTH / 10].getDate();
+		LocalDateTime endOfReferenceWindow = values[LENGTH / 2].getDate();
+		Rule[] rules = { new EWMAC(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 8, 2, BASE_SCALE),
+		        new VolatilityDifference(baseValue, null, startOfReferenceWindow, endOfReferenceWindow, 8, BASE_SCALE,
+		                generator.generate(Series.VOLATILITY_INDEX)) };
+		SubSystem subSystem = new SubSystem(baseValue, rules, 100000, BASE_SCALE);
+		double performanceValue = subSystem.backtest(values[LENGTH / 2 + 1].getDate(), values[LENGTH - 1].getDate());
+		baseValue.append(new ValueDateTupel(values[LENGTH - 1].getDate().plusDays(1), 100));
+
+		assertEquals(LENGTH + 1, registry.getCount(Metrics.BARS_PROCESSED, INSTRUMENT),
+		        "Bars are not counted upon creation and append");
+		assertEquals(1, registry.getTimerCount(Metrics.BASE_VALUE_DERIVATION_DURATION, INSTRUMENT),
+		        "Base value derivation is not timed");
+		assertEquals(2, registry.getCount(Metrics.RULES_BUILT, INSTRUMENT), "Rules are not counted");
+		assertEquals(2, registry.getTimerCount(Metrics.RULE_FORECAST_DURATION, INSTRUMENT),
+		        "Rule forecasts are not timed");
+		assertEquals(subSystem.getDiversificationMultiplier().getValue(),
+		        registry.getGaugeValue(Metrics.DIVERSIFICATION_MULTIPLIER_VALUE, INSTRUMENT),
+		        "Diversification multiplier value is not reported");
+		assertEquals(1, registry.getTimerCount(Metrics.COMBINED_FORECAST_DURATION, INSTRUMENT),
+		        "Combined forecast is not timed");
+		assertEquals(LENGTH - LENGTH / 2 - 1, registry.getCount(Metrics.BACKTEST_BARS, INSTRUMENT),
+		        "Backtest bars are not counted");
+		assertEquals(performanceValue, registry.getGaugeValue(Metrics.BACKTEST_PERFORMANCE_VALUE, INSTRUMENT),
+		        "Performance value is not reported");
+		assertTrue(registry.getTimerTotalNanos(Metrics.BACKTEST_DURATION, INSTRUMENT) > 0,
+		        "Backtest duration is not recorded");
+	}
+}
@@ -0,0 +1,223 @@
+package de.rumford.tradingsystem.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link LatencyHistogram}.
+ * 
+ * @author Max Rumford
+ */
+class LatencyHistogramTest {
+
+	static final String MESSAGE_INCORRECT_EXCEPTION_MESSAGE = "Incorrect Exception message";
+	static final String NAME = "test";
+
+	/**
+	 * Test method for {@link LatencyHistogram#getValueAtPercentile(double)}.
+	 */
+	@Test
+	void testGetValueAtPercentile_exactValues() {
+		LatencyHistogram histogram = new LatencyHistogram(NAME);
+		for (long value = 1; value <= 100; value++)
+			histogram.recordValue(value);
+
+		assertEquals(50, histogram.getValueAtPercentile(50), "Median is not correctly calculated");
+		assertEquals(99, histogram.getValueAtPercentile(99), "99th percentile is not correctly calculated");
+		assertEquals(100, histogram.getValueAtPercentile(100), "Maximum is not correctly calculated");
+		assertEquals(1, histogram.getValueAtPercentile(0), "Minimum is not correctly calculated");
+		assertEquals(50.5, histogram.getMean(), "Mean is not correctly calculated");
+	}
+
+	/**
+	 * Test method for {@link LatencyHistogram#getValueAtPercentile(double)}.
+	 */
+	@Test
+	void testGetValueAtPercentile_relativeError() {
+		LatencyHistogram histogram = new LatencyHistogram(NAME);
+		double maxRelativeError = 1d / (1 << (LatencyHistogram.DEFAULT_SUB_BUCKET_BITS - 1));
+
+		for (long value = 1; value < 1_000_000_000L; value = value * 3 + 1) {
+			histogram.reset();
+			histogram.recordValue(value);
+			histogram.recordValue(Long.MAX_VALUE / 2);
+
+			long reported = histogram.getValueAtPercentile(50);
+			assertTrue(reported >= value, "Reported value " + reported + " is lower than " + value);
+			assertTrue((reported - value) / (double) value <= maxRelativeError,
+			        "Reported value " + reported + " is too far off " + value);
+		}
+	}
+
+	/**
+	 * Test method for {@link LatencyHistogram#recordValue(long)}.
+	 */
+	@Test
+	void testRecordValue_aboveHighestTrackableValue() {
+		LatencyHistogram histogram = new LatencyHistogram(NAME, 1000, 4);
+
+		histogram.recordValue(5000);
+
+		assertEquals(5000, histogram.getMaxValue(), "Maximum is not correctly recorded");
+		assertEquals(5000, histogram.getValueAtPercentile(100), "Value above the highest trackable value is lost");
+		assertEquals(1, histogram.getTotalCount(), "Count is not correctly calculated");
+	}
+
+	/**
+	 * Test method for {@link LatencyHistogram#recordValue(long)}.
+	 */
+	@Test
+	void testRecordValue_negative() {
+		LatencyHistogram histogram = new LatencyHistogram(NAME);
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> histogram.recordValue(-1));
+
+		assertEquals("Value must not be negative", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link LatencyHistogram#recordSince(long)}.
+	 */
+	@Test
+	void testRecordSince() {
+		LatencyHistogram histogram = new LatencyHistogram(NAME);
+		long start = System.nanoTime();
+
+		long end = histogram.recordSince(start);
+
+		assertTrue(end >= start, "Current time is not returned");
+		assertEquals(end - start, histogram.getMaxValue(), "Duration is not correctly recorded");
+	}
+
+	/**
+	 * Test method for {@link LatencyHistogram#getValueAtPercentile(double)}.
+	 */
+	@Test
+	void testGetValueAtPercentile_empty() {
+		LatencyHistogram histogram = new LatencyHistogram(NAME);
+
+		assertEquals(0, histogram.getValueAtPercentile(99), "Percentile of an empty histogram is not 0");
+		assertEquals(0, histogram.getMinValue(), "Minimum of an empty histogram is not 0");
+		assertEquals(0, histogram.getMean(), "Mean of an empty histogram is not 0");
+	}
+
+	/**
+	 * Test method for {@link LatencyHistogram#getValueAtPercentile(double)}.
+	 */
+	@Test
+	void testGetValueAtPercentile_invalidPercentile() {
+		LatencyHistogram histogram = new LatencyHistogram(NAME);
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101));
+
+		assertEquals("Percentile must be at least 0 and at most 100", thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link LatencyHistogram#LatencyHistogram(String, long, int)}.
+	 */
+	@Test
+	void testLatencyHistogram_fixedMemory() {
+		LatencyHistogram histogram = new LatencyHistogram(NAME, 1L << 20, 4);
+
+		/* 16 exact buckets, 8 buckets for each of the powers of two from 2^4 to 2^19 and one for 2^20 */
+		assertEquals(16 + 16 * 8 + 1, histogram.getNumberOfBuckets(), "Number of buckets is not correctly calculated");
+	}
+
+	/**
+	 * Test method for {@link LatencyHistogram#LatencyHistogram(String, long, int)}.
+	 */
+	@Test
+	void testLatencyHistogram_nameNull() {
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(null));
+
+		assertEquals("Name must not be null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link LatencyHistogram#LatencyHistogram(String, long, int)}.
+	 */
+	@Test
+	void testLatencyHistogram_subBucketBitsTooLow() {
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(NAME, 1000, 1));
+
+		assertEquals("Sub bucket bits must be at least 2 and at most 20", thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link LatencyHistogram#LatencyHistogram(String, long, int)}.
+	 */
+	@Test
+	void testLatencyHistogram_highestTrackableValueTooLow() {
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(NAME, 10, 4));
+
+		assertEquals("Highest trackable value must be at least 16", thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link LatencyHistogram#toText()}.
+	 */
+	@Test
+	void testToText() {
+		LatencyHistogram histogram = new LatencyHistogram(NAME);
+		histogram.recordValue(10);
+		histogram.recordValue(20);
+
+		String expected = "test: count=2, min=10, mean=15.0, p50=10, p90=20, p99=20, p99.9=20, p99.99=20, max=20";
+
+		assertEquals(expected, histogram.toText(), "Summary is not correctly output");
+	}
+
+	/**
+	 * Test method for {@link LatencyHistogram#toCsv(CsvFormat)}.
+	 */
+	@Test
+	void testToCsv() {
+		LatencyHistogram histogram = new LatencyHistogram(NAME);
+		histogram.recordValue(10);
+		histogram.recordValue(10);
+		histogram.recordValue(30);
+		histogram.recordValue(40);
+		String lineSeparator = System.lineSeparator();
+
+		String expected = "Value;Percentile;TotalCount" + lineSeparator //
+		        + "10;50,000000;2" + lineSeparator //
+		        + "30;75,000000;3" + lineSeparator //
+		        + "40;100,000000;4" + lineSeparator;
+
+		assertEquals(expected, histogram.toCsv(CsvFormat.EU), "CSV is not correctly output");
+	}
+
+	/**
+	 * Test method for {@link LatencyHistogram#toCsv(CsvFormat)}.
+	 */
+	@Test
+	void testToCsv_csvFormatNull() {
+		LatencyHistogram histogram = new LatencyHistogram(NAME);
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> histogram.toCsv(null));
+
+		assertEquals("CSV format must not be null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link LatencyHistogram#reset()}.
+	 */
+	@Test
+	void testReset() {
+		LatencyHistogram histogram = new LatencyHistogram(NAME);
+		histogram.recordValue(10);
+
+		histogram.reset();
+
+		assertEquals(0, histogram.getTotalCount(), "Count is not reset");
+		assertEquals(0, histogram.getMaxValue(), "Maximum is not reset");
+		assertEquals(0, histogram.getValueAtPercentile(100), "Counts are not reset");
+	}
+}
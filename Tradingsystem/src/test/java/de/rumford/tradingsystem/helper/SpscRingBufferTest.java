@@ -0,0 +1,183 @@
+package de.rumford.tradingsystem.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link SpscRingBuffer}.
+ * 
+ * @author Max Rumford
+ */
+class SpscRingBufferTest {
+
+	static final String MESSAGE_INCORRECT_EXCEPTION_MESSAGE = "Incorrect Exception message";
+	/* Many more events than fit into the ring buffer at once. */
+	static final int NUMBER_OF_EVENTS = 100_000;
+
+	/**
+	 * Test method for {@link SpscRingBuffer#SpscRingBuffer(int, java.util.function.Supplier)}.
+	 */
+	@Test
+	void testSpscRingBuffer_capacityRoundedUp() {
+		SpscRingBuffer<AtomicLong> ringBuffer = new SpscRingBuffer<>(5, AtomicLong::new);
+
+		assertEquals(8, ringBuffer.getCapacity(), "Capacity is not rounded up to the next power of two");
+	}
+
+	/**
+	 * Test method for {@link SpscRingBuffer#SpscRingBuffer(int, java.util.function.Supplier)}.
+	 */
+	@Test
+	void testSpscRingBuffer_capacityTooSmall() {
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new SpscRingBuffer<>(0, AtomicLong::new));
+
+		assertEquals("Capacity must be at least 1", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link SpscRingBuffer#SpscRingBuffer(int, java.util.function.Supplier)}.
+	 */
+	@Test
+	void testSpscRingBuffer_eventFactoryNull() {
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> new SpscRingBuffer<>(1, null));
+
+		assertEquals("Event factory must not be null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link SpscRingBuffer#SpscRingBuffer(int, java.util.function.Supplier)}.
+	 */
+	@Test
+	void testSpscRingBuffer_eventFactoryReturnsNull() {
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> new SpscRingBuffer<>(1, () -> null));
+
+		assertEquals("Event factory must not return null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link SpscRingBuffer#tryClaim()}.
+	 */
+	@Test
+	void testTryClaim_full() {
+		SpscRingBuffer<AtomicLong> ringBuffer = new SpscRingBuffer<>(2, AtomicLong::new);
+
+		for (int i = 0; i < 2; i++) {
+			assertNotNull(ringBuffer.tryClaim(), "No event is claimed although there is room");
+			ringBuffer.publish();
+		}
+
+		assertNull(ringBuffer.tryClaim(), "Event is claimed although the ring buffer is full");
+		assertEquals(2, ringBuffer.size(), "Size is not correctly calculated");
+	}
+
+	/**
+	 * Test method for {@link SpscRingBuffer#tryClaim()}.
+	 */
+	@Test
+	void testTryClaim_notPublished() {
+		SpscRingBuffer<AtomicLong> ringBuffer = new SpscRingBuffer<>(2, AtomicLong::new);
+		ringBuffer.tryClaim();
+
+		Exception thrown = assertThrows(IllegalStateException.class, () -> ringBuffer.tryClaim());
+
+		assertEquals("The claimed event must be published before claiming the next one", thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link SpscRingBuffer#publish()}.
+	 */
+	@Test
+	void testPublish_notClaimed() {
+		SpscRingBuffer<AtomicLong> ringBuffer = new SpscRingBuffer<>(2, AtomicLong::new);
+
+		Exception thrown = assertThrows(IllegalStateException.class, () -> ringBuffer.publish());
+
+		assertEquals("An event must be claimed before publishing it", thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link SpscRingBuffer#peek()}.
+	 */
+	@Test
+	void testPeek_empty() {
+		SpscRingBuffer<AtomicLong> ringBuffer = new SpscRingBuffer<>(2, AtomicLong::new);
+		ringBuffer.tryClaim();
+
+		assertNull(ringBuffer.peek(), "Unpublished event is visible to the consumer");
+	}
+
+	/**
+	 * Test method for {@link SpscRingBuffer#release()}.
+	 */
+	@Test
+	void testRelease_eventsReused() {
+		SpscRingBuffer<AtomicLong> ringBuffer = new SpscRingBuffer<>(1, AtomicLong::new);
+		AtomicLong claimedEvent = ringBuffer.tryClaim();
+		claimedEvent.set(1);
+		ringBuffer.publish();
+
+		assertSame(claimedEvent, ringBuffer.peek(), "Published event is not passed to the consumer");
+		ringBuffer.release();
+
+		assertSame(claimedEvent, ringBuffer.tryClaim(), "Released event is not reused");
+		assertEquals(0, ringBuffer.size(), "Size is not correctly calculated");
+	}
+
+	/**
+	 * Test method for {@link SpscRingBuffer#release()}.
+	 */
+	@Test
+	void testRelease_empty() {
+		SpscRingBuffer<AtomicLong> ringBuffer = new SpscRingBuffer<>(2, AtomicLong::new);
+
+		Exception thrown = assertThrows(IllegalStateException.class, () -> ringBuffer.release());
+
+		assertEquals("There is no event to be released", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link SpscRingBuffer} with one producing and one consuming thread.
+	 * 
+	 * @throws InterruptedException if the test is interrupted.
+	 */
+	@Test
+	void testConcurrentProducerAndConsumer() throws InterruptedException {
+		SpscRingBuffer<AtomicLong> ringBuffer = new SpscRingBuffer<>(64, AtomicLong::new);
+
+		Thread producer = new Thread(() -> {
+			for (long i = 0; i < NUMBER_OF_EVENTS; i++) {
+				AtomicLong event = ringBuffer.tryClaim();
+				while (event == null) {
+					Thread.yield();
+					event = ringBuffer.tryClaim();
+				}
+				event.lazySet(i);
+				ringBuffer.publish();
+			}
+		});
+		producer.start();
+
+		for (long expected = 0; expected < NUMBER_OF_EVENTS; expected++) {
+			AtomicLong event = ringBuffer.peek();
+			while (event == null) {
+				Thread.yield();
+				event = ringBuffer.peek();
+			}
+			assertEquals(expected, event.get(), "Events are not passed in order");
+			ringBuffer.release();
+		}
+		producer.join();
+
+		assertNull(ringBuffer.peek(), "More events are passed than published");
+	}
+}
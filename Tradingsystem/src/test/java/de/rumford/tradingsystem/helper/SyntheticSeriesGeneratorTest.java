@@ -0,0 +1,283 @@
+package de.rumford.tradingsystem.helper;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.rumford.tradingsystem.helper.SyntheticSeriesGenerator.Series;
+
+/**
+ * Test class for {@link SyntheticSeriesGenerator}.
+ * 
+ * @author Max Rumford
+ */
+class SyntheticSeriesGeneratorTest {
+
+	static final String MESSAGE_INCORRECT_EXCEPTION_MESSAGE = "Incorrect Exception message";
+	static final long SEED = 42;
+	static final int LENGTH = 5000;
+	/* Values are written to CSV with four decimals. */
+	static final double CSV_DELTA = 0.00005;
+
+	Path file;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		file = Files.createTempFile("SyntheticSeriesGeneratorTest", ".tmp");
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	/**
+	 * Test method for {@link SyntheticSeriesGenerator#generate(Series)}.
+	 */
+	@Test
+	void testGenerate_reproducible() {
+		SyntheticSeriesGenerator generator = new SyntheticSeriesGenerator(SEED, LENGTH);
+
+		assertArrayEquals(generator.generate(Series.BASE_VALUES),
+		        new SyntheticSeriesGenerator(SEED, LENGTH).generate(Series.BASE_VALUES),
+		        "The same seed does not create the same series");
+		assertFalse(generator.generate(Series.BASE_VALUES)[LENGTH - 1]
+		        .equals(new SyntheticSeriesGenerator(SEED + 1, LENGTH).generate(Series.BASE_VALUES)[LENGTH - 1]),
+		        "Different seeds create the same series");
+	}
+
+	/**
+	 * Test method for {@link SyntheticSeriesGenerator#generate(Series)}.
+	 */
+	@Test
+	void testGenerate_seriesWithoutGaps() {
+		SyntheticSeriesGenerator generator = new SyntheticSeriesGenerator(SEED, LENGTH);
+
+		ValueDateTupel[] values = generator.generate(Series.BASE_VALUES);
+		ValueDateTupel[] volatilityIndexValues = generator.generate(Series.VOLATILITY_INDEX);
+		ValueDateTupel[] shortIndexValues = generator.generate(Series.SHORT_INDEX);
+
+		assertEquals(LENGTH, values.length, "Not every bar is generated");
+		assertArrayEquals(ValueDateTupel.getDates(values), ValueDateTupel.getDates(volatilityIndexValues),
+		        "Volatility index is not aligned with the base values");
+		assertArrayEquals(ValueDateTupel.getDates(values), ValueDateTupel.getDates(shortIndexValues),
+		        "Short index is not aligned with the base values");
+		assertEquals(SyntheticSeriesGenerator.DEFAULT_FIRST_DATE, values[0].getDate(), "Incorrect first date");
+		assertEquals(SyntheticSeriesGenerator.DEFAULT_FIRST_DATE.plusDays(LENGTH - 1),
+		        values[LENGTH - 1].getDate(), "Incorrect last date");
+		for (int i = 1; i < LENGTH; i++) {
+			assertTrue(values[i].getValue() > 0, "Base value is not positive");
+			assertTrue(volatilityIndexValues[i].getValue() >= SyntheticSeriesGenerator.MINIMUM_VOLATILITY_INDEX,
+			        "Volatility index is below its minimum");
+			double valueReturn = values[i].getValue() / values[i - 1].getValue() - 1;
+			double shortIndexReturn = shortIndexValues[i].getValue() / shortIndexValues[i - 1].getValue() - 1;
+			assertEquals(-valueReturn, shortIndexReturn, 1e-9, "Short index does not move inversely");
+		}
+	}
+
+	/**
+	 * Test method for {@link SyntheticSeriesGenerator#generate(Series)}. The volatility of the base values must switch
+	 * between the regimes, so the volatility index must cover both.
+	 */
+	@Test
+	void testGenerate_regimes() {
+		double[] volatilityIndexValues = ValueDateTupel
+		        .getValues(new SyntheticSeriesGenerator(SEED, LENGTH).generate(Series.VOLATILITY_INDEX));
+
+		boolean calm = false;
+		boolean turbulent = false;
+		for (double volatilityIndex : volatilityIndexValues) {
+			calm |= volatilityIndex < 20;
+			turbulent |= volatilityIndex > 30;
+		}
+
+		assertTrue(calm, "Calm regime is never reached");
+		assertTrue(turbulent, "Turbulent regime is never reached");
+	}
+
+	/**
+	 * Test method for {@link SyntheticSeriesGenerator#generate(Series)}.
+	 */
+	@Test
+	void testGenerate_gaps() {
+		SyntheticSeriesGenerator generator = new SyntheticSeriesGenerator(SEED, LENGTH,
+		        SyntheticSeriesGenerator.DEFAULT_FIRST_DATE, Duration.ofMinutes(1), 0.1);
+		ValueDateTupel[] withoutGaps = new SyntheticSeriesGenerator(SEED, LENGTH,
+		        SyntheticSeriesGenerator.DEFAULT_FIRST_DATE, Duration.ofMinutes(1), 0).generate(Series.BASE_VALUES);
+
+		ValueDateTupel[] values = generator.generate(Series.BASE_VALUES);
+		ValueDateTupel[] volatilityIndexValues = generator.generate(Series.VOLATILITY_INDEX);
+
+		assertEquals(LENGTH * 0.9, values.length, LENGTH * 0.02, "Incorrect share of bars left out");
+		assertFalse(Arrays.equals(ValueDateTupel.getDates(values), ValueDateTupel.getDates(volatilityIndexValues)),
+		        "Gaps are not drawn independently per series");
+		assertTrue(ValueDateTupel.isSortedAscending(values), "Values are not sorted");
+		for (ValueDateTupel value : values) {
+			assertTrue(ValueDateTupel.contains(withoutGaps, value), "Gaps change the remaining bars");
+		}
+
+		ValueDateTupel[][] aligned = ValueDateTupel
+		        .alignDates(new ValueDateTupel[][] { values, volatilityIndexValues });
+		assertEquals(aligned[0].length, aligned[1].length, "Series with gaps cannot be aligned");
+	}
+
+	/**
+	 * Test method for {@link SyntheticSeriesGenerator#generate(Series)}.
+	 */
+	@Test
+	void testGenerate_tooLong() {
+		SyntheticSeriesGenerator generator = new SyntheticSeriesGenerator(SEED, Integer.MAX_VALUE);
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> generator.generate(Series.BASE_VALUES));
+
+		assertEquals("Length exceeds the maximum length of an array. Write the series to a file instead.",
+		        thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link SyntheticSeriesGenerator#generate(Series)}.
+	 */
+	@Test
+	void testGenerate_seriesNull() {
+		SyntheticSeriesGenerator generator = new SyntheticSeriesGenerator(SEED, LENGTH);
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> generator.generate(null));
+
+		assertEquals("Series must not be null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link SyntheticSeriesGenerator#writeCsv(String, Series, CsvFormat)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testWriteCsv() throws IOException {
+		SyntheticSeriesGenerator generator = new SyntheticSeriesGenerator(SEED, LENGTH,
+		        LocalDateTime.of(2020, 1, 2, 9, 0, 0), Duration.ofSeconds(61), 0.1);
+		ValueDateTupel[] expected = generator.generate(Series.SHORT_INDEX);
+
+		for (CsvFormat format : CsvFormat.values()) {
+			generator.writeCsv(file.toString(), Series.SHORT_INDEX, format);
+			ValueDateTupel[] actual = DataSource.getDataFromCsv(file.toString(), format);
+
+			assertArrayEquals(ValueDateTupel.getDates(expected), ValueDateTupel.getDates(actual),
+			        "Incorrect dates in " + format);
+			assertArrayEquals(ValueDateTupel.getValues(expected), ValueDateTupel.getValues(actual), CSV_DELTA,
+			        "Incorrect values in " + format);
+		}
+	}
+
+	/**
+	 * Test method for {@link SyntheticSeriesGenerator#writeCsv(String, Series, CsvFormat)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testWriteCsv_format() throws IOException {
+		new SyntheticSeriesGenerator(SEED, 1).writeCsv(file.toString(), Series.BASE_VALUES, CsvFormat.EU);
+
+		assertEquals("03.01.2000;22:00:00;10000,0000", Files.readAllLines(file).get(0), "Incorrect CSV row");
+	}
+
+	/**
+	 * Test method for {@link SyntheticSeriesGenerator#writeCsv(String, Series, CsvFormat)}.
+	 */
+	@Test
+	void testWriteCsv_formatNull() {
+		SyntheticSeriesGenerator generator = new SyntheticSeriesGenerator(SEED, LENGTH);
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> generator.writeCsv(file.toString(), Series.BASE_VALUES, null));
+
+		assertEquals("Format must not be null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link SyntheticSeriesGenerator#writeBinary(String, Series)}.
+	 * 
+	 * @throws IOException if the test file cannot be accessed.
+	 */
+	@Test
+	void testWriteBinary() throws IOException {
+		SyntheticSeriesGenerator generator = new SyntheticSeriesGenerator(SEED, LENGTH,
+		        SyntheticSeriesGenerator.DEFAULT_FIRST_DATE, Duration.ofHours(1), 0.1);
+
+		generator.writeBinary(file.toString(), Series.VOLATILITY_INDEX);
+
+		assertArrayEquals(generator.generate(Series.VOLATILITY_INDEX),
+		        BinarySeries.getDataFromBinary(file.toString()), "Binary series differs from generated series");
+	}
+
+	/**
+	 * Test method for {@link SyntheticSeriesGenerator#writeBinary(String, Series)}.
+	 */
+	@Test
+	void testWriteBinary_targetPathNull() {
+		SyntheticSeriesGenerator generator = new SyntheticSeriesGenerator(SEED, LENGTH);
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> generator.writeBinary(null, Series.BASE_VALUES));
+
+		assertEquals("Target path must not be null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link SyntheticSeriesGenerator#SyntheticSeriesGenerator(long, long)}.
+	 */
+	@Test
+	void testSyntheticSeriesGenerator_lengthZero() {
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> new SyntheticSeriesGenerator(SEED, 0));
+
+		assertEquals("Length must be at least 1", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for
+	 * {@link SyntheticSeriesGenerator#SyntheticSeriesGenerator(long, long, LocalDateTime, Duration, double)}.
+	 */
+	@Test
+	void testSyntheticSeriesGenerator_firstDateNull() {
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> new SyntheticSeriesGenerator(SEED, LENGTH, null, Duration.ofDays(1), 0));
+
+		assertEquals("First date must not be null", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for
+	 * {@link SyntheticSeriesGenerator#SyntheticSeriesGenerator(long, long, LocalDateTime, Duration, double)}.
+	 */
+	@Test
+	void testSyntheticSeriesGenerator_intervalZero() {
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> new SyntheticSeriesGenerator(SEED,
+		        LENGTH, SyntheticSeriesGenerator.DEFAULT_FIRST_DATE, Duration.ZERO, 0));
+
+		assertEquals("Interval must be positive", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for
+	 * {@link SyntheticSeriesGenerator#SyntheticSeriesGenerator(long, long, LocalDateTime, Duration, double)}.
+	 */
+	@Test
+	void testSyntheticSeriesGenerator_gapProbabilityOne() {
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> new SyntheticSeriesGenerator(SEED,
+		        LENGTH, SyntheticSeriesGenerator.DEFAULT_FIRST_DATE, Duration.ofDays(1), 1));
+
+		assertEquals("Gap probability must be in [0, 1)", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+}
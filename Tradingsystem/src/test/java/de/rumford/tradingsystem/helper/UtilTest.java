@@ -282,6 +282,45 @@ class UtilTest {
 		assertEquals(expectedCause, thrown.getCause().getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
 	}
 
+	/**
+	 * Test method for {@link Util#calculateMaxDrawdown(double[])}.
+	 */
+	@Test
+	void testCalculateMaxDrawdown() {
+		double[] values = { 100, 120, 90, 110, 60, 130 };
+		double expectedValue = 0.5d;
+
+		double actualValue = Util.calculateMaxDrawdown(values);
+
+		assertEquals(expectedValue, actualValue, "Maximum drawdown is not correctly calculated");
+	}
+
+	/**
+	 * Test method for {@link Util#calculateMaxDrawdown(double[])}.
+	 */
+	@Test
+	void testCalculateMaxDrawdown_risingValues() {
+		double[] values = { 100, 110, 120 };
+		double expectedValue = 0d;
+
+		double actualValue = Util.calculateMaxDrawdown(values);
+
+		assertEquals(expectedValue, actualValue, "Maximum drawdown of rising values is not correctly calculated");
+	}
+
+	/**
+	 * Test method for {@link Util#calculateMaxDrawdown(double[])}.
+	 */
+	@Test
+	void testCalculateMaxDrawdown_null() {
+		String expectedMessage = "Given array must not be null";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> Util.calculateMaxDrawdown(null),
+		        "Null is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
 	/**
 	 * Test method for {@link Util#calculateReturn(double, double)}.
 	 */
@@ -414,6 +453,60 @@ class UtilTest {
 		assertArrayEquals(expectedValue, actualValue, "Weights for 3 equal correlations are not correctly calculated");
 	}
 
+	/**
+	 * Test method for {@link Util#calculateWeightsForCorrelations(double[][])}.
+	 */
+	@Test
+	void testCalculateWeightsForCorrelations() {
+		double[][] correlations = { { 1, .5, .6 }, { .5, 1, .4 }, { .6, .4, 1 } };
+		double[] expectedValue = Util.calculateWeightsForThreeCorrelations(new double[] { .5, .6, .4 });
+
+		double[] actualValue = Util.calculateWeightsForCorrelations(correlations);
+
+		assertArrayEquals(expectedValue, actualValue, "Weights for a correlation matrix are not correctly calculated");
+	}
+
+	/**
+	 * Test method for {@link Util#calculateWeightsForCorrelations(double[][])}.
+	 */
+	@Test
+	void testCalculateWeightsForCorrelations_fourRows() {
+		double[][] correlations = { { 1, 0, 0, 0 }, { 0, 1, .9, .9 }, { 0, .9, 1, .9 }, { 0, .9, .9, 1 } };
+		// 1 - average correlation: 1, 0.4, 0.4, 0.4; sum 2.2
+		double[] expectedValue = { 1 / 2.2, .4 / 2.2, .4 / 2.2, .4 / 2.2 };
+
+		double[] actualValue = Util.calculateWeightsForCorrelations(correlations);
+
+		assertArrayEquals(expectedValue, actualValue, 1e-12, "Weights for four rows are not correctly calculated");
+	}
+
+	/**
+	 * Test method for {@link Util#calculateWeightsForCorrelations(double[][])}.
+	 */
+	@Test
+	void testCalculateWeightsForCorrelations_allPerfectlyCorrelated() {
+		double[][] correlations = { { 1, 1 }, { 1, 1 } };
+		double[] expectedValue = { .5, .5 };
+
+		double[] actualValue = Util.calculateWeightsForCorrelations(correlations);
+
+		assertArrayEquals(expectedValue, actualValue, "Weights for perfect correlations are not correctly calculated");
+	}
+
+	/**
+	 * Test method for {@link Util#calculateWeightsForCorrelations(double[][])}.
+	 */
+	@Test
+	void testCalculateWeightsForCorrelations_notSquare() {
+		double[][] correlations = { { 1, 1 }, { 1 } };
+		String expectedMessage = "Correlation matrix must be square, but row 1 is not";
+
+		Exception thrown = assertThrows(IllegalArgumentException.class,
+		        () -> Util.calculateWeightsForCorrelations(correlations), "Non-square matrix is not properly handled");
+
+		assertEquals(expectedMessage, thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
 	/**
 	 * Test method for {@link Util#getPositionFromForecast(double)}.
 	 */
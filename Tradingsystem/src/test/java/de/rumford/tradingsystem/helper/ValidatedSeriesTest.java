@@ -0,0 +1,133 @@
+package de.rumford.tradingsystem.helper;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import de.rumford.tradingsystem.BaseValue;
+
+/**
+ * Test class for {@link ValidatedSeries}.
+ * 
+ * @author Max Rumford
+ */
+class ValidatedSeriesTest {
+
+	static final String MESSAGE_INCORRECT_EXCEPTION_MESSAGE = "Incorrect Exception message";
+	static final int NUMBER_OF_VALUES = 100;
+
+	/**
+	 * Test method for {@link ValidatedSeries#of(ValueDateTupel[])}.
+	 */
+	@Test
+	void testOf() {
+		ValueDateTupel[] values = AppendableSeriesTest.createValues(NUMBER_OF_VALUES);
+
+		ValidatedSeries series = ValidatedSeries.of(values);
+
+		assertArrayEquals(values, series.toArray(), "Values are not correctly returned");
+		assertEquals(NUMBER_OF_VALUES, series.size(), "Size is not correct");
+		assertEquals(values[NUMBER_OF_VALUES - 1].getDate(), series.getDate(NUMBER_OF_VALUES - 1),
+		        "Date is not correctly returned");
+		assertEquals(values[NUMBER_OF_VALUES - 1].getValue(), series.getValue(NUMBER_OF_VALUES - 1),
+		        "Value is not correctly returned");
+	}
+
+	/**
+	 * Test method for {@link ValidatedSeries#of(ValueDateTupel[])}.
+	 */
+	@Test
+	void testOf_valuesAlteredAfterCreation() {
+		ValueDateTupel[] values = AppendableSeriesTest.createValues(NUMBER_OF_VALUES);
+		ValueDateTupel[] expectedValues = AppendableSeriesTest.createValues(NUMBER_OF_VALUES);
+		ValidatedSeries series = ValidatedSeries.of(values);
+
+		values[0].setValue(Double.NaN);
+		values[1] = null;
+		series.toArray()[2].setValue(Double.NaN);
+		series.toArray()[3] = null;
+
+		assertArrayEquals(expectedValues, series.toArray(), "Values are altered from outside the series");
+	}
+
+	/**
+	 * Test method for {@link ValidatedSeries#of(ValueDateTupel[])}.
+	 */
+	@Test
+	void testOf_nan() {
+		ValueDateTupel[] values = AppendableSeriesTest.createValues(NUMBER_OF_VALUES);
+		values[NUMBER_OF_VALUES / 2].setValue(Double.NaN);
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> ValidatedSeries.of(values));
+
+		assertEquals("Given values must not contain NaN.", thrown.getMessage(), MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link ValidatedSeries#of(ValueDateTupel[])}.
+	 */
+	@Test
+	void testOf_notSorted() {
+		ValueDateTupel[] values = AppendableSeriesTest.createValues(NUMBER_OF_VALUES);
+		ValueDateTupel swapped = values[1];
+		values[1] = values[2];
+		values[2] = swapped;
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> ValidatedSeries.of(values));
+
+		assertEquals("Given values are not properly sorted or there are non-unique values.", thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link ValidatedSeries#getPosition(LocalDateTime)}.
+	 */
+	@Test
+	void testGetPosition() {
+		ValueDateTupel[] values = AppendableSeriesTest.createValues(NUMBER_OF_VALUES);
+		ValidatedSeries series = ValidatedSeries.of(values);
+
+		for (int i = 0; i < NUMBER_OF_VALUES; i++)
+			assertEquals(i, series.getPosition(values[i].getDate()), "Position is not correctly found");
+		assertTrue(series.getPosition(values[0].getDate().minusMinutes(1)) < 0, "Date before series is found");
+		assertFalse(series.containsDate(values[NUMBER_OF_VALUES - 1].getDate().plusMinutes(1)),
+		        "Date after series is found");
+	}
+
+	/**
+	 * Test method for {@link ValidatedSeries#getValue(int)}.
+	 */
+	@Test
+	void testGetValue_outOfBounds() {
+		ValidatedSeries series = ValidatedSeries.of(AppendableSeriesTest.createValues(3));
+
+		Exception thrown = assertThrows(IllegalArgumentException.class, () -> series.getValue(3));
+
+		assertEquals("Position must be at least 0 and less than 3 but is 3", thrown.getMessage(),
+		        MESSAGE_INCORRECT_EXCEPTION_MESSAGE);
+	}
+
+	/**
+	 * Test method for {@link BaseValue#getValidatedValues()} after a value was appended.
+	 */
+	@Test
+	void testBaseValueGetValidatedValues_append() {
+		ValueDateTupel[] values = new SyntheticSeriesGenerator(42, NUMBER_OF_VALUES)
+		        .generate(SyntheticSeriesGenerator.Series.BASE_VALUES);
+		BaseValue baseValue = new BaseValue("My base value", values);
+		ValidatedSeries validatedValues = baseValue.getValidatedValues();
+
+		baseValue.append(new ValueDateTupel(values[NUMBER_OF_VALUES - 1].getDate().plusDays(1), 100));
+
+		assertArrayEquals(values, validatedValues.toArray(), "Values given upon instantiation are not used");
+		assertNotSame(validatedValues, baseValue.getValidatedValues(), "Appended value is not considered");
+		assertEquals(NUMBER_OF_VALUES + 1, baseValue.getValidatedValues().size(), "Appended value is missing");
+	}
+}